@@ -72,7 +72,11 @@ public class BenchRunner {
     protected Context context;
 
     protected BenchRunner() {
-        this.context = Context.newBuilder().allowIO(true).build();
+        this(Context.newBuilder().allowIO(true));
+    }
+
+    protected BenchRunner(Context.Builder contextBuilder) {
+        this.context = contextBuilder.build();
     }
 
     public static void main(String[] args) throws RunnerException {
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.benchmarks.interop;
+
+import java.io.File;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Runs one of the thread scaling workloads of {@code python/scaling/scaling_bench.py} at 1, 2, 4,
+ * 8 and 16 threads. The arguments are the workload name, the operations per thread and the maximal
+ * thread count.
+ */
+public class PyThreadScaling extends BenchRunner {
+
+    @Param({"list-append"}) public String arg1;
+    @Param({"200000"}) public int arg2;
+    @Param({"16"}) public int arg3;
+
+    private Value measureScaling;
+
+    public PyThreadScaling() {
+        super(Context.newBuilder().allowIO(true).allowCreateThread(true).allowExperimentalOptions(true).option("python.WithThread", "true"));
+    }
+
+    @Setup
+    public void setup() {
+        System.out.println("### setup ...");
+        String home = System.getProperty("org.graalvm.language.python.home");
+        File scalingDir = new File(home, String.join(File.separator, "com.oracle.graal.python.benchmarks", "python", "scaling"));
+        this.context.eval("python", "lambda path: __import__('sys').path.insert(0, path)").execute(scalingDir.getAbsolutePath());
+        this.measureScaling = this.context.eval("python", //
+                        "import scaling_bench\n" + //
+                                        "scaling_bench.measure_scaling");
+    }
+
+    @Benchmark
+    public void scaling(Blackhole bh) {
+        bh.consume(measureScaling.execute(arg1, arg2, arg3));
+    }
+}
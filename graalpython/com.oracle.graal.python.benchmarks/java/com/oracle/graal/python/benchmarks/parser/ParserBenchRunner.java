@@ -120,6 +120,7 @@ public class ParserBenchRunner {
         int warmup = WARMUP_ITERATIONS;
         int numberOfCycles = NUMBER_OF_CYCLES;
         boolean folderRecursion = false;
+        boolean llPredictionOnly = false;
         String files = "";
         String excludedFiles = "";
         boolean excluded = false;
@@ -136,6 +137,8 @@ public class ParserBenchRunner {
                 numberOfCycles = Integer.valueOf(args[i]);
             } else if (arg.contentEquals("-r")) {
                 folderRecursion = true;
+            } else if (arg.contentEquals("-ll")) {
+                llPredictionOnly = true;
             } else if (arg.contentEquals("-e")) {
                 excluded = true;
             } else {
@@ -159,6 +162,9 @@ public class ParserBenchRunner {
         options = options.param("recursion", folderRecursion ? "true" : "false");
         options = options.param("files", files);
         options = options.param("excludedFiles", excludedFiles);
+        if (llPredictionOnly) {
+            options = options.jvmArgsAppend("-Dpolyglot.python.ParserSLLPrediction=false");
+        }
         Options opt = options.forks(1).build();
         new Runner(opt, new BenchOutputFormat(System.out, VerboseMode.SILENT, benchName)).run();
     }
@@ -1,4 +1,4 @@
-# Copyright (c) 2018, 2021, Oracle and/or its affiliates. All rights reserved.
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
 # DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
 #
 # The Universal Permissive License (UPL), Version 1.0
@@ -36,24 +36,24 @@
 # LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
 # OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 # SOFTWARE.
+import hashlib
+import hmac
 
 
-def _sort(self, key=None, reverse=False):
-    if reverse:
-        if key:
-            lt = lambda a,b: key(a) > key(b)
-        else:
-            lt = lambda a,b: a > b
-    else:
-        if key:
-            lt = lambda a,b: key(a) < key(b)
-        else:
-            lt = lambda a,b: a < b
-    origLen = len(self)
-    TimSort(self, lt=lt).sort()
-    if(origLen != len(self)):
-        raise ValueError("list modified during sort")
-    return None
+CHUNK = 16 * 1024
 
 
-list._sort = _sort
+def measure(num):
+    data = memoryview(bytearray(b'x' * CHUNK))
+    key = b'secret-key'
+    h = hashlib.sha256()
+    mac = None
+    for i in range(num):
+        # checksum an upload chunk by chunk and sign a small message
+        h.update(data)
+        mac = hmac.digest(key, data[:64], 'sha256')
+    print("Checksum ", h.hexdigest()[:16], mac[:4].hex())
+
+
+def __benchmark__(num=1000):
+    measure(num)
@@ -0,0 +1,78 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+
+import bisect
+import heapq
+
+
+# a priority-queue scheduler and a top-k aggregation over int, float and (priority, item) entries
+def schedule(num_tasks):
+    heap = []
+    for i in range(num_tasks):
+        heapq.heappush(heap, (i * 7919) % 1009)
+    total = 0
+    while heap:
+        total += heapq.heappop(heap)
+    entries = [((i * 31) % 97, i) for i in range(num_tasks)]
+    heapq.heapify(entries)
+    while entries:
+        total += heapq.heappop(entries)[1]
+    return total
+
+
+def top_k(num_values, k):
+    values = [((i * 2654435761) % 4294967296) / 4294967296.0 for i in range(num_values)]
+    largest = heapq.nlargest(k, values)
+    ranked = []
+    for v in largest:
+        bisect.insort(ranked, v)
+    return bisect.bisect_left(ranked, 0.5) + len(heapq.nsmallest(k, values))
+
+
+def measure(num):
+    result = 0
+    for i in range(num):
+        result += schedule(10000)
+        result += top_k(10000, 100)
+    print("Checksum ", result)
+
+
+def __benchmark__(num=100):
+    measure(num)
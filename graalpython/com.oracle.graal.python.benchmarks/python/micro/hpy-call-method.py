@@ -0,0 +1,105 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+code = """
+#define HPY_UNIVERSAL_ABI
+#include "hpy.h"
+
+#define N_DUPS 16
+
+HPyDef_METH(method_varargs, "method_varargs", method_varargs_impl, HPyFunc_VARARGS)
+static HPy method_varargs_impl(HPyContext ctx, HPy self, HPy *args, HPy_ssize_t nargs) {
+    HPy dups[N_DUPS];
+    long total = 0;
+    HPy_ssize_t i;
+
+    if (nargs != 3) {
+        HPyErr_SetString(ctx, ctx->h_TypeError, "expected 3 arguments");
+        return HPy_NULL;
+    }
+    /* keep several handles alive at the same time, like code that builds up a result does */
+    for (i = 0; i < N_DUPS; i++) {
+        dups[i] = HPy_Dup(ctx, args[i % nargs]);
+    }
+    for (i = 0; i < N_DUPS; i++) {
+        total += HPyLong_AsLong(ctx, dups[i]);
+        HPy_Close(ctx, dups[i]);
+    }
+    return HPyLong_FromLong(ctx, total);
+}
+
+static HPyDef *module_defines[] = {
+    &method_varargs,
+    NULL
+};
+
+static HPyModuleDef moduledef = {
+    HPyModuleDef_HEAD_INIT,
+    .m_name = "hpy_method_module",
+    .m_doc = "",
+    .m_size = -1,
+    .defines = module_defines
+};
+
+HPy_MODINIT(hpy_method_module)
+static HPy init_hpy_method_module_impl(HPyContext ctx) {
+    return HPyModule_Create(ctx, &moduledef);
+}
+"""
+
+
+ccompile("hpy_method_module", code)
+import hpy_method_module
+
+
+def count(num):
+    print("###### NUM: " + str(num))
+    total = 0
+    for i in range(num):
+        total += hpy_method_module.method_varargs(i, i+1, i+2)
+    return total
+
+
+def measure(num):
+    result = count(num)
+    print("result = " + str(result))
+
+
+def __benchmark__(num=1000000):
+    measure(num)
@@ -0,0 +1,94 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+
+
+import io
+import os
+import tempfile
+
+
+LINES = 20000
+
+
+def create_file():
+    fd, name = tempfile.mkstemp(suffix=".txt")
+    with os.fdopen(fd, "w", encoding="utf-8") as f:
+        for i in range(LINES):
+            f.write("line %d: the quick brown fox jumps over the lazy dog\n" % i)
+    return name
+
+
+def read_lines(name):
+    count = 0
+    length = 0
+    with open(name, "r", encoding="utf-8") as f:
+        for line in f:
+            count += 1
+            length += len(line)
+    return count + length
+
+
+def read_in_memory(data):
+    # same loop on a text wrapper around an in-memory buffer, without any file system access
+    length = 0
+    f = io.TextIOWrapper(io.BytesIO(data), encoding="utf-8")
+    line = f.readline()
+    while line:
+        length += len(line)
+        line = f.readline()
+    return length
+
+
+def measure(num):
+    name = create_file()
+    try:
+        with open(name, "rb") as f:
+            data = f.read()
+        result = 0
+        for i in range(num):
+            result += read_lines(name)
+            result += read_in_memory(data)
+        print("Checksum ", result)
+    finally:
+        os.unlink(name)
+
+
+def __benchmark__(num=50):
+    measure(num)
@@ -0,0 +1,73 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+
+
+from itertools import accumulate, chain, compress, count, cycle, islice, repeat, takewhile, zip_longest
+
+
+def pipeline(n):
+    # a typical lazy pipeline: every element passes through several itertools objects
+    selectors = cycle((1, 0, 1))
+    evens = compress(count(0, 2), selectors)
+    sums = accumulate(islice(evens, n))
+    small = takewhile(lambda x: x < 10 ** 12, sums)
+    checksum = 0
+    for a, b in zip_longest(small, repeat(1, n // 2), fillvalue=0):
+        checksum += a + b
+    return checksum
+
+
+def flatten(n):
+    checksum = 0
+    for x in chain.from_iterable(repeat(range(10), n)):
+        checksum += x
+    return checksum
+
+
+def measure(num):
+    result = 0
+    for i in range(num):
+        result += pipeline(10000)
+        result += flatten(1000)
+    print("Checksum ", result)
+
+
+def __benchmark__(num=1000):
+    measure(num)
@@ -1,4 +1,4 @@
-# Copyright (c) 2019, 2021, Oracle and/or its affiliates. All rights reserved.
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
 # DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
 #
 # The Universal Permissive License (UPL), Version 1.0
@@ -37,31 +37,23 @@
 # OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 # SOFTWARE.
 
-class Context:
-    pass
 
 
-class ContextVar:
-    def __init__(self, name, default=None):
-        self._name = name
-        self._value = default
-                
-    def get(self):
-        if self._value is None:
-            raise LookupError
-        return self._value
-    
-    def set(self, value):
-        self._value = value
-        
-    def reset(self, token):
-        pass
+def make_data(n):
+    data = [((i * 7919) % 100003) / 3.0 for i in range(n)]
+    return data + [i * 0.5 for i in range(n // 4)]
 
 
-class Token:
-    pass
+def measure(num):
+    data = make_data(200000)
+    checksum = 0.0
+    for i in range(num):
+        lst = list(data)
+        lst.sort()
+        checksum += lst[0] + lst[-1] + lst[len(lst) // 2]
+        checksum += sorted(data, reverse=True)[0]
+    print("Checksum ", checksum)
 
 
-def copy_context():
-    raise NotImplementedError
-
+def __benchmark__(num=100):
+    measure(num)
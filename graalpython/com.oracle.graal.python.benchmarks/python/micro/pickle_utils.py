@@ -48,13 +48,15 @@ def get_pickler(module):
     print(">>> using the {} pickler ... ".format(module))
     dumps, loads = None, None
     if module == "pickle":
+        # the pure-Python implementation
         import pickle
-        dumps = pickle.dumps
-        loads = pickle.loads
+        dumps = pickle._dumps
+        loads = pickle._loads
     elif module == "cPickle":
-        import cPickle
-        dumps = cPickle.dumps
-        loads = cPickle.loads
+        # the Java implementation of the '_pickle' module
+        import _pickle
+        dumps = _pickle.dumps
+        loads = _pickle.loads
     return dumps, loads
 
 
@@ -0,0 +1,99 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+
+
+import queue
+import threading
+
+
+# several producers and consumers sharing a single queue, like the job dispatch of a thread pool
+PRODUCERS = 4
+CONSUMERS = 4
+ITEMS_PER_PRODUCER = 2500
+
+
+def produce(q):
+    for i in range(ITEMS_PER_PRODUCER):
+        q.put(i)
+
+
+def consume(q, results, idx):
+    total = 0
+    while True:
+        item = q.get()
+        if item is None:
+            break
+        total += item
+    results[idx] = total
+
+
+def check_threads():
+    # without real threads (e.g. GraalPython without --python.WithThread=true), Thread.start() runs
+    # the target synchronously and the consumers would wait forever for their end marker
+    idents = []
+    t = threading.Thread(target=lambda: idents.append(threading.get_ident()))
+    t.start()
+    t.join()
+    if idents[0] == threading.get_ident():
+        raise RuntimeError("queue-producer-consumer needs real threads")
+
+
+def measure(num):
+    check_threads()
+    result = 0
+    for i in range(num):
+        q = queue.SimpleQueue()
+        results = [0] * CONSUMERS
+        consumers = [threading.Thread(target=consume, args=(q, results, j)) for j in range(CONSUMERS)]
+        producers = [threading.Thread(target=produce, args=(q,)) for j in range(PRODUCERS)]
+        for t in producers + consumers:
+            t.start()
+        for t in producers:
+            t.join()
+        for t in consumers:
+            q.put(None)
+        for t in consumers:
+            t.join()
+        result += sum(results)
+    print("Checksum ", result)
+
+
+def __benchmark__(num=100):
+    measure(num)
@@ -0,0 +1,94 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+
+import threading
+
+
+# each thread raises, catches and inspects exceptions, which reads and writes the exception state
+# of its own thread; a second thread is always started so that the context runs multi-threaded
+THREADS = 4
+ITERATIONS = 50000
+
+
+class BenchError(Exception):
+    pass
+
+
+def raise_error(i):
+    raise BenchError(i)
+
+
+def work(results, idx):
+    total = 0
+    for i in range(ITERATIONS):
+        try:
+            raise_error(i)
+        except BenchError as e:
+            total += e.args[0]
+    results[idx] = total
+
+
+def check_threads():
+    # without real threads (e.g. GraalPython without --python.WithThread=true), Thread.start() runs
+    # the target synchronously and the context never becomes multi-threaded
+    idents = []
+    t = threading.Thread(target=lambda: idents.append(threading.get_ident()))
+    t.start()
+    t.join()
+    if idents[0] == threading.get_ident():
+        raise RuntimeError("threads-exception-state needs real threads")
+
+
+def measure(num):
+    check_threads()
+    result = 0
+    for i in range(num):
+        results = [0] * THREADS
+        threads = [threading.Thread(target=work, args=(results, j)) for j in range(THREADS)]
+        for t in threads:
+            t.start()
+        for t in threads:
+            t.join()
+        result += sum(results)
+    print("Checksum ", result)
+
+
+def __benchmark__(num=20):
+    measure(num)
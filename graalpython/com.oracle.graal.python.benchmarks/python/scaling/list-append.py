@@ -1,4 +1,4 @@
-# Copyright (c) 2020, 2021, Oracle and/or its affiliates. All rights reserved.
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
 # DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
 #
 # The Universal Permissive License (UPL), Version 1.0
@@ -37,10 +37,8 @@
 # OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 # SOFTWARE.
 
+import scaling_bench
 
-__graalpython__.import_current_as_named_module_with_delegate(
-    module_name="_struct",
-    delegate_name="_cpython_struct",
-    delegate_attributes=['Struct', 'StructError', '_clearcache', 'calcsize', 'error', 'iter_unpack', 'pack',
-                         'pack_into', 'unpack', 'unpack_from'],
-    owner_globals=globals())
+
+def __benchmark__(ops=200000, max_threads=16):
+    scaling_bench.measure_scaling("list-append", ops, max_threads)
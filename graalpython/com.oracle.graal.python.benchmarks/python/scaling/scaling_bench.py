@@ -0,0 +1,205 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+# Shared driver of the thread scaling benchmarks. Every workload runs with each thread count in
+# THREAD_COUNTS, each thread doing the same number of operations (weak scaling). For every thread
+# count, the throughput in operations per second and the scaling efficiency, i.e., the throughput
+# relative to the single-threaded throughput times the number of threads, are printed in a form
+# that is picked up by the benchmark suites in mx_graalpython_benchmark.py.
+
+import queue
+import threading
+from time import time
+
+
+THREAD_COUNTS = (1, 2, 4, 8, 16)
+
+# the size of the key space of the dict workload, so that the dict stops growing after a while
+DICT_KEYS = 1024
+
+
+def _setup_shared_nothing(num_threads):
+    return [[] for i in range(num_threads)]
+
+
+def _shared_nothing(shared, idx, ops):
+    # only touches objects owned by the thread
+    lst = shared[idx]
+    total = 0
+    for i in range(ops):
+        lst.append(i)
+        total += lst[-1] % 7
+        if len(lst) > 64:
+            lst.clear()
+    lst.append(total)
+
+
+def _check_shared_nothing(shared, num_threads, ops):
+    assert len(shared) == num_threads
+
+
+def _setup_list_append(num_threads):
+    return []
+
+
+def _list_append(shared, idx, ops):
+    append = shared.append
+    for i in range(ops):
+        append(i)
+
+
+def _check_list_append(shared, num_threads, ops):
+    assert len(shared) == num_threads * ops, "lost list appends: %d != %d" % (len(shared), num_threads * ops)
+
+
+def _setup_dict_update(num_threads):
+    return {}
+
+
+def _dict_update(shared, idx, ops):
+    for i in range(ops):
+        key = (i * 31 + idx) % DICT_KEYS
+        shared[key] = shared.get(key, 0) + 1
+
+
+def _check_dict_update(shared, num_threads, ops):
+    assert len(shared) <= DICT_KEYS
+
+
+def _setup_lock(num_threads):
+    return [threading.Lock(), 0]
+
+
+def _setup_rlock(num_threads):
+    return [threading.RLock(), 0]
+
+
+def _lock_pingpong(shared, idx, ops):
+    # all threads hand a single lock back and forth
+    lock = shared[0]
+    for i in range(ops):
+        with lock:
+            shared[1] += 1
+
+
+def _check_lock_pingpong(shared, num_threads, ops):
+    assert shared[1] == num_threads * ops, "lost updates under lock: %d != %d" % (shared[1], num_threads * ops)
+
+
+def _setup_queue_handoff(num_threads):
+    return queue.SimpleQueue()
+
+
+def _queue_handoff(shared, idx, ops):
+    # every item a thread puts may be taken by any other thread
+    put = shared.put
+    get = shared.get
+    for i in range(ops):
+        put(i)
+        get()
+
+
+def _check_queue_handoff(shared, num_threads, ops):
+    assert shared.empty()
+
+
+WORKLOADS = {
+    "shared-nothing": (_setup_shared_nothing, _shared_nothing, _check_shared_nothing),
+    "list-append": (_setup_list_append, _list_append, _check_list_append),
+    "dict-update": (_setup_dict_update, _dict_update, _check_dict_update),
+    "lock-pingpong": (_setup_lock, _lock_pingpong, _check_lock_pingpong),
+    "rlock-pingpong": (_setup_rlock, _lock_pingpong, _check_lock_pingpong),
+    "queue-handoff": (_setup_queue_handoff, _queue_handoff, _check_queue_handoff),
+}
+
+
+def run(name, num_threads, ops):
+    """
+    Runs the workload 'name' on 'num_threads' threads that each do 'ops' operations and returns the
+    elapsed time in seconds. The threads wait on a barrier, so thread start-up is not measured.
+    """
+    setup, work, check = WORKLOADS[name]
+    shared = setup(num_threads)
+    barrier = threading.Barrier(num_threads + 1)
+
+    def target(idx):
+        barrier.wait()
+        work(shared, idx, ops)
+
+    threads = [threading.Thread(target=target, args=(i,)) for i in range(num_threads)]
+    for t in threads:
+        t.start()
+    barrier.wait()
+    start = time()
+    for t in threads:
+        t.join()
+    elapsed = time() - start
+    check(shared, num_threads, ops)
+    return elapsed
+
+
+def _check_real_threads():
+    # without --python.WithThread=true, GraalPython replaces _thread with _dummy_thread, which runs
+    # each thread synchronously in start(); the first barrier.wait() in run() would then never return
+    idents = []
+    t = threading.Thread(target=lambda: idents.append(threading.get_ident()))
+    t.start()
+    t.join()
+    assert idents[0] != threading.get_ident(), "_thread is _dummy_thread, the scaling benchmarks need real threads"
+
+
+_iteration = 0
+
+
+def measure_scaling(name, ops, max_threads=THREAD_COUNTS[-1]):
+    global _iteration
+    if _iteration == 0:
+        _check_real_threads()
+    base_throughput = -1.0
+    for num_threads in THREAD_COUNTS:
+        if num_threads > max_threads:
+            break
+        elapsed = max(run(name, num_threads, ops), 1e-9)
+        throughput = num_threads * ops / elapsed
+        if base_throughput < 0:
+            base_throughput = throughput / num_threads
+        efficiency = throughput / (num_threads * base_throughput)
+        print("### scaling iteration=%d, name=%s, threads=%d, throughput=%.1f, efficiency=%.3f" % (
+            _iteration, name, num_threads, throughput, efficiency))
+    _iteration += 1
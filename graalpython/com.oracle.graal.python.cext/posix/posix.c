@@ -51,10 +51,21 @@
 #include <dirent.h>
 #include <errno.h>
 #include <fcntl.h>
+#include <poll.h>
 #include <stdio.h>
 #include <stdint.h>
+#include <stdlib.h>
 #include <string.h>
+#ifdef __linux__
+#include <sys/epoll.h>
+#endif
 #include <sys/ioctl.h>
+#if defined(__linux__)
+#include <sys/sendfile.h>
+#elif defined(__APPLE__)
+#include <sys/socket.h>
+#include <sys/uio.h>
+#endif
 #include <sys/stat.h>
 #include <sys/select.h>
 #include <sys/types.h>
@@ -125,6 +136,35 @@ int64_t call_write(int32_t fd, void *buf, uint64_t count) {
     return write(fd, buf, count);
 }
 
+int64_t call_readinto(int32_t fd, void *buf, uint64_t offset, uint64_t count) {
+    return read(fd, (char *) buf + offset, count);
+}
+
+int64_t call_pread(int32_t fd, void *buf, uint64_t offset, uint64_t count, int64_t pos) {
+    return pread(fd, (char *) buf + offset, count, pos);
+}
+
+int64_t call_pwrite(int32_t fd, void *buf, uint64_t offset, uint64_t count, int64_t pos) {
+    return pwrite(fd, (char *) buf + offset, count, pos);
+}
+
+int64_t call_sendfile(int32_t out_fd, int32_t in_fd, int64_t offset, int64_t count) {
+#if defined(__linux__)
+    off_t off = offset;
+    return sendfile(out_fd, in_fd, &off, count);
+#elif defined(__APPLE__)
+    off_t len = count;
+    // on partial writes (e.g. EAGAIN) 'len' still holds the number of bytes sent
+    if (sendfile(in_fd, out_fd, offset, &len, NULL, 0) == -1 && len == 0) {
+        return -1;
+    }
+    return len;
+#else
+    errno = ENOSYS;
+    return -1;
+#endif
+}
+
 int32_t call_dup(int32_t fd) {
     return fcntl(fd, F_DUPFD_CLOEXEC, 0);
 }
@@ -194,7 +234,7 @@ int32_t call_select(int32_t nfds, int32_t* readfds, int32_t readfdsLen,
 
     struct timeval timeout = {timeoutSec, timeoutUsec};
 
-    int result = select(nfds, &readfdsSet, &writefdsSet, &errfdsSet, timeoutSec > 0 ? &timeout : NULL);
+    int result = select(nfds, &readfdsSet, &writefdsSet, &errfdsSet, timeoutSec >= 0 ? &timeout : NULL);
 
     // fill in the output parameter
     fill_select_result(readfds, readfdsLen, &readfdsSet, selected, 0);
@@ -203,6 +243,73 @@ int32_t call_select(int32_t nfds, int32_t* readfds, int32_t readfdsLen,
     return (int32_t) result;
 }
 
+// revents is output parameter, receives the returned events of the
+// file descriptor at the same index in fds
+int32_t call_poll(int32_t *fds, int32_t *events, int32_t *revents, int32_t nfds, int32_t timeout) {
+    struct pollfd *pfds = (struct pollfd *) malloc(nfds * sizeof(struct pollfd));
+    if (pfds == NULL && nfds > 0) {
+        errno = ENOMEM;
+        return -1;
+    }
+    for (int32_t i = 0; i < nfds; ++i) {
+        pfds[i].fd = fds[i];
+        pfds[i].events = (short) events[i];
+        pfds[i].revents = 0;
+    }
+    int result = poll(pfds, nfds, timeout);
+    if (result >= 0) {
+        for (int32_t i = 0; i < nfds; ++i) {
+            revents[i] = pfds[i].revents;
+        }
+    }
+    free(pfds);
+    return (int32_t) result;
+}
+
+#ifdef __linux__
+int32_t call_epoll_create() {
+    return epoll_create1(EPOLL_CLOEXEC);
+}
+
+int32_t call_epoll_ctl(int32_t epfd, int32_t op, int32_t fd, int32_t events) {
+    struct epoll_event ev;
+    ev.events = (uint32_t) events;
+    ev.data.fd = fd;
+    return epoll_ctl(epfd, op, fd, &ev);
+}
+
+// fds and events are output parameters, maxevents is their length
+int32_t call_epoll_wait(int32_t epfd, int32_t *fds, int32_t *events, int32_t maxevents, int32_t timeout) {
+    struct epoll_event *evs = (struct epoll_event *) malloc(maxevents * sizeof(struct epoll_event));
+    if (evs == NULL) {
+        errno = ENOMEM;
+        return -1;
+    }
+    int result = epoll_wait(epfd, evs, maxevents, timeout);
+    for (int i = 0; i < result; ++i) {
+        fds[i] = evs[i].data.fd;
+        events[i] = (int32_t) evs[i].events;
+    }
+    free(evs);
+    return (int32_t) result;
+}
+#else
+int32_t call_epoll_create() {
+    errno = ENOSYS;
+    return -1;
+}
+
+int32_t call_epoll_ctl(int32_t epfd, int32_t op, int32_t fd, int32_t events) {
+    errno = ENOSYS;
+    return -1;
+}
+
+int32_t call_epoll_wait(int32_t epfd, int32_t *fds, int32_t *events, int32_t maxevents, int32_t timeout) {
+    errno = ENOSYS;
+    return -1;
+}
+#endif
+
 int64_t call_lseek(int32_t fd, int64_t offset, int32_t whence) {
     return lseek(fd, offset, whence);
 }
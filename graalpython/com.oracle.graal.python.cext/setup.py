@@ -363,7 +363,6 @@ builtin_exts = (
     NativeBuiltinModule("_cpython_sre"),
     NativeBuiltinModule("_cpython_unicodedata"),
     NativeBuiltinModule("_mmap"),
-    NativeBuiltinModule("_cpython_struct"),
     NativeBuiltinModule("_testcapi"),
     NativeBuiltinModule("_testmultiphase"),
     # the above modules are more core, we need them first to deal with later, more complex modules with dependencies
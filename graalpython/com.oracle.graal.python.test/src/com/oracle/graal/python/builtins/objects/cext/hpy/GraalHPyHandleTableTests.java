@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.cext.hpy;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.graal.python.builtins.objects.cext.hpy.GraalHPyHandleTable.HandleCache;
+import com.oracle.graal.python.test.PythonTests;
+
+public class GraalHPyHandleTableTests {
+
+    private static final int THREADS = 4;
+    private static final int ROUNDS = 200;
+    // more than a segment, so that the table grows while the threads are running
+    private static final int HANDLES_PER_ROUND = 1500;
+
+    @Before
+    public void setUp() {
+        PythonTests.enterContext();
+    }
+
+    @Test
+    public void testSingleThreaded() {
+        GraalHPyHandleTable table = new GraalHPyHandleTable();
+        allocateAndRelease(table, null, 1);
+        HandleCache cache = new HandleCache();
+        allocateAndRelease(table, cache, 1);
+        table.releaseAll(cache);
+        allocateAndRelease(table, null, 1);
+    }
+
+    /**
+     * One thread uses the shared free stack, like a thread that still sees the context as
+     * single-threaded, while the others use their own caches.
+     */
+    @Test
+    public void testMultiThreaded() throws Throwable {
+        GraalHPyHandleTable table = new GraalHPyHandleTable();
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            boolean shared = i == 0;
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                    HandleCache cache = shared ? null : new HandleCache();
+                    allocateAndRelease(table, cache, ROUNDS);
+                    if (cache != null) {
+                        table.releaseAll(cache);
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    /**
+     * Allocates handles and checks that no other thread got the same handle while they are in use.
+     */
+    private static void allocateAndRelease(GraalHPyHandleTable table, HandleCache cache, int rounds) {
+        int[] handles = new int[HANDLES_PER_ROUND];
+        GraalHPyHandle[] objects = new GraalHPyHandle[HANDLES_PER_ROUND];
+        for (int i = 0; i < HANDLES_PER_ROUND; i++) {
+            objects[i] = new GraalHPyHandle(i);
+        }
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < HANDLES_PER_ROUND; i++) {
+                int handle = cache == null ? table.allocate() : table.allocate(cache);
+                assertNull(table.get(handle));
+                table.set(handle, objects[i]);
+                handles[i] = handle;
+            }
+            for (int i = 0; i < HANDLES_PER_ROUND; i++) {
+                assertSame(objects[i], table.get(handles[i]));
+                table.set(handles[i], null);
+                if (cache == null) {
+                    table.release(handles[i]);
+                } else {
+                    table.release(cache, handles[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.advance;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.parser.ImportPrefetcher;
+
+public class ImportPrefetchTest {
+
+    private static Context newContext() {
+        return Context.newBuilder("python").allowExperimentalOptions(true).allowAllAccess(true).option("python.WithThread", "true").option("python.PrefetchImportThreads", "2").build();
+    }
+
+    private static void write(Path dir, String name, String code) throws IOException {
+        Files.write(dir.resolve(name), code.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void addToPath(Context context, Path dir) {
+        String path = dir.toAbsolutePath().toString().replace("\\", "\\\\");
+        context.eval("python", "import sys\n" +
+                        "sys.dont_write_bytecode = True\n" +
+                        "sys.path.insert(0, '" + path + "')\n");
+    }
+
+    @Test
+    public void testImportChain() throws IOException {
+        Path dir = Files.createTempDirectory("prefetch");
+        write(dir, "prefetch_a.py", "import prefetch_b\nx = prefetch_b.y + 1\n");
+        write(dir, "prefetch_b.py", "from prefetch_c import z\ny = z * 2\n");
+        write(dir, "prefetch_c.py", "z = 20");
+        try (Context context = newContext()) {
+            addToPath(context, dir);
+            assertEquals(41, context.eval("python", "import prefetch_a\nprefetch_a.x").asInt());
+        }
+    }
+
+    @Test
+    public void testPrefetchedCodeUsed() throws IOException {
+        Path dir = Files.createTempDirectory("prefetch");
+        // the sleep gives the background thread time to parse prefetch_used before it is imported
+        write(dir, "prefetch_used_outer.py", "import time\ntime.sleep(1)\nimport prefetch_used\nx = prefetch_used.y\n");
+        write(dir, "prefetch_used.py", "y = 42\n");
+        try (Context context = newContext()) {
+            addToPath(context, dir);
+            assertEquals(42, context.eval("python", "import prefetch_used_outer\nprefetch_used_outer.x").asInt());
+            context.enter();
+            try {
+                ImportPrefetcher prefetcher = PythonLanguage.getContext().getImportPrefetcher();
+                assertNotNull(prefetcher);
+                assertTrue(prefetcher.getUsedCount() > 0);
+            } finally {
+                context.leave();
+            }
+        }
+    }
+
+    @Test
+    public void testSyntaxError() throws IOException {
+        Path dir = Files.createTempDirectory("prefetch");
+        write(dir, "prefetch_outer.py", "import prefetch_broken\n");
+        write(dir, "prefetch_broken.py", "def f(:\n    pass\n");
+        try (Context context = newContext()) {
+            addToPath(context, dir);
+            assertEquals("prefetch_broken.py", context.eval("python", "import os\n" +
+                            "try:\n" +
+                            "    import prefetch_outer\n" +
+                            "except SyntaxError as e:\n" +
+                            "    result = os.path.basename(e.filename)\n" +
+                            "result").asString());
+        }
+    }
+
+    @Test
+    public void testWarningIssuedOnce() throws IOException {
+        Path dir = Files.createTempDirectory("prefetch");
+        write(dir, "prefetch_warn_outer.py", "import prefetch_warn\n");
+        write(dir, "prefetch_warn.py", "s = '\\d'\n");
+        try (Context context = newContext()) {
+            addToPath(context, dir);
+            assertEquals(1, context.eval("python", "import warnings\n" +
+                            "with warnings.catch_warnings(record=True) as w:\n" +
+                            "    warnings.simplefilter('always')\n" +
+                            "    import prefetch_warn_outer\n" +
+                            "len([x for x in w if 'invalid escape sequence' in str(x.message)])").asInt());
+        }
+    }
+}
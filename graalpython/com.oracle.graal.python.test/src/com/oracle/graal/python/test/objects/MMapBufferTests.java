@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.objects;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyExecutable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.common.BufferStorageNodes.CopyBytesFromBuffer;
+import com.oracle.graal.python.builtins.objects.common.BufferStorageNodes.CopyBytesToBuffer;
+import com.oracle.graal.python.builtins.objects.common.BufferStorageNodesFactory.CopyBytesFromBufferNodeGen;
+import com.oracle.graal.python.builtins.objects.common.BufferStorageNodesFactory.CopyBytesToBufferNodeGen;
+import com.oracle.graal.python.builtins.objects.mmap.PMMap;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.test.PythonTests;
+
+public class MMapBufferTests extends PythonTests {
+
+    private static final int LENGTH = 16;
+
+    private Context context;
+
+    @Before
+    public void setUpTest() {
+        context = Context.newBuilder().allowExperimentalOptions(true).allowAllAccess(true).build();
+    }
+
+    @After
+    public void tearDown() {
+        context.close();
+    }
+
+    @Test
+    public void testCopyInBounds() {
+        execInContext(() -> {
+            PMMap mmap = createMMap();
+            byte[] data = {1, 2, 3, 4};
+            CopyBytesToBufferNodeGen.getUncached().execute(data, 0, mmap, LENGTH - 4, 4);
+            byte[] result = new byte[4];
+            CopyBytesFromBufferNodeGen.getUncached().execute(mmap, LENGTH - 4, result, 0, 4);
+            assertArrayEquals(data, result);
+            return null;
+        });
+    }
+
+    @Test
+    public void testCopyOutOfBounds() {
+        execInContext(() -> {
+            PMMap mmap = createMMap();
+            CopyBytesFromBuffer copyFrom = CopyBytesFromBufferNodeGen.getUncached();
+            CopyBytesToBuffer copyTo = CopyBytesToBufferNodeGen.getUncached();
+            byte[] bytes = new byte[8];
+            expectIndexError(() -> copyFrom.execute(mmap, LENGTH - 4, bytes, 0, 8));
+            expectIndexError(() -> copyFrom.execute(mmap, -1, bytes, 0, 1));
+            expectIndexError(() -> copyFrom.execute(mmap, 0, bytes, 4, 8));
+            expectIndexError(() -> copyFrom.execute(mmap, Integer.MAX_VALUE, bytes, 0, 1));
+            expectIndexError(() -> copyTo.execute(bytes, 0, mmap, LENGTH - 4, 8));
+            expectIndexError(() -> copyTo.execute(bytes, 0, mmap, -1, 1));
+            expectIndexError(() -> copyTo.execute(bytes, 4, mmap, 0, 8));
+            return null;
+        });
+    }
+
+    private static PMMap createMMap() {
+        return PythonObjectFactory.getUncached().createMMap(PythonBuiltinClassType.PMMap, null, PMMap.allocateAnonymous(LENGTH), LENGTH, 0, PMMap.ACCESS_WRITE);
+    }
+
+    private static void expectIndexError(Runnable r) {
+        try {
+            r.run();
+        } catch (PException e) {
+            assertSame(PythonBuiltinClassType.IndexError, PythonObjectLibrary.getUncached().getLazyPythonClass(e.getUnreifiedException()));
+            return;
+        }
+        fail("expected IndexError");
+    }
+
+    private void execInContext(Callable<Object> c) {
+        context.initialize("python");
+        context.getPolyglotBindings().putMember("testSymbol", (ProxyExecutable) (Value... args) -> {
+            try {
+                return c.call();
+            } catch (Exception ex) {
+                ex.printStackTrace();
+                fail();
+            }
+            return null;
+        });
+        context.getPolyglotBindings().getMember("testSymbol").execute();
+    }
+}
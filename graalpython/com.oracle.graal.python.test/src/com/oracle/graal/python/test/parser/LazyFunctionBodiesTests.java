@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+public class LazyFunctionBodiesTests {
+
+    private static Context newContext() {
+        return Context.newBuilder("python").allowExperimentalOptions(true).allowAllAccess(true).option("python.LazyFunctionBodies", "true").build();
+    }
+
+    @Test
+    public void testCall() {
+        try (Context context = newContext()) {
+            context.eval("python", "def f(a, *args, b=2):\n" +
+                            "    \"doc of f\"\n" +
+                            "    x = [i for i in args]\n" +
+                            "    return a + b + len(x)\n" +
+                            "def outer(n):\n" +
+                            "    def inner(m):\n" +
+                            "        return n * m\n" +
+                            "    return inner\n");
+            Value bindings = context.getBindings("python");
+            assertEquals("doc of f", bindings.getMember("f").getMember("__doc__").asString());
+            assertEquals(6, bindings.getMember("f").execute(1, 3, 4).asInt());
+            assertEquals(42, bindings.getMember("outer").execute(6).execute(7).asInt());
+        }
+    }
+
+    @Test
+    public void testRecursion() {
+        try (Context context = newContext()) {
+            Value result = context.eval("python", "def fib(n):\n" +
+                            "    return n if n < 2 else fib(n - 1) + fib(n - 2)\n" +
+                            "fib(20)");
+            assertEquals(6765, result.asInt());
+        }
+    }
+
+    @Test
+    public void testInspectUncalledFunction() {
+        try (Context context = newContext()) {
+            Value result = context.eval("python", "def f(*args, **kwargs):\n" +
+                            "    return 1234\n" +
+                            "(1234 in f.__code__.co_consts, f.__code__.co_flags & 0x0c == 0x0c)");
+            assertTrue(result.getArrayElement(0).asBoolean());
+            assertTrue(result.getArrayElement(1).asBoolean());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.parser;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.parser.PythonParserImpl;
+import com.oracle.graal.python.parser.PythonParserImpl.CacheItem;
+import com.oracle.graal.python.parser.PythonSSTNodeFactory;
+import com.oracle.graal.python.runtime.PythonParser.ErrorType;
+import com.oracle.graal.python.runtime.PythonParser.ParserErrorCallback;
+import com.oracle.graal.python.runtime.PythonParser.ParserMode;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.test.PythonTests;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.source.SourceSection;
+
+public class SLLPredictionTests extends ParserTestBase {
+
+    private static final String CODE = "def f(a, *args, b=2):\n" +
+                    "    return [i for i in args if i != '\\d']\n";
+
+    @Test
+    public void testSameResultAsLL() throws Exception {
+        CountingErrorCallback errors = new CountingErrorCallback(context.getCore());
+        byte[] sll = parseAndSerialize(errors, CODE);
+        assertEquals(1, errors.warnings);
+
+        PythonTests.enterContext(Collections.singletonMap("python.ParserSLLPrediction", "false"), new String[0]);
+        try {
+            context = PythonLanguage.getContext();
+            errors = new CountingErrorCallback(context.getCore());
+            assertArrayEquals(parseAndSerialize(errors, CODE), sll);
+            assertEquals(1, errors.warnings);
+        } finally {
+            PythonTests.enterContext();
+            context = PythonLanguage.getContext();
+        }
+    }
+
+    @Test
+    public void testWarnOnceWhenParsedAgain() throws Exception {
+        // the syntax error makes the SLL attempt fail after the warning
+        CountingErrorCallback errors = new CountingErrorCallback(context.getCore());
+        boolean thrown = false;
+        try {
+            parseAndSerialize(errors, CODE + "def g(:\n    pass\n");
+        } catch (PException e) {
+            thrown = isSyntaxError(e);
+        }
+        assertTrue("Expected SyntaxError was not thrown.", thrown);
+        assertEquals(1, errors.warnings);
+    }
+
+    private byte[] parseAndSerialize(ParserErrorCallback errors, String code) {
+        Source source = Source.newBuilder(PythonLanguage.ID, code, name.getMethodName()).build();
+        PythonParserImpl parser = (PythonParserImpl) context.getCore().getParser();
+        CacheItem result = parser.parseWithANTLR(ParserMode.File, errors, new PythonSSTNodeFactory(errors, source, parser), source, null, null);
+        return PythonParserImpl.serialize(result.getAntlrResult(), result.getGlobalScope(), true);
+    }
+
+    private static final class CountingErrorCallback implements ParserErrorCallback {
+        private final ParserErrorCallback delegate;
+        int warnings;
+
+        CountingErrorCallback(ParserErrorCallback delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public RuntimeException raise(PythonBuiltinClassType type, String message, Object... args) {
+            return delegate.raise(type, message, args);
+        }
+
+        @Override
+        public RuntimeException raiseInvalidSyntax(ErrorType type, Source source, SourceSection section, String message, Object... arguments) {
+            return delegate.raiseInvalidSyntax(type, source, section, message, arguments);
+        }
+
+        @Override
+        public RuntimeException raiseInvalidSyntax(ErrorType type, Node location, String message, Object... arguments) {
+            return delegate.raiseInvalidSyntax(type, location, message, arguments);
+        }
+
+        @Override
+        public void warn(PythonBuiltinClassType type, String format, Object... args) {
+            warnings++;
+        }
+
+        @Override
+        public PythonLanguage getLanguage() {
+            return delegate.getLanguage();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.parser;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.parser.PythonParserImpl;
+import com.oracle.graal.python.parser.PythonParserImpl.CacheItem;
+import com.oracle.graal.python.parser.SerializedSSTCache;
+import com.oracle.graal.python.runtime.PythonParser;
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.source.Source;
+
+public class SerializedSSTCacheTests extends ParserTestBase {
+
+    private static final String CODE = "import sys\n" +
+                    "def f(a, *args, b=2):\n" +
+                    "    x = [i for i in args]\n" +
+                    "    return a + b + len(x)\n" +
+                    "class C:\n" +
+                    "    def m(self):\n" +
+                    "        return f(1, 2, 3)\n";
+
+    private Path tmpDir;
+
+    @Before
+    public void setUp() throws IOException {
+        tmpDir = Files.createTempDirectory("sstcache");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        deleteRecursively(tmpDir.toFile());
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Source source = writeSource(CODE);
+        writeCache(source);
+
+        CacheItem cached = SerializedSSTCache.read(context, source);
+        assertNotNull(cached);
+        assertArrayEquals(PythonParserImpl.serialize(getLastSST(), getLastGlobalScope(), true),
+                        PythonParserImpl.serialize(cached.getAntlrResult(), cached.getGlobalScope(), true));
+    }
+
+    @Test
+    public void testSourceChanged() throws Exception {
+        writeCache(writeSource(CODE));
+
+        // same length, different text
+        Source changed = writeSource(CODE.replace("b=2", "b=3"));
+        assertNull(SerializedSSTCache.read(context, changed));
+        // different length
+        changed = writeSource(CODE + "x = 1\n");
+        assertNull(SerializedSSTCache.read(context, changed));
+    }
+
+    @Test
+    public void testTruncatedCacheFile() throws Exception {
+        Source source = writeSource(CODE);
+        writeCache(source);
+
+        Path cacheFile = getCacheFile();
+        byte[] data = Files.readAllBytes(cacheFile);
+        for (int length : new int[]{0, 3, 12, data.length / 2, data.length - 1}) {
+            Files.write(cacheFile, Arrays.copyOf(data, length));
+            assertNull(SerializedSSTCache.read(context, source));
+        }
+    }
+
+    @Test
+    public void testCorruptCacheFile() throws Exception {
+        Source source = writeSource(CODE);
+        writeCache(source);
+
+        Path cacheFile = getCacheFile();
+        byte[] data = Files.readAllBytes(cacheFile);
+        // keep the header intact, so that the corruption is only detected while deserializing
+        for (int i = 22; i < data.length; i++) {
+            data[i] = (byte) 0xff;
+        }
+        Files.write(cacheFile, data);
+        assertNull(SerializedSSTCache.read(context, source));
+
+        // after falling back to parsing, a new cache entry replaces the corrupt one
+        writeCache(source);
+        assertNotNull(SerializedSSTCache.read(context, source));
+    }
+
+    private Source writeSource(String code) throws IOException {
+        File file = tmpDir.resolve("mod.py").toFile();
+        Files.write(file.toPath(), code.getBytes(StandardCharsets.UTF_8));
+        TruffleFile src = context.getEnv().getInternalTruffleFile(file.getAbsolutePath());
+        return PythonLanguage.newSource(context, src, "mod");
+    }
+
+    private void writeCache(Source source) {
+        parse(source, PythonParser.ParserMode.File);
+        SerializedSSTCache.write(context, source, getLastSST(), getLastGlobalScope());
+        getCacheFile();
+    }
+
+    private Path getCacheFile() {
+        File[] files = tmpDir.resolve("__pycache__").toFile().listFiles((dir, name) -> name.startsWith("mod.") && name.endsWith(".sst"));
+        assertNotNull(files);
+        assertEquals(1, files.length);
+        return files[0].toPath();
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -573,6 +573,35 @@ class TestObject(object):
         assert tester.replace("o", "uff") == "helluff\nwuffrld"
         assert tester.replace("o", "uff", 1) == "helluff\nworld"
 
+    def test_many_distinct_objects(self):
+        TestManyObjects = CPyExtType("TestManyObjects",
+                             """
+                             PyObject* count_true(PyObject* self, PyObject* list) {
+                                 Py_ssize_t n = PyList_Size(list);
+                                 long count = 0;
+                                 for (Py_ssize_t i = 0; i < n; i++) {
+                                     int res = PyObject_IsTrue(PyList_GetItem(list, i));
+                                     if (res < 0) {
+                                         return NULL;
+                                     }
+                                     count += res;
+                                 }
+                                 return PyLong_FromLong(count);
+                             }
+                             """,
+                             tp_methods='{"count_true", (PyCFunction)count_true, METH_O, ""}'
+        )
+        tester = TestManyObjects()
+        items = [[i % 2] for i in range(100)]
+        assert tester.count_true(items) == 100
+        if GRAALPYTHON:
+            hits, misses = __graalpython__.handle_cache_stats()
+            assert isinstance(hits, int) and isinstance(misses, int)
+        assert tester.count_true(items) == 100
+        if GRAALPYTHON:
+            assert __graalpython__.handle_cache_stats()[0] > hits
+
+
 class TestObjectFunctions(CPyExtTestCase):
     def compile_module(self, name):
         type(self).mro()[1].__dict__["test_%s" % name].create_module(name)
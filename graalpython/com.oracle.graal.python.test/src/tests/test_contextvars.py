@@ -0,0 +1,164 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+import contextvars
+import threading
+
+
+def test_get_set_reset():
+    var = contextvars.ContextVar("var")
+    try:
+        var.get()
+    except LookupError:
+        pass
+    else:
+        assert False, "expected LookupError"
+    assert var.get(42) == 42
+    token = var.set(1)
+    assert var.get() == 1
+    assert token.var is var
+    assert token.old_value is contextvars.Token.MISSING
+    token2 = var.set(2)
+    assert token2.old_value == 1
+    var.reset(token2)
+    assert var.get() == 1
+    var.reset(token)
+    assert var.get("default") == "default"
+    try:
+        var.reset(token)
+    except RuntimeError:
+        pass
+    else:
+        assert False, "expected RuntimeError"
+
+
+def test_default():
+    var = contextvars.ContextVar("var", default="d")
+    assert var.name == "var"
+    assert var.get() == "d"
+    assert var.get("x") == "x"
+    assert "default='d'" in repr(var)
+
+
+def test_copy_context_is_isolated():
+    var = contextvars.ContextVar("var", default=0)
+    var.set(1)
+    ctx = contextvars.copy_context()
+    assert ctx[var] == 1
+    assert var in ctx
+    assert len(ctx) >= 1
+
+    def change():
+        var.set(2)
+        return var.get()
+
+    assert ctx.run(change) == 2
+    assert ctx[var] == 2
+    assert var.get() == 1
+
+
+def test_run_reentrant():
+    ctx = contextvars.Context()
+    assert len(ctx) == 0
+
+    def enter_again():
+        ctx.run(lambda: None)
+
+    try:
+        ctx.run(enter_again)
+    except RuntimeError:
+        pass
+    else:
+        assert False, "expected RuntimeError"
+
+
+def test_reset_in_other_context():
+    var = contextvars.ContextVar("var")
+    token = contextvars.Context().run(var.set, 1)
+    try:
+        var.reset(token)
+    except ValueError:
+        pass
+    else:
+        assert False, "expected ValueError"
+
+
+def test_mapping():
+    a = contextvars.ContextVar("a")
+    b = contextvars.ContextVar("b")
+    ctx = contextvars.Context()
+
+    def fill():
+        a.set(1)
+        b.set(2)
+
+    ctx.run(fill)
+    assert set(ctx.keys()) == {a, b}
+    assert sorted(ctx.values()) == [1, 2]
+    assert dict(ctx.items()) == {a: 1, b: 2}
+    assert set(iter(ctx)) == {a, b}
+    assert ctx.get(a) == 1
+    assert ctx.get(contextvars.ContextVar("c"), 3) == 3
+
+
+def test_many_vars():
+    variables = [contextvars.ContextVar("v%d" % i) for i in range(1000)]
+    ctx = contextvars.Context()
+
+    def fill():
+        for i, v in enumerate(variables):
+            v.set(i)
+        tokens = [v.set(-1) for v in variables[::2]]
+        for v, t in zip(variables[::2], tokens):
+            v.reset(t)
+
+    ctx.run(fill)
+    assert len(ctx) == 1000
+    for i, v in enumerate(variables):
+        assert ctx[v] == i
+
+
+def test_thread_local():
+    var = contextvars.ContextVar("var", default="main")
+    var.set("set in main")
+    result = []
+    t = threading.Thread(target=lambda: result.append(var.get()))
+    t.start()
+    t.join()
+    assert result == ["main"]
+    assert var.get() == "set in main"
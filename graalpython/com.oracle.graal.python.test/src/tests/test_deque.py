@@ -629,3 +629,45 @@ class TestBasic(unittest.TestCase):
         klass = type(reversed(deque()))
         for s in ('abcd', range(2000)):
             self.assertEqual(list(klass(deque(s))), list(reversed(s)))
+
+    def test_insert_wraparound(self):
+        # exercise the ring buffer when head and tail wrap around the storage
+        for n in range(1, 20):
+            for shift in range(n):
+                d = deque(range(n))
+                l = list(range(n))
+                d.rotate(shift)
+                for _ in range(shift):
+                    l.insert(0, l.pop())
+                for i in (0, 1, n // 2, n - 1, n, -1, -n):
+                    d.insert(i, 'x')
+                    l.insert(i, 'x')
+                    self.assertEqual(list(d), l)
+                    del d[i]
+                    del l[i]
+                    self.assertEqual(list(d), l)
+
+    def test_insert_maxlen(self):
+        d = deque('ab', maxlen=3)
+        d.insert(1, 'x')
+        self.assertEqual(list(d), ['a', 'x', 'b'])
+        self.assertRaises(IndexError, d.insert, 0, 'y')
+
+    def test_iterator_reduce(self):
+        d = deque(range(10))
+        it = iter(d)
+        next(it)
+        next(it)
+        klass, args = it.__reduce__()
+        self.assertEqual(list(klass(*args)), list(range(2, 10)))
+        it = reversed(d)
+        next(it)
+        klass, args = it.__reduce__()
+        self.assertEqual(list(klass(*args)), list(range(8, -1, -1)))
+
+    def test_mutation_during_iteration(self):
+        d = deque(range(10))
+        it = iter(d)
+        next(it)
+        d.append(10)
+        self.assertRaises(RuntimeError, next, it)
@@ -0,0 +1,210 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+
+import functools
+import pickle
+import unittest
+
+import _functools
+
+
+def capture(*args, **kw):
+    return args, kw
+
+
+class MyPartial(_functools.partial):
+    pass
+
+
+class PartialTests(unittest.TestCase):
+
+    def test_call(self):
+        p = _functools.partial(capture, 1, 2, a=10, b=20)
+        self.assertEqual(p(3, 4, b=30, c=40), ((1, 2, 3, 4), dict(a=10, b=30, c=40)))
+        self.assertEqual(p(), ((1, 2), dict(a=10, b=20)))
+        self.assertEqual(list(p(b=1, a=2)[1].items()), [('a', 2), ('b', 1)])
+
+    def test_attributes(self):
+        p = _functools.partial(capture, 1, 2, a=10)
+        self.assertIs(p.func, capture)
+        self.assertEqual(p.args, (1, 2))
+        self.assertEqual(p.keywords, dict(a=10))
+        self.assertRaises(AttributeError, setattr, p, 'func', map)
+        self.assertRaises(AttributeError, setattr, p, 'args', (1, 2))
+        p.attr = 42
+        self.assertEqual(p.__dict__, {'attr': 42})
+        # the keywords dict is used by later calls
+        p.keywords['b'] = 20
+        self.assertEqual(p(), ((1, 2), dict(a=10, b=20)))
+
+    def test_errors(self):
+        self.assertRaises(TypeError, _functools.partial)
+        self.assertRaises(TypeError, _functools.partial, 2)
+
+    def test_nested(self):
+        inner = _functools.partial(capture, 1, a=1)
+        outer = _functools.partial(inner, 2, a=2, b=3)
+        self.assertIs(outer.func, capture)
+        self.assertEqual(outer.args, (1, 2))
+        self.assertEqual(outer.keywords, dict(a=2, b=3))
+        self.assertEqual(outer(3), ((1, 2, 3), dict(a=2, b=3)))
+        self.assertEqual(MyPartial(inner, 2)(), ((1, 2), dict(a=1)))
+
+    def test_repr(self):
+        p = _functools.partial(capture, 1, a=2)
+        self.assertEqual(repr(p), 'functools.partial(%r, 1, a=2)' % capture)
+        self.assertEqual(repr(MyPartial(capture)), 'MyPartial(%r)' % capture)
+        p = _functools.partial(capture)
+        p.__setstate__((capture, (p,), {}, None))
+        self.assertEqual(repr(p), 'functools.partial(%r, ...)' % capture)
+
+    def test_pickle(self):
+        p = _functools.partial(max, 1, key=abs)
+        p.attr = 'value'
+        q = pickle.loads(pickle.dumps(p))
+        self.assertIs(q.func, max)
+        self.assertEqual(q.args, (1,))
+        self.assertEqual(q.keywords, dict(key=abs))
+        self.assertEqual(q.attr, 'value')
+        self.assertEqual(q(-5), -5)
+
+    def test_setstate(self):
+        p = _functools.partial(capture)
+        p.__setstate__((capture, (1,), dict(a=2), dict(attr=3)))
+        self.assertEqual(p(), ((1,), dict(a=2)))
+        self.assertEqual(p.attr, 3)
+        self.assertRaises(TypeError, p.__setstate__, [capture, (), None, None])
+        self.assertRaises(TypeError, p.__setstate__, (capture, (), None))
+        self.assertRaises(TypeError, p.__setstate__, (2, (), None, None))
+        self.assertRaises(TypeError, p.__setstate__, (capture, [], None, None))
+
+
+class ReduceTests(unittest.TestCase):
+
+    def test_reduce(self):
+        self.assertEqual(_functools.reduce(lambda x, y: x + y, [1, 2, 3]), 6)
+        self.assertEqual(_functools.reduce(lambda x, y: x + y, [1, 2, 3], 10), 16)
+        self.assertEqual(_functools.reduce(lambda x, y: x + y, [], 10), 10)
+        self.assertEqual(_functools.reduce(lambda x, y: x + y, iter(['a'])), 'a')
+        self.assertRaises(TypeError, _functools.reduce, lambda x, y: x + y, [])
+        self.assertRaises(TypeError, _functools.reduce, lambda x, y: x + y, 42)
+
+
+class LruCacheTests(unittest.TestCase):
+
+    def test_bounded(self):
+        calls = []
+
+        @functools.lru_cache(maxsize=2)
+        def f(x):
+            calls.append(x)
+            return x * 2
+
+        self.assertIsInstance(f, _functools._lru_cache_wrapper)
+        self.assertEqual([f(1), f(2), f(1), f(3), f(2), f(1)], [2, 4, 2, 6, 4, 2])
+        # 2 was evicted by 3 because 1 had been used more recently
+        self.assertEqual(calls, [1, 2, 3, 2, 1])
+        self.assertEqual(f.cache_info(), (1, 5, 2, 2))
+        f.cache_clear()
+        self.assertEqual(f.cache_info(), (0, 0, 2, 0))
+
+    def test_unbounded_and_uncached(self):
+        @functools.lru_cache(maxsize=None)
+        def f(x, y=0):
+            return x + y
+
+        for i in range(10):
+            f(i)
+            f(i)
+            f(i, y=1)
+        self.assertEqual(f.cache_info(), (10, 20, None, 20))
+
+        @functools.lru_cache(maxsize=0)
+        def g(x):
+            return x
+
+        g(1)
+        g(1)
+        self.assertEqual(g.cache_info(), (0, 2, 0, 0))
+
+    def test_typed(self):
+        @functools.lru_cache(typed=True)
+        def f(x):
+            return type(x)
+
+        self.assertIs(f(1), int)
+        self.assertIs(f(1.0), float)
+        self.assertIs(f(True), bool)
+        self.assertEqual(f.cache_info().currsize, 3)
+
+    def test_recursive(self):
+        @functools.lru_cache(maxsize=8)
+        def fib(n):
+            return n if n < 2 else fib(n - 1) + fib(n - 2)
+
+        self.assertEqual(fib(50), 12586269025)
+        self.assertEqual(fib.cache_info().currsize, 8)
+
+    def test_wrapper(self):
+        def orig(x):
+            "doc"
+            return x
+
+        f = functools.lru_cache()(orig)
+        self.assertIs(f.__wrapped__, orig)
+        self.assertEqual(f.__name__, 'orig')
+        self.assertEqual(f.__doc__, 'doc')
+        self.assertIs(f.__copy__(), f)
+        self.assertRaises(TypeError, f, [])
+
+    def test_method(self):
+        class A:
+            @functools.lru_cache()
+            def m(self, x):
+                return self, x
+
+        a = A()
+        self.assertEqual(a.m(1), (a, 1))
+        self.assertEqual(a.m(1), (a, 1))
+        self.assertEqual(A.m.cache_info().hits, 1)
+
+
+if __name__ == '__main__':
+    unittest.main()
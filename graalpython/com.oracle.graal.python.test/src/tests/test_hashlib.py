@@ -0,0 +1,107 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+
+
+import hashlib
+import hmac
+import unittest
+
+import _hashlib
+
+
+class HashlibTests(unittest.TestCase):
+
+    def test_digests(self):
+        self.assertEqual(_hashlib.new('md5', b'abc').hexdigest(), '900150983cd24fb0d6963f7d28e17f72')
+        self.assertEqual(_hashlib.new('sha1', b'abc').hexdigest(), 'a9993e364706816aba3e25717850c26c9cd0d89d')
+        self.assertEqual(_hashlib.openssl_sha256(b'abc').hexdigest(),
+                         'ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad')
+        self.assertEqual(hashlib.sha512(b'abc').digest()[:8], bytes.fromhex('ddaf35a193617aba'))
+        self.assertEqual(hashlib.new('SHA256', b'abc').name, 'sha256')
+
+    def test_attributes(self):
+        h = hashlib.sha256()
+        self.assertEqual(h.name, 'sha256')
+        self.assertEqual(h.digest_size, 32)
+        self.assertEqual(h.block_size, 64)
+        self.assertEqual(hashlib.sha384().block_size, 128)
+        self.assertEqual(hashlib.md5().digest_size, 16)
+        self.assertIn('sha256', _hashlib.openssl_md_meth_names)
+
+    def test_update_buffers(self):
+        expected = hashlib.sha1(b'0123456789').digest()
+        for data in [bytearray(b'0123456789'), memoryview(b'xx0123456789')[2:], memoryview(bytearray(b'0123456789'))]:
+            h = hashlib.sha1()
+            h.update(data)
+            self.assertEqual(h.digest(), expected)
+        self.assertRaises(TypeError, hashlib.sha1().update, 'abc')
+        self.assertRaises(TypeError, hashlib.sha1().update, 42)
+
+    def test_copy(self):
+        h = hashlib.sha256(b'a')
+        h2 = h.copy()
+        h2.update(b'bc')
+        self.assertEqual(h.digest(), hashlib.sha256(b'a').digest())
+        self.assertEqual(h2.digest(), hashlib.sha256(b'abc').digest())
+        # computing the digest does not finish the hash
+        h.update(b'bc')
+        self.assertEqual(h.hexdigest(), h2.hexdigest())
+
+    def test_unsupported(self):
+        self.assertRaises(ValueError, _hashlib.new, 'foo')
+        self.assertRaises(ValueError, hashlib.new, 'foo')
+
+    def test_hmac(self):
+        self.assertEqual(hmac.digest(b'Jefe', b'what do ya want for nothing?', 'sha256').hex(),
+                         '5bdcc146bf60754e6a042426089575c75a003f089d2739839dec58b964ec3843')
+        key = b'\xaa' * 131
+        expected = hmac.new(key, b'Test Using Larger Than Block-Size Key - Hash Key First', 'sha256').hexdigest()
+        self.assertEqual(expected, '60e431591ee0b67f0d8a26aacbf5b77f8e0bc6213728c5140546040f0ee37f54')
+        self.assertEqual(hmac.digest(key, b'Test Using Larger Than Block-Size Key - Hash Key First', 'sha256').hex(), expected)
+
+    def test_pbkdf2_hmac(self):
+        self.assertEqual(hashlib.pbkdf2_hmac('sha1', b'password', b'salt', 1, 20).hex(),
+                         '0c60c80f961f0e71f3a9b524af6012062fe037a6')
+        self.assertEqual(hashlib.pbkdf2_hmac('sha1', b'password', b'salt', 2).hex(),
+                         'ea6c014dc72d6f8ccd1ed92ace1d41f0d8de8957')
+        self.assertEqual(hashlib.pbkdf2_hmac('sha256', b'passwordPASSWORDpassword', b'saltSALTsaltSALTsaltSALTsaltSALTsalt', 4096, 40).hex(),
+                         '348c89dbcbd32b2f32d814b8116e84cf2b17347ebc1800181c4e2a1fb8dd53e1c635518c7dac47e9')
+        self.assertRaises(ValueError, hashlib.pbkdf2_hmac, 'sha1', b'password', b'salt', 0)
+        self.assertRaises(ValueError, hashlib.pbkdf2_hmac, 'sha1', b'password', b'salt', 1, 0)
@@ -0,0 +1,181 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import bisect
+import heapq
+import random
+
+
+def check_heap(heap, key=lambda x: x):
+    for i in range(1, len(heap)):
+        assert key(heap[(i - 1) >> 1]) <= key(heap[i]), heap
+
+
+def heapsort(items):
+    heap = []
+    for item in items:
+        heapq.heappush(heap, item)
+        check_heap(heap)
+    return [heapq.heappop(heap) for i in range(len(heap))]
+
+
+def test_heap_primitive_storages():
+    rnd = random.Random(42)
+    ints = [rnd.randrange(1000) for i in range(200)]
+    assert heapsort(ints) == sorted(ints)
+    longs = [rnd.randrange(2 ** 40) for i in range(200)]
+    assert heapsort(longs) == sorted(longs)
+    floats = [rnd.random() for i in range(200)]
+    assert heapsort(floats) == sorted(floats)
+
+
+def test_heap_objects():
+    rnd = random.Random(7)
+    strs = [str(rnd.randrange(1000)) for i in range(200)]
+    assert heapsort(strs) == sorted(strs)
+    # equal priorities must be ordered by the second item
+    entries = [(rnd.randrange(10), str(i)) for i in range(200)]
+    assert heapsort(entries) == sorted(entries)
+    mixed = [1, 2.5, 2 ** 70, -3, 0.5, True]
+    assert heapsort(mixed) == sorted(mixed)
+
+
+def test_heap_generalizes_storage():
+    heap = [3, 1, 2]
+    heapq.heapify(heap)
+    assert heapq.heapreplace(heap, 1.5) == 1
+    heapq.heappush(heap, 0.5)
+    assert [heapq.heappop(heap) for i in range(4)] == [0.5, 1.5, 2, 3]
+
+
+def test_heapify_and_max():
+    data = [5, 3, 8, 1, 9, 2, 7]
+    heap = list(data)
+    heapq.heapify(heap)
+    check_heap(heap)
+    assert heapq.heappushpop(heap, 0) == 0
+    assert heapq.heappushpop(heap, 4) == 1
+    heapq._heapify_max(data)
+    check_heap(data, key=lambda x: -x)
+    assert heapq._heappop_max(data) == 9
+    assert heapq._heapreplace_max(data, 0) == 8
+    check_heap(data, key=lambda x: -x)
+    assert heapq.nsmallest(3, [5, 3, 8, 1, 9]) == [1, 3, 5]
+    assert heapq.nlargest(2, [5.0, 3.0, 8.0]) == [8.0, 5.0]
+
+
+def test_heap_errors():
+    for f in (heapq.heappush, heapq.heapreplace, heapq.heappushpop):
+        try:
+            f((), 1)
+        except TypeError:
+            pass
+        else:
+            assert False
+    try:
+        heapq.heappop([])
+    except IndexError:
+        pass
+    else:
+        assert False
+
+    class Mutating:
+        def __init__(self, heap):
+            self.heap = heap
+
+        def __lt__(self, other):
+            self.heap.clear()
+            return False
+
+    heap = []
+    heap.append(Mutating(heap))
+    try:
+        heapq.heappush(heap, Mutating(heap))
+    except RuntimeError:
+        pass
+    else:
+        assert False
+
+
+def test_bisect_storages():
+    ints = list(range(0, 100, 2))
+    assert bisect.bisect_left(ints, 10) == 5
+    assert bisect.bisect_right(ints, 10) == 6
+    assert bisect.bisect_right(ints, 11) == 6
+    assert bisect.bisect_left(ints, 10.5) == 6
+    longs = [2 ** 40 + i for i in range(10)]
+    assert bisect.bisect_left(longs, 2 ** 40 + 3) == 3
+    assert bisect.bisect_right(longs, 5) == 0
+    floats = [0.5, 1.5, 2.5]
+    assert bisect.bisect(floats, 1.5) == 2
+    assert bisect.bisect_left(floats, 1.5, hi=None) == 1
+    assert bisect.bisect_left(floats, 1.5, lo=2) == 2
+    strs = ["a", "c", "e"]
+    assert bisect.bisect_left(strs, "d") == 2
+
+
+def test_insort():
+    a = [1, 3, 5]
+    bisect.insort(a, 4)
+    bisect.insort_left(a, 1)
+    bisect.insort(a, 2.5)
+    assert a == [1, 1, 2.5, 3, 4, 5]
+
+    class MyList(list):
+        def insert(self, index, item):
+            list.insert(self, index, ("inserted", item))
+
+    b = MyList([1, 3])
+    bisect.insort(b, 2)
+    assert b == [1, ("inserted", 2), 3]
+
+
+def test_bisect_errors():
+    try:
+        bisect.bisect_left([1, 2], 1, -1)
+    except ValueError:
+        pass
+    else:
+        assert False
+    try:
+        bisect.bisect_right([1, 2], 1, 0, 5)
+    except IndexError:
+        pass
+    else:
+        assert False
@@ -0,0 +1,286 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+import _io
+import codecs
+import os
+import tempfile
+import unittest
+
+
+class BytesIOTest(unittest.TestCase):
+
+    def test_read_write(self):
+        b = _io.BytesIO(b"hello\nworld\n")
+        self.assertEqual(b.read(3), b"hel")
+        self.assertEqual(b.readline(), b"lo\n")
+        self.assertEqual(b.tell(), 6)
+        b.seek(0, 2)
+        self.assertEqual(b.write(b"!"), 1)
+        self.assertEqual(b.getvalue(), b"hello\nworld\n!")
+        b.seek(20)
+        b.write(b"x")
+        self.assertEqual(b.getvalue(), b"hello\nworld\n!" + b"\0" * 7 + b"x")
+        self.assertEqual(b.truncate(5), 5)
+        self.assertEqual(b.getvalue(), b"hello")
+
+    def test_iteration(self):
+        b = _io.BytesIO(b"a\nbb\nccc")
+        self.assertEqual(list(b), [b"a\n", b"bb\n", b"ccc"])
+        b.seek(0)
+        self.assertEqual(b.readlines(), [b"a\n", b"bb\n", b"ccc"])
+
+    def test_readinto(self):
+        b = _io.BytesIO(b"abcdef")
+        buf = bytearray(4)
+        self.assertEqual(b.readinto(buf), 4)
+        self.assertEqual(buf, bytearray(b"abcd"))
+        self.assertEqual(b.readinto(buf), 2)
+        self.assertEqual(buf, bytearray(b"efcd"))
+
+    def test_closed(self):
+        b = _io.BytesIO()
+        b.close()
+        self.assertTrue(b.closed)
+        self.assertRaises(ValueError, b.read)
+        self.assertRaises(ValueError, b.write, b"x")
+        self.assertRaises(ValueError, b.getvalue)
+
+    def test_seek_errors(self):
+        b = _io.BytesIO(b"abc")
+        self.assertRaises(ValueError, b.seek, -1)
+        self.assertRaises(ValueError, b.seek, 0, 3)
+        self.assertEqual(b.seek(-1, 2), 2)
+
+
+class StringIOTest(unittest.TestCase):
+
+    def test_read_write(self):
+        s = _io.StringIO("hello\nwörld\n")
+        self.assertEqual(s.read(3), "hel")
+        self.assertEqual(s.readline(), "lo\n")
+        self.assertEqual(s.readline(2), "wö")
+        self.assertEqual(s.write("\U0001F600!"), 2)
+        self.assertEqual(s.getvalue(), "hello\nwö\U0001F600!d\n")
+        self.assertEqual(list(_io.StringIO("a\nb")), ["a\n", "b"])
+
+    def test_newline(self):
+        s = _io.StringIO("a\r\nb\rc\n", newline=None)
+        self.assertEqual(s.getvalue(), "a\nb\nc\n")
+        self.assertEqual(s.newlines, ("\r", "\n", "\r\n"))
+        s = _io.StringIO("a\r\nb\rc\n", newline="")
+        self.assertEqual(list(s), ["a\r\n", "b\r", "c\n"])
+        s = _io.StringIO(newline="\r\n")
+        s.write("a\nb")
+        self.assertEqual(s.getvalue(), "a\r\nb")
+        self.assertRaises(ValueError, _io.StringIO, newline="x")
+        self.assertRaises(TypeError, _io.StringIO, 42)
+
+    def test_seek(self):
+        s = _io.StringIO("abc")
+        s.seek(0, 2)
+        s.write("d")
+        s.seek(0)
+        self.assertEqual(s.read(), "abcd")
+        self.assertRaises(OSError, s.seek, 1, 1)
+        self.assertRaises(ValueError, s.seek, -1)
+
+
+class IncrementalNewlineDecoderTest(unittest.TestCase):
+
+    def test_decode(self):
+        decoder = _io.IncrementalNewlineDecoder(codecs.getincrementaldecoder("utf-8")(), translate=True)
+        self.assertEqual(decoder.decode(b"a\r"), "a")
+        self.assertEqual(decoder.decode(b"\nb\r"), "\nb")
+        self.assertEqual(decoder.decode(b"", final=True), "\n")
+        self.assertEqual(decoder.newlines, ("\r", "\r\n"))
+        decoder.reset()
+        self.assertEqual(decoder.newlines, None)
+
+    def test_state(self):
+        decoder = _io.IncrementalNewlineDecoder(codecs.getincrementaldecoder("utf-8")(), translate=False)
+        self.assertEqual(decoder.decode("é".encode("utf-8")[:1]), "")
+        state = decoder.getstate()
+        self.assertEqual(state, (b"\xc3", 0))
+        decoder.reset()
+        decoder.setstate(state)
+        self.assertEqual(decoder.decode(b"\xa9\r"), "é")
+        self.assertEqual(decoder.getstate(), (b"", 1))
+
+
+class BufferedTest(unittest.TestCase):
+
+    def test_writer(self):
+        raw = _io.BytesIO()
+        w = _io.BufferedWriter(raw, 4)
+        w.write(b"ab")
+        self.assertEqual(raw.getvalue(), b"")
+        w.write(b"cdef")
+        w.flush()
+        self.assertEqual(raw.getvalue(), b"abcdef")
+        self.assertTrue(w.writable())
+        self.assertRaises(ValueError, _io.BufferedWriter, raw, 0)
+
+    def test_random(self):
+        raw = _io.BytesIO(b"0123456789")
+        f = _io.BufferedRandom(raw, 4)
+        self.assertEqual(f.read(2), b"01")
+        f.write(b"ab")
+        f.seek(0)
+        self.assertEqual(f.read(), b"01ab456789")
+        self.assertEqual(f.peek(1), b"")
+
+    def test_rwpair(self):
+        r = _io.BytesIO(b"input")
+        w = _io.BytesIO()
+        pair = _io.BufferedRWPair(r, w)
+        self.assertEqual(pair.read(2), b"in")
+        pair.write(b"output")
+        pair.flush()
+        self.assertEqual(w.getvalue(), b"output")
+        self.assertFalse(pair.closed)
+
+
+class TextIOWrapperTest(unittest.TestCase):
+
+    def test_read(self):
+        t = _io.TextIOWrapper(_io.BytesIO("héllo\nwörld\r\nlast".encode("utf-8")), encoding="utf-8")
+        self.assertEqual(t.read(2), "hé")
+        self.assertEqual(t.readline(), "llo\n")
+        self.assertEqual(t.readline(), "wörld\n")
+        self.assertEqual(t.read(), "last")
+        self.assertEqual(t.read(), "")
+        self.assertEqual(t.newlines, ("\n", "\r\n"))
+
+    def test_iteration(self):
+        data = "".join("line %d\n" % i for i in range(1000))
+        t = _io.TextIOWrapper(_io.BufferedReader(_io.BytesIO(data.encode("ascii"))), encoding="ascii")
+        self.assertEqual(next(t), "line 0\n")
+        self.assertRaises(OSError, t.tell)
+        lines = list(t)
+        self.assertEqual(len(lines), 999)
+        self.assertEqual(lines[998], "line 999\n")
+        self.assertEqual(t.tell(), len(data))
+
+    def test_newline_modes(self):
+        data = b"a\rb\r\nc\nd"
+        self.assertEqual(list(_io.TextIOWrapper(_io.BytesIO(data), encoding="ascii", newline="")), ["a\r", "b\r\n", "c\n", "d"])
+        self.assertEqual(list(_io.TextIOWrapper(_io.BytesIO(data), encoding="ascii", newline="\r\n")), ["a\rb\r\n", "c\nd"])
+        self.assertEqual(list(_io.TextIOWrapper(_io.BytesIO(data), encoding="ascii", newline="\n")), ["a\rb\r\n", "c\n", "d"])
+        self.assertEqual(_io.TextIOWrapper(_io.BytesIO(data), encoding="ascii").readline(1), "a")
+
+    def test_write(self):
+        raw = _io.BytesIO()
+        t = _io.TextIOWrapper(raw, encoding="utf-8", newline="\r\n")
+        self.assertEqual(t.write("a\nb€"), 4)
+        t.flush()
+        self.assertEqual(raw.getvalue(), b"a\r\nb\xe2\x82\xac")
+        t = _io.TextIOWrapper(_io.BytesIO(), encoding="ascii")
+        self.assertRaises(UnicodeEncodeError, t.write, "€")
+        self.assertRaises(TypeError, t.write, b"bytes")
+
+    def test_line_buffering(self):
+        raw = _io.BytesIO()
+        t = _io.TextIOWrapper(_io.BufferedWriter(raw), encoding="utf-8", line_buffering=True)
+        t.write("abc")
+        self.assertEqual(raw.getvalue(), b"")
+        t.write("\n")
+        self.assertEqual(raw.getvalue(), b"abc\n")
+
+    def test_tell_seek(self):
+        text = "été\nhiver\nété\n" * 100
+        raw = _io.BytesIO(text.encode("utf-8"))
+        t = _io.TextIOWrapper(raw, encoding="utf-8")
+        t._CHUNK_SIZE = 16
+        positions = []
+        while True:
+            positions.append(t.tell())
+            if not t.readline():
+                break
+        for i in (0, 5, 42, len(positions) - 2):
+            t.seek(positions[i])
+            self.assertEqual(t.readline(), text.splitlines(True)[i])
+        t.seek(0)
+        self.assertEqual(t.read(5), text[:5])
+        cookie = t.tell()
+        self.assertEqual(t.read(7), text[5:12])
+        t.seek(cookie)
+        self.assertEqual(t.read(7), text[5:12])
+        self.assertEqual(t.seek(0, 2), len(text.encode("utf-8")))
+        self.assertRaises(OSError, t.seek, 1, 1)
+
+    def test_tell_seek_file(self):
+        fd, name = tempfile.mkstemp()
+        os.close(fd)
+        try:
+            with open(name, "w", encoding="utf-16") as f:
+                self.assertIsInstance(f, _io.TextIOWrapper)
+                f.write("one\ntwo\n")
+            with open(name, "r", encoding="utf-16") as f:
+                self.assertEqual(f.readline(), "one\n")
+                pos = f.tell()
+                self.assertEqual(f.readline(), "two\n")
+                f.seek(pos)
+                self.assertEqual(f.read(), "two\n")
+                self.assertEqual(f.mode, "r")
+        finally:
+            os.unlink(name)
+
+    def test_detach(self):
+        raw = _io.BytesIO()
+        t = _io.TextIOWrapper(raw, encoding="ascii")
+        t.write("x")
+        self.assertIs(t.detach(), raw)
+        self.assertEqual(raw.getvalue(), b"x")
+        self.assertRaises(ValueError, t.read)
+        self.assertRaises(ValueError, getattr, t, "closed")
+
+    def test_errors(self):
+        self.assertRaises(ValueError, _io.TextIOWrapper, _io.BytesIO(), encoding="ascii", newline="x")
+        self.assertRaises(LookupError, _io.TextIOWrapper, _io.BytesIO(), encoding="hex")
+        t = _io.TextIOWrapper(_io.BytesIO(b"\xff"), encoding="utf-8", errors="replace")
+        self.assertEqual(t.read(), "�")
+        self.assertEqual(t.errors, "replace")
+        t.close()
+        self.assertTrue(t.closed)
+        self.assertRaises(ValueError, t.read)
+
+
+if __name__ == '__main__':
+    unittest.main()
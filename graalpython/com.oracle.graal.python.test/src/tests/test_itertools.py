@@ -101,3 +101,62 @@ class CombinationsTests(unittest.TestCase):
 
         data = [None, None, None, 20]
         assert list(map(lambda x: x[0], list(groupby(data)))) == [None, 20]
+
+
+class IteratorTests(unittest.TestCase):
+
+    def test_repeat(self):
+        self.assertEqual(list(repeat('a', 3)), ['a', 'a', 'a'])
+        self.assertEqual(list(repeat('a', -1)), [])
+        self.assertEqual(repr(repeat('a', 2)), "repeat('a', 2)")
+        self.assertEqual(repr(repeat('a')), "repeat('a')")
+        self.assertEqual(repeat(None, 5).__length_hint__(), 5)
+        self.assertRaises(TypeError, repeat(None).__length_hint__)
+
+    def test_count(self):
+        self.assertEqual(list(islice(count(), 3)), [0, 1, 2])
+        self.assertEqual(list(islice(count(1, 0.5), 3)), [1, 1.5, 2.0])
+        self.assertEqual(repr(count(3)), "count(3)")
+        self.assertEqual(repr(count(3, 2)), "count(3, 2)")
+        self.assertRaises(TypeError, count, 'a')
+
+    def test_islice(self):
+        self.assertEqual(list(islice(range(10), 2, 8, 3)), [2, 5])
+        self.assertEqual(list(islice(range(10), 4)), [0, 1, 2, 3])
+        self.assertEqual(list(islice(range(10), 7, None)), [7, 8, 9])
+        self.assertRaises(ValueError, islice, range(10), -1)
+        self.assertRaises(ValueError, islice, range(10), 1, 2, 0)
+        it = iter(range(10))
+        self.assertEqual(list(islice(it, 3)), [0, 1, 2])
+        self.assertEqual(next(it), 3)
+
+    def test_accumulate(self):
+        self.assertEqual(list(accumulate([1, 2, 3])), [1, 3, 6])
+        self.assertEqual(list(accumulate([1, 2, 3], initial=10)), [10, 11, 13, 16])
+        self.assertEqual(list(accumulate([3, 1, 2], max)), [3, 3, 3])
+        self.assertEqual(list(accumulate([], initial=5)), [5])
+
+    def test_zip_longest(self):
+        self.assertEqual(list(zip_longest('ab', 'xyz')), [('a', 'x'), ('b', 'y'), (None, 'z')])
+        self.assertEqual(list(zip_longest('ab', 'x', fillvalue='-')), [('a', 'x'), ('b', '-')])
+        self.assertEqual(list(zip_longest()), [])
+
+    def test_cycle(self):
+        self.assertEqual(list(islice(cycle('ab'), 5)), ['a', 'b', 'a', 'b', 'a'])
+        self.assertEqual(list(cycle('')), [])
+
+    def test_tee(self):
+        a, b = tee([None, 1, None])
+        self.assertEqual(list(a), [None, 1, None])
+        self.assertEqual(list(b), [None, 1, None])
+        a, b, c = tee(range(200), 3)
+        self.assertEqual(list(a), list(range(200)))
+        self.assertEqual(list(zip(b, c)), list(zip(range(200), range(200))))
+
+    def test_filter_and_selection(self):
+        self.assertEqual(list(compress('abcdef', [1, 0, 1, 0, 1, 1])), ['a', 'c', 'e', 'f'])
+        self.assertEqual(list(filterfalse(None, [0, 1, '', 'a'])), [0, ''])
+        self.assertEqual(list(dropwhile(lambda x: x < 3, [1, 2, 3, 1])), [3, 1])
+        self.assertEqual(list(takewhile(lambda x: x < 3, [1, 2, 3, 1])), [1, 2])
+        self.assertEqual(list(starmap(pow, [(2, 3), (3, 2)])), [8, 9])
+        self.assertEqual(list(chain.from_iterable(['ab', 'c'])), ['a', 'b', 'c'])
@@ -83,3 +83,52 @@ class JsonTest(unittest.TestCase):
             1521583201347000000,
             10,
         }
+
+    def test_scanner(self):
+        import json
+        from collections import OrderedDict
+        doc = '{"a": [1, 2.5, -3e2, "x\\u00e9\\ud83d\\ude00", null, true, false], "b": {}, "c": [], "a": 18446744073709551616}'
+        self.assertEqual(json.loads(doc), {"a": 18446744073709551616, "b": {}, "c": []})
+        self.assertEqual(json.loads('[1, 2, 3, 4.5]'), [1, 2, 3, 4.5])
+        self.assertEqual(json.loads('["\\u00e9\\ud83d\\ude00", "\\n\\t\\/"]'), ["é\U0001f600", "\n\t/"])
+        self.assertEqual(json.loads('{"a": 1, "b": 2}', object_pairs_hook=list), [("a", 1), ("b", 2)])
+        self.assertEqual(type(json.loads('{"a": 1}', object_pairs_hook=OrderedDict)), OrderedDict)
+        self.assertEqual(json.loads('{"a": 1}', object_hook=lambda d: sorted(d)), ["a"])
+        self.assertEqual(json.loads('[1.5, 2]', parse_float=str, parse_int=float), ["1.5", 2.0])
+        self.assertEqual(json.loads('[NaN, -Infinity]', parse_constant=lambda c: c), ["NaN", "-Infinity"])
+
+    def test_scanner_errors(self):
+        import json
+        for doc, pos in [('{"a" 1}', 5), ('[1, 2', 5), ('{1: 2}', 1), ('["\\x"]', 2), ('["abc', 1), ('["\\u12"]', 3), ('[1,]', 3), ('"\U0001f600" x', 4)]:
+            with self.assertRaises(json.JSONDecodeError) as cm:
+                json.loads(doc)
+            self.assertEqual(cm.exception.pos, pos, doc)
+        self.assertRaises(json.JSONDecodeError, json.loads, '["a\nb"]')
+        self.assertEqual(json.loads('["a\nb"]', strict=False), ["a\nb"])
+
+    def test_scanstring(self):
+        from json.decoder import scanstring
+        self.assertEqual(scanstring('"abc" x', 1), ("abc", 5))
+        self.assertEqual(scanstring('\U0001f600"a\\"b"', 2), ('a"b', 7))
+        self.assertRaises(ValueError, scanstring, '"abc"', 10)
+
+    def test_encoder(self):
+        import json
+        self.assertEqual(json.dumps([1, 2.5, "aé\U0001f600\n", None, True, False, 10 ** 20]),
+                         '[1, 2.5, "a\\u00e9\\ud83d\\ude00\\n", null, true, false, 100000000000000000000]')
+        self.assertEqual(json.dumps("é\n", ensure_ascii=False), '"é\\n"')
+        self.assertEqual(json.dumps({"b": [1.0, 1e100], "a": (1, 2)}, sort_keys=True, separators=(',', ':')), '{"a":[1,2],"b":[1.0,1e+100]}')
+        self.assertEqual(json.dumps({1: 2, 2.5: 3, False: 4, None: 5}), '{"1": 2, "2.5": 3, "false": 4, "null": 5}')
+        self.assertEqual(json.dumps({(1, 2): 3, "a": 4}, skipkeys=True), '{"a": 4}')
+        self.assertEqual(json.dumps([float("inf"), float("nan")]), '[Infinity, NaN]')
+        self.assertEqual(json.dumps({1, 2}, default=sorted), '[1, 2]')
+
+    def test_encoder_errors(self):
+        import json
+        l = []
+        l.append(l)
+        self.assertRaises(ValueError, json.dumps, l)
+        self.assertRaises(ValueError, json.dumps, [float("inf")], allow_nan=False)
+        self.assertRaises(TypeError, json.dumps, {(1, 2): 3})
+        self.assertRaises(TypeError, json.dumps, object())
+        self.assertRaises(TypeError, json.dumps, {1: 2, "a": 3}, sort_keys=True)
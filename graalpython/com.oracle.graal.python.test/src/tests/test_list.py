@@ -5,6 +5,7 @@
 
 import seq_tests
 import sys
+import unittest
 # import pickle
 
 LONG_NUMBER = 6227020800;
@@ -833,3 +834,108 @@ class ListCompareTest(CompareTest):
         self.assertEqual(l1 <= [1, 1], 'OK:False')
         self.assertEqual(l1 <= [1, 10], 'OK:True')
         self.assertEqual(l1 <= [1, 10, 0], 'OK:True')
+
+
+class ListSortTest(unittest.TestCase):
+
+    def test_primitive_storages(self):
+        import random
+        ints = [random.randint(-1000, 1000) for i in range(2000)]
+        self.assertEqual(sorted(ints), sorted(ints, key=lambda x: x))
+        self.assertEqual(sorted(ints, reverse=True), sorted(ints)[::-1])
+        longs = [x * 2 ** 40 for x in ints]
+        self.assertEqual(sorted(longs), [x * 2 ** 40 for x in sorted(ints)])
+        floats = [x / 7 for x in ints]
+        self.assertEqual(sorted(floats), [x / 7 for x in sorted(ints)])
+
+    def test_special_floats(self):
+        # negative zero compares equal to zero, so the original order must be kept
+        l = [0.0, -0.0, 1.0, -0.0, 0.0]
+        l.sort()
+        self.assertEqual([str(x) for x in l], ['0.0', '-0.0', '-0.0', '0.0', '1.0'])
+        l = [0.0, -0.0, 1.0, -0.0, 0.0]
+        l.sort(reverse=True)
+        self.assertEqual([str(x) for x in l], ['1.0', '0.0', '-0.0', '-0.0', '0.0'])
+        nan = float('nan')
+        l = [3.0, nan, 1.0]
+        l.sort()
+        self.assertEqual(len(l), 3)
+        self.assertIn(nan, l)
+
+    def test_stability(self):
+        data = [(i % 5, i) for i in range(500)]
+        self.assertEqual(sorted(data, key=lambda t: t[0]), sorted(data))
+        expected = sorted(data, key=lambda t: (-t[0], t[1]))
+        self.assertEqual(sorted(data, key=lambda t: t[0], reverse=True), expected)
+
+    def test_key_called_once(self):
+        calls = []
+
+        def key(x):
+            calls.append(x)
+            return -x
+        l = list(range(100))
+        l.sort(key=key)
+        self.assertEqual(l, list(range(99, -1, -1)))
+        self.assertEqual(sorted(calls), list(range(100)))
+        self.assertRaises(ZeroDivisionError, [1].sort, key=lambda x: 1 / 0)
+
+    def test_modified_during_sort(self):
+        l = list(range(10))
+
+        def key(x):
+            l.append(x)
+            return x
+        self.assertRaises(ValueError, l.sort, key=key)
+        self.assertEqual(l, list(range(10)))
+
+        l = [3, 2, 1]
+        seen = []
+
+        def key(x):
+            seen.append(len(l))
+            return x
+        l.sort(key=key)
+        self.assertEqual(seen, [0, 0, 0])
+        self.assertEqual(l, [1, 2, 3])
+
+    def test_comparison_raises(self):
+        import random
+        rnd = random.Random(42)
+        for n in (100, 1000, 5000):
+            for pos in (0, n // 3, n - 1):
+                # distinct objects, so that 'key=id' checks that no item is lost or duplicated
+                orig = [rnd.randint(0, 10 ** 6) + 10 ** 9 for i in range(n)]
+                orig[pos] = None
+                for reverse in (False, True):
+                    l = list(orig)
+                    self.assertRaises(TypeError, l.sort, reverse=reverse)
+                    self.assertEqual(sorted(l, key=id), sorted(orig, key=id))
+
+                    l = [object() for i in range(n)]
+                    keys = {id(x): rnd.random() for x in l}
+                    keys[id(l[pos])] = None
+                    copy = list(l)
+                    self.assertRaises(TypeError, l.sort, key=lambda x: keys[id(x)], reverse=reverse)
+                    self.assertEqual(sorted(l, key=id), sorted(copy, key=id))
+
+    def test_inconsistent_comparison(self):
+        import random
+
+        class Rnd:
+            def __init__(self, v):
+                self.v = v
+
+            def __lt__(self, other):
+                return random.random() < 0.5
+
+        l = [Rnd(i) for i in range(300)]
+        l.sort()
+        self.assertEqual(sorted(x.v for x in l), list(range(300)))
+
+    def test_errors(self):
+        self.assertRaises(TypeError, [1, 'a'].sort)
+        self.assertRaises(TypeError, [1, 2].sort, lambda x: x)
+        self.assertRaises(TypeError, [1, 2].sort, cmp=None)
+        self.assertRaises(TypeError, sorted, [1, 2], lambda x: x)
+        self.assertEqual(sorted([3, 1, 2], key=None, reverse=False), [1, 2, 3])
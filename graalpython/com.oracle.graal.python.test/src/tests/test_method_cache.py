@@ -0,0 +1,125 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+import sys
+
+
+class Base:
+    attr = "base"
+
+    def method(self):
+        return "base"
+
+
+# enough classes to make the lookup sites below megamorphic
+CLASSES = [type("C%d" % i, (Base,), {}) for i in range(20)]
+
+
+def read_attr(obj):
+    return obj.attr
+
+
+def call_method(obj):
+    return obj.method()
+
+
+def test_megamorphic_lookup():
+    for i in range(3):
+        for cls in CLASSES:
+            assert read_attr(cls()) == "base"
+            assert call_method(cls()) == "base"
+
+
+def test_invalidate_on_base_change():
+    for cls in CLASSES:
+        assert read_attr(cls()) == "base"
+    Base.attr = "changed"
+    try:
+        for cls in CLASSES:
+            assert read_attr(cls()) == "changed"
+    finally:
+        Base.attr = "base"
+    for cls in CLASSES:
+        assert read_attr(cls()) == "base"
+
+
+def test_invalidate_on_subclass_change():
+    for cls in CLASSES:
+        assert call_method(cls()) == "base"
+    cls = CLASSES[5]
+    cls.method = lambda self: "overridden"
+    try:
+        assert call_method(cls()) == "overridden"
+        assert call_method(CLASSES[4]()) == "base"
+    finally:
+        del cls.method
+    assert call_method(cls()) == "base"
+
+
+def test_invalidate_on_bases_change():
+    class Other:
+        attr = "other"
+
+    class Sub(Base):
+        pass
+
+    for cls in CLASSES:
+        read_attr(cls())
+    assert read_attr(Sub()) == "base"
+    Sub.__bases__ = (Other,)
+    assert read_attr(Sub()) == "other"
+
+
+def test_method_cache_stats():
+    if sys.implementation.name == "graalpython":
+        class Other:
+            attr = "other"
+
+        classes = [type("D%d" % i, (Base,), {}) for i in range(len(CLASSES))]
+        for i in range(3):
+            for cls in classes:
+                read_attr(cls())
+        hits, misses = __graalpython__.method_cache_stats()
+        for cls in classes:
+            assert read_attr(cls()) == "base"
+        new_hits, new_misses = __graalpython__.method_cache_stats()
+        assert new_hits > hits
+
+        classes[0].__bases__ = (Other,)
+        assert read_attr(classes[0]()) == "other"
+        assert __graalpython__.method_cache_stats()[1] > new_misses
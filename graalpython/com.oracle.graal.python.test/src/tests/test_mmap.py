@@ -178,6 +178,91 @@ class MmapTests(unittest.TestCase):
                               "wrong exception raised in context manager")
         self.assertTrue(m.closed, "context manager failed")
 
+    def test_find_rfind(self):
+        m = mmap.mmap(-1, 32)
+        m[:] = b'one two one two one two 12345678'
+        self.assertEqual(m.find(b'one'), 0)
+        self.assertEqual(m.find(b'one', 1), 8)
+        self.assertEqual(m.find(b'one', 1, 10), -1)
+        self.assertEqual(m.find(b'three'), -1)
+        self.assertEqual(m.rfind(b'one'), 16)
+        self.assertEqual(m.rfind(b'one', 0, 18), 8)
+        self.assertEqual(m.rfind(b'two', -12), 20)
+        # 'find' starts at the current position by default
+        m.seek(5)
+        self.assertEqual(m.find(b'one'), 8)
+        m.close()
+
+    def test_readline_and_slices(self):
+        m = mmap.mmap(-1, 16)
+        m[0:16] = b'abc\ndefg\nhijklmn'
+        self.assertEqual(m.readline(), b'abc\n')
+        self.assertEqual(m.readline(), b'defg\n')
+        self.assertEqual(m.readline(), b'hijklmn')
+        self.assertEqual(m.readline(), b'')
+        self.assertEqual(m[::2], b'acdf\nikm')
+        m[1:7:3] = b'XY'
+        self.assertEqual(m[0:8], b'aXc\nYefg')
+        with self.assertRaises(IndexError):
+            m[0:3] = b'too long'
+        m.seek(14)
+        m.write_byte(ord('Z'))
+        self.assertEqual(m.read_byte(), ord('n'))
+        self.assertRaises(ValueError, m.read_byte)
+        self.assertRaises(ValueError, m.write, b'x')
+        m.close()
+        self.assertRaises(ValueError, m.read)
+
+    def test_memoryview(self):
+        m = mmap.mmap(-1, 8)
+        mv = memoryview(m)
+        self.assertEqual(len(mv), 8)
+        # the view shares memory with the map
+        m[0] = 42
+        self.assertEqual(mv[0], 42)
+        mv[1:3] = b'xy'
+        self.assertEqual(m[1:3], b'xy')
+        mv.release()
+        m.close()
+
+    def test_close_with_exports(self):
+        m = mmap.mmap(-1, 8)
+        mv = memoryview(m)
+        sub = mv[2:4]
+        self.assertRaises(BufferError, m.close)
+        mv.release()
+        # the slice still refers to the mapped memory
+        self.assertRaises(BufferError, m.close)
+        self.assertFalse(m.closed)
+        sub.release()
+        m.close()
+        self.assertTrue(m.closed)
+        with mmap.mmap(-1, 8) as m:
+            with memoryview(m) as mv:
+                mv[0] = 1
+
+    def test_file_access(self):
+        with open(TESTFN, 'wb') as f:
+            f.write(b'x' * 10 + b'abc' + b'y' * 10)
+        try:
+            with open(TESTFN, 'r+b') as f:
+                m = mmap.mmap(f.fileno(), 0)
+                self.assertEqual(len(m), 23)
+                m[0:3] = b'foo'
+                m.flush()
+                m.close()
+            with open(TESTFN, 'rb') as f:
+                self.assertEqual(f.read(3), b'foo')
+                m = mmap.mmap(f.fileno(), 0, access=mmap.ACCESS_READ)
+                self.assertEqual(m.find(b'abc'), 10)
+                with self.assertRaises(TypeError):
+                    m[0] = 1
+                m.close()
+            with open(TESTFN, 'rb') as f:
+                self.assertRaises(ValueError, mmap.mmap, f.fileno(), 24, access=mmap.ACCESS_READ)
+        finally:
+            os.unlink(TESTFN)
+
 
 
 def test_main():
@@ -66,5 +66,104 @@ class TestPickle(unittest.TestCase):
         assert [16,17,18,19] == [next(teeit2) for i in range(1, 5)]
         assert [16,17,18,19] == [next(teeit) for i in range(1, 5)]
 
+    def test_containers_all_protocols(self):
+        shared = [1, 2.5, "x"]
+        data = {
+            "ints": [0, 1, -1, 255, 256, 65535, 65536, -2**31, 2**31, 2**63, -2**100],
+            "floats": [0.0, -1.5, 1e300, float("inf")],
+            "strs": ["", "abc", "\u20ac\U0001f600", "a\nb\\c", "x" * 300],
+            "bytes": [b"", b"\x00\xff", bytearray(b"abc")],
+            "tuples": [(), (1,), (1, 2), (1, 2, 3), (1, 2, 3, 4)],
+            "sets": [set(), {1, 2, 3}, frozenset(), frozenset({"a"})],
+            "singletons": [None, True, False, Ellipsis, NotImplemented, type(None)],
+            "shared": (shared, shared),
+            "big": list(range(2500)),
+        }
+        for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+            r = pickle.loads(pickle.dumps(data, protocol=proto))
+            self.assertEqual(r, data, proto)
+            self.assertIs(r["shared"][0], r["shared"][1])
+
+    def test_recursive(self):
+        l = [1]
+        l.append(l)
+        d = {}
+        d["self"] = d
+        t = (l, d)
+        for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+            rl, rd = pickle.loads(pickle.dumps(t, protocol=proto))
+            self.assertIs(rl[1], rl)
+            self.assertIs(rd["self"], rd)
+
+    def test_objects(self):
+        for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+            obj = PickledObject(1, [2])
+            r = pickle.loads(pickle.dumps(obj, protocol=proto))
+            self.assertIs(type(r), PickledObject)
+            self.assertEqual(r.__dict__, obj.__dict__)
+            self.assertIs(pickle.loads(pickle.dumps(PickledObject, protocol=proto)), PickledObject)
+
+    def test_file(self):
+        import io
+        f = io.BytesIO()
+        p = pickle.Pickler(f, 2)
+        p.dump([1, 2])
+        p.dump("abc")
+        f.seek(0)
+        u = pickle.Unpickler(f)
+        self.assertEqual(u.load(), [1, 2])
+        self.assertEqual(u.load(), "abc")
+        self.assertRaises(EOFError, u.load)
+
+    def test_persistent_id(self):
+        import io
+
+        class MyPickler(pickle.Pickler):
+            def persistent_id(self, obj):
+                return "ext" if obj == "external" else None
+
+        class MyUnpickler(pickle.Unpickler):
+            def persistent_load(self, pid):
+                return pid + "-loaded"
+
+        for proto in range(pickle.HIGHEST_PROTOCOL + 1):
+            f = io.BytesIO()
+            MyPickler(f, proto).dump(["a", "external"])
+            f.seek(0)
+            self.assertEqual(MyUnpickler(f).load(), ["a", "ext-loaded"])
+
+    def test_pickle_buffer(self):
+        data = bytearray(b"out-of-band")
+        buffers = []
+        p = pickle.dumps(pickle.PickleBuffer(data), protocol=5, buffer_callback=buffers.append)
+        self.assertEqual(len(buffers), 1)
+        r = pickle.loads(p, buffers=buffers)
+        self.assertEqual(bytes(r), b"out-of-band")
+        # in-band, the buffer is written like a bytearray
+        self.assertEqual(pickle.loads(pickle.dumps(pickle.PickleBuffer(data), protocol=5)), data)
+        with self.assertRaises(pickle.PicklingError):
+            pickle.dumps(pickle.PickleBuffer(data), protocol=4)
+        with self.assertRaises(pickle.UnpicklingError):
+            pickle.loads(p)
+
+    def test_errors(self):
+        with self.assertRaises(pickle.UnpicklingError):
+            pickle.loads(b"\xff")
+        with self.assertRaises(EOFError):
+            pickle.loads(b"")
+        with self.assertRaises(pickle.UnpicklingError):
+            pickle.loads(b"\x80\x04K")
+        with self.assertRaises(ValueError):
+            pickle.dumps(1, protocol=pickle.HIGHEST_PROTOCOL + 1)
+        with self.assertRaises((AttributeError, pickle.PicklingError)):
+            pickle.dumps(lambda: 1)
+
+
+class PickledObject:
+    def __init__(self, a, b):
+        self.a = a
+        self.b = b
+
+
 if __name__ == '__main__':
     unittest.main()
@@ -352,6 +352,33 @@ class WithTempFilesTests(unittest.TestCase):
         self.assertEqual(TEST_FULL_PATH1, os.readlink(TEST_FILENAME2, dir_fd=self.tmp_fd))
         self.assertEqual(os.fsencode(TEST_FULL_PATH1), os.readlink(os.fsencode(TEST_FILENAME2), dir_fd=self.tmp_fd))
 
+    def test_pread_pwrite(self):
+        with open(TEST_FULL_PATH1, os.O_RDWR) as fd:
+            os.write(fd, b'0123456789')
+            self.assertEqual(3, os.pwrite(fd, b'abc', 2))
+            self.assertEqual(b'01abc5', os.pread(fd, 6, 0))
+            self.assertEqual(b'89', os.pread(fd, 10, 8))
+            self.assertEqual(b'', os.pread(fd, 10, 20))
+            # the file offset is not changed by pread/pwrite
+            self.assertEqual(10, os.lseek(fd, 0, os.SEEK_CUR))
+
+    def test_readv_writev(self):
+        with open(TEST_FULL_PATH1, os.O_RDWR) as fd:
+            self.assertEqual(9, os.writev(fd, [b'abc', bytearray(b'def'), memoryview(b'ghi')]))
+            os.lseek(fd, 0, os.SEEK_SET)
+            a = bytearray(2)
+            b = bytearray(4)
+            c = array.array('b', [0] * 5)
+            self.assertEqual(9, os.readv(fd, [a, b, c]))
+            self.assertEqual(b'ab', a)
+            self.assertEqual(b'cdef', b)
+            self.assertEqual(b'ghi\0\0', c.tobytes())
+            self.assertEqual(0, os.readv(fd, [a]))
+            self.assertRaises(BufferError, os.readv, fd, [b'abc'])
+            self.assertRaises(TypeError, os.readv, fd, [42])
+            self.assertRaises(TypeError, os.readv, fd, 42)
+            self.assertRaises(TypeError, os.writev, fd, ['abc'])
+
 
 class ChdirTests(unittest.TestCase):
 
@@ -95,3 +95,59 @@ class SelectTests(unittest.TestCase):
             fds = [F(f.fileno()), F(stdout_fd), F(f.fileno())]
             res = select.select(fds, [], [], 1)
             assert res == ([fds[0], fds[2]], [], [])
+
+    def test_poll(self):
+        r, w = os.pipe()
+        try:
+            p = select.poll()
+            p.register(r, select.POLLIN)
+            p.register(w, select.POLLOUT)
+            assert p.poll(0) == [(w, select.POLLOUT)]
+            os.write(w, b'x')
+            assert p.poll(0) == [(r, select.POLLIN), (w, select.POLLOUT)]
+            p.unregister(w)
+            assert p.poll(None) == [(r, select.POLLIN)]
+            self.assertRaises(KeyError, p.unregister, w)
+            self.assertRaises(OSError, p.modify, w, select.POLLIN)
+            self.assertRaises(ValueError, p.poll, float("nan"))
+        finally:
+            os.close(r)
+            os.close(w)
+
+    @unittest.skipUnless(hasattr(select, 'epoll'), 'epoll is not available')
+    def test_epoll(self):
+        r, w = os.pipe()
+        ep = select.epoll()
+        try:
+            ep.register(r, select.EPOLLIN)
+            ep.register(w, select.EPOLLOUT)
+            assert ep.poll(0) == [(w, select.EPOLLOUT)]
+            os.write(w, b'x')
+            assert sorted(ep.poll(0)) == sorted([(r, select.EPOLLIN), (w, select.EPOLLOUT)])
+            assert len(ep.poll(0, 1)) == 1
+            ep.modify(w, select.EPOLLIN)
+            assert ep.poll(0.5) == [(r, select.EPOLLIN)]
+            ep.unregister(w)
+            self.assertRaises(FileExistsError, ep.register, r)
+            self.assertRaises(FileNotFoundError, ep.unregister, w)
+            self.assertRaises(ValueError, ep.poll, 0, 0)
+        finally:
+            ep.close()
+            os.close(r)
+            os.close(w)
+        assert ep.closed
+        self.assertRaises(ValueError, ep.fileno)
+
+    def test_default_selector(self):
+        import selectors
+        r, w = os.pipe()
+        try:
+            with selectors.DefaultSelector() as sel:
+                sel.register(r, selectors.EVENT_READ, 'data')
+                assert sel.select(0) == []
+                os.write(w, b'x')
+                [(key, events)] = sel.select(1)
+                assert key.fd == r and key.data == 'data' and events == selectors.EVENT_READ
+        finally:
+            os.close(r)
+            os.close(w)
@@ -0,0 +1,130 @@
+# Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or
+# data (collectively the "Software"), free of charge and under any and all
+# copyright rights in the Software, and any and all patent rights owned or
+# freely licensable by each licensor hereunder covering either (i) the
+# unmodified Software as contributed to or provided by such licensor, or (ii)
+# the Larger Works (as defined below), to deal in both
+#
+# (a) the Software, and
+#
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+# one is included with the Software each a "Larger Work" to which the Software
+# is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+import queue
+import threading
+import time
+
+
+def test_put_get():
+    q = queue.SimpleQueue()
+    assert q.empty()
+    assert q.qsize() == 0
+    q.put(1)
+    q.put_nowait(2)
+    q.put(3, block=False, timeout=1)
+    assert not q.empty()
+    assert q.qsize() == 3
+    assert q.get() == 1
+    assert q.get_nowait() == 2
+    assert q.get(timeout=1) == 3
+    assert q.empty()
+
+
+def test_empty():
+    q = queue.SimpleQueue()
+    for get in (q.get_nowait, lambda: q.get(False), lambda: q.get(timeout=0.01)):
+        try:
+            get()
+        except queue.Empty:
+            pass
+        else:
+            assert False, "expected queue.Empty"
+    try:
+        q.get(timeout=-1)
+    except ValueError:
+        pass
+    else:
+        assert False, "expected ValueError"
+
+
+def test_subclass():
+    class MyQueue(queue.SimpleQueue):
+        pass
+
+    q = MyQueue()
+    q.put("a")
+    assert q.get() == "a"
+
+
+def test_blocking_get():
+    q = queue.SimpleQueue()
+    results = []
+
+    def consume():
+        results.append(q.get())
+
+    t = threading.Thread(target=consume)
+    t.start()
+    time.sleep(0.01)
+    q.put(42)
+    t.join()
+    assert results == [42]
+
+
+def test_producers_consumers():
+    q = queue.SimpleQueue()
+    n = 1000
+    results = []
+    lock = threading.Lock()
+
+    def produce():
+        for i in range(n):
+            q.put(i)
+
+    def consume():
+        total = 0
+        while True:
+            item = q.get()
+            if item is None:
+                break
+            total += item
+        with lock:
+            results.append(total)
+
+    consumers = [threading.Thread(target=consume) for i in range(3)]
+    producers = [threading.Thread(target=produce) for i in range(3)]
+    for t in consumers + producers:
+        t.start()
+    for t in producers:
+        t.join()
+    for t in consumers:
+        q.put(None)
+    for t in consumers:
+        t.join()
+    assert sum(results) == 3 * sum(range(n))
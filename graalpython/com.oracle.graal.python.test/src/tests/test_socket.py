@@ -66,3 +66,84 @@ def test_get_name_info():
     except TypeError:
         raised = True
     assert raised
+
+
+class TestSocketIO(unittest.TestCase):
+    def setUp(self):
+        server = socket.socket(socket.AF_INET, socket.SOCK_STREAM)
+        server.bind(('127.0.0.1', 0))
+        server.listen(1)
+        self.client = socket.socket(socket.AF_INET, socket.SOCK_STREAM)
+        self.client.connect(server.getsockname())
+        self.conn, _ = server.accept()
+        server.close()
+
+    def tearDown(self):
+        self.client.close()
+        self.conn.close()
+
+    def recv_exactly(self, n):
+        data = b''
+        while len(data) < n:
+            chunk = self.conn.recv(n - len(data))
+            if not chunk:
+                break
+            data += chunk
+        return data
+
+    def test_send_memoryview(self):
+        data = memoryview(b'xxhello worldxx')[2:-2]
+        self.assertEqual(self.client.send(data), len(data))
+        self.assertEqual(self.recv_exactly(len(data)), b'hello world')
+        self.client.sendall(bytearray(b'abc'))
+        self.assertEqual(self.recv_exactly(3), b'abc')
+
+    def test_recv_into(self):
+        self.conn.sendall(b'0123456789')
+        buf = bytearray(8)
+        self.assertEqual(self.client.recv_into(memoryview(buf)[2:], 4), 4)
+        self.assertEqual(buf, b'\x00\x000123\x00\x00')
+        n, addr = self.client.recvfrom_into(buf)
+        self.assertEqual(buf[:n], b'456789'[:n])
+        self.assertRaises(ValueError, self.client.recv_into, bytearray(2), 3)
+        self.assertRaises(ValueError, self.client.recv_into, bytearray(2), -1)
+
+    def test_recv_flags(self):
+        self.assertRaises(BlockingIOError, self.client.recv, 10, socket.MSG_DONTWAIT)
+        self.conn.sendall(b'hello world')
+        peeked = self.client.recv(5, socket.MSG_PEEK)
+        self.assertTrue(peeked)
+        self.assertTrue(b'hello'.startswith(peeked))
+        self.assertEqual(self.client.recv(11, socket.MSG_WAITALL), b'hello world')
+        self.conn.sendall(b'abc')
+        buf = bytearray(3)
+        n = self.client.recv_into(buf, 3, socket.MSG_PEEK)
+        self.assertEqual(buf[:n], b'abc'[:n])
+        self.assertEqual(self.client.recv(3, socket.MSG_WAITALL), b'abc')
+        # MSG_OOB is not supported
+        self.assertRaises(OSError, self.client.recv, 10, 1)
+
+    def test_timeout(self):
+        self.assertIsNone(self.client.gettimeout())
+        self.assertTrue(self.client.getblocking())
+        self.client.settimeout(0.1)
+        self.assertEqual(self.client.gettimeout(), 0.1)
+        self.assertTrue(self.client.getblocking())
+        self.assertRaises(socket.timeout, self.client.recv, 10)
+        self.client.setblocking(False)
+        self.assertEqual(self.client.gettimeout(), 0.0)
+        self.assertRaises(BlockingIOError, self.client.recv, 10)
+        self.assertRaises(ValueError, self.client.settimeout, -1)
+        self.client.settimeout(None)
+        self.conn.sendall(b'abc')
+        self.assertEqual(self.client.recv(3), b'abc')
+
+    def test_sendfile(self):
+        import tempfile
+        data = bytes(range(256)) * 64
+        with tempfile.TemporaryFile() as f:
+            f.write(data)
+            f.seek(0)
+            self.assertEqual(self.client.sendfile(f, 16), len(data) - 16)
+            self.assertEqual(f.tell(), len(data))
+        self.assertEqual(self.recv_exactly(len(data) - 16), data[16:])
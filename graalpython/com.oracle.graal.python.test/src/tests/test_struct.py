@@ -159,3 +159,112 @@ def test_pack_large_long():
         assert struct.unpack(fmt, b'\x00' * struct.calcsize(fmt)) == (0,)
         assert struct.pack(fmt, 18446744073709551615) == b'\xff\xff\xff\xff\xff\xff\xff\xff'
         assert struct.unpack(fmt, b'\xff\xff\xff\xff\xff\xff\xff\xff') == (18446744073709551615,)
+
+
+def test_pack_into_unpack_from():
+    import array
+    s = struct.Struct('<hI')
+    for buf in (bytearray(10), array.array('b', [0] * 10), memoryview(bytearray(10))):
+        s.pack_into(buf, 2, -2, 0xdeadbeef)
+        assert bytes(buf) == b'\x00\x00\xfe\xff\xef\xbe\xad\xde\x00\x00'
+        assert s.unpack_from(buf, 2) == (-2, 0xdeadbeef)
+        assert struct.unpack_from('<h', buf, offset=2) == (-2,)
+        struct.pack_into('<b', buf, -1, 7)
+        assert bytes(buf)[-1] == 7
+
+    try:
+        s.pack_into(bytearray(4), 0, 1, 2)
+    except struct.error:
+        pass
+    else:
+        assert False, "expected struct.error"
+
+    try:
+        s.unpack_from(b'\x00' * 4)
+    except struct.error:
+        pass
+    else:
+        assert False, "expected struct.error"
+
+    try:
+        s.pack_into(b'\x00' * 10, 0, 1, 2)
+    except TypeError:
+        pass
+    else:
+        assert False, "expected TypeError"
+
+
+def test_iter_unpack():
+    data = struct.pack('<4h', 1, 2, 3, 4)
+    it = struct.iter_unpack('<h', data)
+    assert it.__length_hint__() == 4
+    assert list(it) == [(1,), (2,), (3,), (4,)]
+    assert it.__length_hint__() == 0
+    assert list(struct.Struct('<2h').iter_unpack(bytearray(data))) == [(1, 2), (3, 4)]
+
+    try:
+        struct.iter_unpack('<h', b'\x00' * 3)
+    except struct.error:
+        pass
+    else:
+        assert False, "expected struct.error"
+
+
+def test_struct_object():
+    s = struct.Struct(b'<iq')
+    assert s.format == '<iq'
+    assert s.size == 12
+    assert s.unpack(s.pack(1, -1)) == (1, -1)
+    s.__init__('>H')
+    assert s.format == '>H'
+    assert s.pack(1) == b'\x00\x01'
+
+    class MyStruct(struct.Struct):
+        pass
+
+    assert MyStruct('<d').unpack(struct.pack('<d', 1.5)) == (1.5,)
+
+
+def test_errors():
+    for fmt, args in (('<b', (128,)), ('<B', (-1,)), ('<h', (1 << 15,)), ('<Q', (-1,))):
+        try:
+            struct.pack(fmt, *args)
+        except struct.error:
+            pass
+        else:
+            assert False, "expected struct.error for %s" % fmt
+
+    try:
+        struct.pack('<2h', 1)
+    except struct.error:
+        pass
+    else:
+        assert False, "expected struct.error"
+
+    try:
+        struct.calcsize('<z')
+    except struct.error:
+        pass
+    else:
+        assert False, "expected struct.error"
+
+    try:
+        struct.pack('<i', 1.0)
+    except struct.error:
+        pass
+    else:
+        assert False, "expected struct.error"
+
+    try:
+        struct.Struct(1)
+    except TypeError:
+        pass
+    else:
+        assert False, "expected TypeError"
+
+
+def test_clearcache():
+    assert struct.calcsize('<5i') == 20
+    struct._clearcache()
+    assert struct.calcsize('<5i') == 20
+    assert struct.calcsize('@bi') == struct.calcsize('i') * 2
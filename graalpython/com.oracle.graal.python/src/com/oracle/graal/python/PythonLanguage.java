@@ -60,6 +60,7 @@ import com.oracle.graal.python.nodes.expression.TernaryArithmetic;
 import com.oracle.graal.python.nodes.expression.UnaryArithmetic;
 import com.oracle.graal.python.parser.PythonParserImpl;
 import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.PythonContext.PythonThreadState;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.PythonParser.ParserMode;
@@ -74,6 +75,7 @@ import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.ContextThreadLocal;
 import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.TruffleFile;
@@ -147,6 +149,12 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
      */
     public final Assumption singleThreadedAssumption = Truffle.getRuntime().createAssumption("Only a single thread is active");
 
+    /**
+     * The {@link PythonThreadState} of each thread. Unlike a {@link ThreadLocal}, this can be read
+     * by compiled code without a boundary call.
+     */
+    private final ContextThreadLocal<PythonThreadState> threadState = createContextThreadLocal(PythonThreadState::new);
+
     private final NodeFactory nodeFactory;
     private final ConcurrentHashMap<String, RootCallTarget> builtinCallTargetCache = new ConcurrentHashMap<>();
     /**
@@ -672,7 +680,11 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
 
     @Override
     protected void initializeThread(PythonContext context, Thread thread) {
-        context.attachThread(thread);
+        context.attachThread(thread, threadState.get(thread));
+    }
+
+    public PythonThreadState getThreadState() {
+        return threadState.get();
     }
 
     @Override
@@ -79,6 +79,9 @@ public enum PythonBuiltinClassType implements TruffleObject {
     PBytes("bytes", BuiltinNames.BUILTINS),
     PCell("cell", false),
     PComplex("complex", BuiltinNames.BUILTINS),
+    PDeque("deque", "_collections"),
+    PDequeIter("_deque_iterator", "_collections", false),
+    PDequeRevIter("_deque_reverse_iterator", "_collections", false),
     PDict("dict", BuiltinNames.BUILTINS),
     PDictItemIterator(BuiltinNames.DICT_ITEMITERATOR, false),
     PDictReverseItemIterator(BuiltinNames.DICT_REVERSE_ITEMITERATOR, false),
@@ -124,25 +127,64 @@ public enum PythonBuiltinClassType implements TruffleObject {
     PCode("code", false),
     PZip("zip", BuiltinNames.BUILTINS),
     PZipImporter("zipimporter", "zipimport"),
+    PAccumulate("accumulate", "itertools"),
+    PChain("chain", "itertools"),
+    PCompress("compress", "itertools"),
+    PCount("count", "itertools"),
+    PCycle("cycle", "itertools"),
+    PDropwhile("dropwhile", "itertools"),
+    PFilterfalse("filterfalse", "itertools"),
+    PGroupBy("groupby", "itertools"),
+    PGrouper("_grouper", "itertools", false),
+    PIslice("islice", "itertools"),
+    PRepeat("repeat", "itertools"),
+    PStarmap("starmap", "itertools"),
+    PTakewhile("takewhile", "itertools"),
+    PTee("_tee", "itertools", false),
+    PTeeDataObject("_tee_dataobject", "itertools", false),
+    PZipLongest("zip_longest", "itertools"),
+    PPartial("partial", "_functools"),
+    PLruCacheWrapper("_lru_cache_wrapper", "_functools", false),
     PBuffer("buffer", BuiltinNames.BUILTINS, false),
     PThread("start_new_thread", "_thread"),
     PLock("LockType", "_thread"),
     PRLock("RLock", "_thread"),
     PSemLock("SemLock", "_multiprocessing"),
     PSocket("socket", "_socket"),
+    PHashObject("HASH", "_hashlib", false),
+    PJsonScanner("Scanner", "_json"),
+    PJsonEncoder("Encoder", "_json"),
+    PPickler("Pickler", "_pickle"),
+    PUnpickler("Unpickler", "_pickle"),
+    PPickleBuffer("PickleBuffer", "_pickle", false),
     PStaticmethod("staticmethod", BuiltinNames.BUILTINS),
     PClassmethod("classmethod", BuiltinNames.BUILTINS),
     PScandirIterator("ScandirIterator", false, "posix", false),
     PDirEntry("DirEntry", true, "posix", false),
+    PPoll("poll", false, "select", false),
+    PEpoll("epoll", "select"),
     PLZMACompressor("LZMACompressor", "_lzma"),
     PLZMADecompressor("LZMADecompressor", "_lzma"),
     LsprofProfiler("Profiler", "_lsprof"),
     PStruct("Struct", "_struct"),
+    PStructUnpackIterator("unpack_iterator", "_struct", false),
+    PContextVarsContext("Context", "_contextvars", false),
+    PContextVar("ContextVar", "_contextvars", false),
+    PContextVarsToken("Token", "_contextvars", false),
+    PContextVarsTokenMissing("Token.MISSING", false),
+    PSimpleQueue("SimpleQueue", "_queue"),
     BZ2Compressor("BZ2Compressor", "_bz2"),
     BZ2Decompressor("BZ2Decompressor", "_bz2"),
     ZlibCompress("Compress", "zlib"),
     ZlibDecompress("Decompress", "zlib"),
     PBufferedReader("BufferedReader", "_io"),
+    PBufferedWriter("BufferedWriter", "_io"),
+    PBufferedRandom("BufferedRandom", "_io"),
+    PBufferedRWPair("BufferedRWPair", "_io"),
+    PBytesIO("BytesIO", "_io"),
+    PStringIO("StringIO", "_io"),
+    PTextIOWrapper("TextIOWrapper", "_io"),
+    PIncrementalNewlineDecoder("IncrementalNewlineDecoder", "_io"),
     PStatResult("stat_result", "os", false),
     PTerminalSize("terminal_size", "os", false),
     PUnameResult("uname_result", "posix", false),
@@ -208,6 +250,10 @@ public enum PythonBuiltinClassType implements TruffleObject {
     SocketGAIError("gaierror", "_socket"),
     SocketHError("herror", "_socket"),
     SocketTimeout("timeout", "_socket"),
+    PickleError("PickleError", "_pickle"),
+    PicklingError("PicklingError", "_pickle"),
+    UnpicklingError("UnpicklingError", "_pickle"),
+    QueueEmpty("Empty", "_queue"),
 
     // todo: all OS errors
 
@@ -379,6 +425,10 @@ public enum PythonBuiltinClassType implements TruffleObject {
         SocketGAIError.base = OSError;
         SocketHError.base = OSError;
         SocketTimeout.base = OSError;
+        PickleError.base = Exception;
+        PicklingError.base = PickleError;
+        UnpicklingError.base = PickleError;
+        QueueEmpty.base = Exception;
 
         ReferenceError.base = Exception;
         RuntimeError.base = Exception;
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.expression.LessThanNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.subscript.GetItemNode;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(defineModule = "_bisect")
+public class BisectModuleBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return BisectModuleBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Finds the index at which {@code x} would be inserted into the sorted {@code a[lo:hi]}, after
+     * the items equal to {@code x} if {@code right} is set and before them otherwise. Exact lists
+     * of {@code int} and {@code float} values are searched directly on their primitive arrays,
+     * everything else uses {@code __getitem__} and {@link LessThanNode}.
+     */
+    abstract static class BisectNode extends PNodeWithContext {
+
+        abstract int execute(VirtualFrame frame, Object a, Object x, int lo, int hi, boolean right);
+
+        @Specialization(guards = {"isExactList(a, isListProfile)", "isIntStorage(a, hi)"})
+        static int doInt(PList a, int x, int lo, int hi, boolean right,
+                        @SuppressWarnings("unused") @Shared("isList") @Cached IsBuiltinClassProfile isListProfile) {
+            int[] array = ((IntSequenceStorage) a.getSequenceStorage()).getInternalIntArray();
+            int l = lo;
+            int h = hi;
+            while (l < h) {
+                int mid = (l + h) >>> 1;
+                if (right ? x < array[mid] : !(array[mid] < x)) {
+                    h = mid;
+                } else {
+                    l = mid + 1;
+                }
+            }
+            return l;
+        }
+
+        @Specialization(guards = {"isExactList(a, isListProfile)", "isLongStorage(a, hi)"})
+        static int doLong(PList a, long x, int lo, int hi, boolean right,
+                        @SuppressWarnings("unused") @Shared("isList") @Cached IsBuiltinClassProfile isListProfile) {
+            long[] array = ((LongSequenceStorage) a.getSequenceStorage()).getInternalLongArray();
+            int l = lo;
+            int h = hi;
+            while (l < h) {
+                int mid = (l + h) >>> 1;
+                if (right ? x < array[mid] : !(array[mid] < x)) {
+                    h = mid;
+                } else {
+                    l = mid + 1;
+                }
+            }
+            return l;
+        }
+
+        @Specialization(guards = {"isExactList(a, isListProfile)", "isLongStorage(a, hi)"})
+        static int doLongInt(PList a, int x, int lo, int hi, boolean right,
+                        @Shared("isList") @Cached IsBuiltinClassProfile isListProfile) {
+            return doLong(a, x, lo, hi, right, isListProfile);
+        }
+
+        @Specialization(guards = {"isExactList(a, isListProfile)", "isDoubleStorage(a, hi)"})
+        static int doDouble(PList a, double x, int lo, int hi, boolean right,
+                        @SuppressWarnings("unused") @Shared("isList") @Cached IsBuiltinClassProfile isListProfile) {
+            // Java's '<' on doubles is Python's '<' on floats, including NaNs
+            double[] array = ((DoubleSequenceStorage) a.getSequenceStorage()).getInternalDoubleArray();
+            int l = lo;
+            int h = hi;
+            while (l < h) {
+                int mid = (l + h) >>> 1;
+                if (right ? x < array[mid] : !(array[mid] < x)) {
+                    h = mid;
+                } else {
+                    l = mid + 1;
+                }
+            }
+            return l;
+        }
+
+        @Specialization
+        static int doGeneric(VirtualFrame frame, Object a, Object x, int lo, int hi, boolean right,
+                        @Cached GetItemNode getItemNode,
+                        @Cached LessThanNode ltNode) {
+            int l = lo;
+            int h = hi;
+            while (l < h) {
+                int mid = (l + h) >>> 1;
+                Object item = getItemNode.execute(frame, a, mid);
+                if (right ? ltNode.execute(frame, x, item) : !ltNode.execute(frame, item, x)) {
+                    h = mid;
+                } else {
+                    l = mid + 1;
+                }
+            }
+            return l;
+        }
+
+        static boolean isExactList(PList a, IsBuiltinClassProfile isListProfile) {
+            return isListProfile.profileIsAnyBuiltinObject(a);
+        }
+
+        // 'hi' beyond the end of the list must raise an IndexError like in the generic case
+        static boolean isIntStorage(PList a, int hi) {
+            SequenceStorage storage = a.getSequenceStorage();
+            return storage instanceof IntSequenceStorage && hi <= storage.length();
+        }
+
+        static boolean isLongStorage(PList a, int hi) {
+            SequenceStorage storage = a.getSequenceStorage();
+            return storage instanceof LongSequenceStorage && hi <= storage.length();
+        }
+
+        static boolean isDoubleStorage(PList a, int hi) {
+            SequenceStorage storage = a.getSequenceStorage();
+            return storage instanceof DoubleSequenceStorage && hi <= storage.length();
+        }
+
+        static BisectNode create() {
+            return BisectModuleBuiltinsFactory.BisectNodeGen.create();
+        }
+    }
+
+    abstract static class BisectBaseNode extends PythonQuaternaryClinicBuiltinNode {
+
+        int getHi(VirtualFrame frame, Object a, int lo, int hi, PythonObjectLibrary lib) {
+            if (lo < 0) {
+                throw raise(ValueError, ErrorMessages.MUST_BE_NON_NEGATIVE, "lo");
+            }
+            if (hi == -1) {
+                return lib.lengthWithFrame(a, frame);
+            }
+            return hi;
+        }
+    }
+
+    abstract static class InsortBaseNode extends BisectBaseNode {
+
+        static void insert(VirtualFrame frame, Object a, int index, Object x, IsBuiltinClassProfile isListProfile, SequenceStorageNodes.InsertItemNode insertItemNode, PythonObjectLibrary lib) {
+            if (a instanceof PList && isListProfile.profileIsAnyBuiltinObject((PList) a)) {
+                PList list = (PList) a;
+                SequenceStorage storage = list.getSequenceStorage();
+                // like list.insert, clamp an index beyond the end of the list
+                list.setSequenceStorage(insertItemNode.execute(storage, Math.min(index, storage.length()), x));
+            } else {
+                lib.lookupAndCallRegularMethod(a, frame, "insert", index, x);
+            }
+        }
+    }
+
+    @Builtin(name = "bisect_right", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"})
+    @ArgumentClinic(name = "lo", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class BisectRightNode extends BisectBaseNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectModuleBuiltinsClinicProviders.BisectRightNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        int doBisect(VirtualFrame frame, Object a, Object x, int lo, int hi,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached BisectNode bisectNode) {
+            return bisectNode.execute(frame, a, x, lo, getHi(frame, a, lo, hi, lib), true);
+        }
+    }
+
+    @Builtin(name = "bisect_left", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"})
+    @ArgumentClinic(name = "lo", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class BisectLeftNode extends BisectBaseNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectModuleBuiltinsClinicProviders.BisectLeftNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        int doBisect(VirtualFrame frame, Object a, Object x, int lo, int hi,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached BisectNode bisectNode) {
+            return bisectNode.execute(frame, a, x, lo, getHi(frame, a, lo, hi, lib), false);
+        }
+    }
+
+    @Builtin(name = "insort_right", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"})
+    @ArgumentClinic(name = "lo", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class InsortRightNode extends InsortBaseNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectModuleBuiltinsClinicProviders.InsortRightNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone doInsort(VirtualFrame frame, Object a, Object x, int lo, int hi,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached BisectNode bisectNode,
+                        @Cached IsBuiltinClassProfile isListProfile,
+                        @Cached SequenceStorageNodes.InsertItemNode insertItemNode) {
+            int index = bisectNode.execute(frame, a, x, lo, getHi(frame, a, lo, hi, lib), true);
+            insert(frame, a, index, x, isListProfile, insertItemNode, lib);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "insort_left", minNumOfPositionalArgs = 2, parameterNames = {"a", "x", "lo", "hi"})
+    @ArgumentClinic(name = "lo", conversion = ClinicConversion.Index, defaultValue = "0")
+    @ArgumentClinic(name = "hi", conversion = ClinicConversion.Index, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class InsortLeftNode extends InsortBaseNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BisectModuleBuiltinsClinicProviders.InsortLeftNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone doInsort(VirtualFrame frame, Object a, Object x, int lo, int hi,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached BisectNode bisectNode,
+                        @Cached IsBuiltinClassProfile isListProfile,
+                        @Cached SequenceStorageNodes.InsertItemNode insertItemNode) {
+            int index = bisectNode.execute(frame, a, x, lo, getHi(frame, a, lo, hi, lib), false);
+            insert(frame, a, index, x, isListProfile, insertItemNode, lib);
+            return PNone.NONE;
+        }
+    }
+}
@@ -111,6 +111,7 @@ import static com.oracle.graal.python.builtins.PythonBuiltinClassType.UnicodeEnc
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.modules.WarningsModuleBuiltins.WarnNode;
 import com.oracle.graal.python.builtins.modules.WeakRefModuleBuiltins.GetWeakRefsNode;
+import com.oracle.graal.python.builtins.modules.pickle.PPickleBuffer;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PNotImplemented;
 import com.oracle.graal.python.builtins.objects.array.PArray;
@@ -158,6 +159,7 @@ import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.map.PMap;
 import com.oracle.graal.python.builtins.objects.memoryview.PBuffer;
 import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
+import com.oracle.graal.python.builtins.objects.mmap.PMMap;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.object.ObjectBuiltins;
 import com.oracle.graal.python.builtins.objects.object.ObjectBuiltinsFactory;
@@ -3458,6 +3460,26 @@ public final class BuiltinConstructors extends PythonBuiltins {
             return factory().createMemoryViewForManagedObject(object, object.getFormat().bytesize, object.getLength(), false, object.getFormatStr());
         }
 
+        @Specialization
+        PMemoryView fromMMap(@SuppressWarnings("unused") Object cls, PMMap object,
+                        @Cached CastToJavaIntExactNode castToIntNode) {
+            if (object.isClosed()) {
+                throw raise(ValueError, ErrorMessages.MMAP_CLOSED_OR_INVALID);
+            }
+            // the view reads and writes the mapped memory directly, nothing is copied
+            return factory().createMemoryViewForManagedObject(object, 1, castToIntNode.execute(object.getLength()), object.isReadonly(), "B");
+        }
+
+        @Specialization
+        PMemoryView fromPickleBuffer(Object cls, PPickleBuffer object,
+                        @Shared("c") @CachedContext(PythonLanguage.class) PythonContext context) {
+            PMemoryView view = object.getView();
+            if (view == null) {
+                throw raise(ValueError, ErrorMessages.PICKLE_BUFFER_RELEASED);
+            }
+            return fromMemoryView(cls, view, context);
+        }
+
         @Specialization
         PMemoryView fromMemoryView(@SuppressWarnings("unused") Object cls, PMemoryView object,
                         @Shared("c") @CachedContext(PythonLanguage.class) PythonContext context) {
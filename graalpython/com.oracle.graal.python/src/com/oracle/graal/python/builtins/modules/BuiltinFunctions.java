@@ -162,6 +162,7 @@ import com.oracle.graal.python.nodes.util.CannotCastException;
 import com.oracle.graal.python.nodes.util.CastToJavaIntExactNode;
 import com.oracle.graal.python.nodes.util.CastToJavaLongExactNode;
 import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.parser.ImportPrefetcher;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.PythonOptions;
@@ -804,6 +805,13 @@ public final class BuiltinFunctions extends PythonBuiltins {
             }
             final String codeToCompile = code;
             Supplier<CallTarget> createCode = () -> {
+                ImportPrefetcher prefetcher = context.getImportPrefetcher();
+                if (pm == ParserMode.File && prefetcher != null) {
+                    RootCallTarget prefetched = prefetcher.take(filename, codeToCompile);
+                    if (prefetched != null) {
+                        return prefetched;
+                    }
+                }
                 Source source = PythonLanguage.newSource(context, codeToCompile, filename, mayBeFromFile);
                 return PythonUtils.getOrCreateCallTarget((RootNode) getCore().getParser().parse(pm, getCore(), source, null, null));
             };
@@ -1707,17 +1715,17 @@ public final class BuiltinFunctions extends PythonBuiltins {
         }
     }
 
-    // sorted(iterable, key, reverse)
-    @Builtin(name = SORTED, minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 1, takesVarKeywordArgs = true)
+    // sorted(iterable, *, key=None, reverse=False)
+    @Builtin(name = SORTED, minNumOfPositionalArgs = 1, parameterNames = {"iterable"}, varArgsMarker = true, keywordOnlyNames = {"key", "reverse"})
     @GenerateNodeFactory
-    public abstract static class SortedNode extends PythonBuiltinNode {
+    public abstract static class SortedNode extends PythonTernaryBuiltinNode {
 
         @Specialization
-        Object sorted(VirtualFrame frame, Object iterable, PKeyword[] keywords,
+        Object sorted(VirtualFrame frame, Object iterable, Object key, Object reverse,
                         @Cached ConstructListNode constructListNode,
                         @Cached ListSortNode sortNode) {
             PList list = constructListNode.execute(iterable);
-            sortNode.execute(frame, list, PythonUtils.EMPTY_OBJECT_ARRAY, keywords);
+            sortNode.sort(frame, list, key, reverse);
             return list;
         }
     }
@@ -40,18 +40,97 @@
  */
 package com.oracle.graal.python.builtins.modules;
 
-import java.util.ArrayList;
 import java.util.List;
 
+import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.deque.PDeque;
+import com.oracle.graal.python.builtins.objects.deque.PDequeIter;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonVarargsBuiltinNode;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
 
 @CoreFunctions(defineModule = "_collections")
 public class CollectionsModuleBuiltins extends PythonBuiltins {
     @Override
     protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
-        return new ArrayList<>();
+        return CollectionsModuleBuiltinsFactory.getFactories();
+    }
+
+    // deque([iterable[, maxlen]])
+    @Builtin(name = "deque", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PDeque)
+    @GenerateNodeFactory
+    abstract static class DequeNode extends PythonVarargsBuiltinNode {
+        @Specialization(guards = "lib.isLazyPythonClass(cls)")
+        PDeque doGeneric(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs,
+                        @SuppressWarnings("unused") @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            return factory().createDeque(cls);
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        PDeque doError(Object cls, Object[] args, PKeyword[] kwargs) {
+            throw raise(PythonBuiltinClassType.TypeError, ErrorMessages.IS_NOT_TYPE_OBJ, "'cls'", cls);
+        }
+    }
+
+    // _deque_iterator(deque[, index])
+    @Builtin(name = "_deque_iterator", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "deque", "index"}, constructsClass = PythonBuiltinClassType.PDequeIter)
+    @GenerateNodeFactory
+    abstract static class DequeIterNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        PDequeIter doGeneric(VirtualFrame frame, Object cls, PDeque deque, Object indexObj,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            return advance(frame, factory().createDequeIter(cls, deque, false), indexObj, lib);
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        PDequeIter doError(Object cls, Object deque, Object indexObj) {
+            throw raise(PythonBuiltinClassType.TypeError, ErrorMessages.S_BRACKETS_ARG_MUST_BE_S_NOT_P, "_deque_iterator", "deque", deque);
+        }
+    }
+
+    // _deque_reverse_iterator(deque[, index])
+    @Builtin(name = "_deque_reverse_iterator", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "deque", "index"}, constructsClass = PythonBuiltinClassType.PDequeRevIter)
+    @GenerateNodeFactory
+    abstract static class DequeRevIterNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        PDequeIter doGeneric(VirtualFrame frame, Object cls, PDeque deque, Object indexObj,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            return advance(frame, factory().createDequeIter(cls, deque, true), indexObj, lib);
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        PDequeIter doError(Object cls, Object deque, Object indexObj) {
+            throw raise(PythonBuiltinClassType.TypeError, ErrorMessages.S_BRACKETS_ARG_MUST_BE_S_NOT_P, "_deque_reverse_iterator", "deque", deque);
+        }
+    }
+
+    /**
+     * Skips the first {@code index} elements, as used when unpickling a partially consumed
+     * iterator.
+     */
+    private static PDequeIter advance(VirtualFrame frame, PDequeIter iter, Object indexObj, PythonObjectLibrary lib) {
+        if (indexObj != PNone.NO_VALUE) {
+            int index = lib.asSizeWithFrame(indexObj, PythonBuiltinClassType.OverflowError, frame);
+            for (int i = 0; i < index && iter.getRemaining() > 0; i++) {
+                iter.next();
+            }
+        }
+        return iter;
     }
 }
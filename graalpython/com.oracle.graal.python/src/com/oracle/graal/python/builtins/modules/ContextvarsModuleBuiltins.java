@@ -40,20 +40,96 @@
  */
 package com.oracle.graal.python.builtins.modules;
 
-import java.util.Collections;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.RuntimeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
 import java.util.List;
 
+import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.contextvars.ContextVarsNodes.GetCurrentContextNode;
+import com.oracle.graal.python.builtins.objects.contextvars.Hamt;
+import com.oracle.graal.python.builtins.objects.contextvars.PContextVar;
+import com.oracle.graal.python.builtins.objects.contextvars.PContextVarsContext;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonVarargsBuiltinNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
 
+/**
+ * The {@code _contextvars} module. The variables of a context live in an immutable {@link Hamt},
+ * so {@code copy_context()} only has to copy a reference.
+ */
 @CoreFunctions(defineModule = "_contextvars")
 public class ContextvarsModuleBuiltins extends PythonBuiltins {
 
     @Override
     protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
-        return Collections.emptyList();
+        return ContextvarsModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void postInitialize(PythonCore core) {
+        super.postInitialize(core);
+        Object missing = core.factory().createPythonObject(core.lookupType(PythonBuiltinClassType.PContextVarsTokenMissing));
+        core.lookupType(PythonBuiltinClassType.PContextVarsToken).setAttribute("MISSING", missing);
+    }
+
+    @Builtin(name = "Context", minNumOfPositionalArgs = 1, constructsClass = PythonBuiltinClassType.PContextVarsContext)
+    @GenerateNodeFactory
+    abstract static class ContextNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PContextVarsContext create(@SuppressWarnings("unused") Object cls) {
+            return factory().createContextVarsContext(Hamt.EMPTY);
+        }
+    }
+
+    // ContextVar(name, *, default=<missing>)
+    @Builtin(name = "ContextVar", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "name"}, keywordOnlyNames = {"default"}, constructsClass = PythonBuiltinClassType.PContextVar)
+    @GenerateNodeFactory
+    abstract static class ContextVarNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        PContextVar create(@SuppressWarnings("unused") Object cls, Object name, Object defaultValue,
+                        @Cached CastToJavaStringNode castToStringNode) {
+            String nameStr;
+            try {
+                nameStr = castToStringNode.execute(name);
+            } catch (CannotCastException e) {
+                throw raise(TypeError, ErrorMessages.CONTEXTVAR_NAME_MUST_BE_STR);
+            }
+            return factory().createContextVar(nameStr, defaultValue == PNone.NO_VALUE ? null : defaultValue);
+        }
     }
 
+    @Builtin(name = "Token", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PContextVarsToken)
+    @GenerateNodeFactory
+    abstract static class TokenNode extends PythonVarargsBuiltinNode {
+        @Specialization
+        @SuppressWarnings("unused")
+        Object create(Object cls, Object[] args, PKeyword[] kwargs) {
+            throw raise(RuntimeError, ErrorMessages.TOKENS_ONLY_CREATED_BY_CONTEXTVARS);
+        }
+    }
+
+    @Builtin(name = "copy_context")
+    @GenerateNodeFactory
+    abstract static class CopyContextNode extends PythonBuiltinNode {
+        @Specialization
+        PContextVarsContext copy(@Cached GetCurrentContextNode getCurrentContextNode) {
+            return factory().createContextVarsContext(getCurrentContextNode.execute().getVars());
+        }
+    }
 }
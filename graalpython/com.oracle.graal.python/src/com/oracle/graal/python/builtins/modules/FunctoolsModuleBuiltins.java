@@ -40,18 +40,153 @@
  */
 package com.oracle.graal.python.builtins.modules;
 
-import java.util.ArrayList;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
 import java.util.List;
 
+import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.functools.PLruCacheWrapper;
+import com.oracle.graal.python.builtins.objects.functools.PPartial;
+import com.oracle.graal.python.builtins.objects.functools.PartialNodes;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.argument.keywords.ExpandKeywordStarargsNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.control.GetNextNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonVarargsBuiltinNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 
 @CoreFunctions(defineModule = "_functools")
 public class FunctoolsModuleBuiltins extends PythonBuiltins {
     @Override
     protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
-        return new ArrayList<>();
+        return FunctoolsModuleBuiltinsFactory.getFactories();
+    }
+
+    // reduce(function, sequence[, initial])
+    @Builtin(name = "reduce", minNumOfPositionalArgs = 2, parameterNames = {"function", "sequence", "initial"}, doc = "reduce(function, sequence[, initial]) -> value\n\n" +
+                    "Apply a function of two arguments cumulatively to the items of a sequence,\n" +
+                    "from left to right, so as to reduce the sequence to a single value.\n" +
+                    "For example, reduce(lambda x, y: x+y, [1, 2, 3, 4, 5]) calculates\n" +
+                    "((((1+2)+3)+4)+5).  If initial is present, it is placed before the items\n" +
+                    "of the sequence in the calculation, and serves as a default when the\n" +
+                    "sequence is empty.")
+    @GenerateNodeFactory
+    public abstract static class ReduceNode extends PythonTernaryBuiltinNode {
+        @Specialization(limit = "3")
+        Object reduce(VirtualFrame frame, Object function, Object sequence, Object initial,
+                        @CachedLibrary("sequence") PythonObjectLibrary lib,
+                        @Cached GetNextNode nextNode,
+                        @Cached CallNode callNode,
+                        @Cached IsBuiltinClassProfile isStopIteration,
+                        @Cached("createBinaryProfile()") ConditionProfile hasInitialProfile) {
+            Object iterator = lib.getIteratorWithFrame(sequence, frame);
+            Object value = null;
+            if (hasInitialProfile.profile(initial != PNone.NO_VALUE)) {
+                value = initial;
+            }
+            while (true) {
+                Object element;
+                try {
+                    element = nextNode.execute(frame, iterator);
+                } catch (PException e) {
+                    e.expectStopIteration(isStopIteration);
+                    break;
+                }
+                if (value == null) {
+                    value = element;
+                } else {
+                    value = callNode.execute(frame, function, value, element);
+                }
+            }
+            if (value == null) {
+                throw raise(TypeError, ErrorMessages.REDUCE_EMPTY_SEQ);
+            }
+            return value;
+        }
+    }
+
+    // partial(func, *args, **keywords)
+    @Builtin(name = "partial", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PPartial, //
+                    doc = "partial(func, *args, **keywords) - new function with partial application\n" +
+                                    "    of the given arguments and keywords.\n")
+    @GenerateNodeFactory
+    public abstract static class PartialNode extends PythonVarargsBuiltinNode {
+        @Specialization
+        Object partial(Object cls, Object[] args, PKeyword[] keywords,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached IsBuiltinClassProfile isPartialClassProfile,
+                        @Cached IsBuiltinClassProfile isPartialProfile,
+                        @Cached ExpandKeywordStarargsNode expandKeywordsNode) {
+            if (args.length == 0) {
+                throw raise(TypeError, ErrorMessages.TYPE_PARTIAL_TAKES_AT_LEAST_ONE_ARG);
+            }
+            Object fn = args[0];
+            if (!lib.isCallable(fn)) {
+                throw raise(TypeError, ErrorMessages.THE_FIRST_ARG_MUST_BE_CALLABLE);
+            }
+            Object[] storedArgs = new Object[args.length - 1];
+            PythonUtils.arraycopy(args, 1, storedArgs, 0, storedArgs.length);
+            PKeyword[] storedKeywords = keywords;
+            if (fn instanceof PPartial && isPartialProfile.profileObject(fn, PythonBuiltinClassType.PPartial) && isPartialClassProfile.profileClass(cls, PythonBuiltinClassType.PPartial)) {
+                // flatten nested partial objects like CPython
+                PPartial inner = (PPartial) fn;
+                fn = inner.getFn();
+                storedArgs = PartialNodes.concatArgs(inner.getArgs(), storedArgs);
+                storedKeywords = PartialNodes.mergeKeywords(expandKeywordsNode.execute(inner.getKw()), keywords);
+            }
+            return factory().createPartial(cls, fn, factory().createTuple(storedArgs), storedArgs, factory().createDict(storedKeywords));
+        }
+    }
+
+    // _lru_cache_wrapper(user_function, maxsize, typed, cache_info_type)
+    @Builtin(name = "_lru_cache_wrapper", minNumOfPositionalArgs = 5, parameterNames = {"$cls", "user_function", "maxsize", "typed", "cache_info_type"}, //
+                    constructsClass = PythonBuiltinClassType.PLruCacheWrapper, doc = "Create a cached callable that wraps another function.\n\n" +
+                                    "user_function:      the function being cached\n\n" +
+                                    "maxsize:  0         for no caching\n" +
+                                    "          None      for unlimited cache size\n" +
+                                    "          n         for a bounded cache\n\n" +
+                                    "typed:    False     cache f(3) and f(3.0) as identical calls\n" +
+                                    "          True      cache f(3) and f(3.0) as distinct calls\n\n" +
+                                    "cache_info_type:    namedtuple class with the fields:\n" +
+                                    "                        hits misses currsize maxsize\n")
+    @GenerateNodeFactory
+    public abstract static class LruCacheWrapperNode extends PythonBuiltinNode {
+        @Specialization
+        Object lruCacheWrapper(VirtualFrame frame, Object cls, Object userFunction, Object maxSizeObj, Object typed, Object cacheInfoType,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            if (!lib.isCallable(userFunction)) {
+                throw raise(TypeError, ErrorMessages.THE_FIRST_ARG_MUST_BE_CALLABLE);
+            }
+            int maxSize;
+            if (maxSizeObj == PNone.NONE) {
+                maxSize = PLruCacheWrapper.UNBOUNDED;
+            } else if (PGuards.canBeInteger(maxSizeObj)) {
+                // negative maxsize is treated as 0, values beyond the int range are clamped
+                maxSize = Math.max(0, lib.asSizeWithFrame(maxSizeObj, null, frame));
+            } else {
+                throw raise(TypeError, ErrorMessages.MAXSIZE_SHOULD_BE_INTEGER_OR_NONE);
+            }
+            Object kwdMark = factory().createPythonObject(PythonBuiltinClassType.PythonObject);
+            return factory().createLruCacheWrapper(cls, userFunction, maxSizeObj, maxSize, lib.isTrue(typed, frame), cacheInfoType, kwdMark);
+        }
     }
 }
@@ -57,6 +57,7 @@ import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.cext.capi.ResolvedHandleMap;
 import com.oracle.graal.python.builtins.objects.code.PCode;
 import com.oracle.graal.python.builtins.objects.common.DynamicObjectStorage;
 import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
@@ -75,9 +76,11 @@ import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.builtins.objects.set.PSet;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.argument.ReadIndexedArgumentNode;
 import com.oracle.graal.python.nodes.argument.ReadVarArgsNode;
+import com.oracle.graal.python.nodes.attributes.MethodCache;
 import com.oracle.graal.python.nodes.function.FunctionRootNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
@@ -388,6 +391,30 @@ public class GraalPythonModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "method_cache_stats", minNumOfPositionalArgs = 0, doc = "Returns the number of hits and misses of the global method cache as a tuple.")
+    @GenerateNodeFactory
+    public abstract static class MethodCacheStatsNode extends PythonBuiltinNode {
+        @Specialization
+        PTuple doIt() {
+            MethodCache methodCache = getContext().getMethodCache();
+            return factory().createTuple(new Object[]{methodCache.getHits(), methodCache.getMisses()});
+        }
+    }
+
+    @Builtin(name = "handle_cache_stats", minNumOfPositionalArgs = 0, doc = "Returns the number of hits and misses of the global C API handle cache as a tuple.")
+    @GenerateNodeFactory
+    public abstract static class HandleCacheStatsNode extends PythonBuiltinNode {
+        @Specialization
+        PTuple doIt() {
+            PythonContext context = getContext();
+            if (!context.hasCApiContext()) {
+                return factory().createTuple(new Object[]{0L, 0L});
+            }
+            ResolvedHandleMap resolvedHandles = context.getCApiContext().getResolvedHandles();
+            return factory().createTuple(new Object[]{resolvedHandles.getHits(), resolvedHandles.getMisses()});
+        }
+    }
+
     @Builtin(name = "tdebug", takesVarArgs = true)
     @GenerateNodeFactory
     public abstract static class DebugNode extends PythonBuiltinNode {
@@ -0,0 +1,378 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.function.PArguments;
+import com.oracle.graal.python.builtins.objects.hashlib.HashAlgorithm;
+import com.oracle.graal.python.builtins.objects.hashlib.HashObjectBuiltins;
+import com.oracle.graal.python.builtins.objects.hashlib.PHashObject;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+/**
+ * The {@code _hashlib} module, implemented on top of {@link MessageDigest} instead of OpenSSL. HMAC
+ * and PBKDF2 are computed on the digests directly, since the JDK's {@code Mac} and
+ * {@code SecretKeyFactory} expect keys and passwords in forms that do not fit arbitrary bytes.
+ */
+@CoreFunctions(defineModule = "_hashlib")
+public class HashlibModuleBuiltins extends PythonBuiltins {
+    private static final byte IPAD = 0x36;
+    private static final byte OPAD = 0x5c;
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return HashlibModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void postInitialize(PythonCore core) {
+        super.postInitialize(core);
+        HashingStorageLibrary lib = HashingStorageLibrary.getUncached();
+        HashingStorage names = EconomicMapStorage.create();
+        for (HashAlgorithm algorithm : HashAlgorithm.values()) {
+            if (algorithm.isAvailable()) {
+                names = lib.setItem(names, algorithm.getPythonName(), PNone.NONE);
+            }
+        }
+        PythonModule hashlibModule = core.lookupBuiltinModule("_hashlib");
+        hashlibModule.setAttribute("openssl_md_meth_names", core.factory().createFrozenSet(names));
+    }
+
+    private static HashAlgorithm lookupAlgorithm(PNodeWithRaise node, String name) {
+        HashAlgorithm algorithm = HashAlgorithm.lookup(name);
+        if (algorithm == null) {
+            throw node.raise(ValueError, ErrorMessages.UNSUPPORTED_HASH_TYPE, name);
+        }
+        return algorithm;
+    }
+
+    // new(name, string=b'')
+    @Builtin(name = "new", minNumOfPositionalArgs = 1, parameterNames = {"name", "string"})
+    @ArgumentClinic(name = "name", conversion = ClinicConversion.String)
+    @GenerateNodeFactory
+    abstract static class NewNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return HashlibModuleBuiltinsClinicProviders.NewNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PHashObject doNew(String name, Object string,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached("createBinaryProfile()") ConditionProfile directProfile) {
+            HashAlgorithm algorithm = lookupAlgorithm(this, name);
+            PHashObject hash = factory().createHashObject(algorithm, algorithm.createDigest());
+            if (!PGuards.isNoValue(string)) {
+                HashObjectBuiltins.updateDigest(this, hash.getDigest(), string, lib, directProfile);
+            }
+            return hash;
+        }
+    }
+
+    /**
+     * Base class of the {@code openssl_*} constructors, which {@code hashlib} prefers over looking
+     * up the algorithm by name.
+     */
+    abstract static class ConstructorNode extends PythonUnaryBuiltinNode {
+
+        protected abstract HashAlgorithm getAlgorithm();
+
+        @Specialization
+        PHashObject construct(Object string,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached("createBinaryProfile()") ConditionProfile directProfile) {
+            HashAlgorithm algorithm = getAlgorithm();
+            if (!algorithm.isAvailable()) {
+                throw raise(ValueError, ErrorMessages.UNSUPPORTED_HASH_TYPE, algorithm.getPythonName());
+            }
+            PHashObject hash = factory().createHashObject(algorithm, algorithm.createDigest());
+            if (!PGuards.isNoValue(string)) {
+                HashObjectBuiltins.updateDigest(this, hash.getDigest(), string, lib, directProfile);
+            }
+            return hash;
+        }
+    }
+
+    @Builtin(name = "openssl_md5", parameterNames = {"string"})
+    @GenerateNodeFactory
+    abstract static class Md5Node extends ConstructorNode {
+        @Override
+        protected HashAlgorithm getAlgorithm() {
+            return HashAlgorithm.MD5;
+        }
+    }
+
+    @Builtin(name = "openssl_sha1", parameterNames = {"string"})
+    @GenerateNodeFactory
+    abstract static class Sha1Node extends ConstructorNode {
+        @Override
+        protected HashAlgorithm getAlgorithm() {
+            return HashAlgorithm.SHA1;
+        }
+    }
+
+    @Builtin(name = "openssl_sha224", parameterNames = {"string"})
+    @GenerateNodeFactory
+    abstract static class Sha224Node extends ConstructorNode {
+        @Override
+        protected HashAlgorithm getAlgorithm() {
+            return HashAlgorithm.SHA224;
+        }
+    }
+
+    @Builtin(name = "openssl_sha256", parameterNames = {"string"})
+    @GenerateNodeFactory
+    abstract static class Sha256Node extends ConstructorNode {
+        @Override
+        protected HashAlgorithm getAlgorithm() {
+            return HashAlgorithm.SHA256;
+        }
+    }
+
+    @Builtin(name = "openssl_sha384", parameterNames = {"string"})
+    @GenerateNodeFactory
+    abstract static class Sha384Node extends ConstructorNode {
+        @Override
+        protected HashAlgorithm getAlgorithm() {
+            return HashAlgorithm.SHA384;
+        }
+    }
+
+    @Builtin(name = "openssl_sha512", parameterNames = {"string"})
+    @GenerateNodeFactory
+    abstract static class Sha512Node extends ConstructorNode {
+        @Override
+        protected HashAlgorithm getAlgorithm() {
+            return HashAlgorithm.SHA512;
+        }
+    }
+
+    @Builtin(name = "openssl_sha3_224", parameterNames = {"string"})
+    @GenerateNodeFactory
+    abstract static class Sha3224Node extends ConstructorNode {
+        @Override
+        protected HashAlgorithm getAlgorithm() {
+            return HashAlgorithm.SHA3_224;
+        }
+    }
+
+    @Builtin(name = "openssl_sha3_256", parameterNames = {"string"})
+    @GenerateNodeFactory
+    abstract static class Sha3256Node extends ConstructorNode {
+        @Override
+        protected HashAlgorithm getAlgorithm() {
+            return HashAlgorithm.SHA3_256;
+        }
+    }
+
+    @Builtin(name = "openssl_sha3_384", parameterNames = {"string"})
+    @GenerateNodeFactory
+    abstract static class Sha3384Node extends ConstructorNode {
+        @Override
+        protected HashAlgorithm getAlgorithm() {
+            return HashAlgorithm.SHA3_384;
+        }
+    }
+
+    @Builtin(name = "openssl_sha3_512", parameterNames = {"string"})
+    @GenerateNodeFactory
+    abstract static class Sha3512Node extends ConstructorNode {
+        @Override
+        protected HashAlgorithm getAlgorithm() {
+            return HashAlgorithm.SHA3_512;
+        }
+    }
+
+    // hmac_digest(key, msg, digest)
+    @Builtin(name = "hmac_digest", minNumOfPositionalArgs = 3, parameterNames = {"key", "msg", "digest"})
+    @ArgumentClinic(name = "key", conversion = ClinicConversion.Buffer)
+    @ArgumentClinic(name = "digest", conversion = ClinicConversion.String)
+    @GenerateNodeFactory
+    abstract static class HmacDigestNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return HashlibModuleBuiltinsClinicProviders.HmacDigestNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object hmacDigest(byte[] key, Object msg, String digest,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached("createBinaryProfile()") ConditionProfile directProfile) {
+            MessageDigest[] hmac = initHmac(lookupAlgorithm(this, digest), key);
+            HashObjectBuiltins.updateDigest(this, hmac[0], msg, lib, directProfile);
+            return factory().createBytes(finishHmac(hmac[0], hmac[1]));
+        }
+    }
+
+    // pbkdf2_hmac(hash_name, password, salt, iterations, dklen=None)
+    @Builtin(name = "pbkdf2_hmac", minNumOfPositionalArgs = 4, parameterNames = {"hash_name", "password", "salt", "iterations", "dklen"})
+    @ArgumentClinic(name = "hash_name", conversion = ClinicConversion.String)
+    @ArgumentClinic(name = "password", conversion = ClinicConversion.Buffer)
+    @ArgumentClinic(name = "salt", conversion = ClinicConversion.Buffer)
+    @ArgumentClinic(name = "iterations", conversion = ClinicConversion.Index)
+    @GenerateNodeFactory
+    abstract static class Pbkdf2HmacNode extends PythonClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return HashlibModuleBuiltinsClinicProviders.Pbkdf2HmacNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object pbkdf2Hmac(VirtualFrame frame, String hashName, byte[] password, byte[] salt, int iterations, Object dklenObj,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary lib) {
+            HashAlgorithm algorithm = lookupAlgorithm(this, hashName);
+            if (iterations < 1) {
+                throw raise(ValueError, ErrorMessages.ITERATION_VALUE_MUST_BE_GREATER_THAN_ZERO);
+            }
+            MessageDigest[] hmac = initHmac(algorithm, password);
+            int dklen;
+            if (PGuards.isPNone(dklenObj)) {
+                dklen = getDigestLength(hmac[1]);
+            } else {
+                dklen = lib.asSizeWithState(dklenObj, PArguments.getThreadState(frame));
+                if (dklen < 1) {
+                    throw raise(ValueError, ErrorMessages.KEY_LENGTH_MUST_BE_GREATER_THAN_ZERO);
+                }
+            }
+            return factory().createBytes(pbkdf2(hmac, salt, iterations, dklen));
+        }
+    }
+
+    /**
+     * Returns the inner and outer digest of an HMAC keyed with {@code key} (RFC 2104). The message
+     * is fed to the inner digest before calling {@link #finishHmac}.
+     */
+    @TruffleBoundary
+    static MessageDigest[] initHmac(HashAlgorithm algorithm, byte[] key) {
+        MessageDigest inner = algorithm.createDigest();
+        MessageDigest outer = algorithm.createDigest();
+        int blockSize = algorithm.getBlockSize();
+        byte[] pad = Arrays.copyOf(key.length > blockSize ? inner.digest(key) : key, blockSize);
+        for (int i = 0; i < blockSize; i++) {
+            pad[i] ^= IPAD;
+        }
+        inner.update(pad);
+        for (int i = 0; i < blockSize; i++) {
+            pad[i] ^= IPAD ^ OPAD;
+        }
+        outer.update(pad);
+        return new MessageDigest[]{inner, outer};
+    }
+
+    @TruffleBoundary
+    static byte[] finishHmac(MessageDigest inner, MessageDigest outer) {
+        outer.update(inner.digest());
+        return outer.digest();
+    }
+
+    @TruffleBoundary
+    private static int getDigestLength(MessageDigest digest) {
+        return digest.getDigestLength();
+    }
+
+    /**
+     * PBKDF2 as specified in RFC 8018. The keyed digests are cloned for every application of the
+     * PRF, so the key is only hashed once.
+     */
+    @TruffleBoundary
+    private static byte[] pbkdf2(MessageDigest[] hmac, byte[] salt, int iterations, int dklen) {
+        int hlen = hmac[1].getDigestLength();
+        byte[] key = new byte[dklen];
+        byte[] counter = new byte[4];
+        for (int block = 1, pos = 0; pos < dklen; block++, pos += hlen) {
+            counter[0] = (byte) (block >>> 24);
+            counter[1] = (byte) (block >>> 16);
+            counter[2] = (byte) (block >>> 8);
+            counter[3] = (byte) block;
+            MessageDigest inner = PHashObject.cloneDigest(hmac[0]);
+            inner.update(salt);
+            inner.update(counter);
+            byte[] u = finishHmac(inner, PHashObject.cloneDigest(hmac[1]));
+            byte[] t = u.clone();
+            for (int i = 1; i < iterations; i++) {
+                inner = PHashObject.cloneDigest(hmac[0]);
+                inner.update(u);
+                u = finishHmac(inner, PHashObject.cloneDigest(hmac[1]));
+                for (int j = 0; j < hlen; j++) {
+                    t[j] ^= u[j];
+                }
+            }
+            System.arraycopy(t, 0, key, pos, Math.min(hlen, dklen - pos));
+        }
+        return key;
+    }
+}
@@ -0,0 +1,492 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.IndexError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.RuntimeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.ListGeneralizationNode;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.builtins.ListNodes;
+import com.oracle.graal.python.nodes.expression.LessThanNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.subscript.NormalizeIndexNode;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+/**
+ * The heap operations of {@code heapq}. They work directly on the storage of the list: heaps of
+ * {@code int} and {@code float} values are sifted on their primitive arrays without calling into
+ * Python, all other heaps compare their items with {@link LessThanNode}. Like in CPython, a
+ * comparison that changes the size of the heap raises a {@code RuntimeError}.
+ */
+@CoreFunctions(defineModule = "_heapq")
+public class HeapqModuleBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return HeapqModuleBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Moves the item at {@code pos} up towards {@code startpos} while it is smaller than its
+     * parent (greater for a max-heap). This is {@code _siftdown} in {@code heapq.py}.
+     */
+    abstract static class SiftDownNode extends PNodeWithContext {
+
+        final void execute(VirtualFrame frame, PList heap, int startpos, int pos, boolean max) {
+            execute(frame, heap, heap.getSequenceStorage(), startpos, pos, max);
+        }
+
+        abstract void execute(VirtualFrame frame, PList heap, SequenceStorage storage, int startpos, int pos, boolean max);
+
+        @Specialization
+        static void doInt(@SuppressWarnings("unused") PList heap, IntSequenceStorage storage, int startpos, int pos, boolean max) {
+            int[] array = storage.getInternalIntArray();
+            int newitem = array[pos];
+            int p = pos;
+            while (p > startpos) {
+                int parentpos = (p - 1) >> 1;
+                int parent = array[parentpos];
+                if (!(max ? parent < newitem : newitem < parent)) {
+                    break;
+                }
+                array[p] = parent;
+                p = parentpos;
+            }
+            array[p] = newitem;
+        }
+
+        @Specialization
+        static void doLong(@SuppressWarnings("unused") PList heap, LongSequenceStorage storage, int startpos, int pos, boolean max) {
+            long[] array = storage.getInternalLongArray();
+            long newitem = array[pos];
+            int p = pos;
+            while (p > startpos) {
+                int parentpos = (p - 1) >> 1;
+                long parent = array[parentpos];
+                if (!(max ? parent < newitem : newitem < parent)) {
+                    break;
+                }
+                array[p] = parent;
+                p = parentpos;
+            }
+            array[p] = newitem;
+        }
+
+        @Specialization
+        static void doDouble(@SuppressWarnings("unused") PList heap, DoubleSequenceStorage storage, int startpos, int pos, boolean max) {
+            // Java's '<' on doubles is Python's '<' on floats, including NaNs
+            double[] array = storage.getInternalDoubleArray();
+            double newitem = array[pos];
+            int p = pos;
+            while (p > startpos) {
+                int parentpos = (p - 1) >> 1;
+                double parent = array[parentpos];
+                if (!(max ? parent < newitem : newitem < parent)) {
+                    break;
+                }
+                array[p] = parent;
+                p = parentpos;
+            }
+            array[p] = newitem;
+        }
+
+        @Specialization
+        static void doGeneric(VirtualFrame frame, PList heap, SequenceStorage storage, int startpos, int pos, boolean max,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached SequenceStorageNodes.SetItemScalarNode setItemNode,
+                        @Cached LessThanNode ltNode,
+                        @Cached PRaiseNode raiseNode) {
+            int size = storage.length();
+            int p = pos;
+            while (p > startpos) {
+                int parentpos = (p - 1) >> 1;
+                SequenceStorage s = heap.getSequenceStorage();
+                Object newitem = getItemNode.execute(s, p);
+                Object parent = getItemNode.execute(s, parentpos);
+                boolean lt = max ? ltNode.execute(frame, parent, newitem) : ltNode.execute(frame, newitem, parent);
+                s = heap.getSequenceStorage();
+                if (s.length() != size) {
+                    throw raiseNode.raise(RuntimeError, ErrorMessages.CHANGED_SIZE_DURING_ITERATION, "list");
+                }
+                if (!lt) {
+                    break;
+                }
+                // the comparison may have replaced the items, so swap whatever is there now
+                parent = getItemNode.execute(s, parentpos);
+                newitem = getItemNode.execute(s, p);
+                setItemNode.execute(s, parentpos, newitem);
+                setItemNode.execute(s, p, parent);
+                p = parentpos;
+            }
+        }
+
+        static SiftDownNode create() {
+            return HeapqModuleBuiltinsFactory.SiftDownNodeGen.create();
+        }
+    }
+
+    /**
+     * Moves the smaller child (greater for a max-heap) of {@code pos} up until a leaf is reached,
+     * puts the item from {@code pos} there and sifts it back down. This is {@code _siftup} in
+     * {@code heapq.py}.
+     */
+    abstract static class SiftUpNode extends PNodeWithContext {
+
+        final void execute(VirtualFrame frame, PList heap, int pos, boolean max) {
+            execute(frame, heap, heap.getSequenceStorage(), pos, max);
+        }
+
+        abstract void execute(VirtualFrame frame, PList heap, SequenceStorage storage, int pos, boolean max);
+
+        @Specialization
+        static void doInt(PList heap, IntSequenceStorage storage, int pos, boolean max) {
+            int[] array = storage.getInternalIntArray();
+            int endpos = storage.length();
+            int newitem = array[pos];
+            int p = pos;
+            int childpos = 2 * p + 1;
+            while (childpos < endpos) {
+                int rightpos = childpos + 1;
+                if (rightpos < endpos && !(max ? array[rightpos] < array[childpos] : array[childpos] < array[rightpos])) {
+                    childpos = rightpos;
+                }
+                array[p] = array[childpos];
+                p = childpos;
+                childpos = 2 * p + 1;
+            }
+            array[p] = newitem;
+            SiftDownNode.doInt(heap, storage, pos, p, max);
+        }
+
+        @Specialization
+        static void doLong(PList heap, LongSequenceStorage storage, int pos, boolean max) {
+            long[] array = storage.getInternalLongArray();
+            int endpos = storage.length();
+            long newitem = array[pos];
+            int p = pos;
+            int childpos = 2 * p + 1;
+            while (childpos < endpos) {
+                int rightpos = childpos + 1;
+                if (rightpos < endpos && !(max ? array[rightpos] < array[childpos] : array[childpos] < array[rightpos])) {
+                    childpos = rightpos;
+                }
+                array[p] = array[childpos];
+                p = childpos;
+                childpos = 2 * p + 1;
+            }
+            array[p] = newitem;
+            SiftDownNode.doLong(heap, storage, pos, p, max);
+        }
+
+        @Specialization
+        static void doDouble(PList heap, DoubleSequenceStorage storage, int pos, boolean max) {
+            double[] array = storage.getInternalDoubleArray();
+            int endpos = storage.length();
+            double newitem = array[pos];
+            int p = pos;
+            int childpos = 2 * p + 1;
+            while (childpos < endpos) {
+                int rightpos = childpos + 1;
+                if (rightpos < endpos && !(max ? array[rightpos] < array[childpos] : array[childpos] < array[rightpos])) {
+                    childpos = rightpos;
+                }
+                array[p] = array[childpos];
+                p = childpos;
+                childpos = 2 * p + 1;
+            }
+            array[p] = newitem;
+            SiftDownNode.doDouble(heap, storage, pos, p, max);
+        }
+
+        @Specialization
+        static void doGeneric(VirtualFrame frame, PList heap, SequenceStorage storage, int pos, boolean max,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached SequenceStorageNodes.SetItemScalarNode setItemNode,
+                        @Cached LessThanNode ltNode,
+                        @Cached SiftDownNode siftDownNode,
+                        @Cached PRaiseNode raiseNode) {
+            int endpos = storage.length();
+            int limit = endpos >> 1;
+            int p = pos;
+            while (p < limit) {
+                int childpos = 2 * p + 1;
+                if (childpos + 1 < endpos) {
+                    SequenceStorage s = heap.getSequenceStorage();
+                    Object left = getItemNode.execute(s, childpos);
+                    Object right = getItemNode.execute(s, childpos + 1);
+                    boolean lt = max ? ltNode.execute(frame, right, left) : ltNode.execute(frame, left, right);
+                    if (heap.getSequenceStorage().length() != endpos) {
+                        throw raiseNode.raise(RuntimeError, ErrorMessages.CHANGED_SIZE_DURING_ITERATION, "list");
+                    }
+                    if (!lt) {
+                        childpos++;
+                    }
+                }
+                SequenceStorage s = heap.getSequenceStorage();
+                Object child = getItemNode.execute(s, childpos);
+                Object item = getItemNode.execute(s, p);
+                setItemNode.execute(s, p, child);
+                setItemNode.execute(s, childpos, item);
+                p = childpos;
+            }
+            siftDownNode.execute(frame, heap, pos, p, max);
+        }
+
+        static SiftUpNode create() {
+            return HeapqModuleBuiltinsFactory.SiftUpNodeGen.create();
+        }
+    }
+
+    abstract static class HeapPopBaseNode extends PythonUnaryBuiltinNode {
+
+        Object pop(VirtualFrame frame, PList heap, boolean max, SequenceStorageNodes.GetItemScalarNode getItemNode, SequenceStorageNodes.SetItemScalarNode setItemNode,
+                        SequenceStorageNodes.SetLenNode setLenNode, SiftUpNode siftUpNode) {
+            SequenceStorage storage = heap.getSequenceStorage();
+            int n = storage.length();
+            if (n == 0) {
+                throw raise(IndexError, ErrorMessages.INDEX_OUT_OF_RANGE);
+            }
+            Object lastelt = getItemNode.execute(storage, n - 1);
+            setLenNode.execute(storage, n - 1);
+            if (n == 1) {
+                return lastelt;
+            }
+            Object returnitem = getItemNode.execute(storage, 0);
+            setItemNode.execute(storage, 0, lastelt);
+            siftUpNode.execute(frame, heap, 0, max);
+            return returnitem;
+        }
+    }
+
+    abstract static class HeapReplaceBaseNode extends PythonBinaryBuiltinNode {
+
+        Object replace(VirtualFrame frame, PList heap, Object item, boolean max, SequenceStorageNodes.GetItemScalarNode getItemNode, SequenceStorageNodes.SetItemNode setItemNode,
+                        SiftUpNode siftUpNode) {
+            SequenceStorage storage = heap.getSequenceStorage();
+            if (storage.length() == 0) {
+                throw raise(IndexError, ErrorMessages.INDEX_OUT_OF_RANGE);
+            }
+            Object returnitem = getItemNode.execute(storage, 0);
+            heap.setSequenceStorage(setItemNode.executeInt(frame, storage, 0, item));
+            siftUpNode.execute(frame, heap, 0, max);
+            return returnitem;
+        }
+
+        static SequenceStorageNodes.SetItemNode createSetItem() {
+            return SequenceStorageNodes.SetItemNode.create(NormalizeIndexNode.forListAssign(), () -> ListGeneralizationNode.create());
+        }
+    }
+
+    abstract static class HeapifyBaseNode extends PythonUnaryBuiltinNode {
+
+        static void heapify(VirtualFrame frame, PList heap, boolean max, SiftUpNode siftUpNode) {
+            // the heap may change its size while it is being built, like in CPython
+            for (int i = (heap.getSequenceStorage().length() >> 1) - 1; i >= 0; i--) {
+                siftUpNode.execute(frame, heap, i, max);
+            }
+        }
+    }
+
+    @Builtin(name = "heappush", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class HeapPushNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PNone doList(VirtualFrame frame, PList heap, Object item,
+                        @Cached ListNodes.AppendNode appendNode,
+                        @Cached SiftDownNode siftDownNode) {
+            appendNode.execute(heap, item);
+            siftDownNode.execute(frame, heap, 0, heap.getSequenceStorage().length() - 1, false);
+            return PNone.NONE;
+        }
+
+        @Fallback
+        Object doError(@SuppressWarnings("unused") Object heap, @SuppressWarnings("unused") Object item) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "heappop", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HeapPopNode extends HeapPopBaseNode {
+        @Specialization
+        Object doList(VirtualFrame frame, PList heap,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached SequenceStorageNodes.SetItemScalarNode setItemNode,
+                        @Cached SequenceStorageNodes.SetLenNode setLenNode,
+                        @Cached SiftUpNode siftUpNode) {
+            return pop(frame, heap, false, getItemNode, setItemNode, setLenNode, siftUpNode);
+        }
+
+        @Fallback
+        Object doError(@SuppressWarnings("unused") Object heap) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "_heappop_max", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HeapPopMaxNode extends HeapPopBaseNode {
+        @Specialization
+        Object doList(VirtualFrame frame, PList heap,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached SequenceStorageNodes.SetItemScalarNode setItemNode,
+                        @Cached SequenceStorageNodes.SetLenNode setLenNode,
+                        @Cached SiftUpNode siftUpNode) {
+            return pop(frame, heap, true, getItemNode, setItemNode, setLenNode, siftUpNode);
+        }
+
+        @Fallback
+        Object doError(@SuppressWarnings("unused") Object heap) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "heapreplace", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class HeapReplaceNode extends HeapReplaceBaseNode {
+        @Specialization
+        Object doList(VirtualFrame frame, PList heap, Object item,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached("createSetItem()") SequenceStorageNodes.SetItemNode setItemNode,
+                        @Cached SiftUpNode siftUpNode) {
+            return replace(frame, heap, item, false, getItemNode, setItemNode, siftUpNode);
+        }
+
+        @Fallback
+        Object doError(@SuppressWarnings("unused") Object heap, @SuppressWarnings("unused") Object item) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "_heapreplace_max", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class HeapReplaceMaxNode extends HeapReplaceBaseNode {
+        @Specialization
+        Object doList(VirtualFrame frame, PList heap, Object item,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached("createSetItem()") SequenceStorageNodes.SetItemNode setItemNode,
+                        @Cached SiftUpNode siftUpNode) {
+            return replace(frame, heap, item, true, getItemNode, setItemNode, siftUpNode);
+        }
+
+        @Fallback
+        Object doError(@SuppressWarnings("unused") Object heap, @SuppressWarnings("unused") Object item) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "heappushpop", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class HeapPushPopNode extends HeapReplaceBaseNode {
+        @Specialization
+        Object doList(VirtualFrame frame, PList heap, Object item,
+                        @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                        @Cached("createSetItem()") SequenceStorageNodes.SetItemNode setItemNode,
+                        @Cached LessThanNode ltNode,
+                        @Cached SiftUpNode siftUpNode) {
+            SequenceStorage storage = heap.getSequenceStorage();
+            if (storage.length() == 0 || !ltNode.execute(frame, getItemNode.execute(storage, 0), item)) {
+                return item;
+            }
+            // the comparison may have emptied the heap, which 'replace' checks
+            return replace(frame, heap, item, false, getItemNode, setItemNode, siftUpNode);
+        }
+
+        @Fallback
+        Object doError(@SuppressWarnings("unused") Object heap, @SuppressWarnings("unused") Object item) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "heapify", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HeapifyNode extends HeapifyBaseNode {
+        @Specialization
+        static PNone doList(VirtualFrame frame, PList heap,
+                        @Cached SiftUpNode siftUpNode) {
+            heapify(frame, heap, false, siftUpNode);
+            return PNone.NONE;
+        }
+
+        @Fallback
+        Object doError(@SuppressWarnings("unused") Object heap) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+
+    @Builtin(name = "_heapify_max", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HeapifyMaxNode extends HeapifyBaseNode {
+        @Specialization
+        static PNone doList(VirtualFrame frame, PList heap,
+                        @Cached SiftUpNode siftUpNode) {
+            heapify(frame, heap, true, siftUpNode);
+            return PNone.NONE;
+        }
+
+        @Fallback
+        Object doError(@SuppressWarnings("unused") Object heap) {
+            throw raise(TypeError, ErrorMessages.HEAP_ARGUMENT_MUST_BE_A_LIST);
+        }
+    }
+}
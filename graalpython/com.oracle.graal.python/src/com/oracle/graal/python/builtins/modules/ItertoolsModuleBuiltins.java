@@ -25,19 +25,267 @@
  */
 package com.oracle.graal.python.builtins.modules;
 
-import java.util.Collections;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+
 import java.util.List;
 
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.itertools.PAccumulate;
+import com.oracle.graal.python.builtins.objects.itertools.PChain;
+import com.oracle.graal.python.builtins.objects.itertools.PCompress;
+import com.oracle.graal.python.builtins.objects.itertools.PCount;
+import com.oracle.graal.python.builtins.objects.itertools.PCycle;
+import com.oracle.graal.python.builtins.objects.itertools.PDropwhile;
+import com.oracle.graal.python.builtins.objects.itertools.PFilterfalse;
+import com.oracle.graal.python.builtins.objects.itertools.PGroupBy;
+import com.oracle.graal.python.builtins.objects.itertools.PGrouper;
+import com.oracle.graal.python.builtins.objects.itertools.PIslice;
+import com.oracle.graal.python.builtins.objects.itertools.PRepeat;
+import com.oracle.graal.python.builtins.objects.itertools.PStarmap;
+import com.oracle.graal.python.builtins.objects.itertools.PTakewhile;
+import com.oracle.graal.python.builtins.objects.itertools.PTee;
+import com.oracle.graal.python.builtins.objects.itertools.PTeeDataObject;
+import com.oracle.graal.python.builtins.objects.itertools.PZipLongest;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.call.CallNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonVarargsBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 
+/**
+ * The iterator types of this module are created empty by their constructors and initialized by
+ * their {@code __init__} builtins, like {@code map}. This allows subclasses to accept additional
+ * arguments.
+ */
 @CoreFunctions(defineModule = "itertools")
 public final class ItertoolsModuleBuiltins extends PythonBuiltins {
 
     @Override
     protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
-        return Collections.emptyList();
+        return ItertoolsModuleBuiltinsFactory.getFactories();
+    }
+
+    // accumulate(iterable[, func, *, initial])
+    @Builtin(name = "accumulate", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PAccumulate)
+    @GenerateNodeFactory
+    public abstract static class AccumulateNode extends PythonVarargsBuiltinNode {
+        @Specialization
+        PAccumulate construct(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            return factory().createAccumulate(cls);
+        }
+    }
+
+    // chain(*iterables)
+    @Builtin(name = "chain", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PChain)
+    @GenerateNodeFactory
+    public abstract static class ChainNode extends PythonVarargsBuiltinNode {
+        @Specialization
+        PChain construct(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            return factory().createChain(cls);
+        }
+    }
+
+    // compress(data, selectors)
+    @Builtin(name = "compress", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PCompress)
+    @GenerateNodeFactory
+    public abstract static class CompressNode extends PythonVarargsBuiltinNode {
+        @Specialization
+        PCompress construct(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            return factory().createCompress(cls);
+        }
+    }
+
+    // count(start=0, step=1)
+    @Builtin(name = "count", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PCount)
+    @GenerateNodeFactory
+    public abstract static class CountNode extends PythonVarargsBuiltinNode {
+        @Specialization
+        PCount construct(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            return factory().createCount(cls);
+        }
+    }
+
+    // cycle(iterable)
+    @Builtin(name = "cycle", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PCycle)
+    @GenerateNodeFactory
+    public abstract static class CycleNode extends PythonVarargsBuiltinNode {
+        @Specialization
+        PCycle construct(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            return factory().createCycle(cls);
+        }
+    }
+
+    // dropwhile(predicate, iterable)
+    @Builtin(name = "dropwhile", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PDropwhile)
+    @GenerateNodeFactory
+    public abstract static class DropwhileNode extends PythonVarargsBuiltinNode {
+        @Specialization
+        PDropwhile construct(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            return factory().createDropwhile(cls);
+        }
+    }
+
+    // filterfalse(function or None, iterable)
+    @Builtin(name = "filterfalse", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PFilterfalse)
+    @GenerateNodeFactory
+    public abstract static class FilterfalseNode extends PythonVarargsBuiltinNode {
+        @Specialization
+        PFilterfalse construct(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            return factory().createFilterfalse(cls);
+        }
+    }
+
+    // groupby(iterable, key=None)
+    @Builtin(name = "groupby", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PGroupBy)
+    @GenerateNodeFactory
+    public abstract static class GroupByNode extends PythonVarargsBuiltinNode {
+        @Specialization
+        PGroupBy construct(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            return factory().createGroupBy(cls);
+        }
+    }
+
+    // islice(iterable, stop) or islice(iterable, start, stop[, step])
+    @Builtin(name = "islice", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PIslice)
+    @GenerateNodeFactory
+    public abstract static class IsliceNode extends PythonVarargsBuiltinNode {
+        @Specialization
+        PIslice construct(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            return factory().createIslice(cls);
+        }
+    }
+
+    // repeat(object[, times])
+    @Builtin(name = "repeat", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PRepeat)
+    @GenerateNodeFactory
+    public abstract static class RepeatNode extends PythonVarargsBuiltinNode {
+        @Specialization
+        PRepeat construct(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            return factory().createRepeat(cls);
+        }
+    }
+
+    // starmap(function, iterable)
+    @Builtin(name = "starmap", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PStarmap)
+    @GenerateNodeFactory
+    public abstract static class StarmapNode extends PythonVarargsBuiltinNode {
+        @Specialization
+        PStarmap construct(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            return factory().createStarmap(cls);
+        }
+    }
+
+    // takewhile(predicate, iterable)
+    @Builtin(name = "takewhile", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PTakewhile)
+    @GenerateNodeFactory
+    public abstract static class TakewhileNode extends PythonVarargsBuiltinNode {
+        @Specialization
+        PTakewhile construct(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            return factory().createTakewhile(cls);
+        }
+    }
+
+    // zip_longest(*iterables, fillvalue=None)
+    @Builtin(name = "zip_longest", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PZipLongest)
+    @GenerateNodeFactory
+    public abstract static class ZipLongestNode extends PythonVarargsBuiltinNode {
+        @Specialization
+        PZipLongest construct(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            return factory().createZipLongest(cls);
+        }
+    }
+
+    // _grouper(parent, tgtkey)
+    @Builtin(name = "_grouper", minNumOfPositionalArgs = 3, parameterNames = {"$cls", "parent", "tgtkey"}, constructsClass = PythonBuiltinClassType.PGrouper)
+    @GenerateNodeFactory
+    public abstract static class GrouperNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        PGrouper construct(@SuppressWarnings("unused") Object cls, PGroupBy parent, Object tgtKey) {
+            PGrouper grouper = factory().createGrouper(parent, tgtKey);
+            parent.setCurrGrouper(grouper);
+            return grouper;
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        PGrouper doError(Object cls, Object parent, Object tgtKey) {
+            throw raise(TypeError, ErrorMessages.S_BRACKETS_ARG_MUST_BE_S_NOT_P, "_grouper", "itertools.groupby", parent);
+        }
+    }
+
+    // _tee(iterable)
+    @Builtin(name = "_tee", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "iterable"}, constructsClass = PythonBuiltinClassType.PTee)
+    @GenerateNodeFactory
+    public abstract static class TeeConstructorNode extends PythonBinaryBuiltinNode {
+        @Specialization(limit = "3")
+        PTee construct(VirtualFrame frame, Object cls, Object iterable,
+                        @CachedLibrary("iterable") PythonObjectLibrary lib) {
+            Object iterator = lib.getIteratorWithFrame(iterable, frame);
+            if (iterator instanceof PTee) {
+                PTee tee = (PTee) iterator;
+                return factory().createTee(cls, tee.getDataObj(), tee.getIndex());
+            }
+            return factory().createTee(cls, factory().createTeeDataObject(iterator), 0);
+        }
+    }
+
+    // tee(iterable, n=2)
+    @Builtin(name = "tee", minNumOfPositionalArgs = 1, parameterNames = {"iterable", "n"})
+    @ArgumentClinic(name = "n", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "2")
+    @GenerateNodeFactory
+    public abstract static class TeeNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return ItertoolsModuleBuiltinsClinicProviders.TeeNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PTuple tee(VirtualFrame frame, Object iterable, int n,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached CallNode callNode,
+                        @Cached("createBinaryProfile()") ConditionProfile copyableProfile) {
+            if (n < 0) {
+                throw raise(ValueError, ErrorMessages.MUST_BE_NON_NEGATIVE, "n");
+            }
+            Object[] result = new Object[n];
+            if (n == 0) {
+                return factory().createTuple(result);
+            }
+            Object iterator = lib.getIteratorWithFrame(iterable, frame);
+            Object copyFunc = lib.lookupAttribute(iterator, frame, "__copy__");
+            if (copyableProfile.profile(copyFunc != PNone.NO_VALUE)) {
+                result[0] = iterator;
+                for (int i = 1; i < n; i++) {
+                    result[i] = callNode.execute(frame, copyFunc);
+                }
+            } else {
+                PTeeDataObject dataObj = factory().createTeeDataObject(iterator);
+                for (int i = 0; i < n; i++) {
+                    result[i] = factory().createTee(dataObj, 0);
+                }
+            }
+            return factory().createTuple(result);
+        }
     }
 }
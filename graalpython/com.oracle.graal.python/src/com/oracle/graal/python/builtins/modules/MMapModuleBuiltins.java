@@ -43,7 +43,6 @@ package com.oracle.graal.python.builtins.modules;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.StandardOpenOption;
 import java.util.HashSet;
@@ -55,7 +54,6 @@ import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
-import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.mmap.PMMap;
 import com.oracle.graal.python.nodes.ErrorMessages;
@@ -73,10 +71,6 @@ import com.oracle.truffle.api.profiles.BranchProfile;
 
 @CoreFunctions(defineModule = "mmap")
 public class MMapModuleBuiltins extends PythonBuiltins {
-    private static final int ACCESS_DEFAULT = 0;
-    private static final int ACCESS_READ = 1;
-    private static final int ACCESS_WRITE = 2;
-    private static final int ACCESS_COPY = 3;
 
     @Override
     protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
@@ -84,10 +78,10 @@ public class MMapModuleBuiltins extends PythonBuiltins {
     }
 
     public MMapModuleBuiltins() {
-        builtinConstants.put("ACCESS_DEFAULT", ACCESS_DEFAULT);
-        builtinConstants.put("ACCESS_READ", ACCESS_READ);
-        builtinConstants.put("ACCESS_WRITE", ACCESS_WRITE);
-        builtinConstants.put("ACCESS_COPY", ACCESS_COPY);
+        builtinConstants.put("ACCESS_DEFAULT", PMMap.ACCESS_DEFAULT);
+        builtinConstants.put("ACCESS_READ", PMMap.ACCESS_READ);
+        builtinConstants.put("ACCESS_WRITE", PMMap.ACCESS_WRITE);
+        builtinConstants.put("ACCESS_COPY", PMMap.ACCESS_COPY);
     }
 
     @Builtin(name = "mmap", minNumOfPositionalArgs = 3, parameterNames = {"cls", "fd", "length", "tagname", "access", "offset"}, constructsClass = PythonBuiltinClassType.PMMap)
@@ -101,16 +95,12 @@ public class MMapModuleBuiltins extends PythonBuiltins {
         PMMap doAnonymous(Object clazz, @SuppressWarnings("unused") long fd, long length, @SuppressWarnings("unused") Object tagname, @SuppressWarnings("unused") PNone access,
                         @SuppressWarnings("unused") PNone offset) {
             checkLength(length);
-            if (length > Integer.MAX_VALUE) {
-                invalidLengthProfile.enter();
-                throw raise(PythonBuiltinClassType.OverflowError, ErrorMessages.PYTHON_INT_TOO_LARGE_TO_CONV_TO, "int");
-            }
-            return factory().createMMap(clazz, new AnonymousMap((int) length), length, 0);
+            return factory().createMMap(clazz, null, PMMap.allocateAnonymous(length), length, 0, PMMap.ACCESS_DEFAULT);
         }
 
         @Specialization(guards = {"fd >= 0", "isNoValue(access)", "isNoValue(offset)"})
         PMMap doFile(Object clazz, long fd, long length, Object tagname, @SuppressWarnings("unused") PNone access, @SuppressWarnings("unused") PNone offset) {
-            return doFile(clazz, fd, length, tagname, ACCESS_DEFAULT, 0);
+            return doFile(clazz, fd, length, tagname, PMMap.ACCESS_DEFAULT, 0);
         }
 
         @Specialization(guards = {"fd >= 0", "isNoValue(offset)"})
@@ -120,8 +110,12 @@ public class MMapModuleBuiltins extends PythonBuiltins {
 
         // mmap(fileno, length, tagname=None, access=ACCESS_DEFAULT[, offset])
         @Specialization(guards = "fd >= 0")
-        PMMap doFile(Object clazz, long fd, long length, @SuppressWarnings("unused") Object tagname, @SuppressWarnings("unused") int access, long offset) {
+        PMMap doFile(Object clazz, long fd, long length, @SuppressWarnings("unused") Object tagname, int access, long offset) {
             checkLength(length);
+            if (offset < 0) {
+                invalidLengthProfile.enter();
+                throw raise(PythonBuiltinClassType.OverflowError, ErrorMessages.MEM_MAPPED_OFFSET_MUST_BE_POSITIVE);
+            }
             int ifd;
             try {
                 ifd = PInt.intValueExact(fd);
@@ -132,29 +126,48 @@ public class MMapModuleBuiltins extends PythonBuiltins {
             String path = getContext().getResources().getFilePath(ifd);
             TruffleFile truffleFile = getContext().getEnv().getPublicTruffleFile(path);
 
-            // TODO(fa) correctly honor access flags
-            Set<StandardOpenOption> options = set(StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // ACCESS_COPY maps privately, so the file itself is never written
+            Set<StandardOpenOption> options;
+            if (access == PMMap.ACCESS_READ || access == PMMap.ACCESS_COPY) {
+                options = set(StandardOpenOption.READ);
+            } else {
+                options = set(StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
 
-            // we create a new channel otherwise we cannot guarantee that the cursor is exclusive
+            // we create a new channel such that closing the file does not invalidate the map
             SeekableByteChannel fileChannel;
             try {
                 fileChannel = truffleFile.newByteChannel(options);
-                position(fileChannel, offset);
-
+            } catch (IOException e) {
+                throw raise(ValueError, ErrorMessages.CANNOT_MMAP_FILE);
+            }
+            boolean success = false;
+            try {
+                long size = PMMap.size(fileChannel);
                 long actualLen;
                 if (length == 0) {
-                    try {
-                        actualLen = PMMap.size(fileChannel) - offset;
-                    } catch (IOException e) {
-                        throw raiseOSError(null, OSErrorEnum.EIO, e);
+                    if (size == 0) {
+                        throw raise(ValueError, ErrorMessages.CANNOT_MMAP_AN_EMPTY_FILE);
                     }
+                    if (offset >= size) {
+                        throw raise(ValueError, ErrorMessages.MMAP_OFFSET_GREATER_THAN_FILE_SIZE);
+                    }
+                    actualLen = size - offset;
                 } else {
+                    if (offset > size || size - offset < length) {
+                        throw raise(ValueError, ErrorMessages.MMAP_LENGTH_GREATER_THAN_FILE_SIZE);
+                    }
                     actualLen = length;
                 }
-
-                return factory().createMMap(clazz, fileChannel, actualLen, offset);
+                PMMap mmap = factory().createMMap(clazz, fileChannel, PMMap.map(fileChannel, offset, actualLen, access), actualLen, offset, access);
+                success = true;
+                return mmap;
             } catch (IOException e) {
                 throw raise(ValueError, ErrorMessages.CANNOT_MMAP_FILE);
+            } finally {
+                if (!success) {
+                    closeChannel(fileChannel);
+                }
             }
         }
 
@@ -189,70 +202,12 @@ public class MMapModuleBuiltins extends PythonBuiltins {
         }
 
         @TruffleBoundary
-        private static void position(SeekableByteChannel ch, long offset) throws IOException {
-            ch.position(offset);
-        }
-    }
-
-    private static class AnonymousMap implements SeekableByteChannel {
-        private final byte[] data;
-
-        private boolean open = true;
-        private int cur;
-
-        public AnonymousMap(int cap) {
-            this.data = new byte[cap];
-        }
-
-        @Override
-        public boolean isOpen() {
-            return open;
-        }
-
-        @Override
-        public void close() throws IOException {
-            open = false;
-        }
-
-        @Override
-        public int read(ByteBuffer dst) throws IOException {
-            int nread = Math.min(dst.remaining(), data.length - cur);
-            dst.put(data, cur, nread);
-            return nread;
-        }
-
-        @Override
-        public int write(ByteBuffer src) throws IOException {
-            int nwrite = Math.min(src.remaining(), data.length - cur);
-            src.get(data, cur, nwrite);
-            return nwrite;
-        }
-
-        @Override
-        public long position() throws IOException {
-            return cur;
-        }
-
-        @Override
-        public SeekableByteChannel position(long newPosition) throws IOException {
-            if (newPosition < 0) {
-                throw new IllegalArgumentException();
-            }
-            cur = (int) newPosition;
-            return this;
-        }
-
-        @Override
-        public long size() throws IOException {
-            return data.length;
-        }
-
-        @Override
-        public SeekableByteChannel truncate(long size) throws IOException {
-            for (int i = 0; i < size; i++) {
-                data[i] = 0;
+        private static void closeChannel(SeekableByteChannel ch) {
+            try {
+                ch.close();
+            } catch (IOException e) {
+                // ignore; we are already reporting an error
             }
-            return this;
         }
     }
 }
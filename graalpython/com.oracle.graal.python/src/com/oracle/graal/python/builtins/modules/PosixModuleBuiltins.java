@@ -26,6 +26,7 @@
 package com.oracle.graal.python.builtins.modules;
 
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__FSPATH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETITEM__;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.NotImplementedError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
@@ -60,8 +61,10 @@ import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
+import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
+import com.oracle.graal.python.builtins.objects.common.SequenceNodes.GetObjectArrayNode;
 import com.oracle.graal.python.builtins.objects.common.SequenceNodes.LenNode;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.GetItemDynamicNode;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.GetItemNode;
@@ -83,6 +86,7 @@ import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallBinaryNode;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallTernaryNode;
 import com.oracle.graal.python.nodes.expression.BinaryArithmetic;
 import com.oracle.graal.python.nodes.expression.IsExpressionNode.IsNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
@@ -90,6 +94,7 @@ import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryClinicBuiltinNode;
@@ -110,6 +115,7 @@ import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.exception.PythonExitException;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
 import com.oracle.graal.python.runtime.sequence.PSequence;
+import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -563,6 +569,241 @@ public class PosixModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "pread", minNumOfPositionalArgs = 3, parameterNames = {"fd", "length", "offset"})
+    @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "length", conversion = ClinicConversion.Index)
+    @ArgumentClinic(name = "offset", conversionClass = OffsetConversionNode.class)
+    @GenerateNodeFactory
+    abstract static class PreadNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PosixModuleBuiltinsClinicProviders.PreadNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PBytes pread(VirtualFrame frame, int fd, int length, long offset,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached BranchProfile errorProfile) {
+            if (length < 0) {
+                int error = OSErrorEnum.EINVAL.getNumber();
+                throw raiseOSError(frame, error, posixLib.strerror(getPosixSupport(), error));
+            }
+            byte[] buf = new byte[length];
+            while (true) {
+                try {
+                    long n = posixLib.pread(getPosixSupport(), fd, buf, 0, length, offset);
+                    return factory().createBytes(buf, 0, (int) n);
+                } catch (PosixException e) {
+                    errorProfile.enter();
+                    if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                        getContext().triggerAsyncActions(frame);
+                    } else {
+                        throw raiseOSErrorFromPosixException(frame, e);
+                    }
+                }
+            }
+        }
+    }
+
+    @Builtin(name = "pwrite", minNumOfPositionalArgs = 3, parameterNames = {"fd", "data", "offset"})
+    @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "data", conversion = ClinicConversion.Buffer)
+    @ArgumentClinic(name = "offset", conversionClass = OffsetConversionNode.class)
+    @GenerateNodeFactory
+    abstract static class PwriteNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PosixModuleBuiltinsClinicProviders.PwriteNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        long pwrite(VirtualFrame frame, int fd, byte[] data, long offset,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached BranchProfile errorProfile) {
+            while (true) {
+                try {
+                    return posixLib.pwrite(getPosixSupport(), fd, data, 0, data.length, offset);
+                } catch (PosixException e) {
+                    errorProfile.enter();
+                    if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                        getContext().triggerAsyncActions(frame);
+                    } else {
+                        throw raiseOSErrorFromPosixException(frame, e);
+                    }
+                }
+            }
+        }
+    }
+
+    @Builtin(name = "readv", minNumOfPositionalArgs = 2, parameterNames = {"fd", "buffers"})
+    @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class ReadvNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PosixModuleBuiltinsClinicProviders.ReadvNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "isList(buffers) || isPTuple(buffers)")
+        long readv(VirtualFrame frame, int fd, PSequence buffers,
+                        @Cached GetObjectArrayNode getObjectArrayNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary bufferLib,
+                        @Cached("create(__SETITEM__)") LookupAndCallTernaryNode setItemNode,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached BranchProfile errorProfile) {
+            Object[] targets = getObjectArrayNode.execute(buffers);
+            Buffer[] iov = new Buffer[targets.length];
+            for (int i = 0; i < targets.length; i++) {
+                iov[i] = getTarget(targets[i], bufferLib);
+            }
+            long n;
+            while (true) {
+                try {
+                    n = posixLib.readv(getPosixSupport(), fd, iov);
+                    break;
+                } catch (PosixException e) {
+                    errorProfile.enter();
+                    if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                        getContext().triggerAsyncActions(frame);
+                    } else {
+                        throw raiseOSErrorFromPosixException(frame, e);
+                    }
+                }
+            }
+            // bytearrays were filled in place, other buffers need their data copied back
+            long remaining = n;
+            for (int i = 0; i < targets.length && remaining > 0; i++) {
+                int len = (int) Math.min(iov[i].length, remaining);
+                if (getByteArrayStorage(targets[i]) == null) {
+                    setItemNode.execute(frame, targets[i], factory().createIntSlice(0, len, 1), factory().createBytes(iov[i].data, 0, len));
+                }
+                remaining -= len;
+            }
+            return n;
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        long readv(Object fd, Object buffers) {
+            throw raise(TypeError, ErrorMessages.S_ARG_2_MUST_BE_A_SEQUENCE, "readv");
+        }
+
+        private Buffer getTarget(Object target, PythonObjectLibrary bufferLib) {
+            ByteSequenceStorage storage = getByteArrayStorage(target);
+            if (storage != null) {
+                return new Buffer(storage.getInternalByteArray(), storage.length());
+            }
+            if (target instanceof PBytes) {
+                throw raise(PythonBuiltinClassType.BufferError, ErrorMessages.OBJ_NOT_WRITABLE);
+            }
+            try {
+                return Buffer.allocate(bufferLib.getBufferLength(target));
+            } catch (UnsupportedMessageException e) {
+                throw raise(TypeError, ErrorMessages.BYTESLIKE_OBJ_REQUIRED, target);
+            }
+        }
+
+        private static ByteSequenceStorage getByteArrayStorage(Object target) {
+            if (target instanceof PByteArray && ((PByteArray) target).getSequenceStorage() instanceof ByteSequenceStorage) {
+                return (ByteSequenceStorage) ((PByteArray) target).getSequenceStorage();
+            }
+            return null;
+        }
+    }
+
+    @Builtin(name = "writev", minNumOfPositionalArgs = 2, parameterNames = {"fd", "buffers"})
+    @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class WritevNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PosixModuleBuiltinsClinicProviders.WritevNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "isList(buffers) || isPTuple(buffers)")
+        long writev(VirtualFrame frame, int fd, PSequence buffers,
+                        @Cached GetObjectArrayNode getObjectArrayNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary bufferLib,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached BranchProfile errorProfile) {
+            Object[] sources = getObjectArrayNode.execute(buffers);
+            Buffer[] iov = new Buffer[sources.length];
+            for (int i = 0; i < sources.length; i++) {
+                iov[i] = getSource(sources[i], bufferLib);
+            }
+            while (true) {
+                try {
+                    return posixLib.writev(getPosixSupport(), fd, iov);
+                } catch (PosixException e) {
+                    errorProfile.enter();
+                    if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                        getContext().triggerAsyncActions(frame);
+                    } else {
+                        throw raiseOSErrorFromPosixException(frame, e);
+                    }
+                }
+            }
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        long writev(Object fd, Object buffers) {
+            throw raise(TypeError, ErrorMessages.S_ARG_2_MUST_BE_A_SEQUENCE, "writev");
+        }
+
+        private Buffer getSource(Object source, PythonObjectLibrary bufferLib) {
+            if (source instanceof PBytesLike && ((PBytesLike) source).getSequenceStorage() instanceof ByteSequenceStorage) {
+                ByteSequenceStorage storage = (ByteSequenceStorage) ((PBytesLike) source).getSequenceStorage();
+                return new Buffer(storage.getInternalByteArray(), storage.length());
+            }
+            try {
+                return Buffer.wrap(bufferLib.getBufferBytes(source));
+            } catch (UnsupportedMessageException e) {
+                throw raise(TypeError, ErrorMessages.BYTESLIKE_OBJ_REQUIRED, source);
+            }
+        }
+    }
+
+    @Builtin(name = "sendfile", minNumOfPositionalArgs = 4, parameterNames = {"out_fd", "in_fd", "offset", "count"})
+    @ArgumentClinic(name = "out_fd", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "in_fd", conversion = ClinicConversion.Int)
+    @ArgumentClinic(name = "offset", conversionClass = OffsetConversionNode.class)
+    @ArgumentClinic(name = "count", conversion = ClinicConversion.Index)
+    @GenerateNodeFactory
+    abstract static class SendfileNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PosixModuleBuiltinsClinicProviders.SendfileNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        long sendfile(VirtualFrame frame, int outFd, int inFd, long offset, int count,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib,
+                        @Cached BranchProfile errorProfile) {
+            if (count < 0) {
+                int error = OSErrorEnum.EINVAL.getNumber();
+                throw raiseOSError(frame, error, posixLib.strerror(getPosixSupport(), error));
+            }
+            while (true) {
+                try {
+                    return posixLib.sendfile(getPosixSupport(), outFd, inFd, offset, count);
+                } catch (PosixException e) {
+                    errorProfile.enter();
+                    if (e.getErrorCode() == OSErrorEnum.EINTR.getNumber()) {
+                        getContext().triggerAsyncActions(frame);
+                    } else {
+                        throw raiseOSErrorFromPosixException(frame, e);
+                    }
+                }
+            }
+        }
+    }
+
     @Builtin(name = "dup", minNumOfPositionalArgs = 1, parameterNames = {"fd"})
     @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
     @GenerateNodeFactory
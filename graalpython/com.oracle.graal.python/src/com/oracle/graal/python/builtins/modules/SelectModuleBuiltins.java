@@ -45,6 +45,8 @@ import static com.oracle.graal.python.nodes.ErrorMessages.TOO_LARGE_TO_CONVERT_T
 
 import java.util.List;
 
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
@@ -54,6 +56,8 @@ import com.oracle.graal.python.builtins.objects.floats.PFloat;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.select.PEpoll;
+import com.oracle.graal.python.builtins.objects.select.PPoll;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.PGuards;
@@ -63,11 +67,15 @@ import com.oracle.graal.python.nodes.builtins.ListNodes.FastConstructListNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallBinaryNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
 import com.oracle.graal.python.runtime.PosixSupportLibrary;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.ChannelNotSelectableException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.SelectResult;
 import com.oracle.graal.python.runtime.PosixSupportLibrary.Timeval;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.exception.PythonErrorType;
 import com.oracle.graal.python.runtime.sequence.PSequence;
@@ -78,6 +86,7 @@ import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
@@ -89,6 +98,40 @@ public class SelectModuleBuiltins extends PythonBuiltins {
 
     public SelectModuleBuiltins() {
         builtinConstants.put("error", PythonErrorType.OSError);
+
+        builtinConstants.put("POLLIN", PosixSupportLibrary.POLLIN);
+        builtinConstants.put("POLLPRI", PosixSupportLibrary.POLLPRI);
+        builtinConstants.put("POLLOUT", PosixSupportLibrary.POLLOUT);
+        builtinConstants.put("POLLERR", PosixSupportLibrary.POLLERR);
+        builtinConstants.put("POLLHUP", PosixSupportLibrary.POLLHUP);
+        builtinConstants.put("POLLNVAL", PosixSupportLibrary.POLLNVAL);
+
+        builtinConstants.put("EPOLLIN", PosixSupportLibrary.EPOLLIN);
+        builtinConstants.put("EPOLLPRI", PosixSupportLibrary.EPOLLPRI);
+        builtinConstants.put("EPOLLOUT", PosixSupportLibrary.EPOLLOUT);
+        builtinConstants.put("EPOLLERR", PosixSupportLibrary.EPOLLERR);
+        builtinConstants.put("EPOLLHUP", PosixSupportLibrary.EPOLLHUP);
+        builtinConstants.put("EPOLLRDNORM", PosixSupportLibrary.EPOLLRDNORM);
+        builtinConstants.put("EPOLLRDBAND", PosixSupportLibrary.EPOLLRDBAND);
+        builtinConstants.put("EPOLLWRNORM", PosixSupportLibrary.EPOLLWRNORM);
+        builtinConstants.put("EPOLLWRBAND", PosixSupportLibrary.EPOLLWRBAND);
+        builtinConstants.put("EPOLLMSG", PosixSupportLibrary.EPOLLMSG);
+        builtinConstants.put("EPOLLRDHUP", PosixSupportLibrary.EPOLLRDHUP);
+        builtinConstants.put("EPOLLEXCLUSIVE", PosixSupportLibrary.EPOLLEXCLUSIVE);
+        builtinConstants.put("EPOLLONESHOT", PosixSupportLibrary.EPOLLONESHOT);
+        builtinConstants.put("EPOLLET", Integer.toUnsignedLong(PosixSupportLibrary.EPOLLET));
+        builtinConstants.put("EPOLL_CLOEXEC", PosixSupportLibrary.O_CLOEXEC);
+    }
+
+    @Override
+    public void postInitialize(PythonCore core) {
+        super.postInitialize(core);
+        // the native backends support epoll only on Linux, hide it elsewhere so that the selectors
+        // module picks another implementation
+        String backend = core.getContext().getLanguage().getEngineOption(PythonOptions.PosixModuleBackend);
+        if (!"java".equals(backend) && !"linux".equals(PythonUtils.getPythonOSName())) {
+            core.lookupBuiltinModule("select").setAttribute("epoll", PNone.NO_VALUE);
+        }
     }
 
     @Override
@@ -203,11 +246,46 @@ public class SelectModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = "poll")
+    @GenerateNodeFactory
+    abstract static class PollNode extends PythonBuiltinNode {
+        @Specialization
+        PPoll poll() {
+            return factory().createPoll();
+        }
+    }
+
+    @Builtin(name = "epoll", minNumOfPositionalArgs = 1, parameterNames = {"$cls", "sizehint", "flags"}, constructsClass = PythonBuiltinClassType.PEpoll)
+    @ArgumentClinic(name = "sizehint", conversion = ClinicConversion.Int, defaultValue = "-1")
+    @ArgumentClinic(name = "flags", conversion = ClinicConversion.Int, defaultValue = "0")
+    @GenerateNodeFactory
+    abstract static class EpollNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return SelectModuleBuiltinsClinicProviders.EpollNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PEpoll epoll(VirtualFrame frame, Object cls, int sizehint, @SuppressWarnings("unused") int flags,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            // like CPython, the flags are ignored and the file descriptor is always non-inheritable
+            if (sizehint != -1 && sizehint <= 0) {
+                throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.NEGATIVE_SIZEHINT);
+            }
+            try {
+                return factory().createEpoll(cls, posixLib.epollCreate(getPosixSupport()));
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+        }
+    }
+
     static final long US_TO_NS = 1000L;
     static final long MS_TO_US = 1000L;
     static final long SEC_TO_MS = 1000L;
-    static final long MS_TO_NS = MS_TO_US * US_TO_NS;
-    static final long SEC_TO_NS = SEC_TO_MS * MS_TO_NS;
+    public static final long MS_TO_NS = MS_TO_US * US_TO_NS;
+    public static final long SEC_TO_NS = SEC_TO_MS * MS_TO_NS;
     static final long SEC_TO_US = SEC_TO_MS * MS_TO_US;
 
     static Timeval timeAsTimeval(long t) {
@@ -237,6 +315,34 @@ public class SelectModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    /**
+     * Converts the timeout argument of {@code poll.poll} and {@code epoll.poll} to milliseconds,
+     * rounding up. {@code None} and negative values mean no timeout and are converted to {@code -1}.
+     */
+    @ImportStatic(PGuards.class)
+    public abstract static class PollTimeoutNode extends PNodeWithRaise {
+        public abstract int execute(VirtualFrame frame, Object timeout, long unitToNs);
+
+        @Specialization
+        static int doNone(@SuppressWarnings("unused") PNone timeout, @SuppressWarnings("unused") long unitToNs) {
+            return -1;
+        }
+
+        @Specialization(guards = "!isPNone(timeout)")
+        int doOther(VirtualFrame frame, Object timeout, long unitToNs,
+                        @Cached PyTimeFromObjectNode pyTimeFromObjectNode) {
+            long ns = pyTimeFromObjectNode.execute(frame, timeout, unitToNs);
+            if (ns < 0) {
+                return -1;
+            }
+            long ms = ns / MS_TO_NS + (ns % MS_TO_NS != 0 ? 1 : 0);
+            if (ms > Integer.MAX_VALUE) {
+                throw raise(PythonBuiltinClassType.OverflowError, ErrorMessages.TIMEOUT_IS_TOO_LARGE);
+            }
+            return (int) ms;
+        }
+    }
+
     /**
      * Equivalent of {@code _PyTime_FromObject} from CPython.
      */
@@ -214,6 +214,9 @@ public class SocketModuleBuiltins extends PythonBuiltins {
         builtinConstants.put("AF_UNSPEC", AF_UNSPEC);
         builtinConstants.put("AF_INET", AF_INET);
         builtinConstants.put("AF_INET6", AF_INET6);
+        builtinConstants.put("MSG_PEEK", PSocket.MSG_PEEK);
+        builtinConstants.put("MSG_DONTWAIT", PSocket.MSG_DONTWAIT);
+        builtinConstants.put("MSG_WAITALL", PSocket.MSG_WAITALL);
         if (ImageInfo.inImageBuildtimeCode()) {
             // we do this eagerly for SVM images
             services = parseServices(core.getContext().getEnv());
@@ -300,6 +303,7 @@ public class SocketModuleBuiltins extends PythonBuiltins {
                 }
                 PSocket newSocket = factory().createSocket(cls, family == -1 ? oldSocket.getFamily() : family, type == -1 ? oldSocket.getType() : type, proto == -1 ? oldSocket.getProto() : proto,
                                 fileno);
+                newSocket.setTimeout(oldSocket.getTimeout());
                 if (oldSocket.getSocket() != null) {
                     newSocket.setSocket(oldSocket.getSocket());
                 } else if (oldSocket.getServerSocket() != null) {
@@ -48,6 +48,7 @@ import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.rawOffs
 import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.readahead;
 import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.safeDowncast;
 import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.toByteArray;
+import static com.oracle.graal.python.nodes.ErrorMessages.BUF_SIZE_POS;
 import static com.oracle.graal.python.nodes.ErrorMessages.CANNOT_FIT_P_IN_OFFSET_SIZE;
 import static com.oracle.graal.python.nodes.ErrorMessages.IO_STREAM_INVALID_POS;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.OSError;
@@ -62,6 +63,7 @@ import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.PNodeWithContext;
 import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.ImportStatic;
@@ -104,7 +106,7 @@ public class BufferedIONodes {
             return true;
         }
 
-        @Specialization(guards = {"self.getBuffer() == null", "!self.isFastClosedChecks()"}, limit = "2")
+        @Specialization(guards = {"self.getBuffer() != null", "!self.isFastClosedChecks()"}, limit = "2")
         boolean isClosedBuffered(VirtualFrame frame, PBuffered self,
                         @CachedLibrary("self.getRaw()") PythonObjectLibrary libRaw,
                         @CachedLibrary(limit = "2") PythonObjectLibrary isTrue) {
@@ -144,7 +146,8 @@ public class BufferedIONodes {
                         @Cached PRaiseNode raiseNode,
                         @Cached IsSeekableNode isSeekableNode,
                         @Cached ConditionProfile isError) {
-            if (isError.profile(!isSeekableNode.execute(frame, self))) {
+            assert self.isOK();
+            if (isError.profile(!isSeekableNode.execute(frame, self.getRaw()))) {
                 throw raiseNode.raise(PythonBuiltinClassType.ValueError, message);
             }
             return true;
@@ -153,14 +156,13 @@ public class BufferedIONodes {
 
     abstract static class IsSeekableNode extends PNodeWithContext {
 
-        public abstract boolean execute(VirtualFrame frame, PBuffered self);
+        public abstract boolean execute(VirtualFrame frame, Object raw);
 
         @Specialization(limit = "2")
-        boolean isSeekable(VirtualFrame frame, PBuffered self,
-                        @CachedLibrary("self.getRaw()") PythonObjectLibrary libRaw,
+        boolean isSeekable(VirtualFrame frame, Object raw,
+                        @CachedLibrary("raw") PythonObjectLibrary libRaw,
                         @CachedLibrary(limit = "1") PythonObjectLibrary isTrue) {
-            assert self.isOK();
-            Object res = libRaw.lookupAndCallRegularMethod(self.getRaw(), frame, "seekable");
+            Object res = libRaw.lookupAndCallRegularMethod(raw, frame, "seekable");
             return isTrue.isTrue(res, frame);
         }
     }
@@ -189,18 +191,70 @@ public class BufferedIONodes {
 
     abstract static class IsWritableNode extends PNodeWithContext {
 
-        public abstract boolean execute(VirtualFrame frame, PBuffered self);
+        public abstract boolean execute(VirtualFrame frame, Object raw);
 
         @Specialization(limit = "2")
-        boolean isWritable(VirtualFrame frame, PBuffered self,
-                        @CachedLibrary("self.getRaw()") PythonObjectLibrary libRaw,
+        boolean isWritable(VirtualFrame frame, Object raw,
+                        @CachedLibrary("raw") PythonObjectLibrary libRaw,
                         @CachedLibrary(limit = "1") PythonObjectLibrary isTrue) {
-            assert self.isOK();
-            Object res = libRaw.lookupAndCallRegularMethod(self.getRaw(), frame, "writable");
+            Object res = libRaw.lookupAndCallRegularMethod(raw, frame, "writable");
             return isTrue.isTrue(res, frame);
         }
     }
 
+    /**
+     * implementation of cpython/Modules/_io/bufferedio.c:_buffered_init. The checks of the raw
+     * stream's capabilities are left to the callers since they differ per type.
+     */
+    abstract static class BufferedInitNode extends PNodeWithContext {
+
+        public abstract void execute(VirtualFrame frame, PBuffered self, Object raw, int bufferSize);
+
+        @Specialization(guards = "bufferSize > 0", limit = "2")
+        static void bufferedInit(VirtualFrame frame, PBuffered self, Object raw, int bufferSize,
+                        @CachedLibrary("raw") PythonObjectLibrary libRaw,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary asSize) {
+            self.setRaw(raw);
+            self.initBuffer(bufferSize);
+            int n;
+            for (n = bufferSize - 1; (n & 1) != 0; n >>= 1) {
+            }
+            self.setBufferMask(n == 0 ? bufferSize - 1 : 0);
+            self.setAbsPos(getRawTell(frame, raw, libRaw, asSize));
+            if (self.isReadable()) {
+                self.resetRead(); // _bufferedreader_reset_buf
+            }
+            if (self.isWritable()) {
+                self.resetWrite(); // _bufferedwriter_reset_buf
+                self.setPos(0);
+            }
+            // TODO: (mq) we should set `self.fastClosedChecks` once we implement FileIO.
+            self.setFastClosedChecks(false);
+            self.setOK(true);
+        }
+
+        @SuppressWarnings("unused")
+        @Specialization(guards = "bufferSize <= 0")
+        static void bufferSizeError(VirtualFrame frame, PBuffered self, Object raw, int bufferSize,
+                        @Cached PRaiseNode raiseNode) {
+            throw raiseNode.raise(ValueError, BUF_SIZE_POS);
+        }
+
+        private static long getRawTell(VirtualFrame frame, Object raw,
+                        PythonObjectLibrary callTell,
+                        PythonObjectLibrary asSize) {
+            Object res;
+            try {
+                res = callTell.lookupAndCallRegularMethod(raw, frame, "tell");
+            } catch (PException e) {
+                // 'tell' is not a requirement if it is not supported by the raw stream
+                return 0;
+            }
+            long n = asSize.asSize(res, ValueError);
+            return n < 0 ? 0 : n;
+        }
+    }
+
     @ImportStatic(PGuards.class)
     abstract static class AsOffNumberNode extends PNodeWithContext {
 
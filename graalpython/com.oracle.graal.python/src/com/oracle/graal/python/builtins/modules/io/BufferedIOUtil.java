@@ -77,6 +77,16 @@ public class BufferedIOUtil {
         return (((isValidReadBuffer(self) || isValidWriteBuffer(self)) && self.getRawPos() >= 0) ? self.getRawPos() - self.getPos() : 0);
     }
 
+    /**
+     * implementation of cpython/Modules/_io/bufferedio.c:ADJUST_POSITION
+     */
+    protected static void adjustPosition(PBuffered self, int newPos) {
+        self.setPos(newPos);
+        if (isValidReadBuffer(self) && self.getReadEnd() < self.getPos()) {
+            self.setReadEnd(self.getPos());
+        }
+    }
+
     /**
      * implementation of cpython/Modules/_io/bufferedio.c:MINUS_LAST_BLOCK
      */
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.io;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PBufferedRWPair;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PBufferedReader;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PBufferedWriter;
+import static com.oracle.graal.python.nodes.ErrorMessages.FILE_NOT_READABLE;
+import static com.oracle.graal.python.nodes.ErrorMessages.FILE_NOT_WRITABLE;
+import static com.oracle.graal.python.nodes.ErrorMessages.IO_UNINIT;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+/**
+ * A {@code BufferedRWPair} combines a {@code BufferedReader} and a {@code BufferedWriter} over two
+ * distinct raw streams and forwards each operation to the one it concerns.
+ */
+@CoreFunctions(extendClasses = PBufferedRWPair)
+public class BufferedRWPairBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return BufferedRWPairBuiltinsFactory.getFactories();
+    }
+
+    protected static final int DEFAULT_BUFFER_SIZE = IOModuleBuiltins.DEFAULT_BUFFER_SIZE;
+
+    // BufferedRWPair(reader, writer[, buffer_size=DEFAULT_BUFFER_SIZE])
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 3, parameterNames = {"$self", "reader", "writer", "buffer_size"})
+    @ArgumentClinic(name = "buffer_size", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "BufferedRWPairBuiltins.DEFAULT_BUFFER_SIZE", useDefaultForNone = true)
+    @GenerateNodeFactory
+    public abstract static class InitNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BufferedRWPairBuiltinsClinicProviders.InitNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone doInit(VirtualFrame frame, PRWPair self, Object reader, Object writer, int bufferSize,
+                        @Cached BufferedIONodes.IsReadableNode isReadableNode,
+                        @Cached BufferedIONodes.IsWritableNode isWritableNode,
+                        @Cached BufferedIONodes.BufferedInitNode initReaderNode,
+                        @Cached BufferedIONodes.BufferedInitNode initWriterNode) {
+            if (!isReadableNode.execute(frame, reader)) {
+                throw getRaiseNode().raise(IOModuleBuiltins.getUnsupportedOperation(getCore()), FILE_NOT_READABLE);
+            }
+            if (!isWritableNode.execute(frame, writer)) {
+                throw getRaiseNode().raise(IOModuleBuiltins.getUnsupportedOperation(getCore()), FILE_NOT_WRITABLE);
+            }
+            PBuffered bufferedReader = factory().createBufferedReader(PBufferedReader);
+            initReaderNode.execute(frame, bufferedReader, reader, bufferSize);
+            PBuffered bufferedWriter = factory().createBufferWriter(PBufferedWriter);
+            initWriterNode.execute(frame, bufferedWriter, writer, bufferSize);
+            self.setReader(bufferedReader);
+            self.setWriter(bufferedWriter);
+            return PNone.NONE;
+        }
+    }
+
+    abstract static class PythonUnaryWithInitErrorBuiltinNode extends PythonUnaryBuiltinNode {
+        @SuppressWarnings("unused")
+        @Specialization(guards = "self.getReader() == null")
+        Object initError(PRWPair self) {
+            throw raise(ValueError, IO_UNINIT);
+        }
+    }
+
+    abstract static class PythonBinaryWithInitErrorBuiltinNode extends PythonBinaryBuiltinNode {
+        @SuppressWarnings("unused")
+        @Specialization(guards = "self.getReader() == null")
+        Object initError(PRWPair self, Object arg) {
+            throw raise(ValueError, IO_UNINIT);
+        }
+    }
+
+    static Object forward(VirtualFrame frame, PythonObjectLibrary lib, PBuffered target, String name, Object arg) {
+        if (arg == PNone.NO_VALUE) {
+            return lib.lookupAndCallRegularMethod(target, frame, name);
+        }
+        return lib.lookupAndCallRegularMethod(target, frame, name, arg);
+    }
+
+    @Builtin(name = "read", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @GenerateNodeFactory
+    abstract static class ReadNode extends PythonBinaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.getReader() != null", limit = "1")
+        Object read(VirtualFrame frame, PRWPair self, Object size,
+                        @CachedLibrary("self.getReader()") PythonObjectLibrary lib) {
+            return forward(frame, lib, self.getReader(), "read", size);
+        }
+    }
+
+    @Builtin(name = "peek", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @GenerateNodeFactory
+    abstract static class PeekNode extends PythonBinaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.getReader() != null", limit = "1")
+        Object peek(VirtualFrame frame, PRWPair self, Object size,
+                        @CachedLibrary("self.getReader()") PythonObjectLibrary lib) {
+            return forward(frame, lib, self.getReader(), "peek", size);
+        }
+    }
+
+    @Builtin(name = "read1", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @GenerateNodeFactory
+    abstract static class Read1Node extends PythonBinaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.getReader() != null", limit = "1")
+        Object read1(VirtualFrame frame, PRWPair self, Object size,
+                        @CachedLibrary("self.getReader()") PythonObjectLibrary lib) {
+            return forward(frame, lib, self.getReader(), "read1", size);
+        }
+    }
+
+    @Builtin(name = "readinto", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ReadIntoNode extends PythonBinaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.getReader() != null", limit = "1")
+        Object readinto(VirtualFrame frame, PRWPair self, Object buffer,
+                        @CachedLibrary("self.getReader()") PythonObjectLibrary lib) {
+            return lib.lookupAndCallRegularMethod(self.getReader(), frame, "readinto", buffer);
+        }
+    }
+
+    @Builtin(name = "readinto1", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class ReadInto1Node extends PythonBinaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.getReader() != null", limit = "1")
+        Object readinto1(VirtualFrame frame, PRWPair self, Object buffer,
+                        @CachedLibrary("self.getReader()") PythonObjectLibrary lib) {
+            return lib.lookupAndCallRegularMethod(self.getReader(), frame, "readinto1", buffer);
+        }
+    }
+
+    @Builtin(name = "write", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class WriteNode extends PythonBinaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.getReader() != null", limit = "1")
+        Object write(VirtualFrame frame, PRWPair self, Object buffer,
+                        @CachedLibrary("self.getWriter()") PythonObjectLibrary lib) {
+            return lib.lookupAndCallRegularMethod(self.getWriter(), frame, "write", buffer);
+        }
+    }
+
+    @Builtin(name = "flush", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FlushNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.getReader() != null", limit = "1")
+        Object flush(VirtualFrame frame, PRWPair self,
+                        @CachedLibrary("self.getWriter()") PythonObjectLibrary lib) {
+            return lib.lookupAndCallRegularMethod(self.getWriter(), frame, "flush");
+        }
+    }
+
+    @Builtin(name = "readable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReadableNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.getReader() != null", limit = "1")
+        Object readable(VirtualFrame frame, PRWPair self,
+                        @CachedLibrary("self.getReader()") PythonObjectLibrary lib) {
+            return lib.lookupAndCallRegularMethod(self.getReader(), frame, "readable");
+        }
+    }
+
+    @Builtin(name = "writable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class WritableNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.getReader() != null", limit = "1")
+        Object writable(VirtualFrame frame, PRWPair self,
+                        @CachedLibrary("self.getWriter()") PythonObjectLibrary lib) {
+            return lib.lookupAndCallRegularMethod(self.getWriter(), frame, "writable");
+        }
+    }
+
+    @Builtin(name = "close", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CloseNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.getReader() != null", limit = "1")
+        Object close(VirtualFrame frame, PRWPair self,
+                        @CachedLibrary("self.getWriter()") PythonObjectLibrary libWriter,
+                        @CachedLibrary("self.getReader()") PythonObjectLibrary libReader) {
+            // the reader is closed even if closing the writer fails
+            PException writerError = null;
+            try {
+                libWriter.lookupAndCallRegularMethod(self.getWriter(), frame, "close");
+            } catch (PException e) {
+                writerError = e;
+            }
+            Object res = libReader.lookupAndCallRegularMethod(self.getReader(), frame, "close");
+            if (writerError != null) {
+                throw writerError;
+            }
+            return res;
+        }
+    }
+
+    @Builtin(name = "isatty", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsAttyNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.getReader() != null", limit = "1")
+        boolean isatty(VirtualFrame frame, PRWPair self,
+                        @CachedLibrary("self.getWriter()") PythonObjectLibrary libWriter,
+                        @CachedLibrary("self.getReader()") PythonObjectLibrary libReader,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary isTrue) {
+            Object res = libWriter.lookupAndCallRegularMethod(self.getWriter(), frame, "isatty");
+            if (isTrue.isTrue(res, frame)) {
+                return true;
+            }
+            res = libReader.lookupAndCallRegularMethod(self.getReader(), frame, "isatty");
+            return isTrue.isTrue(res, frame);
+        }
+    }
+
+    @Builtin(name = "closed", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ClosedNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.getReader() != null", limit = "1")
+        Object closed(VirtualFrame frame, PRWPair self,
+                        @CachedLibrary("self.getWriter()") PythonObjectLibrary lib) {
+            return lib.lookupAttribute(self.getWriter(), frame, "closed");
+        }
+    }
+}
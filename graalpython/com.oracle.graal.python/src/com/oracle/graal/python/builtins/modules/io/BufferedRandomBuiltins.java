@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.io;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PBufferedRandom;
+import static com.oracle.graal.python.nodes.ErrorMessages.FILE_NOT_READABLE;
+import static com.oracle.graal.python.nodes.ErrorMessages.FILE_NOT_SEEKABLE;
+import static com.oracle.graal.python.nodes.ErrorMessages.FILE_NOT_WRITABLE;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+/**
+ * The methods of {@code BufferedRandom} live in {@link BufferedIOMixinBuiltins},
+ * {@link BufferedReaderMixinBuiltins} and {@link BufferedWriterMixinBuiltins}.
+ */
+@CoreFunctions(extendClasses = PBufferedRandom)
+public class BufferedRandomBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return BufferedRandomBuiltinsFactory.getFactories();
+    }
+
+    protected static final int DEFAULT_BUFFER_SIZE = IOModuleBuiltins.DEFAULT_BUFFER_SIZE;
+
+    // BufferedRandom(raw[, buffer_size=DEFAULT_BUFFER_SIZE])
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "raw", "buffer_size"})
+    @ArgumentClinic(name = "buffer_size", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "BufferedRandomBuiltins.DEFAULT_BUFFER_SIZE", useDefaultForNone = true)
+    @GenerateNodeFactory
+    public abstract static class InitNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BufferedRandomBuiltinsClinicProviders.InitNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone doInit(VirtualFrame frame, PBuffered self, Object raw, int bufferSize,
+                        @Cached BufferedIONodes.IsSeekableNode isSeekableNode,
+                        @Cached BufferedIONodes.IsReadableNode isReadableNode,
+                        @Cached BufferedIONodes.IsWritableNode isWritableNode,
+                        @Cached BufferedIONodes.BufferedInitNode bufferedInitNode) {
+            self.setOK(false);
+            self.setDetached(false);
+            if (!isSeekableNode.execute(frame, raw)) {
+                throw getRaiseNode().raise(IOModuleBuiltins.getUnsupportedOperation(getCore()), FILE_NOT_SEEKABLE);
+            }
+            if (!isReadableNode.execute(frame, raw)) {
+                throw getRaiseNode().raise(IOModuleBuiltins.getUnsupportedOperation(getCore()), FILE_NOT_READABLE);
+            }
+            if (!isWritableNode.execute(frame, raw)) {
+                throw getRaiseNode().raise(IOModuleBuiltins.getUnsupportedOperation(getCore()), FILE_NOT_WRITABLE);
+            }
+            bufferedInitNode.execute(frame, self, raw, bufferSize);
+            return PNone.NONE;
+        }
+    }
+}
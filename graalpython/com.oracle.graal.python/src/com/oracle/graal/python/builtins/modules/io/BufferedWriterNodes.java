@@ -40,16 +40,20 @@
  */
 package com.oracle.graal.python.builtins.modules.io;
 
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.BlockingIOError;
 import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.SEEK_CUR;
+import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.adjustPosition;
+import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.isValidReadBuffer;
 import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.isValidWriteBuffer;
 import static com.oracle.graal.python.builtins.modules.io.BufferedIOUtil.rawOffset;
 import static com.oracle.graal.python.nodes.ErrorMessages.IO_S_INVALID_LENGTH;
+import static com.oracle.graal.python.nodes.ErrorMessages.WRITE_COULD_NOT_COMPLETE_WITHOUT_BLOCKING;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.OSError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 
 import java.util.Arrays;
 
-import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
+import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.nodes.PNodeWithContext;
@@ -60,25 +64,33 @@ import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 
 public class BufferedWriterNodes {
 
     abstract static class RawWriteNode extends PNodeWithContext {
 
-        public abstract byte[] execute(VirtualFrame frame, PBuffered self, int len);
+        public abstract int execute(VirtualFrame frame, PBuffered self, byte[] buf, int off, int len);
 
         /**
          * implementation of cpython/Modules/_io/bufferedio.c:_bufferedwriter_raw_write
          */
         @Specialization(limit = "2")
-        static byte[] bufferedwriterRawWrite(VirtualFrame frame, PBuffered self, int len,
+        static int bufferedwriterRawWrite(VirtualFrame frame, PBuffered self, byte[] buf, int off, int len,
                         @Cached PythonObjectFactory factory,
                         @Cached PRaiseNode raise,
-                        @Cached BytesNodes.ToBytesNode toBytes,
                         @CachedLibrary("self.getRaw()") PythonObjectLibrary libRaw,
                         @CachedLibrary(limit = "1") PythonObjectLibrary asSize) {
-            PBytes memobj = factory.createBytes(new byte[len]);
+            // the raw stream may keep the object, so it must not share our buffer
+            PBytes memobj = factory.createBytes(Arrays.copyOfRange(buf, off, off + len));
             Object res = libRaw.lookupAndCallRegularMethod(self.getRaw(), frame, "write", memobj);
+            if (res == PNone.NONE) {
+                /*
+                 * Non-blocking stream would have blocked. CPython retries with the buffered data
+                 * later on, we report it right away.
+                 */
+                throw raise.raise(BlockingIOError, WRITE_COULD_NOT_COMPLETE_WITHOUT_BLOCKING);
+            }
             int n = asSize.asSize(res, ValueError);
             if (n < 0 || n > len) {
                 throw raise.raise(OSError, IO_S_INVALID_LENGTH, "write()", n, len);
@@ -86,14 +98,7 @@ public class BufferedWriterNodes {
             if (n > 0 && self.getAbsPos() != -1) {
                 self.incAbsPos(n);
             }
-            if (n == 0) {
-                return PythonUtils.EMPTY_BYTE_ARRAY;
-            }
-            byte[] bytes = toBytes.execute(memobj);
-            if (n < len) {
-                return Arrays.copyOf(bytes, n);
-            }
-            return bytes;
+            return n;
         }
     }
 
@@ -119,10 +124,7 @@ public class BufferedWriterNodes {
                 self.incRawPos(-rewind);
             }
             while (self.getWritePos() < self.getWriteEnd()) {
-                int w = self.getWriteEnd() - self.getWritePos();
-                byte[] fill = rawWriteNode.execute(frame, self, w);
-                int n = fill.length;
-                PythonUtils.arraycopy(fill, 0, self.getBuffer(), self.getWritePos(), n);
+                int n = rawWriteNode.execute(frame, self, self.getBuffer(), self.getWritePos(), self.getWriteEnd() - self.getWritePos());
                 self.incWritePos(n);
                 self.setRawPos(self.getWritePos());
                 /*- Partial writes can return successfully when interrupted by a
@@ -152,4 +154,73 @@ public class BufferedWriterNodes {
         }
 
     }
+
+    abstract static class WriteNode extends PNodeWithContext {
+
+        public abstract int execute(VirtualFrame frame, PBuffered self, byte[] buffer);
+
+        /**
+         * implementation of cpython/Modules/_io/bufferedio.c:_io__Buffered_write_impl
+         */
+        @Specialization
+        static int bufferedWrite(VirtualFrame frame, PBuffered self, byte[] buffer,
+                        @Cached RawWriteNode rawWriteNode,
+                        @Cached FlushUnlockedNode flushUnlockedNode,
+                        @Cached BufferedIONodes.RawSeekNode rawSeekNode,
+                        @Cached ConditionProfile fastPath) {
+            int len = buffer.length;
+            /* Fast path: the data to write can be fully buffered. */
+            if (!isValidReadBuffer(self) && !isValidWriteBuffer(self)) {
+                self.setPos(0);
+                self.setRawPos(0);
+            }
+            int avail = self.getBufferSize() - self.getPos();
+            if (fastPath.profile(len <= avail)) {
+                PythonUtils.arraycopy(buffer, 0, self.getBuffer(), self.getPos(), len);
+                if (!isValidWriteBuffer(self) || self.getWritePos() > self.getPos()) {
+                    self.setWritePos(self.getPos());
+                }
+                adjustPosition(self, self.getPos() + len);
+                if (self.getPos() > self.getWriteEnd()) {
+                    self.setWriteEnd(self.getPos());
+                }
+                return len;
+            }
+
+            /* First write the current buffer */
+            flushUnlockedNode.execute(frame, self);
+
+            /*
+             * Adjust the raw stream position if it is away from the logical stream position. This
+             * happens if the read buffer has been filled but not modified (and therefore
+             * _bufferedwriter_flush_unlocked() didn't rewind the raw stream by itself).
+             */
+            long offset = rawOffset(self);
+            if (offset != 0) {
+                rawSeekNode.execute(frame, self, -offset, SEEK_CUR);
+                self.incRawPos(-offset);
+            }
+
+            /* Then write buf itself. At this point the buffer has been emptied. */
+            int remaining = len;
+            int written = 0;
+            while (remaining > self.getBufferSize()) {
+                int n = rawWriteNode.execute(frame, self, buffer, written, len - written);
+                written += n;
+                remaining -= n;
+            }
+            if (self.isReadable()) {
+                self.resetRead(); // _bufferedreader_reset_buf
+            }
+            if (remaining > 0) {
+                PythonUtils.arraycopy(buffer, written, self.getBuffer(), 0, remaining);
+                written += remaining;
+            }
+            self.setWritePos(0);
+            self.setWriteEnd(remaining);
+            adjustPosition(self, remaining);
+            self.setRawPos(0);
+            return written;
+        }
+    }
 }
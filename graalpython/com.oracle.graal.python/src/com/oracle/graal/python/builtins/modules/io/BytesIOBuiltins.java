@@ -0,0 +1,481 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.io;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PBytesIO;
+import static com.oracle.graal.python.nodes.ErrorMessages.INVALID_WHENCE_D;
+import static com.oracle.graal.python.nodes.ErrorMessages.IO_CLOSED;
+import static com.oracle.graal.python.nodes.ErrorMessages.NEGATIVE_SEEK_VALUE_D;
+import static com.oracle.graal.python.nodes.ErrorMessages.NEGATIVE_SIZE_VALUE_D;
+import static com.oracle.graal.python.nodes.ErrorMessages.NEW_POSITION_TOO_LARGE;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEXT__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.StopIteration;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.control.GetNextNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+/**
+ * Port of cpython/Modules/_io/bytesio.c. Unlike CPython, {@code getbuffer()} does not track its
+ * exports: the view shares the current buffer and is detached from it by the next resize.
+ */
+@CoreFunctions(extendClasses = PBytesIO)
+public class BytesIOBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return BytesIOBuiltinsFactory.getFactories();
+    }
+
+    abstract static class ClosedCheckPythonUnaryBuiltinNode extends PythonUnaryBuiltinNode {
+        @SuppressWarnings("unused")
+        @Specialization(guards = "self.isClosed()")
+        Object closedError(PBytesIO self) {
+            throw raise(ValueError, IO_CLOSED);
+        }
+    }
+
+    abstract static class ClosedCheckPythonBinaryBuiltinNode extends PythonBinaryBuiltinNode {
+        @SuppressWarnings("unused")
+        @Specialization(guards = "self.isClosed()")
+        Object closedError(PBytesIO self, Object arg) {
+            throw raise(ValueError, IO_CLOSED);
+        }
+    }
+
+    abstract static class ClosedCheckPythonBinaryClinicBuiltinNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            throw CompilerDirectives.shouldNotReachHere("abstract");
+        }
+
+        @SuppressWarnings("unused")
+        @Specialization(guards = "self.isClosed()")
+        Object closedError(PBytesIO self, Object arg) {
+            throw raise(ValueError, IO_CLOSED);
+        }
+    }
+
+    /**
+     * Returns the length of the next line starting at the current position, including the
+     * newline, but at most {@code limit} bytes if {@code limit} is not negative.
+     */
+    static int scanEOL(PBytesIO self, int limit) {
+        int start = self.getPos();
+        int maxlen = self.getStringSize() - start;
+        if (maxlen <= 0) {
+            return 0;
+        }
+        byte[] buf = self.getBuf();
+        int len = maxlen;
+        for (int i = start; i < start + maxlen; i++) {
+            if (buf[i] == '\n') {
+                len = i - start + 1;
+                break;
+            }
+        }
+        if (limit >= 0 && limit < len) {
+            len = limit;
+        }
+        return len;
+    }
+
+    static byte[] readBytes(PBytesIO self, int size) {
+        int pos = self.getPos();
+        byte[] res = self.copyOfRange(pos, pos + size);
+        self.setPos(pos + size);
+        return res;
+    }
+
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 1, parameterNames = {"$self", "initial_bytes"})
+    @GenerateNodeFactory
+    public abstract static class InitNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PNone init(PBytesIO self, @SuppressWarnings("unused") PNone initialBytes) {
+            self.reset();
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "!isPNone(initialBytes)")
+        static PNone init(PBytesIO self, Object initialBytes,
+                        @Cached BytesNodes.ToBytesNode toBytesNode) {
+            self.reset();
+            byte[] data = toBytesNode.execute(initialBytes);
+            self.write(data, data.length);
+            self.setPos(0);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "getvalue", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class GetValueNode extends ClosedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = "!self.isClosed()")
+        Object getvalue(PBytesIO self) {
+            return factory().createBytes(self.copyOfRange(0, self.getStringSize()));
+        }
+    }
+
+    @Builtin(name = "getbuffer", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class GetBufferNode extends ClosedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = "!self.isClosed()")
+        Object getbuffer(PBytesIO self) {
+            int len = self.getStringSize();
+            Object bytearray = factory().createByteArray(new ByteSequenceStorage(self.getBuf(), len));
+            return factory().createMemoryViewForManagedObject(bytearray, 1, len, false, "B");
+        }
+    }
+
+    @Builtin(name = "read", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @ArgumentClinic(name = "size", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class ReadNode extends ClosedCheckPythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BytesIOBuiltinsClinicProviders.ReadNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "!self.isClosed()")
+        Object read(PBytesIO self, int size) {
+            int n = self.getStringSize() - self.getPos();
+            if (n < 0) {
+                n = 0;
+            }
+            if (size >= 0 && size < n) {
+                n = size;
+            }
+            return factory().createBytes(readBytes(self, n));
+        }
+    }
+
+    @Builtin(name = "read1", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @ArgumentClinic(name = "size", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class Read1Node extends ReadNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BytesIOBuiltinsClinicProviders.Read1NodeClinicProviderGen.INSTANCE;
+        }
+    }
+
+    @Builtin(name = "readline", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @ArgumentClinic(name = "size", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class ReadlineNode extends ClosedCheckPythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BytesIOBuiltinsClinicProviders.ReadlineNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "!self.isClosed()")
+        Object readline(PBytesIO self, int size) {
+            return factory().createBytes(readBytes(self, scanEOL(self, size)));
+        }
+    }
+
+    @Builtin(name = "readlines", minNumOfPositionalArgs = 1, parameterNames = {"$self", "hint"})
+    @ArgumentClinic(name = "hint", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "0", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class ReadlinesNode extends ClosedCheckPythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BytesIOBuiltinsClinicProviders.ReadlinesNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "!self.isClosed()")
+        Object readlines(PBytesIO self, int hint) {
+            ArrayList<Object> lines = BufferedIOUtil.createList();
+            int size = 0;
+            int n;
+            while ((n = scanEOL(self, -1)) != 0) {
+                BufferedIOUtil.append(lines, factory().createBytes(readBytes(self, n)));
+                size += n;
+                if (hint > 0 && size >= hint) {
+                    break;
+                }
+            }
+            return factory().createList(BufferedIOUtil.asArray(lines));
+        }
+    }
+
+    @Builtin(name = "readinto", minNumOfPositionalArgs = 2, parameterNames = {"$self", "buffer"})
+    @GenerateNodeFactory
+    abstract static class ReadIntoNode extends ClosedCheckPythonBinaryBuiltinNode {
+        @Specialization(guards = "!self.isClosed()", limit = "3")
+        static int readinto(VirtualFrame frame, PBytesIO self, Object buffer,
+                        @CachedLibrary("buffer") PythonObjectLibrary lib,
+                        @Cached SequenceStorageNodes.BytesMemcpyNode memcpyNode) {
+            int len = lib.lengthWithFrame(buffer, frame);
+            int n = self.getStringSize() - self.getPos();
+            if (len > n) {
+                len = n < 0 ? 0 : n;
+            }
+            memcpyNode.execute(frame, buffer, 0, self.getBuf(), self.getPos(), len);
+            self.setPos(self.getPos() + len);
+            return len;
+        }
+    }
+
+    @Builtin(name = "write", minNumOfPositionalArgs = 2, parameterNames = {"$self", "b"})
+    @ArgumentClinic(name = "b", conversion = ArgumentClinic.ClinicConversion.Buffer)
+    @GenerateNodeFactory
+    abstract static class WriteNode extends ClosedCheckPythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BytesIOBuiltinsClinicProviders.WriteNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "!self.isClosed()")
+        static int write(PBytesIO self, byte[] b) {
+            if (b.length > 0) {
+                self.write(b, b.length);
+            }
+            return b.length;
+        }
+    }
+
+    @Builtin(name = "writelines", minNumOfPositionalArgs = 2, parameterNames = {"$self", "lines"})
+    @GenerateNodeFactory
+    abstract static class WriteLinesNode extends ClosedCheckPythonBinaryBuiltinNode {
+        @Specialization(guards = "!self.isClosed()", limit = "3")
+        static Object writelines(VirtualFrame frame, PBytesIO self, Object lines,
+                        @CachedLibrary("lines") PythonObjectLibrary lib,
+                        @Cached GetNextNode getNextNode,
+                        @Cached IsBuiltinClassProfile errorProfile,
+                        @Cached BytesNodes.ToBytesNode toBytesNode) {
+            Object iter = lib.getIteratorWithFrame(lines, frame);
+            while (true) {
+                Object line;
+                try {
+                    line = getNextNode.execute(frame, iter);
+                } catch (PException e) {
+                    e.expectStopIteration(errorProfile);
+                    break;
+                }
+                byte[] data = toBytesNode.execute(line);
+                if (data.length > 0) {
+                    self.write(data, data.length);
+                }
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "seek", minNumOfPositionalArgs = 2, parameterNames = {"$self", "pos", "whence"})
+    @ArgumentClinic(name = "pos", conversion = ArgumentClinic.ClinicConversion.Int)
+    @ArgumentClinic(name = "whence", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "BufferedIOUtil.SEEK_SET")
+    @GenerateNodeFactory
+    abstract static class SeekNode extends PythonTernaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return BytesIOBuiltinsClinicProviders.SeekNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "!self.isClosed()")
+        Object seek(PBytesIO self, int pos, int whence) {
+            int newPos = pos;
+            if (newPos < 0 && whence == BufferedIOUtil.SEEK_SET) {
+                throw raise(ValueError, NEGATIVE_SEEK_VALUE_D, newPos);
+            }
+            /*-
+             * whence = 0: offset relative to beginning of the string.
+             * whence = 1: offset relative to current position.
+             * whence = 2: offset relative the end of the string.
+             */
+            if (whence == BufferedIOUtil.SEEK_CUR) {
+                if (newPos > Integer.MAX_VALUE - self.getPos()) {
+                    throw raise(OverflowError, NEW_POSITION_TOO_LARGE);
+                }
+                newPos += self.getPos();
+            } else if (whence == BufferedIOUtil.SEEK_END) {
+                if (newPos > Integer.MAX_VALUE - self.getStringSize()) {
+                    throw raise(OverflowError, NEW_POSITION_TOO_LARGE);
+                }
+                newPos += self.getStringSize();
+            } else if (whence != BufferedIOUtil.SEEK_SET) {
+                throw raise(ValueError, INVALID_WHENCE_D, whence);
+            }
+            if (newPos < 0) {
+                newPos = 0;
+            }
+            self.setPos(newPos);
+            return newPos;
+        }
+
+        @SuppressWarnings("unused")
+        @Specialization(guards = "self.isClosed()")
+        Object closedError(PBytesIO self, int pos, int whence) {
+            throw raise(ValueError, IO_CLOSED);
+        }
+    }
+
+    @Builtin(name = "tell", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TellNode extends ClosedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = "!self.isClosed()")
+        static int tell(PBytesIO self) {
+            return self.getPos();
+        }
+    }
+
+    @Builtin(name = "truncate", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @GenerateNodeFactory
+    abstract static class TruncateNode extends ClosedCheckPythonBinaryBuiltinNode {
+        @Specialization(guards = "!self.isClosed()")
+        Object truncateNone(PBytesIO self, @SuppressWarnings("unused") PNone size) {
+            return truncateInt(self, self.getPos());
+        }
+
+        @Specialization(guards = "!self.isClosed()")
+        Object truncateInt(PBytesIO self, int size) {
+            if (size < 0) {
+                throw raise(ValueError, NEGATIVE_SIZE_VALUE_D, size);
+            }
+            if (size < self.getStringSize()) {
+                self.setStringSize(size);
+            }
+            return size;
+        }
+
+        @Specialization(guards = {"!self.isClosed()", "!isPNone(size)"}, replaces = "truncateInt", limit = "3")
+        Object truncateGeneric(VirtualFrame frame, PBytesIO self, Object size,
+                        @CachedLibrary("size") PythonObjectLibrary lib) {
+            return truncateInt(self, lib.asSizeWithFrame(size, OverflowError, frame));
+        }
+    }
+
+    @Builtin(name = "readable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReadableNode extends ClosedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = "!self.isClosed()")
+        static boolean readable(@SuppressWarnings("unused") PBytesIO self) {
+            return true;
+        }
+    }
+
+    @Builtin(name = "writable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class WritableNode extends ReadableNode {
+    }
+
+    @Builtin(name = "seekable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class SeekableNode extends ReadableNode {
+    }
+
+    @Builtin(name = "flush", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FlushNode extends ClosedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = "!self.isClosed()")
+        static Object flush(@SuppressWarnings("unused") PBytesIO self) {
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "isatty", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsAttyNode extends ClosedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = "!self.isClosed()")
+        static boolean isatty(@SuppressWarnings("unused") PBytesIO self) {
+            return false;
+        }
+    }
+
+    @Builtin(name = "close", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CloseNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object close(PBytesIO self) {
+            self.close();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "closed", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ClosedNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean closed(PBytesIO self) {
+            return self.isClosed();
+        }
+    }
+
+    @Builtin(name = __NEXT__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IternextNode extends ClosedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = "!self.isClosed()")
+        Object next(PBytesIO self) {
+            int n = scanEOL(self, -1);
+            if (n == 0) {
+                throw raise(StopIteration);
+            }
+            return factory().createBytes(readBytes(self, n));
+        }
+    }
+}
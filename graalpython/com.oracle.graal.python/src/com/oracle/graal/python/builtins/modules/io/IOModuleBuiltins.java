@@ -40,7 +40,14 @@
  */
 package com.oracle.graal.python.builtins.modules.io;
 
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PBufferedRWPair;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PBufferedRandom;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PBufferedReader;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PBufferedWriter;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PBytesIO;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PIncrementalNewlineDecoder;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PStringIO;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PTextIOWrapper;
 
 import java.util.List;
 
@@ -52,6 +59,7 @@ import com.oracle.graal.python.builtins.objects.type.PythonAbstractClass;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -77,6 +85,22 @@ public class IOModuleBuiltins extends PythonBuiltins {
         PythonModule ioModule = core.lookupBuiltinModule("_io");
         PythonAbstractClass bufferediobase = (PythonAbstractClass) ioModule.getAttribute("BufferedIOBase");
         core.lookupType(PBufferedReader).setSuperClass(bufferediobase);
+        core.lookupType(PBufferedWriter).setSuperClass(bufferediobase);
+        core.lookupType(PBufferedRandom).setSuperClass(bufferediobase);
+        core.lookupType(PBufferedRWPair).setSuperClass(bufferediobase);
+        core.lookupType(PBytesIO).setSuperClass(bufferediobase);
+        PythonAbstractClass textiobase = (PythonAbstractClass) ioModule.getAttribute("_TextIOBase");
+        core.lookupType(PStringIO).setSuperClass(textiobase);
+        core.lookupType(PTextIOWrapper).setSuperClass(textiobase);
+    }
+
+    /**
+     * {@code _io.UnsupportedOperation} is defined in Python, so it needs to be looked up in the
+     * module.
+     */
+    @TruffleBoundary
+    static Object getUnsupportedOperation(PythonCore core) {
+        return core.lookupBuiltinModule("_io").getAttribute("UnsupportedOperation");
     }
 
     @Builtin(name = "BufferedReader", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PBufferedReader)
@@ -88,4 +112,74 @@ public class IOModuleBuiltins extends PythonBuiltins {
             return factory().createBufferedReader(cls);
         }
     }
+
+    @Builtin(name = "BufferedWriter", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PBufferedWriter)
+    @GenerateNodeFactory
+    public abstract static class BufferedWriterNode extends PythonBuiltinNode {
+        @Specialization
+        public PBuffered doNew(Object cls, @SuppressWarnings("unused") Object arg) {
+            // data filled in subsequent __init__ call - see BufferedWriterBuiltins.InitNode
+            return factory().createBufferWriter(cls);
+        }
+    }
+
+    @Builtin(name = "BufferedRandom", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PBufferedRandom)
+    @GenerateNodeFactory
+    public abstract static class BufferedRandomNode extends PythonBuiltinNode {
+        @Specialization
+        public PBuffered doNew(Object cls, @SuppressWarnings("unused") Object arg) {
+            // data filled in subsequent __init__ call - see BufferedRandomBuiltins.InitNode
+            return factory().createBufferRandom(cls);
+        }
+    }
+
+    @Builtin(name = "BufferedRWPair", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PBufferedRWPair)
+    @GenerateNodeFactory
+    public abstract static class BufferedRWPairNode extends PythonBuiltinNode {
+        @Specialization
+        public PRWPair doNew(Object cls, @SuppressWarnings("unused") Object arg) {
+            // data filled in subsequent __init__ call - see BufferedRWPairBuiltins.InitNode
+            return factory().createRWPair(cls);
+        }
+    }
+
+    @Builtin(name = "BytesIO", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PBytesIO)
+    @GenerateNodeFactory
+    public abstract static class BytesIONode extends PythonBuiltinNode {
+        @Specialization
+        public PBytesIO doNew(Object cls, @SuppressWarnings("unused") Object arg) {
+            // data filled in subsequent __init__ call - see BytesIOBuiltins.InitNode
+            return factory().createBytesIO(cls);
+        }
+    }
+
+    @Builtin(name = "StringIO", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PStringIO)
+    @GenerateNodeFactory
+    public abstract static class StringIONode extends PythonBuiltinNode {
+        @Specialization
+        public PStringIO doNew(Object cls, @SuppressWarnings("unused") Object arg) {
+            // data filled in subsequent __init__ call - see StringIOBuiltins.InitNode
+            return factory().createStringIO(cls);
+        }
+    }
+
+    @Builtin(name = "TextIOWrapper", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PTextIOWrapper)
+    @GenerateNodeFactory
+    public abstract static class TextIOWrapperNode extends PythonBuiltinNode {
+        @Specialization
+        public PTextIO doNew(Object cls, @SuppressWarnings("unused") Object arg) {
+            // data filled in subsequent __init__ call - see TextIOWrapperBuiltins.InitNode
+            return factory().createTextIO(cls);
+        }
+    }
+
+    @Builtin(name = "IncrementalNewlineDecoder", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PIncrementalNewlineDecoder)
+    @GenerateNodeFactory
+    public abstract static class IncrementalNewlineDecoderNode extends PythonBuiltinNode {
+        @Specialization
+        public PNLDecoder doNew(Object cls, @SuppressWarnings("unused") Object arg) {
+            // data filled in subsequent __init__ call - see IncrementalNewlineDecoderBuiltins.InitNode
+            return factory().createNLDecoder(cls);
+        }
+    }
 }
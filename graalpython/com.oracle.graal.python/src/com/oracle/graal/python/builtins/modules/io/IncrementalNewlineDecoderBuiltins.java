@@ -0,0 +1,336 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.io;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PIncrementalNewlineDecoder;
+import static com.oracle.graal.python.builtins.modules.io.PNLDecoder.SEEN_CR;
+import static com.oracle.graal.python.builtins.modules.io.PNLDecoder.SEEN_CRLF;
+import static com.oracle.graal.python.builtins.modules.io.PNLDecoder.SEEN_LF;
+import static com.oracle.graal.python.nodes.ErrorMessages.DECODER_SHOULD_RETURN_A_STRING_RESULT_NOT_P;
+import static com.oracle.graal.python.nodes.ErrorMessages.ILLEGAL_DECODER_STATE;
+import static com.oracle.graal.python.nodes.ErrorMessages.NL_DECODER_INIT_NOT_CALLED;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.SequenceNodes.GetObjectArrayNode;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+/**
+ * Port of the {@code IncrementalNewlineDecoder} of cpython/Modules/_io/textio.c. It is also used
+ * without a wrapped decoder by {@code StringIO} for universal newlines mode.
+ */
+@CoreFunctions(extendClasses = PIncrementalNewlineDecoder)
+public class IncrementalNewlineDecoderBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return IncrementalNewlineDecoderBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Records which kinds of line endings were seen in {@code output} and translates them to
+     * {@code \n} if requested. A trailing {@code \r} is held back unless {@code isFinal} is set,
+     * since it might be the first half of a {@code \r\n} sequence.
+     */
+    @TruffleBoundary
+    static String decodeNewlines(PNLDecoder self, String output, boolean isFinal) {
+        String out = output;
+        if (self.isPendingCR() && (isFinal || !out.isEmpty())) {
+            out = "\r" + out;
+            self.setPendingCR(false);
+        }
+        if (!isFinal && !out.isEmpty() && out.charAt(out.length() - 1) == '\r') {
+            out = out.substring(0, out.length() - 1);
+            self.setPendingCR(true);
+        }
+        if (out.isEmpty()) {
+            return out;
+        }
+        int seen = self.getSeenNL();
+        if (out.indexOf('\r') < 0) {
+            // fast path: only \n line endings, nothing to translate
+            if (out.indexOf('\n') >= 0) {
+                self.setSeenNL(seen | SEEN_LF);
+            }
+            return out;
+        }
+        boolean translate = self.isTranslate();
+        StringBuilder sb = translate ? new StringBuilder(out.length()) : null;
+        int len = out.length();
+        for (int i = 0; i < len; i++) {
+            char c = out.charAt(i);
+            if (c == '\n') {
+                seen |= SEEN_LF;
+            } else if (c == '\r') {
+                if (i + 1 < len && out.charAt(i + 1) == '\n') {
+                    seen |= SEEN_CRLF;
+                    i++;
+                } else {
+                    seen |= SEEN_CR;
+                }
+                if (translate) {
+                    sb.append('\n');
+                }
+                continue;
+            }
+            if (translate) {
+                sb.append(c);
+            }
+        }
+        self.setSeenNL(seen);
+        return translate ? sb.toString() : out;
+    }
+
+    /**
+     * implementation of cpython/Modules/_io/textio.c:_PyIncrementalNewlineDecoder_decode
+     */
+    abstract static class DecodeNode extends PNodeWithRaise {
+
+        public abstract String execute(VirtualFrame frame, PNLDecoder self, Object input, boolean isFinal);
+
+        @Specialization(guards = "!self.hasDecoder()")
+        String noDecoder(PNLDecoder self, Object input, boolean isFinal,
+                        @Cached CastToJavaStringNode toString) {
+            return decodeNewlines(self, asString(input, toString), isFinal);
+        }
+
+        @Specialization(guards = "self.hasDecoder()", limit = "2")
+        String withDecoder(VirtualFrame frame, PNLDecoder self, Object input, boolean isFinal,
+                        @CachedLibrary("self.getDecoder()") PythonObjectLibrary lib,
+                        @Cached CastToJavaStringNode toString) {
+            Object output = lib.lookupAndCallRegularMethod(self.getDecoder(), frame, "decode", input, isFinal);
+            return decodeNewlines(self, asString(output, toString), isFinal);
+        }
+
+        private String asString(Object output, CastToJavaStringNode toString) {
+            try {
+                return toString.execute(output);
+            } catch (CannotCastException e) {
+                throw raise(TypeError, DECODER_SHOULD_RETURN_A_STRING_RESULT_NOT_P, output);
+            }
+        }
+
+        public static DecodeNode create() {
+            return IncrementalNewlineDecoderBuiltinsFactory.DecodeNodeGen.create();
+        }
+    }
+
+    abstract static class PythonUnaryWithInitErrorBuiltinNode extends PythonUnaryBuiltinNode {
+        @SuppressWarnings("unused")
+        @Specialization(guards = "!self.isOK()")
+        Object initError(PNLDecoder self) {
+            throw raise(ValueError, NL_DECODER_INIT_NOT_CALLED);
+        }
+    }
+
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 3, parameterNames = {"$self", "decoder", "translate", "errors"})
+    @ArgumentClinic(name = "translate", conversion = ArgumentClinic.ClinicConversion.IntToBoolean)
+    @GenerateNodeFactory
+    public abstract static class InitNode extends PythonQuaternaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return IncrementalNewlineDecoderBuiltinsClinicProviders.InitNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static PNone init(PNLDecoder self, Object decoder, boolean translate, Object errors) {
+            self.setDecoder(decoder == PNone.NONE ? null : decoder);
+            self.setErrors(errors == PNone.NO_VALUE ? "strict" : errors);
+            self.setTranslate(translate);
+            self.setSeenNL(0);
+            self.setPendingCR(false);
+            self.setOK(true);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "decode", minNumOfPositionalArgs = 2, parameterNames = {"$self", "input", "final"})
+    @ArgumentClinic(name = "final", conversion = ArgumentClinic.ClinicConversion.IntToBoolean, defaultValue = "false")
+    @GenerateNodeFactory
+    abstract static class DecodeBuiltinNode extends PythonTernaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return IncrementalNewlineDecoderBuiltinsClinicProviders.DecodeBuiltinNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "self.isOK()")
+        static Object decode(VirtualFrame frame, PNLDecoder self, Object input, boolean isFinal,
+                        @Cached DecodeNode decodeNode) {
+            return decodeNode.execute(frame, self, input, isFinal);
+        }
+
+        @SuppressWarnings("unused")
+        @Specialization(guards = "!self.isOK()")
+        Object initError(PNLDecoder self, Object input, boolean isFinal) {
+            throw raise(ValueError, NL_DECODER_INIT_NOT_CALLED);
+        }
+    }
+
+    @Builtin(name = "getstate", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class GetStateNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = {"self.isOK()", "!self.hasDecoder()"})
+        Object noDecoder(PNLDecoder self) {
+            long flag = self.isPendingCR() ? 1 : 0;
+            return factory().createTuple(new Object[]{factory().createBytes(PythonUtils.EMPTY_BYTE_ARRAY), flag});
+        }
+
+        @Specialization(guards = {"self.isOK()", "self.hasDecoder()"}, limit = "2")
+        Object withDecoder(VirtualFrame frame, PNLDecoder self,
+                        @CachedLibrary("self.getDecoder()") PythonObjectLibrary lib,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary flagLib,
+                        @Cached GetObjectArrayNode getObjectArrayNode) {
+            Object state = lib.lookupAndCallRegularMethod(self.getDecoder(), frame, "getstate");
+            if (!(state instanceof PTuple)) {
+                throw raise(TypeError, ILLEGAL_DECODER_STATE);
+            }
+            Object[] items = getObjectArrayNode.execute(state);
+            if (items.length != 2) {
+                throw raise(TypeError, ILLEGAL_DECODER_STATE);
+            }
+            long flag = flagLib.asJavaLong(items[1], frame) << 1;
+            if (self.isPendingCR()) {
+                flag |= 1;
+            }
+            return factory().createTuple(new Object[]{items[0], flag});
+        }
+    }
+
+    @Builtin(name = "setstate", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class SetStateNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "self.isOK()")
+        Object setstate(VirtualFrame frame, PNLDecoder self, PTuple state,
+                        @Cached GetObjectArrayNode getObjectArrayNode,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary flagLib,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib) {
+            Object[] items = getObjectArrayNode.execute(state);
+            if (items.length != 2) {
+                throw raise(TypeError, ILLEGAL_DECODER_STATE);
+            }
+            long flag = flagLib.asJavaLong(items[1], frame);
+            self.setPendingCR((flag & 1) != 0);
+            if (self.hasDecoder()) {
+                Object decoderState = factory().createTuple(new Object[]{items[0], flag >> 1});
+                lib.lookupAndCallRegularMethod(self.getDecoder(), frame, "setstate", decoderState);
+            }
+            return PNone.NONE;
+        }
+
+        @SuppressWarnings("unused")
+        @Specialization(guards = {"self.isOK()", "!isPTuple(state)"})
+        Object notTuple(PNLDecoder self, Object state) {
+            throw raise(TypeError, ILLEGAL_DECODER_STATE);
+        }
+
+        @SuppressWarnings("unused")
+        @Specialization(guards = "!self.isOK()")
+        Object initError(PNLDecoder self, Object state) {
+            throw raise(ValueError, NL_DECODER_INIT_NOT_CALLED);
+        }
+    }
+
+    @Builtin(name = "reset", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ResetNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()")
+        static Object reset(VirtualFrame frame, PNLDecoder self,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib) {
+            self.setSeenNL(0);
+            self.setPendingCR(false);
+            if (self.hasDecoder()) {
+                lib.lookupAndCallRegularMethod(self.getDecoder(), frame, "reset");
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "newlines", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class NewlinesNode extends PythonUnaryWithInitErrorBuiltinNode {
+        @Specialization(guards = "self.isOK()")
+        Object newlines(PNLDecoder self) {
+            switch (self.getSeenNL()) {
+                case SEEN_CR:
+                    return "\r";
+                case SEEN_LF:
+                    return "\n";
+                case SEEN_CRLF:
+                    return "\r\n";
+                case SEEN_CR | SEEN_LF:
+                    return factory().createTuple(new Object[]{"\r", "\n"});
+                case SEEN_CR | SEEN_CRLF:
+                    return factory().createTuple(new Object[]{"\r", "\r\n"});
+                case SEEN_LF | SEEN_CRLF:
+                    return factory().createTuple(new Object[]{"\n", "\r\n"});
+                case SEEN_CR | SEEN_LF | SEEN_CRLF:
+                    return factory().createTuple(new Object[]{"\r", "\n", "\r\n"});
+                default:
+                    return PNone.NONE;
+            }
+        }
+    }
+}
@@ -214,6 +214,10 @@ public class PBuffered extends PythonBuiltinObject {
         return writePos;
     }
 
+    public void setWritePos(int writePos) {
+        this.writePos = writePos;
+    }
+
     public void incWritePos(int n) {
         this.writePos += n;
     }
@@ -222,6 +226,10 @@ public class PBuffered extends PythonBuiltinObject {
         return writeEnd;
     }
 
+    public void setWriteEnd(int writeEnd) {
+        this.writeEnd = writeEnd;
+    }
+
     public void incWriteEnd(int n) {
         this.writeEnd += n;
     }
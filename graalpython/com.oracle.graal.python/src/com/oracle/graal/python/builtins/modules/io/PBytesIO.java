@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.io;
+
+import java.util.Arrays;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.object.Shape;
+
+public final class PBytesIO extends PythonBuiltinObject {
+
+    /* The buffer, or null once the stream has been closed. */
+    private byte[] buf;
+    /* Number of valid bytes in the buffer. */
+    private int stringSize;
+    /* Current logical position. May be beyond stringSize. */
+    private int pos;
+
+    public PBytesIO(Object cls, Shape instanceShape) {
+        super(cls, instanceShape);
+        this.buf = PythonUtils.EMPTY_BYTE_ARRAY;
+    }
+
+    public boolean isClosed() {
+        return buf == null;
+    }
+
+    public void close() {
+        buf = null;
+        stringSize = 0;
+        pos = 0;
+    }
+
+    public byte[] getBuf() {
+        return buf;
+    }
+
+    public int getStringSize() {
+        return stringSize;
+    }
+
+    public void setStringSize(int stringSize) {
+        this.stringSize = stringSize;
+    }
+
+    public int getPos() {
+        return pos;
+    }
+
+    public void setPos(int pos) {
+        this.pos = pos;
+    }
+
+    public void reset() {
+        buf = PythonUtils.EMPTY_BYTE_ARRAY;
+        stringSize = 0;
+        pos = 0;
+    }
+
+    /**
+     * Makes sure that the buffer can hold {@code size} bytes, over-allocating like
+     * cpython/Modules/_io/bytesio.c:resize_buffer to amortize repeated small writes.
+     */
+    public void ensureCapacity(int size) {
+        if (size > buf.length) {
+            int alloc = size;
+            if (size <= buf.length * 2) {
+                alloc = size + (size >> 3) + (size < 9 ? 3 : 6);
+                if (alloc < 0) {
+                    alloc = size;
+                }
+            }
+            buf = Arrays.copyOf(buf, alloc);
+        }
+    }
+
+    /**
+     * Writes {@code len} bytes of {@code data} at the current position, zero-filling any gap
+     * between the end of the data and the position, and advances the position.
+     */
+    public void write(byte[] data, int len) {
+        int endPos = pos + len;
+        ensureCapacity(endPos);
+        if (pos > stringSize) {
+            Arrays.fill(buf, stringSize, pos, (byte) 0);
+        }
+        PythonUtils.arraycopy(data, 0, buf, pos, len);
+        pos = endPos;
+        if (endPos > stringSize) {
+            stringSize = endPos;
+        }
+    }
+
+    public byte[] copyOfRange(int from, int to) {
+        return Arrays.copyOfRange(buf, from, to);
+    }
+}
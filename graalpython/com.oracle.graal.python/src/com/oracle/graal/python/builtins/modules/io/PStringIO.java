@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.io;
+
+import java.util.Arrays;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.Shape;
+
+public final class PStringIO extends PythonBuiltinObject {
+
+    private boolean ok; /* Initialized? */
+    private boolean closed;
+
+    /*
+     * The contents as code points, so that positions and sizes match the Python level lengths even
+     * for characters outside the BMP.
+     */
+    private int[] buf;
+    private int stringSize;
+    private int pos;
+
+    /* Newline handling, see cpython/Modules/_io/stringio.c:_io_StringIO___init___impl */
+    private String readnl;
+    private String writenl; /* null stands for \n */
+    private boolean readuniversal;
+    private boolean readtranslate;
+    private PNLDecoder decoder;
+
+    public PStringIO(Object cls, Shape instanceShape) {
+        super(cls, instanceShape);
+        this.buf = PythonUtils.EMPTY_INT_ARRAY;
+    }
+
+    public boolean isOK() {
+        return ok;
+    }
+
+    public void setOK(boolean ok) {
+        this.ok = ok;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public void setClosed(boolean closed) {
+        this.closed = closed;
+    }
+
+    public int getStringSize() {
+        return stringSize;
+    }
+
+    public int getPos() {
+        return pos;
+    }
+
+    public void setPos(int pos) {
+        this.pos = pos;
+    }
+
+    public String getReadnl() {
+        return readnl;
+    }
+
+    public void setReadnl(String readnl) {
+        this.readnl = readnl;
+    }
+
+    public String getWritenl() {
+        return writenl;
+    }
+
+    public void setWritenl(String writenl) {
+        this.writenl = writenl;
+    }
+
+    public boolean isReaduniversal() {
+        return readuniversal;
+    }
+
+    public void setReaduniversal(boolean readuniversal) {
+        this.readuniversal = readuniversal;
+    }
+
+    public boolean isReadtranslate() {
+        return readtranslate;
+    }
+
+    public void setReadtranslate(boolean readtranslate) {
+        this.readtranslate = readtranslate;
+    }
+
+    public PNLDecoder getDecoder() {
+        return decoder;
+    }
+
+    public void setDecoder(PNLDecoder decoder) {
+        this.decoder = decoder;
+    }
+
+    public int[] getBuf() {
+        return buf;
+    }
+
+    public void clear() {
+        buf = PythonUtils.EMPTY_INT_ARRAY;
+        stringSize = 0;
+        pos = 0;
+    }
+
+    public void truncate(int size) {
+        if (size < stringSize) {
+            stringSize = size;
+            if (size < buf.length / 4) {
+                buf = Arrays.copyOf(buf, size);
+            }
+        }
+    }
+
+    /**
+     * Writes {@code str} at the current position, padding any gap between the end of the data and
+     * the position with NUL characters, and advances the position.
+     */
+    @TruffleBoundary
+    public void write(String str) {
+        int len = str.codePointCount(0, str.length());
+        int endPos = pos + len;
+        if (endPos > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(endPos, buf.length + (buf.length >> 1)));
+        }
+        if (pos > stringSize) {
+            Arrays.fill(buf, stringSize, pos, 0);
+        }
+        int p = pos;
+        for (int i = 0; i < str.length();) {
+            int cp = str.codePointAt(i);
+            buf[p++] = cp;
+            i += Character.charCount(cp);
+        }
+        pos = endPos;
+        if (endPos > stringSize) {
+            stringSize = endPos;
+        }
+    }
+
+    @TruffleBoundary
+    public String substring(int start, int end) {
+        return new String(buf, start, end - start);
+    }
+}
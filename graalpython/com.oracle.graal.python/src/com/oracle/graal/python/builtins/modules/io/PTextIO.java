@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.io;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.Shape;
+
+public final class PTextIO extends PythonBuiltinObject {
+
+    private boolean ok; /* Initialized? */
+    private boolean detached;
+
+    private int chunkSize;
+    private Object buffer;
+    private String encoding;
+    private Object encoder;
+    private Object decoder;
+    private String errors;
+    private String readnl;
+    private String writenl; /* null stands for \n */
+    private boolean lineBuffering;
+    private boolean writeThrough;
+    private boolean readuniversal;
+    private boolean readtranslate;
+    private boolean writetranslate;
+    private boolean seekable;
+    private boolean hasRead1;
+    private boolean telling;
+
+    /*
+     * Charset used to encode written text in Java instead of calling the Python encoder, or null if
+     * the encoder has to be called. Only set for stateless codecs with strict error handling.
+     */
+    private Charset fastEncoding;
+
+    /* Whether or not it's the start of the stream */
+    private boolean encodingStartOfStream;
+
+    /* Reads and writes are internally buffered in order to speed things up. */
+    private String decodedChars; /* buffer for text returned from decoder */
+    private int decodedCharsUsed; /* offset (in Java chars) into _decoded_chars for read() */
+    private ByteArrayOutputStream pendingBytes; /* data waiting to be written */
+    private int pendingBytesCount;
+
+    /*
+     * snapshot is either null, or a tuple (dec_flags, next_input) where dec_flags is the second
+     * (integer) item of the decoder state and next_input is the chunk of input bytes that comes
+     * next after the snapshot point. We use this to reconstruct decoder states in tell().
+     */
+    private boolean hasSnapshot;
+    private int snapshotDecFlags;
+    private byte[] snapshotNextInput;
+
+    /*
+     * Bytes-to-characters ratio for the current chunk. Serves as input for the heuristic in tell().
+     */
+    private double b2cratio;
+
+    public PTextIO(Object cls, Shape instanceShape) {
+        super(cls, instanceShape);
+    }
+
+    public boolean isOK() {
+        return ok;
+    }
+
+    public void setOK(boolean ok) {
+        this.ok = ok;
+    }
+
+    public boolean isDetached() {
+        return detached;
+    }
+
+    public void setDetached(boolean detached) {
+        this.detached = detached;
+    }
+
+    public boolean isAttached() {
+        return ok && !detached;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public Object getBuffer() {
+        return buffer;
+    }
+
+    public void setBuffer(Object buffer) {
+        this.buffer = buffer;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public void setEncoding(String encoding) {
+        this.encoding = encoding;
+    }
+
+    public boolean hasEncoder() {
+        return encoder != null;
+    }
+
+    public Object getEncoder() {
+        return encoder;
+    }
+
+    public void setEncoder(Object encoder) {
+        this.encoder = encoder;
+    }
+
+    public boolean hasDecoder() {
+        return decoder != null;
+    }
+
+    public Object getDecoder() {
+        return decoder;
+    }
+
+    public void setDecoder(Object decoder) {
+        this.decoder = decoder;
+    }
+
+    public String getErrors() {
+        return errors;
+    }
+
+    public void setErrors(String errors) {
+        this.errors = errors;
+    }
+
+    public String getReadnl() {
+        return readnl;
+    }
+
+    public void setReadnl(String readnl) {
+        this.readnl = readnl;
+    }
+
+    public String getWritenl() {
+        return writenl;
+    }
+
+    public void setWritenl(String writenl) {
+        this.writenl = writenl;
+    }
+
+    public boolean isLineBuffering() {
+        return lineBuffering;
+    }
+
+    public void setLineBuffering(boolean lineBuffering) {
+        this.lineBuffering = lineBuffering;
+    }
+
+    public boolean isWriteThrough() {
+        return writeThrough;
+    }
+
+    public void setWriteThrough(boolean writeThrough) {
+        this.writeThrough = writeThrough;
+    }
+
+    public boolean isReaduniversal() {
+        return readuniversal;
+    }
+
+    public void setReaduniversal(boolean readuniversal) {
+        this.readuniversal = readuniversal;
+    }
+
+    public boolean isReadtranslate() {
+        return readtranslate;
+    }
+
+    public void setReadtranslate(boolean readtranslate) {
+        this.readtranslate = readtranslate;
+    }
+
+    public boolean isWritetranslate() {
+        return writetranslate;
+    }
+
+    public void setWritetranslate(boolean writetranslate) {
+        this.writetranslate = writetranslate;
+    }
+
+    public boolean isSeekable() {
+        return seekable;
+    }
+
+    public void setSeekable(boolean seekable) {
+        this.seekable = seekable;
+    }
+
+    public boolean hasRead1() {
+        return hasRead1;
+    }
+
+    public void setHasRead1(boolean hasRead1) {
+        this.hasRead1 = hasRead1;
+    }
+
+    public boolean isTelling() {
+        return telling;
+    }
+
+    public void setTelling(boolean telling) {
+        this.telling = telling;
+    }
+
+    public Charset getFastEncoding() {
+        return fastEncoding;
+    }
+
+    public void setFastEncoding(Charset fastEncoding) {
+        this.fastEncoding = fastEncoding;
+    }
+
+    public boolean isEncodingStartOfStream() {
+        return encodingStartOfStream;
+    }
+
+    public void setEncodingStartOfStream(boolean encodingStartOfStream) {
+        this.encodingStartOfStream = encodingStartOfStream;
+    }
+
+    public boolean hasDecodedChars() {
+        return decodedChars != null;
+    }
+
+    public String getDecodedChars() {
+        return decodedChars;
+    }
+
+    public int getDecodedCharsUsed() {
+        return decodedCharsUsed;
+    }
+
+    public void setDecodedCharsUsed(int decodedCharsUsed) {
+        this.decodedCharsUsed = decodedCharsUsed;
+    }
+
+    /**
+     * implementation of cpython/Modules/_io/textio.c:textiowrapper_set_decoded_chars
+     */
+    public void setDecodedChars(String decodedChars) {
+        this.decodedChars = decodedChars;
+        this.decodedCharsUsed = 0;
+    }
+
+    public void clearDecodedChars() {
+        setDecodedChars(null);
+    }
+
+    public boolean hasPendingBytes() {
+        return pendingBytesCount > 0;
+    }
+
+    public int getPendingBytesCount() {
+        return pendingBytesCount;
+    }
+
+    @TruffleBoundary
+    public void appendPendingBytes(byte[] bytes) {
+        if (pendingBytes == null) {
+            pendingBytes = new ByteArrayOutputStream();
+        }
+        pendingBytes.write(bytes, 0, bytes.length);
+        pendingBytesCount += bytes.length;
+    }
+
+    @TruffleBoundary
+    public byte[] takePendingBytes() {
+        byte[] bytes = pendingBytes.toByteArray();
+        pendingBytes.reset();
+        pendingBytesCount = 0;
+        return bytes;
+    }
+
+    public boolean hasSnapshot() {
+        return hasSnapshot;
+    }
+
+    public int getSnapshotDecFlags() {
+        return snapshotDecFlags;
+    }
+
+    public byte[] getSnapshotNextInput() {
+        return snapshotNextInput;
+    }
+
+    public void setSnapshot(int decFlags, byte[] nextInput) {
+        this.hasSnapshot = true;
+        this.snapshotDecFlags = decFlags;
+        this.snapshotNextInput = nextInput;
+    }
+
+    public void clearSnapshot() {
+        this.hasSnapshot = false;
+        this.snapshotNextInput = null;
+    }
+
+    public double getB2cratio() {
+        return b2cratio;
+    }
+
+    public void setB2cratio(double b2cratio) {
+        this.b2cratio = b2cratio;
+    }
+}
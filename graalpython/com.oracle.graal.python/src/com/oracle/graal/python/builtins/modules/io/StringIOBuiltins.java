@@ -0,0 +1,507 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.io;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PStringIO;
+import static com.oracle.graal.python.nodes.ErrorMessages.CANT_DO_NONZERO_CUR_RELATIVE_SEEKS;
+import static com.oracle.graal.python.nodes.ErrorMessages.ILLEGAL_NEWLINE_VALUE_S;
+import static com.oracle.graal.python.nodes.ErrorMessages.INITIAL_VALUE_MUST_BE_STR_OR_NONE;
+import static com.oracle.graal.python.nodes.ErrorMessages.INVALID_WHENCE_D;
+import static com.oracle.graal.python.nodes.ErrorMessages.IO_CLOSED;
+import static com.oracle.graal.python.nodes.ErrorMessages.IO_UNINIT;
+import static com.oracle.graal.python.nodes.ErrorMessages.NEGATIVE_SEEK_POSITION_S;
+import static com.oracle.graal.python.nodes.ErrorMessages.NEGATIVE_SIZE_VALUE_D;
+import static com.oracle.graal.python.nodes.ErrorMessages.NEWLINE_MUST_BE_STR_OR_NONE;
+import static com.oracle.graal.python.nodes.ErrorMessages.STRING_ARGUMENT_EXPECTED_GOT_P;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEXT__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OSError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.StopIteration;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+/**
+ * Port of cpython/Modules/_io/stringio.c. The contents are kept as code points; see
+ * {@link PStringIO}.
+ */
+@CoreFunctions(extendClasses = PStringIO)
+public class StringIOBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return StringIOBuiltinsFactory.getFactories();
+    }
+
+    abstract static class ClosedCheckPythonUnaryBuiltinNode extends PythonUnaryBuiltinNode {
+        @Specialization(guards = "!self.isOK() || self.isClosed()")
+        Object closedError(PStringIO self) {
+            throw raise(ValueError, self.isOK() ? IO_CLOSED : IO_UNINIT);
+        }
+    }
+
+    abstract static class ClosedCheckPythonBinaryClinicBuiltinNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            throw CompilerDirectives.shouldNotReachHere("abstract");
+        }
+
+        @SuppressWarnings("unused")
+        @Specialization(guards = "!self.isOK() || self.isClosed()")
+        Object closedError(PStringIO self, Object arg) {
+            throw raise(ValueError, self.isOK() ? IO_CLOSED : IO_UNINIT);
+        }
+    }
+
+    abstract static class ClosedCheckPythonBinaryBuiltinNode extends PythonBinaryBuiltinNode {
+        @SuppressWarnings("unused")
+        @Specialization(guards = "!self.isOK() || self.isClosed()")
+        Object closedError(PStringIO self, Object arg) {
+            throw raise(ValueError, self.isOK() ? IO_CLOSED : IO_UNINIT);
+        }
+    }
+
+    /**
+     * implementation of cpython/Modules/_io/textio.c:_PyIO_find_line_ending on code points. Returns
+     * the length of the line including its ending, or -1 if there is no line ending in
+     * {@code buf[start:end]}.
+     */
+    static int findLineEnding(int[] buf, int start, int end, boolean translated, boolean universal, String readnl) {
+        if (translated) {
+            /* Newlines are already translated, only search for \n */
+            for (int i = start; i < end; i++) {
+                if (buf[i] == '\n') {
+                    return i - start + 1;
+                }
+            }
+            return -1;
+        } else if (universal) {
+            /*
+             * Universal newline search. Find any of \r, \r\n, \n. The decoder ensures that \r\n are
+             * not split in two pieces.
+             */
+            for (int i = start; i < end; i++) {
+                int ch = buf[i];
+                if (ch == '\n') {
+                    return i - start + 1;
+                } else if (ch == '\r') {
+                    if (i + 1 < end && buf[i + 1] == '\n') {
+                        return i - start + 2;
+                    }
+                    return i - start + 1;
+                }
+            }
+            return -1;
+        } else {
+            /* Non-universal mode. */
+            int nlLen = readnl.length();
+            for (int i = start; i <= end - nlLen; i++) {
+                boolean match = true;
+                for (int j = 0; j < nlLen; j++) {
+                    if (buf[i + j] != readnl.charAt(j)) {
+                        match = false;
+                        break;
+                    }
+                }
+                if (match) {
+                    return i - start + nlLen;
+                }
+            }
+            return -1;
+        }
+    }
+
+    static String readline(PStringIO self, int size) {
+        int pos = self.getPos();
+        int n = self.getStringSize() - pos;
+        if (n <= 0) {
+            return "";
+        }
+        int limit = size < 0 || size > n ? n : size;
+        int len = findLineEnding(self.getBuf(), pos, pos + limit, self.isReadtranslate(), self.isReaduniversal(), self.getReadnl());
+        /* If we haven't found any line ending, we just return everything */
+        if (len < 0) {
+            len = limit;
+        }
+        self.setPos(pos + len);
+        return self.substring(pos, pos + len);
+    }
+
+    /**
+     * implementation of cpython/Modules/_io/stringio.c:write_str
+     */
+    abstract static class WriteStringNode extends PNodeWithRaise {
+
+        public abstract void execute(VirtualFrame frame, PStringIO self, String str);
+
+        @Specialization
+        static void write(VirtualFrame frame, PStringIO self, String str,
+                        @Cached IncrementalNewlineDecoderBuiltins.DecodeNode decodeNode) {
+            String decoded = str;
+            if (self.getDecoder() != null) {
+                decoded = decodeNode.execute(frame, self.getDecoder(), str, true /* always final */);
+            }
+            if (self.getWritenl() != null) {
+                decoded = replace(decoded, "\n", self.getWritenl());
+            }
+            self.write(decoded);
+        }
+
+        @TruffleBoundary
+        private static String replace(String str, String target, String replacement) {
+            return str.replace(target, replacement);
+        }
+    }
+
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 1, parameterNames = {"$self", "initial_value", "newline"})
+    @GenerateNodeFactory
+    public abstract static class InitNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        PNone init(VirtualFrame frame, PStringIO self, Object initialValue, Object newlineArg,
+                        @Cached CastToJavaStringNode toString,
+                        @Cached WriteStringNode writeStringNode) {
+            String newline;
+            if (newlineArg == PNone.NO_VALUE) {
+                newline = "\n";
+            } else if (newlineArg == PNone.NONE) {
+                newline = null;
+            } else {
+                try {
+                    newline = toString.execute(newlineArg);
+                } catch (CannotCastException e) {
+                    throw raise(TypeError, NEWLINE_MUST_BE_STR_OR_NONE, newlineArg);
+                }
+                if (!(newline.isEmpty() || newline.equals("\n") || newline.equals("\r") || newline.equals("\r\n"))) {
+                    throw raise(ValueError, ILLEGAL_NEWLINE_VALUE_S, newline);
+                }
+            }
+            String value = null;
+            if (!PGuards.isPNone(initialValue)) {
+                try {
+                    value = toString.execute(initialValue);
+                } catch (CannotCastException e) {
+                    throw raise(TypeError, INITIAL_VALUE_MUST_BE_STR_OR_NONE, initialValue);
+                }
+            }
+            self.setOK(false);
+            self.setDecoder(null);
+            self.setReadnl(newline);
+            /*
+             * If newline == "", we don't translate anything. If newline == "\n" or newline ==
+             * None, we translate to "\n", which is a no-op. (for newline == None, TextIOWrapper
+             * translates to os.linesep, but it is pointless for StringIO)
+             */
+            self.setReaduniversal(newline == null || newline.isEmpty());
+            self.setReadtranslate(newline == null);
+            self.setWritenl(newline != null && !newline.isEmpty() && newline.charAt(0) == '\r' ? newline : null);
+            if (self.isReaduniversal()) {
+                PNLDecoder decoder = factory().createNLDecoder();
+                decoder.setTranslate(self.isReadtranslate());
+                decoder.setErrors("strict");
+                decoder.setOK(true);
+                self.setDecoder(decoder);
+            }
+            self.clear();
+            if (value != null && !value.isEmpty()) {
+                writeStringNode.execute(frame, self, value);
+                self.setPos(0);
+            }
+            self.setClosed(false);
+            self.setOK(true);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "getvalue", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class GetValueNode extends ClosedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"})
+        static Object getvalue(PStringIO self) {
+            return self.substring(0, self.getStringSize());
+        }
+    }
+
+    @Builtin(name = "read", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @ArgumentClinic(name = "size", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class ReadNode extends ClosedCheckPythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return StringIOBuiltinsClinicProviders.ReadNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"})
+        static Object read(PStringIO self, int size) {
+            int pos = self.getPos();
+            int n = self.getStringSize() - pos;
+            if (n < 0) {
+                n = 0;
+            }
+            if (size >= 0 && size < n) {
+                n = size;
+            }
+            self.setPos(pos + n);
+            return n == 0 ? "" : self.substring(pos, pos + n);
+        }
+    }
+
+    @Builtin(name = "readline", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @ArgumentClinic(name = "size", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class ReadlineNode extends ClosedCheckPythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return StringIOBuiltinsClinicProviders.ReadlineNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"})
+        static Object doit(PStringIO self, int size) {
+            return readline(self, size);
+        }
+    }
+
+    @Builtin(name = "write", minNumOfPositionalArgs = 2, parameterNames = {"$self", "s"})
+    @GenerateNodeFactory
+    abstract static class WriteNode extends ClosedCheckPythonBinaryBuiltinNode {
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"})
+        Object write(VirtualFrame frame, PStringIO self, Object s,
+                        @Cached CastToJavaStringNode toString,
+                        @Cached WriteStringNode writeStringNode) {
+            String str;
+            try {
+                str = toString.execute(s);
+            } catch (CannotCastException e) {
+                throw raise(TypeError, STRING_ARGUMENT_EXPECTED_GOT_P, s);
+            }
+            int size = codePointCount(str);
+            if (size > 0) {
+                writeStringNode.execute(frame, self, str);
+            }
+            return size;
+        }
+
+        @TruffleBoundary
+        private static int codePointCount(String str) {
+            return str.codePointCount(0, str.length());
+        }
+    }
+
+    @Builtin(name = "seek", minNumOfPositionalArgs = 2, parameterNames = {"$self", "pos", "whence"})
+    @ArgumentClinic(name = "pos", conversion = ArgumentClinic.ClinicConversion.Int)
+    @ArgumentClinic(name = "whence", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "BufferedIOUtil.SEEK_SET")
+    @GenerateNodeFactory
+    abstract static class SeekNode extends PythonTernaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return StringIOBuiltinsClinicProviders.SeekNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"})
+        Object seek(PStringIO self, int pos, int whence) {
+            if (whence != BufferedIOUtil.SEEK_SET && whence != BufferedIOUtil.SEEK_CUR && whence != BufferedIOUtil.SEEK_END) {
+                throw raise(ValueError, INVALID_WHENCE_D, whence);
+            } else if (pos < 0 && whence == BufferedIOUtil.SEEK_SET) {
+                throw raise(ValueError, NEGATIVE_SEEK_POSITION_S, pos);
+            } else if (whence != BufferedIOUtil.SEEK_SET && pos != 0) {
+                throw raise(OSError, CANT_DO_NONZERO_CUR_RELATIVE_SEEKS);
+            }
+            /*-
+             * whence = 0: offset relative to beginning of the string.
+             * whence = 1: no change to current position.
+             * whence = 2: change position to end of file.
+             */
+            int newPos = pos;
+            if (whence == BufferedIOUtil.SEEK_CUR) {
+                newPos = self.getPos();
+            } else if (whence == BufferedIOUtil.SEEK_END) {
+                newPos = self.getStringSize();
+            }
+            self.setPos(newPos);
+            return newPos;
+        }
+
+        @SuppressWarnings("unused")
+        @Specialization(guards = "!self.isOK() || self.isClosed()")
+        Object closedError(PStringIO self, int pos, int whence) {
+            throw raise(ValueError, self.isOK() ? IO_CLOSED : IO_UNINIT);
+        }
+    }
+
+    @Builtin(name = "tell", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TellNode extends ClosedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"})
+        static int tell(PStringIO self) {
+            return self.getPos();
+        }
+    }
+
+    @Builtin(name = "truncate", minNumOfPositionalArgs = 1, parameterNames = {"$self", "pos"})
+    @GenerateNodeFactory
+    abstract static class TruncateNode extends ClosedCheckPythonBinaryBuiltinNode {
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"})
+        Object truncateNone(PStringIO self, @SuppressWarnings("unused") PNone pos) {
+            return truncateInt(self, self.getPos());
+        }
+
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"})
+        Object truncateInt(PStringIO self, int pos) {
+            if (pos < 0) {
+                throw raise(ValueError, NEGATIVE_SIZE_VALUE_D, pos);
+            }
+            self.truncate(pos);
+            return pos;
+        }
+
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()", "!isPNone(pos)"}, replaces = "truncateInt", limit = "3")
+        Object truncateGeneric(VirtualFrame frame, PStringIO self, Object pos,
+                        @CachedLibrary("pos") PythonObjectLibrary lib) {
+            return truncateInt(self, lib.asSizeWithFrame(pos, OverflowError, frame));
+        }
+    }
+
+    @Builtin(name = "readable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReadableNode extends ClosedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"})
+        static boolean readable(@SuppressWarnings("unused") PStringIO self) {
+            return true;
+        }
+    }
+
+    @Builtin(name = "writable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class WritableNode extends ReadableNode {
+    }
+
+    @Builtin(name = "seekable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class SeekableNode extends ReadableNode {
+    }
+
+    @Builtin(name = "close", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CloseNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object close(PStringIO self) {
+            self.setClosed(true);
+            self.clear();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "closed", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ClosedNode extends PythonUnaryBuiltinNode {
+        @Specialization(guards = "self.isOK()")
+        static boolean closed(PStringIO self) {
+            return self.isClosed();
+        }
+
+        @SuppressWarnings("unused")
+        @Specialization(guards = "!self.isOK()")
+        Object initError(PStringIO self) {
+            throw raise(ValueError, IO_UNINIT);
+        }
+    }
+
+    @Builtin(name = "line_buffering", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class LineBufferingNode extends ClosedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"})
+        static boolean lineBuffering(@SuppressWarnings("unused") PStringIO self) {
+            return false;
+        }
+    }
+
+    @Builtin(name = "newlines", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class NewlinesNode extends ClosedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"})
+        static Object newlines(VirtualFrame frame, PStringIO self,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary lib) {
+            if (self.getDecoder() == null) {
+                return PNone.NONE;
+            }
+            return lib.lookupAttribute(self.getDecoder(), frame, "newlines");
+        }
+    }
+
+    @Builtin(name = __NEXT__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IternextNode extends ClosedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = {"self.isOK()", "!self.isClosed()"})
+        Object next(PStringIO self) {
+            String line = readline(self, -1);
+            if (line.isEmpty()) {
+                throw raise(StopIteration);
+            }
+            return line;
+        }
+    }
+}
@@ -0,0 +1,1020 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.io;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.PTextIOWrapper;
+import static com.oracle.graal.python.builtins.modules.io.TextIOWrapperNodes.codePointCount;
+import static com.oracle.graal.python.builtins.modules.io.TextIOWrapperNodes.concat;
+import static com.oracle.graal.python.builtins.modules.io.TextIOWrapperNodes.encodeFast;
+import static com.oracle.graal.python.builtins.modules.io.TextIOWrapperNodes.getDecodedChars;
+import static com.oracle.graal.python.builtins.modules.io.TextIOWrapperNodes.offsetByCodePoints;
+import static com.oracle.graal.python.nodes.ErrorMessages.A_STRICTLY_POSITIVE_INTEGER_IS_REQUIRED;
+import static com.oracle.graal.python.nodes.ErrorMessages.CANT_DO_NONZERO_CUR_RELATIVE_SEEKS;
+import static com.oracle.graal.python.nodes.ErrorMessages.CANT_DO_NONZERO_END_RELATIVE_SEEKS;
+import static com.oracle.graal.python.nodes.ErrorMessages.CANT_RECONSTRUCT_LOGICAL_FILE_POSITION;
+import static com.oracle.graal.python.nodes.ErrorMessages.CANT_RESTORE_LOGICAL_FILE_POSITION;
+import static com.oracle.graal.python.nodes.ErrorMessages.DETACHED_BUFFER;
+import static com.oracle.graal.python.nodes.ErrorMessages.ENCODER_SHOULD_RETURN_A_BYTES_OBJECT_NOT_P;
+import static com.oracle.graal.python.nodes.ErrorMessages.ENCODING_MUST_BE_STR_OR_NONE;
+import static com.oracle.graal.python.nodes.ErrorMessages.ERRORS_MUST_BE_STR_OR_NONE;
+import static com.oracle.graal.python.nodes.ErrorMessages.ILLEGAL_NEWLINE_VALUE_S;
+import static com.oracle.graal.python.nodes.ErrorMessages.INVALID_WHENCE_D;
+import static com.oracle.graal.python.nodes.ErrorMessages.IO_UNINIT;
+import static com.oracle.graal.python.nodes.ErrorMessages.NEGATIVE_SEEK_POSITION_S;
+import static com.oracle.graal.python.nodes.ErrorMessages.NEWLINE_MUST_BE_STR_OR_NONE;
+import static com.oracle.graal.python.nodes.ErrorMessages.NOT_POSSIBLE_TO_SET_THE_ENCODING_OR_NEWLINE;
+import static com.oracle.graal.python.nodes.ErrorMessages.NOT_READABLE;
+import static com.oracle.graal.python.nodes.ErrorMessages.NOT_WRITABLE;
+import static com.oracle.graal.python.nodes.ErrorMessages.S_BRACKETS_ARG_MUST_BE_S_NOT_P;
+import static com.oracle.graal.python.nodes.ErrorMessages.TELLING_POSITION_DISABLED_BY_NEXT_CALL;
+import static com.oracle.graal.python.nodes.ErrorMessages.UNDERLYING_STREAM_IS_NOT_SEEKABLE;
+import static com.oracle.graal.python.nodes.ErrorMessages.UNDERLYING_S_SHOULD_HAVE_RETURNED_A_BYTES_LIKE_OBJECT_NOT_P;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEXT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.AttributeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ImportError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OSError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.StopIteration;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.io.TextIOWrapperNodes.CheckClosedNode;
+import com.oracle.graal.python.builtins.modules.io.TextIOWrapperNodes.Cookie;
+import com.oracle.graal.python.builtins.modules.io.TextIOWrapperNodes.DecodeNode;
+import com.oracle.graal.python.builtins.modules.io.TextIOWrapperNodes.DecoderGetStateNode;
+import com.oracle.graal.python.builtins.modules.io.TextIOWrapperNodes.DecoderSetStateNode;
+import com.oracle.graal.python.builtins.modules.io.TextIOWrapperNodes.EncoderResetNode;
+import com.oracle.graal.python.builtins.modules.io.TextIOWrapperNodes.FlushNode;
+import com.oracle.graal.python.builtins.modules.io.TextIOWrapperNodes.ReadChunkNode;
+import com.oracle.graal.python.builtins.modules.io.TextIOWrapperNodes.ReadlineNode;
+import com.oracle.graal.python.builtins.modules.io.TextIOWrapperNodes.SetupCodecsNode;
+import com.oracle.graal.python.builtins.modules.io.TextIOWrapperNodes.WriteFlushNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.BytesNodes;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.statement.AbstractImportNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+/**
+ * Port of cpython/Modules/_io/textio.c:TextIOWrapper. Decoding goes through the incremental
+ * decoder of the codec, encoding is done in Java for the common stateless codecs.
+ */
+@CoreFunctions(extendClasses = PTextIOWrapper)
+public class TextIOWrapperBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return TextIOWrapperBuiltinsFactory.getFactories();
+    }
+
+    abstract static class AttachedCheckPythonUnaryBuiltinNode extends PythonUnaryBuiltinNode {
+        @Specialization(guards = "!self.isAttached()")
+        Object attachError(PTextIO self) {
+            throw raise(ValueError, self.isOK() ? DETACHED_BUFFER : IO_UNINIT);
+        }
+    }
+
+    abstract static class AttachedCheckPythonBinaryBuiltinNode extends PythonBinaryBuiltinNode {
+        @SuppressWarnings("unused")
+        @Specialization(guards = "!self.isAttached()")
+        Object attachError(PTextIO self, Object arg) {
+            throw raise(ValueError, self.isOK() ? DETACHED_BUFFER : IO_UNINIT);
+        }
+    }
+
+    abstract static class AttachedCheckPythonBinaryClinicBuiltinNode extends PythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            throw CompilerDirectives.shouldNotReachHere("abstract");
+        }
+
+        @SuppressWarnings("unused")
+        @Specialization(guards = "!self.isAttached()")
+        Object attachError(PTextIO self, Object arg) {
+            throw raise(ValueError, self.isOK() ? DETACHED_BUFFER : IO_UNINIT);
+        }
+    }
+
+    static String parseNewline(PNodeWithRaise node, Object newlineArg, CastToJavaStringNode toString) {
+        if (PGuards.isPNone(newlineArg)) {
+            return null;
+        }
+        String newline;
+        try {
+            newline = toString.execute(newlineArg);
+        } catch (CannotCastException e) {
+            throw node.raise(TypeError, NEWLINE_MUST_BE_STR_OR_NONE, newlineArg);
+        }
+        if (!(newline.isEmpty() || newline.equals("\n") || newline.equals("\r") || newline.equals("\r\n"))) {
+            throw node.raise(ValueError, ILLEGAL_NEWLINE_VALUE_S, newline);
+        }
+        return newline;
+    }
+
+    static void setNewline(PTextIO self, String newline) {
+        self.setReadnl(newline);
+        self.setReaduniversal(newline == null || newline.isEmpty());
+        self.setReadtranslate(newline == null);
+        self.setWritetranslate(newline == null || !newline.isEmpty());
+        if (!self.isReaduniversal() && !newline.equals("\n")) {
+            self.setWritenl(newline);
+        } else {
+            self.setWritenl(null);
+        }
+    }
+
+    /**
+     * If the buffer is not positioned at the start of the stream, the encoder must not write a BOM.
+     */
+    static void fixEncoderState(VirtualFrame frame, PTextIO self, EncoderResetNode encoderResetNode, PythonObjectLibrary lib) {
+        self.setEncodingStartOfStream(false);
+        if (self.isSeekable() && self.hasEncoder()) {
+            self.setEncodingStartOfStream(true);
+            Object cookie = lib.lookupAndCallRegularMethod(self.getBuffer(), frame, "tell");
+            if (lib.isTrue(cookie, frame)) {
+                encoderResetNode.execute(frame, self, false);
+            }
+        }
+    }
+
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "buffer", "encoding", "errors", "newline", "line_buffering", "write_through"})
+    @ArgumentClinic(name = "line_buffering", conversion = ArgumentClinic.ClinicConversion.IntToBoolean, defaultValue = "false")
+    @ArgumentClinic(name = "write_through", conversion = ArgumentClinic.ClinicConversion.IntToBoolean, defaultValue = "false")
+    @GenerateNodeFactory
+    public abstract static class InitNode extends PythonClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return TextIOWrapperBuiltinsClinicProviders.InitNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone init(VirtualFrame frame, PTextIO self, Object buffer, Object encodingArg, Object errorsArg, Object newlineArg, boolean lineBuffering, boolean writeThrough,
+                        @Cached CastToJavaStringNode toString,
+                        @Cached SetupCodecsNode setupCodecsNode,
+                        @Cached EncoderResetNode encoderResetNode,
+                        @Cached CallNode callNode,
+                        @Cached IsBuiltinClassProfile isImportError,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            self.setOK(false);
+            self.setDetached(false);
+
+            String encoding = null;
+            if (!PGuards.isPNone(encodingArg)) {
+                try {
+                    encoding = toString.execute(encodingArg);
+                } catch (CannotCastException e) {
+                    throw raise(TypeError, ENCODING_MUST_BE_STR_OR_NONE, encodingArg);
+                }
+            }
+            String errors = "strict";
+            if (!PGuards.isPNone(errorsArg)) {
+                try {
+                    errors = toString.execute(errorsArg);
+                } catch (CannotCastException e) {
+                    throw raise(TypeError, ERRORS_MUST_BE_STR_OR_NONE, errorsArg);
+                }
+            }
+            String newline = parseNewline(this, newlineArg, toString);
+
+            self.clearDecodedChars();
+            self.clearSnapshot();
+            if (self.hasPendingBytes()) {
+                self.takePendingBytes();
+            }
+            self.setB2cratio(0.0);
+            self.setBuffer(buffer);
+            self.setChunkSize(TextIOWrapperNodes.DEFAULT_CHUNK_SIZE);
+            self.setLineBuffering(lineBuffering);
+            self.setWriteThrough(writeThrough);
+
+            if (encoding == null) {
+                encoding = getPreferredEncoding(frame, toString, callNode, isImportError, lib);
+            }
+            setNewline(self, newline);
+            setupCodecsNode.execute(frame, self, encoding, errors);
+
+            self.setSeekable(lib.isTrue(lib.lookupAndCallRegularMethod(buffer, frame, "seekable"), frame));
+            self.setTelling(self.isSeekable());
+            self.setHasRead1(lib.lookupAttribute(buffer, frame, "read1") != PNone.NO_VALUE);
+            fixEncoderState(frame, self, encoderResetNode, lib);
+
+            self.setOK(true);
+            return PNone.NONE;
+        }
+
+        private String getPreferredEncoding(VirtualFrame frame, CastToJavaStringNode toString, CallNode callNode, IsBuiltinClassProfile isImportError, PythonObjectLibrary lib) {
+            Object locale;
+            try {
+                locale = AbstractImportNode.importModule("locale");
+            } catch (PException e) {
+                e.expect(ImportError, isImportError);
+                /* Importing locale can fail early during startup */
+                return "ascii";
+            }
+            Object encoding = callNode.execute(frame, lib.lookupAttributeStrict(locale, frame, "getpreferredencoding"), false);
+            try {
+                return toString.execute(encoding);
+            } catch (CannotCastException e) {
+                throw raise(TypeError, ENCODING_MUST_BE_STR_OR_NONE, encoding);
+            }
+        }
+    }
+
+    @Builtin(name = "detach", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class DetachNode extends AttachedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = "self.isAttached()")
+        static Object detach(VirtualFrame frame, PTextIO self,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib) {
+            lib.lookupAndCallRegularMethod(self, frame, "flush");
+            Object buffer = self.getBuffer();
+            self.setBuffer(null);
+            self.setDetached(true);
+            return buffer;
+        }
+    }
+
+    @Builtin(name = "reconfigure", minNumOfPositionalArgs = 1, parameterNames = {"$self"}, keywordOnlyNames = {"encoding", "errors", "newline", "line_buffering", "write_through"})
+    @GenerateNodeFactory
+    abstract static class ReconfigureNode extends PythonBuiltinNode {
+        @Specialization(guards = "self.isAttached()")
+        Object reconfigure(VirtualFrame frame, PTextIO self, Object encodingArg, Object errorsArg, Object newlineArg, Object lineBufferingArg, Object writeThroughArg,
+                        @Cached CastToJavaStringNode toString,
+                        @Cached SetupCodecsNode setupCodecsNode,
+                        @Cached EncoderResetNode encoderResetNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            /* Check if something is in the read buffer */
+            if (self.hasDecodedChars() && (!PGuards.isPNone(encodingArg) || !PGuards.isPNone(errorsArg) || newlineArg != PNone.NO_VALUE)) {
+                throw getRaiseNode().raise(IOModuleBuiltins.getUnsupportedOperation(getCore()), NOT_POSSIBLE_TO_SET_THE_ENCODING_OR_NEWLINE);
+            }
+
+            String newline = self.getReadnl();
+            boolean newlineChanged = newlineArg != PNone.NO_VALUE;
+            if (newlineChanged) {
+                newline = parseNewline(this, newlineArg, toString);
+            }
+            String encoding = self.getEncoding();
+            String errors = self.getErrors();
+            if (!PGuards.isPNone(encodingArg)) {
+                try {
+                    encoding = toString.execute(encodingArg);
+                } catch (CannotCastException e) {
+                    throw raise(TypeError, ENCODING_MUST_BE_STR_OR_NONE, encodingArg);
+                }
+                errors = "strict";
+            }
+            if (!PGuards.isPNone(errorsArg)) {
+                try {
+                    errors = toString.execute(errorsArg);
+                } catch (CannotCastException e) {
+                    throw raise(TypeError, ERRORS_MUST_BE_STR_OR_NONE, errorsArg);
+                }
+            }
+            boolean lineBuffering = PGuards.isPNone(lineBufferingArg) ? self.isLineBuffering() : lib.isTrue(lineBufferingArg, frame);
+            boolean writeThrough = PGuards.isPNone(writeThroughArg) ? self.isWriteThrough() : lib.isTrue(writeThroughArg, frame);
+
+            lib.lookupAndCallRegularMethod(self, frame, "flush");
+            self.setB2cratio(0.0);
+
+            if (newlineChanged) {
+                setNewline(self, newline);
+            }
+            if (newlineChanged || !PGuards.isPNone(encodingArg) || !PGuards.isPNone(errorsArg)) {
+                setupCodecsNode.execute(frame, self, encoding, errors);
+                fixEncoderState(frame, self, encoderResetNode, lib);
+            }
+            self.setLineBuffering(lineBuffering);
+            self.setWriteThrough(writeThrough);
+            return PNone.NONE;
+        }
+
+        @SuppressWarnings("unused")
+        @Specialization(guards = "!self.isAttached()")
+        Object attachError(PTextIO self, Object encoding, Object errors, Object newline, Object lineBuffering, Object writeThrough) {
+            throw raise(ValueError, self.isOK() ? DETACHED_BUFFER : IO_UNINIT);
+        }
+    }
+
+    @Builtin(name = "write", minNumOfPositionalArgs = 2, parameterNames = {"$self", "text"})
+    @GenerateNodeFactory
+    abstract static class WriteNode extends AttachedCheckPythonBinaryBuiltinNode {
+        @Specialization(guards = "self.isAttached()")
+        Object write(VirtualFrame frame, PTextIO self, Object textArg,
+                        @Cached CastToJavaStringNode toString,
+                        @Cached CheckClosedNode checkClosedNode,
+                        @Cached WriteFlushNode writeFlushNode,
+                        @Cached BytesNodes.ToBytesNode toBytes,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            String text;
+            try {
+                text = toString.execute(textArg);
+            } catch (CannotCastException e) {
+                throw raise(TypeError, S_BRACKETS_ARG_MUST_BE_S_NOT_P, "write", "str", textArg);
+            }
+            checkClosedNode.execute(frame, self);
+            if (!self.hasEncoder()) {
+                throw getRaiseNode().raise(IOModuleBuiltins.getUnsupportedOperation(getCore()), NOT_WRITABLE);
+            }
+
+            int textLen = codePointCount(text);
+            boolean translate = self.isWritetranslate() && self.getWritenl() != null;
+            boolean haslf = false;
+            if (translate || self.isLineBuffering()) {
+                haslf = indexOf(text, '\n') >= 0;
+            }
+            if (haslf && translate) {
+                text = replace(text, "\n", self.getWritenl());
+            }
+            boolean textNeedflush = self.isWriteThrough();
+            boolean needflush = self.isLineBuffering() && (haslf || indexOf(text, '\r') >= 0);
+
+            byte[] bytes = null;
+            if (self.getFastEncoding() != null) {
+                bytes = encodeFast(self.getFastEncoding(), text);
+            }
+            if (bytes == null) {
+                Object b = lib.lookupAndCallRegularMethod(self.getEncoder(), frame, "encode", text);
+                if (!(b instanceof PBytes)) {
+                    throw raise(TypeError, ENCODER_SHOULD_RETURN_A_BYTES_OBJECT_NOT_P, b);
+                }
+                bytes = toBytes.execute(b);
+            }
+            self.setEncodingStartOfStream(false);
+
+            /* Prevent to concatenate more than chunk_size data. */
+            if (self.getPendingBytesCount() + bytes.length > self.getChunkSize()) {
+                writeFlushNode.execute(frame, self);
+            }
+            self.appendPendingBytes(bytes);
+            if (self.getPendingBytesCount() >= self.getChunkSize() || needflush || textNeedflush) {
+                writeFlushNode.execute(frame, self);
+            }
+            if (needflush) {
+                lib.lookupAndCallRegularMethod(self.getBuffer(), frame, "flush");
+            }
+
+            self.clearDecodedChars();
+            self.clearSnapshot();
+            if (self.hasDecoder()) {
+                lib.lookupAndCallRegularMethod(self.getDecoder(), frame, "reset");
+            }
+            return textLen;
+        }
+
+        @TruffleBoundary
+        private static int indexOf(String str, char c) {
+            return str.indexOf(c);
+        }
+
+        @TruffleBoundary
+        private static String replace(String str, String target, String replacement) {
+            return str.replace(target, replacement);
+        }
+    }
+
+    @Builtin(name = "read", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @ArgumentClinic(name = "size", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class ReadNode extends AttachedCheckPythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return TextIOWrapperBuiltinsClinicProviders.ReadNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = {"self.isAttached()", "n < 0"})
+        Object readAll(VirtualFrame frame, PTextIO self, @SuppressWarnings("unused") int n,
+                        @Cached CheckClosedNode checkClosedNode,
+                        @Cached WriteFlushNode writeFlushNode,
+                        @Cached DecodeNode decodeNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            checkClosedNode.execute(frame, self);
+            checkReadable(self);
+            writeFlushNode.execute(frame, self);
+            /* Read everything */
+            Object bytes = lib.lookupAndCallRegularMethod(self.getBuffer(), frame, "read");
+            String decoded = decodeNode.execute(frame, self.getDecoder(), bytes, true);
+            String result = concat(getDecodedChars(self, -1), decoded);
+            self.clearDecodedChars();
+            self.clearSnapshot();
+            return result;
+        }
+
+        @Specialization(guards = {"self.isAttached()", "n >= 0"})
+        Object read(VirtualFrame frame, PTextIO self, int n,
+                        @Cached CheckClosedNode checkClosedNode,
+                        @Cached WriteFlushNode writeFlushNode,
+                        @Cached ReadChunkNode readChunkNode) {
+            checkClosedNode.execute(frame, self);
+            checkReadable(self);
+            writeFlushNode.execute(frame, self);
+            String result = getDecodedChars(self, n);
+            int remaining = n - codePointCount(result);
+            StringBuilder chunks = null;
+            /* Keep reading chunks until we have n characters to return */
+            while (remaining > 0) {
+                if (!readChunkNode.execute(frame, self, remaining)) {
+                    /* EOF */
+                    break;
+                }
+                if (chunks == null) {
+                    chunks = PythonUtils.newStringBuilder(result);
+                } else {
+                    PythonUtils.append(chunks, result);
+                }
+                result = getDecodedChars(self, remaining);
+                remaining -= codePointCount(result);
+            }
+            if (chunks != null) {
+                PythonUtils.append(chunks, result);
+                return PythonUtils.sbToString(chunks);
+            }
+            return result;
+        }
+
+        private void checkReadable(PTextIO self) {
+            if (!self.hasDecoder()) {
+                throw getRaiseNode().raise(IOModuleBuiltins.getUnsupportedOperation(getCore()), NOT_READABLE);
+            }
+        }
+    }
+
+    @Builtin(name = "readline", minNumOfPositionalArgs = 1, parameterNames = {"$self", "size"})
+    @ArgumentClinic(name = "size", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "-1", useDefaultForNone = true)
+    @GenerateNodeFactory
+    abstract static class ReadlineBuiltinNode extends AttachedCheckPythonBinaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return TextIOWrapperBuiltinsClinicProviders.ReadlineBuiltinNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "self.isAttached()")
+        static Object readline(VirtualFrame frame, PTextIO self, int size,
+                        @Cached ReadlineNode readlineNode) {
+            return readlineNode.execute(frame, self, size);
+        }
+    }
+
+    @Builtin(name = __NEXT__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IternextNode extends AttachedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = "self.isAttached()")
+        Object next(VirtualFrame frame, PTextIO self,
+                        @Cached ReadlineNode readlineNode) {
+            self.setTelling(false);
+            String line = readlineNode.execute(frame, self, -1);
+            if (line.isEmpty()) {
+                /* Reached EOF or would have blocked */
+                self.clearSnapshot();
+                self.setTelling(self.isSeekable());
+                throw raise(StopIteration);
+            }
+            return line;
+        }
+    }
+
+    @Builtin(name = "tell", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class TellNode extends AttachedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = "self.isAttached()")
+        Object tell(VirtualFrame frame, PTextIO self,
+                        @Cached CheckClosedNode checkClosedNode,
+                        @Cached DecodeNode decodeNode,
+                        @Cached DecoderGetStateNode getStateNode,
+                        @Cached DecoderSetStateNode setStateNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            checkClosedNode.execute(frame, self);
+            if (!self.isSeekable()) {
+                throw getRaiseNode().raise(IOModuleBuiltins.getUnsupportedOperation(getCore()), UNDERLYING_STREAM_IS_NOT_SEEKABLE);
+            }
+            if (!self.isTelling()) {
+                throw raise(OSError, TELLING_POSITION_DISABLED_BY_NEXT_CALL);
+            }
+            lib.lookupAndCallRegularMethod(self, frame, "flush");
+            Object posobj = lib.lookupAndCallRegularMethod(self.getBuffer(), frame, "tell");
+            if (!self.hasDecoder() || !self.hasSnapshot()) {
+                return posobj;
+            }
+
+            Cookie cookie = new Cookie();
+            cookie.startPos = lib.asJavaLong(posobj, frame);
+            /* Skip backward to the snapshot point (see _read_chunk). */
+            cookie.decFlags = self.getSnapshotDecFlags();
+            byte[] nextInput = self.getSnapshotNextInput();
+            cookie.startPos -= nextInput.length;
+
+            /* How many decoded characters have been used up since the snapshot? */
+            if (self.getDecodedCharsUsed() == 0) {
+                /* We haven't moved from the snapshot point. */
+                return cookieToPython(cookie);
+            }
+            int charsToSkip = TextIOWrapperNodes.codePointCount(self.getDecodedChars(), 0, self.getDecodedCharsUsed());
+
+            Object decoder = self.getDecoder();
+            /* Decoder state will be restored at the end */
+            Object savedState = lib.lookupAndCallRegularMethod(decoder, frame, "getstate");
+            try {
+                /* Fast search for an acceptable start point, close to our current pos */
+                int skipBytes = Math.min((int) (self.getB2cratio() * charsToSkip), nextInput.length);
+                int skipBack = 1;
+                while (skipBytes > 0) {
+                    /* Decode up to temptative start point */
+                    setStateNode.execute(frame, self, cookie);
+                    int charsDecoded = codePointCount(decodeNode.execute(frame, decoder, factory().createBytes(nextInput, 0, skipBytes), false));
+                    if (charsDecoded <= charsToSkip) {
+                        Object[] state = getStateNode.execute(frame, decoder);
+                        int decBufferLen = lib.lengthWithFrame(state[0], frame);
+                        if (decBufferLen == 0) {
+                            /* Before pos and no bytes buffered in decoder => OK */
+                            cookie.decFlags = (int) state[1];
+                            charsToSkip -= charsDecoded;
+                            break;
+                        }
+                        /* Skip back by buffered amount and reset heuristic */
+                        skipBytes -= decBufferLen;
+                        skipBack = 1;
+                    } else {
+                        /* We're too far ahead, skip back a bit */
+                        skipBytes -= skipBack;
+                        skipBack *= 2;
+                    }
+                }
+                if (skipBytes <= 0) {
+                    skipBytes = 0;
+                    setStateNode.execute(frame, self, cookie);
+                }
+
+                /* Note our initial start point. */
+                cookie.startPos += skipBytes;
+                if (charsToSkip == 0) {
+                    return cookieToPython(cookie);
+                }
+
+                /*
+                 * We should be close to the desired position. Now feed the decoder one byte at a
+                 * time until we reach the `chars_to_skip` target.
+                 */
+                int charsDecoded = 0;
+                int input = skipBytes;
+                while (input < nextInput.length) {
+                    charsDecoded += codePointCount(decodeNode.execute(frame, decoder, factory().createBytes(nextInput, input, 1), false));
+                    cookie.bytesToFeed += 1;
+                    Object[] state = getStateNode.execute(frame, decoder);
+                    if (lib.lengthWithFrame(state[0], frame) == 0 && charsDecoded <= charsToSkip) {
+                        /* Decoder buffer is empty, so this is a safe start point. */
+                        cookie.startPos += cookie.bytesToFeed;
+                        charsToSkip -= charsDecoded;
+                        cookie.decFlags = (int) state[1];
+                        cookie.bytesToFeed = 0;
+                        charsDecoded = 0;
+                    }
+                    if (charsDecoded >= charsToSkip) {
+                        break;
+                    }
+                    input++;
+                }
+                if (input == nextInput.length) {
+                    /* We didn't get enough decoded data; signal EOF to get more. */
+                    String decoded = decodeNode.execute(frame, decoder, factory().createBytes(PythonUtils.EMPTY_BYTE_ARRAY), true);
+                    charsDecoded += codePointCount(decoded);
+                    cookie.needEOF = true;
+                    if (charsDecoded < charsToSkip) {
+                        throw raise(OSError, CANT_RECONSTRUCT_LOGICAL_FILE_POSITION);
+                    }
+                }
+                /* The returned cookie corresponds to the last safe start point. */
+                cookie.charsToFeed = charsToSkip;
+                return cookieToPython(cookie);
+            } finally {
+                lib.lookupAndCallRegularMethod(decoder, frame, "setstate", savedState);
+            }
+        }
+
+        private Object cookieToPython(Cookie cookie) {
+            BigInteger value = cookie.build();
+            if (TextIOWrapperNodes.fitsInLong(value)) {
+                return TextIOWrapperNodes.longValue(value);
+            }
+            return factory().createInt(value);
+        }
+    }
+
+    @Builtin(name = "seek", minNumOfPositionalArgs = 2, parameterNames = {"$self", "cookie", "whence"})
+    @ArgumentClinic(name = "whence", conversion = ArgumentClinic.ClinicConversion.Int, defaultValue = "BufferedIOUtil.SEEK_SET")
+    @GenerateNodeFactory
+    abstract static class SeekNode extends PythonTernaryClinicBuiltinNode {
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return TextIOWrapperBuiltinsClinicProviders.SeekNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(guards = "self.isAttached()")
+        Object seek(VirtualFrame frame, PTextIO self, Object cookieArg, int whence,
+                        @Cached CheckClosedNode checkClosedNode,
+                        @Cached DecodeNode decodeNode,
+                        @Cached DecoderSetStateNode setStateNode,
+                        @Cached EncoderResetNode encoderResetNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            checkClosedNode.execute(frame, self);
+            if (!self.isSeekable()) {
+                throw getRaiseNode().raise(IOModuleBuiltins.getUnsupportedOperation(getCore()), UNDERLYING_STREAM_IS_NOT_SEEKABLE);
+            }
+
+            Object cookieObj = cookieArg;
+            switch (whence) {
+                case BufferedIOUtil.SEEK_CUR:
+                    /* seek relative to current position */
+                    if (lib.isTrue(cookieObj, frame)) {
+                        throw getRaiseNode().raise(IOModuleBuiltins.getUnsupportedOperation(getCore()), CANT_DO_NONZERO_CUR_RELATIVE_SEEKS);
+                    }
+                    /*
+                     * Seeking to the current position should attempt to sync the underlying buffer
+                     * with the current position.
+                     */
+                    cookieObj = lib.lookupAndCallRegularMethod(self, frame, "tell");
+                    break;
+                case BufferedIOUtil.SEEK_END:
+                    /* seek relative to end of file */
+                    if (lib.isTrue(cookieObj, frame)) {
+                        throw getRaiseNode().raise(IOModuleBuiltins.getUnsupportedOperation(getCore()), CANT_DO_NONZERO_END_RELATIVE_SEEKS);
+                    }
+                    lib.lookupAndCallRegularMethod(self, frame, "flush");
+                    self.clearDecodedChars();
+                    self.clearSnapshot();
+                    if (self.hasDecoder()) {
+                        lib.lookupAndCallRegularMethod(self.getDecoder(), frame, "reset");
+                    }
+                    Object res = lib.lookupAndCallRegularMethod(self.getBuffer(), frame, "seek", 0, BufferedIOUtil.SEEK_END);
+                    if (self.hasEncoder()) {
+                        /* If seek() == 0, we are at the start of stream, otherwise not */
+                        encoderResetNode.execute(frame, self, !lib.isTrue(res, frame));
+                    }
+                    return res;
+                case BufferedIOUtil.SEEK_SET:
+                    break;
+                default:
+                    throw raise(ValueError, INVALID_WHENCE_D, whence);
+            }
+
+            BigInteger cookieValue = TextIOWrapperNodes.toBigInteger(lib.asIndexWithFrame(cookieObj, frame));
+            if (cookieValue.signum() < 0) {
+                throw raise(ValueError, NEGATIVE_SEEK_POSITION_S, TextIOWrapperNodes.toString(cookieValue));
+            }
+            lib.lookupAndCallRegularMethod(self, frame, "flush");
+
+            /*
+             * The strategy of seek() is to go back to the safe start point and replay the effect of
+             * read(chars_to_skip) from there.
+             */
+            Cookie cookie = Cookie.parse(cookieValue);
+
+            /* Seek back to the safe start point. */
+            lib.lookupAndCallRegularMethod(self.getBuffer(), frame, "seek", cookie.startPos);
+            self.clearDecodedChars();
+            self.clearSnapshot();
+
+            /* Restore the decoder to its state from the safe start point. */
+            if (self.hasDecoder()) {
+                setStateNode.execute(frame, self, cookie);
+            }
+
+            if (cookie.charsToFeed != 0 && self.hasDecoder()) {
+                /* Just like _read_chunk, feed the decoder and save a snapshot. */
+                Object inputChunk = lib.lookupAndCallRegularMethod(self.getBuffer(), frame, "read", cookie.bytesToFeed);
+                if (!(inputChunk instanceof PBytes)) {
+                    throw raise(TypeError, UNDERLYING_S_SHOULD_HAVE_RETURNED_A_BYTES_LIKE_OBJECT_NOT_P, "read", inputChunk);
+                }
+                self.setSnapshot(cookie.decFlags, toBytes(lib, inputChunk));
+                String decoded = decodeNode.execute(frame, self.getDecoder(), inputChunk, cookie.needEOF);
+                self.setDecodedChars(decoded);
+                /* Skip chars_to_skip of the decoded characters. */
+                if (codePointCount(decoded) < cookie.charsToFeed) {
+                    throw raise(OSError, CANT_RESTORE_LOGICAL_FILE_POSITION);
+                }
+                self.setDecodedCharsUsed(offsetByCodePoints(decoded, 0, decoded.length(), cookie.charsToFeed));
+            } else {
+                self.setSnapshot(cookie.decFlags, PythonUtils.EMPTY_BYTE_ARRAY);
+            }
+
+            /* Finally, reset the encoder (merely useful for proper BOM handling) */
+            if (self.hasEncoder()) {
+                encoderResetNode.execute(frame, self, cookie.startPos == 0 && cookie.decFlags == 0);
+            }
+            return cookieObj;
+        }
+
+        @SuppressWarnings("unused")
+        @Specialization(guards = "!self.isAttached()")
+        Object attachError(PTextIO self, Object cookie, int whence) {
+            throw raise(ValueError, self.isOK() ? DETACHED_BUFFER : IO_UNINIT);
+        }
+
+        private static byte[] toBytes(PythonObjectLibrary lib, Object obj) {
+            try {
+                return lib.getBufferBytes(obj);
+            } catch (UnsupportedMessageException e) {
+                throw CompilerDirectives.shouldNotReachHere(e);
+            }
+        }
+    }
+
+    @Builtin(name = "truncate", minNumOfPositionalArgs = 1, parameterNames = {"$self", "pos"})
+    @GenerateNodeFactory
+    abstract static class TruncateNode extends AttachedCheckPythonBinaryBuiltinNode {
+        @Specialization(guards = "self.isAttached()")
+        static Object truncate(VirtualFrame frame, PTextIO self, Object pos,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            lib.lookupAndCallRegularMethod(self, frame, "flush");
+            return lib.lookupAndCallRegularMethod(self.getBuffer(), frame, "truncate", pos == PNone.NO_VALUE ? PNone.NONE : pos);
+        }
+    }
+
+    @Builtin(name = "flush", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FlushBuiltinNode extends AttachedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = "self.isAttached()")
+        static Object flush(VirtualFrame frame, PTextIO self,
+                        @Cached FlushNode flushNode) {
+            flushNode.execute(frame, self);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "close", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CloseNode extends AttachedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = "self.isAttached()")
+        static Object close(VirtualFrame frame, PTextIO self,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            Object buffer = self.getBuffer();
+            if (lib.isTrue(lib.lookupAttributeStrict(buffer, frame, "closed"), frame)) {
+                return PNone.NONE;
+            }
+            try {
+                lib.lookupAndCallRegularMethod(self, frame, "flush");
+            } catch (PException e) {
+                /* close the buffer anyway, but report the error of flush */
+                lib.lookupAndCallRegularMethod(buffer, frame, "close");
+                throw e;
+            }
+            return lib.lookupAndCallRegularMethod(buffer, frame, "close");
+        }
+    }
+
+    @Builtin(name = "fileno", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FilenoNode extends AttachedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = "self.isAttached()")
+        static Object fileno(VirtualFrame frame, PTextIO self,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib) {
+            return lib.lookupAndCallRegularMethod(self.getBuffer(), frame, "fileno");
+        }
+    }
+
+    @Builtin(name = "seekable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class SeekableNode extends AttachedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = "self.isAttached()")
+        static Object seekable(VirtualFrame frame, PTextIO self,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib) {
+            return lib.lookupAndCallRegularMethod(self.getBuffer(), frame, "seekable");
+        }
+    }
+
+    @Builtin(name = "readable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReadableNode extends AttachedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = "self.isAttached()")
+        static Object readable(VirtualFrame frame, PTextIO self,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib) {
+            return lib.lookupAndCallRegularMethod(self.getBuffer(), frame, "readable");
+        }
+    }
+
+    @Builtin(name = "writable", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class WritableNode extends AttachedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = "self.isAttached()")
+        static Object writable(VirtualFrame frame, PTextIO self,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib) {
+            return lib.lookupAndCallRegularMethod(self.getBuffer(), frame, "writable");
+        }
+    }
+
+    @Builtin(name = "isatty", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class IsattyNode extends AttachedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = "self.isAttached()")
+        static Object isatty(VirtualFrame frame, PTextIO self,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib) {
+            return lib.lookupAndCallRegularMethod(self.getBuffer(), frame, "isatty");
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization(guards = "self.isOK()")
+        Object repr(VirtualFrame frame, PTextIO self,
+                        @Cached("create(__REPR__)") LookupAndCallUnaryNode reprNode,
+                        @Cached CastToJavaStringNode toString,
+                        @Cached IsBuiltinClassProfile isAttributeError,
+                        @Cached IsBuiltinClassProfile isValueError,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            StringBuilder sb = PythonUtils.newStringBuilder("<_io.TextIOWrapper");
+            try {
+                Object name = lib.lookupAttributeStrict(self, frame, "name");
+                PythonUtils.append(sb, " name=");
+                PythonUtils.append(sb, toString.execute(reprNode.executeObject(frame, name)));
+            } catch (PException e) {
+                /* Ignore ValueError raised if the underlying stream was detached */
+                if (!isAttributeError.profileException(e, AttributeError)) {
+                    e.expect(ValueError, isValueError);
+                }
+            }
+            Object mode = lib.lookupAttribute(self, frame, "mode");
+            if (mode != PNone.NO_VALUE) {
+                PythonUtils.append(sb, " mode=");
+                PythonUtils.append(sb, toString.execute(reprNode.executeObject(frame, mode)));
+            }
+            PythonUtils.append(sb, " encoding=");
+            PythonUtils.append(sb, toString.execute(reprNode.executeObject(frame, self.getEncoding())));
+            PythonUtils.append(sb, '>');
+            return PythonUtils.sbToString(sb);
+        }
+
+        @Specialization(guards = "!self.isOK()")
+        Object initError(@SuppressWarnings("unused") PTextIO self) {
+            throw raise(ValueError, IO_UNINIT);
+        }
+    }
+
+    @Builtin(name = "name", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class NameNode extends AttachedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = "self.isAttached()")
+        static Object name(VirtualFrame frame, PTextIO self,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib) {
+            return lib.lookupAttributeStrict(self.getBuffer(), frame, "name");
+        }
+    }
+
+    @Builtin(name = "closed", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ClosedNode extends AttachedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = "self.isAttached()")
+        static Object closed(VirtualFrame frame, PTextIO self,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib) {
+            return lib.lookupAttributeStrict(self.getBuffer(), frame, "closed");
+        }
+    }
+
+    @Builtin(name = "newlines", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class NewlinesNode extends AttachedCheckPythonUnaryBuiltinNode {
+        @Specialization(guards = "self.isAttached()")
+        static Object newlines(VirtualFrame frame, PTextIO self,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib) {
+            if (!self.hasDecoder()) {
+                return PNone.NONE;
+            }
+            Object res = lib.lookupAttribute(self.getDecoder(), frame, "newlines");
+            return res == PNone.NO_VALUE ? PNone.NONE : res;
+        }
+    }
+
+    @Builtin(name = "encoding", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class EncodingNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object encoding(PTextIO self) {
+            return self.getEncoding() == null ? PNone.NONE : self.getEncoding();
+        }
+    }
+
+    @Builtin(name = "errors", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ErrorsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object errors(PTextIO self) {
+            return self.getErrors() == null ? PNone.NONE : self.getErrors();
+        }
+    }
+
+    @Builtin(name = "buffer", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class BufferNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object buffer(PTextIO self) {
+            return self.getBuffer() == null ? PNone.NONE : self.getBuffer();
+        }
+    }
+
+    @Builtin(name = "line_buffering", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class LineBufferingNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean lineBuffering(PTextIO self) {
+            return self.isLineBuffering();
+        }
+    }
+
+    @Builtin(name = "write_through", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class WriteThroughNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean writeThrough(PTextIO self) {
+            return self.isWriteThrough();
+        }
+    }
+
+    @Builtin(name = "_CHUNK_SIZE", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    abstract static class ChunkSizeNode extends AttachedCheckPythonBinaryBuiltinNode {
+        @Specialization(guards = {"self.isAttached()", "isNoValue(none)"})
+        static Object get(PTextIO self, @SuppressWarnings("unused") PNone none) {
+            return self.getChunkSize();
+        }
+
+        @Specialization(guards = {"self.isAttached()", "!isNoValue(arg)"})
+        Object set(VirtualFrame frame, PTextIO self, Object arg,
+                        @CachedLibrary(limit = "2") PythonObjectLibrary lib) {
+            int size = lib.asSizeWithFrame(arg, ValueError, frame);
+            if (size <= 0) {
+                throw raise(ValueError, A_STRICTLY_POSITIVE_INTEGER_IS_REQUIRED);
+            }
+            self.setChunkSize(size);
+            return PNone.NONE;
+        }
+    }
+}
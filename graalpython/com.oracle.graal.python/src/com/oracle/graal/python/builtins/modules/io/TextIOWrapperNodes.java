@@ -0,0 +1,692 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.io;
+
+import static com.oracle.graal.python.nodes.ErrorMessages.DECODER_SHOULD_RETURN_A_STRING_RESULT_NOT_P;
+import static com.oracle.graal.python.nodes.ErrorMessages.ILLEGAL_DECODER_STATE;
+import static com.oracle.graal.python.nodes.ErrorMessages.ILLEGAL_DECODER_STATE_THE_FIRST_ITEM_SHOULD_BE_A_BYTES_OBJECT_NOT_P;
+import static com.oracle.graal.python.nodes.ErrorMessages.IO_CLOSED;
+import static com.oracle.graal.python.nodes.ErrorMessages.IS_NOT_A_TEXT_ENCODING;
+import static com.oracle.graal.python.nodes.ErrorMessages.NOT_READABLE;
+import static com.oracle.graal.python.nodes.ErrorMessages.UNDERLYING_S_SHOULD_HAVE_RETURNED_A_BYTES_LIKE_OBJECT_NOT_P;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.LookupError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.common.SequenceNodes.GetObjectArrayNode;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+/**
+ * Shared nodes and helpers of {@link TextIOWrapperBuiltins}; port of the internal functions of
+ * cpython/Modules/_io/textio.c. Positions into the decoded characters are kept in Java chars,
+ * sizes visible to Python are counted in code points.
+ */
+public class TextIOWrapperNodes {
+
+    static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    /*
+     * A cookie returned by tell() encodes the state needed to restore a logical file position.
+     * The layout matches the one used by CPython: the start position occupies the first 64 bits,
+     * followed by the decoder flags, the number of bytes and characters to feed, and the EOF flag.
+     */
+    static final class Cookie {
+        private static final BigInteger LONG_MASK = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+
+        long startPos;
+        int decFlags;
+        int bytesToFeed;
+        int charsToFeed;
+        boolean needEOF;
+
+        @TruffleBoundary
+        BigInteger build() {
+            BigInteger res = BigInteger.valueOf(needEOF ? 1 : 0);
+            res = res.shiftLeft(32).or(BigInteger.valueOf(Integer.toUnsignedLong(charsToFeed)));
+            res = res.shiftLeft(32).or(BigInteger.valueOf(Integer.toUnsignedLong(bytesToFeed)));
+            res = res.shiftLeft(32).or(BigInteger.valueOf(Integer.toUnsignedLong(decFlags)));
+            return res.shiftLeft(64).or(BigInteger.valueOf(startPos).and(LONG_MASK));
+        }
+
+        @TruffleBoundary
+        static Cookie parse(BigInteger value) {
+            Cookie cookie = new Cookie();
+            cookie.startPos = value.longValue();
+            cookie.decFlags = value.shiftRight(64).intValue();
+            cookie.bytesToFeed = value.shiftRight(96).intValue();
+            cookie.charsToFeed = value.shiftRight(128).intValue();
+            cookie.needEOF = value.shiftRight(160).intValue() != 0;
+            return cookie;
+        }
+    }
+
+    @TruffleBoundary
+    static boolean fitsInLong(BigInteger value) {
+        return value.bitLength() < Long.SIZE;
+    }
+
+    @TruffleBoundary
+    static long longValue(BigInteger value) {
+        return value.longValue();
+    }
+
+    @TruffleBoundary
+    static String toString(BigInteger value) {
+        return value.toString();
+    }
+
+    @TruffleBoundary
+    static BigInteger toBigInteger(Object index) {
+        if (index instanceof PInt) {
+            return ((PInt) index).getValue();
+        } else if (index instanceof Boolean) {
+            return (boolean) index ? BigInteger.ONE : BigInteger.ZERO;
+        }
+        return BigInteger.valueOf(((Number) index).longValue());
+    }
+
+    @TruffleBoundary
+    static int codePointCount(String str) {
+        return str.codePointCount(0, str.length());
+    }
+
+    @TruffleBoundary
+    static int codePointCount(String str, int start, int end) {
+        return str.codePointCount(start, end);
+    }
+
+    /**
+     * Returns the Java char offset of {@code n} code points after {@code start}, or {@code end} if
+     * there are fewer code points in {@code str[start:end]}.
+     */
+    @TruffleBoundary
+    static int offsetByCodePoints(String str, int start, int end, int n) {
+        int idx = start;
+        for (int i = 0; i < n && idx < end; i++) {
+            idx += Character.charCount(str.codePointAt(idx));
+        }
+        return Math.min(idx, end);
+    }
+
+    @TruffleBoundary
+    static String substring(String str, int start, int end) {
+        return str.substring(start, end);
+    }
+
+    @TruffleBoundary
+    static String concat(String a, String b) {
+        return a + b;
+    }
+
+    /**
+     * implementation of cpython/Modules/_io/textio.c:textiowrapper_get_decoded_chars, {@code n} is
+     * a number of code points or negative to return all remaining characters.
+     */
+    static String getDecodedChars(PTextIO self, int n) {
+        if (!self.hasDecodedChars()) {
+            return "";
+        }
+        String chars = self.getDecodedChars();
+        int used = self.getDecodedCharsUsed();
+        int end = n < 0 ? chars.length() : offsetByCodePoints(chars, used, chars.length(), n);
+        if (used == 0 && end == chars.length()) {
+            self.setDecodedCharsUsed(end);
+            return chars;
+        }
+        self.setDecodedCharsUsed(end);
+        return substring(chars, used, end);
+    }
+
+    /**
+     * implementation of cpython/Modules/_io/textio.c:_PyIO_find_line_ending on a Java string.
+     * Returns the position after the line ending relative to {@code start}, or -1 if no line
+     * ending was found. In the latter case, {@code consumed[0]} is set to the number of chars
+     * (relative to {@code start}) that can be put aside safely.
+     */
+    @TruffleBoundary
+    static int findLineEnding(String line, int start, boolean translated, boolean universal, String readnl, int[] consumed) {
+        int len = line.length();
+        if (translated) {
+            /* Newlines are already translated, only search for \n */
+            int pos = line.indexOf('\n', start);
+            if (pos >= 0) {
+                return pos - start + 1;
+            }
+            consumed[0] = len - start;
+            return -1;
+        } else if (universal) {
+            /*
+             * Universal newline search. Find any of \r, \r\n, \n. The decoder ensures that \r\n are
+             * not split in two pieces.
+             */
+            for (int i = start; i < len; i++) {
+                char ch = line.charAt(i);
+                if (ch == '\n') {
+                    return i - start + 1;
+                } else if (ch == '\r') {
+                    if (i + 1 < len && line.charAt(i + 1) == '\n') {
+                        return i - start + 2;
+                    }
+                    return i - start + 1;
+                }
+            }
+            consumed[0] = len - start;
+            return -1;
+        } else {
+            /* Non-universal mode. */
+            int pos = line.indexOf(readnl, start);
+            if (pos >= 0) {
+                return pos - start + readnl.length();
+            }
+            /* A line ending might start at the end of the string */
+            int e = Math.max(start, len - (readnl.length() - 1));
+            pos = line.indexOf(readnl.charAt(0), e);
+            consumed[0] = (pos < 0 ? len : pos) - start;
+            return -1;
+        }
+    }
+
+    /**
+     * Encodes {@code text} in Java, returns {@code null} if the text cannot be encoded with the
+     * given charset and the Python encoder needs to be called to produce the right error.
+     */
+    @TruffleBoundary
+    static byte[] encodeFast(Charset charset, String text) {
+        CharsetEncoder encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPORT).onUnmappableCharacter(CodingErrorAction.REPORT);
+        try {
+            ByteBuffer buf = encoder.encode(CharBuffer.wrap(text));
+            byte[] bytes = new byte[buf.remaining()];
+            buf.get(bytes);
+            return bytes;
+        } catch (CharacterCodingException e) {
+            return null;
+        }
+    }
+
+    static Charset getFastEncoding(String codecName, String errors) {
+        if (!"strict".equals(errors)) {
+            return null;
+        }
+        switch (codecName) {
+            case "utf-8":
+                return StandardCharsets.UTF_8;
+            case "iso8859-1":
+            case "latin-1":
+                return StandardCharsets.ISO_8859_1;
+            case "ascii":
+                return StandardCharsets.US_ASCII;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Calls {@code decoder.decode(input, final)}, bypassing the method call for our own
+     * {@link PNLDecoder}.
+     */
+    abstract static class DecodeNode extends PNodeWithRaise {
+
+        public abstract String execute(VirtualFrame frame, Object decoder, Object input, boolean isFinal);
+
+        @Specialization
+        static String nlDecoder(VirtualFrame frame, PNLDecoder decoder, Object input, boolean isFinal,
+                        @Cached IncrementalNewlineDecoderBuiltins.DecodeNode decodeNode) {
+            return decodeNode.execute(frame, decoder, input, isFinal);
+        }
+
+        @Specialization(guards = "!isNLDecoder(decoder)", limit = "2")
+        String generic(VirtualFrame frame, Object decoder, Object input, boolean isFinal,
+                        @CachedLibrary("decoder") PythonObjectLibrary lib,
+                        @Cached CastToJavaStringNode toString) {
+            Object output = lib.lookupAndCallRegularMethod(decoder, frame, "decode", input, isFinal);
+            try {
+                return toString.execute(output);
+            } catch (CannotCastException e) {
+                throw raise(TypeError, DECODER_SHOULD_RETURN_A_STRING_RESULT_NOT_P, output);
+            }
+        }
+
+        static boolean isNLDecoder(Object decoder) {
+            return decoder instanceof PNLDecoder;
+        }
+    }
+
+    /**
+     * implementation of cpython/Modules/_io/textio.c:CHECK_CLOSED
+     */
+    abstract static class CheckClosedNode extends PNodeWithRaise {
+
+        public abstract void execute(VirtualFrame frame, PTextIO self);
+
+        @Specialization
+        void checkClosed(VirtualFrame frame, PTextIO self,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            Object closed = lib.lookupAttributeStrict(self.getBuffer(), frame, "closed");
+            if (lib.isTrue(closed, frame)) {
+                throw raise(ValueError, IO_CLOSED);
+            }
+        }
+    }
+
+    /**
+     * implementation of cpython/Modules/_io/textio.c:_textiowrapper_writeflush
+     */
+    abstract static class WriteFlushNode extends PNodeWithRaise {
+
+        public abstract void execute(VirtualFrame frame, PTextIO self);
+
+        @Specialization(guards = "!self.hasPendingBytes()")
+        static void nothingToFlush(@SuppressWarnings("unused") PTextIO self) {
+        }
+
+        @Specialization(guards = "self.hasPendingBytes()")
+        static void writeflush(VirtualFrame frame, PTextIO self,
+                        @Cached PythonObjectFactory factory,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            PBytes bytes = factory.createBytes(self.takePendingBytes());
+            lib.lookupAndCallRegularMethod(self.getBuffer(), frame, "write", bytes);
+        }
+    }
+
+    /**
+     * Writes pending bytes and flushes the buffer; the body of {@code TextIOWrapper.flush}.
+     */
+    abstract static class FlushNode extends PNodeWithRaise {
+
+        public abstract void execute(VirtualFrame frame, PTextIO self);
+
+        @Specialization
+        static void flush(VirtualFrame frame, PTextIO self,
+                        @Cached CheckClosedNode checkClosedNode,
+                        @Cached WriteFlushNode writeFlushNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            checkClosedNode.execute(frame, self);
+            self.setTelling(self.isSeekable());
+            writeFlushNode.execute(frame, self);
+            lib.lookupAndCallRegularMethod(self.getBuffer(), frame, "flush");
+        }
+    }
+
+    /**
+     * Returns the dec_buffer (as bytes) and dec_flags of {@code decoder.getstate()}.
+     */
+    abstract static class DecoderGetStateNode extends PNodeWithRaise {
+
+        public abstract Object[] execute(VirtualFrame frame, Object decoder);
+
+        @Specialization
+        Object[] getstate(VirtualFrame frame, Object decoder,
+                        @Cached GetObjectArrayNode getObjectArrayNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            Object state = lib.lookupAndCallRegularMethod(decoder, frame, "getstate");
+            if (!(state instanceof PTuple)) {
+                throw raise(TypeError, ILLEGAL_DECODER_STATE);
+            }
+            Object[] items = getObjectArrayNode.execute(state);
+            if (items.length != 2) {
+                throw raise(TypeError, ILLEGAL_DECODER_STATE);
+            }
+            if (!(items[0] instanceof PBytes)) {
+                throw raise(TypeError, ILLEGAL_DECODER_STATE_THE_FIRST_ITEM_SHOULD_BE_A_BYTES_OBJECT_NOT_P, items[0]);
+            }
+            return new Object[]{items[0], lib.asSizeWithFrame(items[1], null, frame)};
+        }
+    }
+
+    /**
+     * implementation of cpython/Modules/_io/textio.c:_textiowrapper_decoder_setstate
+     */
+    abstract static class DecoderSetStateNode extends PNodeWithRaise {
+
+        public abstract void execute(VirtualFrame frame, PTextIO self, Cookie cookie);
+
+        @Specialization
+        static void setstate(VirtualFrame frame, PTextIO self, Cookie cookie,
+                        @Cached PythonObjectFactory factory,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            /*
+             * When seeking to the start of the stream, we call decoder.reset() rather than
+             * decoder.getstate(). This is for a few decoders such as utf-16 for which the state is
+             * different at the start and at the beginning of the stream.
+             */
+            if (cookie.startPos == 0 && cookie.decFlags == 0) {
+                lib.lookupAndCallRegularMethod(self.getDecoder(), frame, "reset");
+            } else {
+                Object state = factory.createTuple(new Object[]{factory.createBytes(PythonUtils.EMPTY_BYTE_ARRAY), cookie.decFlags});
+                lib.lookupAndCallRegularMethod(self.getDecoder(), frame, "setstate", state);
+            }
+        }
+    }
+
+    /**
+     * implementation of cpython/Modules/_io/textio.c:_textiowrapper_encoder_reset
+     */
+    abstract static class EncoderResetNode extends PNodeWithRaise {
+
+        public abstract void execute(VirtualFrame frame, PTextIO self, boolean startOfStream);
+
+        @Specialization
+        static void reset(VirtualFrame frame, PTextIO self, boolean startOfStream,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            if (startOfStream) {
+                lib.lookupAndCallRegularMethod(self.getEncoder(), frame, "reset");
+                self.setEncodingStartOfStream(true);
+            } else {
+                lib.lookupAndCallRegularMethod(self.getEncoder(), frame, "setstate", 0);
+                self.setEncodingStartOfStream(false);
+            }
+        }
+    }
+
+    /**
+     * implementation of cpython/Modules/_io/textio.c:textiowrapper_read_chunk. Returns
+     * {@code false} on EOF.
+     */
+    abstract static class ReadChunkNode extends PNodeWithRaise {
+
+        public abstract boolean execute(VirtualFrame frame, PTextIO self, int sizeHint);
+
+        @Specialization
+        boolean readChunk(VirtualFrame frame, PTextIO self, int sizeHint,
+                        @Cached DecoderGetStateNode getStateNode,
+                        @Cached DecodeNode decodeNode,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            /*
+             * The return value is True unless EOF was reached. The decoded string is placed in
+             * self._decoded_chars (replacing its previous value). The entire input chunk is sent
+             * to the decoder, though some of it may remain buffered in the decoder, yet to be
+             * converted.
+             */
+            if (!self.hasDecoder()) {
+                throw getRaiseNode().raise(IOModuleBuiltins.getUnsupportedOperation(PythonLanguage.getCore()), NOT_READABLE);
+            }
+            byte[] decBuffer = null;
+            int decFlags = 0;
+            if (self.isTelling()) {
+                /*
+                 * To prepare for tell(), we need to snapshot a point in the file where the
+                 * decoder's input buffer is empty.
+                 */
+                Object[] state = getStateNode.execute(frame, self.getDecoder());
+                decBuffer = toBytes(lib, state[0]);
+                decFlags = (int) state[1];
+            }
+
+            /* Read a chunk, decode it, and put the result in self._decoded_chars. */
+            int chunkSize = self.getChunkSize();
+            if (sizeHint > 0) {
+                int hint = (int) (Math.max(self.getB2cratio(), 1.0) * sizeHint);
+                chunkSize = Math.max(chunkSize, hint);
+            }
+            String method = self.hasRead1() ? "read1" : "read";
+            Object inputChunk = lib.lookupAndCallRegularMethod(self.getBuffer(), frame, method, chunkSize);
+            if (!lib.isBuffer(inputChunk)) {
+                throw raise(TypeError, UNDERLYING_S_SHOULD_HAVE_RETURNED_A_BYTES_LIKE_OBJECT_NOT_P, method, inputChunk);
+            }
+            byte[] input = toBytes(lib, inputChunk);
+            int nbytes = input.length;
+            boolean eof = nbytes == 0;
+
+            String decodedChars = decodeNode.execute(frame, self.getDecoder(), inputChunk, eof);
+            int nchars = codePointCount(decodedChars);
+            if (nchars > 0) {
+                self.setB2cratio((double) nbytes / nchars);
+                eof = false;
+            } else {
+                self.setB2cratio(0.0);
+            }
+            self.setDecodedChars(decodedChars);
+
+            if (self.isTelling()) {
+                /*
+                 * At the snapshot point, len(dec_buffer) bytes before the read, the next input to
+                 * be decoded is dec_buffer + input_chunk.
+                 */
+                byte[] nextInput = new byte[decBuffer.length + nbytes];
+                PythonUtils.arraycopy(decBuffer, 0, nextInput, 0, decBuffer.length);
+                PythonUtils.arraycopy(input, 0, nextInput, decBuffer.length, nbytes);
+                self.setSnapshot(decFlags, nextInput);
+            }
+            return !eof;
+        }
+
+        private static byte[] toBytes(PythonObjectLibrary lib, Object obj) {
+            try {
+                return lib.getBufferBytes(obj);
+            } catch (UnsupportedMessageException e) {
+                throw CompilerDirectives.shouldNotReachHere(e);
+            }
+        }
+    }
+
+    /**
+     * implementation of cpython/Modules/_io/textio.c:_textiowrapper_readline, {@code limit} is a
+     * number of code points or negative for no limit.
+     */
+    abstract static class ReadlineNode extends PNodeWithRaise {
+
+        public abstract String execute(VirtualFrame frame, PTextIO self, int limit);
+
+        @Specialization
+        static String readline(VirtualFrame frame, PTextIO self, int limit,
+                        @Cached CheckClosedNode checkClosedNode,
+                        @Cached WriteFlushNode writeFlushNode,
+                        @Cached ReadChunkNode readChunkNode) {
+            checkClosedNode.execute(frame, self);
+            /* Flush pending writes so that the underlying buffer is in a consistent state */
+            writeFlushNode.execute(frame, self);
+
+            StringBuilder chunks = null;
+            int chunked = 0;
+            String line = null;
+            String remaining = null;
+            int start = 0;
+            int endpos = 0;
+            int offsetToBuffer = 0;
+            int[] consumed = new int[1];
+            while (true) {
+                /* First, get some data if necessary */
+                boolean res = true;
+                while (!self.hasDecodedChars() || self.getDecodedChars().isEmpty()) {
+                    res = readChunkNode.execute(frame, self, 0);
+                    if (!res) {
+                        break;
+                    }
+                }
+                if (!res) {
+                    /* end of file */
+                    self.clearDecodedChars();
+                    self.clearSnapshot();
+                    start = endpos = offsetToBuffer = 0;
+                    break;
+                }
+
+                if (remaining == null) {
+                    line = self.getDecodedChars();
+                    start = self.getDecodedCharsUsed();
+                    offsetToBuffer = 0;
+                } else {
+                    line = concat(remaining, self.getDecodedChars());
+                    start = 0;
+                    offsetToBuffer = remaining.length();
+                    remaining = null;
+                }
+
+                int pos = findLineEnding(line, start, self.isReadtranslate(), self.isReaduniversal(), self.getReadnl(), consumed);
+                if (pos >= 0) {
+                    endpos = start + pos;
+                    if (limit >= 0 && codePointCount(line, start, endpos) + chunked >= limit) {
+                        endpos = offsetByCodePoints(line, start, endpos, limit - chunked);
+                    }
+                    break;
+                }
+
+                /* We can put aside up to `endpos` */
+                endpos = consumed[0] + start;
+                int endposChars = codePointCount(line, start, endpos);
+                if (limit >= 0 && endposChars + chunked >= limit) {
+                    /* Didn't find line ending, but reached length limit */
+                    endpos = offsetByCodePoints(line, start, endpos, limit - chunked);
+                    break;
+                }
+
+                if (endpos > start) {
+                    /* No line ending seen yet - put aside current data */
+                    if (chunks == null) {
+                        chunks = PythonUtils.newStringBuilder();
+                    }
+                    PythonUtils.append(chunks, substring(line, start, endpos));
+                    chunked += endposChars;
+                }
+                /*
+                 * There may be some remaining bytes we'll have to prepend to the next chunk of data
+                 */
+                if (endpos < line.length()) {
+                    remaining = substring(line, endpos, line.length());
+                }
+                line = null;
+                /* We have consumed the buffer */
+                self.clearDecodedChars();
+            }
+
+            if (line != null) {
+                /* Our line ends in the current buffer */
+                self.setDecodedCharsUsed(endpos - offsetToBuffer);
+                if (start > 0 || endpos < line.length()) {
+                    line = substring(line, start, endpos);
+                }
+            }
+            if (remaining != null) {
+                if (chunks == null) {
+                    chunks = PythonUtils.newStringBuilder();
+                }
+                PythonUtils.append(chunks, remaining);
+            }
+            if (chunks != null) {
+                if (line != null) {
+                    PythonUtils.append(chunks, line);
+                }
+                return PythonUtils.sbToString(chunks);
+            }
+            return line != null ? line : "";
+        }
+    }
+
+    /**
+     * Looks up the codec of {@code encoding} and creates the incremental decoder and encoder
+     * according to the readability and writability of the buffer. Part of
+     * cpython/Modules/_io/textio.c:_io_TextIOWrapper___init___impl, also used by reconfigure.
+     */
+    abstract static class SetupCodecsNode extends PNodeWithRaise {
+
+        public abstract void execute(VirtualFrame frame, PTextIO self, String encoding, String errors);
+
+        @Specialization
+        void setup(VirtualFrame frame, PTextIO self, String encoding, String errors,
+                        @Cached CallNode callNode,
+                        @Cached CastToJavaStringNode toString,
+                        @Cached PythonObjectFactory factory,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            Object codecs = PythonLanguage.getCore().lookupBuiltinModule("_codecs");
+            Object codecInfo = callNode.execute(frame, lib.lookupAttributeStrict(codecs, frame, "lookup"), encoding);
+            Object isTextEncoding = lib.lookupAttribute(codecInfo, frame, "_is_text_encoding");
+            if (isTextEncoding != PNone.NO_VALUE && !lib.isTrue(isTextEncoding, frame)) {
+                throw raise(LookupError, IS_NOT_A_TEXT_ENCODING, encoding);
+            }
+
+            Object buffer = self.getBuffer();
+            self.setDecoder(null);
+            if (lib.isTrue(lib.lookupAndCallRegularMethod(buffer, frame, "readable"), frame)) {
+                Object decoder = callNode.execute(frame, lib.lookupAttributeStrict(codecInfo, frame, "incrementaldecoder"), errors);
+                if (self.isReaduniversal()) {
+                    PNLDecoder nlDecoder = factory.createNLDecoder();
+                    nlDecoder.setDecoder(decoder);
+                    nlDecoder.setTranslate(self.isReadtranslate());
+                    nlDecoder.setErrors(errors);
+                    nlDecoder.setOK(true);
+                    decoder = nlDecoder;
+                }
+                self.setDecoder(decoder);
+            }
+
+            self.setEncoder(null);
+            self.setFastEncoding(null);
+            if (lib.isTrue(lib.lookupAndCallRegularMethod(buffer, frame, "writable"), frame)) {
+                self.setEncoder(callNode.execute(frame, lib.lookupAttributeStrict(codecInfo, frame, "incrementalencoder"), errors));
+                Object name = lib.lookupAttribute(codecInfo, frame, "name");
+                try {
+                    self.setFastEncoding(getFastEncoding(toString.execute(name), errors));
+                } catch (CannotCastException e) {
+                    // no fast path for codecs without a proper name
+                }
+            }
+            self.setEncoding(encoding);
+            self.setErrors(errors);
+        }
+    }
+}
@@ -0,0 +1,370 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.json;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__CALL__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.formatting.FloatFormatter;
+import com.oracle.graal.python.runtime.formatting.InternalFormat.Spec;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PJsonEncoder)
+public final class JsonEncoderBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return JsonEncoderBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = __CALL__, minNumOfPositionalArgs = 3, parameterNames = {"$self", "obj", "_current_indent_level"})
+    @ArgumentClinic(name = "_current_indent_level", conversion = ClinicConversion.Index)
+    @GenerateNodeFactory
+    public abstract static class CallEncoderNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return JsonEncoderBuiltinsClinicProviders.CallEncoderNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object call(PJsonEncoder self, Object obj, @SuppressWarnings("unused") int indentLevel) {
+            // unlike the Python encoder, the whole document is returned as a single chunk
+            return factory().createTuple(new Object[]{encode(self, obj)});
+        }
+
+        @TruffleBoundary
+        private String encode(PJsonEncoder self, Object obj) {
+            Encoder encoder = new Encoder(getRaiseNode(), factory(), self);
+            encoder.encodeObject(obj);
+            return encoder.builder.toString();
+        }
+    }
+
+    /**
+     * A port of the encoder in CPython's {@code Modules/_json.c}, which appends to a single
+     * {@link StringBuilder} instead of collecting the chunks in a list.
+     */
+    private static final class Encoder {
+        private final PRaiseNode raiseNode;
+        private final PythonObjectFactory factory;
+        private final PJsonEncoder encoder;
+        /** The lists, dicts and defaults that are currently being encoded. */
+        private final IdentityHashMap<Object, Object> markers;
+        final StringBuilder builder = new StringBuilder();
+
+        Encoder(PRaiseNode raiseNode, PythonObjectFactory factory, PJsonEncoder encoder) {
+            this.raiseNode = raiseNode;
+            this.factory = factory;
+            this.encoder = encoder;
+            this.markers = encoder.getMarkers() != PNone.NONE ? new IdentityHashMap<>() : null;
+        }
+
+        void encodeObject(Object obj) {
+            if (obj == PNone.NONE) {
+                builder.append("null");
+            } else if (obj instanceof Boolean) {
+                builder.append((boolean) obj ? "true" : "false");
+            } else if (obj instanceof String) {
+                encodeString((String) obj);
+            } else if (obj instanceof PString) {
+                encodeString(((PString) obj).getValue());
+            } else if (obj instanceof Integer || obj instanceof Long || obj instanceof PInt) {
+                builder.append(obj.toString());
+            } else if (obj instanceof Double) {
+                encodeFloat((double) obj);
+            } else if (obj instanceof PFloat) {
+                encodeFloat(((PFloat) obj).getValue());
+            } else if (obj instanceof PList || obj instanceof PTuple) {
+                SequenceStorage storage = obj instanceof PList ? ((PList) obj).getSequenceStorage() : ((PTuple) obj).getSequenceStorage();
+                encodeList(obj, storage);
+            } else if (obj instanceof PDict) {
+                encodeDict((PDict) obj);
+            } else {
+                enterMarker(obj);
+                Object newObj = CallNode.getUncached().execute(encoder.getDefaultFn(), obj);
+                encodeObject(newObj);
+                exitMarker(obj);
+            }
+        }
+
+        private void enterMarker(Object obj) {
+            if (markers != null && markers.put(obj, obj) != null) {
+                throw raiseNode.raise(ValueError, ErrorMessages.CIRCULAR_REFERENCE_DETECTED);
+            }
+        }
+
+        private void exitMarker(Object obj) {
+            if (markers != null) {
+                markers.remove(obj);
+            }
+        }
+
+        private void encodeString(String s) {
+            switch (encoder.getFastEncode()) {
+                case ASCII:
+                    JsonModuleBuiltins.appendEscapedAscii(builder, s);
+                    break;
+                case UNICODE:
+                    JsonModuleBuiltins.appendEscapedUnicode(builder, s);
+                    break;
+                default:
+                    Object encoded = CallNode.getUncached().execute(encoder.getEncoder(), s);
+                    if (encoded instanceof String) {
+                        builder.append((String) encoded);
+                    } else if (encoded instanceof PString) {
+                        builder.append(((PString) encoded).getValue());
+                    } else {
+                        throw raiseNode.raise(TypeError, ErrorMessages.ENCODER_MUST_RETURN_STR, encoded);
+                    }
+            }
+        }
+
+        private void encodeFloat(double value) {
+            if (!Double.isFinite(value)) {
+                if (!encoder.isAllowNan()) {
+                    throw raiseNode.raise(ValueError, ErrorMessages.OUT_OF_RANGE_FLOAT_NOT_JSON_COMPLIANT);
+                }
+                builder.append(Double.isNaN(value) ? "NaN" : value > 0 ? "Infinity" : "-Infinity");
+            } else {
+                builder.append(floatRepr(value));
+            }
+        }
+
+        private String floatRepr(double value) {
+            Spec spec = new Spec(' ', '>', Spec.NONE, false, Spec.UNSPECIFIED, Spec.NONE, 0, 'r');
+            FloatFormatter f = new FloatFormatter(raiseNode, spec);
+            f.setMinFracDigits(1);
+            return f.format(value).getResult();
+        }
+
+        private void encodeList(Object list, SequenceStorage storage) {
+            int length = storage.length();
+            if (length == 0) {
+                builder.append("[]");
+                return;
+            }
+            enterMarker(list);
+            builder.append('[');
+            String separator = encoder.getItemSeparator();
+            if (storage instanceof IntSequenceStorage) {
+                int[] values = ((IntSequenceStorage) storage).getInternalIntArray();
+                for (int i = 0; i < length; i++) {
+                    if (i > 0) {
+                        builder.append(separator);
+                    }
+                    builder.append(values[i]);
+                }
+            } else if (storage instanceof LongSequenceStorage) {
+                long[] values = ((LongSequenceStorage) storage).getInternalLongArray();
+                for (int i = 0; i < length; i++) {
+                    if (i > 0) {
+                        builder.append(separator);
+                    }
+                    builder.append(values[i]);
+                }
+            } else if (storage instanceof DoubleSequenceStorage) {
+                double[] values = ((DoubleSequenceStorage) storage).getInternalDoubleArray();
+                for (int i = 0; i < length; i++) {
+                    if (i > 0) {
+                        builder.append(separator);
+                    }
+                    encodeFloat(values[i]);
+                }
+            } else {
+                for (int i = 0; i < length; i++) {
+                    if (i > 0) {
+                        builder.append(separator);
+                    }
+                    // the storage may change while calling back into Python
+                    encodeObject(storage.getItemNormalized(i));
+                }
+            }
+            builder.append(']');
+            exitMarker(list);
+        }
+
+        private void encodeDict(PDict dict) {
+            HashingStorage storage = dict.getDictStorage();
+            HashingStorageLibrary lib = HashingStorageLibrary.getUncached();
+            if (lib.length(storage) == 0) {
+                builder.append("{}");
+                return;
+            }
+            enterMarker(dict);
+            builder.append('{');
+            ArrayList<Object> keys = new ArrayList<>();
+            ArrayList<Object> values = new ArrayList<>();
+            boolean allStrings = true;
+            for (DictEntry entry : lib.entries(storage)) {
+                keys.add(entry.getKey());
+                values.add(entry.getValue());
+                allStrings &= entry.getKey() instanceof String;
+            }
+            if (encoder.isSortKeys()) {
+                sortItems(keys, values, allStrings);
+            }
+            boolean first = true;
+            for (int i = 0; i < keys.size(); i++) {
+                String key = keyToString(keys.get(i));
+                if (key == null) {
+                    continue;
+                }
+                if (!first) {
+                    builder.append(encoder.getItemSeparator());
+                }
+                first = false;
+                encodeString(key);
+                builder.append(encoder.getKeySeparator());
+                encodeObject(values.get(i));
+            }
+            builder.append('}');
+            exitMarker(dict);
+        }
+
+        private void sortItems(ArrayList<Object> keys, ArrayList<Object> values, boolean allStrings) {
+            int n = keys.size();
+            Object[] items = new Object[n];
+            for (int i = 0; i < n; i++) {
+                items[i] = factory.createTuple(new Object[]{keys.get(i), values.get(i)});
+            }
+            if (allStrings) {
+                // Python compares strings by code points, which is not the UTF-16 order of Java
+                Arrays.sort(items, (a, b) -> compareCodePoints((String) ((PTuple) a).getSequenceStorage().getItemNormalized(0),
+                                (String) ((PTuple) b).getSequenceStorage().getItemNormalized(0)));
+            } else {
+                PList list = factory.createList(items);
+                PythonObjectLibrary.getUncached().lookupAndCallRegularMethod(list, null, "sort");
+                items = new Object[n];
+                for (int i = 0; i < n; i++) {
+                    items[i] = list.getSequenceStorage().getItemNormalized(i);
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                SequenceStorage item = ((PTuple) items[i]).getSequenceStorage();
+                keys.set(i, item.getItemNormalized(0));
+                values.set(i, item.getItemNormalized(1));
+            }
+        }
+
+        private static int compareCodePoints(String a, String b) {
+            int n = Math.min(a.length(), b.length());
+            for (int i = 0; i < n; i++) {
+                char ca = a.charAt(i);
+                char cb = b.charAt(i);
+                if (ca != cb) {
+                    // surrogates encode code points above all other UTF-16 units
+                    boolean sa = Character.isSurrogate(ca);
+                    boolean sb = Character.isSurrogate(cb);
+                    if (sa != sb) {
+                        return sa ? 1 : -1;
+                    }
+                    return ca - cb;
+                }
+            }
+            return a.length() - b.length();
+        }
+
+        /**
+         * Converts a dict key to its JSON string, or returns {@code null} if the key is skipped.
+         */
+        private String keyToString(Object key) {
+            if (key instanceof String) {
+                return (String) key;
+            } else if (key instanceof PString) {
+                return ((PString) key).getValue();
+            } else if (key instanceof Double || key instanceof PFloat) {
+                double value = key instanceof Double ? (double) key : ((PFloat) key).getValue();
+                int start = builder.length();
+                encodeFloat(value);
+                String result = builder.substring(start);
+                builder.setLength(start);
+                return result;
+            } else if (key instanceof Boolean) {
+                return (boolean) key ? "true" : "false";
+            } else if (key == PNone.NONE) {
+                return "null";
+            } else if (key instanceof Integer || key instanceof Long || key instanceof PInt) {
+                return key.toString();
+            } else if (encoder.isSkipKeys()) {
+                return null;
+            }
+            throw raiseNode.raise(TypeError, ErrorMessages.KEYS_MUST_BE_STR_INT_ETC, key);
+        }
+    }
+}
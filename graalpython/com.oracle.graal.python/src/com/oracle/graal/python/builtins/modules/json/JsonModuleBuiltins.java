@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.json;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.json.JsonScannerBuiltins.Parser;
+import com.oracle.graal.python.builtins.modules.json.PJsonEncoder.FastEncode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.function.PBuiltinFunction;
+import com.oracle.graal.python.builtins.objects.method.PBuiltinMethod;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.type.TypeNodes.IsSameTypeNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(defineModule = "_json")
+public final class JsonModuleBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return JsonModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void postInitialize(PythonCore core) {
+        super.postInitialize(core);
+        // CPython exposes the scanner and encoder types under the names of their constructors
+        PythonModule jsonModule = core.lookupBuiltinModule("_json");
+        jsonModule.setAttribute("make_scanner", core.lookupType(PythonBuiltinClassType.PJsonScanner));
+        jsonModule.setAttribute("make_encoder", core.lookupType(PythonBuiltinClassType.PJsonEncoder));
+    }
+
+    // scanstring(string, end, strict=True)
+    @Builtin(name = "scanstring", minNumOfPositionalArgs = 2, parameterNames = {"string", "end", "strict"})
+    @ArgumentClinic(name = "end", conversion = ClinicConversion.Index)
+    @ArgumentClinic(name = "strict", conversion = ClinicConversion.Boolean, defaultValue = "true")
+    @GenerateNodeFactory
+    abstract static class ScanStringNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return JsonModuleBuiltinsClinicProviders.ScanStringNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object scanString(Object string, int end, boolean strict,
+                        @Cached CastToJavaStringNode castToJavaStringNode) {
+            String s;
+            try {
+                s = castToJavaStringNode.execute(string);
+            } catch (CannotCastException e) {
+                throw raise(TypeError, ErrorMessages.FIRST_ARG_MUST_BE_STRING_NOT_P, string);
+            }
+            if (end < 0) {
+                throw raise(ValueError, ErrorMessages.END_IS_OUT_OF_BOUNDS);
+            }
+            return scan(s, end, strict);
+        }
+
+        @TruffleBoundary
+        private Object scan(String s, int end, boolean strict) {
+            Parser parser = new Parser(this, factory(), null, s, strict);
+            String result = parser.scanString(parser.toCharIndex(end));
+            return factory().createTuple(new Object[]{result, parser.toCodePointIndex(parser.nextIdx)});
+        }
+    }
+
+    abstract static class EncodeBasestringBaseNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        Object encode(Object string,
+                        @Cached CastToJavaStringNode castToJavaStringNode) {
+            try {
+                return escape(castToJavaStringNode.execute(string));
+            } catch (CannotCastException e) {
+                throw raise(TypeError, ErrorMessages.FIRST_ARG_MUST_BE_STRING_NOT_P, string);
+            }
+        }
+
+        protected abstract String escape(String s);
+    }
+
+    // encode_basestring_ascii(string)
+    @Builtin(name = "encode_basestring_ascii", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class EncodeBasestringAsciiNode extends EncodeBasestringBaseNode {
+
+        @Override
+        @TruffleBoundary
+        protected String escape(String s) {
+            StringBuilder builder = new StringBuilder(s.length() + 2);
+            appendEscapedAscii(builder, s);
+            return builder.toString();
+        }
+    }
+
+    // encode_basestring(string)
+    @Builtin(name = "encode_basestring", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class EncodeBasestringNode extends EncodeBasestringBaseNode {
+
+        @Override
+        @TruffleBoundary
+        protected String escape(String s) {
+            StringBuilder builder = new StringBuilder(s.length() + 2);
+            appendEscapedUnicode(builder, s);
+            return builder.toString();
+        }
+    }
+
+    // make_scanner(context)
+    @Builtin(name = "make_scanner", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "context"}, constructsClass = PythonBuiltinClassType.PJsonScanner)
+    @GenerateNodeFactory
+    public abstract static class MakeScannerNode extends PythonBinaryBuiltinNode {
+
+        @Specialization(limit = "3")
+        Object makeScanner(VirtualFrame frame, Object cls, Object context,
+                        @CachedLibrary("context") PythonObjectLibrary lib,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary strictLib,
+                        @Cached IsSameTypeNode isSameTypeNode) {
+            boolean strict = strictLib.isTrue(lib.lookupAttributeStrict(context, frame, "strict"), frame);
+            Object objectHook = lib.lookupAttributeStrict(context, frame, "object_hook");
+            Object objectPairsHook = lib.lookupAttributeStrict(context, frame, "object_pairs_hook");
+            Object parseFloat = lib.lookupAttributeStrict(context, frame, "parse_float");
+            Object parseInt = lib.lookupAttributeStrict(context, frame, "parse_int");
+            Object parseConstant = lib.lookupAttributeStrict(context, frame, "parse_constant");
+            boolean parseFloatIsFloat = isSameTypeNode.execute(parseFloat, PythonBuiltinClassType.PFloat);
+            boolean parseIntIsInt = isSameTypeNode.execute(parseInt, PythonBuiltinClassType.PInt);
+            return factory().createJsonScanner(cls, strict, objectHook, objectPairsHook, parseFloat, parseInt, parseConstant, parseFloatIsFloat, parseIntIsInt);
+        }
+    }
+
+    // make_encoder(markers, default, encoder, indent, key_separator, item_separator, sort_keys,
+    // skipkeys, allow_nan)
+    @Builtin(name = "make_encoder", minNumOfPositionalArgs = 10, parameterNames = {"$cls", "markers", "default", "encoder", "indent", "key_separator", "item_separator", "sort_keys", "skipkeys",
+                    "allow_nan"}, constructsClass = PythonBuiltinClassType.PJsonEncoder)
+    @ArgumentClinic(name = "key_separator", conversion = ClinicConversion.String)
+    @ArgumentClinic(name = "item_separator", conversion = ClinicConversion.String)
+    @ArgumentClinic(name = "sort_keys", conversion = ClinicConversion.Boolean)
+    @ArgumentClinic(name = "skipkeys", conversion = ClinicConversion.Boolean)
+    @ArgumentClinic(name = "allow_nan", conversion = ClinicConversion.Boolean)
+    @GenerateNodeFactory
+    public abstract static class MakeEncoderNode extends PythonClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return JsonModuleBuiltinsClinicProviders.MakeEncoderNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object makeEncoder(Object cls, Object markers, Object defaultFn, Object encoder, Object indent, String keySeparator, String itemSeparator, boolean sortKeys, boolean skipKeys,
+                        boolean allowNan) {
+            if (markers != PNone.NONE && !(markers instanceof PDict)) {
+                throw raise(TypeError, ErrorMessages.MAKE_ENCODER_ARG_1_MUST_BE_DICT, markers);
+            }
+            return factory().createJsonEncoder(cls, markers, defaultFn, encoder, indent, keySeparator, itemSeparator, sortKeys, skipKeys, allowNan, getFastEncode(encoder));
+        }
+
+        /**
+         * Detects our own string encoders, which the encoder object can run without a call.
+         */
+        private static FastEncode getFastEncode(Object encoder) {
+            PBuiltinFunction function = null;
+            if (encoder instanceof PBuiltinMethod) {
+                function = ((PBuiltinMethod) encoder).getFunction();
+            } else if (encoder instanceof PBuiltinFunction) {
+                function = (PBuiltinFunction) encoder;
+            }
+            if (function != null) {
+                Class<?> nodeClass = function.getNodeClass();
+                if (nodeClass == EncodeBasestringAsciiNode.class) {
+                    return FastEncode.ASCII;
+                } else if (nodeClass == EncodeBasestringNode.class) {
+                    return FastEncode.UNICODE;
+                }
+            }
+            return FastEncode.NONE;
+        }
+    }
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static void appendUnicodeEscape(StringBuilder builder, char c) {
+        builder.append("\\u");
+        builder.append(HEX_DIGITS[(c >> 12) & 0xf]);
+        builder.append(HEX_DIGITS[(c >> 8) & 0xf]);
+        builder.append(HEX_DIGITS[(c >> 4) & 0xf]);
+        builder.append(HEX_DIGITS[c & 0xf]);
+    }
+
+    private static boolean appendShortEscape(StringBuilder builder, char c) {
+        switch (c) {
+            case '\\':
+                builder.append("\\\\");
+                return true;
+            case '"':
+                builder.append("\\\"");
+                return true;
+            case '\b':
+                builder.append("\\b");
+                return true;
+            case '\f':
+                builder.append("\\f");
+                return true;
+            case '\n':
+                builder.append("\\n");
+                return true;
+            case '\r':
+                builder.append("\\r");
+                return true;
+            case '\t':
+                builder.append("\\t");
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Appends the quoted JSON string of {@code s}, escaping all characters outside of printable
+     * ASCII. Characters outside the BMP are escaped as surrogate pairs, which are the UTF-16 units
+     * of the Java string.
+     */
+    static void appendEscapedAscii(StringBuilder builder, String s) {
+        builder.append('"');
+        int start = 0;
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= ' ' && c <= '~' && c != '\\' && c != '"') {
+                continue;
+            }
+            builder.append(s, start, i);
+            start = i + 1;
+            if (!appendShortEscape(builder, c)) {
+                appendUnicodeEscape(builder, c);
+            }
+        }
+        builder.append(s, start, length);
+        builder.append('"');
+    }
+
+    /**
+     * Appends the quoted JSON string of {@code s}, escaping only quotes, backslashes and control
+     * characters.
+     */
+    static void appendEscapedUnicode(StringBuilder builder, String s) {
+        builder.append('"');
+        int start = 0;
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= ' ' && c != '\\' && c != '"') {
+                continue;
+            }
+            builder.append(s, start, i);
+            start = i + 1;
+            if (!appendShortEscape(builder, c)) {
+                appendUnicodeEscape(builder, c);
+            }
+        }
+        builder.append(s, start, length);
+        builder.append('"');
+    }
+}
@@ -0,0 +1,599 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.json;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.StopIteration;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__CALL__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.exception.PBaseException;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.statement.AbstractImportNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.PythonOptions;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PJsonScanner)
+public final class JsonScannerBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return JsonScannerBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = __CALL__, minNumOfPositionalArgs = 3, parameterNames = {"$self", "string", "idx"})
+    @ArgumentClinic(name = "idx", conversion = ClinicConversion.Index)
+    @GenerateNodeFactory
+    public abstract static class CallScannerNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return JsonScannerBuiltinsClinicProviders.CallScannerNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object call(PJsonScanner self, Object string, int idx,
+                        @Cached CastToJavaStringNode castToJavaStringNode) {
+            String s;
+            try {
+                s = castToJavaStringNode.execute(string);
+            } catch (CannotCastException e) {
+                throw raise(TypeError, ErrorMessages.FIRST_ARG_MUST_BE_STRING_NOT_P, string);
+            }
+            if (idx < 0) {
+                throw raise(ValueError, ErrorMessages.IDX_CANNOT_BE_NEGATIVE);
+            }
+            return scanOnce(self, s, idx);
+        }
+
+        @TruffleBoundary
+        private Object scanOnce(PJsonScanner self, String s, int idx) {
+            Parser parser = new Parser(this, factory(), self, s, self.isStrict());
+            Object value = parser.scanOnce(parser.toCharIndex(idx));
+            return factory().createTuple(new Object[]{value, parser.toCodePointIndex(parser.nextIdx)});
+        }
+    }
+
+    /**
+     * A port of the scanner in CPython's {@code Modules/_json.c}. It works on the UTF-16 indices of
+     * the Java string and only converts the indices from and to code point indices at the
+     * boundaries. Objects and arrays are built directly, without calling back into
+     * {@code json.decoder}.
+     */
+    static final class Parser {
+        private final PythonBuiltinBaseNode node;
+        private final PythonObjectFactory factory;
+        private final PJsonScanner scanner;
+        private final String s;
+        private final int length;
+        private final boolean strict;
+        private final boolean bmpOnly;
+        /** Interns the keys of the objects of one document. */
+        private final HashMap<String, String> memo = new HashMap<>();
+        /** The index after the last value that has been scanned. */
+        int nextIdx;
+
+        Parser(PythonBuiltinBaseNode node, PythonObjectFactory factory, PJsonScanner scanner, String s, boolean strict) {
+            this.node = node;
+            this.factory = factory;
+            this.scanner = scanner;
+            this.s = s;
+            this.length = s.length();
+            this.strict = strict;
+            this.bmpOnly = s.codePointCount(0, length) == length;
+        }
+
+        int toCharIndex(int codePointIndex) {
+            if (bmpOnly) {
+                return codePointIndex;
+            }
+            int codePointCount = s.codePointCount(0, length);
+            if (codePointIndex >= codePointCount) {
+                return length + codePointIndex - codePointCount;
+            }
+            return s.offsetByCodePoints(0, codePointIndex);
+        }
+
+        int toCodePointIndex(int charIndex) {
+            return bmpOnly ? charIndex : s.codePointCount(0, Math.min(charIndex, length)) + Math.max(charIndex - length, 0);
+        }
+
+        Object scanOnce(int idx) {
+            if (idx >= length) {
+                throw node.raise(StopIteration, toCodePointIndex(idx));
+            }
+            switch (s.charAt(idx)) {
+                case '"':
+                    return scanString(idx + 1);
+                case '{':
+                    return parseObject(idx + 1);
+                case '[':
+                    return parseArray(idx + 1);
+                case 'n':
+                    if (s.startsWith("null", idx)) {
+                        nextIdx = idx + 4;
+                        return PNone.NONE;
+                    }
+                    break;
+                case 't':
+                    if (s.startsWith("true", idx)) {
+                        nextIdx = idx + 4;
+                        return true;
+                    }
+                    break;
+                case 'f':
+                    if (s.startsWith("false", idx)) {
+                        nextIdx = idx + 5;
+                        return false;
+                    }
+                    break;
+                case 'N':
+                    if (s.startsWith("NaN", idx)) {
+                        return parseConstant("NaN", idx);
+                    }
+                    break;
+                case 'I':
+                    if (s.startsWith("Infinity", idx)) {
+                        return parseConstant("Infinity", idx);
+                    }
+                    break;
+                case '-':
+                    if (s.startsWith("-Infinity", idx)) {
+                        return parseConstant("-Infinity", idx);
+                    }
+                    break;
+            }
+            return matchNumber(idx);
+        }
+
+        private Object parseConstant(String constant, int idx) {
+            nextIdx = idx + constant.length();
+            return CallNode.getUncached().execute(scanner.getParseConstant(), constant);
+        }
+
+        private int skipWhitespace(int start) {
+            int idx = start;
+            while (idx < length) {
+                char c = s.charAt(idx);
+                if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                    break;
+                }
+                idx++;
+            }
+            return idx;
+        }
+
+        private Object parseObject(int start) {
+            boolean hasPairsHook = scanner.getObjectPairsHook() != PNone.NONE;
+            HashingStorageLibrary lib = HashingStorageLibrary.getUncached();
+            HashingStorage storage = hasPairsHook ? null : EconomicMapStorage.create();
+            ArrayList<Object> pairs = hasPairsHook ? new ArrayList<>() : null;
+            int idx = skipWhitespace(start);
+            if (idx >= length || s.charAt(idx) != '}') {
+                while (true) {
+                    if (idx >= length || s.charAt(idx) != '"') {
+                        throw decodeError(ErrorMessages.EXPECTING_PROPERTY_NAME, idx);
+                    }
+                    String key = scanString(idx + 1);
+                    String memoKey = memo.putIfAbsent(key, key);
+                    if (memoKey != null) {
+                        key = memoKey;
+                    }
+                    idx = skipWhitespace(nextIdx);
+                    if (idx >= length || s.charAt(idx) != ':') {
+                        throw decodeError(ErrorMessages.EXPECTING_COLON_DELIMITER, idx);
+                    }
+                    idx = skipWhitespace(idx + 1);
+                    Object value = scanOnce(idx);
+                    if (hasPairsHook) {
+                        pairs.add(factory.createTuple(new Object[]{key, value}));
+                    } else {
+                        storage = lib.setItem(storage, key, value);
+                    }
+                    idx = skipWhitespace(nextIdx);
+                    if (idx < length && s.charAt(idx) == '}') {
+                        break;
+                    }
+                    if (idx >= length || s.charAt(idx) != ',') {
+                        throw decodeError(ErrorMessages.EXPECTING_COMMA_DELIMITER, idx);
+                    }
+                    idx = skipWhitespace(idx + 1);
+                }
+            }
+            nextIdx = idx + 1;
+            if (hasPairsHook) {
+                return CallNode.getUncached().execute(scanner.getObjectPairsHook(), factory.createList(pairs.toArray()));
+            }
+            PDict dict = factory.createDict(storage);
+            if (scanner.getObjectHook() != PNone.NONE) {
+                return CallNode.getUncached().execute(scanner.getObjectHook(), dict);
+            }
+            return dict;
+        }
+
+        private Object parseArray(int start) {
+            ListBuilder items = new ListBuilder();
+            int idx = skipWhitespace(start);
+            if (idx >= length || s.charAt(idx) != ']') {
+                while (true) {
+                    items.add(scanOnce(idx));
+                    idx = skipWhitespace(nextIdx);
+                    if (idx < length && s.charAt(idx) == ']') {
+                        break;
+                    }
+                    if (idx >= length || s.charAt(idx) != ',') {
+                        throw decodeError(ErrorMessages.EXPECTING_COMMA_DELIMITER, idx);
+                    }
+                    idx = skipWhitespace(idx + 1);
+                }
+            }
+            nextIdx = idx + 1;
+            return factory.createList(items.build());
+        }
+
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+
+        private Object matchNumber(int start) {
+            int idx = start;
+            if (s.charAt(idx) == '-') {
+                idx++;
+                if (idx >= length) {
+                    throw node.raise(StopIteration, toCodePointIndex(start));
+                }
+            }
+            char c = s.charAt(idx);
+            if (c >= '1' && c <= '9') {
+                idx++;
+                while (idx < length && isDigit(s.charAt(idx))) {
+                    idx++;
+                }
+            } else if (c == '0') {
+                idx++;
+            } else {
+                throw node.raise(StopIteration, toCodePointIndex(start));
+            }
+            boolean isFloat = false;
+            if (idx < length - 1 && s.charAt(idx) == '.' && isDigit(s.charAt(idx + 1))) {
+                isFloat = true;
+                idx += 2;
+                while (idx < length && isDigit(s.charAt(idx))) {
+                    idx++;
+                }
+            }
+            if (idx < length - 1 && (s.charAt(idx) == 'e' || s.charAt(idx) == 'E')) {
+                int expStart = idx;
+                idx++;
+                if (idx < length - 1 && (s.charAt(idx) == '-' || s.charAt(idx) == '+')) {
+                    idx++;
+                }
+                while (idx < length && isDigit(s.charAt(idx))) {
+                    idx++;
+                }
+                if (isDigit(s.charAt(idx - 1))) {
+                    isFloat = true;
+                } else {
+                    idx = expStart;
+                }
+            }
+            nextIdx = idx;
+            if (isFloat) {
+                if (scanner.isParseFloatFloat()) {
+                    return Double.parseDouble(s.substring(start, idx));
+                }
+                return CallNode.getUncached().execute(scanner.getParseFloat(), s.substring(start, idx));
+            } else {
+                if (scanner.isParseIntInt()) {
+                    return parseInt(start, idx);
+                }
+                return CallNode.getUncached().execute(scanner.getParseInt(), s.substring(start, idx));
+            }
+        }
+
+        private Object parseInt(int start, int end) {
+            boolean negative = s.charAt(start) == '-';
+            int idx = negative ? start + 1 : start;
+            if (end - idx > 18) {
+                return factory.createInt(new BigInteger(s.substring(start, end)));
+            }
+            long value = 0;
+            for (; idx < end; idx++) {
+                value = value * 10 + (s.charAt(idx) - '0');
+            }
+            if (negative) {
+                value = -value;
+            }
+            if (value == (int) value) {
+                return (int) value;
+            }
+            return value;
+        }
+
+        /**
+         * Scans the rest of a JSON string. {@code end} is the index after the opening quote.
+         */
+        String scanString(int end) {
+            if (end < 0 || end > length) {
+                throw node.raise(ValueError, ErrorMessages.END_IS_OUT_OF_BOUNDS);
+            }
+            int begin = end - 1;
+            StringBuilder builder = null;
+            while (true) {
+                char c = 0;
+                int next = end;
+                for (; next < length; next++) {
+                    c = s.charAt(next);
+                    if (c == '"' || c == '\\') {
+                        break;
+                    } else if (c <= 0x1f && strict) {
+                        throw decodeError(ErrorMessages.INVALID_CONTROL_CHARACTER_AT, next);
+                    }
+                }
+                if (next >= length) {
+                    throw decodeError(ErrorMessages.UNTERMINATED_STRING_STARTING_AT, begin);
+                }
+                if (c == '"' && builder == null) {
+                    // fast path for strings without escapes
+                    nextIdx = next + 1;
+                    return s.substring(end, next);
+                }
+                if (builder == null) {
+                    builder = new StringBuilder();
+                }
+                builder.append(s, end, next);
+                next++;
+                if (c == '"') {
+                    end = next;
+                    break;
+                }
+                if (next == length) {
+                    throw decodeError(ErrorMessages.UNTERMINATED_STRING_STARTING_AT, begin);
+                }
+                c = s.charAt(next);
+                if (c != 'u') {
+                    end = next + 1;
+                    switch (c) {
+                        case '"':
+                        case '\\':
+                        case '/':
+                            break;
+                        case 'b':
+                            c = '\b';
+                            break;
+                        case 'f':
+                            c = '\f';
+                            break;
+                        case 'n':
+                            c = '\n';
+                            break;
+                        case 'r':
+                            c = '\r';
+                            break;
+                        case 't':
+                            c = '\t';
+                            break;
+                        default:
+                            throw decodeError(ErrorMessages.INVALID_ESCAPE, end - 2);
+                    }
+                    builder.append(c);
+                } else {
+                    next++;
+                    end = next + 4;
+                    if (end >= length) {
+                        throw decodeError(ErrorMessages.INVALID_UXXXX_ESCAPE, next - 1);
+                    }
+                    char uni = decodeHex(next, end);
+                    if (Character.isHighSurrogate(uni) && end + 6 < length && s.charAt(end) == '\\' && s.charAt(end + 1) == 'u') {
+                        char uni2 = decodeHex(end + 2, end + 6);
+                        if (Character.isLowSurrogate(uni2)) {
+                            builder.append(uni);
+                            uni = uni2;
+                            end += 6;
+                        }
+                    }
+                    builder.append(uni);
+                }
+            }
+            nextIdx = end;
+            return builder.toString();
+        }
+
+        private char decodeHex(int start, int end) {
+            int value = 0;
+            for (int i = start; i < end; i++) {
+                char c = s.charAt(i);
+                int digit;
+                if (c >= '0' && c <= '9') {
+                    digit = c - '0';
+                } else if (c >= 'a' && c <= 'f') {
+                    digit = c - 'a' + 10;
+                } else if (c >= 'A' && c <= 'F') {
+                    digit = c - 'A' + 10;
+                } else {
+                    throw decodeError(ErrorMessages.INVALID_UXXXX_ESCAPE, end - 5);
+                }
+                value = (value << 4) | digit;
+            }
+            return (char) value;
+        }
+
+        /**
+         * Raises a {@code json.decoder.JSONDecodeError}, which is defined in Python.
+         */
+        private PException decodeError(String msg, int idx) {
+            Object decoderModule = PythonObjectLibrary.getUncached().lookupAttributeStrict(AbstractImportNode.importModule("json.decoder"), null, "decoder");
+            Object errorType = PythonObjectLibrary.getUncached().lookupAttributeStrict(decoderModule, null, "JSONDecodeError");
+            Object error = CallNode.getUncached().execute(errorType, msg, s, toCodePointIndex(idx));
+            if (!(error instanceof PBaseException)) {
+                throw node.raise(TypeError, ErrorMessages.EXCEPTIONS_MUST_DERIVE_FROM_BASE_EX);
+            }
+            return PRaiseNode.raise(node, (PBaseException) error, PythonOptions.isPExceptionWithJavaStacktrace(PythonLanguage.getCurrent()));
+        }
+    }
+
+    /**
+     * Collects the items of a JSON array into the most specific storage: arrays of numbers that all
+     * fit into an {@code int}, a {@code long} or are all floats are stored unboxed.
+     */
+    private static final class ListBuilder {
+        private int[] ints;
+        private long[] longs;
+        private double[] doubles;
+        private Object[] objects;
+        private int size;
+
+        void add(Object value) {
+            if (size == 0) {
+                if (value instanceof Integer) {
+                    ints = new int[8];
+                } else if (value instanceof Long) {
+                    longs = new long[8];
+                } else if (value instanceof Double) {
+                    doubles = new double[8];
+                } else {
+                    objects = new Object[8];
+                }
+            }
+            if (ints != null) {
+                if (value instanceof Integer) {
+                    if (size == ints.length) {
+                        ints = Arrays.copyOf(ints, size * 2);
+                    }
+                    ints[size++] = (int) value;
+                    return;
+                } else if (value instanceof Long) {
+                    longs = new long[ints.length];
+                    for (int i = 0; i < size; i++) {
+                        longs[i] = ints[i];
+                    }
+                    ints = null;
+                } else {
+                    generalize();
+                }
+            }
+            if (longs != null) {
+                if (value instanceof Integer || value instanceof Long) {
+                    if (size == longs.length) {
+                        longs = Arrays.copyOf(longs, size * 2);
+                    }
+                    longs[size++] = ((Number) value).longValue();
+                    return;
+                }
+                generalize();
+            }
+            if (doubles != null) {
+                if (value instanceof Double) {
+                    if (size == doubles.length) {
+                        doubles = Arrays.copyOf(doubles, size * 2);
+                    }
+                    doubles[size++] = (double) value;
+                    return;
+                }
+                generalize();
+            }
+            if (size == objects.length) {
+                objects = Arrays.copyOf(objects, size * 2);
+            }
+            objects[size++] = value;
+        }
+
+        private void generalize() {
+            objects = new Object[Math.max(size * 2, 8)];
+            for (int i = 0; i < size; i++) {
+                objects[i] = ints != null ? (Object) ints[i] : longs != null ? (Object) longs[i] : (Object) doubles[i];
+            }
+            ints = null;
+            longs = null;
+            doubles = null;
+        }
+
+        SequenceStorage build() {
+            if (ints != null) {
+                return new IntSequenceStorage(ints, size);
+            } else if (longs != null) {
+                return new LongSequenceStorage(longs, size);
+            } else if (doubles != null) {
+                return new DoubleSequenceStorage(doubles, size);
+            } else if (objects != null) {
+                return new ObjectSequenceStorage(objects, size);
+            }
+            return new ObjectSequenceStorage(0);
+        }
+    }
+}
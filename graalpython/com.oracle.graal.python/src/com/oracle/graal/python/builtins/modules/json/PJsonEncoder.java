@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.json;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * The {@code _json.Encoder} object created by {@code json.encoder.c_make_encoder}. Like in CPython,
+ * the {@code indent} is stored but not used, since {@code json} only uses this encoder without
+ * indentation.
+ */
+public final class PJsonEncoder extends PythonBuiltinObject {
+
+    /** A builtin string encoder that the encoder can run directly instead of calling it. */
+    public enum FastEncode {
+        NONE,
+        ASCII,
+        UNICODE
+    }
+
+    private final Object markers;
+    private final Object defaultFn;
+    private final Object encoder;
+    private final Object indent;
+    private final String keySeparator;
+    private final String itemSeparator;
+    private final boolean sortKeys;
+    private final boolean skipKeys;
+    private final boolean allowNan;
+    private final FastEncode fastEncode;
+
+    public PJsonEncoder(Object cls, Shape instanceShape, Object markers, Object defaultFn, Object encoder, Object indent, String keySeparator, String itemSeparator, boolean sortKeys,
+                    boolean skipKeys, boolean allowNan, FastEncode fastEncode) {
+        super(cls, instanceShape);
+        this.markers = markers;
+        this.defaultFn = defaultFn;
+        this.encoder = encoder;
+        this.indent = indent;
+        this.keySeparator = keySeparator;
+        this.itemSeparator = itemSeparator;
+        this.sortKeys = sortKeys;
+        this.skipKeys = skipKeys;
+        this.allowNan = allowNan;
+        this.fastEncode = fastEncode;
+    }
+
+    /**
+     * The dict of objects that are being encoded, or {@code None} if circular references are not
+     * checked.
+     */
+    public Object getMarkers() {
+        return markers;
+    }
+
+    public Object getDefaultFn() {
+        return defaultFn;
+    }
+
+    public Object getEncoder() {
+        return encoder;
+    }
+
+    public Object getIndent() {
+        return indent;
+    }
+
+    public String getKeySeparator() {
+        return keySeparator;
+    }
+
+    public String getItemSeparator() {
+        return itemSeparator;
+    }
+
+    public boolean isSortKeys() {
+        return sortKeys;
+    }
+
+    public boolean isSkipKeys() {
+        return skipKeys;
+    }
+
+    public boolean isAllowNan() {
+        return allowNan;
+    }
+
+    public FastEncode getFastEncode() {
+        return fastEncode;
+    }
+}
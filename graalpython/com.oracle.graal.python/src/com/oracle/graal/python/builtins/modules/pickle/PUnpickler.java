@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import java.util.Arrays;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * The {@code _pickle.Unpickler} object. The memo is a plain array indexed by the memo keys of the
+ * pickle stream and lives as long as the unpickler.
+ */
+public final class PUnpickler extends PythonBuiltinObject {
+    /** The input of {@code loads}, or {@code null} when reading from a file. */
+    private byte[] input;
+    private Object read;
+    private Object readline;
+    private String encoding;
+    private String errors;
+    /** An iterator over the out-of-band buffers or {@code null}. */
+    private Object buffers;
+    private boolean fixImports;
+    /** The protocol of the last loaded pickle, used for the name lookups of {@code find_class}. */
+    private int proto;
+    private Object persistentLoad;
+    private Object[] memo = new Object[32];
+    /** The number of memo entries, which is the index used by {@code MEMOIZE}. */
+    private int memoLen;
+    private boolean initialized;
+
+    public PUnpickler(Object cls, Shape instanceShape) {
+        super(cls, instanceShape);
+    }
+
+    public void init(byte[] newInput, Object newRead, Object newReadline, String newEncoding, String newErrors, Object newBuffers, boolean newFixImports) {
+        this.input = newInput;
+        this.read = newRead;
+        this.readline = newReadline;
+        this.encoding = newEncoding;
+        this.errors = newErrors;
+        this.buffers = newBuffers;
+        this.fixImports = newFixImports;
+        this.proto = 0;
+        this.persistentLoad = null;
+        this.memo = new Object[32];
+        this.memoLen = 0;
+        this.initialized = true;
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    public byte[] getInput() {
+        return input;
+    }
+
+    public Object getRead() {
+        return read;
+    }
+
+    public Object getReadline() {
+        return readline;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public String getErrors() {
+        return errors;
+    }
+
+    public Object getBuffers() {
+        return buffers;
+    }
+
+    public boolean isFixImports() {
+        return fixImports;
+    }
+
+    public int getProto() {
+        return proto;
+    }
+
+    public void setProto(int proto) {
+        this.proto = proto;
+    }
+
+    public Object getPersistentLoad() {
+        return persistentLoad;
+    }
+
+    public void setPersistentLoad(Object persistentLoad) {
+        this.persistentLoad = persistentLoad;
+    }
+
+    public Object[] getMemo() {
+        return memo;
+    }
+
+    public Object getMemo(int idx) {
+        return idx < memo.length ? memo[idx] : null;
+    }
+
+    public void putMemo(int idx, Object value) {
+        if (idx >= memo.length) {
+            memo = Arrays.copyOf(memo, Math.max(idx + 1, memo.length * 2));
+        }
+        if (memo[idx] == null) {
+            memoLen++;
+        }
+        memo[idx] = value;
+    }
+
+    public int getMemoLen() {
+        return memoLen;
+    }
+
+    public void clearMemo() {
+        memo = new Object[32];
+        memoLen = 0;
+    }
+}
@@ -0,0 +1,1103 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.*;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEW__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETATTR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETITEM__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.AttributeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.EOFError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.KeyError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.RuntimeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.set.PSet;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.builtins.objects.type.TypeNodesFactory.IsSameTypeNodeGen;
+import com.oracle.graal.python.builtins.objects.type.TypeNodesFactory.IsTypeNodeGen;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.builtins.ListNodes.AppendNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.control.GetNextNodeFactory.GetNextWithoutFrameNodeGen;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorageFactory;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+
+/**
+ * A port of the unpickling part of CPython's {@code Modules/_pickle.c}. The input is either the
+ * bytes given to {@code loads} or is read from the file. Whole frames are read from the file at
+ * once, outside of frames the file is read as the opcodes require it.
+ */
+final class PickleLoader {
+    private final PUnpickler unpickler;
+    private final PickleState state;
+    private final PythonCore core;
+    private final PythonObjectFactory factory;
+    private final PRaiseNode raiseNode;
+    private final PythonObjectLibrary lib = PythonObjectLibrary.getUncached();
+    private final CallNode callNode = CallNode.getUncached();
+    private final Object read;
+    private final Object readline;
+
+    private byte[] buf;
+    private int pos;
+    private int end;
+
+    private Object[] stack = new Object[16];
+    private int stackLen;
+    private int[] marks = new int[8];
+    private int marksLen;
+    /** Items below the fence belong to an outer mark and must not be popped. */
+    private int fence;
+    private int proto;
+
+    PickleLoader(PUnpickler unpickler, PythonCore core, PythonObjectFactory factory, PRaiseNode raiseNode) {
+        this.unpickler = unpickler;
+        this.state = PickleState.get();
+        this.core = core;
+        this.factory = factory;
+        this.raiseNode = raiseNode;
+        byte[] input = unpickler.getInput();
+        if (input != null) {
+            this.buf = input;
+            this.end = input.length;
+            this.read = null;
+            this.readline = null;
+        } else {
+            this.buf = new byte[0];
+            this.read = unpickler.getRead();
+            this.readline = unpickler.getReadline();
+        }
+    }
+
+    // input
+
+    private byte[] toBytes(Object data, String method) {
+        if (!lib.isBuffer(data)) {
+            throw raiseNode.raise(TypeError, ErrorMessages.RETURNED_NONBYTES, method, data);
+        }
+        try {
+            return lib.getBufferBytes(data);
+        } catch (UnsupportedMessageException e) {
+            throw raiseNode.raise(TypeError, ErrorMessages.RETURNED_NONBYTES, method, data);
+        }
+    }
+
+    /** Prepends the unread part of the buffer to the data read from the file. */
+    private void refill(byte[] data) {
+        int remaining = end - pos;
+        if (remaining == 0) {
+            buf = data;
+        } else {
+            byte[] newBuf = new byte[remaining + data.length];
+            System.arraycopy(buf, pos, newBuf, 0, remaining);
+            System.arraycopy(data, 0, newBuf, remaining, data.length);
+            buf = newBuf;
+        }
+        pos = 0;
+        end = buf.length;
+    }
+
+    private boolean fill(int n) {
+        if (end - pos >= n) {
+            return true;
+        }
+        if (read == null) {
+            return false;
+        }
+        refill(toBytes(callNode.execute(read, n - (end - pos)), "read()"));
+        return end - pos >= n;
+    }
+
+    private int readOpcode() {
+        if (pos >= end && !fill(1)) {
+            throw raiseNode.raise(EOFError, ErrorMessages.RAN_OUT_OF_INPUT);
+        }
+        return buf[pos++];
+    }
+
+    /** Makes {@code n} bytes available and returns their offset in {@link #buf}. */
+    private int read(int n) {
+        if (!fill(n)) {
+            throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.PICKLE_DATA_TRUNCATED);
+        }
+        int start = pos;
+        pos += n;
+        return start;
+    }
+
+    private int readUInt8() {
+        return buf[read(1)] & 0xff;
+    }
+
+    private int readUInt16() {
+        int i = read(2);
+        return (buf[i] & 0xff) | (buf[i + 1] & 0xff) << 8;
+    }
+
+    private int readInt32() {
+        int i = read(4);
+        return (buf[i] & 0xff) | (buf[i + 1] & 0xff) << 8 | (buf[i + 2] & 0xff) << 16 | (buf[i + 3] & 0xff) << 24;
+    }
+
+    private long readUInt64() {
+        int i = read(8);
+        long value = 0;
+        for (int j = 7; j >= 0; j--) {
+            value = (value << 8) | (buf[i + j] & 0xff);
+        }
+        return value;
+    }
+
+    private int readSize(long size, String opcodeName) {
+        if (size < 0 || size > Integer.MAX_VALUE) {
+            throw raiseNode.raise(ValueError, ErrorMessages.EXCEEDS_MAXIMUM_SIZE, opcodeName, Integer.MAX_VALUE);
+        }
+        return (int) size;
+    }
+
+    private byte[] readBytes(int n) {
+        int start = read(n);
+        return Arrays.copyOfRange(buf, start, start + n);
+    }
+
+    /** Reads a line and returns it without the trailing newline. */
+    private byte[] readLine() {
+        for (int i = pos; i < end; i++) {
+            if (buf[i] == '\n') {
+                byte[] line = Arrays.copyOfRange(buf, pos, i);
+                pos = i + 1;
+                return line;
+            }
+        }
+        if (readline != null) {
+            refill(toBytes(callNode.execute(readline), "readline()"));
+            if (end > 0 && buf[end - 1] == '\n') {
+                byte[] line = Arrays.copyOf(buf, end - 1);
+                pos = end;
+                return line;
+            }
+        }
+        throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.PICKLE_DATA_TRUNCATED);
+    }
+
+    private static String asciiString(byte[] line) {
+        return new String(line, StandardCharsets.ISO_8859_1);
+    }
+
+    // stack
+
+    private void push(Object value) {
+        if (stackLen == stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        stack[stackLen++] = value;
+    }
+
+    private PException stackUnderflow() {
+        if (marksLen > 0) {
+            return raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.UNEXPECTED_MARK_FOUND);
+        }
+        return raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.UNPICKLING_STACK_UNDERFLOW);
+    }
+
+    private Object pop() {
+        if (stackLen <= fence) {
+            throw stackUnderflow();
+        }
+        Object value = stack[--stackLen];
+        stack[stackLen] = null;
+        return value;
+    }
+
+    private Object peek() {
+        if (stackLen <= fence) {
+            throw stackUnderflow();
+        }
+        return stack[stackLen - 1];
+    }
+
+    private void pushMark() {
+        if (marksLen == marks.length) {
+            marks = Arrays.copyOf(marks, marks.length * 2);
+        }
+        marks[marksLen++] = stackLen;
+        fence = stackLen;
+    }
+
+    private int popMark() {
+        if (marksLen == 0) {
+            throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.COULD_NOT_FIND_MARK);
+        }
+        int mark = marks[--marksLen];
+        fence = marksLen > 0 ? marks[marksLen - 1] : 0;
+        return mark;
+    }
+
+    /** Removes the items from {@code start} to the top of the stack and returns them. */
+    private Object[] popItems(int start) {
+        if (start < fence) {
+            throw stackUnderflow();
+        }
+        Object[] items = Arrays.copyOfRange(stack, start, stackLen);
+        Arrays.fill(stack, start, stackLen, null);
+        stackLen = start;
+        return items;
+    }
+
+    // main loop
+
+    Object load() {
+        stackLen = 0;
+        marksLen = 0;
+        fence = 0;
+        proto = unpickler.getProto();
+        while (true) {
+            int opcode = readOpcode();
+            switch ((byte) opcode) {
+                case MARK:
+                    pushMark();
+                    break;
+                case STOP:
+                    return pop();
+                case POP:
+                    if (stackLen > fence) {
+                        pop();
+                    } else if (marksLen > 0) {
+                        popMark();
+                    } else {
+                        throw stackUnderflow();
+                    }
+                    break;
+                case POP_MARK:
+                    popItems(popMark());
+                    break;
+                case DUP:
+                    push(peek());
+                    break;
+                case FLOAT:
+                    push(parseFloat(readLine()));
+                    break;
+                case INT:
+                    loadInt(readLine());
+                    break;
+                case BININT:
+                    push(readInt32());
+                    break;
+                case BININT1:
+                    push(readUInt8());
+                    break;
+                case BININT2:
+                    push(readUInt16());
+                    break;
+                case LONG:
+                    loadLong(readLine());
+                    break;
+                case LONG1:
+                    loadLongBinary(readUInt8());
+                    break;
+                case LONG4: {
+                    int size = readInt32();
+                    if (size < 0) {
+                        throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.NEGATIVE_BYTE_COUNT, "LONG");
+                    }
+                    loadLongBinary(size);
+                    break;
+                }
+                case BINFLOAT:
+                    push(Double.longBitsToDouble(readBigEndianInt64()));
+                    break;
+                case STRING:
+                    loadString(readLine());
+                    break;
+                case BINSTRING: {
+                    int size = readInt32();
+                    if (size < 0) {
+                        throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.NEGATIVE_BYTE_COUNT, "BINSTRING");
+                    }
+                    push(decodeString(readBytes(size)));
+                    break;
+                }
+                case SHORT_BINSTRING:
+                    push(decodeString(readBytes(readUInt8())));
+                    break;
+                case BINBYTES:
+                    push(factory.createBytes(readBytes(readSize(readInt32() & 0xffffffffL, "BINBYTES"))));
+                    break;
+                case SHORT_BINBYTES:
+                    push(factory.createBytes(readBytes(readUInt8())));
+                    break;
+                case BINBYTES8:
+                    push(factory.createBytes(readBytes(readSize(readUInt64(), "BINBYTES8"))));
+                    break;
+                case BYTEARRAY8:
+                    push(factory.createByteArray(readBytes(readSize(readUInt64(), "BYTEARRAY8"))));
+                    break;
+                case UNICODE:
+                    loadUnicode(readLine());
+                    break;
+                case BINUNICODE:
+                    loadBinUnicode(readSize(readInt32() & 0xffffffffL, "BINUNICODE"));
+                    break;
+                case SHORT_BINUNICODE:
+                    loadBinUnicode(readUInt8());
+                    break;
+                case BINUNICODE8:
+                    loadBinUnicode(readSize(readUInt64(), "BINUNICODE8"));
+                    break;
+                case NONE:
+                    push(PNone.NONE);
+                    break;
+                case NEWTRUE:
+                    push(true);
+                    break;
+                case NEWFALSE:
+                    push(false);
+                    break;
+                case EMPTY_TUPLE:
+                    push(factory.createEmptyTuple());
+                    break;
+                case TUPLE:
+                    push(factory.createTuple(popItems(popMark())));
+                    break;
+                case TUPLE1:
+                case TUPLE2:
+                case TUPLE3:
+                    push(factory.createTuple(popItems(stackLen - (opcode - TUPLE1 + 1))));
+                    break;
+                case EMPTY_LIST:
+                    push(factory.createList());
+                    break;
+                case LIST:
+                    push(factory.createList(SequenceStorageFactory.createStorage(popItems(popMark()))));
+                    break;
+                case EMPTY_DICT:
+                    push(factory.createDict());
+                    break;
+                case DICT:
+                    loadDict();
+                    break;
+                case EMPTY_SET:
+                    push(factory.createSet(PythonBuiltinClassType.PSet));
+                    break;
+                case FROZENSET:
+                    loadFrozenSet();
+                    break;
+                case APPEND:
+                    doAppend(stackLen - 1);
+                    break;
+                case APPENDS:
+                    doAppend(popMark());
+                    break;
+                case SETITEM:
+                    doSetItems(stackLen - 2, "SETITEM");
+                    break;
+                case SETITEMS:
+                    doSetItems(popMark(), "SETITEMS");
+                    break;
+                case ADDITEMS:
+                    loadAddItems();
+                    break;
+                case GLOBAL: {
+                    String moduleName = decodeIdentifier(readLine());
+                    String name = decodeIdentifier(readLine());
+                    push(findClass(moduleName, name));
+                    break;
+                }
+                case STACK_GLOBAL: {
+                    Object name = pop();
+                    Object moduleName = pop();
+                    if (asString(moduleName) == null || asString(name) == null) {
+                        throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.STACK_GLOBAL_REQUIRES_STR);
+                    }
+                    push(findClass(moduleName, name));
+                    break;
+                }
+                case INST:
+                    loadInst();
+                    break;
+                case OBJ:
+                    loadObj();
+                    break;
+                case NEWOBJ:
+                    loadNewObj();
+                    break;
+                case NEWOBJ_EX:
+                    loadNewObjEx();
+                    break;
+                case REDUCE:
+                    loadReduce();
+                    break;
+                case BUILD:
+                    loadBuild();
+                    break;
+                case PUT:
+                    loadPut(parseMemoIndex(readLine(), "PUT"));
+                    break;
+                case BINPUT:
+                    loadPut(readUInt8());
+                    break;
+                case LONG_BINPUT: {
+                    int idx = readInt32();
+                    if (idx < 0) {
+                        throw raiseNode.raise(ValueError, ErrorMessages.NEGATIVE_PUT_ARGUMENT, "LONG_BINPUT");
+                    }
+                    loadPut(idx);
+                    break;
+                }
+                case MEMOIZE:
+                    loadPut(unpickler.getMemoLen());
+                    break;
+                case GET:
+                    loadGet(parseMemoIndex(readLine(), "GET"));
+                    break;
+                case BINGET:
+                    loadGet(readUInt8());
+                    break;
+                case LONG_BINGET:
+                    loadGet(readInt32() & 0xffffffffL);
+                    break;
+                case EXT1:
+                    loadExtension(readUInt8());
+                    break;
+                case EXT2:
+                    loadExtension(readUInt16());
+                    break;
+                case EXT4:
+                    loadExtension(readInt32());
+                    break;
+                case PROTO: {
+                    int newProto = readUInt8();
+                    if (newProto > HIGHEST_PROTOCOL) {
+                        throw raiseNode.raise(ValueError, ErrorMessages.UNSUPPORTED_PICKLE_PROTOCOL, newProto);
+                    }
+                    proto = newProto;
+                    unpickler.setProto(newProto);
+                    break;
+                }
+                case FRAME: {
+                    // read the whole frame at once and leave it in the buffer
+                    int frameLen = readSize(readUInt64(), "FRAME length");
+                    pos = read(frameLen);
+                    break;
+                }
+                case PERSID:
+                    loadPersistentId(decodePersistentId(readLine()));
+                    break;
+                case BINPERSID:
+                    loadPersistentId(pop());
+                    break;
+                case NEXT_BUFFER:
+                    loadNextBuffer();
+                    break;
+                case READONLY_BUFFER:
+                    loadReadOnlyBuffer();
+                    break;
+                default:
+                    String key = opcode >= 0x20 && opcode < 0x7f ? Character.toString((char) opcode) : String.format("\\x%02x", opcode & 0xff);
+                    throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.INVALID_LOAD_KEY, key);
+            }
+        }
+    }
+
+    // numbers
+
+    private long readBigEndianInt64() {
+        int i = read(8);
+        long bits = 0;
+        for (int j = 0; j < 8; j++) {
+            bits = (bits << 8) | (buf[i + j] & 0xff);
+        }
+        return bits;
+    }
+
+    private Object normalizeInt(BigInteger value) {
+        if (value.bitLength() < 32) {
+            return value.intValue();
+        } else if (value.bitLength() < 64) {
+            return value.longValue();
+        }
+        return factory.createInt(value);
+    }
+
+    private BigInteger parseInteger(String s) {
+        try {
+            return new BigInteger(s);
+        } catch (NumberFormatException e) {
+            throw raiseNode.raise(ValueError, ErrorMessages.COULD_NOT_CONVERT_STRING_TO_INT);
+        }
+    }
+
+    private void loadInt(byte[] line) {
+        String s = asciiString(line);
+        if (s.equals("00")) {
+            push(false);
+        } else if (s.equals("01")) {
+            push(true);
+        } else {
+            push(normalizeInt(parseInteger(s)));
+        }
+    }
+
+    private void loadLong(byte[] line) {
+        String s = asciiString(line);
+        // Python 2 wrote longs with a trailing 'L'
+        if (s.endsWith("L")) {
+            s = s.substring(0, s.length() - 1);
+        }
+        push(normalizeInt(parseInteger(s)));
+    }
+
+    private void loadLongBinary(int size) {
+        if (size == 0) {
+            push(0);
+            return;
+        }
+        int start = read(size);
+        // little-endian two's complement
+        byte[] bigEndian = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bigEndian[i] = buf[start + size - 1 - i];
+        }
+        push(normalizeInt(new BigInteger(bigEndian)));
+    }
+
+    private double parseFloat(byte[] line) {
+        String s = asciiString(line).trim();
+        switch (s.toLowerCase()) {
+            case "inf":
+            case "+inf":
+            case "infinity":
+            case "+infinity":
+                return Double.POSITIVE_INFINITY;
+            case "-inf":
+            case "-infinity":
+                return Double.NEGATIVE_INFINITY;
+            case "nan":
+            case "+nan":
+            case "-nan":
+                return Double.NaN;
+        }
+        // Java also accepts type suffixes and hexadecimal floats, Python's repr never produces them
+        char last = s.isEmpty() ? ' ' : Character.toLowerCase(s.charAt(s.length() - 1));
+        if (last == 'd' || last == 'f' || s.contains("x") || s.contains("X")) {
+            throw raiseNode.raise(ValueError, ErrorMessages.COULD_NOT_CONVERT_STRING_TO_FLOAT, repr(s));
+        }
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            throw raiseNode.raise(ValueError, ErrorMessages.COULD_NOT_CONVERT_STRING_TO_FLOAT, repr(s));
+        }
+    }
+
+    // strings
+
+    /** Decodes a Python 2 {@code str} according to the {@code encoding} argument. */
+    private Object decodeString(byte[] data) {
+        String encoding = unpickler.getEncoding();
+        if (encoding.equals("bytes")) {
+            return factory.createBytes(data);
+        }
+        if (encoding.equalsIgnoreCase("ascii")) {
+            boolean isAscii = true;
+            for (byte b : data) {
+                if (b < 0) {
+                    isAscii = false;
+                    break;
+                }
+            }
+            if (isAscii) {
+                return new String(data, StandardCharsets.ISO_8859_1);
+            }
+        }
+        return lib.lookupAndCallRegularMethod(factory.createBytes(data), null, "decode", encoding, unpickler.getErrors());
+    }
+
+    private void loadString(byte[] line) {
+        int len = line.length;
+        // strip the trailing whitespace and the quotes
+        while (len > 0 && (line[len - 1] & 0xff) <= ' ') {
+            len--;
+        }
+        if (len < 2 || line[0] != line[len - 1] || (line[0] != '\'' && line[0] != '"')) {
+            throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.STRING_OPCODE_ARGUMENT_MUST_BE_QUOTED);
+        }
+        byte[] escaped = Arrays.copyOfRange(line, 1, len - 1);
+        Object escapeDecode = getModuleAttribute("codecs", "escape_decode");
+        Object decoded = callNode.execute(escapeDecode, factory.createBytes(escaped));
+        Object bytes = ((PTuple) decoded).getSequenceStorage().getItemNormalized(0);
+        push(decodeString(toBytes(bytes, "escape_decode()")));
+    }
+
+    private void loadUnicode(byte[] line) {
+        String s = decodeRawUnicodeEscape(line, 0, line.length);
+        if (s != null) {
+            push(s);
+        } else {
+            // let the codec report the error
+            push(lib.lookupAndCallRegularMethod(factory.createBytes(line), null, "decode", "raw-unicode-escape"));
+        }
+    }
+
+    private void loadBinUnicode(int size) {
+        int start = read(size);
+        String s = decodeUTF8(buf, start, size);
+        if (s != null) {
+            push(s);
+        } else {
+            byte[] data = Arrays.copyOfRange(buf, start, start + size);
+            push(lib.lookupAndCallRegularMethod(factory.createBytes(data), null, "decode", "utf-8", "surrogatepass"));
+        }
+    }
+
+    private String decodeIdentifier(byte[] line) {
+        String s = decodeUTF8(line, 0, line.length);
+        if (s == null) {
+            return asString(lib.lookupAndCallRegularMethod(factory.createBytes(line), null, "decode", "utf-8"));
+        }
+        return s;
+    }
+
+    private String decodePersistentId(byte[] line) {
+        for (byte b : line) {
+            if (b < 0) {
+                throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.PERSISTENT_IDS_MUST_BE_ASCII);
+            }
+        }
+        return asciiString(line);
+    }
+
+    // containers
+
+    private void loadDict() {
+        int mark = popMark();
+        if ((stackLen - mark) % 2 != 0) {
+            throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.ODD_NUMBER_OF_ITEMS_FOR, "DICT");
+        }
+        Object[] items = popItems(mark);
+        PDict dict = factory.createDict();
+        for (int i = 0; i < items.length; i += 2) {
+            dict.setItem(items[i], items[i + 1]);
+        }
+        push(dict);
+    }
+
+    private void loadFrozenSet() {
+        Object[] items = popItems(popMark());
+        HashingStorageLibrary hlib = HashingStorageLibrary.getUncached();
+        HashingStorage storage = EconomicMapStorage.create(items.length);
+        for (Object item : items) {
+            storage = hlib.setItem(storage, item, PNone.NONE);
+        }
+        push(factory.createFrozenSet(storage));
+    }
+
+    private boolean isExactType(Object obj, PythonBuiltinClassType type) {
+        return IsSameTypeNodeGen.getUncached().execute(lib.getLazyPythonClass(obj), type);
+    }
+
+    private void doAppend(int start) {
+        if (start > stackLen || start <= fence) {
+            throw stackUnderflow();
+        }
+        if (start == stackLen) {
+            return;
+        }
+        Object list = stack[start - 1];
+        Object[] items = popItems(start);
+        if (list instanceof PList && isExactType(list, PythonBuiltinClassType.PList)) {
+            PList pList = (PList) list;
+            if (pList.getSequenceStorage().length() == 0) {
+                // the usual case of EMPTY_LIST followed by APPENDS, let the storage specialize
+                pList.setSequenceStorage(SequenceStorageFactory.createStorage(items));
+            } else {
+                AppendNode appendNode = AppendNode.getUncached();
+                for (Object item : items) {
+                    appendNode.execute(pList, item);
+                }
+            }
+            return;
+        }
+        Object extend = lib.lookupAttribute(list, null, "extend");
+        if (extend != PNone.NO_VALUE) {
+            callNode.execute(extend, factory.createList(items));
+        } else {
+            Object append = lib.lookupAttributeStrict(list, null, "append");
+            for (Object item : items) {
+                callNode.execute(append, item);
+            }
+        }
+    }
+
+    private void doSetItems(int start, String opcodeName) {
+        if (start > stackLen || start <= fence) {
+            throw stackUnderflow();
+        }
+        if ((stackLen - start) % 2 != 0) {
+            throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.ODD_NUMBER_OF_ITEMS_FOR, opcodeName);
+        }
+        Object dict = stack[start - 1];
+        Object[] items = popItems(start);
+        if (dict instanceof PDict && isExactType(dict, PythonBuiltinClassType.PDict)) {
+            PDict pDict = (PDict) dict;
+            for (int i = 0; i < items.length; i += 2) {
+                pDict.setItem(items[i], items[i + 1]);
+            }
+        } else {
+            for (int i = 0; i < items.length; i += 2) {
+                lib.lookupAndCallSpecialMethod(dict, null, __SETITEM__, items[i], items[i + 1]);
+            }
+        }
+    }
+
+    private void loadAddItems() {
+        int mark = popMark();
+        if (mark <= fence) {
+            throw stackUnderflow();
+        }
+        Object set = stack[mark - 1];
+        Object[] items = popItems(mark);
+        if (set instanceof PSet && isExactType(set, PythonBuiltinClassType.PSet)) {
+            PSet pSet = (PSet) set;
+            HashingStorageLibrary hlib = HashingStorageLibrary.getUncached();
+            HashingStorage storage = pSet.getDictStorage();
+            for (Object item : items) {
+                storage = hlib.setItem(storage, item, PNone.NONE);
+            }
+            pSet.setDictStorage(storage);
+        } else {
+            Object add = lib.lookupAttributeStrict(set, null, "add");
+            for (Object item : items) {
+                callNode.execute(add, item);
+            }
+        }
+    }
+
+    // objects
+
+    private Object instantiate(Object cls, Object[] args) {
+        if (args.length == 0 && IsTypeNodeGen.getUncached().execute(cls) && lib.lookupAttribute(cls, null, "__getinitargs__") == PNone.NO_VALUE) {
+            // old-style classes without __getinitargs__ are created without calling __init__
+            return callNode.execute(lib.lookupAttributeStrict(cls, null, __NEW__), cls);
+        }
+        return callNode.execute(cls, args);
+    }
+
+    private void loadInst() {
+        String moduleName = decodeIdentifier(readLine());
+        String name = decodeIdentifier(readLine());
+        Object[] args = popItems(popMark());
+        Object cls = findClass(moduleName, name);
+        push(instantiate(cls, args));
+    }
+
+    private void loadObj() {
+        int mark = popMark();
+        if (stackLen - mark < 1) {
+            throw stackUnderflow();
+        }
+        Object[] args = popItems(mark + 1);
+        Object cls = popItems(mark)[0];
+        push(instantiate(cls, args));
+    }
+
+    private Object callNew(Object cls, Object[] args, PKeyword[] kwargs) {
+        Object[] newArgs = new Object[args.length + 1];
+        newArgs[0] = cls;
+        System.arraycopy(args, 0, newArgs, 1, args.length);
+        return callNode.execute(lib.lookupAttributeStrict(cls, null, __NEW__), newArgs, kwargs);
+    }
+
+    private static Object[] tupleItems(PTuple tuple) {
+        SequenceStorage storage = tuple.getSequenceStorage();
+        Object[] items = new Object[storage.length()];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = storage.getItemNormalized(i);
+        }
+        return items;
+    }
+
+    private void loadNewObj() {
+        Object args = pop();
+        if (!(args instanceof PTuple)) {
+            throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.NEWOBJ_EXPECTED_ARG_TUPLE);
+        }
+        Object cls = pop();
+        if (!IsTypeNodeGen.getUncached().execute(cls)) {
+            throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.NEWOBJ_CLASS_NOT_A_TYPE);
+        }
+        push(callNew(cls, tupleItems((PTuple) args), PKeyword.EMPTY_KEYWORDS));
+    }
+
+    private void loadNewObjEx() {
+        Object kwargs = pop();
+        Object args = pop();
+        Object cls = pop();
+        if (!IsTypeNodeGen.getUncached().execute(cls)) {
+            throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.NEWOBJ_EX_CLASS_MUST_BE_TYPE, cls);
+        }
+        if (!(args instanceof PTuple)) {
+            throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.NEWOBJ_EX_ARGS_MUST_BE_TUPLE, args);
+        }
+        if (!(kwargs instanceof PDict)) {
+            throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.NEWOBJ_EX_KWARGS_MUST_BE_DICT, kwargs);
+        }
+        ArrayList<PKeyword> keywords = new ArrayList<>();
+        for (DictEntry entry : HashingStorageLibrary.getUncached().entries(((PDict) kwargs).getDictStorage())) {
+            String key = asString(entry.key);
+            if (key == null) {
+                throw raiseNode.raise(TypeError, ErrorMessages.MUST_BE_STR_NOT_P, entry.key);
+            }
+            keywords.add(new PKeyword(key, entry.value));
+        }
+        push(callNew(cls, tupleItems((PTuple) args), keywords.toArray(new PKeyword[0])));
+    }
+
+    private void loadReduce() {
+        Object args = pop();
+        Object callable = pop();
+        if (!(args instanceof PTuple)) {
+            throw raiseNode.raise(TypeError, ErrorMessages.ARGUMENT_LIST_MUST_BE_TUPLE);
+        }
+        push(callNode.execute(callable, tupleItems((PTuple) args)));
+    }
+
+    private void loadBuild() {
+        Object buildState = pop();
+        Object inst = peek();
+        Object setState = lib.lookupAttribute(inst, null, "__setstate__");
+        if (setState != PNone.NO_VALUE) {
+            callNode.execute(setState, buildState);
+            return;
+        }
+        Object slotState = PNone.NONE;
+        if (buildState instanceof PTuple && ((PTuple) buildState).getSequenceStorage().length() == 2) {
+            SequenceStorage storage = ((PTuple) buildState).getSequenceStorage();
+            buildState = storage.getItemNormalized(0);
+            slotState = storage.getItemNormalized(1);
+        }
+        if (buildState != PNone.NONE) {
+            if (!(buildState instanceof PDict)) {
+                throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.STATE_IS_NOT_A_DICT);
+            }
+            Object dict = lib.lookupAttributeStrict(inst, null, "__dict__");
+            for (DictEntry entry : entriesSnapshot((PDict) buildState)) {
+                lib.lookupAndCallSpecialMethod(dict, null, __SETITEM__, entry.key, entry.value);
+            }
+        }
+        if (slotState != PNone.NONE) {
+            if (!(slotState instanceof PDict)) {
+                throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.SLOT_STATE_IS_NOT_A_DICT);
+            }
+            for (DictEntry entry : entriesSnapshot((PDict) slotState)) {
+                lib.lookupAndCallSpecialMethod(inst, null, __SETATTR__, entry.key, entry.value);
+            }
+        }
+    }
+
+    private static ArrayList<DictEntry> entriesSnapshot(PDict dict) {
+        ArrayList<DictEntry> entries = new ArrayList<>();
+        for (DictEntry entry : HashingStorageLibrary.getUncached().entries(dict.getDictStorage())) {
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    // memo
+
+    private int parseMemoIndex(byte[] line, String opcodeName) {
+        BigInteger idx = parseInteger(asciiString(line));
+        if (idx.signum() < 0) {
+            throw raiseNode.raise(ValueError, ErrorMessages.NEGATIVE_PUT_ARGUMENT, opcodeName);
+        }
+        if (idx.bitLength() > 31) {
+            throw raiseNode.raise(KeyError, new Object[]{factory.createInt(idx)});
+        }
+        return idx.intValue();
+    }
+
+    private void loadPut(int idx) {
+        unpickler.putMemo(idx, peek());
+    }
+
+    private void loadGet(long idx) {
+        Object value = idx <= Integer.MAX_VALUE ? unpickler.getMemo((int) idx) : null;
+        if (value == null) {
+            throw raiseNode.raise(KeyError, new Object[]{idx <= Integer.MAX_VALUE ? (Object) (int) idx : (Object) idx});
+        }
+        push(value);
+    }
+
+    // globals
+
+    private void loadExtension(int code) {
+        if (code <= 0) {
+            throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.EXT_SPECIFIES_CODE_LE_ZERO);
+        }
+        Object obj = state.extensionCache.getItem(code);
+        if (obj != null) {
+            push(obj);
+            return;
+        }
+        Object pair = state.invertedRegistry.getItem(code);
+        if (pair == null) {
+            throw raiseNode.raise(ValueError, ErrorMessages.UNREGISTERED_EXTENSION_CODE, code);
+        }
+        if (!(pair instanceof PTuple) || ((PTuple) pair).getSequenceStorage().length() != 2) {
+            throw raiseNode.raise(ValueError, ErrorMessages.INVERTED_REGISTRY_NOT_2_TUPLE, code);
+        }
+        Object moduleName = ((PTuple) pair).getSequenceStorage().getItemNormalized(0);
+        Object name = ((PTuple) pair).getSequenceStorage().getItemNormalized(1);
+        if (asString(moduleName) == null || asString(name) == null) {
+            throw raiseNode.raise(ValueError, ErrorMessages.INVERTED_REGISTRY_NOT_2_TUPLE, code);
+        }
+        obj = findClass(moduleName, name);
+        state.extensionCache.setItem(code, obj);
+        push(obj);
+    }
+
+    private Object findClass(Object moduleName, Object name) {
+        if (isExactType(unpickler, PythonBuiltinClassType.PUnpickler)) {
+            return findClass(unpickler, state, core, factory, raiseNode, moduleName, name);
+        }
+        return lib.lookupAndCallRegularMethod(unpickler, null, "find_class", moduleName, name);
+    }
+
+    /** The implementation of {@code Unpickler.find_class}. */
+    static Object findClass(PUnpickler unpickler, PickleState state, PythonCore core, PythonObjectFactory factory, PRaiseNode raiseNode, Object moduleNameObj, Object nameObj) {
+        String moduleName = asString(moduleNameObj);
+        String name = asString(nameObj);
+        if (moduleName == null) {
+            throw raiseNode.raise(TypeError, ErrorMessages.MUST_BE_STR_NOT_P, moduleNameObj);
+        }
+        if (name == null) {
+            throw raiseNode.raise(TypeError, ErrorMessages.MUST_BE_STR_NOT_P, nameObj);
+        }
+        if (unpickler.getProto() < 3 && unpickler.isFixImports()) {
+            // map the Python 2 names to the Python 3 names
+            Object item = state.nameMapping2to3.getItem(factory.createTuple(new Object[]{moduleName, name}));
+            if (item != null) {
+                if (!(item instanceof PTuple) || ((PTuple) item).getSequenceStorage().length() != 2) {
+                    throw raiseNode.raise(RuntimeError, ErrorMessages.COMPAT_MAPPING_VALUES_SHOULD_BE_2_TUPLES, "NAME_MAPPING", item);
+                }
+                Object fixedModule = ((PTuple) item).getSequenceStorage().getItemNormalized(0);
+                Object fixedName = ((PTuple) item).getSequenceStorage().getItemNormalized(1);
+                if (asString(fixedModule) == null || asString(fixedName) == null) {
+                    throw raiseNode.raise(RuntimeError, ErrorMessages.COMPAT_MAPPING_VALUES_SHOULD_BE_PAIRS_OF_STR, "NAME_MAPPING", fixedModule, fixedName);
+                }
+                moduleName = asString(fixedModule);
+                name = asString(fixedName);
+            } else {
+                item = state.importMapping2to3.getItem(moduleName);
+                if (item != null) {
+                    if (asString(item) == null) {
+                        throw raiseNode.raise(RuntimeError, ErrorMessages.COMPAT_MAPPING_VALUES_SHOULD_BE_STRINGS, "IMPORT_MAPPING", item);
+                    }
+                    moduleName = asString(item);
+                }
+            }
+        }
+        Object module = importModule(moduleName);
+        if (unpickler.getProto() >= 4) {
+            Object global = getDeepAttribute(core, module, getDottedPath(raiseNode, module, name), null);
+            if (global == null) {
+                throw raiseNode.raise(AttributeError, ErrorMessages.CANT_GET_ATTRIBUTE, repr(name), repr(module));
+            }
+            return global;
+        }
+        return normalize(core, PythonObjectLibrary.getUncached().lookupAttributeStrict(module, null, name));
+    }
+
+    // persistent ids and out-of-band buffers
+
+    private void loadPersistentId(Object pid) {
+        Object persistentLoad = unpickler.getPersistentLoad();
+        if (persistentLoad == null) {
+            throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.NO_PERSISTENT_LOAD);
+        }
+        push(callNode.execute(persistentLoad, pid));
+    }
+
+    private void loadNextBuffer() {
+        Object buffers = unpickler.getBuffers();
+        if (buffers == null) {
+            throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.NO_BUFFERS_ARGUMENT);
+        }
+        try {
+            push(GetNextWithoutFrameNodeGen.getUncached().executeWithGlobalState(buffers));
+        } catch (PException e) {
+            e.expectStopIteration(IsBuiltinClassProfile.getUncached());
+            throw raiseNode.raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.NOT_ENOUGH_OUT_OF_BAND_BUFFERS);
+        }
+    }
+
+    private void loadReadOnlyBuffer() {
+        Object buffer = peek();
+        Object view = callNode.execute(core.lookupType(PythonBuiltinClassType.PMemoryView), buffer);
+        if (!((PMemoryView) view).isReadOnly()) {
+            // the original object is writable, replace it with a read-only view
+            stack[stackLen - 1] = lib.lookupAndCallRegularMethod(view, null, "toreadonly");
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.BuiltinConstructors.MemoryViewNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonVarargsBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(defineModule = "_pickle")
+public final class PickleModuleBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return PickleModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void postInitialize(PythonCore core) {
+        super.postInitialize(core);
+        core.lookupBuiltinModule("_pickle").setAttribute(PickleState.STATE, new PickleState());
+    }
+
+    // dump(obj, file, protocol=None, *, fix_imports=True, buffer_callback=None)
+    @Builtin(name = "dump", minNumOfPositionalArgs = 2, parameterNames = {"obj", "file", "protocol"}, keywordOnlyNames = {"fix_imports", "buffer_callback"})
+    @ArgumentClinic(name = "protocol", conversion = ClinicConversion.Int, defaultValue = "PickleUtils.DEFAULT_PROTOCOL", useDefaultForNone = true)
+    @ArgumentClinic(name = "fix_imports", conversion = ClinicConversion.Boolean, defaultValue = "true")
+    @GenerateNodeFactory
+    abstract static class DumpNode extends PythonClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PickleModuleBuiltinsClinicProviders.DumpNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(limit = "3")
+        Object dump(VirtualFrame frame, Object obj, Object file, int protocol, boolean fixImports, Object bufferCallback,
+                        @CachedLibrary("file") PythonObjectLibrary lib) {
+            Object write = lib.lookupAttribute(file, frame, "write");
+            if (write == PNone.NO_VALUE) {
+                throw raise(TypeError, ErrorMessages.FILE_MUST_HAVE_WRITE_ATTR);
+            }
+            PPickler pickler = factory().createPickler(PythonBuiltinClassType.PPickler);
+            PicklerBuiltins.initPickler(getRaiseNode(), pickler, write, protocol, fixImports, bufferCallback);
+            PicklerBuiltins.dump(getRaiseNode(), factory(), pickler, obj);
+            return PNone.NONE;
+        }
+    }
+
+    // dumps(obj, protocol=None, *, fix_imports=True, buffer_callback=None)
+    @Builtin(name = "dumps", minNumOfPositionalArgs = 1, parameterNames = {"obj", "protocol"}, keywordOnlyNames = {"fix_imports", "buffer_callback"})
+    @ArgumentClinic(name = "protocol", conversion = ClinicConversion.Int, defaultValue = "PickleUtils.DEFAULT_PROTOCOL", useDefaultForNone = true)
+    @ArgumentClinic(name = "fix_imports", conversion = ClinicConversion.Boolean, defaultValue = "true")
+    @GenerateNodeFactory
+    abstract static class DumpsNode extends PythonClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PickleModuleBuiltinsClinicProviders.DumpsNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        Object dumps(Object obj, int protocol, boolean fixImports, Object bufferCallback) {
+            PPickler pickler = factory().createPickler(PythonBuiltinClassType.PPickler);
+            PicklerBuiltins.initPickler(getRaiseNode(), pickler, null, protocol, fixImports, bufferCallback);
+            return PicklerBuiltins.dump(getRaiseNode(), factory(), pickler, obj);
+        }
+    }
+
+    // load(file, *, fix_imports=True, encoding="ASCII", errors="strict", buffers=())
+    @Builtin(name = "load", minNumOfPositionalArgs = 1, parameterNames = {"file"}, keywordOnlyNames = {"fix_imports", "encoding", "errors", "buffers"})
+    @ArgumentClinic(name = "fix_imports", conversion = ClinicConversion.Boolean, defaultValue = "true")
+    @ArgumentClinic(name = "encoding", conversion = ClinicConversion.String, defaultValue = "\"ASCII\"")
+    @ArgumentClinic(name = "errors", conversion = ClinicConversion.String, defaultValue = "\"strict\"")
+    @GenerateNodeFactory
+    abstract static class LoadNode extends PythonClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PickleModuleBuiltinsClinicProviders.LoadNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(limit = "3")
+        Object load(VirtualFrame frame, Object file, boolean fixImports, String encoding, String errors, Object buffers,
+                        @CachedLibrary("file") PythonObjectLibrary lib,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary buffersLib) {
+            Object read = lib.lookupAttribute(file, frame, "read");
+            Object readline = lib.lookupAttribute(file, frame, "readline");
+            if (read == PNone.NO_VALUE || readline == PNone.NO_VALUE) {
+                throw raise(TypeError, ErrorMessages.FILE_MUST_HAVE_READ_AND_READLINE_ATTRS);
+            }
+            PUnpickler unpickler = factory().createUnpickler(PythonBuiltinClassType.PUnpickler);
+            unpickler.init(null, read, readline, encoding, errors, UnpicklerBuiltins.getBuffersIterator(frame, buffers, buffersLib), fixImports);
+            return UnpicklerBuiltins.load(getCore(), getRaiseNode(), factory(), unpickler);
+        }
+    }
+
+    // loads(data, /, *, fix_imports=True, encoding="ASCII", errors="strict", buffers=())
+    @Builtin(name = "loads", minNumOfPositionalArgs = 1, parameterNames = {"data"}, keywordOnlyNames = {"fix_imports", "encoding", "errors", "buffers"})
+    @ArgumentClinic(name = "fix_imports", conversion = ClinicConversion.Boolean, defaultValue = "true")
+    @ArgumentClinic(name = "encoding", conversion = ClinicConversion.String, defaultValue = "\"ASCII\"")
+    @ArgumentClinic(name = "errors", conversion = ClinicConversion.String, defaultValue = "\"strict\"")
+    @GenerateNodeFactory
+    abstract static class LoadsNode extends PythonClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PickleModuleBuiltinsClinicProviders.LoadsNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(limit = "3")
+        Object loads(VirtualFrame frame, Object data, boolean fixImports, String encoding, String errors, Object buffers,
+                        @CachedLibrary("data") PythonObjectLibrary lib,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary buffersLib) {
+            if (data instanceof String || data instanceof PString || !lib.isBuffer(data)) {
+                throw raise(TypeError, ErrorMessages.BYTESLIKE_OBJ_REQUIRED, data);
+            }
+            byte[] input;
+            try {
+                input = lib.getBufferBytes(data);
+            } catch (UnsupportedMessageException e) {
+                throw raise(TypeError, ErrorMessages.BYTESLIKE_OBJ_REQUIRED, data);
+            }
+            PUnpickler unpickler = factory().createUnpickler(PythonBuiltinClassType.PUnpickler);
+            unpickler.init(input, null, null, encoding, errors, UnpicklerBuiltins.getBuffersIterator(frame, buffers, buffersLib), fixImports);
+            return UnpicklerBuiltins.load(getCore(), getRaiseNode(), factory(), unpickler);
+        }
+    }
+
+    @Builtin(name = "Pickler", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PPickler)
+    @GenerateNodeFactory
+    abstract static class PicklerNode extends PythonVarargsBuiltinNode {
+        @Specialization
+        PPickler doNew(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            return factory().createPickler(cls);
+        }
+    }
+
+    @Builtin(name = "Unpickler", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PUnpickler)
+    @GenerateNodeFactory
+    abstract static class UnpicklerNode extends PythonVarargsBuiltinNode {
+        @Specialization
+        PUnpickler doNew(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            return factory().createUnpickler(cls);
+        }
+    }
+
+    @Builtin(name = "PickleBuffer", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "buffer"}, constructsClass = PythonBuiltinClassType.PPickleBuffer)
+    @GenerateNodeFactory
+    abstract static class PickleBufferNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PPickleBuffer doNew(VirtualFrame frame, Object cls, Object buffer,
+                        @Cached MemoryViewNode memoryViewNode) {
+            return factory().createPickleBuffer(cls, memoryViewNode.execute(frame, buffer));
+        }
+    }
+}
@@ -0,0 +1,1348 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.*;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEXT__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.KeyError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.RuntimeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.ellipsis.PEllipsis;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.function.PFunction;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.memoryview.MemoryViewNodesFactory.ToJavaBytesFortranOrderNodeGen;
+import com.oracle.graal.python.builtins.objects.memoryview.MemoryViewNodesFactory.ToJavaBytesNodeGen;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.set.PFrozenSet;
+import com.oracle.graal.python.builtins.objects.set.PSet;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.builtins.objects.type.TypeNodesFactory.IsSameTypeNodeGen;
+import com.oracle.graal.python.builtins.objects.type.TypeNodesFactory.IsTypeNodeGen;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.control.GetNextNodeFactory.GetNextWithoutFrameNodeGen;
+import com.oracle.graal.python.nodes.expression.IsExpressionNodeGen.IsNodeGen;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.formatting.FloatFormatter;
+import com.oracle.graal.python.runtime.formatting.InternalFormat.Spec;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+
+/**
+ * A port of the pickling part of CPython's {@code Modules/_pickle.c}. The pickle is written into
+ * a growable byte array; when pickling to a file, the array is flushed to the file whenever a
+ * frame is complete. Lists and tuples with primitive storages are written without boxing their
+ * items.
+ */
+final class PickleSaver {
+    private static final byte[] LEN_TO_TUPLE_OPCODE = {EMPTY_TUPLE, TUPLE1, TUPLE2, TUPLE3};
+
+    private final PPickler pickler;
+    private final PickleState state;
+    private final PythonCore core;
+    private final PythonObjectFactory factory;
+    private final PRaiseNode raiseNode;
+    private final PythonObjectLibrary lib = PythonObjectLibrary.getUncached();
+    private final CallNode callNode = CallNode.getUncached();
+    private final IdentityHashMap<Object, Integer> memo;
+    private final int proto;
+    private final boolean bin;
+    private final Object write;
+    private final Object persistentId;
+    private Object reducerOverride;
+
+    private byte[] output = new byte[1024];
+    private int outputLen;
+    private boolean framing;
+    private int frameStart = -1;
+
+    private int fastNesting;
+    private IdentityHashMap<Object, Object> fastMemo;
+
+    PickleSaver(PPickler pickler, PythonObjectFactory factory, PRaiseNode raiseNode) {
+        this.pickler = pickler;
+        this.state = PickleState.get();
+        this.core = PythonLanguage.getCore();
+        this.factory = factory;
+        this.raiseNode = raiseNode;
+        this.memo = pickler.getMemo();
+        this.proto = pickler.getProto();
+        this.bin = pickler.isBin();
+        this.write = pickler.getWrite();
+        this.persistentId = pickler.getPersistentId();
+    }
+
+    void dump(Object obj) {
+        Object override = lib.lookupAttribute(pickler, null, "reducer_override");
+        reducerOverride = override != PNone.NO_VALUE ? override : null;
+        if (proto >= 2) {
+            write(PROTO, (byte) proto);
+            if (proto >= 4) {
+                framing = true;
+            }
+        }
+        save(obj, false);
+        write(STOP);
+        commitFrame();
+        framing = false;
+        if (write != null) {
+            flushToFile();
+        }
+    }
+
+    PBytes getOutput() {
+        return factory.createBytes(Arrays.copyOf(output, outputLen));
+    }
+
+    // output buffer and framing
+
+    private int reserve(int n) {
+        boolean startFrame = framing && frameStart == -1;
+        int needed = outputLen + n + (startFrame ? FRAME_HEADER_SIZE : 0);
+        if (needed > output.length) {
+            output = Arrays.copyOf(output, Math.max(needed, output.length * 2));
+        }
+        if (startFrame) {
+            frameStart = outputLen;
+            outputLen += FRAME_HEADER_SIZE;
+        }
+        int start = outputLen;
+        outputLen += n;
+        return start;
+    }
+
+    private void write(byte opcode) {
+        output[reserve(1)] = opcode;
+    }
+
+    private void write(byte b0, byte b1) {
+        int i = reserve(2);
+        output[i] = b0;
+        output[i + 1] = b1;
+    }
+
+    private void write(byte[] data, int offset, int length) {
+        int i = reserve(length);
+        System.arraycopy(data, offset, output, i, length);
+    }
+
+    private void writeOpcodeAndInt32(byte opcode, int value) {
+        int i = reserve(5);
+        output[i] = opcode;
+        putInt32(output, i + 1, value);
+    }
+
+    private void writeLine(byte opcode, String ascii) {
+        int i = reserve(ascii.length() + 2);
+        output[i++] = opcode;
+        for (int j = 0; j < ascii.length(); j++) {
+            output[i++] = (byte) ascii.charAt(j);
+        }
+        output[i] = '\n';
+    }
+
+    private static void putInt32(byte[] dest, int offset, int value) {
+        dest[offset] = (byte) value;
+        dest[offset + 1] = (byte) (value >> 8);
+        dest[offset + 2] = (byte) (value >> 16);
+        dest[offset + 3] = (byte) (value >> 24);
+    }
+
+    private static void putInt64(byte[] dest, int offset, long value) {
+        for (int i = 0; i < 8; i++) {
+            dest[offset + i] = (byte) (value >> (8 * i));
+        }
+    }
+
+    private void commitFrame() {
+        if (!framing || frameStart == -1) {
+            return;
+        }
+        int frameLen = outputLen - frameStart - FRAME_HEADER_SIZE;
+        if (frameLen >= FRAME_SIZE_MIN) {
+            output[frameStart] = FRAME;
+            putInt64(output, frameStart + 1, frameLen);
+        } else {
+            // too small to be worth a frame, drop the reserved header
+            System.arraycopy(output, frameStart + FRAME_HEADER_SIZE, output, frameStart, frameLen);
+            outputLen -= FRAME_HEADER_SIZE;
+        }
+        frameStart = -1;
+    }
+
+    private void opcodeBoundary() {
+        if (!framing || frameStart == -1) {
+            return;
+        }
+        if (outputLen - frameStart - FRAME_HEADER_SIZE >= FRAME_SIZE_TARGET) {
+            commitFrame();
+            if (write != null) {
+                flushToFile();
+            }
+        }
+    }
+
+    private void flushToFile() {
+        callNode.execute(write, getOutput());
+        outputLen = 0;
+    }
+
+    /**
+     * Writes an opcode with its payload. Large payloads are not copied into the output, they end
+     * the current frame and are passed to the file directly.
+     */
+    private void writeBytes(byte[] header, int headerLen, byte[] data, int length, Object payload) {
+        boolean bypass = length >= FRAME_SIZE_TARGET;
+        boolean wasFraming = framing;
+        if (bypass) {
+            commitFrame();
+            framing = false;
+        }
+        write(header, 0, headerLen);
+        if (bypass && write != null) {
+            flushToFile();
+            callNode.execute(write, payload != null ? payload : factory.createBytes(Arrays.copyOf(data, length)));
+        } else {
+            write(data, 0, length);
+        }
+        framing = wasFraming;
+    }
+
+    // memo
+
+    private void memoGet(int idx) {
+        if (!bin) {
+            writeLine(GET, Integer.toString(idx));
+        } else if (idx < 256) {
+            write(BINGET, (byte) idx);
+        } else {
+            writeOpcodeAndInt32(LONG_BINGET, idx);
+        }
+    }
+
+    private void memoPut(Object obj) {
+        if (pickler.isFast()) {
+            return;
+        }
+        int idx = memo.size();
+        memo.put(obj, idx);
+        if (proto >= 4) {
+            write(MEMOIZE);
+        } else if (!bin) {
+            writeLine(PUT, Integer.toString(idx));
+        } else if (idx < 256) {
+            write(BINPUT, (byte) idx);
+        } else {
+            writeOpcodeAndInt32(LONG_BINPUT, idx);
+        }
+    }
+
+    private void fastSaveEnter(Object obj) {
+        if (++fastNesting >= FAST_NESTING_LIMIT) {
+            if (fastMemo == null) {
+                fastMemo = new IdentityHashMap<>();
+            }
+            if (fastMemo.containsKey(obj)) {
+                fastNesting = -1;
+                throw raiseNode.raise(ValueError, ErrorMessages.FAST_MODE_CYCLIC_OBJECT, obj, System.identityHashCode(obj));
+            }
+            fastMemo.put(obj, obj);
+        }
+    }
+
+    private void fastSaveLeave(Object obj) {
+        if (fastNesting-- >= FAST_NESTING_LIMIT) {
+            fastMemo.remove(obj);
+        }
+    }
+
+    // dispatch
+
+    private boolean isType(Object type, PythonBuiltinClassType builtinType) {
+        return IsSameTypeNodeGen.getUncached().execute(type, builtinType);
+    }
+
+    private void save(Object objArg, boolean persSave) {
+        Object obj = normalize(core, objArg);
+        opcodeBoundary();
+        if (!persSave && persistentId != null && savePers(obj)) {
+            return;
+        }
+        // atoms, which are not memoized
+        if (obj == PNone.NONE) {
+            write(NONE);
+            return;
+        } else if (obj instanceof Boolean) {
+            saveBool((boolean) obj);
+            return;
+        } else if (obj instanceof Integer) {
+            saveLong((int) obj);
+            return;
+        } else if (obj instanceof Long) {
+            saveLong((long) obj);
+            return;
+        } else if (obj instanceof Double) {
+            saveFloat((double) obj);
+            return;
+        }
+        Object type = lib.getLazyPythonClass(obj);
+        if (obj instanceof PInt && isType(type, PythonBuiltinClassType.PInt)) {
+            saveLong(((PInt) obj).getValue());
+            return;
+        } else if (obj instanceof PFloat && isType(type, PythonBuiltinClassType.PFloat)) {
+            saveFloat(((PFloat) obj).getValue());
+            return;
+        }
+
+        Integer memoIdx = memo.get(obj);
+        if (memoIdx != null) {
+            memoGet(memoIdx);
+            return;
+        }
+
+        if (obj instanceof String) {
+            saveUnicode(obj, (String) obj);
+            return;
+        } else if (obj instanceof PString && isType(type, PythonBuiltinClassType.PString)) {
+            saveUnicode(obj, ((PString) obj).getValue());
+            return;
+        } else if (obj instanceof PBytes && isType(type, PythonBuiltinClassType.PBytes)) {
+            saveBytes((PBytes) obj);
+            return;
+        } else if (obj instanceof PDict && isType(type, PythonBuiltinClassType.PDict)) {
+            saveDict((PDict) obj);
+            return;
+        } else if (obj instanceof PSet && isType(type, PythonBuiltinClassType.PSet)) {
+            saveSet((PSet) obj);
+            return;
+        } else if (obj instanceof PFrozenSet && isType(type, PythonBuiltinClassType.PFrozenSet)) {
+            saveFrozenSet((PFrozenSet) obj);
+            return;
+        } else if (obj instanceof PList && isType(type, PythonBuiltinClassType.PList)) {
+            saveList((PList) obj);
+            return;
+        } else if (obj instanceof PTuple && isType(type, PythonBuiltinClassType.PTuple)) {
+            saveTuple((PTuple) obj);
+            return;
+        } else if (obj instanceof PByteArray && isType(type, PythonBuiltinClassType.PByteArray)) {
+            saveByteArray((PByteArray) obj);
+            return;
+        } else if (obj instanceof PPickleBuffer) {
+            savePickleBuffer((PPickleBuffer) obj);
+            return;
+        }
+
+        Object reduceValue = null;
+        if (reducerOverride != null) {
+            reduceValue = callNode.execute(reducerOverride, obj);
+            if (reduceValue == PNotImplemented.NOT_IMPLEMENTED) {
+                reduceValue = null;
+            }
+        }
+        if (reduceValue == null) {
+            if (isType(type, PythonBuiltinClassType.PythonClass)) {
+                saveType(obj);
+                return;
+            } else if (obj instanceof PFunction && isType(type, PythonBuiltinClassType.PFunction)) {
+                saveGlobal(obj, null);
+                return;
+            }
+            Object reduceFunc = getReduceFunction(normalize(core, type));
+            if (reduceFunc != null) {
+                reduceValue = callNode.execute(reduceFunc, obj);
+            } else if (IsTypeNodeGen.getUncached().execute(obj)) {
+                saveGlobal(obj, null);
+                return;
+            } else {
+                Object reduceEx = lib.lookupAttribute(obj, null, "__reduce_ex__");
+                if (reduceEx != PNone.NO_VALUE) {
+                    reduceValue = callNode.execute(reduceEx, proto);
+                } else {
+                    Object reduce = lib.lookupAttribute(obj, null, "__reduce__");
+                    if (reduce == PNone.NO_VALUE) {
+                        throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.CANT_PICKLE_P_OBJECT, obj, repr(obj));
+                    }
+                    reduceValue = callNode.execute(reduce);
+                }
+            }
+        }
+
+        if (reduceValue instanceof String || reduceValue instanceof PString) {
+            saveGlobal(obj, reduceValue);
+        } else if (!(reduceValue instanceof PTuple)) {
+            throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.REDUCE_MUST_RETURN_STRING_OR_TUPLE);
+        } else {
+            saveReduce((PTuple) reduceValue, obj);
+        }
+    }
+
+    /**
+     * Looks the type up in the pickler's {@code dispatch_table} or in
+     * {@code copyreg.dispatch_table}.
+     */
+    private Object getReduceFunction(Object type) {
+        Object dispatchTable = pickler.getDispatchTable();
+        if (dispatchTable == null) {
+            return state.dispatchTable.getItem(type);
+        }
+        try {
+            return lib.lookupAndCallSpecialMethod(dispatchTable, null, __GETITEM__, type);
+        } catch (PException e) {
+            e.expect(KeyError, IsBuiltinClassProfile.getUncached());
+            return null;
+        }
+    }
+
+    private boolean savePers(Object obj) {
+        Object pid = callNode.execute(persistentId, obj);
+        if (pid == PNone.NONE) {
+            return false;
+        }
+        if (bin) {
+            save(pid, true);
+            write(BINPERSID);
+        } else {
+            String pidStr = str(pid);
+            for (int i = 0; i < pidStr.length(); i++) {
+                if (pidStr.charAt(i) >= 128) {
+                    throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.PERSISTENT_IDS_MUST_BE_ASCII);
+                }
+            }
+            writeLine(PERSID, pidStr);
+        }
+        return true;
+    }
+
+    // atoms
+
+    private void saveBool(boolean value) {
+        if (proto >= 2) {
+            write(value ? NEWTRUE : NEWFALSE);
+        } else {
+            writeLine(INT, value ? "01" : "00");
+        }
+    }
+
+    private void saveLong(long value) {
+        if (value != (int) value) {
+            saveLong(BigInteger.valueOf(value));
+            return;
+        }
+        saveLong((int) value);
+    }
+
+    private void saveLong(int value) {
+        if (!bin) {
+            writeLine(INT, Integer.toString(value));
+        } else if (value >= 0 && value <= 0xff) {
+            write(BININT1, (byte) value);
+        } else if (value >= 0 && value <= 0xffff) {
+            int i = reserve(3);
+            output[i] = BININT2;
+            output[i + 1] = (byte) value;
+            output[i + 2] = (byte) (value >> 8);
+        } else {
+            writeOpcodeAndInt32(BININT, value);
+        }
+    }
+
+    private void saveLong(BigInteger value) {
+        if (value.bitLength() < 32) {
+            saveLong(value.intValue());
+        } else if (proto >= 2) {
+            // little-endian two's complement with the minimal number of bytes
+            byte[] bigEndian = value.toByteArray();
+            int nbytes = bigEndian.length;
+            byte[] data = new byte[nbytes];
+            for (int i = 0; i < nbytes; i++) {
+                data[i] = bigEndian[nbytes - 1 - i];
+            }
+            if (nbytes < 256) {
+                write(LONG1, (byte) nbytes);
+            } else {
+                writeOpcodeAndInt32(LONG4, nbytes);
+            }
+            write(data, 0, nbytes);
+        } else {
+            // the trailing 'L' keeps the pickle readable by Python 2
+            writeLine(LONG, value.toString() + "L");
+        }
+    }
+
+    private void saveFloat(double value) {
+        if (bin) {
+            int i = reserve(9);
+            output[i] = BINFLOAT;
+            long bits = Double.doubleToRawLongBits(value);
+            for (int j = 0; j < 8; j++) {
+                output[i + 8 - j] = (byte) (bits >> (8 * j));
+            }
+        } else {
+            Spec spec = new Spec(' ', '>', Spec.NONE, false, Spec.UNSPECIFIED, Spec.NONE, 0, 'r');
+            FloatFormatter formatter = new FloatFormatter(raiseNode, spec);
+            formatter.setMinFracDigits(1);
+            writeLine(FLOAT, formatter.format(value).getResult());
+        }
+    }
+
+    // strings and bytes
+
+    private void saveUnicode(Object obj, String value) {
+        if (bin) {
+            byte[] encoded = encodeUTF8(value);
+            int size = encoded.length;
+            byte[] header = new byte[5];
+            int headerLen;
+            if (size <= 0xff && proto >= 4) {
+                header[0] = SHORT_BINUNICODE;
+                header[1] = (byte) size;
+                headerLen = 2;
+            } else {
+                header[0] = BINUNICODE;
+                putInt32(header, 1, size);
+                headerLen = 5;
+            }
+            writeBytes(header, headerLen, encoded, size, null);
+        } else {
+            byte[] encoded = encodeRawUnicodeEscape(value);
+            write(UNICODE);
+            write(encoded, 0, encoded.length);
+            write((byte) '\n');
+        }
+        memoPut(obj);
+    }
+
+    private byte[] getBytes(PBytesLike obj) {
+        SequenceStorage storage = obj.getSequenceStorage();
+        if (storage instanceof ByteSequenceStorage) {
+            byte[] internal = ((ByteSequenceStorage) storage).getInternalByteArray();
+            return internal.length == storage.length() ? internal : Arrays.copyOf(internal, storage.length());
+        }
+        try {
+            return lib.getBufferBytes(obj);
+        } catch (UnsupportedMessageException e) {
+            throw CompilerDirectives.shouldNotReachHere(e);
+        }
+    }
+
+    private void saveBytes(PBytes obj) {
+        byte[] data = getBytes(obj);
+        if (proto < 3) {
+            // there is no opcode for bytes, pickle them as a call that also works on Python 2
+            PTuple reduceValue;
+            if (data.length == 0) {
+                reduceValue = factory.createTuple(new Object[]{core.lookupType(PythonBuiltinClassType.PBytes), factory.createEmptyTuple()});
+            } else {
+                String latin1 = new String(data, StandardCharsets.ISO_8859_1);
+                reduceValue = factory.createTuple(new Object[]{state.codecsEncode, factory.createTuple(new Object[]{latin1, "latin1"})});
+            }
+            saveReduce(reduceValue, obj);
+        } else {
+            saveBytesData(obj, data, obj);
+        }
+    }
+
+    private void saveBytesData(Object obj, byte[] data, Object payload) {
+        int size = data.length;
+        byte[] header = new byte[5];
+        int headerLen;
+        if (size <= 0xff) {
+            header[0] = SHORT_BINBYTES;
+            header[1] = (byte) size;
+            headerLen = 2;
+        } else {
+            header[0] = BINBYTES;
+            putInt32(header, 1, size);
+            headerLen = 5;
+        }
+        writeBytes(header, headerLen, data, size, payload);
+        memoPut(obj);
+    }
+
+    private void saveByteArray(PByteArray obj) {
+        byte[] data = getBytes(obj);
+        if (proto < 5) {
+            Object[] args = data.length == 0 ? new Object[0] : new Object[]{factory.createBytes(data.clone())};
+            saveReduce(factory.createTuple(new Object[]{core.lookupType(PythonBuiltinClassType.PByteArray), factory.createTuple(args)}), obj);
+        } else {
+            saveByteArrayData(obj, data);
+        }
+    }
+
+    private void saveByteArrayData(Object obj, byte[] data) {
+        byte[] header = new byte[9];
+        header[0] = BYTEARRAY8;
+        putInt64(header, 1, data.length);
+        writeBytes(header, 9, data, data.length, null);
+        memoPut(obj);
+    }
+
+    private void savePickleBuffer(PPickleBuffer obj) {
+        if (proto < 5) {
+            throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.PICKLE_BUFFER_NEEDS_PROTOCOL_5);
+        }
+        PMemoryView view = obj.getView();
+        if (view == null) {
+            throw raiseNode.raise(ValueError, ErrorMessages.PICKLE_BUFFER_RELEASED);
+        }
+        if (view.getBufferSuboffsets() != null || !(view.isCContiguous() || view.isFortranContiguous())) {
+            throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.PICKLE_BUFFER_NOT_CONTIGUOUS);
+        }
+        boolean inBand = true;
+        Object bufferCallback = pickler.getBufferCallback();
+        if (bufferCallback != null) {
+            inBand = lib.isTrue(callNode.execute(bufferCallback, obj));
+        }
+        if (inBand) {
+            byte[] data;
+            if (view.isCContiguous()) {
+                data = ToJavaBytesNodeGen.getUncached().execute(view);
+            } else {
+                data = ToJavaBytesFortranOrderNodeGen.getUncached().execute(view);
+            }
+            if (view.isReadOnly()) {
+                saveBytesData(obj, data, null);
+            } else {
+                saveByteArrayData(obj, data);
+            }
+        } else {
+            // the buffer is transferred out-of-band
+            write(NEXT_BUFFER);
+            if (view.isReadOnly()) {
+                write(READONLY_BUFFER);
+            }
+        }
+    }
+
+    // containers
+
+    /**
+     * Saves a sequence item, writing primitive items of specialized storages directly.
+     */
+    private void saveStorageItem(SequenceStorage storage, int idx) {
+        if (persistentId == null) {
+            if (storage instanceof IntSequenceStorage) {
+                opcodeBoundary();
+                saveLong(((IntSequenceStorage) storage).getIntItemNormalized(idx));
+                return;
+            } else if (storage instanceof LongSequenceStorage) {
+                opcodeBoundary();
+                saveLong(((LongSequenceStorage) storage).getLongItemNormalized(idx));
+                return;
+            } else if (storage instanceof DoubleSequenceStorage) {
+                opcodeBoundary();
+                saveFloat(((DoubleSequenceStorage) storage).getDoubleItemNormalized(idx));
+                return;
+            }
+        }
+        save(storage.getItemNormalized(idx), false);
+    }
+
+    private void saveTuple(PTuple obj) {
+        SequenceStorage storage = obj.getSequenceStorage();
+        int len = storage.length();
+        if (len == 0) {
+            if (proto > 0) {
+                write(EMPTY_TUPLE);
+            } else {
+                write(MARK, TUPLE);
+            }
+            return;
+        }
+        // if the tuple shows up in the memo after saving its items, it is recursive and the
+        // items are thrown away again
+        if (len <= 3 && proto >= 2) {
+            for (int i = 0; i < len; i++) {
+                saveStorageItem(storage, i);
+            }
+            Integer memoIdx = memo.get(obj);
+            if (memoIdx != null) {
+                for (int i = 0; i < len; i++) {
+                    write(POP);
+                }
+                memoGet(memoIdx);
+                return;
+            }
+            write(LEN_TO_TUPLE_OPCODE[len]);
+        } else {
+            write(MARK);
+            for (int i = 0; i < len; i++) {
+                saveStorageItem(storage, i);
+            }
+            Integer memoIdx = memo.get(obj);
+            if (memoIdx != null) {
+                if (bin) {
+                    write(POP_MARK);
+                } else {
+                    for (int i = 0; i <= len; i++) {
+                        write(POP);
+                    }
+                }
+                memoGet(memoIdx);
+                return;
+            }
+            write(TUPLE);
+        }
+        memoPut(obj);
+    }
+
+    private void saveList(PList obj) {
+        if (pickler.isFast()) {
+            fastSaveEnter(obj);
+        }
+        if (bin) {
+            write(EMPTY_LIST);
+        } else {
+            write(MARK, LIST);
+        }
+        memoPut(obj);
+        if (obj.getSequenceStorage().length() != 0) {
+            if (proto > 0) {
+                batchListExact(obj);
+            } else {
+                batchList(lib.getIterator(obj));
+            }
+        }
+        if (pickler.isFast()) {
+            fastSaveLeave(obj);
+        }
+    }
+
+    private void batchListExact(PList list) {
+        if (list.getSequenceStorage().length() == 1) {
+            saveStorageItem(list.getSequenceStorage(), 0);
+            write(APPEND);
+            return;
+        }
+        int total = 0;
+        do {
+            int batch = 0;
+            write(MARK);
+            // the storage is read again for every item, since saving may modify the list
+            while (total < list.getSequenceStorage().length()) {
+                saveStorageItem(list.getSequenceStorage(), total++);
+                if (++batch == BATCHSIZE) {
+                    break;
+                }
+            }
+            write(APPENDS);
+        } while (total < list.getSequenceStorage().length());
+    }
+
+    private Object next(Object iterator) {
+        try {
+            return GetNextWithoutFrameNodeGen.getUncached().executeWithGlobalState(iterator);
+        } catch (PException e) {
+            e.expectStopIteration(IsBuiltinClassProfile.getUncached());
+            return null;
+        }
+    }
+
+    private void batchList(Object iterator) {
+        if (proto == 0) {
+            // APPENDS is not available, one item at a time
+            Object item;
+            while ((item = next(iterator)) != null) {
+                save(item, false);
+                write(APPEND);
+            }
+            return;
+        }
+        int n = 0;
+        do {
+            Object first = next(iterator);
+            if (first == null) {
+                break;
+            }
+            Object item = next(iterator);
+            if (item == null) {
+                save(first, false);
+                write(APPEND);
+                break;
+            }
+            write(MARK);
+            save(first, false);
+            n = 1;
+            while (item != null) {
+                save(item, false);
+                if (++n == BATCHSIZE) {
+                    break;
+                }
+                item = next(iterator);
+            }
+            write(APPENDS);
+        } while (n == BATCHSIZE);
+    }
+
+    private void saveDict(PDict obj) {
+        if (pickler.isFast()) {
+            fastSaveEnter(obj);
+        }
+        if (bin) {
+            write(EMPTY_DICT);
+        } else {
+            write(MARK, DICT);
+        }
+        memoPut(obj);
+        HashingStorageLibrary hlib = HashingStorageLibrary.getUncached();
+        if (hlib.length(obj.getDictStorage()) != 0) {
+            if (proto > 0) {
+                batchDictExact(obj, hlib);
+            } else {
+                batchDict(lib.getIterator(lib.lookupAndCallRegularMethod(obj, null, "items")));
+            }
+        }
+        if (pickler.isFast()) {
+            fastSaveLeave(obj);
+        }
+    }
+
+    private void batchDictExact(PDict dict, HashingStorageLibrary hlib) {
+        HashingStorage storage = dict.getDictStorage();
+        int size = hlib.length(storage);
+        if (size == 1) {
+            for (DictEntry entry : hlib.entries(storage)) {
+                save(entry.key, false);
+                save(entry.value, false);
+            }
+            write(SETITEM);
+            return;
+        }
+        int batch = 0;
+        write(MARK);
+        for (DictEntry entry : hlib.entries(storage)) {
+            save(entry.key, false);
+            save(entry.value, false);
+            if (hlib.length(dict.getDictStorage()) != size) {
+                throw raiseNode.raise(RuntimeError, ErrorMessages.CHANGED_SIZE_DURING_ITERATION, "dictionary");
+            }
+            if (++batch == BATCHSIZE) {
+                write(SETITEMS);
+                write(MARK);
+                batch = 0;
+            }
+        }
+        write(SETITEMS);
+    }
+
+    private PTuple checkItemTuple(Object item) {
+        if (!(item instanceof PTuple) || ((PTuple) item).getSequenceStorage().length() != 2) {
+            throw raiseNode.raise(TypeError, ErrorMessages.DICT_ITEMS_MUST_RETURN_2_TUPLES);
+        }
+        return (PTuple) item;
+    }
+
+    private void saveItem(PTuple item) {
+        SequenceStorage storage = item.getSequenceStorage();
+        save(storage.getItemNormalized(0), false);
+        save(storage.getItemNormalized(1), false);
+    }
+
+    private void batchDict(Object iterator) {
+        if (proto == 0) {
+            // SETITEMS is not available, one item at a time
+            Object item;
+            while ((item = next(iterator)) != null) {
+                saveItem(checkItemTuple(item));
+                write(SETITEM);
+            }
+            return;
+        }
+        int n = 0;
+        do {
+            Object first = next(iterator);
+            if (first == null) {
+                break;
+            }
+            PTuple firstItem = checkItemTuple(first);
+            Object item = next(iterator);
+            if (item == null) {
+                saveItem(firstItem);
+                write(SETITEM);
+                break;
+            }
+            write(MARK);
+            saveItem(firstItem);
+            n = 1;
+            while (item != null) {
+                saveItem(checkItemTuple(item));
+                if (++n == BATCHSIZE) {
+                    break;
+                }
+                item = next(iterator);
+            }
+            write(SETITEMS);
+        } while (n == BATCHSIZE);
+    }
+
+    private Object[] getSetItems(HashingStorage storage) {
+        ArrayList<Object> items = new ArrayList<>();
+        for (Object key : HashingStorageLibrary.getUncached().keys(storage)) {
+            items.add(key);
+        }
+        return items.toArray();
+    }
+
+    private void saveSet(PSet obj) {
+        HashingStorageLibrary hlib = HashingStorageLibrary.getUncached();
+        if (proto < 4) {
+            PTuple args = factory.createTuple(new Object[]{factory.createList(getSetItems(obj.getDictStorage()))});
+            saveReduce(factory.createTuple(new Object[]{core.lookupType(PythonBuiltinClassType.PSet), args}), obj);
+            return;
+        }
+        write(EMPTY_SET);
+        memoPut(obj);
+        HashingStorage storage = obj.getDictStorage();
+        int size = hlib.length(storage);
+        if (size == 0) {
+            return;
+        }
+        int batch = 0;
+        write(MARK);
+        for (Object item : hlib.keys(storage)) {
+            save(item, false);
+            if (hlib.length(obj.getDictStorage()) != size) {
+                throw raiseNode.raise(RuntimeError, ErrorMessages.CHANGED_SIZE_DURING_ITERATION, "set");
+            }
+            if (++batch == BATCHSIZE) {
+                write(ADDITEMS);
+                write(MARK);
+                batch = 0;
+            }
+        }
+        write(ADDITEMS);
+    }
+
+    private void saveFrozenSet(PFrozenSet obj) {
+        if (proto < 4) {
+            PTuple args = factory.createTuple(new Object[]{factory.createList(getSetItems(obj.getDictStorage()))});
+            saveReduce(factory.createTuple(new Object[]{core.lookupType(PythonBuiltinClassType.PFrozenSet), args}), obj);
+            return;
+        }
+        write(MARK);
+        for (Object item : HashingStorageLibrary.getUncached().keys(obj.getDictStorage())) {
+            save(item, false);
+        }
+        Integer memoIdx = memo.get(obj);
+        if (memoIdx != null) {
+            // the frozenset is recursive, throw the items away again
+            write(POP_MARK);
+            memoGet(memoIdx);
+            return;
+        }
+        write(FROZENSET);
+        memoPut(obj);
+    }
+
+    // globals and reductions
+
+    private void saveType(Object obj) {
+        if (isType(obj, PythonBuiltinClassType.PNone)) {
+            saveSingletonType(obj, PNone.NONE);
+        } else if (isType(obj, PythonBuiltinClassType.PEllipsis)) {
+            saveSingletonType(obj, PEllipsis.INSTANCE);
+        } else if (isType(obj, PythonBuiltinClassType.PNotImplemented)) {
+            saveSingletonType(obj, PNotImplemented.NOT_IMPLEMENTED);
+        } else {
+            saveGlobal(obj, null);
+        }
+    }
+
+    private void saveSingletonType(Object obj, Object singleton) {
+        Object type = normalize(core, lib.getLazyPythonClass(singleton));
+        saveReduce(factory.createTuple(new Object[]{type, factory.createTuple(new Object[]{singleton})}), obj);
+    }
+
+    private String getString(Object obj) {
+        String s = asString(obj);
+        if (s == null) {
+            throw raiseNode.raise(TypeError, ErrorMessages.MUST_BE_STR_NOT_P, obj);
+        }
+        return s;
+    }
+
+    /**
+     * Finds the name of the module that defines the global, searching {@code sys.modules} if
+     * {@code __module__} is not set.
+     */
+    private Object whichModule(Object obj, String[] dottedPath) {
+        Object moduleName = lib.lookupAttribute(obj, null, "__module__");
+        if (moduleName != PNone.NO_VALUE && moduleName != PNone.NONE) {
+            return moduleName;
+        }
+        ArrayList<DictEntry> modules = new ArrayList<>();
+        for (DictEntry entry : HashingStorageLibrary.getUncached().entries(core.getContext().getSysModules().getDictStorage())) {
+            modules.add(entry);
+        }
+        for (DictEntry entry : modules) {
+            if (entry.value == PNone.NONE || "__main__".equals(asString(entry.key))) {
+                continue;
+            }
+            Object candidate;
+            try {
+                candidate = getDeepAttribute(core, entry.value, dottedPath, null);
+            } catch (PException e) {
+                e.expectAttributeError(IsBuiltinClassProfile.getUncached());
+                continue;
+            }
+            if (candidate == obj) {
+                return entry.key;
+            }
+        }
+        return "__main__";
+    }
+
+    private void saveGlobal(Object obj, Object name) {
+        Object globalName = name;
+        if (globalName == null) {
+            globalName = lib.lookupAttribute(obj, null, "__qualname__");
+            if (globalName == PNone.NO_VALUE) {
+                globalName = lib.lookupAttributeStrict(obj, null, "__name__");
+            }
+        }
+        String globalNameStr = getString(globalName);
+        String[] dottedPath = getDottedPath(raiseNode, null, globalNameStr);
+        String moduleName = getString(whichModule(obj, dottedPath));
+
+        Object module;
+        try {
+            module = importModule(moduleName);
+        } catch (PException e) {
+            throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.CANT_PICKLE_IMPORT_FAILED, repr(obj), repr(moduleName));
+        }
+        Object[] parentHolder = new Object[1];
+        Object cls;
+        try {
+            cls = getDeepAttribute(core, module, dottedPath, parentHolder);
+        } catch (PException e) {
+            cls = null;
+        }
+        if (cls == null) {
+            throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.CANT_PICKLE_ATTRIBUTE_LOOKUP_FAILED, repr(obj), globalNameStr, moduleName);
+        }
+        if (cls != obj && !IsNodeGen.getUncached().execute(cls, obj)) {
+            throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.CANT_PICKLE_NOT_SAME_OBJECT, repr(obj), moduleName, globalNameStr);
+        }
+        Object parent = parentHolder[0];
+
+        if (proto >= 2) {
+            // an EXT opcode if the global is in the extension registry
+            Object codeObj = state.extensionRegistry.getItem(factory.createTuple(new Object[]{moduleName, globalNameStr}));
+            if (codeObj != null) {
+                long code;
+                if (codeObj instanceof Integer || codeObj instanceof Long) {
+                    code = ((Number) codeObj).longValue();
+                } else if (codeObj instanceof PInt) {
+                    code = ((PInt) codeObj).getValue().bitLength() < 64 ? ((PInt) codeObj).getValue().longValue() : -1;
+                } else {
+                    throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.CANT_PICKLE_EXTENSION_CODE_NOT_INT, repr(obj), repr(codeObj));
+                }
+                if (code <= 0 || code > 0x7fffffffL) {
+                    throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.CANT_PICKLE_EXTENSION_CODE_OUT_OF_RANGE, repr(obj), code);
+                }
+                if (code <= 0xff) {
+                    write(EXT1, (byte) code);
+                } else if (code <= 0xffff) {
+                    int i = reserve(3);
+                    output[i] = EXT2;
+                    output[i + 1] = (byte) code;
+                    output[i + 2] = (byte) (code >> 8);
+                } else {
+                    writeOpcodeAndInt32(EXT4, (int) code);
+                }
+                return;
+            }
+        }
+
+        String lastName = dottedPath[dottedPath.length - 1];
+        if (parent == module) {
+            globalNameStr = lastName;
+        }
+        if (proto >= 4) {
+            save(moduleName, false);
+            save(globalNameStr, false);
+            write(STACK_GLOBAL);
+        } else if (parent != module) {
+            saveReduce(factory.createTuple(new Object[]{state.getattr, factory.createTuple(new Object[]{parent, lastName})}), null);
+        } else {
+            String[] names = {moduleName, globalNameStr};
+            if (pickler.isFixImports()) {
+                fixImports(names);
+            }
+            write(GLOBAL);
+            writeIdentifier(names[0], ErrorMessages.CANT_PICKLE_MODULE_IDENTIFIER);
+            writeIdentifier(names[1], ErrorMessages.CANT_PICKLE_GLOBAL_IDENTIFIER);
+        }
+        memoPut(obj);
+    }
+
+    /**
+     * Writes a module or global name of the text {@code GLOBAL} opcode. Protocol 3 uses UTF-8,
+     * older protocols are restricted to ASCII so that Python 2 can read them.
+     */
+    private void writeIdentifier(String name, String errorMessage) {
+        byte[] encoded;
+        if (proto == 3) {
+            encoded = encodeUTF8(name);
+        } else {
+            encoded = new byte[name.length()];
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (c >= 128) {
+                    throw raiseNode.raise(PythonBuiltinClassType.PicklingError, errorMessage, name, proto);
+                }
+                encoded[i] = (byte) c;
+            }
+        }
+        write(encoded, 0, encoded.length);
+        write((byte) '\n');
+    }
+
+    /** Maps the module and global names to their Python 2 counterparts. */
+    private void fixImports(String[] names) {
+        Object item = state.nameMapping3to2.getItem(factory.createTuple(new Object[]{names[0], names[1]}));
+        if (item != null) {
+            if (!(item instanceof PTuple) || ((PTuple) item).getSequenceStorage().length() != 2) {
+                throw raiseNode.raise(RuntimeError, ErrorMessages.COMPAT_MAPPING_VALUES_SHOULD_BE_2_TUPLES, "REVERSE_NAME_MAPPING", item);
+            }
+            Object fixedModule = ((PTuple) item).getSequenceStorage().getItemNormalized(0);
+            Object fixedName = ((PTuple) item).getSequenceStorage().getItemNormalized(1);
+            String fixedModuleStr = asString(fixedModule);
+            String fixedNameStr = asString(fixedName);
+            if (fixedModuleStr == null || fixedNameStr == null) {
+                throw raiseNode.raise(RuntimeError, ErrorMessages.COMPAT_MAPPING_VALUES_SHOULD_BE_PAIRS_OF_STR, "REVERSE_NAME_MAPPING", fixedModule, fixedName);
+            }
+            names[0] = fixedModuleStr;
+            names[1] = fixedNameStr;
+            return;
+        }
+        item = state.importMapping3to2.getItem(names[0]);
+        if (item != null) {
+            String fixedModuleStr = asString(item);
+            if (fixedModuleStr == null) {
+                throw raiseNode.raise(RuntimeError, ErrorMessages.COMPAT_MAPPING_VALUES_SHOULD_BE_STRINGS, "REVERSE_IMPORT_MAPPING", item);
+            }
+            names[0] = fixedModuleStr;
+        }
+    }
+
+    private boolean isIterator(Object obj) {
+        return lib.lookupAttributeOnType(obj, __NEXT__) != PNone.NO_VALUE;
+    }
+
+    private void saveReduce(PTuple reduceValue, Object obj) {
+        SequenceStorage storage = reduceValue.getSequenceStorage();
+        int size = storage.length();
+        if (size < 2 || size > 6) {
+            throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.REDUCE_TUPLE_MUST_CONTAIN_2_THROUGH_6);
+        }
+        Object callable = storage.getItemNormalized(0);
+        Object argtup = storage.getItemNormalized(1);
+        Object reduceState = size > 2 ? storage.getItemNormalized(2) : PNone.NONE;
+        Object listItems = size > 3 ? storage.getItemNormalized(3) : PNone.NONE;
+        Object dictItems = size > 4 ? storage.getItemNormalized(4) : PNone.NONE;
+        Object stateSetter = size > 5 ? storage.getItemNormalized(5) : PNone.NONE;
+
+        if (!lib.isCallable(callable)) {
+            throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.REDUCE_FIRST_ITEM_MUST_BE_CALLABLE);
+        }
+        if (!(argtup instanceof PTuple)) {
+            throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.REDUCE_SECOND_ITEM_MUST_BE_TUPLE);
+        }
+        if (listItems != PNone.NONE && !isIterator(listItems)) {
+            throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.REDUCE_FOURTH_ITEM_MUST_BE_ITERATOR, listItems);
+        }
+        if (dictItems != PNone.NONE && !isIterator(dictItems)) {
+            throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.REDUCE_FIFTH_ITEM_MUST_BE_ITERATOR, dictItems);
+        }
+        if (stateSetter != PNone.NONE && !lib.isCallable(stateSetter)) {
+            throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.REDUCE_SIXTH_ITEM_MUST_BE_FUNCTION, stateSetter);
+        }
+
+        boolean useNewobj = false;
+        boolean useNewobjEx = false;
+        if (proto >= 2) {
+            String name = asString(lib.lookupAttribute(callable, null, "__name__"));
+            if (name != null) {
+                useNewobjEx = name.equals("__newobj_ex__");
+                useNewobj = name.equals("__newobj__");
+            }
+        }
+
+        SequenceStorage args = ((PTuple) argtup).getSequenceStorage();
+        if (useNewobjEx) {
+            if (args.length() != 3) {
+                throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.NEWOBJ_EX_ARGS_LENGTH, args.length());
+            }
+            Object cls = args.getItemNormalized(0);
+            if (!IsTypeNodeGen.getUncached().execute(cls)) {
+                throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.NEWOBJ_EX_FIRST_ITEM_MUST_BE_CLASS, cls);
+            }
+            Object newArgs = args.getItemNormalized(1);
+            if (!(newArgs instanceof PTuple)) {
+                throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.NEWOBJ_EX_SECOND_ITEM_MUST_BE_TUPLE, newArgs);
+            }
+            Object kwargs = args.getItemNormalized(2);
+            if (!(kwargs instanceof PDict)) {
+                throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.NEWOBJ_EX_THIRD_ITEM_MUST_BE_DICT, kwargs);
+            }
+            if (proto >= 4) {
+                save(cls, false);
+                save(newArgs, false);
+                save(kwargs, false);
+                write(NEWOBJ_EX);
+            } else {
+                // emulated by partial(cls.__new__, cls, *args, **kwargs)
+                SequenceStorage newArgsStorage = ((PTuple) newArgs).getSequenceStorage();
+                Object[] partialArgs = new Object[newArgsStorage.length() + 2];
+                partialArgs[0] = lib.lookupAttributeStrict(cls, null, "__new__");
+                partialArgs[1] = cls;
+                for (int i = 0; i < newArgsStorage.length(); i++) {
+                    partialArgs[i + 2] = newArgsStorage.getItemNormalized(i);
+                }
+                Object partial = callNode.execute(state.partial, partialArgs, toKeywords((PDict) kwargs));
+                save(partial, false);
+                save(factory.createEmptyTuple(), false);
+                write(REDUCE);
+            }
+        } else if (useNewobj) {
+            if (args.length() < 1) {
+                throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.NEWOBJ_ARGLIST_EMPTY);
+            }
+            Object cls = args.getItemNormalized(0);
+            if (!IsTypeNodeGen.getUncached().execute(cls)) {
+                throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.NEWOBJ_ARGS_NOT_A_TYPE);
+            }
+            if (obj != null) {
+                Object objClass = lib.lookupAttributeStrict(obj, null, "__class__");
+                if (!IsNodeGen.getUncached().execute(normalize(core, objClass), normalize(core, cls))) {
+                    throw raiseNode.raise(PythonBuiltinClassType.PicklingError, ErrorMessages.NEWOBJ_ARGS_WRONG_CLASS);
+                }
+            }
+            save(cls, false);
+            Object[] newArgs = new Object[args.length() - 1];
+            for (int i = 0; i < newArgs.length; i++) {
+                newArgs[i] = args.getItemNormalized(i + 1);
+            }
+            save(factory.createTuple(newArgs), false);
+            write(NEWOBJ);
+        } else {
+            save(callable, false);
+            save(argtup, false);
+            write(REDUCE);
+        }
+
+        // obj is null when the reduction is not for an actual object, which is then not memoized
+        if (obj != null) {
+            Integer memoIdx = memo.get(obj);
+            if (memoIdx != null) {
+                // the object is recursive, replace the constructed one by the memoized one
+                write(POP);
+                memoGet(memoIdx);
+                return;
+            }
+            memoPut(obj);
+        }
+
+        if (listItems != PNone.NONE) {
+            batchList(listItems);
+        }
+        if (dictItems != PNone.NONE) {
+            batchDict(dictItems);
+        }
+        if (reduceState != PNone.NONE) {
+            if (stateSetter == PNone.NONE) {
+                save(reduceState, false);
+                write(BUILD);
+            } else {
+                // state_setter(obj, state) is called with REDUCE and its result thrown away
+                save(stateSetter, false);
+                save(obj, false);
+                save(reduceState, false);
+                write(TUPLE2);
+                write(REDUCE);
+                write(POP);
+            }
+        }
+    }
+
+    private PKeyword[] toKeywords(PDict kwargs) {
+        ArrayList<PKeyword> keywords = new ArrayList<>();
+        for (DictEntry entry : HashingStorageLibrary.getUncached().entries(kwargs.getDictStorage())) {
+            keywords.add(new PKeyword(getString(entry.key), entry.value));
+        }
+        return keywords.toArray(new PKeyword[0]);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.RuntimeError;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.HiddenKey;
+
+/**
+ * The Python objects the pickle module works with, like CPython's {@code PickleState}. They are
+ * looked up on first use, since {@code copyreg} and friends are not available while the core is
+ * initialized.
+ */
+final class PickleState {
+    static final HiddenKey STATE = new HiddenKey("pickleState");
+
+    PDict dispatchTable;
+    PDict extensionRegistry;
+    PDict invertedRegistry;
+    PDict extensionCache;
+    PDict nameMapping2to3;
+    PDict importMapping2to3;
+    PDict nameMapping3to2;
+    PDict importMapping3to2;
+    Object codecsEncode;
+    Object getattr;
+    Object partial;
+    private boolean initialized;
+
+    @TruffleBoundary
+    static PickleState get() {
+        PythonCore core = PythonLanguage.getCore();
+        PythonModule module = core.lookupBuiltinModule("_pickle");
+        PickleState state = (PickleState) module.getAttribute(STATE);
+        if (!state.initialized) {
+            state.initialize(core);
+        }
+        return state;
+    }
+
+    private void initialize(PythonCore core) {
+        dispatchTable = getDict(core, "copyreg", "dispatch_table");
+        extensionRegistry = getDict(core, "copyreg", "_extension_registry");
+        invertedRegistry = getDict(core, "copyreg", "_inverted_registry");
+        extensionCache = getDict(core, "copyreg", "_extension_cache");
+        nameMapping2to3 = getDict(core, "_compat_pickle", "NAME_MAPPING");
+        importMapping2to3 = getDict(core, "_compat_pickle", "IMPORT_MAPPING");
+        nameMapping3to2 = getDict(core, "_compat_pickle", "REVERSE_NAME_MAPPING");
+        importMapping3to2 = getDict(core, "_compat_pickle", "REVERSE_IMPORT_MAPPING");
+        codecsEncode = PickleUtils.getModuleAttribute("codecs", "encode");
+        getattr = core.getBuiltins().getAttribute("getattr");
+        partial = PickleUtils.getModuleAttribute("functools", "partial");
+        initialized = true;
+    }
+
+    private static PDict getDict(PythonCore core, String moduleName, String name) {
+        Object obj = PickleUtils.getModuleAttribute(moduleName, name);
+        if (!(obj instanceof PDict)) {
+            throw core.raise(RuntimeError, ErrorMessages.S_SHOULD_BE_A_DICT_NOT_P, moduleName + "." + name, obj);
+        }
+        return (PDict) obj;
+    }
+}
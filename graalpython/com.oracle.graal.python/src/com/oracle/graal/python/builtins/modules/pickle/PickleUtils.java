@@ -0,0 +1,434 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.AttributeError;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.statement.AbstractImportNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Opcodes and helpers shared by the pickler and the unpickler, following CPython's
+ * {@code Modules/_pickle.c}.
+ */
+final class PickleUtils {
+
+    static final int HIGHEST_PROTOCOL = 5;
+    static final int DEFAULT_PROTOCOL = 4;
+
+    /** The number of items written between two {@code MARK} and {@code APPENDS/SETITEMS}. */
+    static final int BATCHSIZE = 1000;
+    /** The nesting depth from which the fast mode starts to check for cycles. */
+    static final int FAST_NESTING_LIMIT = 50;
+    static final int FRAME_SIZE_MIN = 4;
+    static final int FRAME_SIZE_TARGET = 64 * 1024;
+    static final int FRAME_HEADER_SIZE = 9;
+
+    // protocol 0 and 1
+    static final byte MARK = '(';
+    static final byte STOP = '.';
+    static final byte POP = '0';
+    static final byte POP_MARK = '1';
+    static final byte DUP = '2';
+    static final byte FLOAT = 'F';
+    static final byte INT = 'I';
+    static final byte BININT = 'J';
+    static final byte BININT1 = 'K';
+    static final byte LONG = 'L';
+    static final byte BININT2 = 'M';
+    static final byte NONE = 'N';
+    static final byte PERSID = 'P';
+    static final byte BINPERSID = 'Q';
+    static final byte REDUCE = 'R';
+    static final byte STRING = 'S';
+    static final byte BINSTRING = 'T';
+    static final byte SHORT_BINSTRING = 'U';
+    static final byte UNICODE = 'V';
+    static final byte BINUNICODE = 'X';
+    static final byte APPEND = 'a';
+    static final byte BUILD = 'b';
+    static final byte GLOBAL = 'c';
+    static final byte DICT = 'd';
+    static final byte EMPTY_DICT = '}';
+    static final byte APPENDS = 'e';
+    static final byte GET = 'g';
+    static final byte BINGET = 'h';
+    static final byte INST = 'i';
+    static final byte LONG_BINGET = 'j';
+    static final byte LIST = 'l';
+    static final byte EMPTY_LIST = ']';
+    static final byte OBJ = 'o';
+    static final byte PUT = 'p';
+    static final byte BINPUT = 'q';
+    static final byte LONG_BINPUT = 'r';
+    static final byte SETITEM = 's';
+    static final byte TUPLE = 't';
+    static final byte EMPTY_TUPLE = ')';
+    static final byte SETITEMS = 'u';
+    static final byte BINFLOAT = 'G';
+
+    // protocol 2
+    static final byte PROTO = (byte) 0x80;
+    static final byte NEWOBJ = (byte) 0x81;
+    static final byte EXT1 = (byte) 0x82;
+    static final byte EXT2 = (byte) 0x83;
+    static final byte EXT4 = (byte) 0x84;
+    static final byte TUPLE1 = (byte) 0x85;
+    static final byte TUPLE2 = (byte) 0x86;
+    static final byte TUPLE3 = (byte) 0x87;
+    static final byte NEWTRUE = (byte) 0x88;
+    static final byte NEWFALSE = (byte) 0x89;
+    static final byte LONG1 = (byte) 0x8a;
+    static final byte LONG4 = (byte) 0x8b;
+
+    // protocol 3
+    static final byte BINBYTES = 'B';
+    static final byte SHORT_BINBYTES = 'C';
+
+    // protocol 4
+    static final byte SHORT_BINUNICODE = (byte) 0x8c;
+    static final byte BINUNICODE8 = (byte) 0x8d;
+    static final byte BINBYTES8 = (byte) 0x8e;
+    static final byte EMPTY_SET = (byte) 0x8f;
+    static final byte ADDITEMS = (byte) 0x90;
+    static final byte FROZENSET = (byte) 0x91;
+    static final byte NEWOBJ_EX = (byte) 0x92;
+    static final byte STACK_GLOBAL = (byte) 0x93;
+    static final byte MEMOIZE = (byte) 0x94;
+    static final byte FRAME = (byte) 0x95;
+
+    // protocol 5
+    static final byte BYTEARRAY8 = (byte) 0x96;
+    static final byte NEXT_BUFFER = (byte) 0x97;
+    static final byte READONLY_BUFFER = (byte) 0x98;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private PickleUtils() {
+    }
+
+    @TruffleBoundary
+    static String repr(Object obj) {
+        return CastToJavaStringNode.getUncached().execute(PythonObjectLibrary.getUncached().lookupAndCallSpecialMethod(obj, null, __REPR__));
+    }
+
+    @TruffleBoundary
+    static String str(Object obj) {
+        return CastToJavaStringNode.getUncached().execute(PythonObjectLibrary.getUncached().lookupAndCallSpecialMethod(obj, null, __STR__));
+    }
+
+    /**
+     * Imports the module with the given (possibly dotted) name and returns the module itself, not
+     * the top-level package, like {@code PyImport_Import}.
+     */
+    @TruffleBoundary
+    static Object importModule(String name) {
+        Object topLevel = AbstractImportNode.importModule(name);
+        if (name.indexOf('.') < 0) {
+            return topLevel;
+        }
+        Object module = PythonLanguage.getContext().getSysModules().getItem(name);
+        return module != null ? module : topLevel;
+    }
+
+    @TruffleBoundary
+    static Object getModuleAttribute(String moduleName, String name) {
+        Object module = importModule(moduleName);
+        return PythonObjectLibrary.getUncached().lookupAttributeStrict(module, null, name);
+    }
+
+    /** Returns the Java string of a Python {@code str} or {@code null} for other objects. */
+    static String asString(Object obj) {
+        try {
+            return CastToJavaStringNode.getUncached().execute(obj);
+        } catch (CannotCastException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Splits a qualified name into its components, rejecting names of local objects. The
+     * {@code obj} is the object the name is looked up on or {@code null} when pickling.
+     */
+    @TruffleBoundary
+    static String[] getDottedPath(PRaiseNode raiseNode, Object obj, String name) {
+        String[] path = name.split("\\.", -1);
+        for (String component : path) {
+            if (component.equals("<locals>")) {
+                if (obj == null) {
+                    throw raiseNode.raise(AttributeError, ErrorMessages.CANT_PICKLE_LOCAL_OBJECT, repr(name));
+                } else {
+                    throw raiseNode.raise(AttributeError, ErrorMessages.CANT_GET_LOCAL_ATTRIBUTE, repr(name), repr(obj));
+                }
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Looks up the components of a dotted path starting at {@code obj}. Returns {@code null} if an
+     * attribute is missing. The object holding the last attribute is stored into {@code parent}
+     * if given.
+     */
+    @TruffleBoundary
+    static Object getDeepAttribute(PythonCore core, Object obj, String[] path, Object[] parent) {
+        PythonObjectLibrary lib = PythonObjectLibrary.getUncached();
+        Object current = obj;
+        Object currentParent = null;
+        for (String name : path) {
+            currentParent = current;
+            current = lib.lookupAttribute(current, null, name);
+            if (current == PNone.NO_VALUE) {
+                return null;
+            }
+        }
+        if (parent != null) {
+            parent[0] = currentParent;
+        }
+        return normalize(core, current);
+    }
+
+    /** Replaces the lazy builtin class by the class object, so that it can be compared by identity. */
+    static Object normalize(PythonCore core, Object obj) {
+        if (obj instanceof PythonBuiltinClassType) {
+            return core.lookupType((PythonBuiltinClassType) obj);
+        }
+        return obj;
+    }
+
+    /**
+     * Encodes the string to UTF-8 with the {@code surrogatepass} error handler, so that lone
+     * surrogates are written as three-byte sequences instead of being rejected.
+     */
+    static byte[] encodeUTF8(String s) {
+        int length = s.length();
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                size++;
+            } else if (c < 0x800) {
+                size += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                size += 4;
+                i++;
+            } else {
+                size += 3;
+            }
+        }
+        byte[] result = new byte[size];
+        if (size == length) {
+            // pure ASCII
+            for (int i = 0; i < length; i++) {
+                result[i] = (byte) s.charAt(i);
+            }
+            return result;
+        }
+        int pos = 0;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                result[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                result[pos++] = (byte) (0xc0 | (c >> 6));
+                result[pos++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                result[pos++] = (byte) (0xf0 | (cp >> 18));
+                result[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                result[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                result[pos++] = (byte) (0x80 | (cp & 0x3f));
+            } else {
+                result[pos++] = (byte) (0xe0 | (c >> 12));
+                result[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                result[pos++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Decodes UTF-8 with the {@code surrogatepass} error handler. Returns {@code null} if the data
+     * is malformed, so that the caller can let the codec report the error.
+     */
+    static String decodeUTF8(byte[] data, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        while (i < end && data[i] >= 0) {
+            i++;
+        }
+        if (i == end) {
+            // pure ASCII
+            char[] chars = new char[length];
+            for (int j = 0; j < length; j++) {
+                chars[j] = (char) data[offset + j];
+            }
+            return new String(chars);
+        }
+        StringBuilder sb = new StringBuilder(length);
+        for (int j = offset; j < i; j++) {
+            sb.append((char) data[j]);
+        }
+        while (i < end) {
+            int b0 = data[i] & 0xff;
+            if (b0 < 0x80) {
+                sb.append((char) b0);
+                i++;
+            } else if (b0 >= 0xc2 && b0 < 0xe0) {
+                if (i + 1 >= end || !isContinuation(data[i + 1])) {
+                    return null;
+                }
+                sb.append((char) (((b0 & 0x1f) << 6) | (data[i + 1] & 0x3f)));
+                i += 2;
+            } else if (b0 >= 0xe0 && b0 < 0xf0) {
+                if (i + 2 >= end || !isContinuation(data[i + 1]) || !isContinuation(data[i + 2])) {
+                    return null;
+                }
+                int c = ((b0 & 0x0f) << 12) | ((data[i + 1] & 0x3f) << 6) | (data[i + 2] & 0x3f);
+                if (c < 0x800) {
+                    return null;
+                }
+                sb.append((char) c);
+                i += 3;
+            } else if (b0 >= 0xf0 && b0 < 0xf5) {
+                if (i + 3 >= end || !isContinuation(data[i + 1]) || !isContinuation(data[i + 2]) || !isContinuation(data[i + 3])) {
+                    return null;
+                }
+                int cp = ((b0 & 0x07) << 18) | ((data[i + 1] & 0x3f) << 12) | ((data[i + 2] & 0x3f) << 6) | (data[i + 3] & 0x3f);
+                if (cp < 0x10000 || cp > Character.MAX_CODE_POINT) {
+                    return null;
+                }
+                sb.appendCodePoint(cp);
+                i += 4;
+            } else {
+                return null;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean isContinuation(byte b) {
+        return (b & 0xc0) == 0x80;
+    }
+
+    /**
+     * The {@code raw-unicode-escape} encoding as used by the text protocol, which additionally
+     * escapes backslashes, newlines and a few other characters that would confuse the reader.
+     */
+    static byte[] encodeRawUnicodeEscape(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length();) {
+            int ch = s.codePointAt(i);
+            i += Character.charCount(ch);
+            if (ch >= 0x10000) {
+                sb.append("\\U");
+                appendHex(sb, ch, 8);
+            } else if (ch >= 256 || ch == '\\' || ch == 0 || ch == '\n' || ch == '\r' || ch == 0x1a) {
+                sb.append("\\u");
+                appendHex(sb, ch, 4);
+            } else {
+                sb.append((char) ch);
+            }
+        }
+        byte[] result = new byte[sb.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (byte) sb.charAt(i);
+        }
+        return result;
+    }
+
+    private static void appendHex(StringBuilder sb, int value, int digits) {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            sb.append(HEX_DIGITS[(value >> shift) & 0xf]);
+        }
+    }
+
+    /**
+     * Decodes {@code raw-unicode-escape} data. Returns {@code null} on a malformed escape, so that
+     * the caller can let the codec report the error.
+     */
+    static String decodeRawUnicodeEscape(byte[] data, int offset, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            int c = data[i++] & 0xff;
+            if (c != '\\' || i >= end) {
+                sb.append((char) c);
+                continue;
+            }
+            int next = data[i++] & 0xff;
+            int count;
+            if (next == 'u') {
+                count = 4;
+            } else if (next == 'U') {
+                count = 8;
+            } else {
+                sb.append('\\').append((char) next);
+                continue;
+            }
+            int ch = 0;
+            for (; count > 0 && i < end; count--, i++) {
+                int digit = Character.digit(data[i] & 0xff, 16);
+                if (digit < 0) {
+                    return null;
+                }
+                ch = (ch << 4) | digit;
+            }
+            if (count > 0 || ch < 0 || ch > Character.MAX_CODE_POINT) {
+                return null;
+            }
+            sb.appendCodePoint(ch);
+        }
+        return sb.toString();
+    }
+}
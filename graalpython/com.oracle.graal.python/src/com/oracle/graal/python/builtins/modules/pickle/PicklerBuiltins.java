@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.builtins.modules.pickle.PickleUtils.HIGHEST_PROTOCOL;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.AttributeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PPickler)
+public final class PicklerBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return PicklerBuiltinsFactory.getFactories();
+    }
+
+    static void initPickler(PRaiseNode raiseNode, PPickler pickler, Object write, int protocol, boolean fixImports, Object bufferCallback) {
+        // a negative protocol selects the highest one
+        int proto = protocol < 0 ? HIGHEST_PROTOCOL : protocol;
+        if (proto > HIGHEST_PROTOCOL) {
+            throw raiseNode.raise(ValueError, ErrorMessages.PICKLE_PROTOCOL_MUST_BE_LE, HIGHEST_PROTOCOL);
+        }
+        Object callback = PNone.NONE == bufferCallback || PNone.NO_VALUE == bufferCallback ? null : bufferCallback;
+        if (callback != null && proto < 5) {
+            throw raiseNode.raise(ValueError, ErrorMessages.BUFFER_CALLBACK_NEEDS_PROTOCOL_5);
+        }
+        pickler.init(write, proto, fixImports, callback);
+    }
+
+    /** Pickles the object and returns the pickle, or {@code null} if it was written to the file. */
+    @TruffleBoundary
+    static PBytes dump(PRaiseNode raiseNode, PythonObjectFactory factory, PPickler pickler, Object obj) {
+        PickleSaver saver = new PickleSaver(pickler, factory, raiseNode);
+        saver.dump(obj);
+        return pickler.getWrite() == null ? saver.getOutput() : null;
+    }
+
+    // Pickler(file, protocol=None, fix_imports=True, buffer_callback=None)
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "file", "protocol", "fix_imports", "buffer_callback"})
+    @ArgumentClinic(name = "protocol", conversion = ClinicConversion.Int, defaultValue = "PickleUtils.DEFAULT_PROTOCOL", useDefaultForNone = true)
+    @ArgumentClinic(name = "fix_imports", conversion = ClinicConversion.Boolean, defaultValue = "true")
+    @GenerateNodeFactory
+    public abstract static class InitNode extends PythonClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return PicklerBuiltinsClinicProviders.InitNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(limit = "3")
+        Object init(VirtualFrame frame, PPickler self, Object file, int protocol, boolean fixImports, Object bufferCallback,
+                        @CachedLibrary("file") PythonObjectLibrary lib,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary selfLib) {
+            Object write = lib.lookupAttribute(file, frame, "write");
+            if (write == PNone.NO_VALUE) {
+                throw raise(TypeError, ErrorMessages.FILE_MUST_HAVE_WRITE_ATTR);
+            }
+            initPickler(getRaiseNode(), self, write, protocol, fixImports, bufferCallback);
+            // subclasses may define these as methods or class attributes
+            Object persistentId = selfLib.lookupAttribute(self, frame, "persistent_id");
+            if (persistentId != PNone.NO_VALUE) {
+                self.setPersistentId(persistentId);
+            }
+            Object dispatchTable = selfLib.lookupAttribute(self, frame, "dispatch_table");
+            if (dispatchTable != PNone.NO_VALUE) {
+                self.setDispatchTable(dispatchTable);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "dump", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class DumpNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object dump(PPickler self, Object obj) {
+            if (!self.isInitialized()) {
+                throw raise(PythonBuiltinClassType.PicklingError, ErrorMessages.PICKLER_INIT_NOT_CALLED, self);
+            }
+            PicklerBuiltins.dump(getRaiseNode(), factory(), self, obj);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "clear_memo", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class ClearMemoNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object clearMemo(PPickler self) {
+            self.getMemo().clear();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "persistent_id", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    public abstract static class PersistentIdNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(none)")
+        Object get(PPickler self, @SuppressWarnings("unused") PNone none) {
+            if (self.getPersistentId() == null) {
+                throw raise(AttributeError, ErrorMessages.OBJ_P_HAS_NO_ATTR_S, self, "persistent_id");
+            }
+            return self.getPersistentId();
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        static Object set(PPickler self, Object value) {
+            self.setPersistentId(value);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "dispatch_table", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    public abstract static class DispatchTableNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(none)")
+        Object get(PPickler self, @SuppressWarnings("unused") PNone none) {
+            if (self.getDispatchTable() == null) {
+                throw raise(AttributeError, ErrorMessages.OBJ_P_HAS_NO_ATTR_S, self, "dispatch_table");
+            }
+            return self.getDispatchTable();
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        static Object set(PPickler self, Object value) {
+            self.setDispatchTable(value);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "fast", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    public abstract static class FastNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(none)")
+        static Object get(PPickler self, @SuppressWarnings("unused") PNone none) {
+            return self.isFast();
+        }
+
+        @Specialization(guards = "!isNoValue(value)", limit = "3")
+        static Object set(VirtualFrame frame, PPickler self, Object value,
+                        @CachedLibrary("value") PythonObjectLibrary lib) {
+            self.setFast(lib.isTrue(value, frame));
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "bin", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class BinNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object get(PPickler self) {
+            return self.isBin();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.pickle;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.AttributeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PUnpickler)
+public final class UnpicklerBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return UnpicklerBuiltinsFactory.getFactories();
+    }
+
+    /** Returns the iterator over the out-of-band buffers or {@code null} if none were given. */
+    static Object getBuffersIterator(VirtualFrame frame, Object buffers, PythonObjectLibrary lib) {
+        if (buffers == PNone.NO_VALUE || buffers == PNone.NONE) {
+            return null;
+        }
+        return lib.getIteratorWithFrame(buffers, frame);
+    }
+
+    @TruffleBoundary
+    static Object load(PythonCore core, PRaiseNode raiseNode, PythonObjectFactory factory, PUnpickler unpickler) {
+        return new PickleLoader(unpickler, core, factory, raiseNode).load();
+    }
+
+    // Unpickler(file, *, fix_imports=True, encoding="ASCII", errors="strict", buffers=())
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 2, parameterNames = {"$self", "file"}, keywordOnlyNames = {"fix_imports", "encoding", "errors", "buffers"})
+    @ArgumentClinic(name = "fix_imports", conversion = ClinicConversion.Boolean, defaultValue = "true")
+    @ArgumentClinic(name = "encoding", conversion = ClinicConversion.String, defaultValue = "\"ASCII\"")
+    @ArgumentClinic(name = "errors", conversion = ClinicConversion.String, defaultValue = "\"strict\"")
+    @GenerateNodeFactory
+    public abstract static class InitNode extends PythonClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return UnpicklerBuiltinsClinicProviders.InitNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(limit = "3")
+        Object init(VirtualFrame frame, PUnpickler self, Object file, boolean fixImports, String encoding, String errors, Object buffers,
+                        @CachedLibrary("file") PythonObjectLibrary lib,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary otherLib) {
+            Object read = lib.lookupAttribute(file, frame, "read");
+            Object readline = lib.lookupAttribute(file, frame, "readline");
+            if (read == PNone.NO_VALUE || readline == PNone.NO_VALUE) {
+                throw raise(TypeError, ErrorMessages.FILE_MUST_HAVE_READ_AND_READLINE_ATTRS);
+            }
+            self.init(null, read, readline, encoding, errors, getBuffersIterator(frame, buffers, otherLib), fixImports);
+            // subclasses may define persistent_load as a method
+            Object persistentLoad = otherLib.lookupAttribute(self, frame, "persistent_load");
+            if (persistentLoad != PNone.NO_VALUE) {
+                self.setPersistentLoad(persistentLoad);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "load", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class LoadNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object load(PUnpickler self) {
+            if (!self.isInitialized()) {
+                throw raise(PythonBuiltinClassType.UnpicklingError, ErrorMessages.UNPICKLER_INIT_NOT_CALLED, self);
+            }
+            return UnpicklerBuiltins.load(getCore(), getRaiseNode(), factory(), self);
+        }
+    }
+
+    @Builtin(name = "find_class", minNumOfPositionalArgs = 3, parameterNames = {"$self", "module_name", "global_name"})
+    @GenerateNodeFactory
+    public abstract static class FindClassNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object findClass(PUnpickler self, Object moduleName, Object globalName) {
+            return doFindClass(self, moduleName, globalName);
+        }
+
+        @TruffleBoundary
+        private Object doFindClass(PUnpickler self, Object moduleName, Object globalName) {
+            return PickleLoader.findClass(self, PickleState.get(), getCore(), factory(), getRaiseNode(), moduleName, globalName);
+        }
+    }
+
+    @Builtin(name = "persistent_load", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    public abstract static class PersistentLoadNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(none)")
+        Object get(PUnpickler self, @SuppressWarnings("unused") PNone none) {
+            if (self.getPersistentLoad() == null) {
+                throw raise(AttributeError, ErrorMessages.OBJ_P_HAS_NO_ATTR_S, self, "persistent_load");
+            }
+            return self.getPersistentLoad();
+        }
+
+        @Specialization(guards = "!isNoValue(value)")
+        static Object set(PUnpickler self, Object value) {
+            self.setPersistentLoad(value);
+            return PNone.NONE;
+        }
+    }
+
+    /**
+     * The memo is exposed as a copy, like the {@code memo} attribute of CPython's unpickler.
+     */
+    @Builtin(name = "memo", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    public abstract static class MemoNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "isNoValue(none)")
+        Object get(PUnpickler self, @SuppressWarnings("unused") PNone none) {
+            return copyMemo(self);
+        }
+
+        @TruffleBoundary
+        private PDict copyMemo(PUnpickler self) {
+            PDict dict = factory().createDict();
+            Object[] memo = self.getMemo();
+            for (int i = 0; i < memo.length; i++) {
+                if (memo[i] != null) {
+                    dict.setItem(i, memo[i]);
+                }
+            }
+            return dict;
+        }
+
+        @Specialization
+        Object set(PUnpickler self, PDict value) {
+            setMemo(self, value);
+            return PNone.NONE;
+        }
+
+        @TruffleBoundary
+        private void setMemo(PUnpickler self, PDict value) {
+            PythonObjectLibrary lib = PythonObjectLibrary.getUncached();
+            Object[] keys = new Object[HashingStorageLibrary.getUncached().length(value.getDictStorage())];
+            Object[] values = new Object[keys.length];
+            int i = 0;
+            for (DictEntry entry : HashingStorageLibrary.getUncached().entries(value.getDictStorage())) {
+                if (!lib.canBeIndex(entry.key) || lib.asJavaLong(entry.key) < 0 || lib.asJavaLong(entry.key) > Integer.MAX_VALUE) {
+                    throw raise(ValueError, ErrorMessages.MEMO_KEY_MUST_BE_POSITIVE_INTEGERS);
+                }
+                keys[i] = entry.key;
+                values[i++] = entry.value;
+            }
+            self.clearMemo();
+            for (int j = 0; j < i; j++) {
+                self.putMemo((int) lib.asJavaLong(keys[j]), values[j]);
+            }
+        }
+
+        @Specialization(guards = {"!isNoValue(value)", "!isDict(value)"})
+        Object setError(@SuppressWarnings("unused") PUnpickler self, Object value) {
+            throw raise(TypeError, ErrorMessages.MEMO_MUST_BE_DICT, value);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.struct;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.StructError;
+
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A compiled struct format string, like CPython's {@code PyStructObject} without the Python object
+ * around it. The format is split into codes, each of which packs {@link #getRepeat repeat} items of
+ * the same kind at consecutive offsets. Strings ({@code 's'} and {@code 'p'}) are a single item of
+ * {@link #getItemSize size} bytes, and padding bytes are not represented at all.
+ * <p>
+ * Compiled formats are immutable and shared between contexts through a global cache keyed by the
+ * format string, so that the module-level functions do not parse their format on every call.
+ */
+public final class StructFormat {
+    /** The maximum number of cached formats, like {@code MAXCACHE} in CPython. */
+    private static final int MAX_CACHE_SIZE = 100;
+
+    private static final Map<String, StructFormat> CACHE = new LinkedHashMap<String, StructFormat>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, StructFormat> eldest) {
+            return size() > MAX_CACHE_SIZE;
+        }
+    };
+
+    private static final boolean NATIVE_BIG_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
+    private final String format;
+    /** Whether native sizes and alignment are used, i.e., the format starts with {@code '@'}. */
+    private final boolean nativeMode;
+    private final boolean bigEndian;
+    private final int size;
+    private final int itemCount;
+    @CompilationFinal(dimensions = 1) private final char[] codes;
+    @CompilationFinal(dimensions = 1) private final int[] offsets;
+    @CompilationFinal(dimensions = 1) private final int[] itemSizes;
+    @CompilationFinal(dimensions = 1) private final int[] repeats;
+
+    private StructFormat(String format, boolean nativeMode, boolean bigEndian, int size, int itemCount, char[] codes, int[] offsets, int[] itemSizes, int[] repeats) {
+        this.format = format;
+        this.nativeMode = nativeMode;
+        this.bigEndian = bigEndian;
+        this.size = size;
+        this.itemCount = itemCount;
+        this.codes = codes;
+        this.offsets = offsets;
+        this.itemSizes = itemSizes;
+        this.repeats = repeats;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public boolean isNativeMode() {
+        return nativeMode;
+    }
+
+    public boolean isBigEndian() {
+        return bigEndian;
+    }
+
+    /**
+     * Returns the number of bytes of a packed struct.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of Python values of a packed struct.
+     */
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public int getCodeCount() {
+        return codes.length;
+    }
+
+    public char getCode(int i) {
+        return codes[i];
+    }
+
+    public int getOffset(int i) {
+        return offsets[i];
+    }
+
+    public int getItemSize(int i) {
+        return itemSizes[i];
+    }
+
+    public int getRepeat(int i) {
+        return repeats[i];
+    }
+
+    /**
+     * Returns the compiled format for the given format string, parsing it if it is not cached yet.
+     * Raises {@code struct.error} for invalid formats.
+     */
+    @TruffleBoundary
+    public static StructFormat lookup(String format) {
+        synchronized (CACHE) {
+            StructFormat cached = CACHE.get(format);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        StructFormat result = parse(format);
+        synchronized (CACHE) {
+            CACHE.put(format, result);
+        }
+        return result;
+    }
+
+    @TruffleBoundary
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    private static StructFormat parse(String format) {
+        int length = format.length();
+        int pos = 0;
+        boolean nativeMode = false;
+        boolean bigEndian = NATIVE_BIG_ENDIAN;
+        switch (length > 0 ? format.charAt(0) : '@') {
+            case '<':
+                bigEndian = false;
+                pos++;
+                break;
+            case '>':
+            case '!':
+                bigEndian = true;
+                pos++;
+                break;
+            case '=':
+                pos++;
+                break;
+            case '@':
+                pos = length > 0 ? 1 : 0;
+                nativeMode = true;
+                break;
+            default:
+                nativeMode = true;
+                break;
+        }
+
+        char[] codes = new char[length];
+        int[] offsets = new int[length];
+        int[] itemSizes = new int[length];
+        int[] repeats = new int[length];
+        int codeCount = 0;
+        long size = 0;
+        int itemCount = 0;
+        while (pos < length) {
+            char c = format.charAt(pos++);
+            if (isSpace(c)) {
+                continue;
+            }
+            int num = 1;
+            if (isDigit(c)) {
+                num = c - '0';
+                while (true) {
+                    if (pos >= length) {
+                        throw PRaiseNode.getUncached().raise(StructError, ErrorMessages.REPEAT_COUNT_WITHOUT_FMT);
+                    }
+                    c = format.charAt(pos++);
+                    if (!isDigit(c)) {
+                        break;
+                    }
+                    if (num > (Integer.MAX_VALUE - (c - '0')) / 10) {
+                        throw PRaiseNode.getUncached().raise(StructError, ErrorMessages.TOTAL_STRUCT_SIZE_TOO_LONG);
+                    }
+                    num = num * 10 + (c - '0');
+                }
+            }
+            int itemSize = getItemSize(c, nativeMode);
+            if (itemSize < 0) {
+                throw PRaiseNode.getUncached().raise(StructError, ErrorMessages.BAD_CHAR_IN_STRUCT_FORMAT);
+            }
+            if (nativeMode && size % itemSize != 0) {
+                // native alignment is the size of the item
+                size += itemSize - size % itemSize;
+            }
+            if (c == 's' || c == 'p') {
+                codes[codeCount] = c;
+                offsets[codeCount] = (int) size;
+                itemSizes[codeCount] = num;
+                repeats[codeCount] = 1;
+                codeCount++;
+                itemCount++;
+            } else if (c != 'x' && num > 0) {
+                codes[codeCount] = c;
+                offsets[codeCount] = (int) size;
+                itemSizes[codeCount] = itemSize;
+                repeats[codeCount] = num;
+                codeCount++;
+                itemCount += num;
+            }
+            size += (long) num * itemSize;
+            if (size > Integer.MAX_VALUE) {
+                throw PRaiseNode.getUncached().raise(StructError, ErrorMessages.TOTAL_STRUCT_SIZE_TOO_LONG);
+            }
+        }
+        return new StructFormat(format, nativeMode, bigEndian, (int) size, itemCount, Arrays.copyOf(codes, codeCount), Arrays.copyOf(offsets, codeCount),
+                        Arrays.copyOf(itemSizes, codeCount), Arrays.copyOf(repeats, codeCount));
+    }
+
+    /**
+     * Returns the size of a single item of the given format character, or {@code -1} if the
+     * character is not valid in the given mode.
+     */
+    private static int getItemSize(char c, boolean nativeMode) {
+        switch (c) {
+            case 'x':
+            case 'c':
+            case 'b':
+            case 'B':
+            case '?':
+            case 's':
+            case 'p':
+                return 1;
+            case 'h':
+            case 'H':
+            case 'e':
+                return 2;
+            case 'i':
+            case 'I':
+            case 'f':
+                return 4;
+            case 'l':
+            case 'L':
+                return nativeMode ? 8 : 4;
+            case 'q':
+            case 'Q':
+            case 'd':
+                return 8;
+            case 'n':
+            case 'N':
+            case 'P':
+                return nativeMode ? 8 : -1;
+            default:
+                return -1;
+        }
+    }
+
+    static boolean isUnsigned(char code) {
+        switch (code) {
+            case 'B':
+            case 'H':
+            case 'I':
+            case 'L':
+            case 'Q':
+            case 'N':
+            case 'P':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\u000b' || c == '\f';
+    }
+}
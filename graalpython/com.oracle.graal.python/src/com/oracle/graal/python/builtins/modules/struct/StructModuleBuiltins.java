@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.struct;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonVarargsBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.exception.PythonErrorType;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+/**
+ * The {@code _struct} module. The module-level functions share the compiled formats with
+ * {@link PStruct} objects through the {@link StructFormat} cache.
+ */
+@CoreFunctions(defineModule = "_struct")
+public class StructModuleBuiltins extends PythonBuiltins {
+
+    public StructModuleBuiltins() {
+        builtinConstants.put("error", PythonErrorType.StructError);
+    }
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return StructModuleBuiltinsFactory.getFactories();
+    }
+
+    // Struct(format)
+    @Builtin(name = "Struct", minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, constructsClass = PythonBuiltinClassType.PStruct)
+    @GenerateNodeFactory
+    abstract static class StructNode extends PythonVarargsBuiltinNode {
+        @Specialization(guards = "lib.isLazyPythonClass(cls)")
+        PStruct doGeneric(Object cls, @SuppressWarnings("unused") Object[] args, @SuppressWarnings("unused") PKeyword[] kwargs,
+                        @SuppressWarnings("unused") @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            // the format is set by __init__
+            return factory().createStruct(cls, StructFormat.lookup(""));
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        PStruct doError(Object cls, Object[] args, PKeyword[] kwargs) {
+            throw raise(PythonBuiltinClassType.TypeError, ErrorMessages.IS_NOT_TYPE_OBJ, "'cls'", cls);
+        }
+    }
+
+    // pack(format, v1, v2, ...)
+    @Builtin(name = "pack", minNumOfPositionalArgs = 1, parameterNames = {"format"}, takesVarArgs = true)
+    @GenerateNodeFactory
+    abstract static class PackNode extends PythonBuiltinNode {
+        @Specialization
+        static PBytes pack(VirtualFrame frame, Object format, Object[] args,
+                        @Cached StructNodes.GetFormatNode getFormatNode,
+                        @Cached StructNodes.PackNode packNode) {
+            return packNode.execute(frame, getFormatNode.execute(format), args);
+        }
+    }
+
+    // pack_into(format, buffer, offset, v1, v2, ...)
+    @Builtin(name = "pack_into", minNumOfPositionalArgs = 3, parameterNames = {"format", "buffer", "offset"}, takesVarArgs = true)
+    @GenerateNodeFactory
+    abstract static class PackIntoNode extends PythonBuiltinNode {
+        @Specialization
+        static PNone packInto(VirtualFrame frame, Object format, Object buffer, Object offset, Object[] args,
+                        @Cached StructNodes.GetFormatNode getFormatNode,
+                        @Cached StructNodes.PackIntoNode packIntoNode) {
+            packIntoNode.execute(frame, getFormatNode.execute(format), buffer, offset, args);
+            return PNone.NONE;
+        }
+    }
+
+    // unpack(format, buffer)
+    @Builtin(name = "unpack", minNumOfPositionalArgs = 2, parameterNames = {"format", "buffer"})
+    @GenerateNodeFactory
+    abstract static class UnpackNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PTuple unpack(Object format, Object buffer,
+                        @Cached StructNodes.GetFormatNode getFormatNode,
+                        @Cached StructNodes.UnpackNode unpackNode) {
+            return unpackNode.execute(getFormatNode.execute(format), buffer);
+        }
+    }
+
+    // unpack_from(format, buffer, offset=0)
+    @Builtin(name = "unpack_from", minNumOfPositionalArgs = 2, parameterNames = {"format", "buffer", "offset"})
+    @ArgumentClinic(name = "offset", conversion = ClinicConversion.Index, defaultValue = "0")
+    @GenerateNodeFactory
+    abstract static class UnpackFromNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return StructModuleBuiltinsClinicProviders.UnpackFromNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static PTuple unpackFrom(Object format, Object buffer, int offset,
+                        @Cached StructNodes.GetFormatNode getFormatNode,
+                        @Cached StructNodes.UnpackFromNode unpackFromNode) {
+            return unpackFromNode.execute(getFormatNode.execute(format), buffer, offset);
+        }
+    }
+
+    // iter_unpack(format, buffer)
+    @Builtin(name = "iter_unpack", minNumOfPositionalArgs = 2, parameterNames = {"format", "buffer"})
+    @GenerateNodeFactory
+    abstract static class IterUnpackNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PStructUnpackIterator iterUnpack(Object format, Object buffer,
+                        @Cached StructNodes.GetFormatNode getFormatNode,
+                        @Cached StructNodes.IterUnpackNode iterUnpackNode) {
+            return iterUnpackNode.execute(getFormatNode.execute(format), buffer);
+        }
+    }
+
+    // calcsize(format)
+    @Builtin(name = "calcsize", minNumOfPositionalArgs = 1, parameterNames = {"format"})
+    @GenerateNodeFactory
+    abstract static class CalcSizeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int calcSize(Object format,
+                        @Cached StructNodes.GetFormatNode getFormatNode) {
+            return getFormatNode.execute(format).getSize();
+        }
+    }
+
+    @Builtin(name = "_clearcache")
+    @GenerateNodeFactory
+    abstract static class ClearCacheNode extends PythonBuiltinNode {
+        @Specialization
+        static PNone clearCache() {
+            StructFormat.clearCache();
+            return PNone.NONE;
+        }
+    }
+}
@@ -0,0 +1,716 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules.struct;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETITEM__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.IndexError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.StructError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.nio.ByteBuffer;
+
+import com.oracle.graal.python.builtins.objects.bytes.BytesUtils;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithRaise;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallTernaryNode;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.OverflowException;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.memory.ByteArraySupport;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+/**
+ * Nodes shared by the module-level functions of {@code _struct} and the methods of
+ * {@link PStruct}. Packing and unpacking work directly on the memory of {@code bytes},
+ * {@code bytearray}, {@code array.array} and memoryviews of them; only other buffers are copied.
+ */
+public final class StructNodes {
+    /**
+     * Formats with at most this many items are packed and unpacked in an unrolled loop if the
+     * format is constant at the call site.
+     */
+    static final int MAX_EXPLODED_ITEMS = 32;
+
+    private static final ByteArraySupport LITTLE_ENDIAN = ByteArraySupport.littleEndian();
+    private static final ByteArraySupport BIG_ENDIAN = ByteArraySupport.bigEndian();
+
+    private StructNodes() {
+    }
+
+    private static ByteArraySupport getByteOrder(StructFormat format) {
+        return format.isBigEndian() ? BIG_ENDIAN : LITTLE_ENDIAN;
+    }
+
+    /**
+     * Returns the memory of a bytes-like object, wrapping it without a copy where possible.
+     */
+    static ByteBuffer getReadableBuffer(PNodeWithRaise node, Object obj, PythonObjectLibrary lib, ConditionProfile directProfile) {
+        ByteBuffer direct = BytesUtils.wrapDirectBuffer(obj, false);
+        if (directProfile.profile(direct != null)) {
+            return direct;
+        }
+        try {
+            return wrap(lib.getBufferBytes(obj));
+        } catch (UnsupportedMessageException e) {
+            throw node.raise(TypeError, ErrorMessages.BYTESLIKE_OBJ_REQUIRED, obj);
+        }
+    }
+
+    @TruffleBoundary
+    private static ByteBuffer wrap(byte[] bytes) {
+        return ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * Converts the format argument of {@code Struct()} and the module-level functions to a compiled
+     * format. Constant format strings are compiled once per call site.
+     */
+    public abstract static class GetFormatNode extends PNodeWithRaise {
+
+        public abstract StructFormat execute(Object format);
+
+        @Specialization(guards = "format == cachedFormat", limit = "3")
+        static StructFormat doCached(@SuppressWarnings("unused") String format,
+                        @SuppressWarnings("unused") @Cached("format") String cachedFormat,
+                        @Cached("lookup(format)") StructFormat compiled) {
+            return compiled;
+        }
+
+        @Specialization(replaces = "doCached")
+        static StructFormat doString(String format) {
+            return StructFormat.lookup(format);
+        }
+
+        @Specialization
+        static StructFormat doPString(PString format,
+                        @Cached CastToJavaStringNode castToJavaStringNode) {
+            return StructFormat.lookup(castToJavaStringNode.execute(format));
+        }
+
+        @Specialization(limit = "1")
+        static StructFormat doBytes(PBytes format,
+                        @CachedLibrary("format") PythonObjectLibrary lib) {
+            try {
+                return StructFormat.lookup(BytesUtils.createASCIIString(lib.getBufferBytes(format)));
+            } catch (UnsupportedMessageException e) {
+                throw CompilerDirectives.shouldNotReachHere(e);
+            }
+        }
+
+        @Fallback
+        StructFormat doOther(Object format) {
+            throw raise(TypeError, ErrorMessages.STRUCT_ARG_MUST_BE_STR_OR_BYTES, format);
+        }
+
+        static StructFormat lookup(String format) {
+            return StructFormat.lookup(format);
+        }
+    }
+
+    /**
+     * Packs {@link StructFormat#getItemCount()} values starting at {@code valuesOffset} into the
+     * given array. The caller checks the number of values and the size of the array, and clears the
+     * target range, since pad bytes are not written.
+     */
+    @ImportStatic(StructNodes.class)
+    public abstract static class PackValuesNode extends PNodeWithRaise {
+
+        public abstract void execute(VirtualFrame frame, StructFormat format, Object[] values, int valuesOffset, byte[] buffer, int offset);
+
+        @Specialization(guards = {"format == cachedFormat", "cachedFormat.getItemCount() <= MAX_EXPLODED_ITEMS"}, limit = "3")
+        @ExplodeLoop
+        void doCached(VirtualFrame frame, @SuppressWarnings("unused") StructFormat format, Object[] values, int valuesOffset, byte[] buffer, int offset,
+                        @Cached("format") StructFormat cachedFormat,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            int item = valuesOffset;
+            for (int i = 0; i < cachedFormat.getCodeCount(); i++) {
+                int itemSize = cachedFormat.getItemSize(i);
+                int pos = offset + cachedFormat.getOffset(i);
+                for (int j = 0; j < cachedFormat.getRepeat(i); j++) {
+                    packItem(frame, cachedFormat, cachedFormat.getCode(i), itemSize, values[item++], buffer, pos, lib);
+                    pos += itemSize;
+                }
+            }
+        }
+
+        @Specialization(replaces = "doCached")
+        void doGeneric(VirtualFrame frame, StructFormat format, Object[] values, int valuesOffset, byte[] buffer, int offset,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            int item = valuesOffset;
+            for (int i = 0; i < format.getCodeCount(); i++) {
+                int itemSize = format.getItemSize(i);
+                int pos = offset + format.getOffset(i);
+                for (int j = 0; j < format.getRepeat(i); j++) {
+                    packItem(frame, format, format.getCode(i), itemSize, values[item++], buffer, pos, lib);
+                    pos += itemSize;
+                }
+            }
+        }
+
+        private void packItem(VirtualFrame frame, StructFormat format, char code, int itemSize, Object value, byte[] buffer, int pos, PythonObjectLibrary lib) {
+            ByteArraySupport byteOrder = getByteOrder(format);
+            switch (code) {
+                case 'c':
+                    packChar(value, buffer, pos, lib);
+                    break;
+                case 's':
+                case 'p':
+                    packString(code, itemSize, value, buffer, pos, lib);
+                    break;
+                case '?':
+                    buffer[pos] = lib.isTrue(value, frame) ? (byte) 1 : (byte) 0;
+                    break;
+                case 'e':
+                    byteOrder.putShort(buffer, pos, packHalfFloat(asDouble(frame, value, lib)));
+                    break;
+                case 'f': {
+                    double d = asDouble(frame, value, lib);
+                    float f = (float) d;
+                    if (Float.isInfinite(f) && !Double.isInfinite(d)) {
+                        throw raise(OverflowError, ErrorMessages.FLOAT_TOO_LARGE_TO_PACK_WITH_C_FORMAT, 'f');
+                    }
+                    byteOrder.putInt(buffer, pos, Float.floatToRawIntBits(f));
+                    break;
+                }
+                case 'd':
+                    byteOrder.putLong(buffer, pos, Double.doubleToRawLongBits(asDouble(frame, value, lib)));
+                    break;
+                default:
+                    long l = asLong(frame, format, code, itemSize, value, lib);
+                    switch (itemSize) {
+                        case 1:
+                            buffer[pos] = (byte) l;
+                            break;
+                        case 2:
+                            byteOrder.putShort(buffer, pos, (short) l);
+                            break;
+                        case 4:
+                            byteOrder.putInt(buffer, pos, (int) l);
+                            break;
+                        default:
+                            byteOrder.putLong(buffer, pos, l);
+                            break;
+                    }
+                    break;
+            }
+        }
+
+        private void packChar(Object value, byte[] buffer, int pos, PythonObjectLibrary lib) {
+            if (value instanceof PBytes) {
+                try {
+                    byte[] bytes = lib.getBufferBytes(value);
+                    if (bytes.length == 1) {
+                        buffer[pos] = bytes[0];
+                        return;
+                    }
+                } catch (UnsupportedMessageException e) {
+                    throw CompilerDirectives.shouldNotReachHere(e);
+                }
+            }
+            throw raise(StructError, ErrorMessages.STRUCT_CHAR_FORMAT_REQUIRES_BYTES);
+        }
+
+        private void packString(char code, int itemSize, Object value, byte[] buffer, int pos, PythonObjectLibrary lib) {
+            if (!(value instanceof PBytesLike)) {
+                throw raise(StructError, ErrorMessages.STRUCT_ARG_FOR_C_MUST_BE_BYTES, code);
+            }
+            ByteBuffer src = BytesUtils.wrapDirectBuffer(value, false);
+            if (src == null) {
+                try {
+                    src = wrap(lib.getBufferBytes(value));
+                } catch (UnsupportedMessageException e) {
+                    throw CompilerDirectives.shouldNotReachHere(e);
+                }
+            }
+            int length = src.remaining();
+            int srcOffset = src.arrayOffset() + src.position();
+            if (code == 's') {
+                PythonUtils.arraycopy(src.array(), srcOffset, buffer, pos, Math.min(length, itemSize));
+            } else if (itemSize > 0) {
+                // Pascal string: the first byte holds the length, which is at most 255
+                int n = Math.min(length, itemSize - 1);
+                PythonUtils.arraycopy(src.array(), srcOffset, buffer, pos + 1, n);
+                buffer[pos] = (byte) Math.min(n, 255);
+            }
+        }
+
+        private double asDouble(VirtualFrame frame, Object value, PythonObjectLibrary lib) {
+            if (value instanceof Double) {
+                return (double) value;
+            }
+            if (!lib.canBeJavaDouble(value)) {
+                throw raise(StructError, ErrorMessages.STRUCT_REQUIRED_ARG_NOT_FLOAT);
+            }
+            return lib.asJavaDoubleWithFrame(value, frame);
+        }
+
+        private long asLong(VirtualFrame frame, StructFormat format, char code, int itemSize, Object value, PythonObjectLibrary lib) {
+            Object index = value;
+            if (!(value instanceof Integer || value instanceof Long || value instanceof Boolean || value instanceof PInt)) {
+                if (!lib.canBeIndex(value)) {
+                    throw raise(StructError, ErrorMessages.STRUCT_REQUIRED_ARG_NOT_INTEGER);
+                }
+                index = lib.asIndexWithFrame(value, frame);
+            }
+            boolean unsigned = StructFormat.isUnsigned(code);
+            long result;
+            if (index instanceof Integer) {
+                result = (int) index;
+            } else if (index instanceof Long) {
+                result = (long) index;
+            } else if (index instanceof Boolean) {
+                result = (boolean) index ? 1 : 0;
+            } else {
+                PInt pint = (PInt) index;
+                if (itemSize == 8 && unsigned && !pint.isNegative() && pint.bitLength() <= 64) {
+                    return pint.longValue();
+                }
+                try {
+                    result = pint.longValueExact();
+                } catch (OverflowException e) {
+                    throw raise(StructError, ErrorMessages.STRUCT_ARGUMENT_OUT_OF_RANGE);
+                }
+            }
+            if (itemSize == 8) {
+                if (unsigned && result < 0) {
+                    throw raise(StructError, ErrorMessages.STRUCT_ARGUMENT_OUT_OF_RANGE);
+                }
+            } else {
+                int bits = itemSize * 8;
+                long min = unsigned ? 0 : -(1L << (bits - 1));
+                long max = unsigned ? (1L << bits) - 1 : (1L << (bits - 1)) - 1;
+                if (result < min || result > max) {
+                    throw rangeError(format, code, min, max);
+                }
+            }
+            return result;
+        }
+
+        private PException rangeError(StructFormat format, char code, long min, long max) {
+            if (format.isNativeMode()) {
+                switch (code) {
+                    case 'b':
+                        return raise(StructError, ErrorMessages.STRUCT_BYTE_FORMAT_RANGE);
+                    case 'B':
+                        return raise(StructError, ErrorMessages.STRUCT_UBYTE_FORMAT_RANGE);
+                    case 'h':
+                        return raise(StructError, ErrorMessages.STRUCT_SHORT_FORMAT_RANGE);
+                    case 'H':
+                        return raise(StructError, ErrorMessages.STRUCT_USHORT_FORMAT_RANGE);
+                }
+            }
+            if (min == 0) {
+                return raise(StructError, ErrorMessages.STRUCT_FORMAT_REQUIRES_UNSIGNED_RANGE, code, max);
+            }
+            return raise(StructError, ErrorMessages.STRUCT_FORMAT_REQUIRES_RANGE, code, min, max);
+        }
+
+        /**
+         * Converts a double to an IEEE 754 half-precision float, rounding half to even like
+         * {@code PyFloat_Pack2}.
+         */
+        private short packHalfFloat(double value) {
+            int sign = (Double.doubleToRawLongBits(value) < 0) ? 1 : 0;
+            int e;
+            int bits;
+            if (value == 0.0) {
+                e = 0;
+                bits = 0;
+            } else if (Double.isInfinite(value)) {
+                e = 0x1f;
+                bits = 0;
+            } else if (Double.isNaN(value)) {
+                e = 0x1f;
+                bits = 512;
+            } else {
+                double x = Math.abs(value);
+                // x = f * 2**e with 1 <= f < 2
+                e = Math.getExponent(x);
+                double f = Math.scalb(x, -e);
+                if (e >= 16) {
+                    throw raise(OverflowError, ErrorMessages.FLOAT_TOO_LARGE_TO_PACK_WITH_C_FORMAT, 'e');
+                } else if (e < -25) {
+                    // |x| < 2**-25, underflow to zero
+                    f = 0.0;
+                    e = 0;
+                } else if (e < -14) {
+                    // |x| < 2**-14, subnormal
+                    f = Math.scalb(f, 14 + e);
+                    e = 0;
+                } else {
+                    e += 15;
+                    f -= 1.0;
+                }
+                f *= 1024.0;
+                bits = (int) f;
+                double rest = f - bits;
+                if (rest > 0.5 || (rest == 0.5 && bits % 2 == 1)) {
+                    bits++;
+                    if (bits == 1024) {
+                        // the carry propagates into the exponent
+                        bits = 0;
+                        e++;
+                        if (e == 31) {
+                            throw raise(OverflowError, ErrorMessages.FLOAT_TOO_LARGE_TO_PACK_WITH_C_FORMAT, 'e');
+                        }
+                    }
+                }
+            }
+            return (short) (bits | (e << 10) | (sign << 15));
+        }
+    }
+
+    /**
+     * Unpacks the values of a struct from the given array.
+     */
+    @ImportStatic(StructNodes.class)
+    public abstract static class UnpackValuesNode extends Node {
+
+        public abstract Object[] execute(StructFormat format, byte[] buffer, int offset);
+
+        @Specialization(guards = {"format == cachedFormat", "cachedFormat.getItemCount() <= MAX_EXPLODED_ITEMS"}, limit = "3")
+        @ExplodeLoop
+        static Object[] doCached(@SuppressWarnings("unused") StructFormat format, byte[] buffer, int offset,
+                        @Cached("format") StructFormat cachedFormat,
+                        @Cached PythonObjectFactory factory) {
+            Object[] values = new Object[cachedFormat.getItemCount()];
+            int item = 0;
+            for (int i = 0; i < cachedFormat.getCodeCount(); i++) {
+                int itemSize = cachedFormat.getItemSize(i);
+                int pos = offset + cachedFormat.getOffset(i);
+                for (int j = 0; j < cachedFormat.getRepeat(i); j++) {
+                    values[item++] = unpackItem(cachedFormat, cachedFormat.getCode(i), itemSize, buffer, pos, factory);
+                    pos += itemSize;
+                }
+            }
+            return values;
+        }
+
+        @Specialization(replaces = "doCached")
+        static Object[] doGeneric(StructFormat format, byte[] buffer, int offset,
+                        @Cached PythonObjectFactory factory) {
+            Object[] values = new Object[format.getItemCount()];
+            int item = 0;
+            for (int i = 0; i < format.getCodeCount(); i++) {
+                int itemSize = format.getItemSize(i);
+                int pos = offset + format.getOffset(i);
+                for (int j = 0; j < format.getRepeat(i); j++) {
+                    values[item++] = unpackItem(format, format.getCode(i), itemSize, buffer, pos, factory);
+                    pos += itemSize;
+                }
+            }
+            return values;
+        }
+
+        private static Object unpackItem(StructFormat format, char code, int itemSize, byte[] buffer, int pos, PythonObjectFactory factory) {
+            ByteArraySupport byteOrder = getByteOrder(format);
+            switch (code) {
+                case 'c':
+                    return factory.createBytes(new byte[]{buffer[pos]});
+                case 's':
+                    return factory.createBytes(copyOfRange(buffer, pos, itemSize));
+                case 'p': {
+                    if (itemSize == 0) {
+                        return factory.createBytes(PythonUtils.EMPTY_BYTE_ARRAY);
+                    }
+                    int n = Math.min(buffer[pos] & 0xFF, itemSize - 1);
+                    return factory.createBytes(copyOfRange(buffer, pos + 1, n));
+                }
+                case '?':
+                    return buffer[pos] != 0;
+                case 'e':
+                    return unpackHalfFloat(byteOrder.getShort(buffer, pos));
+                case 'f':
+                    return (double) Float.intBitsToFloat(byteOrder.getInt(buffer, pos));
+                case 'd':
+                    return Double.longBitsToDouble(byteOrder.getLong(buffer, pos));
+                default:
+                    boolean unsigned = StructFormat.isUnsigned(code);
+                    switch (itemSize) {
+                        case 1:
+                            if (unsigned) {
+                                return buffer[pos] & 0xFF;
+                            }
+                            return (int) buffer[pos];
+                        case 2:
+                            if (unsigned) {
+                                return byteOrder.getShort(buffer, pos) & 0xFFFF;
+                            }
+                            return (int) byteOrder.getShort(buffer, pos);
+                        case 4:
+                            if (unsigned) {
+                                return byteOrder.getInt(buffer, pos) & 0xFFFFFFFFL;
+                            }
+                            return byteOrder.getInt(buffer, pos);
+                        default:
+                            long l = byteOrder.getLong(buffer, pos);
+                            if (unsigned && l < 0) {
+                                return factory.createInt(PInt.longToUnsignedBigInteger(l));
+                            }
+                            return l;
+                    }
+            }
+        }
+
+        private static byte[] copyOfRange(byte[] buffer, int pos, int length) {
+            byte[] result = new byte[length];
+            PythonUtils.arraycopy(buffer, pos, result, 0, length);
+            return result;
+        }
+
+        /**
+         * Converts an IEEE 754 half-precision float to a double like {@code PyFloat_Unpack2}.
+         */
+        private static double unpackHalfFloat(short value) {
+            boolean negative = value < 0;
+            int e = (value >> 10) & 0x1f;
+            int f = value & 0x3ff;
+            if (e == 0x1f) {
+                if (f == 0) {
+                    return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+                }
+                return negative ? -Double.NaN : Double.NaN;
+            }
+            double x = f / 1024.0;
+            if (e == 0) {
+                e = -14;
+            } else {
+                x += 1.0;
+                e -= 15;
+            }
+            x = Math.scalb(x, e);
+            return negative ? -x : x;
+        }
+    }
+
+    /**
+     * Implements {@code pack(format, v1, v2, ...)}.
+     */
+    public abstract static class PackNode extends PNodeWithRaise {
+
+        public abstract PBytes execute(VirtualFrame frame, StructFormat format, Object[] values);
+
+        @Specialization
+        PBytes pack(VirtualFrame frame, StructFormat format, Object[] values,
+                        @Cached PackValuesNode packValuesNode,
+                        @Cached PythonObjectFactory factory) {
+            if (values.length != format.getItemCount()) {
+                throw raise(StructError, ErrorMessages.STRUCT_EXPECTED_N_ITEMS, "pack", format.getItemCount(), values.length);
+            }
+            byte[] bytes = new byte[format.getSize()];
+            packValuesNode.execute(frame, format, values, 0, bytes, 0);
+            return factory.createBytes(bytes);
+        }
+    }
+
+    /**
+     * Implements {@code pack_into(format, buffer, offset, v1, v2, ...)}. The values are packed
+     * directly into the memory of the buffer if possible; other writable buffers are updated by
+     * slice assignment.
+     */
+    public abstract static class PackIntoNode extends PNodeWithRaise {
+
+        public abstract void execute(VirtualFrame frame, StructFormat format, Object buffer, Object offset, Object[] values);
+
+        @Specialization
+        void packInto(VirtualFrame frame, StructFormat format, Object buffer, Object offsetObj, Object[] values,
+                        @Cached PackValuesNode packValuesNode,
+                        @Cached PythonObjectFactory factory,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached("create(__SETITEM__)") LookupAndCallTernaryNode setItemNode,
+                        @Cached("createBinaryProfile()") ConditionProfile directProfile) {
+            if (values.length != format.getItemCount()) {
+                throw raise(StructError, ErrorMessages.STRUCT_EXPECTED_N_ITEMS, "pack_into", format.getItemCount(), values.length);
+            }
+            int offset = lib.asSizeWithFrame(offsetObj, IndexError, frame);
+            int size = format.getSize();
+            ByteBuffer direct = BytesUtils.wrapDirectBuffer(buffer, true);
+            if (directProfile.profile(direct != null)) {
+                int pos = direct.arrayOffset() + direct.position() + checkOffset(offset, direct.remaining(), size);
+                byte[] array = direct.array();
+                for (int i = 0; i < size; i++) {
+                    array[pos + i] = 0;
+                }
+                packValuesNode.execute(frame, format, values, 0, array, pos);
+                return;
+            }
+            if (buffer instanceof PBytes || !lib.isBuffer(buffer)) {
+                throw raise(TypeError, ErrorMessages.ARG_MUST_BE_READ_WRITE_BYTES_LIKE, buffer);
+            }
+            int length;
+            try {
+                length = lib.getBufferLength(buffer);
+            } catch (UnsupportedMessageException e) {
+                throw CompilerDirectives.shouldNotReachHere(e);
+            }
+            int pos = checkOffset(offset, length, size);
+            byte[] bytes = new byte[size];
+            packValuesNode.execute(frame, format, values, 0, bytes, 0);
+            setItemNode.execute(frame, buffer, factory.createIntSlice(pos, pos + size, 1), factory.createBytes(bytes));
+        }
+
+        private int checkOffset(int offset, int length, int size) {
+            int pos = offset;
+            if (pos < 0) {
+                if ((long) pos + size > 0) {
+                    throw raise(StructError, ErrorMessages.STRUCT_NO_SPACE_TO_PACK, size, pos);
+                }
+                if ((long) pos + length < 0) {
+                    throw raise(StructError, ErrorMessages.STRUCT_OFFSET_OUT_OF_RANGE, pos, length);
+                }
+                pos += length;
+            }
+            if (length - pos < size) {
+                throw raise(StructError, ErrorMessages.STRUCT_PACK_INTO_REQUIRES_N_BYTES, (long) size + pos, size, pos, length);
+            }
+            return pos;
+        }
+    }
+
+    /**
+     * Implements {@code unpack(format, buffer)}.
+     */
+    public abstract static class UnpackNode extends PNodeWithRaise {
+
+        public abstract PTuple execute(StructFormat format, Object buffer);
+
+        @Specialization
+        PTuple unpack(StructFormat format, Object buffer,
+                        @Cached UnpackValuesNode unpackValuesNode,
+                        @Cached PythonObjectFactory factory,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached("createBinaryProfile()") ConditionProfile directProfile) {
+            ByteBuffer buf = getReadableBuffer(this, buffer, lib, directProfile);
+            if (buf.remaining() != format.getSize()) {
+                throw raise(StructError, ErrorMessages.STRUCT_UNPACK_REQUIRES_N_BYTES, format.getSize());
+            }
+            return factory.createTuple(unpackValuesNode.execute(format, buf.array(), buf.arrayOffset() + buf.position()));
+        }
+    }
+
+    /**
+     * Implements {@code unpack_from(format, buffer, offset=0)}.
+     */
+    public abstract static class UnpackFromNode extends PNodeWithRaise {
+
+        public abstract PTuple execute(StructFormat format, Object buffer, int offset);
+
+        @Specialization
+        PTuple unpackFrom(StructFormat format, Object buffer, int offset,
+                        @Cached UnpackValuesNode unpackValuesNode,
+                        @Cached PythonObjectFactory factory,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached("createBinaryProfile()") ConditionProfile directProfile) {
+            ByteBuffer buf = getReadableBuffer(this, buffer, lib, directProfile);
+            int length = buf.remaining();
+            int size = format.getSize();
+            int pos = offset;
+            if (pos < 0) {
+                if ((long) pos + length < 0) {
+                    throw raise(StructError, ErrorMessages.STRUCT_OFFSET_OUT_OF_RANGE, pos, length);
+                }
+                pos += length;
+            }
+            if (length - pos < size) {
+                throw raise(StructError, ErrorMessages.STRUCT_UNPACK_FROM_REQUIRES_N_BYTES, (long) size + pos, size, pos, length);
+            }
+            return factory.createTuple(unpackValuesNode.execute(format, buf.array(), buf.arrayOffset() + buf.position() + pos));
+        }
+    }
+
+    /**
+     * Implements {@code iter_unpack(format, buffer)}. Buffers whose memory cannot be accessed
+     * directly are copied once, not on every step of the iterator.
+     */
+    public abstract static class IterUnpackNode extends PNodeWithRaise {
+
+        public abstract PStructUnpackIterator execute(StructFormat format, Object buffer);
+
+        @Specialization
+        PStructUnpackIterator iterUnpack(StructFormat format, Object buffer,
+                        @Cached PythonObjectFactory factory,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached("createBinaryProfile()") ConditionProfile directProfile) {
+            int size = format.getSize();
+            if (size == 0) {
+                throw raise(StructError, ErrorMessages.STRUCT_ITER_UNPACK_ZERO_LENGTH);
+            }
+            ByteBuffer direct = BytesUtils.wrapDirectBuffer(buffer, false);
+            Object source = buffer;
+            int length;
+            if (directProfile.profile(direct != null)) {
+                length = direct.remaining();
+            } else {
+                try {
+                    byte[] bytes = lib.getBufferBytes(buffer);
+                    source = factory.createBytes(bytes);
+                    length = bytes.length;
+                } catch (UnsupportedMessageException e) {
+                    throw raise(TypeError, ErrorMessages.BYTESLIKE_OBJ_REQUIRED, buffer);
+                }
+            }
+            if (length % size != 0) {
+                throw raise(StructError, ErrorMessages.STRUCT_ITER_UNPACK_MULTIPLE_OF, size);
+            }
+            return factory.createStructUnpackIterator(format, source, length / size);
+        }
+    }
+}
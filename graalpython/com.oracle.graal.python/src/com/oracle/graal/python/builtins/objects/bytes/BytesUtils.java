@@ -31,14 +31,18 @@ import static com.oracle.graal.python.runtime.exception.PythonErrorType.Overflow
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.array.PArray;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.PythonParser.ParserErrorCallback;
+import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
 import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -730,4 +734,36 @@ public final class BytesUtils {
     public static String createASCIIString(byte[] retbuf) {
         return new String(retbuf, StandardCharsets.US_ASCII);
     }
+
+    /**
+     * Wraps the memory of a bytes-like object in a {@link ByteBuffer} without copying it. Returns
+     * {@code null} if the memory is not directly accessible, e.g. for native or non-contiguous
+     * buffers.
+     */
+    @TruffleBoundary
+    public static ByteBuffer wrapDirectBuffer(Object obj, boolean writable) {
+        if (obj instanceof PArray) {
+            PArray array = (PArray) obj;
+            return ByteBuffer.wrap(array.getBuffer(), 0, array.getLength() * array.getFormat().bytesize);
+        }
+        Object owner = obj;
+        int offset = 0;
+        int length = -1;
+        if (obj instanceof PMemoryView) {
+            PMemoryView mv = (PMemoryView) obj;
+            if (mv.isReleased() || mv.getBufferPointer() != null || !mv.isCContiguous() || (writable && mv.isReadOnly())) {
+                return null;
+            }
+            owner = mv.getOwner();
+            offset = mv.getOffset();
+            length = mv.getLength();
+        } else if (writable && !(obj instanceof PByteArray)) {
+            return null;
+        }
+        if (owner instanceof PBytesLike && ((PBytesLike) owner).getSequenceStorage() instanceof ByteSequenceStorage) {
+            ByteSequenceStorage storage = (ByteSequenceStorage) ((PBytesLike) owner).getSequenceStorage();
+            return ByteBuffer.wrap((byte[]) storage.getInternalArrayObject(), offset, length < 0 ? storage.length() : length);
+        }
+        return null;
+    }
 }
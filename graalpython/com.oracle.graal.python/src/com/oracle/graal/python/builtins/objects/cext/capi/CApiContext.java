@@ -138,6 +138,9 @@ public final class CApiContext extends CExtContext {
     /** same as {@code moduleobject.c: max_module_number} */
     private long maxModuleNumber;
 
+    /** Native handles resolved to managed native wrappers; see {@link HandleCache}. */
+    private final ResolvedHandleMap resolvedHandles = new ResolvedHandleMap();
+
     /**
      * Private dummy constructor just for {@link #LAZY_CONTEXT}.
      */
@@ -210,6 +213,10 @@ public final class CApiContext extends CExtContext {
         llvmTypeCache[llvmType.ordinal()] = llvmTypeId;
     }
 
+    public ResolvedHandleMap getResolvedHandles() {
+        return resolvedHandles;
+    }
+
     public long getAndIncMaxModuleNumber() {
         return maxModuleNumber++;
     }
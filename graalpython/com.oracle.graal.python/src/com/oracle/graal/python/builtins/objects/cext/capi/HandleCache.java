@@ -41,10 +41,12 @@
 package com.oracle.graal.python.builtins.objects.cext.capi;
 
 import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.CachedContext;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -58,6 +60,7 @@ import com.oracle.truffle.api.library.ExportLibrary;
 import com.oracle.truffle.api.library.ExportMessage;
 import com.oracle.truffle.api.nodes.InvalidAssumptionException;
 import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 
 @ExportLibrary(InteropLibrary.class)
 public final class HandleCache implements TruffleObject {
@@ -117,14 +120,40 @@ public final class HandleCache implements TruffleObject {
         @Specialization(replaces = "doCachedSingleContext", assumptions = "singleContextAssumption()")
         static Object doGenericSingleContext(@SuppressWarnings("unused") HandleCache cache, long handle,
                         @Cached(value = "cache.getPtrToResolveHandle()", allowUncached = true) TruffleObject resolveHandleFunction,
-                        @CachedLibrary("resolveHandleFunction") InteropLibrary interopLibrary) throws UnsupportedTypeException, ArityException, UnsupportedMessageException {
-            return resolveHandle(handle, resolveHandleFunction, interopLibrary);
+                        @CachedLibrary("resolveHandleFunction") InteropLibrary interopLibrary,
+                        @CachedContext(PythonLanguage.class) PythonContext context,
+                        @Cached ConditionProfile hasCApiContextProfile) throws UnsupportedTypeException, ArityException, UnsupportedMessageException {
+            return resolveHandleShared(handle, resolveHandleFunction, interopLibrary, context, hasCApiContextProfile);
         }
 
         @Specialization(limit = "3", replaces = {"doCachedSingleContext", "doGenericSingleContext"})
         static Object doGeneric(@SuppressWarnings("unused") HandleCache cache, long handle,
-                        @CachedLibrary("cache.getPtrToResolveHandle()") InteropLibrary interopLibrary) throws UnsupportedTypeException, ArityException, UnsupportedMessageException {
-            return resolveHandle(handle, cache.getPtrToResolveHandle(), interopLibrary);
+                        @CachedLibrary("cache.getPtrToResolveHandle()") InteropLibrary interopLibrary,
+                        @CachedContext(PythonLanguage.class) PythonContext context,
+                        @Cached ConditionProfile hasCApiContextProfile) throws UnsupportedTypeException, ArityException, UnsupportedMessageException {
+            return resolveHandleShared(handle, cache.getPtrToResolveHandle(), interopLibrary, context, hasCApiContextProfile);
+        }
+
+        /**
+         * Resolves the handle through the context-wide {@link ResolvedHandleMap} and only calls
+         * into native code if the handle isn't in there. The C API context does not exist yet
+         * while the C API is being initialized, so we always go to native code in that case.
+         */
+        private static Object resolveHandleShared(long handle, TruffleObject ptrToResolveHandle, InteropLibrary interopLibrary, PythonContext context, ConditionProfile hasCApiContextProfile)
+                        throws UnsupportedTypeException, ArityException, UnsupportedMessageException {
+            if (hasCApiContextProfile.profile(context.hasCApiContext())) {
+                ResolvedHandleMap resolvedHandles = context.getCApiContext().getResolvedHandles();
+                PythonNativeWrapper wrapper = resolvedHandles.get(handle);
+                if (wrapper != null) {
+                    return wrapper;
+                }
+                Object resolved = resolveHandle(handle, ptrToResolveHandle, interopLibrary);
+                if (resolved instanceof PythonNativeWrapper) {
+                    resolvedHandles.put(handle, (PythonNativeWrapper) resolved);
+                }
+                return resolved;
+            }
+            return resolveHandle(handle, ptrToResolveHandle, interopLibrary);
         }
 
         static PythonNativeWrapper resolveHandleUncached(HandleCache cache, long handle)
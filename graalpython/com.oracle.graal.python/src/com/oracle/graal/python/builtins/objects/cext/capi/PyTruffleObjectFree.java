@@ -45,15 +45,18 @@ import java.util.logging.Level;
 import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.objects.cext.capi.CExtNodes.ClearNativeWrapperNode;
 import com.oracle.graal.python.builtins.objects.cext.capi.CExtNodes.PCallCapiFunction;
+import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.TruffleLogger;
 import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.CachedContext;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.ArityException;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.library.ExportLibrary;
 import com.oracle.truffle.api.library.ExportMessage;
@@ -88,7 +91,9 @@ public class PyTruffleObjectFree implements TruffleObject {
         static int doNativeWrapper(PythonNativeWrapper nativeWrapper,
                         @CachedLibrary("nativeWrapper") PythonNativeWrapperLibrary lib,
                         @Cached ClearNativeWrapperNode clearNativeWrapperNode,
-                        @Cached PCallCapiFunction callReleaseHandleNode) {
+                        @Cached PCallCapiFunction callReleaseHandleNode,
+                        @CachedLibrary(limit = "3") InteropLibrary pointerLib,
+                        @CachedContext(PythonLanguage.class) PythonContext context) {
             if (nativeWrapper.getRefCount() > 0) {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
                 throw new IllegalStateException("deallocating native object with refcnt > 0");
@@ -98,7 +103,7 @@ public class PyTruffleObjectFree implements TruffleObject {
             Object delegate = lib.getDelegate(nativeWrapper);
             clearNativeWrapperNode.execute(delegate, nativeWrapper);
 
-            ReleaseHandleNode.doNativeWrapper(nativeWrapper, lib, callReleaseHandleNode);
+            ReleaseHandleNode.doNativeWrapper(nativeWrapper, lib, callReleaseHandleNode, pointerLib, context);
             return 1;
         }
 
@@ -117,7 +122,9 @@ public class PyTruffleObjectFree implements TruffleObject {
         @Specialization(limit = "3")
         static void doNativeWrapper(PythonNativeWrapper nativeWrapper,
                         @CachedLibrary("nativeWrapper") PythonNativeWrapperLibrary lib,
-                        @Cached PCallCapiFunction callReleaseHandleNode) {
+                        @Cached PCallCapiFunction callReleaseHandleNode,
+                        @CachedLibrary(limit = "3") InteropLibrary pointerLib,
+                        @CachedContext(PythonLanguage.class) PythonContext context) {
 
             // If wrapper already received toNative, release the handle or free the native memory.
             if (lib.isNative(nativeWrapper)) {
@@ -128,8 +135,24 @@ public class PyTruffleObjectFree implements TruffleObject {
                 if (LOGGER.isLoggable(Level.FINER)) {
                     LOGGER.finer(() -> String.format("Releasing handle: %s (object: %s)", nativePointer, nativeWrapper));
                 }
+                // The native side may hand out the same handle for another object later.
+                if (context.hasCApiContext()) {
+                    removeResolvedHandle(context.getCApiContext().getResolvedHandles(), nativePointer, pointerLib);
+                }
                 callReleaseHandleNode.call(NativeCAPISymbols.FUN_PY_TRUFFLE_FREE, nativePointer);
             }
         }
+
+        private static void removeResolvedHandle(ResolvedHandleMap resolvedHandles, Object nativePointer, InteropLibrary pointerLib) {
+            if (nativePointer instanceof Long) {
+                resolvedHandles.remove((long) nativePointer);
+            } else if (pointerLib.isPointer(nativePointer)) {
+                try {
+                    resolvedHandles.remove(pointerLib.asPointer(nativePointer));
+                } catch (UnsupportedMessageException e) {
+                    throw CompilerDirectives.shouldNotReachHere(e);
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.cext.capi;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A context-wide map from native handles to the {@link PythonNativeWrapper native wrappers} they
+ * were resolved to. It is consulted by {@link HandleCache} once a conversion site has seen more
+ * handles than it can cache in the AST, so that resolving a handle that was already seen does not
+ * need a call into native code.
+ *
+ * An entry is only used as long as the {@link PythonNativeWrapper#getHandleValidAssumption() handle
+ * valid assumption} of its wrapper holds. Entries are also removed eagerly when the handle is
+ * released (see {@link PyTruffleObjectFree.ReleaseHandleNode}), because native code may reuse the
+ * same handle for another object afterwards.
+ */
+public final class ResolvedHandleMap {
+
+    private final ConcurrentHashMap<Long, PythonNativeWrapper> map = new ConcurrentHashMap<>();
+
+    // not synchronized, these are only statistics
+    private long hits;
+    private long misses;
+
+    /**
+     * Returns the native wrapper the handle was resolved to, or {@code null} if the handle is not
+     * in the map or its association is no longer valid.
+     */
+    @TruffleBoundary
+    public PythonNativeWrapper get(long handle) {
+        PythonNativeWrapper wrapper = map.get(handle);
+        if (wrapper != null) {
+            Assumption handleValidAssumption = wrapper.getHandleValidAssumption();
+            if (handleValidAssumption != null && handleValidAssumption.isValid()) {
+                hits++;
+                return wrapper;
+            }
+            map.remove(handle, wrapper);
+        }
+        misses++;
+        return null;
+    }
+
+    @TruffleBoundary
+    public void put(long handle, PythonNativeWrapper wrapper) {
+        wrapper.ensureHandleValidAssumption();
+        map.put(handle, wrapper);
+    }
+
+    @TruffleBoundary
+    public void remove(long handle) {
+        map.remove(handle);
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+}
@@ -115,6 +115,7 @@ import com.oracle.graal.python.builtins.objects.cext.hpy.GraalHPyContextFunction
 import com.oracle.graal.python.builtins.objects.cext.hpy.GraalHPyContextFunctions.GraalHPyUnicodeAsUTF8String;
 import com.oracle.graal.python.builtins.objects.cext.hpy.GraalHPyContextFunctions.GraalHPyUnicodeFromString;
 import com.oracle.graal.python.builtins.objects.cext.hpy.GraalHPyContextFunctions.GraalHPyUnicodeFromWchar;
+import com.oracle.graal.python.builtins.objects.cext.hpy.GraalHPyHandleTable.HandleCache;
 import com.oracle.graal.python.builtins.objects.cext.hpy.GraalHPyNodes.PCallHPyFunction;
 import com.oracle.graal.python.builtins.objects.cext.hpy.GraalHPyNodesFactory.PCallHPyFunctionNodeGen;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
@@ -135,7 +136,6 @@ import com.oracle.graal.python.util.OverflowException;
 import com.oracle.graal.python.util.PythonUtils;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
-import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.TruffleLanguage.ContextReference;
 import com.oracle.truffle.api.TruffleLogger;
@@ -312,8 +312,7 @@ public final class GraalHPyContext extends CExtContext implements TruffleObject
         }
     }
 
-    private GraalHPyHandle[] hpyHandleTable = new GraalHPyHandle[]{GraalHPyHandle.NULL_HANDLE};
-    private final HandleStack freeStack = new HandleStack(16);
+    private final GraalHPyHandleTable hpyHandleTable = new GraalHPyHandleTable();
     Object nativePointer;
 
     @CompilationFinal(dimensions = 1) private final Object[] hpyContextMembers;
@@ -752,34 +751,17 @@ public final class GraalHPyContext extends CExtContext implements TruffleObject
         return members;
     }
 
-    @TruffleBoundary(allowInlining = true)
-    private int allocateHandle() {
-        int freeItem = freeStack.pop();
-        if (freeItem != -1) {
-            assert 0 <= freeItem && freeItem < hpyHandleTable.length;
-            assert hpyHandleTable[freeItem] == null;
-            return freeItem;
-        }
-        for (int i = 1; i < hpyHandleTable.length; i++) {
-            if (hpyHandleTable[i] == null) {
-                return i;
-            }
-        }
-        return -1;
-    }
-
     public int getHPyHandleForObject(GraalHPyHandle object) {
-        // find free association
-        int handle = allocateHandle();
-        if (handle == -1) {
-            // resize
-            int newSize = Math.max(16, hpyHandleTable.length * 2);
-            LOGGER.fine(() -> "resizing HPy handle table to " + newSize);
-            hpyHandleTable = Arrays.copyOf(hpyHandleTable, newSize);
-            handle = allocateHandle();
+        PythonContext context = getContext();
+        int handle;
+        if (context.getSingleThreadedAssumption().isValid()) {
+            handle = hpyHandleTable.allocate();
+        } else {
+            handle = hpyHandleTable.allocate(context.getHPyHandleCache());
         }
         assert handle > 0;
-        hpyHandleTable[handle] = object;
+        assert hpyHandleTable.get(handle) == null;
+        hpyHandleTable.set(handle, object);
         if (LOGGER.isLoggable(Level.FINER)) {
             final int handleID = handle;
             LOGGER.finer(() -> String.format("allocating HPy handle %d (object: %s)", handleID, object));
@@ -788,8 +770,7 @@ public final class GraalHPyContext extends CExtContext implements TruffleObject
     }
 
     public GraalHPyHandle getObjectForHPyHandle(int handle) {
-        // find free association
-        return hpyHandleTable[handle];
+        return hpyHandleTable.get(handle);
     }
 
     public void releaseHPyHandleForObject(long handle) {
@@ -805,12 +786,24 @@ public final class GraalHPyContext extends CExtContext implements TruffleObject
 
     public void releaseHPyHandleForObject(int handle) {
         assert handle != 0 : "NULL handle cannot be released";
-        assert hpyHandleTable[handle] != null : PythonUtils.format("releasing handle that has already been released: %d", handle);
+        assert hpyHandleTable.get(handle) != null : PythonUtils.format("releasing handle that has already been released: %d", handle);
         if (LOGGER.isLoggable(Level.FINER)) {
             LOGGER.finer(() -> "releasing HPy handle " + handle);
         }
-        hpyHandleTable[handle] = null;
-        freeStack.push(handle);
+        hpyHandleTable.set(handle, null);
+        PythonContext context = getContext();
+        if (context.getSingleThreadedAssumption().isValid()) {
+            hpyHandleTable.release(handle);
+        } else {
+            hpyHandleTable.release(context.getHPyHandleCache(), handle);
+        }
+    }
+
+    /**
+     * Returns the handles reserved for a thread that is detached from the context.
+     */
+    public void releaseHandleCache(HandleCache cache) {
+        hpyHandleTable.releaseAll(cache);
     }
 
     // nb. keep in sync with 'meth.h'
@@ -832,29 +825,6 @@ public final class GraalHPyContext extends CExtContext implements TruffleObject
         return hpyNullHandle;
     }
 
-    private static final class HandleStack {
-        private int[] handles;
-        private int top = 0;
-
-        public HandleStack(int initialCapacity) {
-            handles = new int[initialCapacity];
-        }
-
-        void push(int i) {
-            if (top >= handles.length) {
-                handles = Arrays.copyOf(handles, handles.length * 2);
-            }
-            handles[top++] = i;
-        }
-
-        int pop() {
-            if (top <= 0) {
-                return -1;
-            }
-            return handles[--top];
-        }
-    }
-
     /**
      * A phantom reference to an object that has an associated HPy native space (
      * {@link GraalHPyDef#OBJECT_HPY_NATIVE_SPACE} is set).
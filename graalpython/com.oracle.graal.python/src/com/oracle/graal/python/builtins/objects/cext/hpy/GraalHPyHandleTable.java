@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.cext.hpy;
+
+import java.util.Arrays;
+import java.util.logging.Level;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLogger;
+
+/**
+ * Maps HPy handles to their {@link GraalHPyHandle} objects. The table consists of fixed-size
+ * segments, so growing it never moves an entry and a thread can store into its slot while another
+ * thread adds a segment. Free handles are kept on a stack, so that allocating and releasing a
+ * handle takes constant time.
+ *
+ * While the context is single-threaded, handles are allocated from and released to the shared
+ * free stack directly. Once there are several threads, each thread allocates from and releases to
+ * its own {@link HandleCache} and only moves handles from or to the shared stack in batches. All
+ * accesses to the shared stack hold the table's lock, because a thread may still use it directly
+ * while another thread that was just started already refills its cache.
+ */
+public final class GraalHPyHandleTable {
+
+    private static final TruffleLogger LOGGER = PythonLanguage.getLogger(GraalHPyHandleTable.class);
+
+    private static final int SEGMENT_SHIFT = 10;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    /** The number of handles moved between a thread's cache and the shared free stack at once. */
+    private static final int CACHE_BATCH_SIZE = 64;
+
+    private volatile GraalHPyHandle[][] segments;
+
+    private int[] freeHandles = new int[SEGMENT_SIZE];
+    private int freeTop = 0;
+
+    /**
+     * The free handles reserved for one thread.
+     */
+    public static final class HandleCache {
+        private final int[] handles = new int[2 * CACHE_BATCH_SIZE];
+        private int top = 0;
+    }
+
+    GraalHPyHandleTable() {
+        GraalHPyHandle[] first = new GraalHPyHandle[SEGMENT_SIZE];
+        first[0] = GraalHPyHandle.NULL_HANDLE;
+        segments = new GraalHPyHandle[][]{first};
+        addFreeHandles(1, SEGMENT_SIZE);
+    }
+
+    GraalHPyHandle get(int handle) {
+        return segments[handle >>> SEGMENT_SHIFT][handle & SEGMENT_MASK];
+    }
+
+    void set(int handle, GraalHPyHandle object) {
+        segments[handle >>> SEGMENT_SHIFT][handle & SEGMENT_MASK] = object;
+    }
+
+    /**
+     * Allocates a handle from the shared free stack. The lock is uncontended as long as the context
+     * is single-threaded.
+     */
+    @TruffleBoundary(allowInlining = true)
+    synchronized int allocate() {
+        if (freeTop == 0) {
+            grow();
+        }
+        return freeHandles[--freeTop];
+    }
+
+    /**
+     * Releases a handle to the shared free stack. The lock is uncontended as long as the context is
+     * single-threaded.
+     */
+    @TruffleBoundary(allowInlining = true)
+    synchronized void release(int handle) {
+        if (freeTop == freeHandles.length) {
+            ensureFreeCapacity(1);
+        }
+        freeHandles[freeTop++] = handle;
+    }
+
+    int allocate(HandleCache cache) {
+        if (cache.top == 0) {
+            refill(cache);
+        }
+        return cache.handles[--cache.top];
+    }
+
+    void release(HandleCache cache, int handle) {
+        if (cache.top == cache.handles.length) {
+            flush(cache, CACHE_BATCH_SIZE);
+        }
+        cache.handles[cache.top++] = handle;
+    }
+
+    /**
+     * Returns all handles reserved in the given cache to the shared free stack, e.g., because its
+     * thread is going away.
+     */
+    void releaseAll(HandleCache cache) {
+        flush(cache, cache.top);
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    private synchronized void refill(HandleCache cache) {
+        if (freeTop < CACHE_BATCH_SIZE) {
+            grow();
+        }
+        freeTop -= CACHE_BATCH_SIZE;
+        System.arraycopy(freeHandles, freeTop, cache.handles, 0, CACHE_BATCH_SIZE);
+        cache.top = CACHE_BATCH_SIZE;
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    private synchronized void flush(HandleCache cache, int n) {
+        ensureFreeCapacity(n);
+        cache.top -= n;
+        System.arraycopy(cache.handles, cache.top, freeHandles, freeTop, n);
+        freeTop += n;
+    }
+
+    @TruffleBoundary
+    private void grow() {
+        GraalHPyHandle[][] oldSegments = segments;
+        int n = oldSegments.length;
+        GraalHPyHandle[][] newSegments = Arrays.copyOf(oldSegments, n + 1);
+        newSegments[n] = new GraalHPyHandle[SEGMENT_SIZE];
+        segments = newSegments;
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine("growing HPy handle table to " + (n + 1) * SEGMENT_SIZE + " handles");
+        }
+        addFreeHandles(n << SEGMENT_SHIFT, (n + 1) << SEGMENT_SHIFT);
+    }
+
+    private void addFreeHandles(int from, int to) {
+        ensureFreeCapacity(to - from);
+        // push in reverse order, so that the lowest handles are allocated first
+        for (int i = to - 1; i >= from; i--) {
+            freeHandles[freeTop++] = i;
+        }
+    }
+
+    private void ensureFreeCapacity(int n) {
+        if (freeTop + n > freeHandles.length) {
+            freeHandles = Arrays.copyOf(freeHandles, Math.max(freeHandles.length * 2, freeTop + n));
+        }
+    }
+}
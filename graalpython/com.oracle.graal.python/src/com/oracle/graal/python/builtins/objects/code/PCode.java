@@ -278,7 +278,7 @@ public final class PCode extends PythonBuiltinObject {
     @TruffleBoundary
     private static Object[] extractConstants(RootNode rootNode) {
         List<Object> constants = new ArrayList<>();
-        rootNodeForExtraction(rootNode).accept(new NodeVisitor() {
+        bodyForExtraction(rootNode).accept(new NodeVisitor() {
             public boolean visit(Node node) {
                 if (node instanceof SimpleLiteralNode) {
                     constants.add(((SimpleLiteralNode) node).getValue());
@@ -298,7 +298,7 @@ public final class PCode extends PythonBuiltinObject {
     @TruffleBoundary
     private static Object[] extractNames(RootNode rootNode) {
         List<Object> names = new ArrayList<>();
-        rootNodeForExtraction(rootNode).accept(new NodeVisitor() {
+        bodyForExtraction(rootNode).accept(new NodeVisitor() {
             public boolean visit(Node node) {
                 if (node instanceof GlobalNode) {
                     names.add(((GlobalNode) node).getAttributeId());
@@ -317,6 +317,15 @@ public final class PCode extends PythonBuiltinObject {
         return (rootNode instanceof GeneratorFunctionRootNode) ? ((GeneratorFunctionRootNode) rootNode).getFunctionRootNode() : rootNode;
     }
 
+    private static RootNode bodyForExtraction(RootNode rootNode) {
+        RootNode funcRootNode = rootNodeForExtraction(rootNode);
+        if (funcRootNode instanceof FunctionRootNode) {
+            // the body may not have been translated yet if the function was never called
+            ((FunctionRootNode) funcRootNode).materializeBody();
+        }
+        return funcRootNode;
+    }
+
     @TruffleBoundary
     private static int extractFlags(RootNode rootNode) {
         int flags = 0;
@@ -330,6 +339,7 @@ public final class PCode extends PythonBuiltinObject {
                 flags |= FLAG_GENERATOR;
                 funcRootNode = ((GeneratorFunctionRootNode) funcRootNode).getFunctionRootNode();
             }
+            funcRootNode = bodyForExtraction(funcRootNode);
             // 0x04 - *arguments
             if (NodeUtil.findFirstNodeInstance(funcRootNode, ReadVarArgsNode.class) != null) {
                 flags |= FLAG_VAR_ARGS;
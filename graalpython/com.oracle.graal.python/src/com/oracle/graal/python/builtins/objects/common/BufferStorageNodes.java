@@ -50,12 +50,14 @@ import com.oracle.graal.python.builtins.objects.array.PArray;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.mmap.PMMap;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.builtins.objects.str.PString;
 import com.oracle.graal.python.builtins.objects.str.StringNodes;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.PRaiseNode;
+import com.oracle.graal.python.nodes.util.CastToJavaIntExactNode;
 import com.oracle.graal.python.nodes.util.CastToJavaUnsignedLongNode;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
@@ -331,6 +333,12 @@ public abstract class BufferStorageNodes {
         static int doArray(PArray array) {
             return array.getLength() * array.getFormat().bytesize;
         }
+
+        @Specialization
+        static int doMMap(PMMap mmap,
+                        @Cached CastToJavaIntExactNode castToIntNode) {
+            return castToIntNode.execute(mmap.getLength());
+        }
     }
 
     @GenerateUncached
@@ -346,7 +354,7 @@ public abstract class BufferStorageNodes {
 
         @Specialization
         static void doArray(PArray src, int srcPos, byte[] dest, int destPos, int length,
-                        @Cached PRaiseNode raiseNode) {
+                        @Shared("raiseNode") @Cached PRaiseNode raiseNode) {
             try {
                 PythonUtils.arraycopy(src.getBuffer(), srcPos, dest, destPos, length);
             } catch (ArrayIndexOutOfBoundsException e) {
@@ -355,6 +363,18 @@ public abstract class BufferStorageNodes {
                 throw raiseNode.raise(IndexError, ErrorMessages.INVALID_BUFFER_ACCESS);
             }
         }
+
+        @Specialization
+        static void doMMap(PMMap src, int srcPos, byte[] dest, int destPos, int length,
+                        @Shared("raiseNode") @Cached PRaiseNode raiseNode) {
+            if (src.isClosed()) {
+                throw raiseNode.raise(ValueError, ErrorMessages.MMAP_CLOSED_OR_INVALID);
+            }
+            if (isOutOfBounds(srcPos, length, src.getLength()) || isOutOfBounds(destPos, length, dest.length)) {
+                throw raiseNode.raise(IndexError, ErrorMessages.INVALID_BUFFER_ACCESS);
+            }
+            src.readBytes(srcPos, dest, destPos, length);
+        }
     }
 
     @GenerateUncached
@@ -370,7 +390,7 @@ public abstract class BufferStorageNodes {
 
         @Specialization
         static void doArray(byte[] src, int srcPos, PArray dest, int destPos, int length,
-                        @Cached PRaiseNode raiseNode) {
+                        @Shared("raiseNode") @Cached PRaiseNode raiseNode) {
             try {
                 PythonUtils.arraycopy(src, srcPos, dest.getBuffer(), destPos, length);
             } catch (ArrayIndexOutOfBoundsException e) {
@@ -379,5 +399,25 @@ public abstract class BufferStorageNodes {
                 throw raiseNode.raise(IndexError, ErrorMessages.INVALID_BUFFER_ACCESS);
             }
         }
+
+        @Specialization
+        static void doMMap(byte[] src, int srcPos, PMMap dest, int destPos, int length,
+                        @Shared("raiseNode") @Cached PRaiseNode raiseNode) {
+            if (dest.isClosed()) {
+                throw raiseNode.raise(ValueError, ErrorMessages.MMAP_CLOSED_OR_INVALID);
+            }
+            if (isOutOfBounds(srcPos, length, src.length) || isOutOfBounds(destPos, length, dest.getLength())) {
+                throw raiseNode.raise(IndexError, ErrorMessages.INVALID_BUFFER_ACCESS);
+            }
+            dest.writeBytes(src, srcPos, destPos, length);
+        }
+    }
+
+    /**
+     * The mapped memory of a {@link PMMap} is not a Java array, so unlike for arrays, accesses out
+     * of its bounds must be checked explicitly.
+     */
+    private static boolean isOutOfBounds(int pos, int length, long capacity) {
+        return pos < 0 || length < 0 || pos + (long) length > capacity;
     }
 }
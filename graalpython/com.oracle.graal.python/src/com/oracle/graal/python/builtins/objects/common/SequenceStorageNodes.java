@@ -106,6 +106,7 @@ import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodesFacto
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodesFactory.SetItemScalarNodeGen;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodesFactory.SetItemSliceNodeGen;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodesFactory.SetLenNodeGen;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodesFactory.SortNodeGen;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodesFactory.StorageToNativeNodeGen;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodesFactory.VerifyNativeItemNodeGen;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
@@ -124,6 +125,7 @@ import com.oracle.graal.python.nodes.PNodeWithContext;
 import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.builtins.ListNodes;
+import com.oracle.graal.python.nodes.call.CallNode;
 import com.oracle.graal.python.nodes.control.GetNextNode;
 import com.oracle.graal.python.nodes.control.GetNextNode.GetNextWithoutFrameNode;
 import com.oracle.graal.python.nodes.control.GetNextNodeFactory.GetNextWithoutFrameNodeGen;
@@ -4133,6 +4135,724 @@ public abstract class SequenceStorageNodes {
 
     }
 
+    /**
+     * Sorts a sequence storage in place, like {@code list.sort}. Storages of {@code int},
+     * {@code long} and {@code double} values are sorted directly on their primitive arrays, all
+     * other storages and sorts with a key function use the stable {@link TimSortNode}. If there is
+     * a key function, it is called exactly once per item before sorting.
+     *
+     * Comparisons and key functions may run arbitrary code, so the caller must make sure that the
+     * storage is not reachable from Python code while it is being sorted.
+     */
+    public abstract static class SortNode extends PNodeWithContext {
+
+        /**
+         * @param keyFunc the key function or {@code null}
+         */
+        public abstract void execute(VirtualFrame frame, SequenceStorage storage, Object keyFunc, boolean reverse);
+
+        @Specialization(guards = "keyFunc == null")
+        static void doInt(IntSequenceStorage storage, @SuppressWarnings("unused") Object keyFunc, boolean reverse) {
+            sortInts(storage.getInternalIntArray(), storage.length(), reverse);
+        }
+
+        @Specialization(guards = "keyFunc == null")
+        static void doLong(LongSequenceStorage storage, @SuppressWarnings("unused") Object keyFunc, boolean reverse) {
+            sortLongs(storage.getInternalLongArray(), storage.length(), reverse);
+        }
+
+        @Specialization(guards = "keyFunc == null")
+        static void doDouble(VirtualFrame frame, DoubleSequenceStorage storage, Object keyFunc, boolean reverse,
+                        @Cached("createBinaryProfile()") ConditionProfile totalOrderProfile,
+                        @Shared("getItems") @Cached GetInternalObjectArrayNode getItemsNode,
+                        @Shared("setItem") @Cached SetItemScalarNode setItemNode,
+                        @Shared("callKey") @Cached CallNode callKeyNode,
+                        @Shared("timSort") @Cached TimSortNode timSortNode) {
+            double[] array = storage.getInternalDoubleArray();
+            int length = storage.length();
+            if (totalOrderProfile.profile(isTotallyOrdered(array, length))) {
+                sortDoubles(array, length, reverse);
+            } else {
+                // NaNs and negative zeros are not ordered by Python's '<' like by Arrays.sort
+                doGeneric(frame, storage, keyFunc, reverse, getItemsNode, setItemNode, callKeyNode, timSortNode);
+            }
+        }
+
+        @Specialization(guards = {"!isPrimitiveStorage(storage) || keyFunc != null"})
+        static void doGeneric(VirtualFrame frame, SequenceStorage storage, Object keyFunc, boolean reverse,
+                        @Shared("getItems") @Cached GetInternalObjectArrayNode getItemsNode,
+                        @Shared("setItem") @Cached SetItemScalarNode setItemNode,
+                        @Shared("callKey") @Cached CallNode callKeyNode,
+                        @Shared("timSort") @Cached TimSortNode timSortNode) {
+            int length = storage.length();
+            // for object storages, this is the internal array and we sort it directly
+            Object[] items = getItemsNode.execute(storage);
+            Object[] keys = items;
+            Object[] values = null;
+            if (keyFunc != null) {
+                keys = new Object[length];
+                for (int i = 0; i < length; i++) {
+                    keys[i] = callKeyNode.execute(frame, keyFunc, items[i]);
+                }
+                values = items;
+            }
+            // reversing before and after the sort keeps equal items in their original order
+            if (reverse) {
+                TimSortNode.reverse(keys, values, 0, length);
+            }
+            try {
+                timSortNode.execute(frame, keys, values, length);
+            } finally {
+                // also if a comparison raised, so that the items are in their original order again
+                if (reverse) {
+                    TimSortNode.reverse(keys, values, 0, length);
+                }
+            }
+            if (!(storage instanceof ObjectSequenceStorage)) {
+                for (int i = 0; i < length; i++) {
+                    setItemNode.execute(storage, i, items[i]);
+                }
+            }
+        }
+
+        protected static boolean isPrimitiveStorage(SequenceStorage storage) {
+            return storage instanceof IntSequenceStorage || storage instanceof LongSequenceStorage || storage instanceof DoubleSequenceStorage;
+        }
+
+        private static boolean isTotallyOrdered(double[] array, int length) {
+            for (int i = 0; i < length; i++) {
+                double d = array[i];
+                if (Double.isNaN(d) || Double.doubleToRawLongBits(d) == Long.MIN_VALUE) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @TruffleBoundary(allowInlining = true)
+        private static void sortInts(int[] array, int length, boolean reverse) {
+            Arrays.sort(array, 0, length);
+            if (reverse) {
+                for (int i = 0, j = length - 1; i < j; i++, j--) {
+                    int tmp = array[i];
+                    array[i] = array[j];
+                    array[j] = tmp;
+                }
+            }
+        }
+
+        @TruffleBoundary(allowInlining = true)
+        private static void sortLongs(long[] array, int length, boolean reverse) {
+            Arrays.sort(array, 0, length);
+            if (reverse) {
+                for (int i = 0, j = length - 1; i < j; i++, j--) {
+                    long tmp = array[i];
+                    array[i] = array[j];
+                    array[j] = tmp;
+                }
+            }
+        }
+
+        @TruffleBoundary(allowInlining = true)
+        private static void sortDoubles(double[] array, int length, boolean reverse) {
+            Arrays.sort(array, 0, length);
+            if (reverse) {
+                for (int i = 0, j = length - 1; i < j; i++, j--) {
+                    double tmp = array[i];
+                    array[i] = array[j];
+                    array[j] = tmp;
+                }
+            }
+        }
+
+        public static SortNode create() {
+            return SortNodeGen.create();
+        }
+    }
+
+    /**
+     * A stable sort of the first {@code length} keys using Python's {@code <}. If there are
+     * values, they are moved along with their keys. This is a port of CPython's {@code listsort}
+     * (see {@code listsort.txt} in {@code lib-graalpython}): runs are detected and extended to a
+     * minimal length with a binary insertion sort, and then merged in a balanced way, galloping
+     * when one of the runs wins consistently. Like in CPython, an inconsistent {@code __lt__}
+     * leaves the items in some order, but never loses any of them.
+     */
+    public static final class TimSortNode extends PNodeWithContext {
+        private static final int MIN_GALLOP = 7;
+        private static final int MAX_MERGE_PENDING = 85;
+
+        @Child private BinaryComparisonNode ltNode = BinaryComparisonNode.create(__LT__, __GT__, "<");
+        @Child private CoerceToBooleanNode castToBooleanNode = CoerceToBooleanNode.createIfTrueNode();
+
+        private boolean lessThan(VirtualFrame frame, Object a, Object b) {
+            return castToBooleanNode.executeBoolean(frame, ltNode.executeWith(frame, a, b));
+        }
+
+        private static final class MergeState {
+            final Object[] keys;
+            final Object[] values;
+            Object[] tmpKeys = PythonUtils.EMPTY_OBJECT_ARRAY;
+            Object[] tmpValues;
+            int minGallop = MIN_GALLOP;
+            final int[] runBase = new int[MAX_MERGE_PENDING];
+            final int[] runLen = new int[MAX_MERGE_PENDING];
+            int pending;
+
+            MergeState(Object[] keys, Object[] values) {
+                this.keys = keys;
+                this.values = values;
+                this.tmpValues = values != null ? PythonUtils.EMPTY_OBJECT_ARRAY : null;
+            }
+
+            void ensureTemp(int need) {
+                if (tmpKeys.length < need) {
+                    tmpKeys = new Object[need];
+                    if (values != null) {
+                        tmpValues = new Object[need];
+                    }
+                }
+            }
+        }
+
+        public void execute(VirtualFrame frame, Object[] keys, Object[] values, int length) {
+            if (length < 2) {
+                return;
+            }
+            MergeState ms = new MergeState(keys, values);
+            int lo = 0;
+            int remaining = length;
+            int minRun = computeMinRun(remaining);
+            do {
+                int n = countRun(frame, keys, lo, lo + remaining);
+                if (n < 0) {
+                    n = -n;
+                    reverse(keys, values, lo, lo + n);
+                }
+                if (n < minRun) {
+                    int force = remaining <= minRun ? remaining : minRun;
+                    binarySort(frame, keys, values, lo, lo + force, lo + n);
+                    n = force;
+                }
+                ms.runBase[ms.pending] = lo;
+                ms.runLen[ms.pending] = n;
+                ms.pending++;
+                mergeCollapse(frame, ms);
+                lo += n;
+                remaining -= n;
+            } while (remaining != 0);
+            mergeForceCollapse(frame, ms);
+        }
+
+        private static int computeMinRun(int length) {
+            int n = length;
+            int r = 0;
+            while (n >= 64) {
+                r |= n & 1;
+                n >>= 1;
+            }
+            return n + r;
+        }
+
+        /**
+         * Returns the length of the run beginning at {@code lo}, negated if the run is strictly
+         * descending.
+         */
+        private int countRun(VirtualFrame frame, Object[] keys, int lo, int hi) {
+            if (lo + 1 == hi) {
+                return 1;
+            }
+            int n = 2;
+            if (lessThan(frame, keys[lo + 1], keys[lo])) {
+                for (int i = lo + 2; i < hi && lessThan(frame, keys[i], keys[i - 1]); i++) {
+                    n++;
+                }
+                return -n;
+            }
+            for (int i = lo + 2; i < hi && !lessThan(frame, keys[i], keys[i - 1]); i++) {
+                n++;
+            }
+            return n;
+        }
+
+        static void reverse(Object[] keys, Object[] values, int lo, int hi) {
+            for (int i = lo, j = hi - 1; i < j; i++, j--) {
+                Object tmp = keys[i];
+                keys[i] = keys[j];
+                keys[j] = tmp;
+                if (values != null) {
+                    tmp = values[i];
+                    values[i] = values[j];
+                    values[j] = tmp;
+                }
+            }
+        }
+
+        /**
+         * Sorts {@code [lo, hi)} with a binary insertion sort, given that {@code [lo, start)} is
+         * already sorted.
+         */
+        private void binarySort(VirtualFrame frame, Object[] keys, Object[] values, int lo, int hi, int start) {
+            for (int i = start; i < hi; i++) {
+                Object pivot = keys[i];
+                int l = lo;
+                int r = i;
+                while (l < r) {
+                    int p = l + ((r - l) >> 1);
+                    if (lessThan(frame, pivot, keys[p])) {
+                        r = p;
+                    } else {
+                        l = p + 1;
+                    }
+                }
+                System.arraycopy(keys, l, keys, l + 1, i - l);
+                keys[l] = pivot;
+                if (values != null) {
+                    Object pivotValue = values[i];
+                    System.arraycopy(values, l, values, l + 1, i - l);
+                    values[l] = pivotValue;
+                }
+            }
+        }
+
+        private void mergeCollapse(VirtualFrame frame, MergeState ms) {
+            int[] len = ms.runLen;
+            while (ms.pending > 1) {
+                int n = ms.pending - 2;
+                if ((n > 0 && len[n - 1] <= len[n] + len[n + 1]) || (n > 1 && len[n - 2] <= len[n - 1] + len[n])) {
+                    if (len[n - 1] < len[n + 1]) {
+                        n--;
+                    }
+                    mergeAt(frame, ms, n);
+                } else if (len[n] <= len[n + 1]) {
+                    mergeAt(frame, ms, n);
+                } else {
+                    break;
+                }
+            }
+        }
+
+        private void mergeForceCollapse(VirtualFrame frame, MergeState ms) {
+            int[] len = ms.runLen;
+            while (ms.pending > 1) {
+                int n = ms.pending - 2;
+                if (n > 0 && len[n - 1] < len[n + 1]) {
+                    n--;
+                }
+                mergeAt(frame, ms, n);
+            }
+        }
+
+        private void mergeAt(VirtualFrame frame, MergeState ms, int i) {
+            int baseA = ms.runBase[i];
+            int lenA = ms.runLen[i];
+            int baseB = ms.runBase[i + 1];
+            int lenB = ms.runLen[i + 1];
+            ms.runLen[i] = lenA + lenB;
+            if (i == ms.pending - 3) {
+                ms.runBase[i + 1] = ms.runBase[i + 2];
+                ms.runLen[i + 1] = ms.runLen[i + 2];
+            }
+            ms.pending--;
+
+            Object[] keys = ms.keys;
+            // elements of A that are already in place
+            int k = gallopRight(frame, keys[baseB], keys, baseA, lenA, 0);
+            baseA += k;
+            lenA -= k;
+            if (lenA == 0) {
+                return;
+            }
+            // elements of B that are already in place
+            lenB = gallopLeft(frame, keys[baseA + lenA - 1], keys, baseB, lenB, lenB - 1);
+            if (lenB == 0) {
+                return;
+            }
+            if (lenA <= lenB) {
+                mergeLo(frame, ms, baseA, lenA, baseB, lenB);
+            } else {
+                mergeHi(frame, ms, baseA, lenA, baseB, lenB);
+            }
+        }
+
+        /**
+         * Returns {@code k} such that {@code a[base + k - 1] < key <= a[base + k]}, starting the
+         * search at {@code hint}.
+         */
+        private int gallopLeft(VirtualFrame frame, Object key, Object[] a, int base, int n, int hint) {
+            int lastOfs = 0;
+            int ofs = 1;
+            if (lessThan(frame, a[base + hint], key)) {
+                // a[hint] < key: gallop right until a[hint + lastOfs] < key <= a[hint + ofs]
+                int maxOfs = n - hint;
+                while (ofs < maxOfs) {
+                    if (lessThan(frame, a[base + hint + ofs], key)) {
+                        lastOfs = ofs;
+                        ofs = (ofs << 1) + 1;
+                        if (ofs <= 0) {
+                            ofs = maxOfs;
+                        }
+                    } else {
+                        break;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                lastOfs += hint;
+                ofs += hint;
+            } else {
+                // key <= a[hint]: gallop left until a[hint - ofs] < key <= a[hint - lastOfs]
+                int maxOfs = hint + 1;
+                while (ofs < maxOfs) {
+                    if (lessThan(frame, a[base + hint - ofs], key)) {
+                        break;
+                    }
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                int k = lastOfs;
+                lastOfs = hint - ofs;
+                ofs = hint - k;
+            }
+            // now a[lastOfs] < key <= a[ofs], binary search in between
+            lastOfs++;
+            while (lastOfs < ofs) {
+                int m = lastOfs + ((ofs - lastOfs) >> 1);
+                if (lessThan(frame, a[base + m], key)) {
+                    lastOfs = m + 1;
+                } else {
+                    ofs = m;
+                }
+            }
+            return ofs;
+        }
+
+        /**
+         * Returns {@code k} such that {@code a[base + k - 1] <= key < a[base + k]}, starting the
+         * search at {@code hint}.
+         */
+        private int gallopRight(VirtualFrame frame, Object key, Object[] a, int base, int n, int hint) {
+            int lastOfs = 0;
+            int ofs = 1;
+            if (lessThan(frame, key, a[base + hint])) {
+                // key < a[hint]: gallop left until a[hint - ofs] <= key < a[hint - lastOfs]
+                int maxOfs = hint + 1;
+                while (ofs < maxOfs) {
+                    if (lessThan(frame, key, a[base + hint - ofs])) {
+                        lastOfs = ofs;
+                        ofs = (ofs << 1) + 1;
+                        if (ofs <= 0) {
+                            ofs = maxOfs;
+                        }
+                    } else {
+                        break;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                int k = lastOfs;
+                lastOfs = hint - ofs;
+                ofs = hint - k;
+            } else {
+                // a[hint] <= key: gallop right until a[hint + lastOfs] <= key < a[hint + ofs]
+                int maxOfs = n - hint;
+                while (ofs < maxOfs) {
+                    if (lessThan(frame, key, a[base + hint + ofs])) {
+                        break;
+                    }
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                lastOfs += hint;
+                ofs += hint;
+            }
+            // now a[lastOfs] <= key < a[ofs], binary search in between
+            lastOfs++;
+            while (lastOfs < ofs) {
+                int m = lastOfs + ((ofs - lastOfs) >> 1);
+                if (lessThan(frame, key, a[base + m])) {
+                    ofs = m;
+                } else {
+                    lastOfs = m + 1;
+                }
+            }
+            return ofs;
+        }
+
+        private static void move(MergeState ms, boolean fromTmp, int from, boolean toTmp, int to, int n) {
+            System.arraycopy(fromTmp ? ms.tmpKeys : ms.keys, from, toTmp ? ms.tmpKeys : ms.keys, to, n);
+            if (ms.values != null) {
+                System.arraycopy(fromTmp ? ms.tmpValues : ms.values, from, toTmp ? ms.tmpValues : ms.values, to, n);
+            }
+        }
+
+        /**
+         * Merges the adjacent runs A and B in place, where A is the shorter one and is copied to the
+         * temporary arrays. Requires that {@code A[0] > B[0]} and {@code A[lenA - 1] > B[lenB - 1]}.
+         */
+        private void mergeLo(VirtualFrame frame, MergeState ms, int baseA, int lenA, int baseB, int lenB) {
+            ms.ensureTemp(lenA);
+            move(ms, false, baseA, true, 0, lenA);
+            Object[] keys = ms.keys;
+            Object[] tmp = ms.tmpKeys;
+            int dest = baseA;
+            int a = 0;
+            int b = baseB;
+            int na = lenA;
+            int nb = lenB;
+
+            move(ms, false, b++, false, dest++, 1);
+            nb--;
+            boolean copyB = false;
+            boolean failed = true;
+            try {
+                outer: if (nb != 0) {
+                    if (na == 1) {
+                        copyB = true;
+                        break outer;
+                    }
+                    int minGallop = ms.minGallop;
+                    while (true) {
+                        int acount = 0;
+                        int bcount = 0;
+                        // one-at-a-time merging until one run wins consistently
+                        while (true) {
+                            if (lessThan(frame, keys[b], tmp[a])) {
+                                move(ms, false, b++, false, dest++, 1);
+                                bcount++;
+                                acount = 0;
+                                nb--;
+                                if (nb == 0) {
+                                    break outer;
+                                }
+                                if (bcount >= minGallop) {
+                                    break;
+                                }
+                            } else {
+                                move(ms, true, a++, false, dest++, 1);
+                                acount++;
+                                bcount = 0;
+                                na--;
+                                if (na == 1) {
+                                    copyB = true;
+                                    break outer;
+                                }
+                                if (acount >= minGallop) {
+                                    break;
+                                }
+                            }
+                        }
+                        // galloping until neither run wins consistently
+                        minGallop++;
+                        do {
+                            minGallop -= minGallop > 1 ? 1 : 0;
+                            ms.minGallop = minGallop;
+                            int k = gallopRight(frame, keys[b], tmp, a, na, 0);
+                            acount = k;
+                            if (k != 0) {
+                                move(ms, true, a, false, dest, k);
+                                dest += k;
+                                a += k;
+                                na -= k;
+                                if (na == 1) {
+                                    copyB = true;
+                                    break outer;
+                                }
+                                // na == 0 is impossible for a consistent comparison, but we cannot
+                                // assume that it is
+                                if (na == 0) {
+                                    break outer;
+                                }
+                            }
+                            move(ms, false, b++, false, dest++, 1);
+                            nb--;
+                            if (nb == 0) {
+                                break outer;
+                            }
+
+                            k = gallopLeft(frame, tmp[a], keys, b, nb, 0);
+                            bcount = k;
+                            if (k != 0) {
+                                move(ms, false, b, false, dest, k);
+                                dest += k;
+                                b += k;
+                                nb -= k;
+                                if (nb == 0) {
+                                    break outer;
+                                }
+                            }
+                            move(ms, true, a++, false, dest++, 1);
+                            na--;
+                            if (na == 1) {
+                                copyB = true;
+                                break outer;
+                            }
+                        } while (acount >= MIN_GALLOP || bcount >= MIN_GALLOP);
+                        minGallop++;
+                        ms.minGallop = minGallop;
+                    }
+                }
+                failed = false;
+            } finally {
+                // like the Fail path of CPython's merge_lo: if a comparison raised, the rest of A
+                // is still in the temporary arrays and must be put back into the gap before B
+                if (failed && na != 0) {
+                    move(ms, true, a, false, dest, na);
+                }
+            }
+            if (copyB) {
+                // the last element of A belongs at the end of the merge
+                move(ms, false, b, false, dest, nb);
+                move(ms, true, a, false, dest + nb, 1);
+            } else if (na != 0) {
+                move(ms, true, a, false, dest, na);
+            }
+        }
+
+        /**
+         * Merges the adjacent runs A and B in place, where B is the shorter one and is copied to the
+         * temporary arrays. Requires that {@code A[0] > B[0]} and {@code A[lenA - 1] > B[lenB - 1]}.
+         */
+        private void mergeHi(VirtualFrame frame, MergeState ms, int baseA, int lenA, int baseB, int lenB) {
+            ms.ensureTemp(lenB);
+            move(ms, false, baseB, true, 0, lenB);
+            Object[] keys = ms.keys;
+            Object[] tmp = ms.tmpKeys;
+            int dest = baseB + lenB - 1;
+            int a = baseA + lenA - 1;
+            int b = lenB - 1;
+            int na = lenA;
+            int nb = lenB;
+
+            move(ms, false, a--, false, dest--, 1);
+            na--;
+            boolean copyA = false;
+            boolean failed = true;
+            try {
+                outer: if (na != 0) {
+                    if (nb == 1) {
+                        copyA = true;
+                        break outer;
+                    }
+                    int minGallop = ms.minGallop;
+                    while (true) {
+                        int acount = 0;
+                        int bcount = 0;
+                        // one-at-a-time merging until one run wins consistently
+                        while (true) {
+                            if (lessThan(frame, tmp[b], keys[a])) {
+                                move(ms, false, a--, false, dest--, 1);
+                                acount++;
+                                bcount = 0;
+                                na--;
+                                if (na == 0) {
+                                    break outer;
+                                }
+                                if (acount >= minGallop) {
+                                    break;
+                                }
+                            } else {
+                                move(ms, true, b--, false, dest--, 1);
+                                bcount++;
+                                acount = 0;
+                                nb--;
+                                if (nb == 1) {
+                                    copyA = true;
+                                    break outer;
+                                }
+                                if (bcount >= minGallop) {
+                                    break;
+                                }
+                            }
+                        }
+                        // galloping until neither run wins consistently
+                        minGallop++;
+                        do {
+                            minGallop -= minGallop > 1 ? 1 : 0;
+                            ms.minGallop = minGallop;
+                            int k = na - gallopRight(frame, tmp[b], keys, baseA, na, na - 1);
+                            acount = k;
+                            if (k != 0) {
+                                dest -= k;
+                                a -= k;
+                                move(ms, false, a + 1, false, dest + 1, k);
+                                na -= k;
+                                if (na == 0) {
+                                    break outer;
+                                }
+                            }
+                            move(ms, true, b--, false, dest--, 1);
+                            nb--;
+                            if (nb == 1) {
+                                copyA = true;
+                                break outer;
+                            }
+
+                            k = nb - gallopLeft(frame, keys[a], tmp, 0, nb, nb - 1);
+                            bcount = k;
+                            if (k != 0) {
+                                dest -= k;
+                                b -= k;
+                                move(ms, true, b + 1, false, dest + 1, k);
+                                nb -= k;
+                                if (nb == 1) {
+                                    copyA = true;
+                                    break outer;
+                                }
+                                // nb == 0 is impossible for a consistent comparison, but we cannot
+                                // assume that it is
+                                if (nb == 0) {
+                                    break outer;
+                                }
+                            }
+                            move(ms, false, a--, false, dest--, 1);
+                            na--;
+                            if (na == 0) {
+                                break outer;
+                            }
+                        } while (acount >= MIN_GALLOP || bcount >= MIN_GALLOP);
+                        minGallop++;
+                        ms.minGallop = minGallop;
+                    }
+                }
+                failed = false;
+            } finally {
+                // like the Fail path of CPython's merge_hi: if a comparison raised, the rest of B
+                // is still in the temporary arrays and must be put back into the gap after A
+                if (failed && nb != 0) {
+                    move(ms, true, 0, false, dest - (nb - 1), nb);
+                }
+            }
+            if (copyA) {
+                // the first element of B belongs at the front of the merge
+                dest -= na;
+                a -= na;
+                move(ms, false, a + 1, false, dest + 1, na);
+                move(ms, true, b, false, dest, 1);
+            } else if (nb != 0) {
+                move(ms, true, 0, false, dest - (nb - 1), nb);
+            }
+        }
+
+        public static TimSortNode create() {
+            return new TimSortNode();
+        }
+    }
+
     @GenerateUncached
     @ImportStatic(SequenceStorageBaseNode.class)
     public abstract static class InsertItemNode extends Node {
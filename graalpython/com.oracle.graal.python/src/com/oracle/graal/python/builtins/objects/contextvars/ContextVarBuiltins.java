@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.contextvars;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.LookupError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.RuntimeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.contextvars.ContextVarsNodes.GetCurrentContextNode;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PContextVar)
+public final class ContextVarBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return ContextVarBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "get", minNumOfPositionalArgs = 1, parameterNames = {"$self", "default"})
+    @GenerateNodeFactory
+    public abstract static class GetNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        Object get(PContextVar self, Object defaultValue,
+                        @Cached GetCurrentContextNode getCurrentContextNode,
+                        @Cached("createBinaryProfile()") ConditionProfile foundProfile) {
+            Object value = self.lookup(getCurrentContextNode.execute().getVars());
+            if (foundProfile.profile(value != null)) {
+                return value;
+            }
+            if (defaultValue != PNone.NO_VALUE) {
+                return defaultValue;
+            }
+            if (self.getDefaultValue() != null) {
+                return self.getDefaultValue();
+            }
+            throw raise(LookupError, new Object[]{self});
+        }
+    }
+
+    @Builtin(name = "set", minNumOfPositionalArgs = 2, parameterNames = {"$self", "value"})
+    @GenerateNodeFactory
+    public abstract static class SetNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PContextVarsToken set(PContextVar self, Object value,
+                        @Cached GetCurrentContextNode getCurrentContextNode) {
+            PContextVarsContext context = getCurrentContextNode.execute();
+            Hamt vars = context.getVars();
+            Object oldValue = self.lookup(vars);
+            context.setVars(vars.with(self, self.getHash(), value));
+            return factory().createContextVarsToken(context, self, oldValue);
+        }
+    }
+
+    @Builtin(name = "reset", minNumOfPositionalArgs = 2, parameterNames = {"$self", "token"})
+    @GenerateNodeFactory
+    public abstract static class ResetNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PNone reset(PContextVar self, PContextVarsToken token,
+                        @Cached GetCurrentContextNode getCurrentContextNode) {
+            if (token.isUsed()) {
+                throw raise(RuntimeError, ErrorMessages.TOKEN_ALREADY_USED, token);
+            }
+            if (token.getVar() != self) {
+                throw raise(ValueError, ErrorMessages.TOKEN_CREATED_BY_DIFFERENT_CONTEXTVAR, token);
+            }
+            PContextVarsContext context = getCurrentContextNode.execute();
+            if (token.getContext() != context) {
+                throw raise(ValueError, ErrorMessages.TOKEN_CREATED_IN_DIFFERENT_CONTEXT, token);
+            }
+            token.setUsed();
+            Object oldValue = token.getOldValue();
+            if (oldValue == null) {
+                context.setVars(context.getVars().without(self, self.getHash()));
+            } else {
+                context.setVars(context.getVars().with(self, self.getHash(), oldValue));
+            }
+            return PNone.NONE;
+        }
+
+        @Fallback
+        Object reset(@SuppressWarnings("unused") Object self, Object token) {
+            throw raise(TypeError, ErrorMessages.EXPECTED_AN_INSTANCE_OF_TOKEN, token);
+        }
+    }
+
+    @Builtin(name = "name", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class NameNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String name(PContextVar self) {
+            return self.getName();
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String repr(VirtualFrame frame, PContextVar self,
+                        @Cached("create(__REPR__)") LookupAndCallUnaryNode reprNode,
+                        @Cached CastToJavaStringNode castToStringNode) {
+            String nameRepr = castToStringNode.execute(reprNode.executeObject(frame, self.getName()));
+            if (self.getDefaultValue() == null) {
+                return PythonUtils.format("<ContextVar name=%s at 0x%x>", nameRepr, self.getHash());
+            }
+            String defaultRepr = castToStringNode.execute(reprNode.executeObject(frame, self.getDefaultValue()));
+            return PythonUtils.format("<ContextVar name=%s default=%s at 0x%x>", nameRepr, defaultRepr, self.getHash());
+        }
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.contextvars;
+
+import java.util.ArrayList;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * An immutable hash array mapped trie, the persistent mapping used by CPython for the variables of
+ * a {@code contextvars.Context} (see cpython/Python/hamt.c). Every update returns a new trie that
+ * shares all untouched nodes with the old one, so copying a context is a simple reference copy.
+ *
+ * Keys are compared by identity and carry a precomputed hash, which is all that is needed for
+ * {@link PContextVar context variables}. Each level consumes five bits of the hash; keys whose
+ * hashes are equal end up in a collision node.
+ */
+public final class Hamt {
+    public static final Hamt EMPTY = new Hamt(null, 0);
+
+    private static final int BITS_PER_LEVEL = 5;
+    private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+
+    private abstract static class TreeNode {
+    }
+
+    private static final class Entry extends TreeNode {
+        final Object key;
+        final int hash;
+        final Object value;
+
+        Entry(Object key, int hash, Object value) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+        }
+    }
+
+    private static final class BitmapNode extends TreeNode {
+        final int bitmap;
+        final TreeNode[] children;
+
+        BitmapNode(int bitmap, TreeNode[] children) {
+            assert Integer.bitCount(bitmap) == children.length;
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+    }
+
+    private static final class CollisionNode extends TreeNode {
+        final int hash;
+        final Entry[] entries;
+
+        CollisionNode(int hash, Entry[] entries) {
+            this.hash = hash;
+            this.entries = entries;
+        }
+    }
+
+    private final TreeNode root;
+    private final int size;
+
+    private Hamt(TreeNode root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value associated with {@code key} or {@code null} if there is none.
+     */
+    @TruffleBoundary(allowInlining = true)
+    public Object lookup(Object key, int hash) {
+        TreeNode node = root;
+        int shift = 0;
+        while (node != null) {
+            if (node instanceof Entry) {
+                Entry entry = (Entry) node;
+                return entry.key == key ? entry.value : null;
+            } else if (node instanceof BitmapNode) {
+                BitmapNode bitmapNode = (BitmapNode) node;
+                int bit = bitpos(hash, shift);
+                if ((bitmapNode.bitmap & bit) == 0) {
+                    return null;
+                }
+                node = bitmapNode.children[index(bitmapNode.bitmap, bit)];
+                shift += BITS_PER_LEVEL;
+            } else {
+                CollisionNode collisionNode = (CollisionNode) node;
+                for (Entry entry : collisionNode.entries) {
+                    if (entry.key == key) {
+                        return entry.value;
+                    }
+                }
+                return null;
+            }
+        }
+        return null;
+    }
+
+    @TruffleBoundary
+    public Hamt with(Object key, int hash, Object value) {
+        assert value != null;
+        int newSize = lookup(key, hash) == null ? size + 1 : size;
+        return new Hamt(assoc(root, 0, new Entry(key, hash, value)), newSize);
+    }
+
+    @TruffleBoundary
+    public Hamt without(Object key, int hash) {
+        if (lookup(key, hash) == null) {
+            return this;
+        }
+        return new Hamt(dissoc(root, 0, key, hash), size - 1);
+    }
+
+    @TruffleBoundary
+    public Object[] keys() {
+        ArrayList<Entry> entries = entries();
+        Object[] result = new Object[entries.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = entries.get(i).key;
+        }
+        return result;
+    }
+
+    @TruffleBoundary
+    public Object[] values() {
+        ArrayList<Entry> entries = entries();
+        Object[] result = new Object[entries.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = entries.get(i).value;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the keys and values as a flat array of alternating keys and values.
+     */
+    @TruffleBoundary
+    public Object[] items() {
+        ArrayList<Entry> entries = entries();
+        Object[] result = new Object[entries.size() * 2];
+        for (int i = 0; i < entries.size(); i++) {
+            result[2 * i] = entries.get(i).key;
+            result[2 * i + 1] = entries.get(i).value;
+        }
+        return result;
+    }
+
+    private ArrayList<Entry> entries() {
+        ArrayList<Entry> entries = new ArrayList<>(size);
+        collect(root, entries);
+        return entries;
+    }
+
+    private static void collect(TreeNode node, ArrayList<Entry> entries) {
+        if (node instanceof Entry) {
+            entries.add((Entry) node);
+        } else if (node instanceof BitmapNode) {
+            for (TreeNode child : ((BitmapNode) node).children) {
+                collect(child, entries);
+            }
+        } else if (node instanceof CollisionNode) {
+            for (Entry entry : ((CollisionNode) node).entries) {
+                entries.add(entry);
+            }
+        }
+    }
+
+    private static int bitpos(int hash, int shift) {
+        return 1 << ((hash >>> shift) & LEVEL_MASK);
+    }
+
+    private static int index(int bitmap, int bit) {
+        return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    private static TreeNode assoc(TreeNode node, int shift, Entry newEntry) {
+        if (node == null) {
+            return newEntry;
+        } else if (node instanceof Entry) {
+            Entry entry = (Entry) node;
+            if (entry.key == newEntry.key) {
+                return newEntry;
+            }
+            return merge(entry, entry.hash, newEntry, shift);
+        } else if (node instanceof BitmapNode) {
+            BitmapNode bitmapNode = (BitmapNode) node;
+            int bit = bitpos(newEntry.hash, shift);
+            int idx = index(bitmapNode.bitmap, bit);
+            TreeNode[] children = bitmapNode.children;
+            if ((bitmapNode.bitmap & bit) == 0) {
+                TreeNode[] newChildren = new TreeNode[children.length + 1];
+                System.arraycopy(children, 0, newChildren, 0, idx);
+                newChildren[idx] = newEntry;
+                System.arraycopy(children, idx, newChildren, idx + 1, children.length - idx);
+                return new BitmapNode(bitmapNode.bitmap | bit, newChildren);
+            }
+            TreeNode[] newChildren = children.clone();
+            newChildren[idx] = assoc(children[idx], shift + BITS_PER_LEVEL, newEntry);
+            return new BitmapNode(bitmapNode.bitmap, newChildren);
+        } else {
+            CollisionNode collisionNode = (CollisionNode) node;
+            if (collisionNode.hash != newEntry.hash) {
+                return merge(collisionNode, collisionNode.hash, newEntry, shift);
+            }
+            Entry[] entries = collisionNode.entries;
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].key == newEntry.key) {
+                    Entry[] newEntries = entries.clone();
+                    newEntries[i] = newEntry;
+                    return new CollisionNode(collisionNode.hash, newEntries);
+                }
+            }
+            Entry[] newEntries = new Entry[entries.length + 1];
+            System.arraycopy(entries, 0, newEntries, 0, entries.length);
+            newEntries[entries.length] = newEntry;
+            return new CollisionNode(collisionNode.hash, newEntries);
+        }
+    }
+
+    /**
+     * Creates the subtree containing both an existing leaf (an entry or a collision node) and a new
+     * entry with a different key.
+     */
+    private static TreeNode merge(TreeNode existing, int existingHash, Entry newEntry, int shift) {
+        if (existingHash == newEntry.hash) {
+            assert existing instanceof Entry;
+            return new CollisionNode(existingHash, new Entry[]{(Entry) existing, newEntry});
+        }
+        int existingBit = bitpos(existingHash, shift);
+        int newBit = bitpos(newEntry.hash, shift);
+        if (existingBit == newBit) {
+            return new BitmapNode(existingBit, new TreeNode[]{merge(existing, existingHash, newEntry, shift + BITS_PER_LEVEL)});
+        }
+        TreeNode[] children = Integer.compareUnsigned(existingBit, newBit) < 0 ? new TreeNode[]{existing, newEntry} : new TreeNode[]{newEntry, existing};
+        return new BitmapNode(existingBit | newBit, children);
+    }
+
+    private static TreeNode dissoc(TreeNode node, int shift, Object key, int hash) {
+        if (node instanceof Entry) {
+            assert ((Entry) node).key == key;
+            return null;
+        } else if (node instanceof BitmapNode) {
+            BitmapNode bitmapNode = (BitmapNode) node;
+            int bit = bitpos(hash, shift);
+            int idx = index(bitmapNode.bitmap, bit);
+            TreeNode[] children = bitmapNode.children;
+            TreeNode newChild = dissoc(children[idx], shift + BITS_PER_LEVEL, key, hash);
+            if (newChild == null) {
+                if (children.length == 1) {
+                    return null;
+                }
+                if (children.length == 2 && !(children[1 - idx] instanceof BitmapNode)) {
+                    // leaves do not depend on their depth, so a single remaining leaf moves up
+                    return children[1 - idx];
+                }
+                TreeNode[] newChildren = new TreeNode[children.length - 1];
+                System.arraycopy(children, 0, newChildren, 0, idx);
+                System.arraycopy(children, idx + 1, newChildren, idx, children.length - idx - 1);
+                return new BitmapNode(bitmapNode.bitmap & ~bit, newChildren);
+            }
+            if (children.length == 1 && !(newChild instanceof BitmapNode)) {
+                return newChild;
+            }
+            TreeNode[] newChildren = children.clone();
+            newChildren[idx] = newChild;
+            return new BitmapNode(bitmapNode.bitmap, newChildren);
+        } else {
+            Entry[] entries = ((CollisionNode) node).entries;
+            if (entries.length == 2) {
+                return entries[0].key == key ? entries[1] : entries[0];
+            }
+            Entry[] newEntries = new Entry[entries.length - 1];
+            int j = 0;
+            for (Entry entry : entries) {
+                if (entry.key != key) {
+                    newEntries[j++] = entry;
+                }
+            }
+            return new CollisionNode(hash, newEntries);
+        }
+    }
+}
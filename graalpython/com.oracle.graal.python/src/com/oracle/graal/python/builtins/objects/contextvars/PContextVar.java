@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.contextvars;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * A {@code contextvars.ContextVar}. Context variables are compared by identity, so their hash is
+ * computed once at creation time.
+ *
+ * The result of the last lookup is cached together with the {@link Hamt} it was read from. Since
+ * the mappings are immutable, the cached value stays valid for as long as the current context
+ * holds the same mapping, regardless of the thread that performs the lookup.
+ */
+public final class PContextVar extends PythonBuiltinObject {
+    private final String name;
+    /** The default value or {@code null} if there is none. */
+    private final Object defaultValue;
+    private final int hash;
+    private volatile LookupCache lookupCache;
+
+    static final class LookupCache {
+        final Hamt vars;
+        /** The value of the variable in {@link #vars} or {@code null} if it is not set. */
+        final Object value;
+
+        LookupCache(Hamt vars, Object value) {
+            this.vars = vars;
+            this.value = value;
+        }
+    }
+
+    public PContextVar(Object cls, Shape instanceShape, String name, Object defaultValue) {
+        super(cls, instanceShape);
+        this.name = name;
+        this.defaultValue = defaultValue;
+        this.hash = System.identityHashCode(this);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Object getDefaultValue() {
+        return defaultValue;
+    }
+
+    public int getHash() {
+        return hash;
+    }
+
+    /**
+     * Returns the value of this variable in {@code vars} or {@code null} if it is not set.
+     */
+    public Object lookup(Hamt vars) {
+        LookupCache cache = lookupCache;
+        if (cache != null && cache.vars == vars) {
+            return cache.value;
+        }
+        Object value = vars.lookup(this, hash);
+        lookupCache = new LookupCache(vars, value);
+        return value;
+    }
+}
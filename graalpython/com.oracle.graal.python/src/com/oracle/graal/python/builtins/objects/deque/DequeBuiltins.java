@@ -0,0 +1,708 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.deque;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.IndexError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OverflowError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.RuntimeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.__DICT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__CONTAINS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__DELITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__IADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ITER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LEN__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REVERSED__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETITEM__;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.common.IndexNodes.NormalizeIndexNode;
+import com.oracle.graal.python.builtins.objects.deque.DequeBuiltinsClinicProviders.DequeIndexNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.objects.deque.DequeBuiltinsClinicProviders.DequeInsertNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.objects.deque.DequeBuiltinsClinicProviders.DequeRotateNodeClinicProviderGen;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
+import com.oracle.graal.python.nodes.control.GetNextNode;
+import com.oracle.graal.python.nodes.expression.BinaryComparisonNode;
+import com.oracle.graal.python.nodes.expression.CoerceToBooleanNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PDeque)
+public class DequeBuiltins extends PythonBuiltins {
+
+    @Override
+    public void initialize(PythonCore core) {
+        super.initialize(core);
+        builtinConstants.put(__HASH__, PNone.NONE);
+    }
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return DequeBuiltinsFactory.getFactories();
+    }
+
+    // deque.__init__([iterable[, maxlen]])
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 1, parameterNames = {"$self", "iterable", "maxlen"})
+    @GenerateNodeFactory
+    public abstract static class DequeInitNode extends PythonTernaryBuiltinNode {
+
+        @Specialization
+        PNone init(VirtualFrame frame, PDeque self, Object iterable, Object maxlenObj,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached ConditionProfile hasIterableProfile,
+                        @Cached DequeExtendNode extendNode) {
+            int maxlen = -1;
+            if (!PGuards.isPNone(maxlenObj)) {
+                maxlen = lib.asSizeWithFrame(maxlenObj, OverflowError, frame);
+                if (maxlen < 0) {
+                    throw raise(ValueError, ErrorMessages.MUST_BE_NON_NEGATIVE, "maxlen");
+                }
+            }
+            self.setMaxLength(maxlen);
+            if (self.getSize() > 0) {
+                self.clear();
+            }
+            if (hasIterableProfile.profile(iterable != PNone.NO_VALUE)) {
+                extendNode.execute(frame, self, iterable);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    // deque.append(x)
+    @Builtin(name = "append", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class DequeAppendNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        static PNone append(PDeque self, Object value) {
+            self.append(value);
+            return PNone.NONE;
+        }
+    }
+
+    // deque.appendleft(x)
+    @Builtin(name = "appendleft", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class DequeAppendLeftNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        static PNone appendLeft(PDeque self, Object value) {
+            self.appendLeft(value);
+            return PNone.NONE;
+        }
+    }
+
+    // deque.pop()
+    @Builtin(name = "pop", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class DequePopNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        Object pop(PDeque self) {
+            if (self.getSize() == 0) {
+                throw raise(IndexError, ErrorMessages.POP_FROM_EMPTY_DEQUE);
+            }
+            return self.pop();
+        }
+    }
+
+    // deque.popleft()
+    @Builtin(name = "popleft", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class DequePopLeftNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        Object popLeft(PDeque self) {
+            if (self.getSize() == 0) {
+                throw raise(IndexError, ErrorMessages.POP_FROM_EMPTY_DEQUE);
+            }
+            return self.popLeft();
+        }
+    }
+
+    // deque.extend(iterable)
+    @Builtin(name = "extend", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class DequeExtendNode extends PythonBinaryBuiltinNode {
+
+        public abstract PNone execute(VirtualFrame frame, PDeque self, Object iterable);
+
+        @Specialization(guards = "self == other")
+        static PNone extendSelf(PDeque self, @SuppressWarnings("unused") PDeque other) {
+            for (Object value : self.toArray()) {
+                self.append(value);
+            }
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "self != iterable")
+        static PNone extend(VirtualFrame frame, PDeque self, Object iterable,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached GetNextNode nextNode,
+                        @Cached IsBuiltinClassProfile errorProfile) {
+            Object iter = lib.getIteratorWithFrame(iterable, frame);
+            while (true) {
+                Object value;
+                try {
+                    value = nextNode.execute(frame, iter);
+                } catch (PException e) {
+                    e.expectStopIteration(errorProfile);
+                    return PNone.NONE;
+                }
+                self.append(value);
+            }
+        }
+    }
+
+    // deque.extendleft(iterable)
+    @Builtin(name = "extendleft", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class DequeExtendLeftNode extends PythonBinaryBuiltinNode {
+
+        @Specialization(guards = "self == other")
+        static PNone extendSelf(PDeque self, @SuppressWarnings("unused") PDeque other) {
+            for (Object value : self.toArray()) {
+                self.appendLeft(value);
+            }
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "self != iterable")
+        static PNone extendLeft(VirtualFrame frame, PDeque self, Object iterable,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached GetNextNode nextNode,
+                        @Cached IsBuiltinClassProfile errorProfile) {
+            Object iter = lib.getIteratorWithFrame(iterable, frame);
+            while (true) {
+                Object value;
+                try {
+                    value = nextNode.execute(frame, iter);
+                } catch (PException e) {
+                    e.expectStopIteration(errorProfile);
+                    return PNone.NONE;
+                }
+                self.appendLeft(value);
+            }
+        }
+    }
+
+    @Builtin(name = __IADD__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class DequeIAddNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        static PDeque iadd(VirtualFrame frame, PDeque self, Object other,
+                        @Cached DequeExtendNode extendNode) {
+            extendNode.execute(frame, self, other);
+            return self;
+        }
+    }
+
+    // deque.clear()
+    @Builtin(name = "clear", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class DequeClearNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static PNone clear(PDeque self) {
+            self.clear();
+            return PNone.NONE;
+        }
+    }
+
+    // deque.count(x)
+    @Builtin(name = "count", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class DequeCountNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        int count(VirtualFrame frame, PDeque self, Object value,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            int state = self.getState();
+            int count = 0;
+            for (int i = 0; i < self.getSize(); i++) {
+                if (lib.equalsWithFrame(self.get(i), value, lib, frame)) {
+                    count++;
+                }
+                if (self.getState() != state) {
+                    throw raise(RuntimeError, ErrorMessages.DEQUE_MUTATED_DURING_ITERATION);
+                }
+            }
+            return count;
+        }
+    }
+
+    @Builtin(name = __CONTAINS__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class DequeContainsNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        boolean contains(VirtualFrame frame, PDeque self, Object value,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            int state = self.getState();
+            for (int i = 0; i < self.getSize(); i++) {
+                if (lib.equalsWithFrame(self.get(i), value, lib, frame)) {
+                    return true;
+                }
+                if (self.getState() != state) {
+                    throw raise(RuntimeError, ErrorMessages.DEQUE_MUTATED_DURING_ITERATION);
+                }
+            }
+            return false;
+        }
+    }
+
+    // deque.index(x[, start[, stop]])
+    @Builtin(name = "index", minNumOfPositionalArgs = 2, parameterNames = {"$self", "value", "start", "stop"})
+    @ArgumentClinic(name = "start", conversion = ArgumentClinic.ClinicConversion.SliceIndex, defaultValue = "0")
+    @ArgumentClinic(name = "stop", conversion = ArgumentClinic.ClinicConversion.SliceIndex, defaultValue = "Integer.MAX_VALUE")
+    @GenerateNodeFactory
+    public abstract static class DequeIndexNode extends PythonQuaternaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DequeIndexNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        int index(VirtualFrame frame, PDeque self, Object value, int startIn, int stopIn,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached("create(__REPR__)") LookupAndCallUnaryNode reprNode,
+                        @Cached CastToJavaStringNode castToStringNode) {
+            int size = self.getSize();
+            int start = startIn;
+            if (start < 0) {
+                start = Math.max(start + size, 0);
+            }
+            int stop = stopIn;
+            if (stop < 0) {
+                stop = Math.max(stop + size, 0);
+            }
+            stop = Math.min(stop, size);
+            int state = self.getState();
+            for (int i = start; i < stop; i++) {
+                if (lib.equalsWithFrame(self.get(i), value, lib, frame)) {
+                    return i;
+                }
+                if (self.getState() != state) {
+                    throw raise(RuntimeError, ErrorMessages.DEQUE_MUTATED_DURING_ITERATION);
+                }
+            }
+            throw raise(ValueError, ErrorMessages.X_IS_NOT_IN_DEQUE, castToStringNode.execute(reprNode.executeObject(frame, value)));
+        }
+    }
+
+    // deque.insert(i, x)
+    @Builtin(name = "insert", minNumOfPositionalArgs = 3, parameterNames = {"$self", "index", "value"})
+    @ArgumentClinic(name = "index", conversion = ArgumentClinic.ClinicConversion.Index)
+    @GenerateNodeFactory
+    public abstract static class DequeInsertNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DequeInsertNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone insert(PDeque self, int indexIn, Object value) {
+            int size = self.getSize();
+            if (self.getMaxLength() == size) {
+                throw raise(IndexError, ErrorMessages.DEQUE_ALREADY_AT_MAX_SIZE);
+            }
+            int index = indexIn;
+            if (index < 0) {
+                index = Math.max(index + size, 0);
+            }
+            self.insert(Math.min(index, size), value);
+            return PNone.NONE;
+        }
+    }
+
+    // deque.remove(x)
+    @Builtin(name = "remove", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class DequeRemoveNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        PNone remove(VirtualFrame frame, PDeque self, Object value,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            int size = self.getSize();
+            for (int i = 0; i < size; i++) {
+                boolean found = lib.equalsWithFrame(self.get(i), value, lib, frame);
+                if (self.getSize() != size) {
+                    throw raise(IndexError, ErrorMessages.DEQUE_MUTATED_DURING_REMOVE);
+                }
+                if (found) {
+                    self.delete(i);
+                    return PNone.NONE;
+                }
+            }
+            throw raise(ValueError, ErrorMessages.DEQUE_REMOVE_X_NOT_IN_DEQUE);
+        }
+    }
+
+    // deque.reverse()
+    @Builtin(name = "reverse", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class DequeReverseNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static PNone reverse(PDeque self) {
+            self.reverse();
+            return PNone.NONE;
+        }
+    }
+
+    // deque.rotate(n=1)
+    @Builtin(name = "rotate", minNumOfPositionalArgs = 1, parameterNames = {"$self", "n"})
+    @ArgumentClinic(name = "n", conversion = ArgumentClinic.ClinicConversion.Index, defaultValue = "1")
+    @GenerateNodeFactory
+    public abstract static class DequeRotateNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return DequeRotateNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        static PNone rotate(PDeque self, int n) {
+            self.rotate(n);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "maxlen", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class DequeMaxLenNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static Object maxlen(PDeque self) {
+            int maxLength = self.getMaxLength();
+            return maxLength < 0 ? PNone.NONE : maxLength;
+        }
+    }
+
+    @Builtin(name = __LEN__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class DequeLenNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        static int len(PDeque self) {
+            return self.getSize();
+        }
+    }
+
+    @Builtin(name = __ITER__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class DequeIterNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        PDequeIter iter(PDeque self) {
+            return factory().createDequeIter(self);
+        }
+    }
+
+    @Builtin(name = __REVERSED__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class DequeReversedNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        PDequeIter reversed(PDeque self) {
+            return factory().createDequeRevIter(self);
+        }
+    }
+
+    @Builtin(name = __GETITEM__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class DequeGetItemNode extends PythonBinaryBuiltinNode {
+
+        @Specialization(limit = "3")
+        static Object getitem(PDeque self, Object idx,
+                        @CachedLibrary("idx") PythonObjectLibrary lib,
+                        @Cached("forDeque()") NormalizeIndexNode normalizeIndexNode) {
+            return self.get(normalizeIndexNode.execute(lib.asIndex(idx), self.getSize()));
+        }
+    }
+
+    @Builtin(name = __SETITEM__, minNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    public abstract static class DequeSetItemNode extends PythonTernaryBuiltinNode {
+
+        @Specialization(limit = "3")
+        static PNone setitem(PDeque self, Object idx, Object value,
+                        @CachedLibrary("idx") PythonObjectLibrary lib,
+                        @Cached("forDeque()") NormalizeIndexNode normalizeIndexNode) {
+            self.set(normalizeIndexNode.execute(lib.asIndex(idx), self.getSize()), value);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = __DELITEM__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class DequeDelItemNode extends PythonBinaryBuiltinNode {
+
+        @Specialization(limit = "3")
+        static PNone delitem(PDeque self, Object idx,
+                        @CachedLibrary("idx") PythonObjectLibrary lib,
+                        @Cached("forDeque()") NormalizeIndexNode normalizeIndexNode) {
+            self.delete(normalizeIndexNode.execute(lib.asIndex(idx), self.getSize()));
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = __REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class DequeReduceNode extends PythonUnaryBuiltinNode {
+
+        @Specialization(limit = "1")
+        Object reduce(VirtualFrame frame, PDeque self,
+                        @CachedLibrary("self") PythonObjectLibrary lib) {
+            Object cls = lib.getLazyPythonClass(self);
+            Object dict = lib.lookupAttribute(self, frame, __DICT__);
+            if (dict == PNone.NO_VALUE) {
+                dict = PNone.NONE;
+            }
+            PTuple emptyTuple = factory().createEmptyTuple();
+            PTuple args;
+            if (self.getMaxLength() < 0) {
+                args = emptyTuple;
+            } else {
+                args = factory().createTuple(new Object[]{emptyTuple, self.getMaxLength()});
+            }
+            return factory().createTuple(new Object[]{cls, args, dict, factory().createDequeIter(self)});
+        }
+    }
+
+    abstract static class DequeCompareNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        boolean cmp(VirtualFrame frame, PDeque self, PDeque other,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached("createComparison()") BinaryComparisonNode compareNode,
+                        @Cached("createIfTrueNode()") CoerceToBooleanNode coerceToBooleanNode) {
+            int selfState = self.getState();
+            int otherState = other.getState();
+            int commonLength = Math.min(self.getSize(), other.getSize());
+            for (int i = 0; i < commonLength; i++) {
+                Object selfItem = self.get(i);
+                Object otherItem = other.get(i);
+                boolean equal = lib.equalsWithFrame(selfItem, otherItem, lib, frame);
+                if (self.getState() != selfState || other.getState() != otherState) {
+                    throw raise(RuntimeError, ErrorMessages.DEQUE_MUTATED_DURING_ITERATION);
+                }
+                if (!equal) {
+                    return coerceToBooleanNode.executeBoolean(frame, compareNode.executeWith(frame, selfItem, otherItem));
+                }
+            }
+            return compareLengths(self.getSize(), other.getSize());
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object cmp(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        @SuppressWarnings("unused")
+        protected boolean compareLengths(int a, int b) {
+            throw new AbstractMethodError("compareLengths");
+        }
+
+        protected BinaryComparisonNode createComparison() {
+            throw new AbstractMethodError("createComparison");
+        }
+    }
+
+    abstract static class DequeEqualityNode extends PythonBinaryBuiltinNode {
+
+        @Specialization
+        boolean cmp(VirtualFrame frame, PDeque self, PDeque other,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            if (self.getSize() != other.getSize()) {
+                return isNotEquals();
+            }
+            int selfState = self.getState();
+            int otherState = other.getState();
+            for (int i = 0; i < self.getSize(); i++) {
+                boolean equal = lib.equalsWithFrame(self.get(i), other.get(i), lib, frame);
+                if (self.getState() != selfState || other.getState() != otherState) {
+                    throw raise(RuntimeError, ErrorMessages.DEQUE_MUTATED_DURING_ITERATION);
+                }
+                if (!equal) {
+                    return isNotEquals();
+                }
+            }
+            return !isNotEquals();
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        static Object cmp(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        protected boolean isNotEquals() {
+            throw new AbstractMethodError("isNotEquals");
+        }
+    }
+
+    @Builtin(name = __EQ__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class DequeEqNode extends DequeEqualityNode {
+
+        @Override
+        protected boolean isNotEquals() {
+            return false;
+        }
+    }
+
+    @Builtin(name = __NE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class DequeNeNode extends DequeEqualityNode {
+
+        @Override
+        protected boolean isNotEquals() {
+            return true;
+        }
+    }
+
+    @Builtin(name = __LT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class DequeLtNode extends DequeCompareNode {
+
+        @Override
+        protected BinaryComparisonNode createComparison() {
+            return BinaryComparisonNode.create(__LT__, __GT__, "<");
+        }
+
+        @Override
+        protected boolean compareLengths(int a, int b) {
+            return a < b;
+        }
+    }
+
+    @Builtin(name = __LE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class DequeLeNode extends DequeCompareNode {
+
+        @Override
+        protected BinaryComparisonNode createComparison() {
+            return BinaryComparisonNode.create(__LE__, __GE__, "<=");
+        }
+
+        @Override
+        protected boolean compareLengths(int a, int b) {
+            return a <= b;
+        }
+    }
+
+    @Builtin(name = __GT__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class DequeGtNode extends DequeCompareNode {
+
+        @Override
+        protected BinaryComparisonNode createComparison() {
+            return BinaryComparisonNode.create(__GT__, __LT__, ">");
+        }
+
+        @Override
+        protected boolean compareLengths(int a, int b) {
+            return a > b;
+        }
+    }
+
+    @Builtin(name = __GE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class DequeGeNode extends DequeCompareNode {
+
+        @Override
+        protected BinaryComparisonNode createComparison() {
+            return BinaryComparisonNode.create(__GE__, __LE__, ">=");
+        }
+
+        @Override
+        protected boolean compareLengths(int a, int b) {
+            return a >= b;
+        }
+    }
+}
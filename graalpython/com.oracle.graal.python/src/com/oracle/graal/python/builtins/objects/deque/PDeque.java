@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.deque;
+
+import java.util.Arrays;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * A double-ended queue backed by a circular array. The capacity of the array is always a power of
+ * two, so that the physical position of an element can be computed by masking. Unlike CPython's
+ * block list, indexing is constant time.
+ *
+ * Operations that add or remove elements increment a modification {@link #getState() state},
+ * which is used by iterators (and by the comparing builtins) to detect concurrent modification.
+ */
+public final class PDeque extends PythonBuiltinObject {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private Object[] data = new Object[INITIAL_CAPACITY];
+    private int head;
+    private int size;
+    /** The maximum length or {@code -1} if unbounded. */
+    private int maxLength = -1;
+    private int state;
+
+    public PDeque(Object cls, Shape instanceShape) {
+        super(cls, instanceShape);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public void setMaxLength(int maxLength) {
+        assert maxLength >= -1;
+        this.maxLength = maxLength;
+    }
+
+    public int getState() {
+        return state;
+    }
+
+    private int physicalIndex(int index) {
+        return (head + index) & (data.length - 1);
+    }
+
+    public Object get(int index) {
+        assert 0 <= index && index < size;
+        return data[physicalIndex(index)];
+    }
+
+    public void set(int index, Object value) {
+        assert 0 <= index && index < size;
+        data[physicalIndex(index)] = value;
+    }
+
+    /**
+     * Adds an element to the right side. If the deque is bounded and already full, the leftmost
+     * element is discarded.
+     */
+    public void append(Object value) {
+        state++;
+        if (maxLength == 0) {
+            return;
+        }
+        if (size == maxLength) {
+            popLeftInternal();
+        }
+        ensureCapacity();
+        data[physicalIndex(size)] = value;
+        size++;
+    }
+
+    /**
+     * Adds an element to the left side. If the deque is bounded and already full, the rightmost
+     * element is discarded.
+     */
+    public void appendLeft(Object value) {
+        state++;
+        if (maxLength == 0) {
+            return;
+        }
+        if (size == maxLength) {
+            popInternal();
+        }
+        ensureCapacity();
+        head = (head - 1) & (data.length - 1);
+        data[head] = value;
+        size++;
+    }
+
+    /**
+     * Removes and returns the rightmost element. The deque must not be empty.
+     */
+    public Object pop() {
+        state++;
+        return popInternal();
+    }
+
+    /**
+     * Removes and returns the leftmost element. The deque must not be empty.
+     */
+    public Object popLeft() {
+        state++;
+        return popLeftInternal();
+    }
+
+    private Object popInternal() {
+        assert size > 0;
+        int idx = physicalIndex(size - 1);
+        Object result = data[idx];
+        data[idx] = null;
+        size--;
+        return result;
+    }
+
+    private Object popLeftInternal() {
+        assert size > 0;
+        Object result = data[head];
+        data[head] = null;
+        head = (head + 1) & (data.length - 1);
+        size--;
+        return result;
+    }
+
+    public void clear() {
+        state++;
+        if (data.length > INITIAL_CAPACITY) {
+            data = new Object[INITIAL_CAPACITY];
+        } else {
+            Arrays.fill(data, null);
+        }
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Rotates the deque {@code n} steps to the right. If {@code n} is negative, rotates to the
+     * left. Elements are moved one at a time around the ring, so the cost is proportional to the
+     * effective number of steps, which is at most half of the size.
+     */
+    public void rotate(int n) {
+        state++;
+        if (size <= 1) {
+            return;
+        }
+        int steps = n % size;
+        int halfSize = size >> 1;
+        if (steps > halfSize) {
+            steps -= size;
+        } else if (steps < -halfSize) {
+            steps += size;
+        }
+        int mask = data.length - 1;
+        if (size == data.length) {
+            // the ring is full, so moving the head is all there is to do
+            head = (head - steps) & mask;
+            return;
+        }
+        for (; steps > 0; steps--) {
+            int tail = physicalIndex(size - 1);
+            head = (head - 1) & mask;
+            data[head] = data[tail];
+            data[tail] = null;
+        }
+        for (; steps < 0; steps++) {
+            int tail = physicalIndex(size);
+            data[tail] = data[head];
+            data[head] = null;
+            head = (head + 1) & mask;
+        }
+    }
+
+    public void reverse() {
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            int left = physicalIndex(i);
+            int right = physicalIndex(j);
+            Object tmp = data[left];
+            data[left] = data[right];
+            data[right] = tmp;
+        }
+    }
+
+    /**
+     * Removes the element at the given index, moving the elements of the shorter side.
+     */
+    public void delete(int index) {
+        assert 0 <= index && index < size;
+        state++;
+        if (index < (size >> 1)) {
+            for (int i = index; i > 0; i--) {
+                data[physicalIndex(i)] = data[physicalIndex(i - 1)];
+            }
+            popLeftInternal();
+        } else {
+            for (int i = index; i < size - 1; i++) {
+                data[physicalIndex(i)] = data[physicalIndex(i + 1)];
+            }
+            popInternal();
+        }
+    }
+
+    /**
+     * Inserts an element before the given index, moving the elements of the shorter side. The
+     * caller must ensure that a bounded deque is not full.
+     */
+    public void insert(int index, Object value) {
+        assert 0 <= index && index <= size;
+        assert maxLength == -1 || size < maxLength;
+        state++;
+        ensureCapacity();
+        if (index < (size >> 1)) {
+            head = (head - 1) & (data.length - 1);
+            size++;
+            for (int i = 0; i < index; i++) {
+                data[physicalIndex(i)] = data[physicalIndex(i + 1)];
+            }
+        } else {
+            size++;
+            for (int i = size - 1; i > index; i--) {
+                data[physicalIndex(i)] = data[physicalIndex(i - 1)];
+            }
+        }
+        data[physicalIndex(index)] = value;
+    }
+
+    /**
+     * Returns the elements in order as a new array.
+     */
+    public Object[] toArray() {
+        Object[] result = new Object[size];
+        copyTo(result);
+        return result;
+    }
+
+    private void copyTo(Object[] dest) {
+        int firstPart = Math.min(size, data.length - head);
+        PythonUtils.arraycopy(data, head, dest, 0, firstPart);
+        PythonUtils.arraycopy(data, 0, dest, firstPart, size - firstPart);
+    }
+
+    private void ensureCapacity() {
+        if (size == data.length) {
+            grow();
+        }
+    }
+
+    @TruffleBoundary
+    private void grow() {
+        int newCapacity = data.length << 1;
+        if (newCapacity < 0) {
+            throw new OutOfMemoryError();
+        }
+        Object[] newData = new Object[newCapacity];
+        copyTo(newData);
+        data = newData;
+        head = 0;
+    }
+}
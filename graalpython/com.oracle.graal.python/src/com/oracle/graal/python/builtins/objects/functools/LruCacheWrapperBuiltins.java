@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.functools;
+
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.__DICT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__CALL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GET__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.functools.PLruCacheWrapper.Link;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.attributes.GetAttributeNode.GetFixedAttributeNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonVarargsBuiltinNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PLruCacheWrapper)
+public final class LruCacheWrapperBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return LruCacheWrapperBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Builds the cache key for a call like {@code functools._make_key}: a single {@code int} or
+     * {@code str} argument is used as is, otherwise the key is a tuple of the positional arguments,
+     * followed by a marker and the keyword names and values, followed by the argument types if the
+     * cache is typed.
+     */
+    abstract static class MakeKeyNode extends PNodeWithContext {
+        abstract Object execute(PLruCacheWrapper self, Object[] args, PKeyword[] keywords);
+
+        @Specialization(guards = {"!self.isTyped()", "keywords.length == 0"})
+        static Object argsKey(@SuppressWarnings("unused") PLruCacheWrapper self, Object[] args, @SuppressWarnings("unused") PKeyword[] keywords,
+                        @Cached IsBuiltinClassProfile isBuiltinClassProfile,
+                        @Cached PythonObjectFactory factory) {
+            if (args.length == 1 && isSimpleKey(args[0], isBuiltinClassProfile)) {
+                return args[0];
+            }
+            return factory.createTuple(args);
+        }
+
+        @Specialization(guards = "self.isTyped() || keywords.length != 0")
+        static Object fullKey(PLruCacheWrapper self, Object[] args, PKeyword[] keywords,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached PythonObjectFactory factory) {
+            boolean typed = self.isTyped();
+            int size = args.length;
+            if (keywords.length != 0) {
+                size += 1 + 2 * keywords.length;
+            }
+            if (typed) {
+                size += args.length + keywords.length;
+            }
+            Object[] items = new Object[size];
+            PythonUtils.arraycopy(args, 0, items, 0, args.length);
+            int i = args.length;
+            if (keywords.length != 0) {
+                items[i++] = self.getKwdMark();
+                for (PKeyword keyword : keywords) {
+                    items[i++] = keyword.getName();
+                    items[i++] = keyword.getValue();
+                }
+            }
+            if (typed) {
+                for (Object arg : args) {
+                    items[i++] = lib.getLazyPythonClass(arg);
+                }
+                for (PKeyword keyword : keywords) {
+                    items[i++] = lib.getLazyPythonClass(keyword.getValue());
+                }
+            }
+            return factory.createTuple(items);
+        }
+
+        private static boolean isSimpleKey(Object arg, IsBuiltinClassProfile isBuiltinClassProfile) {
+            if (arg instanceof Integer || arg instanceof Long || arg instanceof String) {
+                return true;
+            }
+            return arg instanceof PInt && isBuiltinClassProfile.profileObject(arg, PythonBuiltinClassType.PInt) ||
+                            arg instanceof PString && isBuiltinClassProfile.profileObject(arg, PythonBuiltinClassType.PString);
+        }
+
+        static MakeKeyNode create() {
+            return LruCacheWrapperBuiltinsFactory.MakeKeyNodeGen.create();
+        }
+    }
+
+    @Builtin(name = __CALL__, minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true)
+    @GenerateNodeFactory
+    @ImportStatic(PLruCacheWrapper.class)
+    public abstract static class LruCallNode extends PythonVarargsBuiltinNode {
+        @Child private CallNode callNode = CallNode.create();
+
+        @Specialization(guards = "self.getMaxSize() == 0")
+        Object uncached(VirtualFrame frame, PLruCacheWrapper self, Object[] arguments, PKeyword[] keywords) {
+            self.incrementMisses();
+            return callNode.execute(frame, self.getFunc(), arguments, keywords);
+        }
+
+        @Specialization(guards = "self.getMaxSize() == UNBOUNDED")
+        Object unbounded(VirtualFrame frame, PLruCacheWrapper self, Object[] arguments, PKeyword[] keywords,
+                        @Cached MakeKeyNode makeKeyNode,
+                        @CachedLibrary(limit = "2") HashingStorageLibrary lib,
+                        @Cached("createBinaryProfile()") ConditionProfile hasFrame,
+                        @Cached("createBinaryProfile()") ConditionProfile hitProfile) {
+            Object key = makeKeyNode.execute(self, arguments, keywords);
+            Object result = lib.getItemWithFrame(self.getCache(), key, hasFrame, frame);
+            if (hitProfile.profile(result != null)) {
+                self.incrementHits();
+                return result;
+            }
+            self.incrementMisses();
+            result = callNode.execute(frame, self.getFunc(), arguments, keywords);
+            self.setCache(lib.setItemWithFrame(self.getCache(), key, result, hasFrame, frame));
+            return result;
+        }
+
+        @Specialization(guards = "self.getMaxSize() > 0")
+        Object bounded(VirtualFrame frame, PLruCacheWrapper self, Object[] arguments, PKeyword[] keywords,
+                        @Cached MakeKeyNode makeKeyNode,
+                        @CachedLibrary(limit = "2") HashingStorageLibrary lib,
+                        @Cached("createBinaryProfile()") ConditionProfile hasFrame,
+                        @Cached("createBinaryProfile()") ConditionProfile hitProfile,
+                        @Cached("createBinaryProfile()") ConditionProfile fullProfile) {
+            Object key = makeKeyNode.execute(self, arguments, keywords);
+            Object cached = lib.getItemWithFrame(self.getCache(), key, hasFrame, frame);
+            if (hitProfile.profile(cached != null)) {
+                Link link = (Link) cached;
+                self.moveToEnd(link);
+                self.incrementHits();
+                return link.getResult();
+            }
+            self.incrementMisses();
+            Object result = callNode.execute(frame, self.getFunc(), arguments, keywords);
+            HashingStorage cache = self.getCache();
+            if (lib.hasKeyWithFrame(cache, key, hasFrame, frame)) {
+                // the call itself (e.g. a recursive one) or another thread already cached this key
+                return result;
+            }
+            if (fullProfile.profile(lib.lengthWithFrame(cache, hasFrame, frame) >= self.getMaxSize())) {
+                Link oldest = self.getOldest();
+                PLruCacheWrapper.unlink(oldest);
+                cache = lib.delItemWithFrame(cache, oldest.getKey(), hasFrame, frame);
+            }
+            Link link = PLruCacheWrapper.createLink(key, result);
+            self.setCache(lib.setItemWithFrame(cache, key, link, hasFrame, frame));
+            self.append(link);
+            return result;
+        }
+
+        @Override
+        public Object varArgExecute(VirtualFrame frame, @SuppressWarnings("unused") Object self, Object[] arguments, PKeyword[] keywords) throws VarargsBuiltinDirectInvocationNotSupported {
+            Object[] argsWithoutSelf = new Object[arguments.length - 1];
+            PythonUtils.arraycopy(arguments, 1, argsWithoutSelf, 0, argsWithoutSelf.length);
+            return execute(frame, arguments[0], argsWithoutSelf, keywords);
+        }
+    }
+
+    @Builtin(name = "cache_info", minNumOfPositionalArgs = 1, doc = "Report cache statistics")
+    @GenerateNodeFactory
+    public abstract static class CacheInfoNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object cacheInfo(VirtualFrame frame, PLruCacheWrapper self,
+                        @CachedLibrary(limit = "2") HashingStorageLibrary lib,
+                        @Cached CallNode callNode) {
+            int currSize = lib.length(self.getCache());
+            return callNode.execute(frame, self.getCacheInfoType(), self.getHits(), self.getMisses(), self.getMaxSizeObj(), currSize);
+        }
+    }
+
+    @Builtin(name = "cache_clear", minNumOfPositionalArgs = 1, doc = "Clear the cache and cache statistics")
+    @GenerateNodeFactory
+    public abstract static class CacheClearNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object cacheClear(PLruCacheWrapper self) {
+            self.setCache(EconomicMapStorage.create());
+            self.clear();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = __GET__, minNumOfPositionalArgs = 2, maxNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    public abstract static class GetNode extends PythonTernaryBuiltinNode {
+        @Specialization(guards = "isNone(obj) || isNoValue(obj)")
+        static Object getUnbound(PLruCacheWrapper self, @SuppressWarnings("unused") Object obj, @SuppressWarnings("unused") Object type) {
+            return self;
+        }
+
+        @Specialization(guards = {"!isNone(obj)", "!isNoValue(obj)"})
+        Object getBound(PLruCacheWrapper self, Object obj, @SuppressWarnings("unused") Object type) {
+            return factory().createMethod(obj, self);
+        }
+    }
+
+    @Builtin(name = __REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object reduce(VirtualFrame frame, PLruCacheWrapper self,
+                        @Cached("create(__QUALNAME__)") GetFixedAttributeNode readQualNameNode) {
+            // pickled by reference to the decorated function
+            return readQualNameNode.executeObject(frame, self);
+        }
+    }
+
+    @Builtin(name = "__copy__", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class CopyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static Object copy(PLruCacheWrapper self) {
+            return self;
+        }
+    }
+
+    @Builtin(name = "__deepcopy__", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class DeepCopyNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object deepcopy(PLruCacheWrapper self, @SuppressWarnings("unused") Object memo) {
+            return self;
+        }
+    }
+
+    @Builtin(name = __DICT__, minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    public abstract static class DictNode extends PythonBinaryBuiltinNode {
+        @Specialization(limit = "1")
+        static PNone dict(PLruCacheWrapper self, PDict mapping,
+                        @CachedLibrary("self") PythonObjectLibrary lib) {
+            setDict(lib, self, mapping);
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "isNoValue(mapping)", limit = "1")
+        Object dict(PLruCacheWrapper self, @SuppressWarnings("unused") PNone mapping,
+                        @CachedLibrary("self") PythonObjectLibrary lib) {
+            PDict dict = lib.getDict(self);
+            if (dict == null) {
+                dict = factory().createDictFixedStorage(self);
+                setDict(lib, self, dict);
+            }
+            return dict;
+        }
+
+        @Specialization(guards = {"!isNoValue(mapping)", "!isDict(mapping)"})
+        PNone dict(@SuppressWarnings("unused") PLruCacheWrapper self, Object mapping) {
+            throw raise(TypeError, ErrorMessages.DICT_MUST_BE_SET_TO_DICT, mapping);
+        }
+
+        private static void setDict(PythonObjectLibrary lib, PLruCacheWrapper self, PDict dict) {
+            try {
+                lib.setDict(self, dict);
+            } catch (UnsupportedMessageException e) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
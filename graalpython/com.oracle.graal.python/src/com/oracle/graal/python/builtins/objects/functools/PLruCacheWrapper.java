@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.functools;
+
+import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * The object returned by {@code functools._lru_cache_wrapper}, a port of the C implementation in
+ * CPython's {@code Modules/_functoolsmodule.c}. The cache maps argument keys to results using the
+ * same hashing storage as {@code dict}, so keys are compared with Python equality. A bounded cache
+ * additionally keeps its entries in a circular doubly-linked list ordered from the least to the
+ * most recently used entry; the storage then maps keys to the {@link Link} elements of that list.
+ */
+public final class PLruCacheWrapper extends PythonBuiltinObject {
+    /** {@link #maxSize} of a cache that can grow without bound. */
+    public static final int UNBOUNDED = -1;
+
+    public static final class Link {
+        private Link prev;
+        private Link next;
+        private final Object key;
+        private final Object result;
+
+        Link(Object key, Object result) {
+            this.key = key;
+            this.result = result;
+        }
+
+        public Object getKey() {
+            return key;
+        }
+
+        public Object getResult() {
+            return result;
+        }
+    }
+
+    private final Object func;
+    private final Object cacheInfoType;
+    private final Object maxSizeObj;
+    private final int maxSize;
+    private final boolean typed;
+    /** A unique object separating positional from keyword arguments in a key. */
+    private final Object kwdMark;
+    private HashingStorage cache = EconomicMapStorage.create();
+    /** The sentinel of the linked list of a bounded cache. */
+    private final Link root = new Link(null, null);
+    private long hits;
+    private long misses;
+
+    public PLruCacheWrapper(Object cls, Shape instanceShape, Object func, Object maxSizeObj, int maxSize, boolean typed, Object cacheInfoType, Object kwdMark) {
+        super(cls, instanceShape);
+        this.func = func;
+        this.maxSizeObj = maxSizeObj;
+        this.maxSize = maxSize;
+        this.typed = typed;
+        this.cacheInfoType = cacheInfoType;
+        this.kwdMark = kwdMark;
+        root.prev = root;
+        root.next = root;
+    }
+
+    public Object getFunc() {
+        return func;
+    }
+
+    public Object getCacheInfoType() {
+        return cacheInfoType;
+    }
+
+    public Object getMaxSizeObj() {
+        return maxSizeObj;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public boolean isTyped() {
+        return typed;
+    }
+
+    public Object getKwdMark() {
+        return kwdMark;
+    }
+
+    public HashingStorage getCache() {
+        return cache;
+    }
+
+    public void setCache(HashingStorage cache) {
+        this.cache = cache;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void incrementHits() {
+        hits++;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void incrementMisses() {
+        misses++;
+    }
+
+    /**
+     * Empties the linked list and resets the statistics. The caller is responsible for clearing
+     * the {@link #getCache() storage}.
+     */
+    public void clear() {
+        root.prev = root;
+        root.next = root;
+        hits = 0;
+        misses = 0;
+    }
+
+    /** Returns the least recently used entry of a bounded cache. */
+    public Link getOldest() {
+        assert root.next != root;
+        return root.next;
+    }
+
+    public static Link createLink(Object key, Object result) {
+        return new Link(key, result);
+    }
+
+    /** Marks the entry as the most recently used one. */
+    public void moveToEnd(Link link) {
+        unlink(link);
+        append(link);
+    }
+
+    public void append(Link link) {
+        Link last = root.prev;
+        last.next = link;
+        root.prev = link;
+        link.prev = last;
+        link.next = root;
+    }
+
+    public static void unlink(Link link) {
+        link.prev.next = link.next;
+        link.next.prev = link.prev;
+    }
+}
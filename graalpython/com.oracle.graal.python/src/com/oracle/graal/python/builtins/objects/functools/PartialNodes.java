@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.functools;
+
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.nodes.argument.keywords.ExpandKeywordStarargsNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateUncached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+public abstract class PartialNodes {
+
+    /**
+     * Calls the function of a {@link PPartial} with the stored arguments followed by the given
+     * ones. This node is used directly by {@link CallNode} for exact {@code partial} objects, so the
+     * wrapped function gets its own call site instead of sharing the one in
+     * {@code partial.__call__}.
+     */
+    @GenerateUncached
+    public abstract static class CallPartialNode extends Node {
+
+        public abstract Object execute(VirtualFrame frame, PPartial partial, Object[] arguments, PKeyword[] keywords);
+
+        @Specialization
+        static Object call(VirtualFrame frame, PPartial partial, Object[] arguments, PKeyword[] keywords,
+                        @Cached ExpandKeywordStarargsNode expandKeywordsNode,
+                        @Cached ConditionProfile noStoredArgsProfile,
+                        @Cached ConditionProfile noStoredKeywordsProfile,
+                        @Cached CallNode callNode) {
+            Object[] storedArgs = partial.getArgs();
+            Object[] callArgs;
+            if (noStoredArgsProfile.profile(storedArgs.length == 0)) {
+                callArgs = arguments;
+            } else {
+                callArgs = concatArgs(storedArgs, arguments);
+            }
+            PKeyword[] storedKeywords = expandKeywordsNode.execute(partial.getKw());
+            PKeyword[] callKeywords;
+            if (noStoredKeywordsProfile.profile(storedKeywords.length == 0)) {
+                callKeywords = keywords;
+            } else {
+                callKeywords = mergeKeywords(storedKeywords, keywords);
+            }
+            return callNode.execute(frame, partial.getFn(), callArgs, callKeywords);
+        }
+
+        public static CallPartialNode create() {
+            return PartialNodesFactory.CallPartialNodeGen.create();
+        }
+
+        public static CallPartialNode getUncached() {
+            return PartialNodesFactory.CallPartialNodeGen.getUncached();
+        }
+    }
+
+    public static Object[] concatArgs(Object[] first, Object[] second) {
+        if (second.length == 0) {
+            return first;
+        }
+        Object[] result = new Object[first.length + second.length];
+        PythonUtils.arraycopy(first, 0, result, 0, first.length);
+        PythonUtils.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    /**
+     * Merges keyword arguments like {@code {**first, **second}}: keywords of {@code first} keep
+     * their position but take the value from {@code second} if it has the same name.
+     */
+    public static PKeyword[] mergeKeywords(PKeyword[] first, PKeyword[] second) {
+        if (second.length == 0) {
+            return first;
+        }
+        PKeyword[] result = new PKeyword[first.length + second.length];
+        PythonUtils.arraycopy(first, 0, result, 0, first.length);
+        int n = first.length;
+        outer: for (PKeyword keyword : second) {
+            for (int i = 0; i < first.length; i++) {
+                if (first[i].getName().equals(keyword.getName())) {
+                    result[i] = keyword;
+                    continue outer;
+                }
+            }
+            result[n++] = keyword;
+        }
+        if (n < result.length) {
+            PKeyword[] trimmed = new PKeyword[n];
+            PythonUtils.arraycopy(result, 0, trimmed, 0, n);
+            return trimmed;
+        }
+        return result;
+    }
+}
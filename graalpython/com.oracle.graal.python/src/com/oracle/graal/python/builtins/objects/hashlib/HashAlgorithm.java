@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.hashlib;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * The message digests supported by {@code _hashlib}, mapping the names used by Python to the
+ * algorithm names of {@link MessageDigest}. The block sizes are needed for HMAC and are not exposed
+ * by the JDK.
+ */
+public enum HashAlgorithm {
+    MD5("md5", "MD5", 64),
+    SHA1("sha1", "SHA-1", 64),
+    SHA224("sha224", "SHA-224", 64),
+    SHA256("sha256", "SHA-256", 64),
+    SHA384("sha384", "SHA-384", 128),
+    SHA512("sha512", "SHA-512", 128),
+    SHA512_224("sha512_224", "SHA-512/224", 128),
+    SHA512_256("sha512_256", "SHA-512/256", 128),
+    SHA3_224("sha3_224", "SHA3-224", 144),
+    SHA3_256("sha3_256", "SHA3-256", 136),
+    SHA3_384("sha3_384", "SHA3-384", 104),
+    SHA3_512("sha3_512", "SHA3-512", 72);
+
+    private static final HashAlgorithm[] VALUES = values();
+
+    private final String pythonName;
+    private final String jdkName;
+    private final int blockSize;
+
+    /**
+     * A digest that is never updated and is cloned for every new hash object, which is cheaper
+     * than looking up the provider each time. Racing initializations are benign.
+     */
+    private MessageDigest prototype;
+    private boolean unavailable;
+
+    HashAlgorithm(String pythonName, String jdkName, int blockSize) {
+        this.pythonName = pythonName;
+        this.jdkName = jdkName;
+        this.blockSize = blockSize;
+    }
+
+    public String getPythonName() {
+        return pythonName;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Looks up an algorithm by its Python name, ignoring case like OpenSSL does. Returns
+     * {@code null} if there is no such algorithm or if the JDK does not provide it.
+     */
+    @TruffleBoundary
+    public static HashAlgorithm lookup(String name) {
+        String lowerName = name.toLowerCase();
+        for (HashAlgorithm algorithm : VALUES) {
+            if (algorithm.pythonName.equals(lowerName)) {
+                return algorithm.isAvailable() ? algorithm : null;
+            }
+        }
+        return null;
+    }
+
+    @TruffleBoundary
+    public boolean isAvailable() {
+        return getPrototype() != null;
+    }
+
+    /**
+     * Creates a new digest in its initial state.
+     */
+    @TruffleBoundary
+    public MessageDigest createDigest() {
+        MessageDigest p = getPrototype();
+        assert p != null : "unavailable algorithm " + jdkName;
+        try {
+            return (MessageDigest) p.clone();
+        } catch (CloneNotSupportedException e) {
+            try {
+                return MessageDigest.getInstance(jdkName);
+            } catch (NoSuchAlgorithmException e1) {
+                throw CompilerDirectives.shouldNotReachHere(e1);
+            }
+        }
+    }
+
+    private MessageDigest getPrototype() {
+        MessageDigest p = prototype;
+        if (p == null && !unavailable) {
+            try {
+                p = MessageDigest.getInstance(jdkName);
+                prototype = p;
+            } catch (NoSuchAlgorithmException e) {
+                unavailable = true;
+            }
+        }
+        return p;
+    }
+}
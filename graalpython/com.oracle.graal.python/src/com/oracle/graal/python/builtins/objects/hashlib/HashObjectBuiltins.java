@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.hashlib;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.BytesUtils;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PHashObject)
+public final class HashObjectBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return HashObjectBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "update", minNumOfPositionalArgs = 2, parameterNames = {"$self", "obj"})
+    @GenerateNodeFactory
+    abstract static class UpdateNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        PNone update(PHashObject self, Object obj,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached("createBinaryProfile()") ConditionProfile directProfile) {
+            updateDigest(this, self.getDigest(), obj, lib, directProfile);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "digest", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class DigestNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object digest(PHashObject self) {
+            return factory().createBytes(self.computeDigest());
+        }
+    }
+
+    @Builtin(name = "hexdigest", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class HexDigestNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String hexdigest(PHashObject self) {
+            return toHex(self.computeDigest());
+        }
+    }
+
+    @Builtin(name = "copy", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CopyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object copy(PHashObject self) {
+            return factory().createHashObject(self.getAlgorithm(), self.cloneDigest());
+        }
+    }
+
+    @Builtin(name = "name", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class NameNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String name(PHashObject self) {
+            return self.getAlgorithm().getPythonName();
+        }
+    }
+
+    @Builtin(name = "digest_size", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class DigestSizeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int digestSize(PHashObject self) {
+            return self.getDigestSize();
+        }
+    }
+
+    @Builtin(name = "block_size", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class BlockSizeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int blockSize(PHashObject self) {
+            return self.getAlgorithm().getBlockSize();
+        }
+    }
+
+    @Builtin(name = __REPR__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static String repr(PHashObject self) {
+            return PythonUtils.format("<%s HASH object>", self.getAlgorithm().getPythonName());
+        }
+    }
+
+    /**
+     * Feeds the bytes-like object {@code obj} to the digest. The memory of bytes, bytearrays and
+     * managed memoryviews is passed to the digest directly, other buffers are copied first.
+     */
+    public static void updateDigest(PythonBuiltinBaseNode node, MessageDigest digest, Object obj, PythonObjectLibrary lib, ConditionProfile directProfile) {
+        if (PGuards.isString(obj)) {
+            throw node.raise(TypeError, ErrorMessages.UNICODE_OBJECTS_MUST_BE_ENCODED_BEFORE_HASHING);
+        }
+        ByteBuffer direct = BytesUtils.wrapDirectBuffer(obj, false);
+        if (directProfile.profile(direct != null)) {
+            update(digest, direct);
+            return;
+        }
+        try {
+            update(digest, lib.getBufferBytes(obj));
+        } catch (UnsupportedMessageException e) {
+            throw node.raise(TypeError, ErrorMessages.OBJ_SUPPORTING_BUFFER_API_REQUIRED);
+        }
+    }
+
+    @TruffleBoundary
+    private static void update(MessageDigest digest, ByteBuffer data) {
+        digest.update(data);
+    }
+
+    @TruffleBoundary
+    private static void update(MessageDigest digest, byte[] data) {
+        digest.update(data);
+    }
+
+    @TruffleBoundary
+    static String toHex(byte[] digest) {
+        char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[2 * i] = (char) BytesUtils.HEXDIGITS[(digest[i] >> 4) & 0xf];
+            hex[2 * i + 1] = (char) BytesUtils.HEXDIGITS[digest[i] & 0xf];
+        }
+        return new String(hex);
+    }
+}
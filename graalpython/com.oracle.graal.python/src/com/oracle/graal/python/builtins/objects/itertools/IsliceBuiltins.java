@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.itertools;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.StopIteration;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ITER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEXT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETSTATE__;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.control.GetNextNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PIslice)
+public final class IsliceBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return IsliceBuiltinsFactory.getFactories();
+    }
+
+    // islice(iterable, stop) or islice(iterable, start, stop[, step])
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 3, takesVarArgs = true)
+    @GenerateNodeFactory
+    public abstract static class InitNode extends PythonBuiltinNode {
+        @Specialization
+        PNone init(VirtualFrame frame, PIslice self, Object iterable, Object arg, Object[] args,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            int start = 0;
+            int stop = -1;
+            int step = 1;
+            if (args.length == 0) {
+                if (arg != PNone.NONE) {
+                    stop = asIndex(frame, arg, lib, ErrorMessages.STOP_ARG_FOR_ISLICE);
+                }
+            } else if (args.length <= 2) {
+                if (arg != PNone.NONE) {
+                    start = asIndex(frame, arg, lib, ErrorMessages.INDICES_FOR_ISLICE);
+                }
+                if (args[0] != PNone.NONE) {
+                    stop = asIndex(frame, args[0], lib, ErrorMessages.INDICES_FOR_ISLICE);
+                }
+                if (args.length == 2 && args[1] != PNone.NONE) {
+                    step = asIndex(frame, args[1], lib, ErrorMessages.STEP_FOR_ISLICE);
+                    if (step < 1) {
+                        throw raise(ValueError, ErrorMessages.STEP_FOR_ISLICE);
+                    }
+                }
+            } else {
+                throw raise(TypeError, ErrorMessages.EXPECTED_AT_MOST_D_ARGS_GOT_D, "islice", 4, args.length + 2);
+            }
+            self.setIterable(lib.getIteratorWithFrame(iterable, frame));
+            self.setNext(start);
+            self.setStop(stop);
+            self.setStep(step);
+            self.setCnt(0);
+            return PNone.NONE;
+        }
+
+        private int asIndex(VirtualFrame frame, Object value, PythonObjectLibrary lib, String errorMessage) {
+            if (lib.canBeIndex(value)) {
+                int result = lib.asSizeWithFrame(value, null, frame);
+                if (result >= 0) {
+                    return result;
+                }
+            }
+            throw raise(ValueError, errorMessage);
+        }
+    }
+
+    @Builtin(name = __ITER__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class IterNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PIslice iter(PIslice self) {
+            return self;
+        }
+    }
+
+    @Builtin(name = __NEXT__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class NextNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object next(VirtualFrame frame, PIslice self,
+                        @Cached GetNextNode nextNode) {
+            Object iterable = self.getIterable();
+            if (iterable == null) {
+                throw raise(StopIteration);
+            }
+            int stop = self.getStop();
+            Object item;
+            try {
+                while (self.getCnt() < self.getNext()) {
+                    nextNode.execute(frame, iterable);
+                    self.setCnt(self.getCnt() + 1);
+                }
+                if (stop != -1 && self.getCnt() >= stop) {
+                    self.setIterable(null);
+                    throw raise(StopIteration);
+                }
+                item = nextNode.execute(frame, iterable);
+            } catch (PException e) {
+                self.setIterable(null);
+                throw e;
+            }
+            self.setCnt(self.getCnt() + 1);
+            int oldNext = self.getNext();
+            int newNext = oldNext + self.getStep();
+            if (newNext < oldNext || (stop != -1 && newNext > stop)) {
+                newNext = stop;
+            }
+            self.setNext(newNext);
+            return item;
+        }
+    }
+
+    @Builtin(name = __REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization(limit = "1")
+        Object reduce(VirtualFrame frame, PIslice self,
+                        @CachedLibrary("self") PythonObjectLibrary lib,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary emptyLib) {
+            Object type = lib.getLazyPythonClass(self);
+            if (self.getIterable() == null) {
+                Object empty = emptyLib.getIteratorWithFrame(factory().createList(), frame);
+                return factory().createTuple(new Object[]{type, factory().createTuple(new Object[]{empty, 0}), 0});
+            }
+            Object stop = self.getStop() == -1 ? PNone.NONE : self.getStop();
+            Object[] args = new Object[]{self.getIterable(), self.getNext(), stop, self.getStep()};
+            return factory().createTuple(new Object[]{type, factory().createTuple(args), self.getCnt()});
+        }
+    }
+
+    @Builtin(name = __SETSTATE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class SetStateNode extends PythonBinaryBuiltinNode {
+        @Specialization(limit = "3")
+        static Object setState(VirtualFrame frame, PIslice self, Object state,
+                        @CachedLibrary("state") PythonObjectLibrary lib) {
+            self.setCnt(lib.asSizeWithFrame(state, PythonBuiltinClassType.OverflowError, frame));
+            return PNone.NONE;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.itertools;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.StopIteration;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ITER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEXT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REDUCE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETSTATE__;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.control.GetNextNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PZipLongest)
+public final class ZipLongestBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return ZipLongestBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = __INIT__, minNumOfPositionalArgs = 1, takesVarArgs = true, keywordOnlyNames = {"fillvalue"})
+    @GenerateNodeFactory
+    public abstract static class InitNode extends PythonBuiltinNode {
+        @Specialization
+        static PNone init(VirtualFrame frame, PZipLongest self, Object[] args, Object fillValue,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            Object[] iterators = new Object[args.length];
+            for (int i = 0; i < args.length; i++) {
+                iterators[i] = lib.getIteratorWithFrame(args[i], frame);
+            }
+            self.setIterators(iterators);
+            self.setFillValue(fillValue == PNone.NO_VALUE ? PNone.NONE : fillValue);
+            self.setNumActive(iterators.length);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = __ITER__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class IterNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static PZipLongest iter(PZipLongest self) {
+            return self;
+        }
+    }
+
+    @Builtin(name = __NEXT__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class NextNode extends PythonUnaryBuiltinNode {
+        @Specialization(guards = {"self.getIterators().length == cachedLength", "cachedLength < 32"}, limit = "2")
+        @ExplodeLoop
+        Object nextCached(VirtualFrame frame, PZipLongest self,
+                        @Cached("self.getIterators().length") int cachedLength,
+                        @Cached GetNextNode nextNode,
+                        @Cached IsBuiltinClassProfile isStopIteration,
+                        @Cached("createBinaryProfile()") ConditionProfile exhaustedProfile) {
+            if (cachedLength == 0 || self.getNumActive() == 0) {
+                throw raise(StopIteration);
+            }
+            Object[] iterators = self.getIterators();
+            Object[] result = new Object[cachedLength];
+            for (int i = 0; i < cachedLength; i++) {
+                result[i] = nextItem(frame, self, iterators, i, nextNode, isStopIteration, exhaustedProfile);
+            }
+            return factory().createTuple(result);
+        }
+
+        @Specialization(replaces = "nextCached")
+        Object next(VirtualFrame frame, PZipLongest self,
+                        @Cached GetNextNode nextNode,
+                        @Cached IsBuiltinClassProfile isStopIteration,
+                        @Cached("createBinaryProfile()") ConditionProfile exhaustedProfile) {
+            Object[] iterators = self.getIterators();
+            if (iterators.length == 0 || self.getNumActive() == 0) {
+                throw raise(StopIteration);
+            }
+            Object[] result = new Object[iterators.length];
+            for (int i = 0; i < iterators.length; i++) {
+                result[i] = nextItem(frame, self, iterators, i, nextNode, isStopIteration, exhaustedProfile);
+            }
+            return factory().createTuple(result);
+        }
+
+        private Object nextItem(VirtualFrame frame, PZipLongest self, Object[] iterators, int i, GetNextNode nextNode, IsBuiltinClassProfile isStopIteration,
+                        ConditionProfile exhaustedProfile) {
+            if (exhaustedProfile.profile(iterators[i] == null)) {
+                return self.getFillValue();
+            }
+            try {
+                return nextNode.execute(frame, iterators[i]);
+            } catch (PException e) {
+                if (!isStopIteration.profileException(e, StopIteration)) {
+                    self.setNumActive(0);
+                    throw e;
+                }
+                iterators[i] = null;
+                int numActive = self.getNumActive() - 1;
+                self.setNumActive(numActive);
+                if (numActive == 0) {
+                    throw raise(StopIteration);
+                }
+                return self.getFillValue();
+            }
+        }
+    }
+
+    @Builtin(name = __REDUCE__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class ReduceNode extends PythonUnaryBuiltinNode {
+        @Specialization(limit = "1")
+        Object reduce(PZipLongest self,
+                        @CachedLibrary("self") PythonObjectLibrary lib) {
+            Object[] iterators = self.getIterators();
+            Object[] args = new Object[iterators.length];
+            for (int i = 0; i < iterators.length; i++) {
+                // exhausted iterators are pickled as empty tuples
+                args[i] = iterators[i] == null ? factory().createEmptyTuple() : iterators[i];
+            }
+            return factory().createTuple(new Object[]{lib.getLazyPythonClass(self), factory().createTuple(args), self.getFillValue()});
+        }
+    }
+
+    @Builtin(name = __SETSTATE__, minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    public abstract static class SetStateNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static Object setState(PZipLongest self, Object state) {
+            self.setFillValue(state);
+            return PNone.NONE;
+        }
+    }
+}
@@ -67,7 +67,6 @@ import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.Crea
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes.ListGeneralizationNode;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.function.PArguments.ThreadState;
-import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.generator.PGenerator;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.iterator.IteratorNodes;
@@ -84,11 +83,9 @@ import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.PGuards;
 import static com.oracle.graal.python.nodes.SpecialAttributeNames.__DOC__;
-import com.oracle.graal.python.nodes.attributes.GetAttributeNode;
 import com.oracle.graal.python.nodes.builtins.ListNodes;
 import com.oracle.graal.python.nodes.builtins.ListNodes.AppendNode;
 import com.oracle.graal.python.nodes.builtins.ListNodes.IndexNode;
-import com.oracle.graal.python.nodes.call.CallNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
 import com.oracle.graal.python.nodes.control.GetNextNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
@@ -96,7 +93,6 @@ import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
-import com.oracle.graal.python.nodes.function.builtins.PythonVarargsBuiltinNode;
 import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
 import com.oracle.graal.python.runtime.PythonContext;
@@ -853,67 +849,43 @@ public class ListBuiltins extends PythonBuiltins {
         }
     }
 
-    // list.sort(key=, reverse=)
-    @Builtin(name = SORT, minNumOfPositionalArgs = 1, takesVarArgs = true, takesVarKeywordArgs = true, needsFrame = true)
+    // list.sort(*, key=None, reverse=False)
+    @Builtin(name = SORT, minNumOfPositionalArgs = 1, parameterNames = {"$self"}, varArgsMarker = true, keywordOnlyNames = {"key", "reverse"})
     @GenerateNodeFactory
-    public abstract static class ListSortNode extends PythonVarargsBuiltinNode {
-
-        protected static final String SORT = "_sort";
-        protected static final String KEY = "key";
-
-        protected static boolean isSortable(PList list, SequenceStorageNodes.LenNode lenNode) {
-            return lenNode.execute(list.getSequenceStorage()) > 1;
-        }
-
-        protected static boolean maySideEffect(PList list, PKeyword[] keywords) {
-            if (PGuards.isObjectStorage(list)) {
-                return true;
-            }
-            if (keywords.length > 0) {
-                if (keywords[0].getName().equals(KEY)) {
-                    return true;
-                }
-                if (keywords.length > 1 && keywords[1].getName().equals(KEY)) {
-                    return true;
-                }
-            }
-            return false;
-        }
+    public abstract static class ListSortNode extends PythonTernaryBuiltinNode {
 
         public final Object sort(VirtualFrame frame, PList list) {
-            return this.execute(frame, list, PythonUtils.EMPTY_OBJECT_ARRAY, PKeyword.EMPTY_KEYWORDS);
+            return execute(frame, list, PNone.NO_VALUE, PNone.NO_VALUE);
         }
 
-        public abstract Object execute(VirtualFrame frame, PList list, Object[] arguments, PKeyword[] keywords);
-
-        @Specialization(guards = "!isSortable(list, lenNode)")
-        @SuppressWarnings("unused")
-        Object none(VirtualFrame frame, PList list, Object[] arguments, PKeyword[] keywords,
-                        @Cached SequenceStorageNodes.LenNode lenNode) {
-            return PNone.NONE;
+        public final Object sort(VirtualFrame frame, PList list, Object key, Object reverse) {
+            return execute(frame, list, key, reverse);
         }
 
-        @Specialization(guards = {"isSortable(list, lenNode)", "maySideEffect(list, keywords)"})
-        Object withKey(VirtualFrame frame, PList list, Object[] arguments, PKeyword[] keywords,
-                        @Cached("create(SORT)") GetAttributeNode sort,
-                        @Cached CallNode callSort,
-                        @SuppressWarnings("unused") @Cached SequenceStorageNodes.LenNode lenNode) {
-            list.getSequenceStorage().setLock();
+        @Specialization
+        Object doSort(VirtualFrame frame, PList list, Object key, Object reverse,
+                        @Cached SequenceStorageNodes.SortNode sortNode,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary lib,
+                        @Cached("createBinaryProfile()") ConditionProfile hasReverseProfile) {
+            Object keyFunc = PGuards.isPNone(key) ? null : key;
+            boolean isReverse = hasReverseProfile.profile(reverse != PNone.NO_VALUE) && lib.isTrue(reverse, frame);
+            SequenceStorage storage = list.getSequenceStorage();
+            if (storage.length() < 2 && keyFunc == null) {
+                return PNone.NONE;
+            }
+            // like CPython, empty the list while sorting, so that comparisons and key functions
+            // can neither observe nor modify the storage being sorted
+            list.setSequenceStorage(EmptySequenceStorage.INSTANCE);
+            boolean modified;
             try {
-                defaultSort(frame, list, arguments, keywords, sort, callSort, lenNode);
+                sortNode.execute(frame, storage, keyFunc, isReverse);
             } finally {
-                list.getSequenceStorage().releaseLock();
+                modified = list.getSequenceStorage() != EmptySequenceStorage.INSTANCE;
+                list.setSequenceStorage(storage);
+            }
+            if (modified) {
+                throw raise(PythonErrorType.ValueError, ErrorMessages.LIST_MODIFIED_DURING_SORT);
             }
-            return PNone.NONE;
-        }
-
-        @Specialization(guards = {"isSortable(list, lenNode)", "!maySideEffect(list, keywords)"})
-        Object defaultSort(VirtualFrame frame, PList list, Object[] arguments, PKeyword[] keywords,
-                        @Cached("create(SORT)") GetAttributeNode sort,
-                        @Cached CallNode callSort,
-                        @SuppressWarnings("unused") @Cached SequenceStorageNodes.LenNode lenNode) {
-            Object sortMethod = sort.executeObject(frame, list);
-            callSort.execute(sortMethod, arguments, keywords);
             return PNone.NONE;
         }
 
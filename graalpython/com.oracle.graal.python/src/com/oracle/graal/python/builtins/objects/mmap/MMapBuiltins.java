@@ -40,6 +40,10 @@
  */
 package com.oracle.graal.python.builtins.objects.mmap;
 
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.BufferError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.IndexError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.TypeError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__ADD__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__CONTAINS__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__ENTER__;
@@ -58,8 +62,6 @@ import static com.oracle.graal.python.nodes.SpecialMethodNames.__RMUL__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.channels.SeekableByteChannel;
 import java.util.List;
 
 import com.oracle.graal.python.builtins.Builtin;
@@ -67,7 +69,6 @@ import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
-import com.oracle.graal.python.builtins.objects.bytes.BytesBuiltins.BytesLikeNoGeneralizationNode;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
@@ -75,11 +76,9 @@ import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
-import com.oracle.graal.python.builtins.objects.range.RangeNodes.LenOfRangeNode;
 import com.oracle.graal.python.builtins.objects.slice.PSlice;
 import com.oracle.graal.python.builtins.objects.slice.PSlice.SliceInfo;
 import com.oracle.graal.python.nodes.ErrorMessages;
-import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
@@ -93,17 +92,9 @@ import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
 import com.oracle.graal.python.nodes.util.CannotCastException;
 import com.oracle.graal.python.nodes.util.CastToByteNode;
 import com.oracle.graal.python.nodes.util.CastToJavaLongLossyNode;
-import com.oracle.graal.python.nodes.util.ChannelNodes;
-import com.oracle.graal.python.nodes.util.ChannelNodes.ReadByteFromChannelNode;
-import com.oracle.graal.python.nodes.util.ChannelNodes.ReadFromChannelNode;
-import com.oracle.graal.python.nodes.util.ChannelNodes.WriteByteToChannelNode;
-import com.oracle.graal.python.nodes.util.ChannelNodes.WriteToChannelNode;
-import com.oracle.graal.python.runtime.exception.PythonErrorType;
-import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.graal.python.util.OverflowException;
 import com.oracle.truffle.api.CompilerDirectives;
-import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
@@ -119,54 +110,19 @@ import com.oracle.truffle.api.profiles.ConditionProfile;
 @CoreFunctions(extendClasses = PythonBuiltinClassType.PMMap)
 public class MMapBuiltins extends PythonBuiltins {
 
-    protected interface MMapBaseNode {
-    }
-
-    protected interface ByteReadingNode extends MMapBaseNode {
-
-        default ReadByteFromChannelNode createValueError(PRaiseNode raise) {
-            return ReadByteFromChannelNode.create(() -> new ChannelNodes.ReadByteErrorHandler() {
-
-                @Override
-                public int execute(Object channel) {
-                    throw raise.raise(PythonBuiltinClassType.ValueError, ErrorMessages.READ_BYTE_OUT_OF_RANGE);
-                }
-            });
-        }
-
-        default ReadByteFromChannelNode createIndexError(PRaiseNode raise) {
-            return ReadByteFromChannelNode.create(() -> new ChannelNodes.ReadByteErrorHandler() {
-
-                @Override
-                public int execute(Object channel) {
-                    throw raise.raise(PythonBuiltinClassType.IndexError, ErrorMessages.MMAP_INDEX_OUT_OF_RANGE);
-                }
-            });
-
+    /**
+     * Operations that access the mapped memory need to check that the map was not closed yet.
+     */
+    private static void checkValid(PythonBuiltinBaseNode node, PMMap self) {
+        if (self.isClosed()) {
+            throw node.raise(ValueError, ErrorMessages.MMAP_CLOSED_OR_INVALID);
         }
     }
 
-    protected interface ByteWritingNode extends MMapBaseNode {
-
-        default WriteByteToChannelNode createValueError(PRaiseNode raise) {
-            return WriteByteToChannelNode.create(() -> new ChannelNodes.WriteByteErrorHandler() {
-
-                @Override
-                public void execute(Object channel, byte b) {
-                    throw raise.raise(PythonBuiltinClassType.ValueError, ErrorMessages.WRITE_BYTE_OUT_OF_RANGE);
-                }
-            });
-        }
-
-        default WriteByteToChannelNode createIndexError(PRaiseNode raise) {
-            return WriteByteToChannelNode.create(() -> new ChannelNodes.WriteByteErrorHandler() {
-
-                @Override
-                public void execute(Object channel, byte b) {
-                    throw raise.raise(PythonBuiltinClassType.IndexError, ErrorMessages.MMAP_INDEX_OUT_OF_RANGE);
-                }
-            });
-
+    private static void checkWritable(PythonBuiltinBaseNode node, PMMap self) {
+        checkValid(node, self);
+        if (self.isReadonly()) {
+            throw node.raise(TypeError, ErrorMessages.MMAP_CANT_MODIFY_READONLY);
         }
     }
 
@@ -233,7 +189,7 @@ public class MMapBuiltins extends PythonBuiltins {
 
     @Builtin(name = __GETITEM__, minNumOfPositionalArgs = 2)
     @GenerateNodeFactory
-    public abstract static class GetItemNode extends PythonBinaryBuiltinNode implements ByteReadingNode {
+    public abstract static class GetItemNode extends PythonBinaryBuiltinNode {
 
         public abstract Object executeObject(PMMap self, Object idxObj);
 
@@ -243,55 +199,35 @@ public class MMapBuiltins extends PythonBuiltins {
 
         @Specialization(guards = "!isPSlice(idxObj)", limit = "1")
         int doSingle(PMMap self, Object idxObj,
-                        @SuppressWarnings("unused") @Cached PRaiseNode raise,
-                        @Cached("createIndexError(raise)") ReadByteFromChannelNode readByteNode,
-                        @CachedLibrary("idxObj") PythonObjectLibrary libIdx) {
-
-            try {
-                long i = libIdx.asJavaLong(idxObj);
-                long len = self.getLength();
-                SeekableByteChannel channel = self.getChannel();
-                long idx = i < 0 ? i + len : i;
-
-                // save current position
-                long oldPos = PMMap.position(channel);
-
-                PMMap.position(channel, idx);
-                int res = readByteNode.execute(channel) & 0xFF;
-
-                // restore position
-                PMMap.position(channel, oldPos);
-
-                return res;
-
-            } catch (IOException e) {
-                throw raise(PythonBuiltinClassType.OSError, e);
+                        @CachedLibrary("idxObj") PythonObjectLibrary libIdx,
+                        @Cached("createBinaryProfile()") ConditionProfile outOfRangeProfile) {
+            checkValid(this, self);
+            long i = libIdx.asJavaLong(idxObj);
+            long len = self.getLength();
+            long idx = i < 0 ? i + len : i;
+            if (outOfRangeProfile.profile(idx < 0 || idx >= len)) {
+                throw raise(IndexError, ErrorMessages.MMAP_INDEX_OUT_OF_RANGE);
             }
+            return self.getByte(idx) & 0xFF;
         }
 
         @Specialization
         Object doSlice(PMMap self, PSlice idx,
-                        @Cached("create()") ReadFromChannelNode readNode,
                         @Cached CoerceToIntSlice sliceCast,
                         @Cached ComputeIndices compute,
-                        @Cached LenOfRangeNode sliceLen) {
+                        @Cached("createBinaryProfile()") ConditionProfile stepOneProfile) {
+            checkValid(this, self);
             try {
-                long len = self.getLength();
-                SliceInfo info = compute.execute(sliceCast.execute(idx), PInt.intValueExact(len));
-                SeekableByteChannel channel = self.getChannel();
-
-                // save current position
-                long oldPos = PMMap.position(channel);
-
-                PMMap.position(channel, info.start);
-                ByteSequenceStorage s = readNode.execute(channel, sliceLen.len(info));
-
-                // restore position
-                PMMap.position(channel, oldPos);
-
-                return factory().createBytes(s);
-            } catch (IOException e) {
-                throw raise(PythonBuiltinClassType.OSError, e);
+                SliceInfo info = compute.execute(sliceCast.execute(idx), PInt.intValueExact(self.getLength()));
+                byte[] result = new byte[info.sliceLength];
+                if (stepOneProfile.profile(info.step == 1)) {
+                    self.readBytes(info.start, result, 0, result.length);
+                } else {
+                    for (int i = 0, j = info.start; i < result.length; i++, j += info.step) {
+                        result[i] = self.getByte(j);
+                    }
+                }
+                return factory().createBytes(result);
             } catch (OverflowException e) {
                 throw raise(PythonBuiltinClassType.OverflowError, e);
             }
@@ -300,72 +236,46 @@ public class MMapBuiltins extends PythonBuiltins {
 
     @Builtin(name = SpecialMethodNames.__SETITEM__, minNumOfPositionalArgs = 3)
     @GenerateNodeFactory
-    abstract static class SetItemNode extends PythonTernaryBuiltinNode implements ByteWritingNode {
+    abstract static class SetItemNode extends PythonTernaryBuiltinNode {
 
         @Specialization(guards = "!isPSlice(idxObj)", limit = "1")
-        PNone doSingle(PMMap self, Object idxObj, Object val,
-                        @SuppressWarnings("unused") @Cached PRaiseNode raise,
-                        @Cached("createIndexError(raise)") WriteByteToChannelNode writeByteNode,
+        PNone doSingle(VirtualFrame frame, PMMap self, Object idxObj, Object val,
                         @CachedLibrary("idxObj") PythonObjectLibrary libIdx,
                         @Cached("createCoerce()") CastToByteNode castToByteNode,
                         @Cached("createBinaryProfile()") ConditionProfile outOfRangeProfile) {
-
-            try {
-                long i = libIdx.asJavaLong(idxObj);
-                long len = self.getLength();
-                SeekableByteChannel channel = self.getChannel();
-                long idx = i < 0 ? i + len : i;
-
-                if (outOfRangeProfile.profile(idx < 0 || idx >= len)) {
-                    throw raise(PythonBuiltinClassType.IndexError, ErrorMessages.MMAP_INDEX_OUT_OF_RANGE);
-                }
-
-                // save current position
-                long oldPos = PMMap.position(channel);
-
-                PMMap.position(channel, idx);
-                writeByteNode.execute(channel, castToByteNode.execute(null, val));
-
-                // restore position
-                PMMap.position(channel, oldPos);
-
-                return PNone.NONE;
-
-            } catch (IOException e) {
-                throw raise(PythonBuiltinClassType.OSError, e);
+            checkWritable(this, self);
+            long i = libIdx.asJavaLong(idxObj);
+            long len = self.getLength();
+            long idx = i < 0 ? i + len : i;
+            if (outOfRangeProfile.profile(idx < 0 || idx >= len)) {
+                throw raise(IndexError, ErrorMessages.MMAP_INDEX_OUT_OF_RANGE);
             }
+            self.putByte(idx, castToByteNode.execute(frame, val));
+            return PNone.NONE;
         }
 
         @Specialization
         PNone doSlice(PMMap self, PSlice idx, PBytesLike val,
-                        @Cached("create()") WriteToChannelNode writeNode,
-                        @Cached("createBinaryProfile()") ConditionProfile invalidStepProfile,
+                        @Cached SequenceStorageNodes.GetInternalByteArrayNode getBytesNode,
                         @Cached CoerceToIntSlice sliceCast,
                         @Cached ComputeIndices compute,
-                        @Cached LenOfRangeNode sliceLen) {
-
+                        @Cached("createBinaryProfile()") ConditionProfile stepOneProfile) {
+            checkWritable(this, self);
             try {
-                long len = self.getLength();
-                SliceInfo info = compute.execute(sliceCast.execute(idx), PInt.intValueExact(len));
-                SeekableByteChannel channel = self.getChannel();
-
-                if (invalidStepProfile.profile(info.step != 1)) {
-                    throw raise(PythonBuiltinClassType.SystemError, ErrorMessages.STEP_1_NOT_SUPPORTED);
+                SliceInfo info = compute.execute(sliceCast.execute(idx), PInt.intValueExact(self.getLength()));
+                SequenceStorage storage = val.getSequenceStorage();
+                if (storage.length() != info.sliceLength) {
+                    throw raise(IndexError, ErrorMessages.MMAP_SLICE_ASSIGNMENT_WRONG_SIZE);
+                }
+                byte[] data = getBytesNode.execute(storage);
+                if (stepOneProfile.profile(info.step == 1)) {
+                    self.writeBytes(data, 0, info.start, info.sliceLength);
+                } else {
+                    for (int i = 0, j = info.start; i < info.sliceLength; i++, j += info.step) {
+                        self.putByte(j, data[i]);
+                    }
                 }
-
-                // save current position
-                long oldPos = PMMap.position(channel);
-
-                PMMap.position(channel, info.start);
-                writeNode.execute(channel, val.getSequenceStorage(), sliceLen.len(info));
-
-                // restore position
-                PMMap.position(channel, oldPos);
-
                 return PNone.NONE;
-
-            } catch (IOException e) {
-                throw raise(PythonBuiltinClassType.OSError, e);
             } catch (OverflowException e) {
                 throw raise(PythonBuiltinClassType.OverflowError, e);
             }
@@ -411,20 +321,17 @@ public class MMapBuiltins extends PythonBuiltins {
     abstract static class CloseNode extends PythonUnaryBuiltinNode {
 
         @Specialization
-        static PNone doClose(PMMap self,
-                        @Cached PRaiseNode raiseNode) {
+        PNone doClose(VirtualFrame frame, PMMap self) {
+            if (self.hasExports()) {
+                throw raise(BufferError, ErrorMessages.CANNOT_CLOSE_EXPORTED_PTRS_EXIST);
+            }
             try {
-                close(self);
+                self.close();
             } catch (IOException e) {
-                throw raiseNode.raise(PythonErrorType.BufferError, ErrorMessages.CANNOT_CLOSE_EXPORTED_PTRS_EXIST);
+                throw raiseOSError(frame, OSErrorEnum.EIO, e);
             }
             return PNone.NONE;
         }
-
-        @TruffleBoundary
-        private static void close(PMMap self) throws IOException {
-            self.getChannel().close();
-        }
     }
 
     @Builtin(name = "closed", minNumOfPositionalArgs = 1, isGetter = true)
@@ -432,9 +339,8 @@ public class MMapBuiltins extends PythonBuiltins {
     abstract static class ClosedNode extends PythonUnaryBuiltinNode {
 
         @Specialization
-        @TruffleBoundary
         static boolean close(PMMap self) {
-            return !self.getChannel().isOpen();
+            return self.isClosed();
         }
     }
 
@@ -450,28 +356,51 @@ public class MMapBuiltins extends PythonBuiltins {
 
     @Builtin(name = "tell", minNumOfPositionalArgs = 1)
     @GenerateNodeFactory
-    abstract static class TellNode extends PythonBuiltinNode implements ByteReadingNode {
+    abstract static class TellNode extends PythonBuiltinNode {
         @Specialization
-        long readline(VirtualFrame frame, PMMap self) {
-            try {
-                SeekableByteChannel channel = self.getChannel();
-                return PMMap.position(channel) - self.getOffset();
-            } catch (IOException e) {
-                throw raiseOSError(frame, OSErrorEnum.EIO, e);
-            }
+        long tell(PMMap self) {
+            checkValid(this, self);
+            return self.getPos();
         }
     }
 
     @Builtin(name = "read_byte", minNumOfPositionalArgs = 1)
     @GenerateNodeFactory
     @TypeSystemReference(PythonArithmeticTypes.class)
-    abstract static class ReadByteNode extends PythonUnaryBuiltinNode implements ByteReadingNode {
+    abstract static class ReadByteNode extends PythonUnaryBuiltinNode {
+
+        @Specialization
+        int readByte(PMMap self) {
+            checkValid(this, self);
+            long pos = self.getPos();
+            if (pos >= self.getLength()) {
+                throw raise(ValueError, ErrorMessages.READ_BYTE_OUT_OF_RANGE);
+            }
+            self.setPos(pos + 1);
+            return self.getByte(pos) & 0xFF;
+        }
+    }
+
+    @Builtin(name = "write_byte", minNumOfPositionalArgs = 2)
+    @GenerateNodeFactory
+    abstract static class WriteByteNode extends PythonBinaryBuiltinNode {
 
         @Specialization
-        static int readByte(PMMap self,
-                        @SuppressWarnings("unused") @Cached PRaiseNode raise,
-                        @Cached("createValueError(raise)") ReadByteFromChannelNode readByteNode) {
-            return readByteNode.execute(self.getChannel());
+        PNone writeByte(VirtualFrame frame, PMMap self, Object val,
+                        @Cached("createCoerce()") CastToByteNode castToByteNode) {
+            checkWritable(this, self);
+            byte b = castToByteNode.execute(frame, val);
+            long pos = self.getPos();
+            if (pos >= self.getLength()) {
+                throw raise(ValueError, ErrorMessages.WRITE_BYTE_OUT_OF_RANGE);
+            }
+            self.putByte(pos, b);
+            self.setPos(pos + 1);
+            return PNone.NONE;
+        }
+
+        protected static CastToByteNode createCoerce() {
+            return CastToByteNode.create(true);
         }
     }
 
@@ -481,63 +410,48 @@ public class MMapBuiltins extends PythonBuiltins {
     abstract static class ReadNode extends PythonBuiltinNode {
 
         @Specialization
-        PBytes readUnlimited(PMMap self, @SuppressWarnings("unused") PNone n,
-                        @Cached("create()") ReadFromChannelNode readChannelNode) {
+        PBytes readUnlimited(PMMap self, @SuppressWarnings("unused") PNone n) {
             // intentionally accept NO_VALUE and NONE; both mean that we read unlimited amount of
             // bytes
-            ByteSequenceStorage res = readChannelNode.execute(self.getChannel(), ReadFromChannelNode.MAX_READ);
-            return factory().createBytes(res);
+            return doRead(self, Long.MAX_VALUE);
         }
 
         @Specialization(guards = "!isNoValue(n)", limit = "getCallSiteInlineCacheMaxDepth()")
         PBytes read(VirtualFrame frame, PMMap self, Object n,
-                        @Cached("create()") ReadFromChannelNode readChannelNode,
                         @CachedLibrary("n") PythonObjectLibrary lib,
                         @Cached("createBinaryProfile()") ConditionProfile negativeProfile) {
-            int nread = lib.asSizeWithState(n, PArguments.getThreadState(frame));
-            if (negativeProfile.profile(nread < 0)) {
-                return readUnlimited(self, PNone.NO_VALUE, readChannelNode);
-            }
-            ByteSequenceStorage res = readChannelNode.execute(self.getChannel(), nread);
-            return factory().createBytes(res);
+            long nread = lib.asSizeWithState(n, PArguments.getThreadState(frame));
+            return doRead(self, negativeProfile.profile(nread < 0) ? Long.MAX_VALUE : nread);
         }
 
+        private PBytes doRead(PMMap self, long n) {
+            checkValid(this, self);
+            long pos = self.getPos();
+            int nread = (int) Math.min(Math.min(n, self.getLength() - pos), Integer.MAX_VALUE);
+            byte[] result = new byte[Math.max(nread, 0)];
+            self.readBytes(pos, result, 0, result.length);
+            self.setPos(pos + result.length);
+            return factory().createBytes(result);
+        }
     }
 
     @Builtin(name = "readline", minNumOfPositionalArgs = 1)
     @GenerateNodeFactory
-    abstract static class ReadlineNode extends PythonUnaryBuiltinNode implements ByteReadingNode {
+    abstract static class ReadlineNode extends PythonUnaryBuiltinNode {
+        private static final byte[] NEWLINE = new byte[]{(byte) '\n'};
 
         @Specialization
         Object readline(PMMap self) {
-            try {
-                return factory().createBytes(doReadline(self.getChannel()));
-            } catch (IOException e) {
-                throw raise(PythonBuiltinClassType.OSError, e);
-            }
-        }
-
-        @TruffleBoundary
-        static ByteSequenceStorage doReadline(SeekableByteChannel channel) throws IOException {
-            ByteBuffer buf = ByteBuffer.allocate(4096);
-            ByteSequenceStorage res = new ByteSequenceStorage(16);
-            // search for newline char
-            outer: while (channel.read(buf) > 0) {
-                buf.flip();
-                while (buf.hasRemaining()) {
-                    byte b = buf.get();
-                    // CPython really tests for '\n' only
-                    if (b != (byte) '\n') {
-                        SequenceStorageNodes.AppendNode.getUncached().execute(res, b, BytesLikeNoGeneralizationNode.SUPPLIER);
-                    } else {
-                        // recover correct position (i.e. number of remaining bytes in buffer)
-                        PMMap.position(channel, PMMap.position(channel) - buf.remaining() - 1);
-                        break outer;
-                    }
-                }
-                buf.clear();
-            }
-            return res;
+            checkValid(this, self);
+            long pos = self.getPos();
+            long length = self.getLength();
+            // CPython really tests for '\n' only
+            long eol = self.find(NEWLINE, 1, pos, length);
+            long end = eol < 0 ? length : eol + 1;
+            byte[] result = new byte[(int) Math.min(end - pos, Integer.MAX_VALUE)];
+            self.readBytes(pos, result, 0, result.length);
+            self.setPos(pos + result.length);
+            return factory().createBytes(result);
         }
     }
 
@@ -546,30 +460,40 @@ public class MMapBuiltins extends PythonBuiltins {
     abstract static class WriteNode extends PythonBinaryBuiltinNode {
 
         @Specialization
-        static int writeBytesLike(PMMap self, PBytesLike bytesLike,
-                        @Cached("create()") WriteToChannelNode writeNode) {
-            SeekableByteChannel channel = self.getChannel();
-            return writeNode.execute(channel, bytesLike.getSequenceStorage(), Integer.MAX_VALUE);
+        int writeBytesLike(PMMap self, PBytesLike bytesLike,
+                        @Cached SequenceStorageNodes.GetInternalByteArrayNode getBytesNode) {
+            SequenceStorage storage = bytesLike.getSequenceStorage();
+            return write(self, getBytesNode.execute(storage), storage.length());
         }
 
-        @Specialization(guards = "bufferLib.isBuffer(buffer)", limit = "3")
-        static int writeBuffer(PMMap self, Object buffer,
-                        @CachedLibrary("buffer") PythonObjectLibrary bufferLib,
-                        @Cached("create()") WriteToChannelNode writeNode) {
+        @Specialization(guards = {"!isBytes(buffer)", "bufferLib.isBuffer(buffer)"}, limit = "3")
+        int writeBuffer(PMMap self, Object buffer,
+                        @CachedLibrary("buffer") PythonObjectLibrary bufferLib) {
             byte[] data;
             try {
                 data = bufferLib.getBufferBytes(buffer);
             } catch (UnsupportedMessageException e) {
                 throw CompilerDirectives.shouldNotReachHere();
             }
-            return writeNode.execute(self.getChannel(), new ByteSequenceStorage(data), Integer.MAX_VALUE);
+            return write(self, data, data.length);
+        }
+
+        private int write(PMMap self, byte[] data, int len) {
+            checkWritable(this, self);
+            long pos = self.getPos();
+            if (pos > self.getLength() - len) {
+                throw raise(ValueError, ErrorMessages.DATA_OUT_OF_RANGE);
+            }
+            self.writeBytes(data, 0, pos, len);
+            self.setPos(pos + len);
+            return len;
         }
     }
 
     @Builtin(name = "seek", minNumOfPositionalArgs = 2, maxNumOfPositionalArgs = 3)
     @GenerateNodeFactory
     @TypeSystemReference(PythonArithmeticTypes.class)
-    abstract static class SeekNode extends PythonBuiltinNode implements MMapBaseNode {
+    abstract static class SeekNode extends PythonBuiltinNode {
         @Specialization(guards = "isNoValue(how)")
         Object seek(VirtualFrame frame, PMMap self, long dist, @SuppressWarnings("unused") PNone how,
                         @Shared("errorProfile") @Cached BranchProfile errorProfile,
@@ -581,122 +505,77 @@ public class MMapBuiltins extends PythonBuiltins {
         Object seek(VirtualFrame frame, PMMap self, long dist, Object how,
                         @Shared("errorProfile") @Cached BranchProfile errorProfile,
                         @Shared("library") @CachedLibrary(limit = "getCallSiteInlineCacheMaxDepth()") PythonObjectLibrary lib) {
-            try {
-                SeekableByteChannel channel = self.getChannel();
-                long size;
-                if (self.getLength() == 0) {
-                    size = PMMap.size(channel) - self.getOffset();
-                } else {
-                    size = self.getLength();
-                }
-                long where;
-                int ihow = lib.asSizeWithState(how, PArguments.getThreadState(frame));
-                switch (ihow) {
-                    case 0: /* relative to start */
-                        where = dist;
-                        break;
-                    case 1: /* relative to current position */
-                        where = PMMap.position(channel) + dist;
-                        break;
-                    case 2: /* relative to end */
-                        where = size + dist;
-                        break;
-                    default:
-                        errorProfile.enter();
-                        throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.UNKNOWN_S_TYPE, "seek");
-                }
-                if (where > size || where < 0) {
+            checkValid(this, self);
+            long size = self.getLength();
+            long where;
+            int ihow = lib.asSizeWithState(how, PArguments.getThreadState(frame));
+            switch (ihow) {
+                case 0: /* relative to start */
+                    where = dist;
+                    break;
+                case 1: /* relative to current position */
+                    where = self.getPos() + dist;
+                    break;
+                case 2: /* relative to end */
+                    where = size + dist;
+                    break;
+                default:
                     errorProfile.enter();
-                    throw raise(PythonBuiltinClassType.ValueError, ErrorMessages.SEEK_OUT_OF_RANGE);
-                }
-                PMMap.position(channel, where);
-                return PNone.NONE;
-            } catch (IOException e) {
+                    throw raise(ValueError, ErrorMessages.UNKNOWN_S_TYPE, "seek");
+            }
+            if (where > size || where < 0) {
                 errorProfile.enter();
-                throw raiseOSError(frame, OSErrorEnum.EIO, e);
+                throw raise(ValueError, ErrorMessages.SEEK_OUT_OF_RANGE);
             }
+            self.setPos(where);
+            return PNone.NONE;
         }
     }
 
-    @Builtin(name = "find", minNumOfPositionalArgs = 2, maxNumOfPositionalArgs = 4)
-    @GenerateNodeFactory
-    @TypeSystemReference(PythonArithmeticTypes.class)
-    public abstract static class FindNode extends PythonBuiltinNode implements ByteReadingNode {
-
-        @Child private SequenceStorageNodes.GetItemNode getRightItemNode;
+    abstract static class FindBaseNode extends PythonBuiltinNode {
 
-        public abstract long execute(VirtualFrame frame, PMMap bytes, Object sub, Object starting, Object ending);
+        protected abstract long search(PMMap self, byte[] needle, int needleLen, long start, long end);
 
         @Specialization
-        long find(VirtualFrame frame, PMMap primary, PBytesLike sub, Object starting, Object ending,
+        long find(PMMap self, PBytesLike sub, Object starting, Object ending,
                         @Shared("castLong") @Cached CastToJavaLongLossyNode castLong,
-                        @SuppressWarnings("unused") @Cached PRaiseNode raise,
-                        @Cached("createValueError(raise)") ReadByteFromChannelNode readByteNode) {
-            try {
-                SeekableByteChannel channel = primary.getChannel();
-                long len1 = PMMap.size(channel);
-
-                SequenceStorage needle = sub.getSequenceStorage();
-                int len2 = needle.length();
-
-                long s = castToLong(castLong, starting, 0);
-                long e = castToLong(castLong, ending, len1);
-
-                long start = s < 0 ? s + len1 : s;
-                long end = e < 0 ? e + len1 : e;
-
-                if (start >= len1 || len1 < len2) {
-                    return -1;
-                } else if (end > len1) {
-                    end = len1;
-                }
-
-                // TODO implement a more efficient algorithm
-                outer: for (long i = start; i < end; i++) {
-                    // TODO(fa) don't seek but use circular buffer
-                    PMMap.position(channel, i);
-                    for (int j = 0; j < len2; j++) {
-                        int hb = readByteNode.execute(channel);
-                        int nb = getGetRightItemNode().executeInt(frame, needle, j);
-                        if (nb != hb || i + j >= end) {
-                            continue outer;
-                        }
-                    }
-                    return i;
-                }
-                return -1;
-            } catch (IOException e) {
-                throw raise(PythonBuiltinClassType.OSError, e);
-            }
+                        @Cached SequenceStorageNodes.GetInternalByteArrayNode getBytesNode) {
+            SequenceStorage needle = sub.getSequenceStorage();
+            return doFind(self, getBytesNode.execute(needle), needle.length(), starting, ending, castLong);
         }
 
         @Specialization
-        long find(PMMap primary, int sub, Object starting, @SuppressWarnings("unused") Object ending,
+        long find(PMMap self, int sub, Object starting, Object ending,
+                        @Shared("castLong") @Cached CastToJavaLongLossyNode castLong) {
+            return doFind(self, new byte[]{(byte) sub}, 1, starting, ending, castLong);
+        }
+
+        @Specialization(guards = {"!isBytes(sub)", "bufferLib.isBuffer(sub)"}, limit = "3")
+        long find(PMMap self, Object sub, Object starting, Object ending,
                         @Shared("castLong") @Cached CastToJavaLongLossyNode castLong,
-                        @SuppressWarnings("unused") @Cached PRaiseNode raise,
-                        @Cached("createValueError(raise)") ReadByteFromChannelNode readByteNode) {
+                        @CachedLibrary("sub") PythonObjectLibrary bufferLib) {
+            byte[] needle;
             try {
-                SeekableByteChannel channel = primary.getChannel();
-                long len1 = PMMap.size(channel);
-
-                long s = castToLong(castLong, starting, 0);
-                long e = castToLong(castLong, ending, len1);
-
-                long start = s < 0 ? s + len1 : s;
-                long end = Math.max(e < 0 ? e + len1 : e, len1);
+                needle = bufferLib.getBufferBytes(sub);
+            } catch (UnsupportedMessageException e) {
+                throw CompilerDirectives.shouldNotReachHere();
+            }
+            return doFind(self, needle, needle.length, starting, ending, castLong);
+        }
 
-                PMMap.position(channel, start);
+        private long doFind(PMMap self, byte[] needle, int needleLen, Object starting, Object ending, CastToJavaLongLossyNode castLong) {
+            checkValid(this, self);
+            long len = self.getLength();
+            long start = adjustIndex(castToLong(castLong, starting, self.getPos()), len);
+            long end = adjustIndex(castToLong(castLong, ending, len), len);
+            return search(self, needle, needleLen, start, end);
+        }
 
-                for (long i = start; i < end; i++) {
-                    int hb = readByteNode.execute(channel);
-                    if (hb == sub) {
-                        return i;
-                    }
-                }
-                return -1;
-            } catch (IOException e) {
-                throw raise(PythonBuiltinClassType.OSError, e);
+        private static long adjustIndex(long idx, long len) {
+            if (idx < 0) {
+                return Math.max(idx + len, 0);
             }
+            return Math.min(idx, len);
         }
 
         private static long castToLong(CastToJavaLongLossyNode castLong, Object obj, long defaultVal) {
@@ -706,25 +585,44 @@ public class MMapBuiltins extends PythonBuiltins {
                 return defaultVal;
             }
         }
+    }
 
-        private SequenceStorageNodes.GetItemNode getGetRightItemNode() {
-            if (getRightItemNode == null) {
-                CompilerDirectives.transferToInterpreterAndInvalidate();
-                getRightItemNode = insert(SequenceStorageNodes.GetItemNode.create());
-            }
-            return getRightItemNode;
+    @Builtin(name = "find", minNumOfPositionalArgs = 2, maxNumOfPositionalArgs = 4)
+    @GenerateNodeFactory
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    public abstract static class FindNode extends FindBaseNode {
+
+        @Override
+        protected long search(PMMap self, byte[] needle, int needleLen, long start, long end) {
+            return self.find(needle, needleLen, start, end);
+        }
+    }
+
+    @Builtin(name = "rfind", minNumOfPositionalArgs = 2, maxNumOfPositionalArgs = 4)
+    @GenerateNodeFactory
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    public abstract static class RFindNode extends FindBaseNode {
+
+        @Override
+        protected long search(PMMap self, byte[] needle, int needleLen, long start, long end) {
+            return self.rfind(needle, needleLen, start, end);
         }
     }
 
-    @Builtin(name = "flush", minNumOfPositionalArgs = 1)
+    @Builtin(name = "flush", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 3)
     @GenerateNodeFactory
-    abstract static class FlushNode extends PythonUnaryBuiltinNode {
+    abstract static class FlushNode extends PythonBuiltinNode {
 
+        // we always force the whole map; 'offset' and 'size' are just hints
         @Specialization
-        static Object seek(@SuppressWarnings("unused") PMMap self) {
+        PNone flush(VirtualFrame frame, PMMap self, @SuppressWarnings("unused") Object offset, @SuppressWarnings("unused") Object size) {
+            checkValid(this, self);
+            try {
+                self.flush();
+            } catch (IOException e) {
+                throw raiseOSError(frame, OSErrorEnum.EIO, e);
+            }
             return PNone.NONE;
         }
-
     }
-
 }
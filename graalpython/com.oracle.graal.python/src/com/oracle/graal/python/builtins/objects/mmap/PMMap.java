@@ -41,38 +41,66 @@
 package com.oracle.graal.python.builtins.objects.mmap;
 
 import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
 
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
 import com.oracle.graal.python.nodes.PRaiseNode;
 import com.oracle.graal.python.nodes.util.CastToJavaIntExactNode;
-import com.oracle.graal.python.nodes.util.ChannelNodes.ReadFromChannelNode;
-import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
 import com.oracle.truffle.api.library.ExportLibrary;
 import com.oracle.truffle.api.library.ExportMessage;
 import com.oracle.truffle.api.object.Shape;
-import com.oracle.truffle.api.profiles.BranchProfile;
 
+/**
+ * A memory map. File-backed maps are created with {@link FileChannel#map} and anonymous maps live
+ * in off-heap memory. Since a single {@link ByteBuffer} can address at most 2 GB, the mapping is
+ * split into windows of {@link #WINDOW_SIZE} bytes.
+ */
 @ExportLibrary(PythonObjectLibrary.class)
 public final class PMMap extends PythonObject {
+    public static final int ACCESS_DEFAULT = 0;
+    public static final int ACCESS_READ = 1;
+    public static final int ACCESS_WRITE = 2;
+    public static final int ACCESS_COPY = 3;
+
+    private static final int WINDOW_SHIFT = 30;
+    private static final int WINDOW_SIZE = 1 << WINDOW_SHIFT;
+    private static final long WINDOW_MASK = WINDOW_SIZE - 1;
 
-    private final SeekableByteChannel mappedByteBuffer;
+    /** The underlying channel or {@code null} for anonymous maps. */
+    private final SeekableByteChannel channel;
     private final long length;
     private final long offset;
+    private final int access;
+    private ByteBuffer[] windows;
+    private long pos;
+
+    /**
+     * The memoryviews exported by {@code memoryview(mmap)}. Like in CPython, the map cannot be
+     * closed while any of them is not released. We have no reference counting, so a view that
+     * was dropped without releasing it counts as exported until it is collected.
+     */
+    private ArrayList<WeakReference<PMemoryView>> exports;
 
-    public PMMap(Object pythonClass, Shape instanceShape, SeekableByteChannel mappedByteBuffer, long length, long offset) {
+    public PMMap(Object pythonClass, Shape instanceShape, SeekableByteChannel channel, ByteBuffer[] windows, long length, long offset, int access) {
         super(pythonClass, instanceShape);
-        this.mappedByteBuffer = mappedByteBuffer;
+        this.channel = channel;
+        this.windows = windows;
         this.length = length;
         this.offset = offset;
-    }
-
-    public SeekableByteChannel getChannel() {
-        return mappedByteBuffer;
+        this.access = access;
     }
 
     public long getLength() {
@@ -83,49 +111,215 @@ public final class PMMap extends PythonObject {
         return offset;
     }
 
-    @ExportMessage
-    @SuppressWarnings("static-method")
-    static boolean isBuffer(@SuppressWarnings("unused") PMMap self) {
-        return true;
+    public long getPos() {
+        return pos;
     }
 
-    @ExportMessage
-    int getBufferLength(
-                    @Shared("castToIntNode") @Cached CastToJavaIntExactNode castToIntNode) {
-        return castToIntNode.execute(length);
+    public void setPos(long pos) {
+        this.pos = pos;
     }
 
-    @ExportMessage
-    byte[] getBufferBytes(
-                    @Shared("castToIntNode") @Cached CastToJavaIntExactNode castToIntNode,
-                    @Cached BranchProfile gotException,
-                    @Cached PRaiseNode raiseNode) {
+    public boolean isReadonly() {
+        return access == ACCESS_READ;
+    }
+
+    public boolean isClosed() {
+        return windows == null;
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    public byte getByte(long index) {
+        return windows[(int) (index >>> WINDOW_SHIFT)].get((int) (index & WINDOW_MASK));
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    public void putByte(long index, byte value) {
+        windows[(int) (index >>> WINDOW_SHIFT)].put((int) (index & WINDOW_MASK), value);
+    }
+
+    @TruffleBoundary
+    public void readBytes(long index, byte[] dest, int destPos, int len) {
+        long i = index;
+        int p = destPos;
+        int remaining = len;
+        while (remaining > 0) {
+            ByteBuffer window = windows[(int) (i >>> WINDOW_SHIFT)].duplicate();
+            int windowPos = (int) (i & WINDOW_MASK);
+            int n = Math.min(remaining, window.limit() - windowPos);
+            window.position(windowPos);
+            window.get(dest, p, n);
+            i += n;
+            p += n;
+            remaining -= n;
+        }
+    }
+
+    @TruffleBoundary
+    public void writeBytes(byte[] src, int srcPos, long index, int len) {
+        long i = index;
+        int p = srcPos;
+        int remaining = len;
+        while (remaining > 0) {
+            ByteBuffer window = windows[(int) (i >>> WINDOW_SHIFT)].duplicate();
+            int windowPos = (int) (i & WINDOW_MASK);
+            int n = Math.min(remaining, window.limit() - windowPos);
+            window.position(windowPos);
+            window.put(src, p, n);
+            i += n;
+            p += n;
+            remaining -= n;
+        }
+    }
+
+    /**
+     * Returns the lowest index in {@code [start, end)} where {@code needle} is found or {@code -1}.
+     */
+    @TruffleBoundary
+    public long find(byte[] needle, int needleLen, long start, long end) {
+        outer: for (long i = start; i + needleLen <= end; i++) {
+            for (int j = 0; j < needleLen; j++) {
+                if (getByte(i + j) != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the highest index in {@code [start, end)} where {@code needle} is found or
+     * {@code -1}.
+     */
+    @TruffleBoundary
+    public long rfind(byte[] needle, int needleLen, long start, long end) {
+        outer: for (long i = end - needleLen; i >= start; i--) {
+            for (int j = 0; j < needleLen; j++) {
+                if (getByte(i + j) != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
 
+    /**
+     * Writes modifications back to the file. Mapped windows are forced to the storage device,
+     * windows that are just copies of the file content (see {@link #map}) are written to the
+     * channel.
+     */
+    @TruffleBoundary
+    public void flush() throws IOException {
+        if (channel == null || access == ACCESS_READ || access == ACCESS_COPY) {
+            return;
+        }
+        for (int i = 0; i < windows.length; i++) {
+            ByteBuffer window = windows[i];
+            if (window instanceof MappedByteBuffer) {
+                ((MappedByteBuffer) window).force();
+            } else {
+                ByteBuffer src = window.duplicate();
+                src.clear();
+                channel.position(offset + ((long) i << WINDOW_SHIFT));
+                while (src.hasRemaining()) {
+                    channel.write(src);
+                }
+            }
+        }
+    }
+
+    @TruffleBoundary
+    public void addExport(PMemoryView view) {
+        if (exports == null) {
+            exports = new ArrayList<>();
+        }
+        exports.add(new WeakReference<>(view));
+    }
+
+    @TruffleBoundary
+    public boolean hasExports() {
+        if (exports == null) {
+            return false;
+        }
+        exports.removeIf(ref -> {
+            PMemoryView view = ref.get();
+            return view == null || view.isReleased();
+        });
+        return !exports.isEmpty();
+    }
+
+    /**
+     * Closes the map. There is no way to explicitly unmap a {@link MappedByteBuffer}, so we drop
+     * all references to the windows and let the GC release the mapping.
+     */
+    @TruffleBoundary
+    public void close() throws IOException {
+        if (windows == null) {
+            return;
+        }
         try {
-            int len = castToIntNode.execute(length);
-
-            // save current position
-            // TODO: restore in case of failure
-            @SuppressWarnings("unused")
-            long oldPos = PMMap.position(mappedByteBuffer);
-
-            PMMap.position(mappedByteBuffer, 0);
-            ByteSequenceStorage s = ReadFromChannelNode.read(mappedByteBuffer, len, gotException, raiseNode);
-            return s.getInternalByteArray();
-        } catch (IOException e) {
-            // TODO(fa) how to handle?
-            return null;
+            if (channel != null && !(channel instanceof FileChannel)) {
+                flush();
+            }
+        } finally {
+            windows = null;
+            if (channel != null) {
+                channel.close();
+            }
         }
     }
 
+    private static int numWindows(long length) {
+        return (int) ((length + WINDOW_SIZE - 1) >>> WINDOW_SHIFT);
+    }
+
     @TruffleBoundary
-    static long position(SeekableByteChannel ch) throws IOException {
-        return ch.position();
+    public static ByteBuffer[] allocateAnonymous(long length) {
+        ByteBuffer[] windows = new ByteBuffer[numWindows(length)];
+        for (int i = 0; i < windows.length; i++) {
+            windows[i] = ByteBuffer.allocateDirect((int) Math.min(WINDOW_SIZE, length - ((long) i << WINDOW_SHIFT)));
+        }
+        return windows;
     }
 
+    /**
+     * Maps {@code length} bytes of the channel starting at {@code offset}. If the channel is not a
+     * {@link FileChannel} (e.g. when using a virtual file system), the content is copied into
+     * memory and written back on {@link #flush()} and {@link #close()}.
+     */
     @TruffleBoundary
-    static void position(SeekableByteChannel ch, long offset) throws IOException {
-        ch.position(offset);
+    public static ByteBuffer[] map(SeekableByteChannel channel, long offset, long length, int access) throws IOException {
+        ByteBuffer[] windows = new ByteBuffer[numWindows(length)];
+        for (int i = 0; i < windows.length; i++) {
+            long start = (long) i << WINDOW_SHIFT;
+            int size = (int) Math.min(WINDOW_SIZE, length - start);
+            if (channel instanceof FileChannel) {
+                windows[i] = ((FileChannel) channel).map(getMapMode(access), offset + start, size);
+            } else {
+                ByteBuffer window = ByteBuffer.allocate(size);
+                channel.position(offset + start);
+                while (window.hasRemaining()) {
+                    if (channel.read(window) <= 0) {
+                        break;
+                    }
+                }
+                window.clear();
+                windows[i] = window;
+            }
+        }
+        return windows;
+    }
+
+    private static MapMode getMapMode(int access) {
+        switch (access) {
+            case ACCESS_READ:
+                return MapMode.READ_ONLY;
+            case ACCESS_COPY:
+                return MapMode.PRIVATE;
+            default:
+                return MapMode.READ_WRITE;
+        }
     }
 
     @TruffleBoundary
@@ -133,4 +327,27 @@ public final class PMMap extends PythonObject {
         return ch.size();
     }
 
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    static boolean isBuffer(@SuppressWarnings("unused") PMMap self) {
+        return true;
+    }
+
+    @ExportMessage
+    int getBufferLength(
+                    @Shared("castToIntNode") @Cached CastToJavaIntExactNode castToIntNode) {
+        return castToIntNode.execute(length);
+    }
+
+    @ExportMessage
+    byte[] getBufferBytes(
+                    @Shared("castToIntNode") @Cached CastToJavaIntExactNode castToIntNode,
+                    @Cached PRaiseNode raiseNode) {
+        if (isClosed()) {
+            throw raiseNode.raise(PythonBuiltinClassType.ValueError, ErrorMessages.MMAP_CLOSED_OR_INVALID);
+        }
+        byte[] bytes = new byte[castToIntNode.execute(length)];
+        readBytes(0, bytes, 0, bytes.length);
+        return bytes;
+    }
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.queue;
+
+import static com.oracle.graal.python.builtins.objects.thread.AbstractPythonLock.DEFAULT_BLOCKING;
+import static com.oracle.graal.python.builtins.objects.thread.AbstractPythonLock.TIMEOUT_MAX;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.builtins.objects.thread.AbstractPythonLock;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.expression.CoerceToBooleanNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PSimpleQueue)
+public final class SimpleQueueBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return SimpleQueueBuiltinsFactory.getFactories();
+    }
+
+    // put(item, block=True, timeout=None)
+    @Builtin(name = "put", minNumOfPositionalArgs = 2, parameterNames = {"$self", "item", "block", "timeout"})
+    @GenerateNodeFactory
+    public abstract static class PutNode extends PythonQuaternaryBuiltinNode {
+        @Specialization
+        static PNone put(PSimpleQueue self, Object item, @SuppressWarnings("unused") Object block, @SuppressWarnings("unused") Object timeout) {
+            // the queue is unbounded, so 'block' and 'timeout' are ignored like in CPython
+            self.put(item);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "put_nowait", minNumOfPositionalArgs = 2, parameterNames = {"$self", "item"})
+    @GenerateNodeFactory
+    public abstract static class PutNoWaitNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        static PNone putNoWait(PSimpleQueue self, Object item) {
+            self.put(item);
+            return PNone.NONE;
+        }
+    }
+
+    // get(block=True, timeout=None)
+    @Builtin(name = "get", minNumOfPositionalArgs = 1, parameterNames = {"$self", "block", "timeout"})
+    @GenerateNodeFactory
+    public abstract static class GetNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object get(VirtualFrame frame, PSimpleQueue self, Object block, Object timeout,
+                        @Cached("createIfTrueNode()") CoerceToBooleanNode castToBooleanNode,
+                        @CachedLibrary(limit = "1") PythonObjectLibrary lib,
+                        @Cached("createBinaryProfile()") ConditionProfile isBlockingProfile,
+                        @Cached("createBinaryProfile()") ConditionProfile noTimeoutProfile,
+                        @Cached("createBinaryProfile()") ConditionProfile emptyProfile) {
+            boolean isBlocking = block instanceof PNone ? DEFAULT_BLOCKING : castToBooleanNode.executeBoolean(frame, block);
+            Object item;
+            if (isBlockingProfile.profile(!isBlocking)) {
+                item = self.poll();
+            } else if (noTimeoutProfile.profile(timeout instanceof PNone)) {
+                item = self.poll();
+                if (item == null) {
+                    item = self.take();
+                }
+            } else {
+                double timeoutSeconds = lib.asJavaDouble(timeout);
+                if (timeoutSeconds < 0) {
+                    throw raise(ValueError, ErrorMessages.TIMEOUT_MUST_BE_NON_NEG_NUMBER);
+                } else if (timeoutSeconds > TIMEOUT_MAX) {
+                    throw raise(OverflowError, ErrorMessages.TIMEOUT_VALUE_TOO_LARGE);
+                }
+                item = self.poll();
+                if (item == null) {
+                    item = self.poll(AbstractPythonLock.getTimeoutInMillis(timeoutSeconds));
+                }
+            }
+            if (emptyProfile.profile(item == null)) {
+                throw raise(PythonBuiltinClassType.QueueEmpty);
+            }
+            return item;
+        }
+    }
+
+    @Builtin(name = "get_nowait", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class GetNoWaitNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object getNoWait(PSimpleQueue self) {
+            Object item = self.poll();
+            if (item == null) {
+                throw raise(PythonBuiltinClassType.QueueEmpty);
+            }
+            return item;
+        }
+    }
+
+    @Builtin(name = "empty", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class EmptyNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean empty(PSimpleQueue self) {
+            return self.isEmpty();
+        }
+    }
+
+    @Builtin(name = "qsize", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    public abstract static class QSizeNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static int qsize(PSimpleQueue self) {
+            return self.size();
+        }
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.select;
+
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.ValueError;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ENTER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EXIT__;
+
+import java.util.List;
+
+import com.oracle.graal.python.annotations.ArgumentClinic;
+import com.oracle.graal.python.annotations.ArgumentClinic.ClinicConversion;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.modules.PosixModuleBuiltins.FileDescriptorConversionNode;
+import com.oracle.graal.python.builtins.modules.SelectModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.SelectModuleBuiltins.PollTimeoutNode;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
+import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryClinicBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.clinic.ArgumentClinicProvider;
+import com.oracle.graal.python.runtime.PosixSupportLibrary;
+import com.oracle.graal.python.runtime.PosixSupportLibrary.PosixException;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.library.CachedLibrary;
+
+@CoreFunctions(extendClasses = PythonBuiltinClassType.PEpoll)
+public final class EpollBuiltins extends PythonBuiltins {
+
+    // CPython uses FD_SETSIZE - 1 if maxevents is not given
+    private static final int DEFAULT_MAXEVENTS = 1023;
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinBaseNode>> getNodeFactories() {
+        return EpollBuiltinsFactory.getFactories();
+    }
+
+    static int checkOpen(PythonBuiltinBaseNode node, PEpoll self) {
+        if (self.isClosed()) {
+            throw node.raise(ValueError, ErrorMessages.IO_OPERATION_ON_CLOSED_EPOLL);
+        }
+        return self.getEpfd();
+    }
+
+    static void ctl(VirtualFrame frame, PythonBuiltinBaseNode node, PosixSupportLibrary posixLib, PEpoll self, int op, int fd, int events) {
+        int epfd = checkOpen(node, self);
+        try {
+            posixLib.epollCtl(node.getPosixSupport(), epfd, op, fd, events);
+        } catch (PosixException e) {
+            throw node.raiseOSErrorFromPosixException(frame, e);
+        }
+    }
+
+    // CPython's unsigned_int(bitwise=True) converter, which keeps the low 32 bits
+    static int toEventMask(VirtualFrame frame, Object eventmask, PythonObjectLibrary lib) {
+        return (int) lib.asJavaLong(eventmask, frame);
+    }
+
+    @Builtin(name = "close", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class CloseNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PNone close(VirtualFrame frame, PEpoll self,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            if (!self.isClosed()) {
+                int epfd = self.getEpfd();
+                self.setClosed();
+                try {
+                    posixLib.close(getPosixSupport(), epfd);
+                } catch (PosixException e) {
+                    throw raiseOSErrorFromPosixException(frame, e);
+                }
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "closed", minNumOfPositionalArgs = 1, isGetter = true)
+    @GenerateNodeFactory
+    abstract static class ClosedNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        static boolean closed(PEpoll self) {
+            return self.isClosed();
+        }
+    }
+
+    @Builtin(name = "fileno", minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class FilenoNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        int fileno(PEpoll self) {
+            return checkOpen(this, self);
+        }
+    }
+
+    @Builtin(name = "fromfd", minNumOfPositionalArgs = 2, parameterNames = {"$cls", "fd"}, isClassmethod = true)
+    @ArgumentClinic(name = "fd", conversion = ClinicConversion.Int)
+    @GenerateNodeFactory
+    abstract static class FromFdNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return EpollBuiltinsClinicProviders.FromFdNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PEpoll fromfd(Object cls, int fd) {
+            return factory().createEpoll(cls, fd);
+        }
+    }
+
+    @Builtin(name = "register", minNumOfPositionalArgs = 2, parameterNames = {"$self", "fd", "eventmask"})
+    @ArgumentClinic(name = "fd", conversionClass = FileDescriptorConversionNode.class)
+    @GenerateNodeFactory
+    abstract static class RegisterNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return EpollBuiltinsClinicProviders.RegisterNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone registerDefault(VirtualFrame frame, PEpoll self, int fd, @SuppressWarnings("unused") PNone eventmask,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            ctl(frame, this, posixLib, self, PosixSupportLibrary.EPOLL_CTL_ADD, fd, PosixSupportLibrary.EPOLLIN | PosixSupportLibrary.EPOLLPRI | PosixSupportLibrary.EPOLLOUT);
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "!isNoValue(eventmask)", limit = "3")
+        PNone register(VirtualFrame frame, PEpoll self, int fd, Object eventmask,
+                        @CachedLibrary("eventmask") PythonObjectLibrary lib,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            ctl(frame, this, posixLib, self, PosixSupportLibrary.EPOLL_CTL_ADD, fd, toEventMask(frame, eventmask, lib));
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "modify", minNumOfPositionalArgs = 3, parameterNames = {"$self", "fd", "eventmask"})
+    @ArgumentClinic(name = "fd", conversionClass = FileDescriptorConversionNode.class)
+    @GenerateNodeFactory
+    abstract static class ModifyNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return EpollBuiltinsClinicProviders.ModifyNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization(limit = "3")
+        PNone modify(VirtualFrame frame, PEpoll self, int fd, Object eventmask,
+                        @CachedLibrary("eventmask") PythonObjectLibrary lib,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            ctl(frame, this, posixLib, self, PosixSupportLibrary.EPOLL_CTL_MOD, fd, toEventMask(frame, eventmask, lib));
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "unregister", minNumOfPositionalArgs = 2, parameterNames = {"$self", "fd"})
+    @ArgumentClinic(name = "fd", conversionClass = FileDescriptorConversionNode.class)
+    @GenerateNodeFactory
+    abstract static class UnregisterNode extends PythonBinaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return EpollBuiltinsClinicProviders.UnregisterNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PNone unregister(VirtualFrame frame, PEpoll self, int fd,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            ctl(frame, this, posixLib, self, PosixSupportLibrary.EPOLL_CTL_DEL, fd, 0);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "poll", minNumOfPositionalArgs = 1, parameterNames = {"$self", "timeout", "maxevents"})
+    @ArgumentClinic(name = "maxevents", conversion = ClinicConversion.Int, defaultValue = "-1")
+    @GenerateNodeFactory
+    abstract static class PollNode extends PythonTernaryClinicBuiltinNode {
+
+        @Override
+        protected ArgumentClinicProvider getArgumentClinic() {
+            return EpollBuiltinsClinicProviders.PollNodeClinicProviderGen.INSTANCE;
+        }
+
+        @Specialization
+        PList poll(VirtualFrame frame, PEpoll self, Object timeout, int maxevents,
+                        @Cached PollTimeoutNode timeoutNode,
+                        @CachedLibrary("getPosixSupport()") PosixSupportLibrary posixLib) {
+            int epfd = checkOpen(this, self);
+            int timeoutMs = timeoutNode.execute(frame, timeout, SelectModuleBuiltins.SEC_TO_NS);
+            int max = maxevents;
+            if (max == -1) {
+                max = DEFAULT_MAXEVENTS;
+            } else if (max < 1) {
+                throw raise(ValueError, ErrorMessages.MAXEVENTS_MUST_BE_GREATER_THAN_ZERO, maxevents);
+            }
+            int[] fds = new int[max];
+            int[] events = new int[max];
+            int n;
+            try {
+                n = posixLib.epollWait(getPosixSupport(), epfd, fds, events, timeoutMs);
+            } catch (PosixException e) {
+                throw raiseOSErrorFromPosixException(frame, e);
+            }
+            Object[] result = new Object[n];
+            for (int i = 0; i < n; i++) {
+                result[i] = factory().createTuple(new Object[]{fds[i], Integer.toUnsignedLong(events[i])});
+            }
+            return factory().createList(result);
+        }
+    }
+
+    @Builtin(name = __ENTER__, minNumOfPositionalArgs = 1)
+    @GenerateNodeFactory
+    abstract static class EnterNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        PEpoll enter(PEpoll self) {
+            checkOpen(this, self);
+            return self;
+        }
+    }
+
+    @Builtin(name = __EXIT__, minNumOfPositionalArgs = 4)
+    @GenerateNodeFactory
+    abstract static class ExitNode extends PythonBuiltinNode {
+        protected static final String CLOSE = "close";
+
+        @Specialization
+        static Object exit(VirtualFrame frame, PEpoll self, @SuppressWarnings("unused") Object typ, @SuppressWarnings("unused") Object val, @SuppressWarnings("unused") Object tb,
+                        @Cached("create(CLOSE)") LookupAndCallUnaryNode callCloseNode) {
+            return callCloseNode.executeObject(frame, self);
+        }
+    }
+}
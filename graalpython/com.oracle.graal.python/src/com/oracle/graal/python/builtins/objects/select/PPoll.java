@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.select;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.Shape;
+
+/**
+ * A {@code select.poll} object. The registered file descriptors are kept in a map and the arrays
+ * passed to the {@code poll} message are only rebuilt after the registrations change.
+ */
+public final class PPoll extends PythonBuiltinObject {
+    private final LinkedHashMap<Integer, Integer> registered = new LinkedHashMap<>();
+    private int[] fds;
+    private int[] events;
+    private boolean running;
+
+    public PPoll(Object cls, Shape instanceShape) {
+        super(cls, instanceShape);
+    }
+
+    @TruffleBoundary
+    public void register(int fd, int eventMask) {
+        registered.put(fd, eventMask);
+        fds = null;
+    }
+
+    /**
+     * @return {@code false} if the file descriptor is not registered
+     */
+    @TruffleBoundary
+    public boolean modify(int fd, int eventMask) {
+        if (!registered.containsKey(fd)) {
+            return false;
+        }
+        registered.put(fd, eventMask);
+        fds = null;
+        return true;
+    }
+
+    /**
+     * @return {@code false} if the file descriptor is not registered
+     */
+    @TruffleBoundary
+    public boolean unregister(int fd) {
+        if (registered.remove(fd) == null) {
+            return false;
+        }
+        fds = null;
+        return true;
+    }
+
+    public int[] getFds() {
+        if (fds == null) {
+            updateArrays();
+        }
+        return fds;
+    }
+
+    public int[] getEvents() {
+        if (fds == null) {
+            updateArrays();
+        }
+        return events;
+    }
+
+    @TruffleBoundary
+    private void updateArrays() {
+        int[] newFds = new int[registered.size()];
+        int[] newEvents = new int[newFds.length];
+        Iterator<Entry<Integer, Integer>> it = registered.entrySet().iterator();
+        for (int i = 0; i < newFds.length; i++) {
+            Entry<Integer, Integer> entry = it.next();
+            newFds[i] = entry.getKey();
+            newEvents[i] = entry.getValue();
+        }
+        events = newEvents;
+        fds = newFds;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void setRunning(boolean running) {
+        this.running = running;
+    }
+}
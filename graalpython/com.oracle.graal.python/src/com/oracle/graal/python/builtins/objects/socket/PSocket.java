@@ -42,10 +42,17 @@ package com.oracle.graal.python.builtins.objects.socket;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channel;
+import java.nio.channels.NotYetConnectedException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
 import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
 
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
@@ -83,6 +90,20 @@ public class PSocket extends PythonBuiltinObject implements Channel {
 
     public static final int IPPROTO_TCP = 6;
 
+    public static final int MSG_PEEK = 2;
+    public static final int MSG_DONTWAIT = 0x40;
+    public static final int MSG_WAITALL = 0x100;
+
+    /**
+     * The {@code recv} flags this emulation implements, other flags are rejected.
+     */
+    public static final int RECV_FLAGS = MSG_PEEK | MSG_DONTWAIT | MSG_WAITALL;
+
+    /**
+     * Returned by the I/O methods of a socket in non-blocking mode if the operation would block.
+     */
+    public static final int WOULD_BLOCK = -1;
+
     @CompilationFinal private static InetSocketAddress EPHEMERAL_ADDRESS;
 
     private static InetSocketAddress getEphemeralAddress() {
@@ -102,17 +123,33 @@ public class PSocket extends PythonBuiltinObject implements Channel {
     public int serverPort;
     public String serverHost;
 
-    private double timeout;
+    /**
+     * The timeout in seconds, {@code 0.0} for non-blocking mode and negative for blocking mode
+     * without timeout. The channel is only in blocking mode in the latter case, timeouts are
+     * implemented by waiting on {@link #selector}.
+     */
+    private double timeout = -1.0;
 
     private InetSocketAddress address = getEphemeralAddress();
 
     private SocketChannel socket;
 
     private ServerSocketChannel serverSocket;
-    private boolean blocking;
+
+    /**
+     * Opened on the first wait and kept as long as the socket has a timeout, so the channel stays
+     * registered and waiting does not need a new selector or a thread.
+     */
+    private Selector selector;
 
     private HashMap<Object, Object> options;
 
+    /**
+     * Data that was read from the channel by a {@link #MSG_PEEK} receive but not consumed yet, in
+     * read mode. Subsequent receives return it before reading from the channel again.
+     */
+    private ByteBuffer peeked;
+
     public PSocket(Object cls, Shape instanceShape, int family, int type, int proto) {
         super(cls, instanceShape);
         this.family = family;
@@ -186,11 +223,254 @@ public class PSocket extends PythonBuiltinObject implements Channel {
     }
 
     public boolean isBlocking() {
-        return blocking;
+        return timeout != 0.0;
+    }
+
+    private SelectableChannel getChannel() {
+        return socket != null ? socket : serverSocket;
+    }
+
+    /**
+     * Puts the channel into blocking mode if the socket has no timeout and into non-blocking mode
+     * otherwise. Must be called after changing the timeout or setting a new channel.
+     */
+    @TruffleBoundary
+    public void configureChannel() throws IOException {
+        SelectableChannel channel = getChannel();
+        boolean blocking = timeout < 0;
+        if (blocking && selector != null) {
+            // closing the selector deregisters the channel, which is required to make it blocking
+            selector.close();
+            selector = null;
+        }
+        if (channel != null) {
+            channel.configureBlocking(blocking);
+        }
+    }
+
+    private long getDeadline() {
+        return timeout > 0 ? System.nanoTime() + (long) (timeout * 1e9) : 0;
+    }
+
+    /**
+     * Waits until the channel is ready for the given operations.
+     *
+     * @throws SocketTimeoutException if the deadline passed before the channel became ready
+     */
+    private void waitReady(SelectableChannel channel, int ops, long deadline) throws IOException {
+        if (selector == null) {
+            selector = Selector.open();
+        }
+        SelectionKey key = channel.keyFor(selector);
+        if (key == null) {
+            channel.register(selector, ops);
+        } else {
+            key.interestOps(ops);
+        }
+        long remaining = deadline - System.nanoTime();
+        while (remaining > 0) {
+            // Selector.select(0) would wait indefinitely
+            if (selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining))) > 0) {
+                selector.selectedKeys().clear();
+                return;
+            }
+            remaining = deadline - System.nanoTime();
+        }
+        throw new SocketTimeoutException();
+    }
+
+    private SocketChannel getConnectedSocket() {
+        if (socket == null) {
+            throw new NotYetConnectedException();
+        }
+        return socket;
+    }
+
+    /**
+     * Reads into the remaining space of {@code dst} directly, honoring the socket timeout and the
+     * {@link #RECV_FLAGS}. {@link #MSG_PEEK} leaves the data to be returned again by the next
+     * receive, {@link #MSG_WAITALL} keeps reading until {@code dst} is full or the stream ends and
+     * {@link #MSG_DONTWAIT} does not wait for data even if the socket is blocking.
+     *
+     * @return the number of bytes read, {@code 0} at end of stream, or {@link #WOULD_BLOCK}
+     */
+    @TruffleBoundary
+    public int recv(ByteBuffer dst, int flags) throws IOException {
+        assert (flags & ~RECV_FLAGS) == 0;
+        SocketChannel channel = getConnectedSocket();
+        boolean dontWait = (flags & MSG_DONTWAIT) != 0;
+        long deadline = getDeadline();
+        if ((flags & MSG_PEEK) != 0) {
+            return peek(channel, dst, dontWait, deadline);
+        }
+        int total = takePeeked(dst);
+        boolean waitAll = (flags & MSG_WAITALL) != 0;
+        while (dst.hasRemaining() && (total == 0 || waitAll)) {
+            int n = read(channel, dst, dontWait, deadline);
+            if (n == WOULD_BLOCK) {
+                return total > 0 ? total : WOULD_BLOCK;
+            }
+            if (n == 0) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    private int peek(SocketChannel channel, ByteBuffer dst, boolean dontWait, long deadline) throws IOException {
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+        if (peeked == null || !peeked.hasRemaining()) {
+            ByteBuffer buf = ByteBuffer.allocate(dst.remaining());
+            int n = read(channel, buf, dontWait, deadline);
+            if (n <= 0) {
+                return n;
+            }
+            buf.flip();
+            peeked = buf;
+        }
+        ByteBuffer src = peeked.duplicate();
+        int n = Math.min(src.remaining(), dst.remaining());
+        src.limit(src.position() + n);
+        dst.put(src);
+        return n;
+    }
+
+    private int takePeeked(ByteBuffer dst) {
+        if (peeked == null) {
+            return 0;
+        }
+        int n = Math.min(peeked.remaining(), dst.remaining());
+        ByteBuffer src = peeked.duplicate();
+        src.limit(src.position() + n);
+        dst.put(src);
+        peeked.position(peeked.position() + n);
+        if (!peeked.hasRemaining()) {
+            peeked = null;
+        }
+        return n;
+    }
+
+    private int read(SocketChannel channel, ByteBuffer dst, boolean dontWait, long deadline) throws IOException {
+        if (dontWait && channel.isBlocking()) {
+            // a blocking channel without a timeout is never registered with the selector
+            channel.configureBlocking(false);
+            try {
+                return readNonBlocking(channel, dst);
+            } finally {
+                channel.configureBlocking(true);
+            }
+        }
+        while (true) {
+            int n = channel.read(dst);
+            if (n < 0) {
+                return 0;
+            }
+            if (n > 0 || !dst.hasRemaining() || channel.isBlocking()) {
+                return n;
+            }
+            if (dontWait || timeout == 0.0) {
+                return WOULD_BLOCK;
+            }
+            waitReady(channel, SelectionKey.OP_READ, deadline);
+        }
+    }
+
+    private static int readNonBlocking(SocketChannel channel, ByteBuffer dst) throws IOException {
+        int n = channel.read(dst);
+        if (n < 0) {
+            return 0;
+        }
+        return n == 0 && dst.hasRemaining() ? WOULD_BLOCK : n;
+    }
+
+    /**
+     * Writes the remaining bytes of {@code src}, or a part of them, honoring the socket timeout.
+     *
+     * @return the number of bytes written, or {@link #WOULD_BLOCK}
+     */
+    @TruffleBoundary
+    public int send(ByteBuffer src) throws IOException {
+        return send(src, getDeadline());
+    }
+
+    private int send(ByteBuffer src, long deadline) throws IOException {
+        SocketChannel channel = getConnectedSocket();
+        while (true) {
+            int n = channel.write(src);
+            if (n > 0 || !src.hasRemaining() || channel.isBlocking()) {
+                return n;
+            }
+            if (timeout == 0.0) {
+                return WOULD_BLOCK;
+            }
+            waitReady(channel, SelectionKey.OP_WRITE, deadline);
+        }
     }
 
-    public void setBlocking(boolean blocking) {
-        this.blocking = blocking;
+    /**
+     * Writes all remaining bytes of {@code src}. The timeout applies to the whole operation.
+     *
+     * @return {@code true} on success, or {@code false} if a socket in non-blocking mode would
+     *         block; the position of {@code src} tells how much was written in that case
+     */
+    @TruffleBoundary
+    public boolean sendAll(ByteBuffer src) throws IOException {
+        long deadline = getDeadline();
+        while (src.hasRemaining()) {
+            if (send(src, deadline) == WOULD_BLOCK) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Accepts a connection, honoring the socket timeout.
+     *
+     * @return the accepted channel in blocking mode, or {@code null} if a socket in non-blocking
+     *         mode has no pending connection
+     */
+    @TruffleBoundary
+    public SocketChannel accept() throws IOException {
+        ServerSocketChannel channel = serverSocket;
+        long deadline = getDeadline();
+        while (true) {
+            SocketChannel accepted = channel.accept();
+            if (accepted != null || channel.isBlocking() || timeout == 0.0) {
+                return accepted;
+            }
+            waitReady(channel, SelectionKey.OP_ACCEPT, deadline);
+        }
+    }
+
+    /**
+     * Connects a new channel to the given address. With a timeout, the connection is established
+     * in non-blocking mode; otherwise the call blocks until it is established.
+     */
+    @TruffleBoundary
+    public void connect(InetSocketAddress remote) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        try {
+            if (timeout > 0) {
+                channel.configureBlocking(false);
+                long deadline = getDeadline();
+                if (!channel.connect(remote)) {
+                    do {
+                        waitReady(channel, SelectionKey.OP_CONNECT, deadline);
+                    } while (!channel.finishConnect());
+                }
+            } else {
+                channel.connect(remote);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        setSocket(channel);
+        configureChannel();
     }
 
     @TruffleBoundary
@@ -200,6 +480,10 @@ public class PSocket extends PythonBuiltinObject implements Channel {
 
     @TruffleBoundary
     public void close() throws IOException {
+        if (selector != null) {
+            selector.close();
+            selector = null;
+        }
         if (getSocket() != null) {
             getSocket().close();
         } else if (getServerSocket() != null) {
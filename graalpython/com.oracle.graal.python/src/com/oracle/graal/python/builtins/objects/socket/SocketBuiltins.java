@@ -40,22 +40,21 @@
  */
 package com.oracle.graal.python.builtins.objects.socket;
 
-import static com.oracle.graal.python.builtins.PythonBuiltinClassType.BlockingIOError;
 import static com.oracle.graal.python.builtins.PythonBuiltinClassType.OSError;
+import static com.oracle.graal.python.builtins.PythonBuiltinClassType.SocketTimeout;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
-import java.net.SocketException;
+import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
 import java.nio.channels.NotYetConnectedException;
-import java.nio.channels.SelectionKey;
-import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
-import java.util.Arrays;
 import java.util.List;
 
 import com.oracle.graal.python.builtins.Builtin;
@@ -64,32 +63,30 @@ import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PNotImplemented;
-import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
+import com.oracle.graal.python.builtins.objects.bytes.BytesUtils;
 import com.oracle.graal.python.builtins.objects.bytes.PBytes;
-import com.oracle.graal.python.builtins.objects.bytes.PBytesLike;
 import com.oracle.graal.python.builtins.objects.common.SequenceNodes.GetObjectArrayNode;
-import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
 import com.oracle.graal.python.builtins.objects.exception.OSErrorEnum;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
-import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
 import com.oracle.graal.python.builtins.objects.object.PythonObjectLibrary;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.nodes.ErrorMessages;
+import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallTernaryNode;
-import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinBaseNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonQuaternaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
-import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
-import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 
@@ -117,26 +114,40 @@ public class SocketBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class AcceptNode extends PythonUnaryBuiltinNode {
         @Specialization
-        @TruffleBoundary
-        Object accept(PSocket socket) {
+        Object accept(VirtualFrame frame, PSocket socket) {
+            if (socket.getServerSocket() == null) {
+                throw raiseOSError(frame, OSErrorEnum.EINVAL);
+            }
+            SocketChannel acceptSocket;
+            SocketAddress addr;
             try {
-                SocketChannel acceptSocket = socket.getServerSocket().accept();
+                acceptSocket = socket.accept();
                 if (acceptSocket == null) {
-                    throw raise(OSError);
-                }
-                SocketAddress addr = acceptSocket.getLocalAddress();
-                if (!acceptSocket.socket().isBound() || addr == null) {
-                    throw raise(OSError);
+                    throw raiseOSError(frame, OSErrorEnum.EAGAIN);
                 }
-                PSocket newSocket = factory().createSocket(socket.getFamily(), socket.getType(), socket.getProto());
-                int fd = getContext().getResources().openSocket(newSocket);
-                newSocket.setFileno(fd);
-                newSocket.setSocket(acceptSocket);
-                Object[] output = {fd, ((InetSocketAddress) addr).getAddress().getHostAddress()};
-                return factory().createTuple(output);
+                addr = getLocalAddress(acceptSocket);
             } catch (IOException e) {
+                throw raiseSocketError(this, frame, e);
+            }
+            if (addr == null) {
                 throw raise(OSError);
             }
+            PSocket newSocket = factory().createSocket(socket.getFamily(), socket.getType(), socket.getProto());
+            int fd = getContext().getResources().openSocket(newSocket);
+            newSocket.setFileno(fd);
+            newSocket.setSocket(acceptSocket);
+            Object[] output = {fd, getHostAddress(addr)};
+            return factory().createTuple(output);
+        }
+
+        @TruffleBoundary
+        private static SocketAddress getLocalAddress(SocketChannel channel) throws IOException {
+            return channel.socket().isBound() ? channel.getLocalAddress() : null;
+        }
+
+        @TruffleBoundary
+        private static String getHostAddress(SocketAddress addr) {
+            return ((InetSocketAddress) addr).getAddress().getHostAddress();
         }
     }
 
@@ -174,7 +185,7 @@ public class SocketBuiltins extends PythonBuiltins {
                 }
 
                 try {
-                    socket.getSocket().close();
+                    socket.close();
                 } catch (IOException e) {
                     throw raise(OSError, ErrorMessages.BAD_FILE_DESCRIPTOR);
                 }
@@ -184,7 +195,7 @@ public class SocketBuiltins extends PythonBuiltins {
                 }
 
                 try {
-                    socket.getServerSocket().close();
+                    socket.close();
                 } catch (IOException e) {
                     throw raise(OSError, ErrorMessages.BAD_FILE_DESCRIPTOR);
                 }
@@ -199,23 +210,20 @@ public class SocketBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class ConnectNode extends PythonBinaryBuiltinNode {
         @Specialization
-        Object connect(PSocket socket, PTuple address,
+        Object connect(VirtualFrame frame, PSocket socket, PTuple address,
                         @Cached GetObjectArrayNode getObjectArrayNode) {
             Object[] hostAndPort = getObjectArrayNode.execute(address);
             try {
-                doConnect(socket, hostAndPort);
+                socket.connect(createAddress(hostAndPort));
                 return PNone.NONE;
             } catch (IOException e) {
-                throw raise(OSError);
+                throw raiseSocketError(this, frame, e);
             }
         }
 
         @TruffleBoundary
-        private static void doConnect(PSocket socket, Object[] hostAndPort) throws IOException {
-            InetSocketAddress socketAddress = new InetSocketAddress((String) hostAndPort[0], (Integer) hostAndPort[1]);
-            SocketChannel channel = SocketChannel.open();
-            channel.connect(socketAddress);
-            socket.setSocket(channel);
+        private static InetSocketAddress createAddress(Object[] hostAndPort) {
+            return new InetSocketAddress((String) hostAndPort[0], (Integer) hostAndPort[1]);
         }
     }
 
@@ -286,30 +294,10 @@ public class SocketBuiltins extends PythonBuiltins {
     @Builtin(name = "gettimeout", minNumOfPositionalArgs = 1)
     @GenerateNodeFactory
     abstract static class GetTimeoutNode extends PythonUnaryBuiltinNode {
-        @TruffleBoundary
-        private static int getSoTimeout(SocketChannel channel) throws SocketException {
-            return channel.socket().getSoTimeout();
-        }
-
-        @TruffleBoundary
-        private static int getSoTimeout(ServerSocketChannel channel) throws IOException {
-            return channel.socket().getSoTimeout();
-        }
-
         @Specialization
-        Object get(PSocket socket) {
-            try {
-                if (socket.getSocket() != null) {
-                    return getSoTimeout(socket.getSocket());
-                }
-
-                if (socket.getServerSocket() != null) {
-                    return getSoTimeout(socket.getServerSocket());
-                }
-            } catch (IOException e) {
-                throw raise(OSError);
-            }
-            return PNone.NONE;
+        static Object get(PSocket socket) {
+            double timeout = socket.getTimeout();
+            return timeout < 0 ? PNone.NONE : timeout;
         }
     }
 
@@ -329,9 +317,9 @@ public class SocketBuiltins extends PythonBuiltins {
                 // for some reason this only works on the ServerSocket not on the
                 // ServerSocketChannel
                 serverSocketChannel.socket().bind(socketAddress, backlog);
-                serverSocketChannel.configureBlocking(socket.isBlocking());
 
                 socket.setServerSocket(serverSocketChannel);
+                socket.configureChannel();
                 return PNone.NONE;
             } catch (IOException e) {
                 throw raise(OSError);
@@ -350,21 +338,15 @@ public class SocketBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class RecvNode extends PythonTernaryBuiltinNode {
         @Specialization
-        Object recv(PSocket socket, int bufsize, int flags) {
-            return recv(socket, bufsize, PNone.NONE);
-        }
-
-        @Specialization
-        @TruffleBoundary
-        PBytes recv(PSocket socket, int bufsize, PNone flags) {
-            SocketChannel nativeSocket = socket.getSocket();
-            ByteBuffer readBytes = ByteBuffer.allocate(bufsize);
-            try {
-                int length = nativeSocket.read(readBytes);
-                return factory().createBytes(Arrays.copyOfRange(readBytes.array(), 0, length));
-            } catch (IOException | NullPointerException e) {
-                throw raise(OSError);
+        PBytes recv(VirtualFrame frame, PSocket socket, int bufsize, Object flagsObj,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            int flags = getRecvFlags(frame, this, flagsObj, lib);
+            if (bufsize < 0) {
+                throw raise(ValueError, ErrorMessages.NEGATIVE_BUFFERSIZE_IN_S, "recv");
             }
+            byte[] data = new byte[bufsize];
+            int n = doRecv(frame, this, socket, wrap(data, 0, bufsize), flags);
+            return factory().createBytes(data, 0, n);
         }
     }
 
@@ -373,95 +355,91 @@ public class SocketBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class RecvFromNode extends PythonTernaryBuiltinNode {
         @Specialization
-        Object recvFrom(PSocket socket, int bufsize, int flags) {
-            return PNotImplemented.NOT_IMPLEMENTED;
-        }
-
-        @Specialization
-        Object recvFrom(PSocket socket, int bufsize, PNone flags) {
-            return PNotImplemented.NOT_IMPLEMENTED;
+        PTuple recvFrom(VirtualFrame frame, PSocket socket, int bufsize, Object flagsObj,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            int flags = getRecvFlags(frame, this, flagsObj, lib);
+            if (bufsize < 0) {
+                throw raise(ValueError, ErrorMessages.NEGATIVE_BUFFERSIZE_IN_S, "recvfrom");
+            }
+            byte[] data = new byte[bufsize];
+            int n = doRecv(frame, this, socket, wrap(data, 0, bufsize), flags);
+            // like CPython for connected stream sockets, the address is not reported
+            return factory().createTuple(new Object[]{factory().createBytes(data, 0, n), PNone.NONE});
         }
     }
 
-    // recv_into(bufsize[, flags])
-    @Builtin(name = "recv_into", minNumOfPositionalArgs = 1, maxNumOfPositionalArgs = 3, needsFrame = true)
-    @GenerateNodeFactory
-    abstract static class RecvIntoNode extends PythonTernaryBuiltinNode {
-        protected static SequenceStorageNodes.SetItemNode createSetItem() {
-            return SequenceStorageNodes.SetItemNode.create("cannot happen: non-byte store in socket.recv_into");
-        }
-
-        @Specialization
-        Object recvInto(VirtualFrame frame, PSocket socket, PMemoryView buffer, Object flags,
-                        @Cached("createBinaryProfile()") ConditionProfile byteStorage,
-                        @CachedLibrary(limit = "getCallSiteInlineCacheMaxDepth()") PythonObjectLibrary lib,
-                        @Cached("create(__LEN__)") LookupAndCallUnaryNode callLen,
-                        @Cached("create(__SETITEM__)") LookupAndCallTernaryNode setItem) {
-            int bufferLen = lib.asSizeWithState(callLen.executeObject(frame, buffer), PArguments.getThreadState(frame));
-            byte[] targetBuffer = new byte[bufferLen];
-            ByteBuffer byteBuffer = wrap(targetBuffer);
+    abstract static class RecvIntoBaseNode extends PythonQuaternaryBuiltinNode {
+
+        /**
+         * Receives at most {@code nbytes} bytes, or as many as fit if {@code nbytes} is 0, directly
+         * into the memory of {@code buffer}. Only buffers whose memory cannot be accessed directly
+         * are received into a temporary array and copied back.
+         */
+        int recvInto(VirtualFrame frame, PSocket socket, Object buffer, Object nbytesObj, Object flagsObj, String name,
+                        PythonObjectLibrary lib, LookupAndCallTernaryNode setItemNode, ConditionProfile directProfile) {
+            int nbytes = PGuards.isNoValue(nbytesObj) ? 0 : lib.asSizeWithState(nbytesObj, PArguments.getThreadState(frame));
+            int flags = getRecvFlags(frame, this, flagsObj, lib);
+            if (nbytes < 0) {
+                throw raise(ValueError, ErrorMessages.NEGATIVE_BUFFERSIZE_IN_S, name);
+            }
+            ByteBuffer direct = BytesUtils.wrapDirectBuffer(buffer, true);
+            if (directProfile.profile(direct != null)) {
+                return doRecv(frame, this, socket, limit(direct, nbytes), flags);
+            }
+            if (buffer instanceof PBytes) {
+                throw raise(PythonBuiltinClassType.BufferError, ErrorMessages.OBJ_NOT_WRITABLE);
+            }
             int length;
             try {
-                length = fillBuffer(socket, byteBuffer);
-            } catch (NotYetConnectedException e) {
-                throw raiseOSError(frame, OSErrorEnum.ENOTCONN, e);
-            } catch (IOException e) {
-                throw raiseOSError(frame, OSErrorEnum.EBADF, e);
+                length = lib.getBufferLength(buffer);
+            } catch (UnsupportedMessageException e) {
+                throw raise(TypeError, ErrorMessages.BYTESLIKE_OBJ_REQUIRED, buffer);
             }
-            for (int i = 0; i < length; i++) {
-                int b = targetBuffer[i];
-                if (b < 0) {
-                    b += 256;
-                }
-                setItem.execute(frame, buffer, i, (Object) b);
+            if (nbytes > length) {
+                throw raise(ValueError, ErrorMessages.BUFFER_TOO_SMALL_FOR_REQUESTED_BYTES);
             }
-            return length;
+            byte[] data = new byte[nbytes == 0 ? length : nbytes];
+            int n = doRecv(frame, this, socket, wrap(data, 0, data.length), flags);
+            setItemNode.execute(frame, buffer, factory().createIntSlice(0, n, 1), factory().createBytes(data, 0, n));
+            return n;
         }
 
-        @Specialization
-        Object recvInto(VirtualFrame frame, PSocket socket, PByteArray buffer, Object flags,
-                        @Cached("createBinaryProfile()") ConditionProfile byteStorage,
-                        @Cached SequenceStorageNodes.LenNode lenNode,
-                        @Cached("createSetItem()") SequenceStorageNodes.SetItemNode setItem) {
-            SequenceStorage storage = buffer.getSequenceStorage();
-            int bufferLen = lenNode.execute(storage);
-            if (byteStorage.profile(storage instanceof ByteSequenceStorage)) {
-                ByteBuffer byteBuffer = ((ByteSequenceStorage) storage).getBufferView();
-                try {
-                    return fillBuffer(socket, byteBuffer);
-                } catch (NotYetConnectedException e) {
-                    throw raiseOSError(frame, OSErrorEnum.ENOTCONN, e);
-                } catch (IOException e) {
-                    throw raiseOSError(frame, OSErrorEnum.EBADF, e);
-                }
-            } else {
-                byte[] targetBuffer = new byte[bufferLen];
-                ByteBuffer byteBuffer = wrap(targetBuffer);
-                int length;
-                try {
-                    length = fillBuffer(socket, byteBuffer);
-                } catch (NotYetConnectedException e) {
-                    throw raiseOSError(frame, OSErrorEnum.ENOTCONN, e);
-                } catch (IOException e) {
-                    throw raiseOSError(frame, OSErrorEnum.EBADF, e);
-                }
-                for (int i = 0; i < length; i++) {
-                    // we don't allow generalization
-                    setItem.execute(frame, storage, i, targetBuffer[i]);
-                }
-                return length;
+        @TruffleBoundary
+        private ByteBuffer limit(ByteBuffer buf, int nbytes) {
+            if (nbytes > buf.remaining()) {
+                throw raise(ValueError, ErrorMessages.BUFFER_TOO_SMALL_FOR_REQUESTED_BYTES);
             }
+            if (nbytes > 0) {
+                buf.limit(buf.position() + nbytes);
+            }
+            return buf;
         }
+    }
 
-        @TruffleBoundary
-        private static int fillBuffer(PSocket socket, ByteBuffer byteBuffer) throws IOException {
-            SocketChannel nativeSocket = socket.getSocket();
-            return nativeSocket.read(byteBuffer);
+    // recv_into(buffer[, nbytes[, flags]])
+    @Builtin(name = "recv_into", minNumOfPositionalArgs = 2, parameterNames = {"$self", "buffer", "nbytes", "flags"})
+    @GenerateNodeFactory
+    abstract static class RecvIntoNode extends RecvIntoBaseNode {
+        @Specialization
+        int recvInto(VirtualFrame frame, PSocket socket, Object buffer, Object nbytes, Object flags,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached("create(__SETITEM__)") LookupAndCallTernaryNode setItemNode,
+                        @Cached("createBinaryProfile()") ConditionProfile directProfile) {
+            return recvInto(frame, socket, buffer, nbytes, flags, "recv_into", lib, setItemNode, directProfile);
         }
+    }
 
-        @TruffleBoundary
-        private static ByteBuffer wrap(byte[] data) {
-            return ByteBuffer.wrap(data);
+    // recvfrom_into(buffer[, nbytes[, flags]])
+    @Builtin(name = "recvfrom_into", minNumOfPositionalArgs = 2, parameterNames = {"$self", "buffer", "nbytes", "flags"})
+    @GenerateNodeFactory
+    abstract static class RecvFromIntoNode extends RecvIntoBaseNode {
+        @Specialization
+        PTuple recvFromInto(VirtualFrame frame, PSocket socket, Object buffer, Object nbytes, Object flags,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib,
+                        @Cached("create(__SETITEM__)") LookupAndCallTernaryNode setItemNode,
+                        @Cached("createBinaryProfile()") ConditionProfile directProfile) {
+            int n = recvInto(frame, socket, buffer, nbytes, flags, "recvfrom_into", lib, setItemNode, directProfile);
+            return factory().createTuple(new Object[]{n, PNone.NONE});
         }
     }
 
@@ -490,64 +468,95 @@ public class SocketBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class SendNode extends PythonTernaryBuiltinNode {
         @Specialization
-        Object send(VirtualFrame frame, PSocket socket, PBytes bytes, Object flags,
-                        @Cached SequenceStorageNodes.ToByteArrayNode toBytes) {
+        int send(VirtualFrame frame, PSocket socket, Object data, Object flags,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
             // TODO: do not ignore flags
-            if (socket.getSocket() == null) {
-                throw raise(OSError);
-            }
-
-            if (!socket.isOpen()) {
-                throw raise(OSError);
-            }
-
-            // According to 'socketmodule.c', function 'socket_send' tries to select the socket
-            // before it writes to it
-            // regardless whether it is blocking or not.
+            ByteBuffer src = getSource(this, data, lib);
             try {
-                if (SendNode.select(socket.getSocket()) == 0) {
-                    throw raise(BlockingIOError);
+                int n = socket.send(src);
+                if (n == PSocket.WOULD_BLOCK) {
+                    throw raiseOSError(frame, OSErrorEnum.EAGAIN);
                 }
-            } catch (IOException e) {
-                throw raiseOSError(frame, e);
+                return n;
+            } catch (IOException | NotYetConnectedException e) {
+                throw raiseSocketError(this, frame, e);
             }
+        }
+    }
 
+    // sendall(bytes[, flags])
+    @Builtin(name = "sendall", minNumOfPositionalArgs = 2, maxNumOfPositionalArgs = 3)
+    @GenerateNodeFactory
+    abstract static class SendAllNode extends PythonTernaryBuiltinNode {
+        @Specialization
+        Object sendAll(VirtualFrame frame, PSocket socket, Object data, Object flags,
+                        @CachedLibrary(limit = "3") PythonObjectLibrary lib) {
+            // TODO: do not ignore flags
+            ByteBuffer src = getSource(this, data, lib);
             try {
-                doWrite(socket, toBytes.execute(bytes.getSequenceStorage()));
+                if (!socket.sendAll(src)) {
+                    throw raiseOSError(frame, OSErrorEnum.EAGAIN);
+                }
                 return PNone.NONE;
-            } catch (IOException e) {
-                throw raise(OSError);
+            } catch (IOException | NotYetConnectedException e) {
+                throw raiseSocketError(this, frame, e);
             }
         }
+    }
 
-        @TruffleBoundary
-        private static int select(SocketChannel socket) throws IOException {
-            Selector selector = Selector.open();
-            socket.register(selector, SelectionKey.OP_WRITE);
-            return selector.selectNow();
+    /**
+     * Returns the data to send, wrapping the memory of the bytes-like object if possible and
+     * falling back to a copy otherwise.
+     */
+    private static ByteBuffer getSource(PythonBuiltinBaseNode node, Object data, PythonObjectLibrary lib) {
+        ByteBuffer direct = BytesUtils.wrapDirectBuffer(data, false);
+        if (direct != null) {
+            return direct;
+        }
+        try {
+            byte[] bytes = lib.getBufferBytes(data);
+            return wrap(bytes, 0, bytes.length);
+        } catch (UnsupportedMessageException e) {
+            throw node.raise(TypeError, ErrorMessages.BYTESLIKE_OBJ_REQUIRED, data);
         }
     }
 
     @TruffleBoundary
-    private static void doWrite(PSocket socket, byte[] data) throws IOException {
-        socket.getSocket().write(ByteBuffer.wrap(data));
+    private static ByteBuffer wrap(byte[] data, int offset, int length) {
+        return ByteBuffer.wrap(data, offset, length);
     }
 
-    // sendall(bytes[, flags])
-    @Builtin(name = "sendall", minNumOfPositionalArgs = 2, maxNumOfPositionalArgs = 3)
-    @GenerateNodeFactory
-    abstract static class SendAllNode extends PythonTernaryBuiltinNode {
-        @Specialization
-        Object sendAll(VirtualFrame frame, PSocket socket, PBytesLike bytes, Object flags,
-                        @Cached SequenceStorageNodes.ToByteArrayNode toBytes) {
-            // TODO: do not ignore flags
-            try {
-                doWrite(socket, toBytes.execute(bytes.getSequenceStorage()));
-                return PNone.NONE;
-            } catch (IOException e) {
-                throw raise(OSError);
+    /**
+     * Converts the optional {@code flags} argument of the receive methods. Flags that
+     * {@link PSocket#recv(ByteBuffer, int)} does not implement are rejected rather than ignored.
+     */
+    private static int getRecvFlags(VirtualFrame frame, PythonBuiltinBaseNode node, Object flagsObj, PythonObjectLibrary lib) {
+        int flags = PGuards.isNoValue(flagsObj) ? 0 : lib.asSizeWithState(flagsObj, PArguments.getThreadState(frame));
+        if ((flags & ~PSocket.RECV_FLAGS) != 0) {
+            throw node.raiseOSError(frame, OSErrorEnum.EINVAL);
+        }
+        return flags;
+    }
+
+    private static int doRecv(VirtualFrame frame, PythonBuiltinBaseNode node, PSocket socket, ByteBuffer dst, int flags) {
+        try {
+            int n = socket.recv(dst, flags);
+            if (n == PSocket.WOULD_BLOCK) {
+                throw node.raiseOSError(frame, OSErrorEnum.EAGAIN);
             }
+            return n;
+        } catch (IOException | NotYetConnectedException e) {
+            throw raiseSocketError(node, frame, e);
+        }
+    }
+
+    private static PException raiseSocketError(PythonBuiltinBaseNode node, VirtualFrame frame, Exception e) {
+        if (e instanceof SocketTimeoutException) {
+            return node.raise(SocketTimeout, ErrorMessages.TIMED_OUT);
+        } else if (e instanceof NotYetConnectedException) {
+            return node.raiseOSError(frame, OSErrorEnum.ENOTCONN, e);
         }
+        return node.raiseOSError(frame, e);
     }
 
     // sendto(bytes, address)
@@ -580,26 +589,18 @@ public class SocketBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     public abstract static class SetBlockingNode extends PythonBinaryBuiltinNode {
         @Specialization
-        PNone doBoolean(PSocket socket, boolean blocking) {
+        PNone doBoolean(VirtualFrame frame, PSocket socket, boolean blocking) {
             try {
                 SetBlockingNode.setBlocking(socket, blocking);
             } catch (IOException e) {
-                throw raise(OSError);
+                throw raiseOSError(frame, e);
             }
             return PNone.NONE;
         }
 
-        @TruffleBoundary
         public static void setBlocking(PSocket socket, boolean blocking) throws IOException {
-            socket.setBlocking(blocking);
-
-            if (socket.getSocket() != null) {
-                socket.getSocket().configureBlocking(socket.isBlocking());
-            }
-
-            if (socket.getServerSocket() != null) {
-                socket.getServerSocket().configureBlocking(socket.isBlocking());
-            }
+            socket.setTimeout(blocking ? -1.0 : 0.0);
+            socket.configureChannel();
         }
     }
 
@@ -608,27 +609,28 @@ public class SocketBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     abstract static class SetTimeoutNode extends PythonBinaryBuiltinNode {
         @Specialization
-        @TruffleBoundary
-        Object setTimeout(PSocket socket, Integer value) {
-            try {
-                if (socket.getSocket() != null) {
-                    socket.getSocket().socket().setSoTimeout(value);
-                }
+        Object setTimeout(VirtualFrame frame, PSocket socket, PNone none) {
+            return doSetTimeout(frame, socket, -1.0);
+        }
 
-                if (socket.getServerSocket() != null) {
-                    socket.getServerSocket().socket().setSoTimeout(value);
-                }
-            } catch (SocketException e) {
-                throw raise(OSError);
+        @Specialization(guards = "!isPNone(value)", limit = "3")
+        Object setTimeout(VirtualFrame frame, PSocket socket, Object value,
+                        @CachedLibrary("value") PythonObjectLibrary lib) {
+            double timeout = lib.asJavaDoubleWithFrame(value, frame);
+            if (timeout < 0 || Double.isNaN(timeout)) {
+                throw raise(ValueError, ErrorMessages.TIMEOUT_VALUE_OUT_OF_RANGE);
             }
-
-            return PNone.NONE;
+            return doSetTimeout(frame, socket, timeout);
         }
 
-        @Specialization
-        Object setTimeout(PSocket socket, double value) {
-            Integer intValue = (int) value;
-            return setTimeout(socket, intValue);
+        private Object doSetTimeout(VirtualFrame frame, PSocket socket, double timeout) {
+            socket.setTimeout(timeout);
+            try {
+                socket.configureChannel();
+            } catch (IOException e) {
+                throw raiseOSError(frame, e);
+            }
+            return PNone.NONE;
         }
     }
 
@@ -53,7 +53,7 @@ public abstract class AbstractPythonLock extends PythonBuiltinObject {
         super(cls, instanceShape);
     }
 
-    private static long getTimeoutInMillis(double timeout) {
+    public static long getTimeoutInMillis(double timeout) {
         // TODO: look at
         // https://github.com/python/cpython/blob/e42b705188271da108de42b55d9344642170aa2b/Python/pytime.c
         // _PyTime_AsMicroseconds
@@ -1602,6 +1602,7 @@ public abstract class TypeNodes {
                 case PRLock:
                 case PSemLock:
                 case PSocket:
+                case PSimpleQueue:
                 case PStaticmethod:
                 case PClassmethod:
                 case PBuiltinClassMethod:
@@ -1614,6 +1615,13 @@ public abstract class TypeNodes {
                 case ZlibCompress:
                 case ZlibDecompress:
                 case PBufferedReader:
+                case PBufferedWriter:
+                case PBufferedRandom:
+                case PBufferedRWPair:
+                case PBytesIO:
+                case PStringIO:
+                case PTextIOWrapper:
+                case PIncrementalNewlineDecoder:
                 case LsprofProfiler:
                 case PStruct:
                 case PBaseException:
@@ -1662,6 +1670,10 @@ public abstract class TypeNodes {
                 case SocketGAIError:
                 case SocketHError:
                 case SocketTimeout:
+                case PickleError:
+                case PicklingError:
+                case UnpicklingError:
+                case QueueEmpty:
                 case ReferenceError:
                 case RuntimeError:
                 case NotImplementedError:
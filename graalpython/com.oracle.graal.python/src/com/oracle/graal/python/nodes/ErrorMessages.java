@@ -43,6 +43,7 @@ package com.oracle.graal.python.nodes;
 public abstract class ErrorMessages {
 
     public static final String ABSOLUTE_VALUE_TOO_LARGE = "absolute value too large";
+    public static final String ARGUMENTS_MUST_BE_ITERATORS = "Arguments must be iterators.";
     public static final String ARG_AFTER_MUST_BE_ITERABLE = "argument after * must be an iterable, not %p";
     public static final String ARG_AFTER_MUST_BE_MAPPING = "%s() argument after ** must be a mapping, not %p";
     public static final String ARG_CONVERTED_NOT_EXECUTABLE = "argument converted is not executable";
@@ -54,9 +55,17 @@ public abstract class ErrorMessages {
     public static final String ARG_D_MUST_NOT_BE_EMPTY = "arg %d must not be empty";
     public static final String ARG_EXPECTED_GOT = "%s argument expected, got %p";
     public static final String ARG_IS_EMPTY_SEQ = "%s() arg is an empty sequence";
+    public static final String S_ARG_2_MUST_BE_A_SEQUENCE = "%s() arg 2 must be a sequence";
     public static final String ARG_MUST_BE_INT_OR_HAVE_FILENO_METHOD = "argument must be an int, or have a fileno() method.";
     public static final String ARG_MUST_BE_NUMBER = "%s argument must be a number, not '%p'";
     public static final String ARG_MUST_BE_S_NOT_P = "%s argument must be a %s, not %p";
+    public static final String A_NUMBER_IS_REQUIRED = "a number is required";
+    public static final String CANNOT_REENTER_TEE_ITERATOR = "cannot re-enter the tee iterator";
+    public static final String INDICES_FOR_ISLICE = "Indices for islice() must be None or an integer: 0 <= x <= sys.maxsize.";
+    public static final String LEN_OF_UNSIZED_OBJECT = "len() of unsized object";
+    public static final String STATE_IS_NOT_A_TUPLE = "state is not a tuple";
+    public static final String STEP_FOR_ISLICE = "Step for islice() must be a positive integer or None.";
+    public static final String STOP_ARG_FOR_ISLICE = "Stop argument for islice() must be None or an integer: 0 <= x <= sys.maxsize.";
     public static final String S_BRACKETS_ARG_MUST_BE_S_NOT_P = "%s() argument must be a %s, not %p";
     public static final String ARG_MUST_BE_STRING_OR_BYTELIKE_OR_NUMBER = "%s argument must be a string, a bytes-like object or a number, not %p";
     public static final String ARG_MUST_BE_STRING_OR_NUMBER = "%s argument must be a string or a number, not '%p'";
@@ -147,6 +156,7 @@ public abstract class ErrorMessages {
     public static final String CANNOT_INITIALIZE_WITH = "cannot initialize %s with %s%s";
     public static final String CANNOT_LOAD = "cannot load %s: %s";
     public static final String CANNOT_LOAD_M = "cannot load %s: %m";
+    public static final String CANNOT_MMAP_AN_EMPTY_FILE = "cannot mmap an empty file";
     public static final String CANNOT_MMAP_FILE = "cannot mmap file";
     public static final String CANNOT_RELEASE_UNAQUIRED_LOCK = "cannot release un-acquired lock";
     public static final String CANNOT_RESIZE_BUFFER = "cannot resize buffer";
@@ -203,7 +213,13 @@ public abstract class ErrorMessages {
     public static final String COUNT_FUNC_MATH = "count function in Math";
     public static final String COVERAGE_TRACKER_NOT_RUNNING = "coverage tracker not running";
     public static final String CREATING_SOCKETS_NOT_ALLOWED = "creating sockets not allowed";
+    public static final String DATA_OUT_OF_RANGE = "data out of range";
     public static final String DEFAULT_EXCEPT_MUST_BE_LAST = "default 'except:' must be last";
+    public static final String DEQUE_ALREADY_AT_MAX_SIZE = "deque already at its maximum size";
+    public static final String DEQUE_INDEX_OUT_OF_RANGE = "deque index out of range";
+    public static final String DEQUE_MUTATED_DURING_ITERATION = "deque mutated during iteration";
+    public static final String DEQUE_MUTATED_DURING_REMOVE = "deque mutated during remove().";
+    public static final String DEQUE_REMOVE_X_NOT_IN_DEQUE = "deque.remove(x): x not in deque";
     public static final String DESC_S_FOR_S_DOESNT_APPLY_TO_S = "descriptor '%s' for '%s' objects doesn't apply to '%s' object";
     public static final String DESCRIPTOR_REQUIRES_OBJ = "descriptor '%s' requires a '%s' object but received a '%p'";
     public static final String DESCRIPTOR_NEED_OBJ = "descriptor '%s' of '%s' object needs an argument";
@@ -278,6 +294,7 @@ public abstract class ErrorMessages {
     public static final String GOT_UNEXPECTED_KEYWORD_ARG = "%s() got an unexpected keyword argument '%s'";
     public static final String HAS_NO_ATTR = "%s has no attribute %s";
     public static final String HASH_SHOULD_RETURN_INTEGER = "__hash__ method should return an integer";
+    public static final String HEAP_ARGUMENT_MUST_BE_A_LIST = "heap argument must be a list";
     public static final String HEX_VALUE_TOO_LARGE_AS_FLOAT = "hexadecimal value too large to represent as a float";
     public static final String HOST_ACCESS_NOT_ALLOWED = "host access is not allowed";
     public static final String HOST_LOOKUP_NOT_ALLOWED = "host lookup is not allowed";
@@ -369,6 +386,7 @@ public abstract class ErrorMessages {
     public static final String LIST_ASSIGMENT_INDEX_OUT_OF_RANGE = "list assignment index out of range";
     public static final String LIST_INDEX_OUT_OF_RANGE = "list index out of range";
     public static final String LIST_LENGTH_OUT_OF_RANGE = "list length out of range";
+    public static final String LIST_MODIFIED_DURING_SORT = "list modified during sort";
     public static final String LOCAL_VAR_REFERENCED_BEFORE_ASSIGMENT = "local variable '%s' referenced before assignment";
     public static final String LOCALS_MUST_BE_MAPPING = "%s() locals must be a mapping or None, not %p";
     public static final String LOST_SYSBREAKPOINTHOOK = "lost sys.breakpointhook";
@@ -379,6 +397,7 @@ public abstract class ErrorMessages {
     public static final String MATH_RANGE_ERROR = "math range error";
     public static final String MAX_MARSHAL_STACK_DEPTH = "Maximum marshal stack depth";
     public static final String MEM_MAPPED_LENGTH_MUST_BE_POSITIVE = "memory mapped length must be positive";
+    public static final String MEM_MAPPED_OFFSET_MUST_BE_POSITIVE = "memory mapped offset must be positive";
     public static final String MEMORYVIEW_INVALID_SLICE_KEY = "memoryview: invalid slice key";
     public static final String MEMORYVIEW_A_BYTES_LIKE_OBJECT_REQUIRED_NOT_P = "memoryview: a bytes-like object is required, not '%p'";
     public static final String MEMORYVIEW_INVALID_VALUE_FOR_FORMAT_S = "memoryview: invalid value for format '%s'";
@@ -402,6 +421,11 @@ public abstract class ErrorMessages {
     public static final String MISSING_D_REQUIRED_S_ARGUMENT_S_POS = "%s() missing required argument '%s' (pos %d)";
     public static final String MISSING_D_REQUIRED_S_ARGUMENT_S_S = "%s() missing %d required %s argument%s: '%s'";
     public static final String MMAP_INDEX_OUT_OF_RANGE = "mmap index out of range";
+    public static final String MMAP_CANT_MODIFY_READONLY = "mmap can't modify a readonly memory map.";
+    public static final String MMAP_CLOSED_OR_INVALID = "mmap closed or invalid";
+    public static final String MMAP_LENGTH_GREATER_THAN_FILE_SIZE = "mmap length is greater than file size";
+    public static final String MMAP_OFFSET_GREATER_THAN_FILE_SIZE = "mmap offset is greater than file size";
+    public static final String MMAP_SLICE_ASSIGNMENT_WRONG_SIZE = "mmap slice assignment is wrong size";
     public static final String MODULE_HAS_NO_ATTR_S = "module has no attribute '%s'";
     public static final String MODULE_PARTIALLY_INITIALIZED_S_HAS_NO_ATTR_S = "partially initialized module '%s' has no attribute '%s' (most likely due to a circular import)";
     public static final String MODULE_S_HAS_NO_ATTR_S = "module '%s' has no attribute '%s'";
@@ -469,6 +493,7 @@ public abstract class ErrorMessages {
     public static final String OBJ_ISNT_REVERSIBLE = "'%p' object is not reversible";
     public static final String OBJ_NOT_ITERABLE = "'%p' object is not iterable";
     public static final String OBJ_NOT_SUBSCRIPTABLE = "'%p' object is not subscriptable";
+    public static final String OBJ_NOT_WRITABLE = "Object is not writable.";
     public static final String OBJ_OR_KLASS_ARGS_IS_NOT_HOST_OBJ = "the object '%p' or klass '%p' arguments is not a host object";
     public static final String OBJ_P_HAS_NO_ATTR_S = "'%p' object has no attribute '%s'";
     public static final String OBJ_S_HAS_NO_ATTR_S = "'%s' object has no attribute '%s'";
@@ -482,6 +507,7 @@ public abstract class ErrorMessages {
     public static final String POLYGLOT_ACCESS_NOT_ALLOWED = "polyglot access is not allowed";
     public static final String POLYGLOT_EVAL_MUST_PASS_STRINGS = "polyglot.eval must pass strings as either 'path' or a 'string' keyword";
     public static final String POLYGLOT_EVAL_WITH_STRING_MUST_PASS_LANG = "polyglot.eval with a string argument must pass a language or mime-type";
+    public static final String POP_FROM_EMPTY_DEQUE = "pop from an empty deque";
     public static final String POP_FROM_EMPTY_SET = "pop from an emtpy set";
     public static final String POP_INDEX_OUT_OF_RANGE = "pop index out of range";
     public static final String PORT_PROTO_NOT_FOUND = "port/proto not found";
@@ -620,6 +646,7 @@ public abstract class ErrorMessages {
     public static final String WEAK_OBJ_GONE_AWAY = "weak object has gone away";
     public static final String WORK_DIR_NOT_ACCESSIBLE = "working directory %s is not accessible";
     public static final String WRITE_BYTE_OUT_OF_RANGE = "write byte out of range";
+    public static final String X_IS_NOT_IN_DEQUE = "%s is not in deque";
     public static final String X_NOT_IN_LIST = "x not in list";
     public static final String X_NOT_IN_TUPLE = "tuple.index(x): x not in tuple";
     public static final String YOU_MAY_SPECIFY_EITHER_OR_BUT_NOT_BOTH = "%s: you may specify either '%s' or '%s' but not both";
@@ -699,10 +726,197 @@ public abstract class ErrorMessages {
     public static final String IO_CLOSED = "I/O operation on closed file.";
     public static final String MUST_BE_NON_NEG_OR_NEG_1 = "read length must be non-negative or -1";
     public static final String BUF_SIZE_POS = "buffer size must be strictly positive";
+    public static final String FILE_NOT_READABLE = "File or stream is not readable.";
+    public static final String FILE_NOT_WRITABLE = "File or stream is not writable.";
+    public static final String FILE_NOT_SEEKABLE = "File or stream is not seekable.";
+    public static final String WRITE_COULD_NOT_COMPLETE_WITHOUT_BLOCKING = "write could not complete without blocking";
+    public static final String NEGATIVE_SEEK_VALUE_D = "negative seek value %d";
+    public static final String NEGATIVE_SIZE_VALUE_D = "negative size value %d";
+    public static final String INVALID_WHENCE_D = "invalid whence (%d, should be 0, 1 or 2)";
+    public static final String NEW_POSITION_TOO_LARGE = "new position too large";
+    public static final String ILLEGAL_NEWLINE_VALUE_S = "illegal newline value: %s";
+    public static final String NEWLINE_MUST_BE_STR_OR_NONE = "newline must be str or None, not %p";
+    public static final String INITIAL_VALUE_MUST_BE_STR_OR_NONE = "initial_value must be str or None, not %p";
+    public static final String STRING_ARGUMENT_EXPECTED_GOT_P = "string argument expected, got '%p'";
+    public static final String ERRORS_MUST_BE_STR_OR_NONE = "TextIOWrapper() argument 'errors' must be str or None, not %p";
+    public static final String ENCODING_MUST_BE_STR_OR_NONE = "TextIOWrapper() argument 'encoding' must be str or None, not %p";
+    public static final String DETACHED_BUFFER = "underlying buffer has been detached";
+    public static final String NOT_READABLE = "not readable";
+    public static final String NOT_WRITABLE = "not writable";
+    public static final String UNDERLYING_STREAM_IS_NOT_SEEKABLE = "underlying stream is not seekable";
+    public static final String DECODER_SHOULD_RETURN_A_STRING_RESULT_NOT_P = "decoder should return a string result, not '%p'";
+    public static final String ENCODER_SHOULD_RETURN_A_BYTES_OBJECT_NOT_P = "encoder should return a bytes object, not '%p'";
+    public static final String ILLEGAL_DECODER_STATE = "illegal decoder state";
+    public static final String ILLEGAL_DECODER_STATE_THE_FIRST_ITEM_SHOULD_BE_A_BYTES_OBJECT_NOT_P = "illegal decoder state: the first item should be a bytes object, not '%p'";
+    public static final String UNDERLYING_S_SHOULD_HAVE_RETURNED_A_BYTES_LIKE_OBJECT_NOT_P = "underlying %s() should have returned a bytes-like object, not '%p'";
+    public static final String TELLING_POSITION_DISABLED_BY_NEXT_CALL = "telling position disabled by next() call";
+    public static final String CANT_RECONSTRUCT_LOGICAL_FILE_POSITION = "can't reconstruct logical file position";
+    public static final String CANT_RESTORE_LOGICAL_FILE_POSITION = "can't restore logical file position";
+    public static final String CANT_DO_NONZERO_CUR_RELATIVE_SEEKS = "can't do nonzero cur-relative seeks";
+    public static final String CANT_DO_NONZERO_END_RELATIVE_SEEKS = "can't do nonzero end-relative seeks";
+    public static final String NEGATIVE_SEEK_POSITION_S = "negative seek position %s";
+    public static final String IS_NOT_A_TEXT_ENCODING = "'%s' is not a text encoding; use codecs.open() to handle arbitrary codecs";
+    public static final String NOT_POSSIBLE_TO_SET_THE_ENCODING_OR_NEWLINE = "It is not possible to set the encoding or newline of stream after the first read";
+    public static final String A_STRICTLY_POSITIVE_INTEGER_IS_REQUIRED = "a strictly positive integer is required";
+    public static final String NL_DECODER_INIT_NOT_CALLED = "IncrementalNewlineDecoder.__init__() not called";
+
+    // select errors
+    public static final String CONCURRENT_POLL_INVOCATION = "concurrent poll() invocation";
+    public static final String IO_OPERATION_ON_CLOSED_EPOLL = "I/O operation on closed epoll object";
+    public static final String NEGATIVE_SIZEHINT = "negative sizehint";
+    public static final String MAXEVENTS_MUST_BE_GREATER_THAN_ZERO = "maxevents must be greater than 0, got %d";
+    public static final String TIMEOUT_IS_TOO_LARGE = "timeout is too large";
+    public static final String PYTHON_INT_TOO_LARGE_FOR_UNSIGNED_SHORT = "Python int too large for C unsigned short";
+
+    // functools errors
+    public static final String TYPE_PARTIAL_TAKES_AT_LEAST_ONE_ARG = "type 'partial' takes at least one argument";
+    public static final String THE_FIRST_ARG_MUST_BE_CALLABLE = "the first argument must be callable";
+    public static final String ARG_TO_SETSTATE_MUST_BE_TUPLE = "argument to __setstate__ must be a tuple";
+    public static final String EXPECTED_4_ITEMS_IN_STATE = "expected 4 items in state, got %d";
+    public static final String INVALID_PARTIAL_STATE = "invalid partial state";
+    public static final String REDUCE_EMPTY_SEQ = "reduce() of empty sequence with no initial value";
+    public static final String MAXSIZE_SHOULD_BE_INTEGER_OR_NONE = "maxsize should be integer or None";
+
+    // socket errors
+    public static final String TIMED_OUT = "timed out";
+    public static final String TIMEOUT_VALUE_OUT_OF_RANGE = "Timeout value out of range";
+    public static final String NEGATIVE_BUFFERSIZE_IN_S = "negative buffersize in %s";
+    public static final String BUFFER_TOO_SMALL_FOR_REQUESTED_BYTES = "buffer too small for requested bytes";
+
+    // hashlib errors
+    public static final String UNSUPPORTED_HASH_TYPE = "unsupported hash type %s";
+    public static final String UNICODE_OBJECTS_MUST_BE_ENCODED_BEFORE_HASHING = "Unicode-objects must be encoded before hashing";
+    public static final String OBJ_SUPPORTING_BUFFER_API_REQUIRED = "object supporting the buffer API required";
+    public static final String ITERATION_VALUE_MUST_BE_GREATER_THAN_ZERO = "iteration value must be greater than 0.";
+    public static final String KEY_LENGTH_MUST_BE_GREATER_THAN_ZERO = "key length must be greater than 0.";
+
+    // json errors
+    public static final String FIRST_ARG_MUST_BE_STRING_NOT_P = "first argument must be a string, not %p";
+    public static final String IDX_CANNOT_BE_NEGATIVE = "idx cannot be negative";
+    public static final String END_IS_OUT_OF_BOUNDS = "end is out of bounds";
+    public static final String EXPECTING_PROPERTY_NAME = "Expecting property name enclosed in double quotes";
+    public static final String EXPECTING_COLON_DELIMITER = "Expecting ':' delimiter";
+    public static final String EXPECTING_COMMA_DELIMITER = "Expecting ',' delimiter";
+    public static final String INVALID_CONTROL_CHARACTER_AT = "Invalid control character at";
+    public static final String UNTERMINATED_STRING_STARTING_AT = "Unterminated string starting at";
+    public static final String INVALID_ESCAPE = "Invalid \\escape";
+    public static final String INVALID_UXXXX_ESCAPE = "Invalid \\uXXXX escape";
+    public static final String MAKE_ENCODER_ARG_1_MUST_BE_DICT = "make_encoder() argument 1 must be dict or None, not %p";
+    public static final String CIRCULAR_REFERENCE_DETECTED = "Circular reference detected";
+    public static final String OUT_OF_RANGE_FLOAT_NOT_JSON_COMPLIANT = "Out of range float values are not JSON compliant";
+    public static final String KEYS_MUST_BE_STR_INT_ETC = "keys must be str, int, float, bool or None, not %p";
+    public static final String ENCODER_MUST_RETURN_STR = "encoder() must return a string, not %p";
 
     // pickle errors
     public static final String CANNOT_PICKLE_OBJECT = "cannot pickle '%s' object";
     public static final String CANNOT_PICKLE_OBJECT_TYPE = "cannot pickle '%p' object";
+    public static final String PICKLER_INIT_NOT_CALLED = "Pickler.__init__() was not called by %p.__init__()";
+    public static final String UNPICKLER_INIT_NOT_CALLED = "Unpickler.__init__() was not called by %p.__init__()";
+    public static final String PICKLE_PROTOCOL_MUST_BE_LE = "pickle protocol must be <= %d";
+    public static final String FILE_MUST_HAVE_WRITE_ATTR = "file must have a 'write' attribute";
+    public static final String FILE_MUST_HAVE_READ_AND_READLINE_ATTRS = "file must have 'read' and 'readline' attributes";
+    public static final String BUFFER_CALLBACK_NEEDS_PROTOCOL_5 = "buffer_callback needs protocol >= 5";
+    public static final String CANT_PICKLE_P_OBJECT = "can't pickle '%p' object: %s";
+    public static final String CANT_PICKLE_LOCAL_OBJECT = "Can't pickle local object %s";
+    public static final String CANT_GET_LOCAL_ATTRIBUTE = "Can't get local attribute %s on %s";
+    public static final String CANT_GET_ATTRIBUTE = "Can't get attribute %s on %s";
+    public static final String CANT_PICKLE_IMPORT_FAILED = "Can't pickle %s: import of module %s failed";
+    public static final String CANT_PICKLE_ATTRIBUTE_LOOKUP_FAILED = "Can't pickle %s: attribute lookup %s on %s failed";
+    public static final String CANT_PICKLE_NOT_SAME_OBJECT = "Can't pickle %s: it's not the same object as %s.%s";
+    public static final String CANT_PICKLE_EXTENSION_CODE_NOT_INT = "Can't pickle %s: extension code %s isn't an integer";
+    public static final String CANT_PICKLE_EXTENSION_CODE_OUT_OF_RANGE = "Can't pickle %s: extension code %d is out of range";
+    public static final String CANT_PICKLE_MODULE_IDENTIFIER = "can't pickle module identifier '%s' using pickle protocol %d";
+    public static final String CANT_PICKLE_GLOBAL_IDENTIFIER = "can't pickle global identifier '%s' using pickle protocol %d";
+    public static final String PERSISTENT_IDS_MUST_BE_ASCII = "persistent IDs in protocol 0 must be ASCII strings";
+    public static final String FAST_MODE_CYCLIC_OBJECT = "fast mode: can't pickle cyclic objects including object type %p at 0x%x";
+    public static final String REDUCE_MUST_RETURN_STRING_OR_TUPLE = "__reduce__ must return a string or tuple";
+    public static final String REDUCE_TUPLE_MUST_CONTAIN_2_THROUGH_6 = "tuple returned by __reduce__ must contain 2 through 6 elements";
+    public static final String REDUCE_FIRST_ITEM_MUST_BE_CALLABLE = "first item of the tuple returned by __reduce__ must be callable";
+    public static final String REDUCE_SECOND_ITEM_MUST_BE_TUPLE = "second item of the tuple returned by __reduce__ must be a tuple";
+    public static final String REDUCE_FOURTH_ITEM_MUST_BE_ITERATOR = "fourth element of the tuple returned by __reduce__ must be an iterator, not %p";
+    public static final String REDUCE_FIFTH_ITEM_MUST_BE_ITERATOR = "fifth element of the tuple returned by __reduce__ must be an iterator, not %p";
+    public static final String REDUCE_SIXTH_ITEM_MUST_BE_FUNCTION = "sixth element of the tuple returned by __reduce__ must be a function, not %p";
+    public static final String NEWOBJ_EX_ARGS_LENGTH = "length of the NEWOBJ_EX argument tuple must be exactly 3, not %d";
+    public static final String NEWOBJ_EX_FIRST_ITEM_MUST_BE_CLASS = "first item from NEWOBJ_EX argument tuple must be a class, not %p";
+    public static final String NEWOBJ_EX_SECOND_ITEM_MUST_BE_TUPLE = "second item from NEWOBJ_EX argument tuple must be a tuple, not %p";
+    public static final String NEWOBJ_EX_THIRD_ITEM_MUST_BE_DICT = "third item from NEWOBJ_EX argument tuple must be a dict, not %p";
+    public static final String NEWOBJ_ARGLIST_EMPTY = "__newobj__ arglist is empty";
+    public static final String NEWOBJ_ARGS_NOT_A_TYPE = "args[0] from __newobj__ args is not a type";
+    public static final String NEWOBJ_ARGS_WRONG_CLASS = "args[0] from __newobj__ args has the wrong class";
+    public static final String DICT_ITEMS_MUST_RETURN_2_TUPLES = "dict items iterator must return 2-tuples";
+    public static final String PICKLE_BUFFER_NEEDS_PROTOCOL_5 = "PickleBuffer can only pickled with protocol >= 5";
+    public static final String PICKLE_BUFFER_NOT_CONTIGUOUS = "PickleBuffer can not be pickled when pointing to a non-contiguous buffer";
+    public static final String PICKLE_BUFFER_RELEASED = "operation forbidden on released PickleBuffer object";
+    public static final String CANNOT_EXTRACT_RAW_BUFFER = "cannot extract raw buffer from non-contiguous buffer";
+    public static final String RAN_OUT_OF_INPUT = "Ran out of input";
+    public static final String PICKLE_DATA_TRUNCATED = "pickle data was truncated";
+    public static final String UNPICKLING_STACK_UNDERFLOW = "unpickling stack underflow";
+    public static final String UNEXPECTED_MARK_FOUND = "unexpected MARK found";
+    public static final String COULD_NOT_FIND_MARK = "could not find MARK";
+    public static final String INVALID_LOAD_KEY = "invalid load key, '%s'.";
+    public static final String UNSUPPORTED_PICKLE_PROTOCOL = "unsupported pickle protocol: %d";
+    public static final String NEGATIVE_PUT_ARGUMENT = "negative %s argument";
+    public static final String NEGATIVE_BYTE_COUNT = "%s pickle has negative byte count";
+    public static final String EXCEEDS_MAXIMUM_SIZE = "%s exceeds system's maximum size of %d bytes";
+    public static final String STRING_OPCODE_ARGUMENT_MUST_BE_QUOTED = "the STRING opcode argument must be quoted";
+    public static final String ODD_NUMBER_OF_ITEMS_FOR = "odd number of items for %s";
+    public static final String STATE_IS_NOT_A_DICT = "state is not a dictionary";
+    public static final String SLOT_STATE_IS_NOT_A_DICT = "slot state is not a dictionary";
+    public static final String STACK_GLOBAL_REQUIRES_STR = "STACK_GLOBAL requires str";
+    public static final String NEWOBJ_EXPECTED_ARG_TUPLE = "NEWOBJ expected an arg tuple.";
+    public static final String NEWOBJ_CLASS_NOT_A_TYPE = "NEWOBJ class argument isn't a type object";
+    public static final String NEWOBJ_EX_CLASS_MUST_BE_TYPE = "NEWOBJ_EX class argument must be a type, not %p";
+    public static final String NEWOBJ_EX_ARGS_MUST_BE_TUPLE = "NEWOBJ_EX args argument must be a tuple, not %p";
+    public static final String NEWOBJ_EX_KWARGS_MUST_BE_DICT = "NEWOBJ_EX kwargs argument must be a dict, not %p";
+    public static final String EXT_SPECIFIES_CODE_LE_ZERO = "EXT specifies code <= 0";
+    public static final String UNREGISTERED_EXTENSION_CODE = "unregistered extension code %d";
+    public static final String INVERTED_REGISTRY_NOT_2_TUPLE = "_inverted_registry[%d] isn't a 2-tuple of strings";
+    public static final String COMPAT_MAPPING_VALUES_SHOULD_BE_2_TUPLES = "_compat_pickle.%s values should be 2-tuples, not %p";
+    public static final String COMPAT_MAPPING_VALUES_SHOULD_BE_PAIRS_OF_STR = "_compat_pickle.%s values should be pairs of str, not (%p, %p)";
+    public static final String COMPAT_MAPPING_VALUES_SHOULD_BE_STRINGS = "_compat_pickle.%s values should be strings, not %p";
+    public static final String NO_PERSISTENT_LOAD = "A load persistent id instruction was encountered,\nbut no persistent_load function was specified.";
+    public static final String NO_BUFFERS_ARGUMENT = "pickle stream refers to out-of-band data but no *buffers* argument was given";
+    public static final String NOT_ENOUGH_OUT_OF_BAND_BUFFERS = "not enough out-of-band buffers";
+    public static final String COULD_NOT_CONVERT_STRING_TO_INT = "could not convert string to int";
+    public static final String MEMO_KEY_MUST_BE_POSITIVE_INTEGERS = "memo key must be positive integers.";
+    public static final String MEMO_MUST_BE_DICT = "'memo' attribute must be a dict, not %p";
+    public static final String INT_TOO_LARGE_TO_PICKLE = "int too large to pickle";
+    public static final String ARGUMENT_LIST_MUST_BE_TUPLE = "argument list must be a tuple";
+    public static final String S_SHOULD_BE_A_DICT_NOT_P = "%s should be a dict, not %p";
+    public static final String BAD_CHAR_IN_STRUCT_FORMAT = "bad char in struct format";
+    public static final String REPEAT_COUNT_WITHOUT_FMT = "repeat count given without format specifier";
+    public static final String TOTAL_STRUCT_SIZE_TOO_LONG = "total struct size too long";
+    public static final String STRUCT_ARG_MUST_BE_STR_OR_BYTES = "Struct() argument 1 must be a str or bytes object, not %p";
+    public static final String STRUCT_EXPECTED_N_ITEMS = "%s expected %d items for packing (got %d)";
+    public static final String STRUCT_REQUIRED_ARG_NOT_INTEGER = "required argument is not an integer";
+    public static final String STRUCT_REQUIRED_ARG_NOT_FLOAT = "required argument is not a float";
+    public static final String STRUCT_ARGUMENT_OUT_OF_RANGE = "argument out of range";
+    public static final String STRUCT_FORMAT_REQUIRES_RANGE = "'%c' format requires %d <= number <= %d";
+    public static final String STRUCT_FORMAT_REQUIRES_UNSIGNED_RANGE = "'%c' format requires 0 <= number <= %d";
+    public static final String STRUCT_BYTE_FORMAT_RANGE = "byte format requires -128 <= number <= 127";
+    public static final String STRUCT_UBYTE_FORMAT_RANGE = "ubyte format requires 0 <= number <= 255";
+    public static final String STRUCT_SHORT_FORMAT_RANGE = "short format requires (-32768) <= number <= 32767";
+    public static final String STRUCT_USHORT_FORMAT_RANGE = "ushort format requires 0 <= number <= 65535";
+    public static final String STRUCT_CHAR_FORMAT_REQUIRES_BYTES = "char format requires a bytes object of length 1";
+    public static final String STRUCT_ARG_FOR_C_MUST_BE_BYTES = "argument for '%c' must be a bytes object";
+    public static final String FLOAT_TOO_LARGE_TO_PACK_WITH_C_FORMAT = "float too large to pack with %c format";
+    public static final String STRUCT_UNPACK_REQUIRES_N_BYTES = "unpack requires a buffer of %d bytes";
+    public static final String STRUCT_OFFSET_OUT_OF_RANGE = "offset %d out of range for %d-byte buffer";
+    public static final String STRUCT_NO_SPACE_TO_PACK = "no space to pack %d bytes at offset %d";
+    public static final String STRUCT_PACK_INTO_REQUIRES_N_BYTES = "pack_into requires a buffer of at least %d bytes for packing %d bytes at offset %d (actual buffer size is %d)";
+    public static final String STRUCT_UNPACK_FROM_REQUIRES_N_BYTES = "unpack_from requires a buffer of at least %d bytes for unpacking %d bytes at offset %d (actual buffer size is %d)";
+    public static final String STRUCT_ITER_UNPACK_ZERO_LENGTH = "cannot iteratively unpack with a struct of length 0";
+    public static final String STRUCT_ITER_UNPACK_MULTIPLE_OF = "iterative unpacking requires a buffer of a multiple of %d bytes";
+    public static final String ARG_MUST_BE_READ_WRITE_BYTES_LIKE = "argument must be read-write bytes-like object, not %p";
+    public static final String CONTEXTVAR_NAME_MUST_BE_STR = "context variable name must be a str";
+    public static final String CONTEXTVAR_KEY_EXPECTED = "a ContextVar key was expected, got an object of type '%p'";
+    public static final String CANNOT_ENTER_CONTEXT_ALREADY_ENTERED = "cannot enter context: %s is already entered";
+    public static final String TOKENS_ONLY_CREATED_BY_CONTEXTVARS = "Tokens can only be created by ContextVars";
+    public static final String EXPECTED_AN_INSTANCE_OF_TOKEN = "expected an instance of Token, got '%p'";
+    public static final String TOKEN_ALREADY_USED = "%s has already been used once";
+    public static final String TOKEN_CREATED_BY_DIFFERENT_CONTEXTVAR = "%s was created by a different ContextVar";
+    public static final String TOKEN_CREATED_IN_DIFFERENT_CONTEXT = "%s was created in a different Context";
+    public static final String TIMEOUT_MUST_BE_NON_NEG_NUMBER = "'timeout' must be a non-negative number";
 
     public static final String P_RETURNED_NON_P = "%p.%s returned non-%s (type %p). " +
                     "The ability to return an instance of a strict subclass of %s " +
@@ -103,6 +103,7 @@ import com.oracle.graal.python.nodes.subscript.GetItemNode;
 import com.oracle.graal.python.nodes.subscript.SliceLiteralNode;
 import com.oracle.graal.python.parser.ExecutionCellSlots;
 import com.oracle.graal.python.parser.GeneratorInfo;
+import com.oracle.graal.python.util.Supplier;
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.nodes.Node;
@@ -135,6 +136,11 @@ public class NodeFactory {
         return new FunctionRootNode(language, sourceSection, functionName, isGenerator, false, frameDescriptor, body, cellSlots, signature);
     }
 
+    public FunctionRootNode createLazyFunctionRoot(SourceSection sourceSection, String functionName, FrameDescriptor frameDescriptor, Supplier<ExpressionNode> body,
+                    ExecutionCellSlots cellSlots, Signature signature) {
+        return new FunctionRootNode(language, sourceSection, functionName, frameDescriptor, body, cellSlots, signature);
+    }
+
     public ClassBodyRootNode createClassBodyRoot(SourceSection sourceSection, String functionName, FrameDescriptor frameDescriptor, ExpressionNode body, ExecutionCellSlots cellSlots) {
         return new ClassBodyRootNode(language, sourceSection, functionName, frameDescriptor, body, cellSlots);
     }
@@ -122,12 +122,16 @@ public abstract class LookupAttributeInMRONode extends PNodeWithContext {
 
     protected static final int MAX_DICT_TYPES = ReadAttributeFromObjectNode.MAX_DICT_TYPES;
 
-    protected PythonCore getCore() {
+    protected PythonContext getContext() {
         if (contextRef == null) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
             contextRef = lookupContextReference(PythonLanguage.class);
         }
-        return contextRef.get().getCore();
+        return contextRef.get();
+    }
+
+    protected PythonCore getCore() {
+        return getContext().getCore();
     }
 
     public LookupAttributeInMRONode(String key, boolean skipPythonClasses) {
@@ -195,9 +199,8 @@ public abstract class LookupAttributeInMRONode extends PNodeWithContext {
     }
 
     @Specialization(replaces = "lookupPBCTCached")
-    protected Object lookupPBCTGeneric(PythonBuiltinClassType klass,
-                    @Cached ReadAttributeFromDynamicObjectNode readAttrNode) {
-        return findAttr(getCore(), klass, key, readAttrNode);
+    protected Object lookupPBCTGeneric(PythonBuiltinClassType klass) {
+        return getContext().getMethodCache().lookup(getCore().lookupType(klass), key);
     }
 
     static final class AttributeAssumptionPair {
@@ -211,6 +214,10 @@ public abstract class LookupAttributeInMRONode extends PNodeWithContext {
     }
 
     protected AttributeAssumptionPair findAttrAndAssumptionInMRO(Object klass) {
+        return findAttrAndAssumptionInMRO(klass, key, skipPythonClasses, ensureGetMroNode());
+    }
+
+    static AttributeAssumptionPair findAttrAndAssumptionInMRO(Object klass, String key, boolean skipPythonClasses, GetMroStorageNode getMroNode) {
         CompilerAsserts.neverPartOfCompilation();
         // - avoid cases when attributes are stored in a dict containing elements
         // with a potential MRO sideeffect on access.
@@ -228,13 +235,13 @@ public abstract class LookupAttributeInMRONode extends PNodeWithContext {
         if (dict != null && HashingStorageLibrary.getUncached().hasSideEffect(GetDictStorageNode.getUncached().execute(dict))) {
             return null;
         }
-        MroSequenceStorage mro = getMro(klass);
+        MroSequenceStorage mro = getMroNode.execute(klass);
         Assumption attrAssumption = mro.createAttributeInMROFinalAssumption(key);
         for (int i = 0; i < mro.length(); i++) {
             Object clsObj = mro.getItemNormalized(i);
             if (i > 0) {
                 assert clsObj != klass : "MRO chain is incorrect: '" + klass + "' was found at position " + i;
-                getMro(clsObj).addAttributeInMROFinalAssumption(key, attrAssumption);
+                getMroNode.execute(clsObj).addAttributeInMROFinalAssumption(key, attrAssumption);
             }
             if (skipPythonClasses && clsObj instanceof PythonClass) {
                 continue;
@@ -309,10 +316,17 @@ public abstract class LookupAttributeInMRONode extends PNodeWithContext {
         return PNone.NO_VALUE;
     }
 
+    /**
+     * The megamorphic case. Lookups in the MRO go through the context-wide {@link MethodCache},
+     * except for the rare lookups that skip Python classes.
+     */
     @Specialization(replaces = {"lookupConstantMROCached", "lookupConstantMRO", "lookupCachedLen"})
     protected Object lookup(Object klass,
                     @Cached("createForceType()") ReadAttributeFromObjectNode readAttrNode) {
-        return lookupSlow(klass, key, ensureGetMroNode(), readAttrNode, skipPythonClasses);
+        if (skipPythonClasses) {
+            return lookupSlow(klass, key, ensureGetMroNode(), readAttrNode, true);
+        }
+        return getContext().getMethodCache().lookup(klass, key);
     }
 
     protected GetMroStorageNode ensureGetMroNode() {
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.nodes.attributes;
+
+import com.oracle.graal.python.builtins.objects.type.TypeNodes.GetMroStorageNode;
+import com.oracle.graal.python.nodes.attributes.LookupAttributeInMRONode.AttributeAssumptionPair;
+import com.oracle.graal.python.runtime.sequence.storage.MroSequenceStorage;
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A context-wide cache of attribute lookups in the MRO of a class, like the method cache of
+ * CPython's {@code _PyType_Lookup}. It is used by {@link LookupAttributeInMRONode} once a lookup
+ * site has seen too many classes to cache them in the AST.
+ *
+ * The cache is a direct-mapped table indexed by the class and the attribute name. Instead of a
+ * type version tag, each entry holds the attribute-final assumption of its class and name, which
+ * is invalidated when the attribute is changed anywhere in the MRO or when the MRO itself changes.
+ * Entries are immutable, so the table can be read and written by several threads without
+ * synchronization.
+ */
+public final class MethodCache {
+    private static final int SIZE_EXP = 12;
+    private static final int SIZE = 1 << SIZE_EXP;
+    private static final int MASK = SIZE - 1;
+
+    private static final class Entry {
+        final Object klass;
+        final String name;
+        final Object value;
+        final Assumption assumption;
+
+        Entry(Object klass, String name, Object value, Assumption assumption) {
+            this.klass = klass;
+            this.name = name;
+            this.value = value;
+            this.assumption = assumption;
+        }
+    }
+
+    private final Entry[] entries = new Entry[SIZE];
+
+    // not synchronized, these are only statistics
+    private long hits;
+    private long misses;
+
+    private static int index(Object klass, String name) {
+        int h = System.identityHashCode(klass) ^ name.hashCode();
+        return (h ^ (h >>> SIZE_EXP)) & MASK;
+    }
+
+    /**
+     * Looks up {@code name} in the MRO of {@code klass}.
+     *
+     * @return The lookup result, or {@link com.oracle.graal.python.builtins.objects.PNone#NO_VALUE}
+     *         if the name isn't defined on any class in the MRO.
+     */
+    @TruffleBoundary
+    public Object lookup(Object klass, String name) {
+        int idx = index(klass, name);
+        Entry entry = entries[idx];
+        if (entry != null && entry.klass == klass && entry.name.equals(name) && entry.assumption.isValid()) {
+            hits++;
+            return entry.value;
+        }
+        misses++;
+        GetMroStorageNode getMroNode = GetMroStorageNode.getUncached();
+        MroSequenceStorage mro = getMroNode.execute(klass);
+        Assumption assumption = mro.getMethodCacheAssumption(name);
+        Object value;
+        if (assumption != null) {
+            value = LookupAttributeInMRONode.lookupSlow(klass, name, getMroNode, ReadAttributeFromObjectNode.getUncachedForceType(), false);
+        } else {
+            AttributeAssumptionPair pair = LookupAttributeInMRONode.findAttrAndAssumptionInMRO(klass, name, false, getMroNode);
+            if (pair == null) {
+                // the class dict may have side effects on access, so the result cannot be cached
+                return LookupAttributeInMRONode.lookupSlow(klass, name, getMroNode, ReadAttributeFromObjectNode.getUncachedForceType(), false);
+            }
+            assumption = pair.assumption;
+            value = pair.value;
+            mro.setMethodCacheAssumption(name, assumption);
+        }
+        entries[idx] = new Entry(klass, name, value, assumption);
+        return value;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+}
@@ -41,6 +41,11 @@
 package com.oracle.graal.python.nodes.attributes;
 
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.modules.io.PBuffered;
+import com.oracle.graal.python.builtins.modules.io.PBytesIO;
+import com.oracle.graal.python.builtins.modules.io.PRWPair;
+import com.oracle.graal.python.builtins.modules.io.PStringIO;
+import com.oracle.graal.python.builtins.modules.io.PTextIO;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.cext.PythonAbstractNativeObject;
 import com.oracle.graal.python.builtins.objects.cext.capi.CExtNodes.GetTypeMemberNode;
@@ -52,6 +57,8 @@ import com.oracle.graal.python.builtins.objects.common.PHashingCollection;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.exception.PBaseException;
 import com.oracle.graal.python.builtins.objects.function.PFunction;
+import com.oracle.graal.python.builtins.objects.functools.PLruCacheWrapper;
+import com.oracle.graal.python.builtins.objects.functools.PPartial;
 import com.oracle.graal.python.builtins.objects.method.PDecoratedMethod;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
@@ -94,7 +101,7 @@ public abstract class WriteAttributeToObjectNode extends ObjectAttributeNode {
 
     protected static boolean isAttrWritable(IsBuiltinClassProfile exactBuiltinInstanceProfile, PythonObject self, Object key) {
         if (isHiddenKey(key) || self instanceof PythonManagedClass || self instanceof PFunction || self instanceof PDecoratedMethod || self instanceof PythonModule ||
-                        self instanceof PBaseException) {
+                        self instanceof PBaseException || self instanceof PPartial || self instanceof PLruCacheWrapper || isIOObjectWithDict(self)) {
             return true;
         }
         if ((self.getShape().getFlags() & PythonObject.HAS_SLOTS_BUT_NO_DICT_FLAG) != 0) {
@@ -103,6 +110,14 @@ public abstract class WriteAttributeToObjectNode extends ObjectAttributeNode {
         return !exactBuiltinInstanceProfile.profileIsAnyBuiltinObject(self);
     }
 
+    /**
+     * The buffered and text I/O objects have a {@code __dict__} in CPython, e.g. {@code open()}
+     * stores the {@code mode} attribute in it.
+     */
+    private static boolean isIOObjectWithDict(PythonObject self) {
+        return self instanceof PBuffered || self instanceof PRWPair || self instanceof PBytesIO || self instanceof PStringIO || self instanceof PTextIO;
+    }
+
     private static void handlePythonClass(ConditionProfile isClassProfile, PythonObject object, Object key) {
         if (isClassProfile.profile(object instanceof PythonManagedClass)) {
             ((PythonManagedClass) object).invalidateFinalAttribute(key);
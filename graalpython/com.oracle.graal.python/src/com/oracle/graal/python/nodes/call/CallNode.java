@@ -45,6 +45,8 @@ import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.function.PBuiltinFunction;
 import com.oracle.graal.python.builtins.objects.function.PFunction;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.functools.PPartial;
+import com.oracle.graal.python.builtins.objects.functools.PartialNodes.CallPartialNode;
 import com.oracle.graal.python.builtins.objects.method.PBuiltinMethod;
 import com.oracle.graal.python.builtins.objects.method.PMethod;
 import com.oracle.graal.python.nodes.ErrorMessages;
@@ -56,6 +58,7 @@ import com.oracle.graal.python.nodes.argument.CreateArgumentsNode;
 import com.oracle.graal.python.nodes.argument.positional.PositionalArgumentsNode;
 import com.oracle.graal.python.nodes.attributes.LookupInheritedAttributeNode;
 import com.oracle.graal.python.nodes.call.special.CallVarargsMethodNode;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
 import com.oracle.graal.python.nodes.truffle.PythonTypes;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
@@ -111,6 +114,17 @@ public abstract class CallNode extends PNodeWithContext {
         return executeInternal(frame, callableObject, arguments, PKeyword.EMPTY_KEYWORDS);
     }
 
+    /**
+     * Exact {@code functools.partial} objects are unwrapped here, so that the call of the wrapped
+     * function is dispatched from this call site.
+     */
+    @Specialization(guards = "isBuiltinPartial(callable, isPartialProfile)")
+    protected static Object partialCall(VirtualFrame frame, PPartial callable, Object[] arguments, PKeyword[] keywords,
+                    @SuppressWarnings("unused") @Cached IsBuiltinClassProfile isPartialProfile,
+                    @Cached CallPartialNode callPartialNode) {
+        return callPartialNode.execute(frame, callable, arguments, keywords);
+    }
+
     @Specialization(guards = "!isCallable(callableObject) || isClass(callableObject, iLib)", limit = "3")
     protected Object doObjectAndType(VirtualFrame frame, Object callableObject, Object[] arguments, PKeyword[] keywords,
                     @Cached PRaiseNode raise,
@@ -193,14 +207,16 @@ public abstract class CallNode extends PNodeWithContext {
         return dispatch.executeCall(frame, callable, createArgs.execute(callable, arguments, keywords));
     }
 
-    @Specialization(replaces = {"doObjectAndType", "methodCallBuiltinDirect", "methodCallDirect", "builtinMethodCallBuiltinDirectCached",
+    @Specialization(replaces = {"partialCall", "doObjectAndType", "methodCallBuiltinDirect", "methodCallDirect", "builtinMethodCallBuiltinDirectCached",
                     "builtinMethodCallBuiltinDirect", "methodCall", "builtinMethodCall", "functionCall", "builtinFunctionCall"})
     protected Object doGeneric(VirtualFrame frame, Object callableObject, Object[] arguments, PKeyword[] keywords,
                     @Shared("dispatchNode") @Cached CallDispatchNode dispatch,
                     @Shared("argsNode") @Cached CreateArgumentsNode createArgs,
                     @Cached PRaiseNode raise,
                     @Cached LookupInheritedAttributeNode.Dynamic callAttrGetterNode,
-                    @Cached("create()") CallVarargsMethodNode callCallNode) {
+                    @Cached("create()") CallVarargsMethodNode callCallNode,
+                    @Cached IsBuiltinClassProfile isPartialProfile,
+                    @Cached CallPartialNode callPartialNode) {
         if (callableObject instanceof PFunction) {
             return functionCall(frame, (PFunction) callableObject, arguments, keywords, dispatch, createArgs);
         } else if (callableObject instanceof PBuiltinFunction) {
@@ -216,10 +232,16 @@ public abstract class CallNode extends PNodeWithContext {
         } else if (callableObject instanceof PBuiltinMethod) {
             PBuiltinMethod method = (PBuiltinMethod) callableObject;
             return builtinMethodCallBuiltinDirect(frame, method, arguments, keywords, dispatch, createArgs);
+        } else if (isBuiltinPartial(callableObject, isPartialProfile)) {
+            return callPartialNode.execute(frame, (PPartial) callableObject, arguments, keywords);
         }
         return callCall(frame, callableObject, arguments, keywords, raise, callCallNode, callAttrGetterNode.execute(callableObject, SpecialMethodNames.__CALL__));
     }
 
+    protected static boolean isBuiltinPartial(Object callable, IsBuiltinClassProfile profile) {
+        return callable instanceof PPartial && profile.profileObject(callable, PythonBuiltinClassType.PPartial);
+    }
+
     @Override
     public Node copy() {
         if (isAdoptable()) {
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.nodes.expression;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LT__;
+
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.str.StringUtils;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.PNodeWithContext;
+import com.oracle.graal.python.nodes.object.IsBuiltinClassProfile;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+
+/**
+ * Evaluates {@code bool(a < b)} for ordering algorithms like {@code heapq} and {@code bisect}.
+ * Ints, floats and strings are compared directly. Two exact tuples whose first items are such
+ * values and differ are ordered by their first items, which covers the common
+ * {@code (priority, item)} entries without a call to {@code tuple.__lt__}. Everything else goes
+ * through {@link BinaryComparisonNode}.
+ */
+public abstract class LessThanNode extends PNodeWithContext {
+    private static final int UNDECIDED = -1;
+    protected static final PythonBuiltinClassType TUPLE = PythonBuiltinClassType.PTuple;
+
+    public abstract boolean execute(VirtualFrame frame, Object a, Object b);
+
+    @Specialization
+    static boolean doII(int a, int b) {
+        return a < b;
+    }
+
+    @Specialization
+    static boolean doLL(long a, long b) {
+        return a < b;
+    }
+
+    @Specialization
+    static boolean doDD(double a, double b) {
+        return a < b;
+    }
+
+    @Specialization
+    static boolean doSS(String a, String b) {
+        return StringUtils.compareToUnicodeAware(a, b) < 0;
+    }
+
+    @Specialization(guards = {"isTupleProfile.profileObject(a, TUPLE)", "isTupleProfile.profileObject(b, TUPLE)"})
+    static boolean doTuple(VirtualFrame frame, PTuple a, PTuple b,
+                    @Cached IsBuiltinClassProfile isTupleProfile,
+                    @Cached SequenceStorageNodes.GetItemScalarNode getItemNode,
+                    @Shared("ltNode") @Cached("createLt()") BinaryComparisonNode ltNode,
+                    @Shared("castToBoolean") @Cached("createIfTrueNode()") CoerceToBooleanNode castToBooleanNode) {
+        SequenceStorage sa = a.getSequenceStorage();
+        SequenceStorage sb = b.getSequenceStorage();
+        if (sa.length() > 0 && sb.length() > 0) {
+            int result = compareFirstItems(getItemNode.execute(sa, 0), getItemNode.execute(sb, 0));
+            if (result != UNDECIDED) {
+                return result == 1;
+            }
+        }
+        return castToBooleanNode.executeBoolean(frame, ltNode.executeWith(frame, a, b));
+    }
+
+    @Specialization
+    static boolean doGeneric(VirtualFrame frame, Object a, Object b,
+                    @Shared("ltNode") @Cached("createLt()") BinaryComparisonNode ltNode,
+                    @Shared("castToBoolean") @Cached("createIfTrueNode()") CoerceToBooleanNode castToBooleanNode) {
+        return castToBooleanNode.executeBoolean(frame, ltNode.executeWith(frame, a, b));
+    }
+
+    /**
+     * Returns {@code 1} if {@code a < b}, {@code 0} if {@code b < a} and {@link #UNDECIDED} if the
+     * items are equal or not both simple values. Tuple comparison skips equal items, and for these
+     * types {@code ==} and {@code <} agree, except for NaNs, which are left to the generic path.
+     */
+    private static int compareFirstItems(Object a, Object b) {
+        if ((a instanceof Integer || a instanceof Long) && (b instanceof Integer || b instanceof Long)) {
+            long la = ((Number) a).longValue();
+            long lb = ((Number) b).longValue();
+            return la == lb ? UNDECIDED : la < lb ? 1 : 0;
+        } else if (a instanceof Double && b instanceof Double) {
+            double da = (double) a;
+            double db = (double) b;
+            return da == db || Double.isNaN(da) || Double.isNaN(db) ? UNDECIDED : da < db ? 1 : 0;
+        } else if (a instanceof String && b instanceof String) {
+            int cmp = StringUtils.compareToUnicodeAware((String) a, (String) b);
+            return cmp == 0 ? UNDECIDED : cmp < 0 ? 1 : 0;
+        }
+        return UNDECIDED;
+    }
+
+    protected static BinaryComparisonNode createLt() {
+        return BinaryComparisonNode.create(__LT__, __GT__, "<");
+    }
+
+    protected static CoerceToBooleanNode createIfTrueNode() {
+        return CoerceToBooleanNode.createIfTrueNode();
+    }
+
+    public static LessThanNode create() {
+        return LessThanNodeGen.create();
+    }
+}
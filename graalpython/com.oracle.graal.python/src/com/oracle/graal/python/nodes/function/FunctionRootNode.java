@@ -36,9 +36,11 @@ import com.oracle.graal.python.parser.ExecutionCellSlots;
 import com.oracle.graal.python.runtime.ExecutionContext.CalleeContext;
 import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.util.Function;
+import com.oracle.graal.python.util.Supplier;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.TruffleLanguage.ContextReference;
 import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.frame.FrameDescriptor;
@@ -66,7 +68,12 @@ public class FunctionRootNode extends PClosureFunctionRootNode {
     @Child private ExpressionNode body;
     @Child private CalleeContext calleeContext = CalleeContext.create();
 
-    private final ExpressionNode uninitializedBody;
+    private ExpressionNode uninitializedBody;
+    /**
+     * Translates the body on first use if it was not created eagerly by the parser. Non-null
+     * exactly as long as {@link #uninitializedBody} is {@code null}.
+     */
+    private volatile Supplier<ExpressionNode> lazyBody;
     private boolean isPythonInternal;
 
     public FunctionRootNode(PythonLanguage language, SourceSection sourceSection, String functionName, boolean isGenerator, boolean isRewritten, FrameDescriptor frameDescriptor,
@@ -85,6 +92,23 @@ public class FunctionRootNode extends PClosureFunctionRootNode {
         this.isPythonInternal = isRewritten;
     }
 
+    /**
+     * Creates a function root whose body is only translated when the function is executed or
+     * inspected for the first time.
+     */
+    public FunctionRootNode(PythonLanguage language, SourceSection sourceSection, String functionName, FrameDescriptor frameDescriptor, Supplier<ExpressionNode> lazyBody,
+                    ExecutionCellSlots executionCellSlots, Signature signature) {
+        super(language, frameDescriptor, executionCellSlots, signature);
+        this.executionCellSlots = executionCellSlots;
+
+        this.sourceSection = sourceSection;
+        assert sourceSection != null;
+        this.functionName = functionName;
+        this.isGenerator = false;
+        this.generatorFrameProfile = null;
+        this.lazyBody = lazyBody;
+    }
+
     /**
      * Creates a shallow copy.
      */
@@ -97,7 +121,7 @@ public class FunctionRootNode extends PClosureFunctionRootNode {
         this.isGenerator = other.isGenerator;
         this.generatorFrameProfile = other.isGenerator ? ValueProfile.createClassProfile() : null;
         this.isPythonInternal = other.isPythonInternal;
-        this.uninitializedBody = other.uninitializedBody;
+        this.uninitializedBody = other.getUninitializedBody();
     }
 
     @Override
@@ -107,7 +131,7 @@ public class FunctionRootNode extends PClosureFunctionRootNode {
 
     @Override
     protected RootNode cloneUninitialized() {
-        return new FunctionRootNode(PythonLanguage.getCurrent(), getSourceSection(), functionName, isGenerator, isPythonInternal, getFrameDescriptor(), uninitializedBody, executionCellSlots,
+        return new FunctionRootNode(PythonLanguage.getCurrent(), getSourceSection(), functionName, isGenerator, isPythonInternal, getFrameDescriptor(), getUninitializedBody(), executionCellSlots,
                         getSignature());
     }
 
@@ -116,12 +140,35 @@ public class FunctionRootNode extends PClosureFunctionRootNode {
      * the given node visitor.
      */
     public FunctionRootNode rewriteWithNewSignature(Signature newSignature, NodeVisitor nodeVisitor, Function<ExpressionNode, ExpressionNode> bodyFun) {
-        ExpressionNode newUninitializedBody = bodyFun.apply(NodeUtil.cloneNode(uninitializedBody));
+        ExpressionNode newUninitializedBody = bodyFun.apply(NodeUtil.cloneNode(getUninitializedBody()));
         newUninitializedBody.accept(nodeVisitor);
         return new FunctionRootNode(PythonLanguage.getCurrent(), getSourceSection(), functionName, isGenerator, true, getFrameDescriptor(), newUninitializedBody, executionCellSlots,
                         newSignature);
     }
 
+    private ExpressionNode getUninitializedBody() {
+        materializeBody();
+        return uninitializedBody;
+    }
+
+    /**
+     * Makes sure the body of this function has been translated. Must be called before walking the
+     * node tree of a function that may not have been executed yet.
+     */
+    @TruffleBoundary
+    public void materializeBody() {
+        if (lazyBody != null) {
+            synchronized (this) {
+                if (lazyBody != null) {
+                    uninitializedBody = lazyBody.get();
+                    body = insert(new InnerRootNode(this, NodeUtil.cloneNode(uninitializedBody)));
+                    notifyInserted(body);
+                    lazyBody = null;
+                }
+            }
+        }
+    }
+
     public boolean isLambda() {
         return functionName.equals(BuiltinNames.LAMBDA_NAME);
     }
@@ -171,6 +218,10 @@ public class FunctionRootNode extends PClosureFunctionRootNode {
 
     @Override
     public Object execute(VirtualFrame frame) {
+        if (body == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            materializeBody();
+        }
         calleeContext.enter(frame);
         if (CompilerDirectives.inInterpreter() || CompilerDirectives.inCompilationRoot()) {
             if (contextRef == null) {
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.PythonBuiltinClassType;
+import com.oracle.graal.python.runtime.PythonParser.ErrorType;
+import com.oracle.graal.python.runtime.PythonParser.ParserErrorCallback;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.source.SourceSection;
+
+/**
+ * Raises errors through another {@link ParserErrorCallback}, but records warnings instead of
+ * issuing them. The recorded warnings can be issued later with {@link #replay}, for example on a
+ * different thread than the one that parsed, or dropped if the parse result is not used.
+ */
+public final class DeferredWarningsCallback implements ParserErrorCallback {
+    private final ParserErrorCallback delegate;
+    private final List<Warning> warnings = new ArrayList<>();
+
+    private static final class Warning {
+        final PythonBuiltinClassType type;
+        final String format;
+        final Object[] args;
+
+        Warning(PythonBuiltinClassType type, String format, Object[] args) {
+            this.type = type;
+            this.format = format;
+            this.args = args;
+        }
+    }
+
+    public DeferredWarningsCallback(ParserErrorCallback delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public RuntimeException raise(PythonBuiltinClassType type, String message, Object... args) {
+        return delegate.raise(type, message, args);
+    }
+
+    @Override
+    public RuntimeException raiseInvalidSyntax(ErrorType type, Source source, SourceSection section, String message, Object... arguments) {
+        return delegate.raiseInvalidSyntax(type, source, section, message, arguments);
+    }
+
+    @Override
+    public RuntimeException raiseInvalidSyntax(ErrorType type, Node location, String message, Object... arguments) {
+        return delegate.raiseInvalidSyntax(type, location, message, arguments);
+    }
+
+    @Override
+    public void warn(PythonBuiltinClassType type, String format, Object... args) {
+        warnings.add(new Warning(type, format, args));
+    }
+
+    @Override
+    public PythonLanguage getLanguage() {
+        return delegate.getLanguage();
+    }
+
+    /**
+     * Issues the recorded warnings through {@code target} in the order they were recorded.
+     */
+    public void replay(ParserErrorCallback target) {
+        for (Warning warning : warnings) {
+            target.warn(warning.type, warning.format, warning.args);
+        }
+    }
+}
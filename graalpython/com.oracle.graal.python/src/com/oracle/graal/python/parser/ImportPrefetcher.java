@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.parser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.objects.PythonAbstractObjectFactory.PInteropGetAttributeNodeGen;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
+import com.oracle.graal.python.nodes.util.CannotCastException;
+import com.oracle.graal.python.nodes.util.CastToJavaStringNode;
+import com.oracle.graal.python.parser.PythonParserImpl.CacheItem;
+import com.oracle.graal.python.parser.sst.SSTNode;
+import com.oracle.graal.python.parser.sst.SSTNodeUtils;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.util.PythonUtils;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.TruffleLogger;
+import com.oracle.truffle.api.source.Source;
+
+/**
+ * Parses the modules imported by the top-level statements of a module on a pool of background
+ * threads while the importing module is still running. The import system picks the result up in
+ * {@code compile}, where it is only used if the source text is exactly the one that was parsed.
+ */
+public final class ImportPrefetcher {
+    private static final TruffleLogger LOGGER = PythonLanguage.getLogger(ImportPrefetcher.class);
+
+    private final PythonContext context;
+    private final PythonParserImpl parser;
+    private final ThreadPoolExecutor executor;
+    private final String cacheTag;
+    private final Set<String> submitted = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, Future<Prefetched>> modules = new ConcurrentHashMap<>();
+    private final AtomicInteger usedCount = new AtomicInteger();
+
+    private static final class Prefetched {
+        final String code;
+        final CacheItem parserResult;
+        final RootCallTarget callTarget;
+        final DeferredWarningsCallback warnings;
+
+        Prefetched(String code, CacheItem parserResult, RootCallTarget callTarget, DeferredWarningsCallback warnings) {
+            this.code = code;
+            this.parserResult = parserResult;
+            this.callTarget = callTarget;
+            this.warnings = warnings;
+        }
+    }
+
+    /**
+     * The module search path and the already imported modules at the time the first module of a
+     * chain of prefetches was parsed. The worker threads must not read {@code sys} themselves.
+     */
+    private static final class SearchState {
+        final String[] path;
+        final Set<String> importedModules;
+
+        SearchState(String[] path, Set<String> importedModules) {
+            this.path = path;
+            this.importedModules = importedModules;
+        }
+    }
+
+    public ImportPrefetcher(PythonContext context, PythonParserImpl parser, int numberOfThreads) {
+        this.context = context;
+        this.parser = parser;
+        Env env = context.getEnv();
+        this.executor = new ThreadPoolExecutor(numberOfThreads, numberOfThreads, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                        r -> env.createThread(r, env.getContext(), context.getThreadGroup()));
+        this.executor.allowCoreThreadTimeOut(true);
+        PythonModule sys = context.getCore().lookupBuiltinModule("sys");
+        Object implementation = ReadAttributeFromObjectNode.getUncached().execute(sys, "implementation");
+        this.cacheTag = (String) PInteropGetAttributeNodeGen.getUncached().execute(implementation, "cache_tag");
+    }
+
+    /**
+     * Schedules the modules imported at the top level of the given module for parsing. Must be
+     * called on a thread that may access {@code sys}.
+     */
+    @TruffleBoundary
+    public void prefetchImports(SSTNode module) {
+        List<String> names = new ArrayList<>();
+        SSTNodeUtils.findTopLevelImports(module, names);
+        if (!names.isEmpty()) {
+            prefetch(names, new SearchState(getSearchPath(), getImportedModules()));
+        }
+    }
+
+    /**
+     * Returns the code of the module in {@code filename} if it was prefetched from the same source
+     * text. Waits for a parse that is already running, but parsing that did not start yet is
+     * cancelled, because the caller can do it just as fast. The warnings of the parser are issued
+     * now, on the importing thread.
+     */
+    @TruffleBoundary
+    public RootCallTarget take(String filename, String code) {
+        // the module may be reloaded later, so it should be prefetched again
+        submitted.remove(filename);
+        Future<Prefetched> future = modules.remove(filename);
+        if (future == null || (!future.isDone() && future.cancel(false))) {
+            return null;
+        }
+        Prefetched prefetched;
+        try {
+            prefetched = future.get();
+        } catch (ExecutionException | CancellationException e) {
+            // the caller will parse again and report the error, if any
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        if (!prefetched.code.equals(code)) {
+            return null;
+        }
+        parser.rememberParserResult(prefetched.parserResult);
+        prefetched.warnings.replay(context.getCore());
+        LOGGER.log(Level.FINE, () -> "Using prefetched code for " + filename);
+        usedCount.incrementAndGet();
+        return prefetched.callTarget;
+    }
+
+    /**
+     * Returns how many prefetched modules were returned by {@link #take}.
+     */
+    public int getUsedCount() {
+        return usedCount.get();
+    }
+
+    @TruffleBoundary
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        modules.clear();
+    }
+
+    private void prefetch(List<String> names, SearchState state) {
+        for (String name : names) {
+            // importing a submodule imports its parent packages as well
+            int dot = -1;
+            do {
+                dot = name.indexOf('.', dot + 1);
+                String moduleName = dot < 0 ? name : name.substring(0, dot);
+                if (state.importedModules.contains(moduleName) || context.getCore().lookupBuiltinModule(moduleName) != null) {
+                    continue;
+                }
+                String path = findSourceFile(moduleName, state.path);
+                if (path != null && submitted.add(path) && !hasCompiledCode(path)) {
+                    try {
+                        modules.put(path, executor.submit(() -> parse(path, state)));
+                    } catch (RejectedExecutionException e) {
+                        // the context is being finalized
+                        return;
+                    }
+                }
+            } while (dot >= 0);
+        }
+    }
+
+    private Prefetched parse(String path, SearchState state) throws IOException {
+        Env env = context.getEnv();
+        // decode like importlib.util.decode_source does
+        String code = new String(env.getPublicTruffleFile(path).readAllBytes(), StandardCharsets.UTF_8);
+        code = code.replace("\r\n", "\n").replace('\r', '\n');
+        if (!code.endsWith("\n")) {
+            // like compile in 'exec' mode
+            code += '\n';
+        }
+        Source source = PythonLanguage.newSource(context, code, path, true);
+        // warnings must be issued on the importing thread, and only if the result is used
+        DeferredWarningsCallback warnings = new DeferredWarningsCallback(context.getCore());
+        CacheItem parserResult = parser.parseModuleInBackground(warnings, source);
+        List<String> names = new ArrayList<>();
+        SSTNodeUtils.findTopLevelImports(parserResult.getAntlrResult(), names);
+        prefetch(names, state);
+        RootCallTarget callTarget = PythonUtils.getOrCreateCallTarget(parser.translateModule(warnings, parserResult));
+        return new Prefetched(code, parserResult, callTarget, warnings);
+    }
+
+    /**
+     * Finds the file that the path based finder of importlib would load for a module and returns it
+     * as the path string that importlib passes to {@code compile}.
+     */
+    private String findSourceFile(String moduleName, String[] searchPath) {
+        Env env = context.getEnv();
+        String sep = env.getFileNameSeparator();
+        String relative = moduleName.replace(".", sep);
+        for (String entry : searchPath) {
+            String base = entry;
+            while (base.endsWith(sep)) {
+                base = base.substring(0, base.length() - 1);
+            }
+            if (base.isEmpty()) {
+                continue;
+            }
+            String packageInit = base + sep + relative + sep + "__init__" + PythonLanguage.EXTENSION;
+            String module = base + sep + relative + PythonLanguage.EXTENSION;
+            try {
+                if (env.getPublicTruffleFile(packageInit).isRegularFile()) {
+                    return packageInit;
+                }
+                if (env.getPublicTruffleFile(module).isRegularFile()) {
+                    return module;
+                }
+                if (env.getPublicTruffleFile(base + sep + relative).isDirectory()) {
+                    // a namespace package or one with a compiled __init__, which we do not load
+                    return null;
+                }
+            } catch (SecurityException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * importlib loads an up-to-date {@code .pyc} file instead of compiling the source, so parsing it
+     * in advance would be wasted.
+     */
+    private boolean hasCompiledCode(String path) {
+        try {
+            TruffleFile sourceFile = context.getEnv().getPublicTruffleFile(path);
+            String name = sourceFile.getName();
+            String stem = name.substring(0, name.length() - PythonLanguage.EXTENSION.length());
+            TruffleFile compiledFile = sourceFile.getParent().resolve("__pycache__").resolve(stem + "." + cacheTag + ".pyc");
+            return compiledFile.isRegularFile() && compiledFile.getLastModifiedTime().compareTo(sourceFile.getLastModifiedTime()) >= 0;
+        } catch (IOException | SecurityException e) {
+            return false;
+        }
+    }
+
+    private String[] getSearchPath() {
+        PythonModule sys = context.getCore().lookupBuiltinModule("sys");
+        Object path = sys.getAttribute("path");
+        if (!(path instanceof PList)) {
+            return PythonUtils.EMPTY_STRING_ARRAY;
+        }
+        SequenceStorage storage = ((PList) path).getSequenceStorage();
+        List<String> entries = new ArrayList<>(storage.length());
+        for (int i = 0; i < storage.length(); i++) {
+            try {
+                entries.add(CastToJavaStringNode.getUncached().execute(storage.getItemNormalized(i)));
+            } catch (CannotCastException e) {
+                // importlib ignores entries that are not strings as well
+            }
+        }
+        return entries.toArray(PythonUtils.EMPTY_STRING_ARRAY);
+    }
+
+    private Set<String> getImportedModules() {
+        Set<String> result = new HashSet<>();
+        HashingStorage storage = context.getSysModules().getDictStorage();
+        for (Object key : HashingStorageLibrary.getUncached().keys(storage)) {
+            try {
+                result.add(CastToJavaStringNode.getUncached().execute(key));
+            } catch (CannotCastException e) {
+                // not a module name
+            }
+        }
+        return result;
+    }
+}
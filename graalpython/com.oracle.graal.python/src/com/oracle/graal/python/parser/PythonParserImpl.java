@@ -30,12 +30,15 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.atn.PredictionMode;
 import org.graalvm.nativeimage.ImageInfo;
 
 import com.oracle.graal.python.PythonFileDetector;
@@ -59,13 +62,16 @@ import com.oracle.graal.python.parser.sst.SSTSerializerVisitor;
 import com.oracle.graal.python.parser.sst.SerializationUtils;
 import com.oracle.graal.python.parser.sst.StringUtils;
 import com.oracle.graal.python.runtime.PythonCodeSerializer;
+import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.PythonParser;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
 import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.TruffleLogger;
 import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.interop.ExceptionType;
@@ -77,9 +83,13 @@ import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.source.SourceSection;
 
 public final class PythonParserImpl implements PythonParser, PythonCodeSerializer, FStringExprParser {
+    private static final TruffleLogger LOGGER = PythonLanguage.getLogger(PythonParserImpl.class);
 
     private final boolean logFiles;
     private final int timeStatistics;
+    private final FunctionBodyStatistics lazyFunctionBodies;
+    private final boolean sllPrediction;
+    private final AtomicLong llReparses = new AtomicLong();
     private long timeInParser = 0;
     private long numberOfFiles = 0;
     private static final boolean IN_IMAGE_BUILD_TIME = ImageInfo.inImageBuildtimeCode();
@@ -91,6 +101,8 @@ public final class PythonParserImpl implements PythonParser, PythonCodeSerialize
     public PythonParserImpl(Env env) {
         this.logFiles = env.getOptions().get(PythonOptions.ParserLogFiles);
         this.timeStatistics = env.getOptions().get(PythonOptions.ParserStatistics);
+        this.lazyFunctionBodies = env.getOptions().get(PythonOptions.LazyFunctionBodies) ? new FunctionBodyStatistics() : null;
+        this.sllPrediction = env.getOptions().get(PythonOptions.ParserSLLPrediction);
     }
 
     private static Python3Parser getPython3Parser(String sourceText) {
@@ -105,6 +117,18 @@ public final class PythonParserImpl implements PythonParser, PythonCodeSerialize
         return parser;
     }
 
+    private static Python3Parser getSLLPython3Parser(String sourceText) {
+        Python3Lexer lexer = new Python3Lexer(CharStreams.fromString(sourceText));
+        lexer.removeErrorListeners();
+        lexer.addErrorListener(ERROR_LISTENER);
+        Python3Parser parser = new Python3Parser(new CommonTokenStream(lexer));
+        parser.setBuildParseTree(false);
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        return parser;
+    }
+
     @Override
     public SSTNode parseExpression(String text, PythonSSTNodeFactory nodeFactory) {
         Source source = Source.newBuilder(PythonLanguage.ID, text, "<fstring-expr>").build();
@@ -285,6 +309,12 @@ public final class PythonParserImpl implements PythonParser, PythonCodeSerialize
                 numberOfFiles++;
                 if (numberOfFiles % timeStatistics == 0) {
                     System.out.println("Parsed " + numberOfFiles + " in " + timeInParser + "ms.");
+                    if (sllPrediction) {
+                        System.out.println("Parsed again in LL mode: " + llReparses.get());
+                    }
+                    if (lazyFunctionBodies != null) {
+                        System.out.println(lazyFunctionBodies);
+                    }
                 }
             }
         }
@@ -292,6 +322,11 @@ public final class PythonParserImpl implements PythonParser, PythonCodeSerialize
     }
 
     public CacheItem parseWithANTLR(ParserMode mode, ParserErrorCallback errors, PythonSSTNodeFactory sstFactory, Source source, Frame currentFrame, String[] argumentNames) {
+        return parseWithANTLR(mode, errors, sstFactory, source, currentFrame, argumentNames, !IN_IMAGE_BUILD_TIME);
+    }
+
+    private CacheItem parseWithANTLR(ParserMode mode, ParserErrorCallback errors, PythonSSTNodeFactory sstFactory, Source source, Frame currentFrame, String[] argumentNames,
+                    boolean rememberResult) {
         FrameDescriptor inlineLocals = mode == ParserMode.InlineEvaluation ? currentFrame.getFrameDescriptor() : null;
         String sourceText = source.getCharacters().toString();
         // Preprocessing
@@ -317,55 +352,56 @@ public final class PythonParserImpl implements PythonParser, PythonCodeSerialize
             throw errors.raiseInvalidSyntax(ErrorType.Indentation, source, source.createSection(0, matcher.end(1)), "unexpected indent");
         }
         // ANTLR parsing
-        Python3Parser parser = getPython3Parser(sourceText);
-        parser.setFactory(sstFactory);
-        parser.setParserMode(mode);
         SSTNode parserSSTResult = null;
-
-        try {
-            switch (mode) {
-                case Eval:
-                case FStringExpression:
-                    parserSSTResult = parser.eval_input().result;
-                    break;
-                case File:
-                    parserSSTResult = parser.file_input().result;
-                    break;
-                case InteractiveStatement:
-                case InlineEvaluation:
-                case Statement:
-                    parserSSTResult = parser.single_input(source.isInteractive(), inlineLocals).result;
-                    break;
-                case WithArguments:
-                    // at the first, create global scope
-                    ScopeInfo globalScope = sstFactory.getScopeEnvironment().pushScope("module", ScopeInfo.ScopeKind.Module, currentFrame == null ? null : currentFrame.getFrameDescriptor());
-                    // we expect that the source is the body of the result function
-                    parserSSTResult = parser.withArguments_input(false, new FrameDescriptor()).result;
-                    // wrap the result with function definition
-                    ScopeInfo functionScope = globalScope.getFirstChildScope();
-                    parserSSTResult = SSTNodeUtils.createFunctionDefWithArguments(source.getName(), functionScope, parserSSTResult, argumentNames);
-                    break;
-                default:
-                    throw new RuntimeException("unexpected mode: " + mode);
+        boolean parsed = false;
+        if (sllPrediction) {
+            // Most sources can be parsed with the faster SLL prediction. If that fails, because of
+            // a syntax error or because a decision needs the full context, the source is parsed
+            // again in LL mode, which also reports the error properly. The warnings are held back
+            // until the SLL attempt succeeded, because the LL pass would issue them again.
+            Python3Parser parser = getSLLPython3Parser(sourceText);
+            parser.setFactory(sstFactory);
+            parser.setParserMode(mode);
+            ParserErrorCallback sstErrors = sstFactory.getErrors();
+            DeferredWarningsCallback sllErrors = new DeferredWarningsCallback(sstErrors);
+            sstFactory.setErrors(sllErrors);
+            try {
+                parserSSTResult = parseInMode(parser, mode, sstFactory, source, currentFrame, inlineLocals, argumentNames);
+                parsed = true;
+            } catch (Exception e) {
+                llReparses.incrementAndGet();
+                sstFactory.getScopeEnvironment().reset();
+            } finally {
+                sstFactory.setErrors(sstErrors);
             }
-
-        } catch (Exception e) {
-            if ((mode == ParserMode.InteractiveStatement || mode == ParserMode.Statement) && e instanceof PIncompleteSourceException) {
-                ((PIncompleteSourceException) e).setSource(source);
-                throw e;
-            } else if (mode == ParserMode.InlineEvaluation) {
-                try {
-                    parser.reset();
-                    parserSSTResult = parser.eval_input().result;
-                } catch (Exception e2) {
+            if (parsed) {
+                sllErrors.replay(sstErrors);
+            }
+        }
+        if (!parsed) {
+            Python3Parser parser = getPython3Parser(sourceText);
+            parser.setFactory(sstFactory);
+            parser.setParserMode(mode);
+            try {
+                parserSSTResult = parseInMode(parser, mode, sstFactory, source, currentFrame, inlineLocals, argumentNames);
+            } catch (Exception e) {
+                if ((mode == ParserMode.InteractiveStatement || mode == ParserMode.Statement) && e instanceof PIncompleteSourceException) {
+                    ((PIncompleteSourceException) e).setSource(source);
+                    throw e;
+                } else if (mode == ParserMode.InlineEvaluation) {
+                    try {
+                        parser.reset();
+                        parserSSTResult = parser.eval_input().result;
+                    } catch (Exception e2) {
+                        throw handleParserError(errors, source, e);
+                    }
+                } else {
                     throw handleParserError(errors, source, e);
                 }
-            } else {
-                throw handleParserError(errors, source, e);
             }
         }
 
-        if (!IN_IMAGE_BUILD_TIME) {
+        if (rememberResult) {
             cachedLastAntlrResult.globalScope = sstFactory.getScopeEnvironment().getGlobalScope();
             cachedLastAntlrResult.antlrResult = parserSSTResult;
             cachedLastAntlrResult.source = source;
@@ -375,10 +411,68 @@ public final class PythonParserImpl implements PythonParser, PythonCodeSerialize
         }
     }
 
+    private static SSTNode parseInMode(Python3Parser parser, ParserMode mode, PythonSSTNodeFactory sstFactory, Source source, Frame currentFrame, FrameDescriptor inlineLocals,
+                    String[] argumentNames) {
+        switch (mode) {
+            case Eval:
+            case FStringExpression:
+                return parser.eval_input().result;
+            case File:
+                return parser.file_input().result;
+            case InteractiveStatement:
+            case InlineEvaluation:
+            case Statement:
+                return parser.single_input(source.isInteractive(), inlineLocals).result;
+            case WithArguments:
+                // at the first, create global scope
+                ScopeInfo globalScope = sstFactory.getScopeEnvironment().pushScope("module", ScopeInfo.ScopeKind.Module, currentFrame == null ? null : currentFrame.getFrameDescriptor());
+                // we expect that the source is the body of the result function
+                SSTNode result = parser.withArguments_input(false, new FrameDescriptor()).result;
+                // wrap the result with function definition
+                ScopeInfo functionScope = globalScope.getFirstChildScope();
+                return SSTNodeUtils.createFunctionDefWithArguments(source.getName(), functionScope, result, argumentNames);
+            default:
+                throw new RuntimeException("unexpected mode: " + mode);
+        }
+    }
+
     @TruffleBoundary
     public Node parseN(ParserMode mode, ParserErrorCallback errors, Source source, Frame currentFrame, String[] argumentNames) {
         PythonSSTNodeFactory sstFactory = new PythonSSTNodeFactory(errors, source, this);
-        CacheItem parserSSTResult = parseWithANTLR(mode, errors, sstFactory, source, currentFrame, argumentNames);
+        if (mode == ParserMode.File) {
+            // functions in evaluated expressions and interactive statements are translated eagerly
+            sstFactory.setLazyFunctionBodies(lazyFunctionBodies);
+        }
+        CacheItem parserSSTResult = null;
+        PythonContext context = null;
+        if (mode == ParserMode.File && !IN_IMAGE_BUILD_TIME) {
+            context = PythonLanguage.getContext();
+            if (context.getCore().isInitialized() || !SerializedSSTCache.isCacheable(context, source)) {
+                // after initialization, modules are imported through importlib which maintains
+                // its own .pyc files (and the cache may be disabled or unusable for this source)
+                context = null;
+            } else {
+                parserSSTResult = SerializedSSTCache.read(context, source);
+            }
+        }
+        if (parserSSTResult != null) {
+            sstFactory.getScopeEnvironment().setGlobalScope(parserSSTResult.globalScope);
+            // remember the result, so that serializing the resulting code does not parse again
+            cachedLastAntlrResult.globalScope = parserSSTResult.globalScope;
+            cachedLastAntlrResult.antlrResult = parserSSTResult.antlrResult;
+            cachedLastAntlrResult.source = source;
+        } else {
+            parserSSTResult = parseWithANTLR(mode, errors, sstFactory, source, currentFrame, argumentNames);
+            if (context != null) {
+                SerializedSSTCache.write(context, source, parserSSTResult.antlrResult, parserSSTResult.globalScope);
+            }
+        }
+        if (mode == ParserMode.File) {
+            ImportPrefetcher prefetcher = PythonLanguage.getContext().getImportPrefetcher();
+            if (prefetcher != null) {
+                prefetcher.prefetchImports(parserSSTResult.antlrResult);
+            }
+        }
         try {
             return sstFactory.createParserResult(parserSSTResult.antlrResult, mode, currentFrame);
         } catch (Exception e) {
@@ -386,6 +480,67 @@ public final class PythonParserImpl implements PythonParser, PythonCodeSerialize
         }
     }
 
+    /**
+     * Parses a module without touching the state of this parser that is shared with
+     * {@link #parse}, so that it can run on a background thread. The result can be translated with
+     * {@link #translateModule} on any thread.
+     */
+    @TruffleBoundary
+    public CacheItem parseModuleInBackground(ParserErrorCallback errors, Source source) {
+        PythonSSTNodeFactory sstFactory = new PythonSSTNodeFactory(errors, source, this);
+        return parseWithANTLR(ParserMode.File, errors, sstFactory, source, null, null, false);
+    }
+
+    @TruffleBoundary
+    public RootNode translateModule(ParserErrorCallback errors, CacheItem parserResult) {
+        PythonSSTNodeFactory sstFactory = new PythonSSTNodeFactory(errors, parserResult.source, this);
+        sstFactory.setLazyFunctionBodies(lazyFunctionBodies);
+        sstFactory.getScopeEnvironment().setGlobalScope(parserResult.globalScope);
+        try {
+            return (RootNode) sstFactory.createParserResult(parserResult.antlrResult, ParserMode.File, null);
+        } catch (Exception e) {
+            throw handleParserError(errors, parserResult.source, e);
+        }
+    }
+
+    /**
+     * Makes a module parsed by {@link #parseModuleInBackground} the last parsed one, so that
+     * serializing its code does not need to parse it again.
+     */
+    public void rememberParserResult(CacheItem parserResult) {
+        if (!IN_IMAGE_BUILD_TIME) {
+            cachedLastAntlrResult.globalScope = parserResult.globalScope;
+            cachedLastAntlrResult.antlrResult = parserResult.antlrResult;
+            cachedLastAntlrResult.source = parserResult.source;
+        }
+    }
+
+    /**
+     * Parses the modules in the given directory to fill the prediction cache of ANTLR, which is
+     * shared by all parsers in the process. When this runs while a native image is built, the
+     * filled cache becomes part of the image.
+     */
+    @TruffleBoundary
+    public void prewarmPredictionCache(PythonContext context, TruffleFile directory) {
+        try {
+            for (TruffleFile file : directory.list()) {
+                if (file.getName().endsWith(".py") && file.isRegularFile()) {
+                    // the modules are only parsed, not imported, so their warnings are dropped
+                    ParserErrorCallback errors = new DeferredWarningsCallback(context.getCore());
+                    try {
+                        Source source = PythonLanguage.newSource(context, file, file.getName());
+                        parseWithANTLR(ParserMode.File, errors, new PythonSSTNodeFactory(errors, source, this), source, null, null, false);
+                    } catch (IOException | PException e) {
+                        // the cache is filled by whatever was parsed before the failure
+                        LOGGER.fine(() -> "Could not prewarm the parser with " + file + ": " + e);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.fine(() -> "Could not prewarm the parser with " + directory + ": " + e);
+        }
+    }
+
     @Override
     @TruffleBoundary
     public boolean isIdentifier(PythonCore core, String snippet) {
@@ -108,8 +108,9 @@ public final class PythonSSTNodeFactory {
     private final NodeFactory nodeFactory;
     private final ScopeEnvironment scopeEnvironment;
     private final Source source;
-    private final PythonParser.ParserErrorCallback errors;
+    private PythonParser.ParserErrorCallback errors;
     private FStringExprParser fStringExprParser;
+    private FunctionBodyStatistics lazyFunctionBodies;
 
     public PythonSSTNodeFactory(PythonParser.ParserErrorCallback errors, Source source, FStringExprParser fStringExprParser) {
         this.errors = errors;
@@ -123,6 +124,25 @@ public final class PythonSSTNodeFactory {
         return scopeEnvironment;
     }
 
+    public PythonParser.ParserErrorCallback getErrors() {
+        return errors;
+    }
+
+    /**
+     * Replaces the callback for errors and warnings of the parse. Used to hold back the warnings of
+     * a parse attempt that may be discarded.
+     */
+    public void setErrors(PythonParser.ParserErrorCallback errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * Makes the translation of plain function bodies lazy and counts them in the given statistics.
+     */
+    public void setLazyFunctionBodies(FunctionBodyStatistics lazyFunctionBodies) {
+        this.lazyFunctionBodies = lazyFunctionBodies;
+    }
+
     public void throwSyntaxError(int startOffset, int endOffset, String message, Object... messageParams) {
         throw errors.raiseInvalidSyntax(source, createSourceSection(startOffset, endOffset), message, messageParams);
     }
@@ -519,6 +539,7 @@ public final class PythonSSTNodeFactory {
         }
         scopeEnvironment.setFreeVarsInRootScope(useFrame);
         FactorySSTVisitor factoryVisitor = new FactorySSTVisitor(errors, getScopeEnvironment(), errors.getLanguage().getNodeFactory(), source);
+        factoryVisitor.setLazyFunctionBodies(lazyFunctionBodies);
         if (isGen) {
             factoryVisitor = new GeneratorFactorySSTVisitor(errors, getScopeEnvironment(), errors.getLanguage().getNodeFactory(), source, factoryVisitor);
         }
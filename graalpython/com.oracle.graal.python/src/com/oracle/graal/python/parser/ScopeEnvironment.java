@@ -109,6 +109,15 @@ public class ScopeEnvironment implements CellFrameSlotSupplier {
         return currentScope;
     }
 
+    /**
+     * Forgets all scopes, so that the same source can be parsed again.
+     */
+    public void reset() {
+        currentScope = null;
+        globalScope = null;
+        unresolvedVars.clear();
+    }
+
     public ScopeInfo popScope() {
         ScopeInfo definingScope = currentScope;
         Set<Object> identifiers = definingScope.getFrameDescriptor().getIdentifiers();
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.StandardCopyOption;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.parser.PythonParserImpl.CacheItem;
+import com.oracle.graal.python.parser.sst.SSTDeserializer;
+import com.oracle.graal.python.parser.sst.SSTNode;
+import com.oracle.graal.python.parser.sst.SerializationUtils;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.PythonOptions;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.TruffleLogger;
+import com.oracle.truffle.api.source.Source;
+
+/**
+ * An on-disk cache of serialized SST and scope trees for the module sources that are parsed during
+ * context initialization, before the import machinery is available, most notably the core library
+ * files. {@link PythonParserImpl} only consults it while the core is not initialized. Imported
+ * modules are cached by {@code importlib} in {@code .pyc} files, this cache uses the same
+ * {@code __pycache__} (or {@code sys.pycache_prefix}) locations, but its own {@code .sst} suffix
+ * and file layout:
+ *
+ * <pre>
+ * MAGIC
+ * serialization version
+ * flags (as in PEP 552, we always write hash-based entries that check the source)
+ * source hash
+ * source length
+ * binary data - the same as produced by {@link PythonParserImpl#serialize(SSTNode, ScopeInfo, boolean)}
+ * </pre>
+ *
+ * The cache is enabled by {@link PythonOptions#InitializationSSTCache}, which is on by default. It
+ * does not depend on {@link PythonOptions#DontWriteBytecodeFlag}, because that flag is set by
+ * default and the cache would then never be written. Validation respects
+ * {@link PythonOptions#CheckHashPycsMode}. Any I/O problem or corrupted data just results in
+ * parsing the source again.
+ */
+public final class SerializedSSTCache {
+    private static final TruffleLogger LOGGER = PythonLanguage.getLogger(SerializedSSTCache.class);
+
+    private static final String PYCACHE = "__pycache__";
+    private static final String SUFFIX = ".sst";
+    private static final String CACHE_TAG = "graalpython-" + PythonLanguage.MAJOR + PythonLanguage.MINOR;
+
+    // 'GSST'
+    private static final int MAGIC = 0x47535354;
+    private static final int FLAG_HASH_BASED = 0b01;
+    private static final int FLAG_CHECK_SOURCE = 0b10;
+
+    private SerializedSSTCache() {
+        // no instances
+    }
+
+    public static boolean isCacheable(PythonContext context, Source source) {
+        return context.getOption(PythonOptions.InitializationSSTCache) && source.getPath() != null && !source.isInteractive() && "file".equals(source.getURI().getScheme());
+    }
+
+    /**
+     * Returns the cached SST for the given source, or {@code null} if there is no valid cache
+     * entry.
+     */
+    @TruffleBoundary
+    public static CacheItem read(PythonContext context, Source source) {
+        TruffleFile cacheFile = null;
+        try {
+            cacheFile = getCacheFile(context, source);
+            if (cacheFile == null || !cacheFile.isRegularFile()) {
+                return null;
+            }
+            DataInputStream dis = new DataInputStream(new ByteArrayInputStream(cacheFile.readAllBytes()));
+            if (dis.readInt() != MAGIC || dis.readByte() != SerializationUtils.VERSION) {
+                return null;
+            }
+            int flags = dis.readInt();
+            long hash = dis.readLong();
+            int length = dis.readInt();
+            String checkMode = context.getOption(PythonOptions.CheckHashPycsMode);
+            if (!"never".equals(checkMode) && ((flags & FLAG_CHECK_SOURCE) != 0 || "always".equals(checkMode))) {
+                CharSequence chars = source.getCharacters();
+                if (chars.length() != length || sourceHash(chars) != hash) {
+                    return null;
+                }
+            }
+            if (dis.readByte() != SerializationUtils.VERSION) {
+                return null;
+            }
+            ScopeInfo globalScope = ScopeInfo.read(dis, null);
+            int offset = dis.readInt();
+            SSTNode node = new SSTDeserializer(dis, globalScope, offset).readNode();
+            return new CacheItem(source, node, globalScope);
+        } catch (IOException | RuntimeException e) {
+            // corrupted or inaccessible cache entries are just ignored
+            TruffleFile file = cacheFile;
+            LOGGER.fine(() -> "Ignoring SST cache " + file + " for " + source.getPath() + ": " + e);
+            return null;
+        }
+    }
+
+    @TruffleBoundary
+    public static void write(PythonContext context, Source source, SSTNode node, ScopeInfo globalScope) {
+        TruffleFile cacheFile = null;
+        try {
+            cacheFile = getCacheFile(context, source);
+            if (cacheFile == null) {
+                return;
+            }
+            // check the location first, serializing is wasted on a read-only installation
+            TruffleFile dir = cacheFile.getParent();
+            dir.createDirectories();
+            if (!dir.isWritable()) {
+                TruffleFile file = cacheFile;
+                LOGGER.fine(() -> "Not writing SST cache " + file + " for " + source.getPath() + ": directory is not writable");
+                return;
+            }
+            byte[] data = PythonParserImpl.serialize(node, globalScope, true);
+            CharSequence chars = source.getCharacters();
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(data.length + 21);
+            DataOutputStream dos = new DataOutputStream(baos);
+            dos.writeInt(MAGIC);
+            dos.writeByte(SerializationUtils.VERSION);
+            dos.writeInt(FLAG_HASH_BASED | FLAG_CHECK_SOURCE);
+            dos.writeLong(sourceHash(chars));
+            dos.writeInt(chars.length());
+            dos.write(data);
+            dos.close();
+
+            // like importlib, write to a temporary file and move it into place, so that concurrent
+            // readers never see partially written data
+            TruffleFile tmp = dir.resolve(cacheFile.getName() + "." + Thread.currentThread().getId() + ".tmp");
+            try (OutputStream out = tmp.newOutputStream()) {
+                baos.writeTo(out);
+            }
+            try {
+                tmp.move(cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                tmp.move(cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            // like for .pyc files, an unwritable cache location is not an error
+            TruffleFile file = cacheFile;
+            LOGGER.fine(() -> "Could not write SST cache " + file + " for " + source.getPath() + ": " + e);
+        }
+    }
+
+    private static TruffleFile getCacheFile(PythonContext context, Source source) {
+        TruffleFile sourceFile = context.getPublicTruffleFileRelaxed(source.getPath(), PythonLanguage.EXTENSION).getAbsoluteFile();
+        TruffleFile sourceDir = sourceFile.getParent();
+        String name = sourceFile.getName();
+        if (sourceDir == null || name == null) {
+            return null;
+        }
+        if (name.endsWith(PythonLanguage.EXTENSION)) {
+            name = name.substring(0, name.length() - PythonLanguage.EXTENSION.length());
+        }
+        String cacheName = name + "." + CACHE_TAG + SUFFIX;
+        String prefix = context.getOption(PythonOptions.PyCachePrefix);
+        if (prefix.isEmpty()) {
+            return sourceDir.resolve(PYCACHE).resolve(cacheName);
+        }
+        // like CPython, mirror the directory structure of the source tree below the prefix
+        String relativeDir = stripRoot(sourceDir.getPath(), context.getEnv().getFileNameSeparator());
+        TruffleFile cacheDir = context.getPublicTruffleFileRelaxed(prefix);
+        if (!relativeDir.isEmpty()) {
+            cacheDir = cacheDir.resolve(relativeDir);
+        }
+        return cacheDir.resolve(cacheName);
+    }
+
+    private static String stripRoot(String path, String separator) {
+        int start = 0;
+        if (path.length() > 1 && path.charAt(1) == ':') {
+            // drive letter
+            start = 2;
+        }
+        while (path.startsWith(separator, start)) {
+            start += separator.length();
+        }
+        return path.substring(start);
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the source characters. We hash the characters rather than the file
+     * contents, because that is what the cached SST was created from.
+     */
+    private static long sourceHash(CharSequence chars) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < chars.length(); i++) {
+            hash ^= chars.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -112,6 +112,9 @@ import com.oracle.graal.python.nodes.statement.RaiseNode;
 import com.oracle.graal.python.nodes.statement.StatementNode;
 import com.oracle.graal.python.nodes.subscript.GetItemNode;
 import com.oracle.graal.python.nodes.subscript.SliceLiteralNode;
+import com.oracle.graal.python.parser.DefinitionCellSlots;
+import com.oracle.graal.python.parser.ExecutionCellSlots;
+import com.oracle.graal.python.parser.FunctionBodyStatistics;
 import com.oracle.graal.python.parser.ScopeEnvironment;
 import com.oracle.graal.python.parser.ScopeInfo;
 import com.oracle.graal.python.parser.sst.NumberLiteralSSTNode.BigIntegerLiteralSSTNode;
@@ -135,6 +138,11 @@ public class FactorySSTVisitor implements SSTreeVisitor<PNode> {
 
     protected int comprLevel;
 
+    /**
+     * If set, bodies of plain functions are translated only when they are first executed.
+     */
+    protected FunctionBodyStatistics lazyFunctionBodies;
+
     public FactorySSTVisitor(PythonParser.ParserErrorCallback errors, ScopeEnvironment scopeEnvironment, NodeFactory nodeFactory, Source source) {
         this.scopeEnvironment = scopeEnvironment;
         this.source = source;
@@ -143,6 +151,10 @@ public class FactorySSTVisitor implements SSTreeVisitor<PNode> {
         this.comprLevel = 0;
     }
 
+    public void setLazyFunctionBodies(FunctionBodyStatistics lazyFunctionBodies) {
+        this.lazyFunctionBodies = lazyFunctionBodies;
+    }
+
     /**
      * Create a binary expression using given function such that it can be resumed when the right
      * subexpression yields without reexecuting the side-effects of the left subexpression
@@ -757,6 +769,9 @@ public class FactorySSTVisitor implements SSTreeVisitor<PNode> {
 
     @Override
     public PNode visit(FunctionDefSSTNode node) {
+        if (lazyFunctionBodies != null && node.scope.getScopeKind() == ScopeInfo.ScopeKind.Function) {
+            return createLazyFunctionDef(node);
+        }
         ScopeInfo oldScope = scopeEnvironment.getCurrentScope();
         scopeEnvironment.setCurrentScope(node.scope);
         Signature signature = node.argBuilder.getSignature();
@@ -773,38 +788,7 @@ public class FactorySSTVisitor implements SSTreeVisitor<PNode> {
                             : this);
         }
         ExpressionNode doc = StringUtils.extractDoc(body);
-        FunctionBodyNode functionBody;
-        if (doc != null) {
-            if (body instanceof BaseBlockNode) {
-                StatementNode[] st = ((BaseBlockNode) body).getStatements();
-                if (st.length == 1) {
-                    functionBody = FunctionBodyNode.create();
-                    functionBody.assignSourceSection(createSourceSection(node.endOffset - 1, node.endOffset));
-                } else {
-                    if (st.length == 2) {
-                        functionBody = FunctionBodyNode.create(st[1]);
-                        if (scopeEnvironment.isInGeneratorScope()) {
-                            generatorFactory.decreaseNumOfGeneratorBlockNode();
-                        }
-                    } else {
-                        // TODO this is not nice. We create the block twice. Should be created just
-                        // one?
-                        functionBody = body instanceof GeneratorBlockNode
-                                        ? FunctionBodyNode.create(GeneratorBlockNode.create(Arrays.copyOfRange(st, 1, st.length), ((GeneratorBlockNode) body).getIndexSlot()))
-                                        : FunctionBodyNode.create(Arrays.copyOfRange(st, 1, st.length));
-                    }
-                    BlockSSTNode blockSST = (BlockSSTNode) node.body;
-                    int start = blockSST.statements[1].startOffset;
-                    functionBody.assignSourceSection(createSourceSection(start, node.body.getEndOffset()));
-                }
-            } else {
-                functionBody = FunctionBodyNode.create();
-                functionBody.assignSourceSection(createSourceSection(node.endOffset - 1, node.endOffset));
-            }
-        } else {
-            functionBody = createFunctionBody(body);
-            functionBody.assignSourceSection(createSourceSection(node.body.startOffset, node.body.endOffset));
-        }
+        FunctionBodyNode functionBody = createFunctionDefBody(node, body, doc, generatorFactory);
 
         body = functionBody;
         ExpressionNode funcDef;
@@ -823,15 +807,7 @@ public class FactorySSTVisitor implements SSTreeVisitor<PNode> {
         scopeEnvironment.setCurrentScope(node.scope.getParent());
         ExpressionNode[] defaults = node.argBuilder.getDefaultParameterValues(this);
         FunctionDefinitionNode.KwDefaultExpressionNode[] kwDefaults = node.argBuilder.getKwDefaultParameterValues(this);
-        Map<String, SSTNode> sstAnnotations = node.argBuilder.getAnnotatedArgs();
-        Map<String, ExpressionNode> annotations = null;
-        if (sstAnnotations != null && !sstAnnotations.isEmpty()) {
-            annotations = new HashMap<>(sstAnnotations.size());
-            for (String argName : sstAnnotations.keySet()) {
-                SSTNode sstType = sstAnnotations.get(argName);
-                annotations.put(argName, (ExpressionNode) sstType.accept(this));
-            }
-        }
+        Map<String, ExpressionNode> annotations = createAnnotations(node.argBuilder);
         scopeEnvironment.setCurrentScope(node.scope);
 
         /*
@@ -860,6 +836,126 @@ public class FactorySSTVisitor implements SSTreeVisitor<PNode> {
         return writeNode;
     }
 
+    private Map<String, ExpressionNode> createAnnotations(ArgDefListBuilder argBuilder) {
+        Map<String, SSTNode> sstAnnotations = argBuilder.getAnnotatedArgs();
+        Map<String, ExpressionNode> annotations = null;
+        if (sstAnnotations != null && !sstAnnotations.isEmpty()) {
+            annotations = new HashMap<>(sstAnnotations.size());
+            for (String argName : sstAnnotations.keySet()) {
+                SSTNode sstType = sstAnnotations.get(argName);
+                annotations.put(argName, (ExpressionNode) sstType.accept(this));
+            }
+        }
+        return annotations;
+    }
+
+    private FunctionBodyNode createFunctionDefBody(FunctionDefSSTNode node, StatementNode body, ExpressionNode doc, GeneratorFactorySSTVisitor generatorFactory) {
+        FunctionBodyNode functionBody;
+        if (doc != null) {
+            if (body instanceof BaseBlockNode) {
+                StatementNode[] st = ((BaseBlockNode) body).getStatements();
+                if (st.length == 1) {
+                    functionBody = FunctionBodyNode.create();
+                    functionBody.assignSourceSection(createSourceSection(node.endOffset - 1, node.endOffset));
+                } else {
+                    if (st.length == 2) {
+                        functionBody = FunctionBodyNode.create(st[1]);
+                        if (generatorFactory != null) {
+                            generatorFactory.decreaseNumOfGeneratorBlockNode();
+                        }
+                    } else {
+                        // TODO this is not nice. We create the block twice. Should be created just
+                        // one?
+                        functionBody = body instanceof GeneratorBlockNode
+                                        ? FunctionBodyNode.create(GeneratorBlockNode.create(Arrays.copyOfRange(st, 1, st.length), ((GeneratorBlockNode) body).getIndexSlot()))
+                                        : FunctionBodyNode.create(Arrays.copyOfRange(st, 1, st.length));
+                    }
+                    BlockSSTNode blockSST = (BlockSSTNode) node.body;
+                    int start = blockSST.statements[1].startOffset;
+                    functionBody.assignSourceSection(createSourceSection(start, node.body.getEndOffset()));
+                }
+            } else {
+                functionBody = FunctionBodyNode.create();
+                functionBody.assignSourceSection(createSourceSection(node.endOffset - 1, node.endOffset));
+            }
+        } else {
+            functionBody = createFunctionBody(body);
+            functionBody.assignSourceSection(createSourceSection(node.body.startOffset, node.body.endOffset));
+        }
+        return functionBody;
+    }
+
+    /**
+     * Creates the definition of a plain function, but defers the translation of its body to the
+     * first call. The SST of the body and its scope are kept alive until then.
+     */
+    private PNode createLazyFunctionDef(FunctionDefSSTNode node) {
+        ScopeInfo oldScope = scopeEnvironment.getCurrentScope();
+        scopeEnvironment.setCurrentScope(node.scope);
+        Signature signature = node.argBuilder.getSignature();
+
+        // the docstring is needed to create the function object, so translate just that
+        ExpressionNode doc = null;
+        SSTNode firstStatement = node.body;
+        if (node.body instanceof BlockSSTNode) {
+            SSTNode[] statements = ((BlockSSTNode) node.body).statements;
+            firstStatement = statements.length > 0 ? statements[0] : null;
+        }
+        if (firstStatement instanceof StringLiteralSSTNode) {
+            PNode possibleDoc = firstStatement.accept(this);
+            if (possibleDoc instanceof ExpressionNode) {
+                doc = StringUtils.extractDoc((ExpressionNode) possibleDoc);
+            }
+        }
+
+        SourceSection sourceSection = createSourceSection(node.startOffset, node.endOffset);
+        FrameDescriptor fd = scopeEnvironment.getCurrentFrame();
+        ExecutionCellSlots executionCellSlots = scopeEnvironment.getExecutionCellSlots();
+        DefinitionCellSlots definitionCellSlots = scopeEnvironment.getDefinitionCellSlots();
+        String qualname = node.scope.getQualname();
+        FunctionBodyStatistics statistics = lazyFunctionBodies;
+        ScopeEnvironment environment = scopeEnvironment;
+        NodeFactory factory = nodeFactory;
+        Source functionSource = source;
+        FunctionRootNode funcRoot = nodeFactory.createLazyFunctionRoot(sourceSection, node.name, fd, () -> {
+            statistics.bodyMaterialized();
+            FactorySSTVisitor bodyVisitor = new FactorySSTVisitor(PythonLanguage.getCore(), environment, factory, functionSource);
+            bodyVisitor.setLazyFunctionBodies(statistics);
+            return bodyVisitor.translateFunctionBody(node);
+        }, executionCellSlots, signature);
+        statistics.bodyDeferred();
+        RootCallTarget ct = PythonUtils.getOrCreateCallTarget(funcRoot);
+
+        scopeEnvironment.setCurrentScope(node.scope.getParent());
+        ExpressionNode[] defaults = node.argBuilder.getDefaultParameterValues(this);
+        FunctionDefinitionNode.KwDefaultExpressionNode[] kwDefaults = node.argBuilder.getKwDefaultParameterValues(this);
+        Map<String, ExpressionNode> annotations = createAnnotations(node.argBuilder);
+        ExpressionNode funcDef = new FunctionDefinitionNode(node.name, qualname, node.enclosingClassName, doc, defaults, kwDefaults, ct, definitionCellSlots, executionCellSlots, annotations);
+        ReadNode funcVar = scopeEnvironment.findVariable(node.name);
+        StatementNode writeNode = funcVar.makeWriteNode(funcDef);
+        writeNode.assignSourceSection(sourceSection);
+        scopeEnvironment.setCurrentScope(oldScope);
+        return writeNode;
+    }
+
+    private ExpressionNode translateFunctionBody(FunctionDefSSTNode node) {
+        // the scope environment is shared by all functions of the module
+        synchronized (scopeEnvironment) {
+            ScopeInfo oldScope = scopeEnvironment.getCurrentScope();
+            scopeEnvironment.setCurrentScope(node.scope);
+            try {
+                StatementNode argumentNodes = nodeFactory.createBlock(node.argBuilder.getArgumentNodes(scopeEnvironment));
+                StatementNode body = (StatementNode) node.body.accept(this);
+                FunctionBodyNode functionBody = createFunctionDefBody(node, body, StringUtils.extractDoc(body), null);
+                ExpressionNode returnTarget = new ReturnTargetNode(nodeFactory.createBlock(argumentNodes, functionBody), nodeFactory.createReadLocal(scopeEnvironment.getReturnSlot()));
+                returnTarget.assignSourceSection(createSourceSection(node.startOffset, node.endOffset));
+                return returnTarget;
+            } finally {
+                scopeEnvironment.setCurrentScope(oldScope);
+            }
+        }
+    }
+
     @Override
     public PNode visit(GetAttributeSSTNode node) {
         ExpressionNode receiver = (ExpressionNode) node.receiver.accept(this);
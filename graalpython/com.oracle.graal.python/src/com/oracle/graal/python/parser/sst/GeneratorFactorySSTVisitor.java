@@ -97,6 +97,7 @@ public class GeneratorFactorySSTVisitor extends FactorySSTVisitor {
     public GeneratorFactorySSTVisitor(PythonParser.ParserErrorCallback errors, ScopeEnvironment scopeEnvironment, NodeFactory nodeFactory, Source source, FactorySSTVisitor parentVisitor) {
         super(errors, scopeEnvironment, nodeFactory, source);
         this.parentVisitor = parentVisitor;
+        this.lazyFunctionBodies = parentVisitor.lazyFunctionBodies;
     }
 
     public void decreaseNumOfGeneratorBlockNode() {
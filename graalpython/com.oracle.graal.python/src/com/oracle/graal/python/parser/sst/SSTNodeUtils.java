@@ -40,6 +40,8 @@
  */
 package com.oracle.graal.python.parser.sst;
 
+import java.util.List;
+
 import com.oracle.graal.python.parser.ScopeInfo;
 
 public class SSTNodeUtils {
@@ -71,4 +73,28 @@ public class SSTNodeUtils {
         }
         return new FunctionDefSSTNode(functionScope, name, null, argBuilder, body, body.getStartOffset(), body.getEndOffset());
     }
+
+    /**
+     * Collects the absolute names of modules imported by the top-level statements of a module,
+     * including the names that {@code from package import name} may refer to as submodules.
+     */
+    public static void findTopLevelImports(SSTNode module, List<String> names) {
+        if (module instanceof BlockSSTNode) {
+            for (SSTNode statement : ((BlockSSTNode) module).statements) {
+                findTopLevelImports(statement, names);
+            }
+        } else if (module instanceof ImportSSTNode) {
+            names.add(((ImportSSTNode) module).name);
+        } else if (module instanceof ImportFromSSTNode) {
+            ImportFromSSTNode importFrom = (ImportFromSSTNode) module;
+            if (!importFrom.from.startsWith(".")) {
+                names.add(importFrom.from);
+                if (importFrom.asNames != null) {
+                    for (String[] asName : importFrom.asNames) {
+                        names.add(importFrom.from + "." + asName[0]);
+                    }
+                }
+            }
+        }
+    }
 }
@@ -65,11 +65,15 @@ import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channel;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ScatteringByteChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.DirectoryStream;
@@ -81,8 +85,10 @@ import java.nio.file.attribute.FileTime;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.PosixFilePermissions;
 import java.nio.file.attribute.UserPrincipal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
@@ -152,6 +158,10 @@ import com.sun.security.auth.UnixNumericGroupPrincipal;
  * <li>{@code faccessAt} does not support: effective IDs, and no follow symlinks unless the mode is
  * only F_OK.</li>
  * <li>{@code select} supports only network sockets, but not regular files.</li>
+ * <li>{@code poll} and {@code epoll} support only network sockets and pipes, other files are always
+ * reported as ready by {@code poll} and cannot be registered with {@code epoll}. Only the
+ * {@code IN} and {@code OUT} events are supported and edge-triggered mode behaves like
+ * level-triggered mode.</li>
  * </ul>
  */
 @ExportLibrary(PosixSupportLibrary.class)
@@ -364,6 +374,237 @@ public final class EmulatedPosixSupport extends PosixResources {
         return new Buffer(array.getInternalByteArray(), array.length());
     }
 
+    @ExportMessage
+    public long readinto(int fd, byte[] buf, int offset, int length,
+                    @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
+                    @Shared("errorBranch") @Cached BranchProfile errorBranch) throws PosixException {
+        Channel channel = getFileChannel(fd, channelClassProfile);
+        if (!(channel instanceof ReadableByteChannel)) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        try {
+            return doReadIntoOp(buf, offset, length, (ReadableByteChannel) channel);
+        } catch (Exception e) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @TruffleBoundary(allowInlining = true)
+    private static int doReadIntoOp(byte[] buf, int offset, int length, ReadableByteChannel channel) throws IOException {
+        int n = channel.read(ByteBuffer.wrap(buf, offset, length));
+        return n < 0 ? 0 : n;
+    }
+
+    @ExportMessage
+    public long pread(int fd, byte[] buf, int offset, int length, long position,
+                    @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
+                    @Shared("errorBranch") @Cached BranchProfile errorBranch) throws PosixException {
+        Channel channel = getFileChannel(fd, channelClassProfile);
+        if (!(channel instanceof SeekableByteChannel)) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.ESPIPE);
+        }
+        try {
+            return doPReadOp(buf, offset, length, position, (SeekableByteChannel) channel);
+        } catch (Exception e) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @TruffleBoundary
+    private static int doPReadOp(byte[] buf, int offset, int length, long position, SeekableByteChannel channel) throws IOException {
+        ByteBuffer dst = ByteBuffer.wrap(buf, offset, length);
+        int n;
+        if (channel instanceof FileChannel) {
+            n = ((FileChannel) channel).read(dst, position);
+        } else {
+            long oldPosition = channel.position();
+            try {
+                channel.position(position);
+                n = channel.read(dst);
+            } finally {
+                channel.position(oldPosition);
+            }
+        }
+        return n < 0 ? 0 : n;
+    }
+
+    @ExportMessage
+    public long pwrite(int fd, byte[] buf, int offset, int length, long position,
+                    @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
+                    @Shared("errorBranch") @Cached BranchProfile errorBranch) throws PosixException {
+        Channel channel = getFileChannel(fd, channelClassProfile);
+        if (!(channel instanceof SeekableByteChannel)) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.ESPIPE);
+        }
+        try {
+            return doPWriteOp(buf, offset, length, position, (SeekableByteChannel) channel);
+        } catch (Exception e) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @TruffleBoundary
+    private static int doPWriteOp(byte[] buf, int offset, int length, long position, SeekableByteChannel channel) throws IOException {
+        ByteBuffer src = ByteBuffer.wrap(buf, offset, length);
+        if (channel instanceof FileChannel) {
+            return ((FileChannel) channel).write(src, position);
+        }
+        long oldPosition = channel.position();
+        try {
+            channel.position(position);
+            return channel.write(src);
+        } finally {
+            channel.position(oldPosition);
+        }
+    }
+
+    @ExportMessage
+    public long readv(int fd, Buffer[] buffers,
+                    @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
+                    @Shared("errorBranch") @Cached BranchProfile errorBranch) throws PosixException {
+        Channel channel = getFileChannel(fd, channelClassProfile);
+        if (!(channel instanceof ReadableByteChannel)) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        try {
+            return doReadVOp(buffers, (ReadableByteChannel) channel);
+        } catch (Exception e) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @TruffleBoundary
+    private static long doReadVOp(Buffer[] buffers, ReadableByteChannel channel) throws IOException {
+        ByteBuffer[] dsts = new ByteBuffer[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            dsts[i] = ByteBuffer.wrap(buffers[i].data, 0, (int) buffers[i].length);
+        }
+        if (channel instanceof ScatteringByteChannel) {
+            long n = ((ScatteringByteChannel) channel).read(dsts);
+            return n < 0 ? 0 : n;
+        }
+        // fill the buffers one after the other and stop at the first short read, as readv would
+        long total = 0;
+        for (ByteBuffer dst : dsts) {
+            int n = channel.read(dst);
+            if (n <= 0) {
+                break;
+            }
+            total += n;
+            if (dst.hasRemaining()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    @ExportMessage
+    public long writev(int fd, Buffer[] buffers,
+                    @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
+                    @Shared("errorBranch") @Cached BranchProfile errorBranch) throws PosixException {
+        Channel channel = getFileChannel(fd, channelClassProfile);
+        if (!(channel instanceof WritableByteChannel)) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        try {
+            return doWriteVOp(buffers, (WritableByteChannel) channel);
+        } catch (Exception e) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @TruffleBoundary
+    private static long doWriteVOp(Buffer[] buffers, WritableByteChannel channel) throws IOException {
+        ByteBuffer[] srcs = new ByteBuffer[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            srcs[i] = buffers[i].getByteBuffer();
+        }
+        if (channel instanceof GatheringByteChannel) {
+            return ((GatheringByteChannel) channel).write(srcs);
+        }
+        long total = 0;
+        for (ByteBuffer src : srcs) {
+            total += channel.write(src);
+            if (src.hasRemaining()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    @ExportMessage
+    public long sendfile(int outFd, int inFd, long offset, long count,
+                    @Shared("errorBranch") @Cached BranchProfile errorBranch) throws PosixException {
+        Channel in = getFileChannel(inFd);
+        WritableByteChannel out = toWritableChannel(getFileChannel(outFd));
+        if (in == null || out == null) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        if (!(in instanceof SeekableByteChannel)) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.EINVAL);
+        }
+        try {
+            return doSendFileOp((SeekableByteChannel) in, out, offset, count);
+        } catch (PosixException e) {
+            errorBranch.enter();
+            throw e;
+        } catch (Exception e) {
+            errorBranch.enter();
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    private static final int SENDFILE_CHUNK_SIZE = 64 * 1024;
+
+    @TruffleBoundary
+    private static long doSendFileOp(SeekableByteChannel in, WritableByteChannel out, long offset, long count) throws IOException, PosixException {
+        long n;
+        if (in instanceof FileChannel) {
+            // lets the JDK use sendfile(2) or a mapped transfer when possible
+            n = ((FileChannel) in).transferTo(offset, count, out);
+        } else {
+            ByteBuffer buf = ByteBuffer.allocate((int) Math.min(count, SENDFILE_CHUNK_SIZE));
+            long oldPosition = in.position();
+            try {
+                in.position(offset);
+                if (in.read(buf) <= 0) {
+                    return 0;
+                }
+            } finally {
+                in.position(oldPosition);
+            }
+            buf.flip();
+            n = out.write(buf);
+        }
+        if (n == 0 && count > 0 && isNonBlocking(out) && offset < in.size()) {
+            throw posixException(OSErrorEnum.EAGAIN);
+        }
+        return n;
+    }
+
+    private static WritableByteChannel toWritableChannel(Channel channel) {
+        if (channel instanceof PSocket) {
+            return ((PSocket) channel).getSocket();
+        }
+        return channel instanceof WritableByteChannel ? (WritableByteChannel) channel : null;
+    }
+
+    private static boolean isNonBlocking(WritableByteChannel channel) {
+        return channel instanceof SelectableChannel && !((SelectableChannel) channel).isBlocking();
+    }
+
     @Override
     @ExportMessage
     public int dup(int fd) {
@@ -495,6 +736,295 @@ public final class EmulatedPosixSupport extends PosixResources {
         return channels;
     }
 
+    @ExportMessage
+    @TruffleBoundary
+    public int poll(int[] fds, int[] events, int[] revents, int timeoutMs) throws PosixException {
+        ArrayList<SelectableChannel> wereBlocking = new ArrayList<>();
+        SelectableChannel[] channels = new SelectableChannel[fds.length];
+        try {
+            try (Selector selector = Selector.open()) {
+                int ready = 0;
+                for (int i = 0; i < fds.length; i++) {
+                    revents[i] = 0;
+                    if (fds[i] < 0) {
+                        continue;
+                    }
+                    Channel channel = getFileChannel(fds[i]);
+                    if (channel == null || !channel.isOpen()) {
+                        revents[i] = PosixSupportLibrary.POLLNVAL;
+                        ready++;
+                        continue;
+                    }
+                    SelectableChannel selectable = toSelectableChannel(channel);
+                    if (selectable == null) {
+                        // like regular files in POSIX, channels that cannot block are always ready
+                        revents[i] = events[i] & (PosixSupportLibrary.POLLIN | PosixSupportLibrary.POLLOUT);
+                        ready += revents[i] != 0 ? 1 : 0;
+                        continue;
+                    }
+                    int ops = toInterestOps(selectable, events[i]);
+                    if (ops == 0) {
+                        continue;
+                    }
+                    if (selectable.isBlocking()) {
+                        selectable.configureBlocking(false);
+                        wereBlocking.add(selectable);
+                    }
+                    SelectionKey key = selectable.keyFor(selector);
+                    if (key != null) {
+                        // the same channel is polled through more than one file descriptor
+                        key.interestOps(key.interestOps() | ops);
+                    } else {
+                        selectable.register(selector, ops);
+                    }
+                    channels[i] = selectable;
+                }
+                doSelect(selector, ready > 0 ? 0 : timeoutMs);
+                for (int i = 0; i < fds.length; i++) {
+                    if (channels[i] != null) {
+                        SelectionKey key = channels[i].keyFor(selector);
+                        if (selector.selectedKeys().contains(key)) {
+                            revents[i] = fromReadyOps(key.readyOps()) & events[i];
+                            ready += revents[i] != 0 ? 1 : 0;
+                        }
+                    }
+                }
+                return ready;
+            } finally {
+                // closing the selector has deregistered the channels
+                for (SelectableChannel channel : wereBlocking) {
+                    channel.configureBlocking(true);
+                }
+            }
+        } catch (IOException e) {
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public int epollCreate() throws PosixException {
+        try {
+            return openChannel(new EmulatedEpoll(Selector.open()));
+        } catch (IOException e) {
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public void epollCtl(int epfd, int op, int fd, int events) throws PosixException {
+        EmulatedEpoll epoll = getEpoll(epfd);
+        Channel channel = getFileChannel(fd);
+        if (channel == null) {
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        EpollEntry entry = epoll.entries.get(fd);
+        try {
+            switch (op) {
+                case PosixSupportLibrary.EPOLL_CTL_ADD:
+                    if (entry != null) {
+                        throw posixException(OSErrorEnum.EEXIST);
+                    }
+                    SelectableChannel selectable = toSelectableChannel(channel);
+                    if (selectable == null) {
+                        throw posixException(OSErrorEnum.EPERM);
+                    }
+                    entry = new EpollEntry(fd, selectable, events);
+                    if (!selectable.isBlocking()) {
+                        entry.key = selectable.register(epoll.selector, toInterestOps(selectable, events), entry);
+                    }
+                    epoll.entries.put(fd, entry);
+                    break;
+                case PosixSupportLibrary.EPOLL_CTL_MOD:
+                    if (entry == null) {
+                        throw posixException(OSErrorEnum.ENOENT);
+                    }
+                    entry.events = events;
+                    entry.disabled = false;
+                    if (entry.key != null && entry.key.isValid()) {
+                        entry.key.interestOps(toInterestOps(entry.channel, events));
+                    }
+                    break;
+                case PosixSupportLibrary.EPOLL_CTL_DEL:
+                    if (entry == null) {
+                        throw posixException(OSErrorEnum.ENOENT);
+                    }
+                    if (entry.key != null) {
+                        entry.key.cancel();
+                    }
+                    epoll.entries.remove(fd);
+                    break;
+                default:
+                    throw posixException(OSErrorEnum.EINVAL);
+            }
+        } catch (IOException e) {
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public int epollWait(int epfd, int[] fds, int[] events, int timeoutMs) throws PosixException {
+        EmulatedEpoll epoll = getEpoll(epfd);
+        Selector selector = epoll.selector;
+        ArrayList<EpollEntry> temporary = new ArrayList<>();
+        try {
+            try {
+                Iterator<EpollEntry> it = epoll.entries.values().iterator();
+                while (it.hasNext()) {
+                    EpollEntry entry = it.next();
+                    if (!entry.channel.isOpen()) {
+                        // closed file descriptors are removed automatically
+                        it.remove();
+                    } else if (entry.key == null || !entry.key.isValid()) {
+                        int ops = entry.disabled ? 0 : toInterestOps(entry.channel, entry.events);
+                        if (entry.channel.isBlocking()) {
+                            entry.channel.configureBlocking(false);
+                            temporary.add(entry);
+                        }
+                        entry.key = entry.channel.register(selector, ops, entry);
+                    }
+                }
+                doSelect(selector, timeoutMs);
+                int n = 0;
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (n == fds.length) {
+                        break;
+                    }
+                    EpollEntry entry = (EpollEntry) key.attachment();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    int ev = fromReadyOps(key.readyOps()) & entry.events;
+                    if (ev != 0) {
+                        fds[n] = entry.fd;
+                        events[n] = ev;
+                        n++;
+                        if ((entry.events & PosixSupportLibrary.EPOLLONESHOT) != 0) {
+                            entry.disabled = true;
+                            key.interestOps(0);
+                        }
+                    }
+                }
+                return n;
+            } finally {
+                // readiness is checked again by the next wait, this also drops events that did not
+                // fit into the output arrays
+                selector.selectedKeys().clear();
+                if (!temporary.isEmpty()) {
+                    for (EpollEntry entry : temporary) {
+                        entry.key.cancel();
+                        entry.key = null;
+                    }
+                    // deregisters the cancelled keys so that the channels can block again
+                    selector.selectNow();
+                    selector.selectedKeys().clear();
+                    for (EpollEntry entry : temporary) {
+                        entry.channel.configureBlocking(true);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw posixException(OSErrorEnum.fromException(e));
+        }
+    }
+
+    private EmulatedEpoll getEpoll(int epfd) throws PosixException {
+        Channel channel = getFileChannel(epfd);
+        if (channel == null) {
+            throw posixException(OSErrorEnum.EBADF);
+        }
+        if (!(channel instanceof EmulatedEpoll)) {
+            throw posixException(OSErrorEnum.EINVAL);
+        }
+        return (EmulatedEpoll) channel;
+    }
+
+    private static SelectableChannel toSelectableChannel(Channel channel) {
+        if (channel instanceof PSocket) {
+            PSocket socket = (PSocket) channel;
+            return socket.getSocket() != null ? socket.getSocket() : socket.getServerSocket();
+        }
+        return channel instanceof SelectableChannel ? (SelectableChannel) channel : null;
+    }
+
+    // POLLIN and POLLOUT have the same values as EPOLLIN and EPOLLOUT
+    private static int toInterestOps(SelectableChannel channel, int events) {
+        int ops = 0;
+        if ((events & PosixSupportLibrary.EPOLLIN) != 0) {
+            ops |= SelectionKey.OP_READ | SelectionKey.OP_ACCEPT;
+        }
+        if ((events & PosixSupportLibrary.EPOLLOUT) != 0) {
+            ops |= SelectionKey.OP_WRITE;
+            if (channel instanceof SocketChannel && ((SocketChannel) channel).isConnectionPending()) {
+                ops |= SelectionKey.OP_CONNECT;
+            }
+        }
+        return ops & channel.validOps();
+    }
+
+    private static int fromReadyOps(int readyOps) {
+        int events = 0;
+        if ((readyOps & (SelectionKey.OP_READ | SelectionKey.OP_ACCEPT)) != 0) {
+            events |= PosixSupportLibrary.EPOLLIN;
+        }
+        if ((readyOps & (SelectionKey.OP_WRITE | SelectionKey.OP_CONNECT)) != 0) {
+            events |= PosixSupportLibrary.EPOLLOUT;
+        }
+        return events;
+    }
+
+    private static void doSelect(Selector selector, int timeoutMs) throws IOException {
+        if (timeoutMs < 0) {
+            selector.select();
+        } else if (timeoutMs == 0) {
+            selector.selectNow();
+        } else {
+            selector.select(timeoutMs);
+        }
+    }
+
+    /**
+     * Emulates an epoll instance with a {@link Selector}. Channels in non-blocking mode stay
+     * registered with the selector, so waiting does not depend on the number of idle channels.
+     * Channels in blocking mode cannot stay registered and are switched to non-blocking mode only
+     * for the duration of each wait. Consequently, a channel registered in non-blocking mode must be
+     * unregistered before switching it to blocking mode.
+     */
+    private static final class EmulatedEpoll implements Channel {
+        final Selector selector;
+        final HashMap<Integer, EpollEntry> entries = new HashMap<>();
+
+        EmulatedEpoll(Selector selector) {
+            this.selector = selector;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return selector.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            selector.close();
+        }
+    }
+
+    private static final class EpollEntry {
+        final int fd;
+        final SelectableChannel channel;
+        int events;
+        SelectionKey key;
+        boolean disabled;
+
+        EpollEntry(int fd, SelectableChannel channel, int events) {
+            this.fd = fd;
+            this.channel = channel;
+            this.events = events;
+        }
+    }
+
     @ExportMessage
     public long lseek(int fd, long offset, int how,
                     @Shared("channelClass") @Cached("createClassProfile()") ValueProfile channelClassProfile,
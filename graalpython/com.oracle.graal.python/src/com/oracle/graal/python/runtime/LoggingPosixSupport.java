@@ -180,6 +180,72 @@ public class LoggingPosixSupport extends PosixSupport {
         }
     }
 
+    @ExportMessage
+    final long readinto(int fd, byte[] buf, int offset, int length,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("readinto", "%d, %d, %d", fd, offset, length);
+        try {
+            return logExit("readinto", "%d", lib.readinto(delegate, fd, buf, offset, length));
+        } catch (PosixException e) {
+            throw logException("readinto", e);
+        }
+    }
+
+    @ExportMessage
+    final long pread(int fd, byte[] buf, int offset, int length, long position,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("pread", "%d, %d, %d, %d", fd, offset, length, position);
+        try {
+            return logExit("pread", "%d", lib.pread(delegate, fd, buf, offset, length, position));
+        } catch (PosixException e) {
+            throw logException("pread", e);
+        }
+    }
+
+    @ExportMessage
+    final long pwrite(int fd, byte[] buf, int offset, int length, long position,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("pwrite", "%d, %d, %d, %d", fd, offset, length, position);
+        try {
+            return logExit("pwrite", "%d", lib.pwrite(delegate, fd, buf, offset, length, position));
+        } catch (PosixException e) {
+            throw logException("pwrite", e);
+        }
+    }
+
+    @ExportMessage
+    final long readv(int fd, Buffer[] buffers,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("readv", "%d, %d", fd, buffers.length);
+        try {
+            return logExit("readv", "%d", lib.readv(delegate, fd, buffers));
+        } catch (PosixException e) {
+            throw logException("readv", e);
+        }
+    }
+
+    @ExportMessage
+    final long writev(int fd, Buffer[] buffers,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("writev", "%d, %d", fd, buffers.length);
+        try {
+            return logExit("writev", "%d", lib.writev(delegate, fd, buffers));
+        } catch (PosixException e) {
+            throw logException("writev", e);
+        }
+    }
+
+    @ExportMessage
+    final long sendfile(int outFd, int inFd, long offset, long count,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("sendfile", "%d, %d, %d, %d", outFd, inFd, offset, count);
+        try {
+            return logExit("sendfile", "%d", lib.sendfile(delegate, outFd, inFd, offset, count));
+        } catch (PosixException e) {
+            throw logException("sendfile", e);
+        }
+    }
+
     @ExportMessage
     final int dup(int fd,
                     @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
@@ -247,6 +313,50 @@ public class LoggingPosixSupport extends PosixSupport {
         }
     }
 
+    @ExportMessage
+    final int poll(int[] fds, int[] events, int[] revents, int timeoutMs,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("poll", "%s, %s, %d", fds, events, timeoutMs);
+        try {
+            return logExit("poll", "%d", lib.poll(delegate, fds, events, revents, timeoutMs));
+        } catch (PosixException e) {
+            throw logException("poll", e);
+        }
+    }
+
+    @ExportMessage
+    final int epollCreate(
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("epollCreate", "");
+        try {
+            return logExit("epollCreate", "%d", lib.epollCreate(delegate));
+        } catch (PosixException e) {
+            throw logException("epollCreate", e);
+        }
+    }
+
+    @ExportMessage
+    final void epollCtl(int epfd, int op, int fd, int events,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("epollCtl", "%d, %d, %d, %d", epfd, op, fd, events);
+        try {
+            lib.epollCtl(delegate, epfd, op, fd, events);
+        } catch (PosixException e) {
+            throw logException("epollCtl", e);
+        }
+    }
+
+    @ExportMessage
+    final int epollWait(int epfd, int[] fds, int[] events, int timeoutMs,
+                    @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
+        logEnter("epollWait", "%d, %d, %d", epfd, fds.length, timeoutMs);
+        try {
+            return logExit("epollWait", "%d", lib.epollWait(delegate, epfd, fds, events, timeoutMs));
+        } catch (PosixException e) {
+            throw logException("epollWait", e);
+        }
+    }
+
     @ExportMessage
     final long lseek(int fd, long offset, int how,
                     @CachedLibrary("this.delegate") PosixSupportLibrary lib) throws PosixException {
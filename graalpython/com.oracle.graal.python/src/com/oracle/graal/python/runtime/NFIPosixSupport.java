@@ -102,10 +102,18 @@ public final class NFIPosixSupport extends PosixSupport {
         call_close("(sint32):sint32"),
         call_read("(sint32, [sint8], uint64):sint64"),
         call_write("(sint32, [sint8], uint64):sint64"),
+        call_readinto("(sint32, [sint8], uint64, uint64):sint64"),
+        call_pread("(sint32, [sint8], uint64, uint64, sint64):sint64"),
+        call_pwrite("(sint32, [sint8], uint64, uint64, sint64):sint64"),
+        call_sendfile("(sint32, sint32, sint64, sint64):sint64"),
         call_dup("(sint32):sint32"),
         call_dup2("(sint32, sint32, sint32):sint32"),
         call_pipe2("([sint32]):sint32"),
         call_select("(sint32, [sint32], sint32, [sint32], sint32, [sint32], sint32, sint64, sint64, [sint8]):sint32"),
+        call_poll("([sint32], [sint32], [sint32], sint32, sint32):sint32"),
+        call_epoll_create("():sint32"),
+        call_epoll_ctl("(sint32, sint32, sint32, sint32):sint32"),
+        call_epoll_wait("(sint32, [sint32], [sint32], sint32, sint32):sint32"),
         call_lseek("(sint32, sint64, sint32):sint64"),
         call_ftruncate("(sint32, sint64):sint32"),
         call_fsync("(sint32):sint32"),
@@ -350,6 +358,104 @@ public final class NFIPosixSupport extends PosixSupport {
         return n;
     }
 
+    @ExportMessage
+    public long readinto(int fd, byte[] buf, int offset, int length,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        setErrno(invokeNode, 0);
+        long n = invokeNode.callLong(this, PosixNativeFunction.call_readinto, fd, wrap(buf), offset, Math.min(length, MAX_READ));
+        if (n < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return n;
+    }
+
+    @ExportMessage
+    public long pread(int fd, byte[] buf, int offset, int length, long position,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        setErrno(invokeNode, 0);
+        long n = invokeNode.callLong(this, PosixNativeFunction.call_pread, fd, wrap(buf), offset, Math.min(length, MAX_READ), position);
+        if (n < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return n;
+    }
+
+    @ExportMessage
+    public long pwrite(int fd, byte[] buf, int offset, int length, long position,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        setErrno(invokeNode, 0);
+        long n = invokeNode.callLong(this, PosixNativeFunction.call_pwrite, fd, wrap(buf), offset, length, position);
+        if (n < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return n;
+    }
+
+    // NFI cannot pass an iovec of Java arrays, so readv and writev go through a single read or
+    // write into a gathered array; the common single-buffer case needs no copy at all.
+    @ExportMessage
+    public long readv(int fd, Buffer[] buffers,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        if (buffers.length == 1) {
+            return readinto(fd, buffers[0].data, 0, (int) buffers[0].length, invokeNode);
+        }
+        long total = 0;
+        for (Buffer b : buffers) {
+            total += b.length;
+        }
+        byte[] tmp = new byte[(int) Math.min(total, MAX_READ)];
+        long n = readinto(fd, tmp, 0, tmp.length, invokeNode);
+        scatter(tmp, n, buffers);
+        return n;
+    }
+
+    @ExportMessage
+    public long writev(int fd, Buffer[] buffers,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        if (buffers.length == 1) {
+            return write(fd, buffers[0], invokeNode);
+        }
+        return write(fd, gather(buffers), invokeNode);
+    }
+
+    @ExportMessage
+    public long sendfile(int outFd, int inFd, long offset, long count,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        setErrno(invokeNode, 0);
+        long n = invokeNode.callLong(this, PosixNativeFunction.call_sendfile, outFd, inFd, offset, count);
+        if (n < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return n;
+    }
+
+    @TruffleBoundary
+    private static void scatter(byte[] src, long length, Buffer[] buffers) {
+        int srcPos = 0;
+        for (int i = 0; i < buffers.length && srcPos < length; i++) {
+            int n = (int) Math.min(buffers[i].length, length - srcPos);
+            System.arraycopy(src, srcPos, buffers[i].data, 0, n);
+            srcPos += n;
+        }
+    }
+
+    @TruffleBoundary
+    private static Buffer gather(Buffer[] buffers) {
+        // like a partial write, anything beyond MAX_READ is left for the caller to retry
+        long total = 0;
+        for (Buffer b : buffers) {
+            total += b.length;
+        }
+        byte[] data = new byte[(int) Math.min(total, MAX_READ)];
+        int pos = 0;
+        for (int i = 0; i < buffers.length && pos < data.length; i++) {
+            int n = (int) Math.min(buffers[i].length, data.length - pos);
+            System.arraycopy(buffers[i].data, 0, data, pos, n);
+            pos += n;
+        }
+        return Buffer.wrap(data);
+    }
+
     @ExportMessage
     public int dup(int fd,
                     @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
@@ -451,6 +557,45 @@ public final class NFIPosixSupport extends PosixSupport {
         return max;
     }
 
+    @ExportMessage
+    public int poll(int[] fds, int[] events, int[] revents, int timeoutMs,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        int res = invokeNode.callInt(this, PosixNativeFunction.call_poll, wrap(fds), wrap(events), wrap(revents), fds.length, timeoutMs);
+        if (res < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return res;
+    }
+
+    @ExportMessage
+    public int epollCreate(
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        int res = invokeNode.callInt(this, PosixNativeFunction.call_epoll_create);
+        if (res < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return res;
+    }
+
+    @ExportMessage
+    public void epollCtl(int epfd, int op, int fd, int events,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        int res = invokeNode.callInt(this, PosixNativeFunction.call_epoll_ctl, epfd, op, fd, events);
+        if (res != 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+    }
+
+    @ExportMessage
+    public int epollWait(int epfd, int[] fds, int[] events, int timeoutMs,
+                    @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
+        int res = invokeNode.callInt(this, PosixNativeFunction.call_epoll_wait, epfd, wrap(fds), wrap(events), fds.length, timeoutMs);
+        if (res < 0) {
+            throw getErrnoAndThrowPosixException(invokeNode);
+        }
+        return res;
+    }
+
     @ExportMessage
     public long lseek(int fd, long offset, int how,
                     @Shared("invoke") @Cached InvokeNativeFunction invokeNode) throws PosixException {
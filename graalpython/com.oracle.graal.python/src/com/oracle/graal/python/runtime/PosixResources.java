@@ -333,6 +333,15 @@ public class PosixResources extends PosixSupport {
         }
     }
 
+    @TruffleBoundary
+    public int openChannel(Channel channel) {
+        synchronized (files) {
+            int fd = nextFreeFd();
+            addFD(fd, channel);
+            return fd;
+        }
+    }
+
     @TruffleBoundary
     public void reopenSocket(PSocket socket, int fd) {
         addFD(fd, socket);
@@ -75,6 +75,32 @@ public abstract class PosixSupportLibrary extends Library {
     public static final int DT_REG = 8;
     public static final int DT_LNK = 10;
 
+    public static final int POLLIN = 0x001;
+    public static final int POLLPRI = 0x002;
+    public static final int POLLOUT = 0x004;
+    public static final int POLLERR = 0x008;
+    public static final int POLLHUP = 0x010;
+    public static final int POLLNVAL = 0x020;
+
+    public static final int EPOLLIN = 0x001;
+    public static final int EPOLLPRI = 0x002;
+    public static final int EPOLLOUT = 0x004;
+    public static final int EPOLLERR = 0x008;
+    public static final int EPOLLHUP = 0x010;
+    public static final int EPOLLRDNORM = 0x040;
+    public static final int EPOLLRDBAND = 0x080;
+    public static final int EPOLLWRNORM = 0x100;
+    public static final int EPOLLWRBAND = 0x200;
+    public static final int EPOLLMSG = 0x400;
+    public static final int EPOLLRDHUP = 0x2000;
+    public static final int EPOLLEXCLUSIVE = 1 << 28;
+    public static final int EPOLLONESHOT = 1 << 30;
+    public static final int EPOLLET = 1 << 31;
+
+    public static final int EPOLL_CTL_ADD = 1;
+    public static final int EPOLL_CTL_DEL = 2;
+    public static final int EPOLL_CTL_MOD = 3;
+
     public abstract String getBackend(Object recevier);
 
     public abstract String strerror(Object receiver, int errorCode);
@@ -91,6 +117,50 @@ public abstract class PosixSupportLibrary extends Library {
 
     public abstract long write(Object receiver, int fd, Buffer data) throws PosixException;
 
+    /**
+     * Reads at most {@code length} bytes into {@code buf} starting at index {@code offset}. Unlike
+     * {@link #read}, this does not allocate a new buffer.
+     *
+     * @return the number of bytes read, {@code 0} at end of file
+     */
+    public abstract long readinto(Object receiver, int fd, byte[] buf, int offset, int length) throws PosixException;
+
+    /**
+     * Like {@link #readinto} but reads from the given file position without changing the file
+     * offset.
+     */
+    public abstract long pread(Object receiver, int fd, byte[] buf, int offset, int length, long position) throws PosixException;
+
+    /**
+     * Writes {@code length} bytes of {@code buf} starting at index {@code offset} to the given file
+     * position without changing the file offset.
+     */
+    public abstract long pwrite(Object receiver, int fd, byte[] buf, int offset, int length, long position) throws PosixException;
+
+    /**
+     * Reads into the given buffers in order, filling each buffer up to its {@link Buffer#length}
+     * before proceeding to the next one. The lengths of the buffers are not updated.
+     *
+     * @return the total number of bytes read
+     */
+    public abstract long readv(Object receiver, int fd, Buffer[] buffers) throws PosixException;
+
+    /**
+     * Writes the contents of the given buffers in order.
+     *
+     * @return the total number of bytes written
+     */
+    public abstract long writev(Object receiver, int fd, Buffer[] buffers) throws PosixException;
+
+    /**
+     * Copies at most {@code count} bytes starting at file position {@code offset} of {@code inFd}
+     * to {@code outFd} without passing the data through a user-space buffer. The file offset of
+     * {@code inFd} is not changed.
+     *
+     * @return the number of bytes written to {@code outFd}
+     */
+    public abstract long sendfile(Object receiver, int outFd, int inFd, long offset, long count) throws PosixException;
+
     public abstract int dup(Object receiver, int fd) throws PosixException;
 
     public abstract int dup2(Object receiver, int fd, int fd2, boolean inheritable) throws PosixException;
@@ -103,6 +173,40 @@ public abstract class PosixSupportLibrary extends Library {
 
     public abstract SelectResult select(Object receiver, int[] readfds, int[] writefds, int[] errorfds, Timeval timeout) throws PosixException;
 
+    /**
+     * Waits for events on the given file descriptors, like POSIX {@code poll}.
+     *
+     * @param events the requested {@code POLLxxx} events for each file descriptor
+     * @param revents output parameter, receives the returned events for each file descriptor
+     * @param timeoutMs the timeout in milliseconds, a negative value means no timeout
+     * @return the number of file descriptors with non-zero {@code revents}
+     */
+    public abstract int poll(Object receiver, int[] fds, int[] events, int[] revents, int timeoutMs) throws PosixException;
+
+    /**
+     * Creates a new epoll instance. The returned file descriptor is closed using
+     * {@link #close(Object, int)}.
+     */
+    public abstract int epollCreate(Object receiver) throws PosixException;
+
+    /**
+     * Adds, modifies or removes the registration of {@code fd} in the epoll instance {@code epfd}.
+     *
+     * @param op one of the {@code EPOLL_CTL_xxx} constants
+     * @param events the {@code EPOLLxxx} events, ignored for {@link #EPOLL_CTL_DEL}
+     */
+    public abstract void epollCtl(Object receiver, int epfd, int op, int fd, int events) throws PosixException;
+
+    /**
+     * Waits for at most {@code fds.length} events on the epoll instance {@code epfd}.
+     *
+     * @param fds output parameter, receives the ready file descriptors
+     * @param events output parameter, receives the events of the ready file descriptors
+     * @param timeoutMs the timeout in milliseconds, a negative value means no timeout
+     * @return the number of items filled in {@code fds} and {@code events}
+     */
+    public abstract int epollWait(Object receiver, int epfd, int[] fds, int[] events, int timeoutMs) throws PosixException;
+
     public abstract long lseek(Object receiver, int fd, long offset, int how) throws PosixException;
 
     public abstract void ftruncate(Object receiver, int fd, long length) throws PosixException;
@@ -62,10 +62,12 @@ import com.oracle.graal.python.builtins.objects.cext.capi.CApiContext;
 import com.oracle.graal.python.builtins.objects.cext.capi.PThreadState;
 import com.oracle.graal.python.builtins.objects.cext.capi.PythonNativeWrapper;
 import com.oracle.graal.python.builtins.objects.cext.hpy.GraalHPyContext;
+import com.oracle.graal.python.builtins.objects.cext.hpy.GraalHPyHandleTable.HandleCache;
 import com.oracle.graal.python.builtins.objects.common.HashingCollectionNodes.GetDictStorageNode;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary;
 import com.oracle.graal.python.builtins.objects.common.SequenceStorageNodes;
+import com.oracle.graal.python.builtins.objects.contextvars.PContextVarsContext;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.frame.PFrame;
 import com.oracle.graal.python.builtins.objects.frame.PFrame.Reference;
@@ -77,8 +79,11 @@ import com.oracle.graal.python.builtins.objects.str.PString;
 import com.oracle.graal.python.builtins.objects.thread.PLock;
 import com.oracle.graal.python.nodes.SpecialAttributeNames;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
+import com.oracle.graal.python.nodes.attributes.MethodCache;
 import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
 import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.parser.ImportPrefetcher;
+import com.oracle.graal.python.parser.PythonParserImpl;
 import com.oracle.graal.python.runtime.AsyncHandler.AsyncAction;
 import com.oracle.graal.python.runtime.exception.ExceptionUtils;
 import com.oracle.graal.python.runtime.exception.PException;
@@ -92,6 +97,7 @@ import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.ContextThreadLocal;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.TruffleFile;
 import com.oracle.truffle.api.TruffleLanguage;
@@ -107,14 +113,15 @@ import com.oracle.truffle.api.utilities.CyclicAssumption;
 public final class PythonContext {
     private static final TruffleLogger LOGGER = PythonLanguage.getLogger(PythonContext.class);
     private volatile boolean finalizing;
+    private ImportPrefetcher importPrefetcher;
 
-    private static final class PythonThreadState {
+    /**
+     * The per-thread state of a context. It is stored in a {@link ContextThreadLocal} of the
+     * {@link PythonLanguage}, so that compiled code can read it without a boundary call.
+     */
+    public static final class PythonThreadState {
 
-        /*
-         * A thread state may be owned by multiple threads if we know that these threads won't run
-         * concurrently.
-         */
-        final List<WeakReference<Thread>> owners;
+        final WeakReference<Thread> owner;
 
         /*
          * The reference to the last top frame on the Python stack during interop calls. Initially,
@@ -133,40 +140,21 @@ public final class PythonContext {
         /* set to emulate Py_ReprEnter/Leave */
         HashSet<Object> reprObjectSet;
 
-        PythonThreadState() {
-            owners = new LinkedList<>();
-        }
-
-        PythonThreadState(Thread owner) {
-            this();
-            addOwner(owner);
-        }
-
-        void addOwner(Thread owner) {
-            owners.add(new WeakReference<>(owner));
-        }
+        /* corresponds to 'PyThreadState.context', created lazily */
+        PContextVarsContext contextVarsContext;
 
-        void removeOwner(Thread thread) {
-            owners.removeIf(item -> item.get() == thread);
-        }
+        /* the full paths of the currently active import statements, for Jython compat */
+        ArrayDeque<String> currentImport;
 
-        boolean isOwner(Thread thread) {
-            for (WeakReference<Thread> owner : owners) {
-                if (owner.get() == thread) {
-                    return true;
-                }
-            }
-            return false;
-        }
+        /* the free HPy handles reserved for this thread, created lazily */
+        HandleCache hpyHandleCache;
 
-        boolean hasOwners() {
-            // first, remove all gone weak references
-            owners.removeIf(item -> item.get() == null);
-            return !owners.isEmpty();
+        public PythonThreadState(@SuppressWarnings("unused") PythonContext context, Thread owner) {
+            this.owner = new WeakReference<>(owner);
         }
 
-        List<WeakReference<Thread>> getOwners() {
-            return owners;
+        Thread getOwner() {
+            return owner.get();
         }
 
         @TruffleBoundary
@@ -214,6 +202,7 @@ public final class PythonContext {
     private final HashMap<PythonNativeClass, CyclicAssumption> nativeClassStableAssumptions = new HashMap<>();
     private final ThreadGroup threadGroup = new ThreadGroup(GRAALPYTHON_THREADS);
     private final IDUtils idUtils = new IDUtils();
+    private final MethodCache methodCache = new MethodCache();
 
     @CompilationFinal private PosixSupport posixSupport;
     @CompilationFinal private NFIZlibSupport nativeZlib;
@@ -225,14 +214,8 @@ public final class PythonContext {
 
     @CompilationFinal private TruffleLanguage.Env env;
 
-    /* this will be the single thread state if running single-threaded */
-    private final PythonThreadState singleThreadState = new PythonThreadState();
-
-    /* for fast access to the PythonThreadState object by the owning thread */
-    private ThreadLocal<PythonThreadState> threadState;
-
-    /* map of thread IDs to indices for array 'threadStates' */
-    private Map<Long, PythonThreadState> threadStateMapping;
+    /* map of thread IDs to the thread states of all threads attached to this context */
+    private final Map<Long, PythonThreadState> threadStateMapping = new HashMap<>();
 
     private final ReentrantLock importLock = new ReentrantLock();
     @CompilationFinal private boolean isInitialized = false;
@@ -266,10 +249,6 @@ public final class PythonContext {
     // decides if we run the async weakref callbacks and destructors
     private boolean gcEnabled = true;
 
-    // A thread-local to store the full path to the currently active import statement, for Jython
-    // compat
-    private final ThreadLocal<ArrayDeque<String>> currentImport = new ThreadLocal<>();
-
     @CompilationFinal(dimensions = 1) private Object[] optionValues;
 
     public PythonContext(PythonLanguage language, TruffleLanguage.Env env, Python3Core core) {
@@ -284,6 +263,10 @@ public final class PythonContext {
         this.err = env.err();
     }
 
+    public MethodCache getMethodCache() {
+        return methodCache;
+    }
+
     public ThreadGroup getThreadGroup() {
         return threadGroup;
     }
@@ -442,6 +425,14 @@ public final class PythonContext {
         getThreadState().reprLeave(item);
     }
 
+    public PContextVarsContext getContextVarsContext() {
+        return getThreadState().contextVarsContext;
+    }
+
+    public void setContextVarsContext(PContextVarsContext context) {
+        getThreadState().contextVarsContext = context;
+    }
+
     public boolean isInitialized() {
         return isInitialized;
     }
@@ -452,7 +443,10 @@ public final class PythonContext {
         setupRuntimeInformation(false);
         core.postInitialize();
         if (!ImageInfo.inImageBuildtimeCode()) {
+            initializeImportPrefetcher();
             importSiteIfForced();
+        } else if (getOption(PythonOptions.ParserPrewarmAtBuildTime)) {
+            ((PythonParserImpl) core.getParser()).prewarmPredictionCache(this, env.getInternalTruffleFile(getStdlibHome()));
         }
     }
 
@@ -460,9 +454,29 @@ public final class PythonContext {
         setEnv(newEnv);
         setupRuntimeInformation(true);
         core.postInitialize();
+        initializeImportPrefetcher();
         importSiteIfForced();
     }
 
+    private void initializeImportPrefetcher() {
+        int threads = getOption(PythonOptions.PrefetchImportThreads);
+        if (threads > 0) {
+            if (env.isCreateThreadAllowed() && PythonOptions.isWithThread(env)) {
+                importPrefetcher = new ImportPrefetcher(this, (PythonParserImpl) core.getParser(), threads);
+            } else {
+                LOGGER.warning("Import prefetching is disabled because it requires thread creation to be allowed and python.WithThread to be enabled.");
+            }
+        }
+    }
+
+    /**
+     * Returns the service that parses imported modules in the background, or {@code null} if
+     * prefetching is disabled.
+     */
+    public ImportPrefetcher getImportPrefetcher() {
+        return importPrefetcher;
+    }
+
     private void importSiteIfForced() {
         if (getOption(PythonOptions.ForceImportSite)) {
             CallTarget site = env.parsePublic(Source.newBuilder(PythonLanguage.ID, "import site\n", "<internal>").internal(true).build());
@@ -774,6 +788,10 @@ public final class PythonContext {
     @TruffleBoundary
     public void finalizeContext() {
         finalizing = true;
+        if (importPrefetcher != null) {
+            // the worker threads must be gone before we join all threads of the context
+            importPrefetcher.shutdown();
+        }
         shutdownThreads();
         runShutdownHooks();
     }
@@ -857,9 +875,11 @@ public final class PythonContext {
             LinkedList<WeakReference<Thread>> threadList = new LinkedList<>();
             synchronized (this) {
                 for (PythonThreadState ts : threadStateMapping.values()) {
-                    // do not join the initial thread; this could cause a dead lock
-                    if (ts != singleThreadState) {
-                        threadList.addAll(ts.getOwners());
+                    // Only join threads created by Python, which are in our thread group. Threads
+                    // of the embedder are attached, too, but joining them could cause a dead lock.
+                    Thread owner = ts.getOwner();
+                    if (owner != null && owner != Thread.currentThread() && owner.getThreadGroup() == threadGroup) {
+                        threadList.add(ts.owner);
                     }
                 }
             }
@@ -1018,7 +1038,7 @@ public final class PythonContext {
 
     @TruffleBoundary
     public String getCurrentImport() {
-        ArrayDeque<String> ci = currentImport.get();
+        ArrayDeque<String> ci = getThreadState().currentImport;
         if (ci == null || ci.isEmpty()) {
             return "";
         } else {
@@ -1028,56 +1048,34 @@ public final class PythonContext {
 
     @TruffleBoundary
     public void pushCurrentImport(String object) {
-        ArrayDeque<String> ci = currentImport.get();
+        PythonThreadState ts = getThreadState();
+        ArrayDeque<String> ci = ts.currentImport;
         if (ci == null) {
             ci = new ArrayDeque<>();
-            currentImport.set(ci);
+            ts.currentImport = ci;
         }
         ci.push(object);
     }
 
     @TruffleBoundary
     public void popCurrentImport() {
-        assert currentImport.get() != null && currentImport.get().peek() != null : "invalid popCurrentImport without push";
-        currentImport.get().pop();
+        ArrayDeque<String> ci = getThreadState().currentImport;
+        assert ci != null && ci.peek() != null : "invalid popCurrentImport without push";
+        ci.pop();
     }
 
     private PythonThreadState getThreadState() {
-        if (singleThreaded.isValid()) {
-            return singleThreadState;
-        }
-        return getThreadStateMultiThreaded();
-    }
-
-    @TruffleBoundary
-    private PythonThreadState getThreadStateMultiThreaded() {
-        PythonThreadState curThreadState = threadState.get();
-        if (curThreadState == null) {
-            // this should happen just the first time the current thread accesses the thread state
-            curThreadState = getThreadStateFullLookup();
-            threadState.set(curThreadState);
-        }
-        assert curThreadState.isOwner(Thread.currentThread());
-        return curThreadState;
+        return language.getThreadState();
     }
 
     private void applyToAllThreadStates(Consumer<PythonThreadState> action) {
-        if (singleThreaded.isValid()) {
-            action.accept(singleThreadState);
-        } else {
-            synchronized (this) {
-                for (PythonThreadState ts : threadStateMapping.values()) {
-                    action.accept(ts);
-                }
+        synchronized (this) {
+            for (PythonThreadState ts : threadStateMapping.values()) {
+                action.accept(ts);
             }
         }
     }
 
-    @TruffleBoundary
-    private synchronized PythonThreadState getThreadStateFullLookup() {
-        return threadStateMapping.get(Thread.currentThread().getId());
-    }
-
     public void setSentinelLockWeakref(WeakReference<PLock> sentinelLock) {
         getThreadState().sentinelLock = sentinelLock;
     }
@@ -1086,52 +1084,21 @@ public final class PythonContext {
     public void initializeMultiThreading() {
         interopLock = new ReentrantLock();
         singleThreaded.invalidate();
-        threadState = new ThreadLocal<>();
-        synchronized (this) {
-            threadStateMapping = new HashMap<>();
-            for (WeakReference<Thread> ownerRef : singleThreadState.getOwners()) {
-                Thread owner = ownerRef.get();
-                if (owner != null) {
-                    threadStateMapping.put(owner.getId(), singleThreadState);
-                }
-            }
-        }
     }
 
-    public synchronized void attachThread(Thread thread) {
+    public synchronized void attachThread(Thread thread, PythonThreadState threadState) {
         CompilerAsserts.neverPartOfCompilation();
-        if (singleThreaded.isValid()) {
-            assert threadStateMapping == null;
-
-            // n.b.: Several threads may be attached to the context but we may still be in the
-            // 'singleThreaded' mode because the threads won't run concurrently. For this case, we
-            // map each attached thread to index 0.
-            singleThreadState.addOwner(thread);
-        } else {
-            assert threadStateMapping != null;
-            threadStateMapping.put(thread.getId(), new PythonThreadState(thread));
-        }
+        threadStateMapping.put(thread.getId(), threadState);
     }
 
     public synchronized void disposeThread(Thread thread) {
         CompilerAsserts.neverPartOfCompilation();
-        long threadId = thread.getId();
+        PythonThreadState ts = threadStateMapping.remove(thread.getId());
+        assert ts != null : "thread was not attached to this context";
         // check if there is a live sentinel lock
-        if (singleThreaded.isValid()) {
-            assert threadStateMapping == null;
-            singleThreadState.removeOwner(thread);
-            // only release sentinel lock if all owners are gone
-            if (!singleThreadState.hasOwners()) {
-                releaseSentinelLock(singleThreadState.sentinelLock);
-            }
-        } else {
-            PythonThreadState ts = threadStateMapping.get(threadId);
-            assert ts != null : "thread was not attached to this context";
-            ts.removeOwner(thread);
-            threadStateMapping.remove(threadId);
-            if (!ts.hasOwners()) {
-                releaseSentinelLock(ts.sentinelLock);
-            }
+        releaseSentinelLock(ts.sentinelLock);
+        if (ts.hpyHandleCache != null && hPyContext != null) {
+            hPyContext.releaseHandleCache(ts.hpyHandleCache);
         }
     }
 
@@ -1167,6 +1134,17 @@ public final class PythonContext {
         hPyContext = new GraalHPyContext(this, hpyLibrary);
     }
 
+    /**
+     * Returns the free HPy handles reserved for the current thread.
+     */
+    public HandleCache getHPyHandleCache() {
+        PythonThreadState ts = getThreadState();
+        if (ts.hpyHandleCache == null) {
+            ts.hpyHandleCache = new HandleCache();
+        }
+        return ts.hpyHandleCache;
+    }
+
     public GraalHPyContext getHPyContext() {
         assert hPyContext != null : "tried to get HPy context but was not created yet";
         return hPyContext;
@@ -158,6 +158,26 @@ public final class PythonOptions {
     @Option(category = OptionCategory.EXPERT, help = "Prints parser time statistics after number of parsed files, set by this option. 0 or <0 means no statistics are printed.") //
     public static final OptionKey<Integer> ParserStatistics = new OptionKey<>(0);
 
+    @Option(category = OptionCategory.EXPERT, help = "Cache the SST of the core library files executed during context initialization in __pycache__ directories (or below PyCachePrefix). " +
+                    "Modules imported after initialization are not affected, importlib caches them in .pyc files. " +
+                    "Unlike .pyc files, these are written regardless of DontWriteBytecodeFlag.") //
+    public static final OptionKey<Boolean> InitializationSSTCache = new OptionKey<>(true);
+
+    @Option(category = OptionCategory.EXPERT, help = "Parse with the faster SLL prediction of ANTLR first and only parse again with full LL prediction if that fails.") //
+    public static final OptionKey<Boolean> ParserSLLPrediction = new OptionKey<>(true);
+
+    @Option(category = OptionCategory.EXPERT, help = "When building a native image with a pre-initialized context, parse the modules of the standard library, " +
+                    "so that the prediction cache of the parser is stored in the image.") //
+    public static final OptionKey<Boolean> ParserPrewarmAtBuildTime = new OptionKey<>(false);
+
+    @EngineOption @Option(category = OptionCategory.EXPERT, help = "Translate the bodies of functions defined in modules to Truffle nodes only when they are called for the first time. " +
+                    "Syntax errors that are only detected during the translation are reported on the first call.") //
+    public static final OptionKey<Boolean> LazyFunctionBodies = new OptionKey<>(false);
+
+    @Option(category = OptionCategory.EXPERT, help = "Number of background threads that parse the modules imported at the top level of a module while it runs. " +
+                    "0 disables prefetching. Requires thread creation to be allowed and WithThread to be enabled.") //
+    public static final OptionKey<Integer> PrefetchImportThreads = new OptionKey<>(0);
+
     @EngineOption @Option(category = OptionCategory.EXPERT, help = "") //
     public static final OptionKey<Integer> AttributeAccessInlineCacheMaxDepth = new OptionKey<>(5);
 
@@ -28,7 +28,9 @@ package com.oracle.graal.python.runtime.object;
 import java.io.ByteArrayOutputStream;
 import java.lang.ref.ReferenceQueue;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.nio.channels.SeekableByteChannel;
+import java.security.MessageDigest;
 import java.util.concurrent.Semaphore;
 
 import org.graalvm.collections.EconomicMap;
@@ -39,6 +41,19 @@ import com.oracle.graal.python.builtins.PythonBuiltinClassType;
 import com.oracle.graal.python.builtins.modules.PosixModuleBuiltins.PosixFileHandle;
 import com.oracle.graal.python.builtins.modules.bz2.BZ2Object;
 import com.oracle.graal.python.builtins.modules.io.PBuffered;
+import com.oracle.graal.python.builtins.modules.io.PBytesIO;
+import com.oracle.graal.python.builtins.modules.io.PNLDecoder;
+import com.oracle.graal.python.builtins.modules.io.PRWPair;
+import com.oracle.graal.python.builtins.modules.io.PStringIO;
+import com.oracle.graal.python.builtins.modules.io.PTextIO;
+import com.oracle.graal.python.builtins.modules.json.PJsonEncoder;
+import com.oracle.graal.python.builtins.modules.json.PJsonScanner;
+import com.oracle.graal.python.builtins.modules.pickle.PPickleBuffer;
+import com.oracle.graal.python.builtins.modules.pickle.PPickler;
+import com.oracle.graal.python.builtins.modules.pickle.PUnpickler;
+import com.oracle.graal.python.builtins.modules.struct.PStruct;
+import com.oracle.graal.python.builtins.modules.struct.PStructUnpackIterator;
+import com.oracle.graal.python.builtins.modules.struct.StructFormat;
 import com.oracle.graal.python.builtins.modules.zlib.ZLibCompObject;
 import com.oracle.graal.python.builtins.objects.array.PArray;
 import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
@@ -54,6 +69,12 @@ import com.oracle.graal.python.builtins.objects.common.HashingStorageLibrary.Has
 import com.oracle.graal.python.builtins.objects.common.LocalsStorage;
 import com.oracle.graal.python.builtins.objects.common.PHashingCollection;
 import com.oracle.graal.python.builtins.objects.complex.PComplex;
+import com.oracle.graal.python.builtins.objects.contextvars.Hamt;
+import com.oracle.graal.python.builtins.objects.contextvars.PContextVar;
+import com.oracle.graal.python.builtins.objects.contextvars.PContextVarsContext;
+import com.oracle.graal.python.builtins.objects.contextvars.PContextVarsToken;
+import com.oracle.graal.python.builtins.objects.deque.PDeque;
+import com.oracle.graal.python.builtins.objects.deque.PDequeIter;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.dict.PDictView;
 import com.oracle.graal.python.builtins.objects.dict.PDictView.PDictItemIterator;
@@ -70,6 +91,10 @@ import com.oracle.graal.python.builtins.objects.function.PBuiltinFunction;
 import com.oracle.graal.python.builtins.objects.function.PFunction;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.function.Signature;
+import com.oracle.graal.python.builtins.objects.functools.PLruCacheWrapper;
+import com.oracle.graal.python.builtins.objects.functools.PPartial;
+import com.oracle.graal.python.builtins.objects.hashlib.HashAlgorithm;
+import com.oracle.graal.python.builtins.objects.hashlib.PHashObject;
 import com.oracle.graal.python.builtins.objects.generator.PGenerator;
 import com.oracle.graal.python.builtins.objects.getsetdescriptor.GetSetDescriptor;
 import com.oracle.graal.python.builtins.objects.getsetdescriptor.HiddenKeyDescriptor;
@@ -87,6 +112,22 @@ import com.oracle.graal.python.builtins.objects.iterator.PSentinelIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PSequenceIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PStringIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PZip;
+import com.oracle.graal.python.builtins.objects.itertools.PAccumulate;
+import com.oracle.graal.python.builtins.objects.itertools.PChain;
+import com.oracle.graal.python.builtins.objects.itertools.PCompress;
+import com.oracle.graal.python.builtins.objects.itertools.PCount;
+import com.oracle.graal.python.builtins.objects.itertools.PCycle;
+import com.oracle.graal.python.builtins.objects.itertools.PDropwhile;
+import com.oracle.graal.python.builtins.objects.itertools.PFilterfalse;
+import com.oracle.graal.python.builtins.objects.itertools.PGroupBy;
+import com.oracle.graal.python.builtins.objects.itertools.PGrouper;
+import com.oracle.graal.python.builtins.objects.itertools.PIslice;
+import com.oracle.graal.python.builtins.objects.itertools.PRepeat;
+import com.oracle.graal.python.builtins.objects.itertools.PStarmap;
+import com.oracle.graal.python.builtins.objects.itertools.PTakewhile;
+import com.oracle.graal.python.builtins.objects.itertools.PTee;
+import com.oracle.graal.python.builtins.objects.itertools.PTeeDataObject;
+import com.oracle.graal.python.builtins.objects.itertools.PZipLongest;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.lzma.PLZMACompressor;
 import com.oracle.graal.python.builtins.objects.lzma.PLZMADecompressor;
@@ -103,12 +144,15 @@ import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
 import com.oracle.graal.python.builtins.objects.posix.PDirEntry;
 import com.oracle.graal.python.builtins.objects.posix.PScandirIterator;
+import com.oracle.graal.python.builtins.objects.queue.PSimpleQueue;
 import com.oracle.graal.python.builtins.objects.random.PRandom;
 import com.oracle.graal.python.builtins.objects.range.PBigRange;
 import com.oracle.graal.python.builtins.objects.range.PIntRange;
 import com.oracle.graal.python.builtins.objects.referencetype.PReferenceType;
 import com.oracle.graal.python.builtins.objects.reversed.PSequenceReverseIterator;
 import com.oracle.graal.python.builtins.objects.reversed.PStringReverseIterator;
+import com.oracle.graal.python.builtins.objects.select.PEpoll;
+import com.oracle.graal.python.builtins.objects.select.PPoll;
 import com.oracle.graal.python.builtins.objects.set.PBaseSet;
 import com.oracle.graal.python.builtins.objects.set.PFrozenSet;
 import com.oracle.graal.python.builtins.objects.set.PSet;
@@ -425,16 +469,26 @@ public abstract class PythonObjectFactory extends Node {
                     int len, boolean readonly, int itemsize, BufferFormat format, String formatString, int ndim, Object bufPointer,
                     int offset, int[] shape, int[] strides, int[] suboffsets, int flags) {
         PythonBuiltinClassType cls = PythonBuiltinClassType.PMemoryView;
-        return trace(new PMemoryView(cls, getShape(cls), context, managedBuffer, owner, len, readonly, itemsize, format, formatString,
-                        ndim, bufPointer, offset, shape, strides, suboffsets, flags));
+        return trackExport(owner, trace(new PMemoryView(cls, getShape(cls), context, managedBuffer, owner, len, readonly, itemsize, format, formatString,
+                        ndim, bufPointer, offset, shape, strides, suboffsets, flags)));
     }
 
     public PMemoryView createMemoryView(PythonContext context, ManagedBuffer managedBuffer, Object owner,
                     int len, boolean readonly, int itemsize, String formatString, int ndim, Object bufPointer,
                     int offset, int[] shape, int[] strides, int[] suboffsets, int flags) {
         PythonBuiltinClassType cls = PythonBuiltinClassType.PMemoryView;
-        return trace(new PMemoryView(cls, getShape(cls), context, managedBuffer, owner, len, readonly, itemsize,
-                        BufferFormat.forMemoryView(formatString), formatString, ndim, bufPointer, offset, shape, strides, suboffsets, flags));
+        return trackExport(owner, trace(new PMemoryView(cls, getShape(cls), context, managedBuffer, owner, len, readonly, itemsize,
+                        BufferFormat.forMemoryView(formatString), formatString, ndim, bufPointer, offset, shape, strides, suboffsets, flags)));
+    }
+
+    /**
+     * Views of a memory map, including slices of other views, keep the map from being closed.
+     */
+    private static PMemoryView trackExport(Object owner, PMemoryView view) {
+        if (owner instanceof PMMap) {
+            ((PMMap) owner).addExport(view);
+        }
+        return view;
     }
 
     public PMemoryView createMemoryViewForManagedObject(Object object, int itemsize, int length, boolean readonly, String format) {
@@ -788,6 +842,22 @@ public abstract class PythonObjectFactory extends Node {
         return createBigRangeIterator(createInt(start), createInt(step), createInt(len));
     }
 
+    public PDeque createDeque(Object cls) {
+        return trace(new PDeque(cls, getShape(cls)));
+    }
+
+    public PDequeIter createDequeIter(PDeque deque) {
+        return trace(new PDequeIter(PythonBuiltinClassType.PDequeIter, PythonBuiltinClassType.PDequeIter.getInstanceShape(getLanguage()), deque, false));
+    }
+
+    public PDequeIter createDequeRevIter(PDeque deque) {
+        return trace(new PDequeIter(PythonBuiltinClassType.PDequeRevIter, PythonBuiltinClassType.PDequeRevIter.getInstanceShape(getLanguage()), deque, true));
+    }
+
+    public PDequeIter createDequeIter(Object cls, PDeque deque, boolean reversed) {
+        return trace(new PDequeIter(cls, getShape(cls), deque, reversed));
+    }
+
     public PArrayIterator createArrayIterator(PArray array) {
         return trace(new PArrayIterator(PythonBuiltinClassType.PArrayIterator, PythonBuiltinClassType.PArrayIterator.getInstanceShape(getLanguage()), array));
     }
@@ -845,6 +915,82 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PZip(cls, getShape(cls), iterables));
     }
 
+    public PAccumulate createAccumulate(Object cls) {
+        return trace(new PAccumulate(cls, getShape(cls)));
+    }
+
+    public PChain createChain(Object cls) {
+        return trace(new PChain(cls, getShape(cls)));
+    }
+
+    public PCompress createCompress(Object cls) {
+        return trace(new PCompress(cls, getShape(cls)));
+    }
+
+    public PCount createCount(Object cls) {
+        return trace(new PCount(cls, getShape(cls)));
+    }
+
+    public PCycle createCycle(Object cls) {
+        return trace(new PCycle(cls, getShape(cls)));
+    }
+
+    public PDropwhile createDropwhile(Object cls) {
+        return trace(new PDropwhile(cls, getShape(cls)));
+    }
+
+    public PFilterfalse createFilterfalse(Object cls) {
+        return trace(new PFilterfalse(cls, getShape(cls)));
+    }
+
+    public PGroupBy createGroupBy(Object cls) {
+        return trace(new PGroupBy(cls, getShape(cls)));
+    }
+
+    public PIslice createIslice(Object cls) {
+        return trace(new PIslice(cls, getShape(cls)));
+    }
+
+    public PRepeat createRepeat(Object cls) {
+        return trace(new PRepeat(cls, getShape(cls)));
+    }
+
+    public PStarmap createStarmap(Object cls) {
+        return trace(new PStarmap(cls, getShape(cls)));
+    }
+
+    public PTakewhile createTakewhile(Object cls) {
+        return trace(new PTakewhile(cls, getShape(cls)));
+    }
+
+    public PZipLongest createZipLongest(Object cls) {
+        return trace(new PZipLongest(cls, getShape(cls)));
+    }
+
+    public PGrouper createGrouper(PGroupBy parent, Object tgtKey) {
+        return trace(new PGrouper(PythonBuiltinClassType.PGrouper, PythonBuiltinClassType.PGrouper.getInstanceShape(getLanguage()), parent, tgtKey));
+    }
+
+    public PTee createTee(PTeeDataObject dataObj, int index) {
+        return trace(new PTee(PythonBuiltinClassType.PTee, PythonBuiltinClassType.PTee.getInstanceShape(getLanguage()), dataObj, index));
+    }
+
+    public PTee createTee(Object cls, PTeeDataObject dataObj, int index) {
+        return trace(new PTee(cls, getShape(cls), dataObj, index));
+    }
+
+    public PPartial createPartial(Object cls, Object fn, PTuple argsTuple, Object[] args, PDict kw) {
+        return trace(new PPartial(cls, getShape(cls), fn, argsTuple, args, kw));
+    }
+
+    public PLruCacheWrapper createLruCacheWrapper(Object cls, Object func, Object maxSizeObj, int maxSize, boolean typed, Object cacheInfoType, Object kwdMark) {
+        return trace(new PLruCacheWrapper(cls, getShape(cls), func, maxSizeObj, maxSize, typed, cacheInfoType, kwdMark));
+    }
+
+    public PTeeDataObject createTeeDataObject(Object iterator) {
+        return trace(new PTeeDataObject(PythonBuiltinClassType.PTeeDataObject, PythonBuiltinClassType.PTeeDataObject.getInstanceShape(getLanguage()), iterator));
+    }
+
     public PForeignArrayIterator createForeignArrayIterator(Object iterable) {
         return trace(new PForeignArrayIterator(PythonBuiltinClassType.PForeignArrayIterator, PythonBuiltinClassType.PForeignArrayIterator.getInstanceShape(getLanguage()), iterable));
     }
@@ -886,6 +1032,56 @@ public abstract class PythonObjectFactory extends Node {
      * Socket
      */
 
+    public PHashObject createHashObject(HashAlgorithm algorithm, MessageDigest digest) {
+        return trace(new PHashObject(PythonBuiltinClassType.PHashObject, PythonBuiltinClassType.PHashObject.getInstanceShape(getLanguage()), algorithm, digest));
+    }
+
+    public PJsonScanner createJsonScanner(Object cls, boolean strict, Object objectHook, Object objectPairsHook, Object parseFloat, Object parseInt, Object parseConstant,
+                    boolean parseFloatIsFloat, boolean parseIntIsInt) {
+        return trace(new PJsonScanner(cls, getShape(cls), strict, objectHook, objectPairsHook, parseFloat, parseInt, parseConstant, parseFloatIsFloat, parseIntIsInt));
+    }
+
+    public PJsonEncoder createJsonEncoder(Object cls, Object markers, Object defaultFn, Object encoder, Object indent, String keySeparator, String itemSeparator, boolean sortKeys,
+                    boolean skipKeys, boolean allowNan, PJsonEncoder.FastEncode fastEncode) {
+        return trace(new PJsonEncoder(cls, getShape(cls), markers, defaultFn, encoder, indent, keySeparator, itemSeparator, sortKeys, skipKeys, allowNan, fastEncode));
+    }
+
+    public PPickler createPickler(Object cls) {
+        return trace(new PPickler(cls, getShape(cls)));
+    }
+
+    public PUnpickler createUnpickler(Object cls) {
+        return trace(new PUnpickler(cls, getShape(cls)));
+    }
+
+    public PPickleBuffer createPickleBuffer(Object cls, PMemoryView view) {
+        return trace(new PPickleBuffer(cls, getShape(cls), view));
+    }
+
+    public PStruct createStruct(Object cls, StructFormat format) {
+        return trace(new PStruct(cls, getShape(cls), format));
+    }
+
+    public PStructUnpackIterator createStructUnpackIterator(StructFormat format, Object buffer, int count) {
+        return trace(new PStructUnpackIterator(PythonBuiltinClassType.PStructUnpackIterator, PythonBuiltinClassType.PStructUnpackIterator.getInstanceShape(getLanguage()), format, buffer, count));
+    }
+
+    public PContextVarsContext createContextVarsContext(Hamt vars) {
+        return trace(new PContextVarsContext(PythonBuiltinClassType.PContextVarsContext, PythonBuiltinClassType.PContextVarsContext.getInstanceShape(getLanguage()), vars));
+    }
+
+    public PContextVar createContextVar(String name, Object defaultValue) {
+        return trace(new PContextVar(PythonBuiltinClassType.PContextVar, PythonBuiltinClassType.PContextVar.getInstanceShape(getLanguage()), name, defaultValue));
+    }
+
+    public PContextVarsToken createContextVarsToken(PContextVarsContext context, PContextVar var, Object oldValue) {
+        return trace(new PContextVarsToken(PythonBuiltinClassType.PContextVarsToken, PythonBuiltinClassType.PContextVarsToken.getInstanceShape(getLanguage()), context, var, oldValue));
+    }
+
+    public PSimpleQueue createSimpleQueue(Object cls) {
+        return trace(new PSimpleQueue(cls, getShape(cls)));
+    }
+
     public PSocket createSocket(int family, int type, int proto) {
         return trace(new PSocket(PythonBuiltinClassType.PSocket, PythonBuiltinClassType.PSocket.getInstanceShape(getLanguage()), family, type, proto));
     }
@@ -938,12 +1134,16 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PDirEntry(PythonBuiltinClassType.PDirEntry, PythonBuiltinClassType.PDirEntry.getInstanceShape(getLanguage()), dirEntryData, path));
     }
 
-    public PMMap createMMap(SeekableByteChannel channel, long length, long offset) {
-        return trace(new PMMap(PythonBuiltinClassType.PMMap, PythonBuiltinClassType.PMMap.getInstanceShape(getLanguage()), channel, length, offset));
+    public PPoll createPoll() {
+        return trace(new PPoll(PythonBuiltinClassType.PPoll, PythonBuiltinClassType.PPoll.getInstanceShape(getLanguage())));
     }
 
-    public PMMap createMMap(Object clazz, SeekableByteChannel channel, long length, long offset) {
-        return trace(new PMMap(clazz, getShape(clazz), channel, length, offset));
+    public PEpoll createEpoll(Object cls, int epfd) {
+        return trace(new PEpoll(cls, getShape(cls), epfd));
+    }
+
+    public PMMap createMMap(Object clazz, SeekableByteChannel channel, ByteBuffer[] windows, long length, long offset, int access) {
+        return trace(new PMMap(clazz, getShape(clazz), channel, windows, length, offset, access));
     }
 
     public BZ2Object.BZ2Compressor createBZ2Compressor(Object clazz) {
@@ -985,4 +1185,28 @@ public abstract class PythonObjectFactory extends Node {
     public PBuffered createBufferRandom(Object clazz) {
         return trace(PBuffered.createBufferedRandom(clazz, getShape(clazz)));
     }
+
+    public PRWPair createRWPair(Object clazz) {
+        return trace(new PRWPair(clazz, getShape(clazz)));
+    }
+
+    public PBytesIO createBytesIO(Object clazz) {
+        return trace(new PBytesIO(clazz, getShape(clazz)));
+    }
+
+    public PStringIO createStringIO(Object clazz) {
+        return trace(new PStringIO(clazz, getShape(clazz)));
+    }
+
+    public PTextIO createTextIO(Object clazz) {
+        return trace(new PTextIO(clazz, getShape(clazz)));
+    }
+
+    public PNLDecoder createNLDecoder(Object clazz) {
+        return trace(new PNLDecoder(clazz, getShape(clazz)));
+    }
+
+    public PNLDecoder createNLDecoder() {
+        return createNLDecoder(PythonBuiltinClassType.PIncrementalNewlineDecoder);
+    }
 }
@@ -72,6 +72,13 @@ public final class MroSequenceStorage extends TypedSequenceStorage {
      */
     private final Map<String, List<Assumption>> attributesInMROFinalAssumptions;
 
+    /**
+     * The attribute-final assumptions that entries of the global method cache depend on, at most
+     * one per name. They are reused as long as they are valid, so that evicting and refilling a
+     * cache entry does not register a new assumption with every class in the MRO.
+     */
+    private final Map<String, Assumption> methodCacheAssumptions;
+
     @CompilationFinal(dimensions = 1) private final PythonAbstractClass[] values;
 
     @TruffleBoundary
@@ -82,6 +89,7 @@ public final class MroSequenceStorage extends TypedSequenceStorage {
         this.length = elements.length;
         this.lookupStableAssumption = new CyclicAssumption(className);
         this.attributesInMROFinalAssumptions = new HashMap<>();
+        this.methodCacheAssumptions = new HashMap<>();
     }
 
     @TruffleBoundary
@@ -92,6 +100,7 @@ public final class MroSequenceStorage extends TypedSequenceStorage {
         this.length = 0;
         this.lookupStableAssumption = new CyclicAssumption(className);
         this.attributesInMROFinalAssumptions = new HashMap<>();
+        this.methodCacheAssumptions = new HashMap<>();
     }
 
     @Override
@@ -247,6 +256,21 @@ public final class MroSequenceStorage extends TypedSequenceStorage {
         attrAssumptions.add(assumption);
     }
 
+    /**
+     * Returns the assumption that the method cache entry for {@code name} depends on, or
+     * {@code null} if there is no valid one.
+     */
+    @TruffleBoundary
+    public Assumption getMethodCacheAssumption(String name) {
+        Assumption assumption = methodCacheAssumptions.get(name);
+        return assumption != null && assumption.isValid() ? assumption : null;
+    }
+
+    @TruffleBoundary
+    public void setMethodCacheAssumption(String name, Assumption assumption) {
+        methodCacheAssumptions.put(name, assumption);
+    }
+
     @TruffleBoundary
     public void invalidateAttributeInMROFinalAssumptions(String name) {
         List<Assumption> assumptions = attributesInMROFinalAssumptions.getOrDefault(name, Collections.emptyList());
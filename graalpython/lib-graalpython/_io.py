@@ -503,10 +503,7 @@ class FileIO(_RawIOBase):
     def readinto(self, rwbuffer):
         self._checkClosed()
         self._checkReadable()
-        length = len(rwbuffer)
-        buf = _os.read(self.__fd__, length)
-        rwbuffer[:] = buf
-        return len(buf)
+        return _os.readv(self.__fd__, [rwbuffer])
 
     def readall(self):
         self._checkClosed()
@@ -575,38 +572,10 @@ class _BufferedIOBase(_IOBase):
     pass
 
 
-class BytesIO(_BufferedIOBase):
-    pass
-
-
 class _TextIOBase(_IOBase):
     pass
 
 
-class StringIO(_TextIOBase):
-    pass
-
-
-class BufferedWriter(_BufferedIOBase):
-    pass
-
-
-class BufferedRWPair(_BufferedIOBase):
-    pass
-
-
-class BufferedRandom(_BufferedIOBase):
-    pass
-
-
-class IncrementalNewlineDecoder(object):
-    pass
-
-
-class TextIOWrapper(_TextIOBase):
-    pass
-
-
 def open(*args, **kwargs):
     raise NotImplementedError
 
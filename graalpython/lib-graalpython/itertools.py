@@ -21,152 +21,6 @@
 # LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
 # FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
 # DEALINGS IN THE SOFTWARE.
-import sys
-
-
-class repeat():
-    @__graalpython__.builtin_method
-    def __init__(self, obj, times=None):
-        self.obj = obj
-        self.times = times
-        if times is not None and not isinstance(times, int):
-            raise TypeError(f"integer argument expected, got {times.__class__.__name__}")
-        self.count = times if times and times > 0 else 0
-
-    @__graalpython__.builtin_method
-    def __iter__(self):
-        return self
-
-    @__graalpython__.builtin_method
-    def __next__(self):
-        if self.times is not None:
-            if self.count == 0:
-                raise StopIteration
-            self.count -= 1
-        return self.obj
-
-    @__graalpython__.builtin_method
-    def __length_hint__(self):
-        return self.count
-
-    @__graalpython__.builtin_method
-    def __reduce__(self):
-        if self.times is not None:
-            return (self, (self.obj, self.count))
-        return (self, (self.obj,))
-
-    @__graalpython__.builtin_method
-    def __repr__(self):
-        if self.times is not None:
-            return "{}({}, {})".format(type(self).__name__, self.obj, self.count)
-        return "{}({})".format(type(self).__name__, self.obj)
-
-
-class chain():
-    """
-    Return a chain object whose .__next__() method returns elements from the
-    first iterable until it is exhausted, then elements from the next
-    iterable, until all of the iterables are exhausted.
-    """
-    @__graalpython__.builtin_method
-    def __init__(self, *iterables):
-        self._iterables = iterables
-        self._len = len(iterables)
-        if self._len > 0:
-            self._current = iter(self._iterables[0])
-        self._idx = 0
-
-    @__graalpython__.builtin_method
-    def __iter__(self):
-        return self
-
-    @__graalpython__.builtin_method
-    def __next__(self):
-        if self._idx >= self._len:
-            raise StopIteration
-        try:
-            return next(self._current)
-        except (StopIteration, IndexError):
-            self._idx += 1
-            if self._idx >= self._len:
-                raise StopIteration
-            self._current = iter(self._iterables[self._idx])
-            return self.__next__()
-
-    @classmethod
-    @__graalpython__.builtin_method
-    def from_iterable(cls, arg):
-        return cls(*iter(arg))
-
-
-class starmap():
-    """starmap(function, sequence) --> starmap object
-
-    Return an iterator whose values are returned from the function evaluated
-    with an argument tuple taken from the given sequence.
-    """
-    @__graalpython__.builtin_method
-    def __init__(self, fun, iterable):
-        self.fun = fun
-        self.iterable = iter(iterable)
-
-    @__graalpython__.builtin_method
-    def __iter__(self):
-        return self
-
-    @__graalpython__.builtin_method
-    def __next__(self):
-        obj = next(self.iterable)
-        return self.fun(*obj)
-
-
-class islice(object):
-    @__graalpython__.builtin_method
-    def __init__(self, iterable, *args):
-        self._iterable = enumerate(iter(iterable))
-        slice = list(args)
-        if len(slice) >= 2 and slice[1] is None:
-             slice[1] = sys.maxsize
-        self._indexes = iter(range(*slice))
-
-    @__graalpython__.builtin_method
-    def __iter__(self):
-        return self
-
-    @__graalpython__.builtin_method
-    def __next__(self):
-        index = next(self._indexes) # may raise StopIteration
-        while True:
-            i, element = next(self._iterable) # may raise StopIteration
-            if i == index:
-                return element
-
-
-class count(object):
-    @__graalpython__.builtin_method
-    def __init__(self, start=0, step=1):
-        if not isinstance(start, (int, float)) or \
-                not isinstance(step, (int, float)):
-            raise TypeError('a number is required')
-        self._cnt = start
-        self._step = step
-
-    @__graalpython__.builtin_method
-    def __next__(self):
-        _cnt = self._cnt
-        self._cnt += self._step
-        return _cnt
-
-    @__graalpython__.builtin_method
-    def __repr__(self):
-        _repr = '{}({}'.format(type(self).__name__, self._cnt)
-        if not isinstance(self._step, int) or self._step != 1:
-            _repr += ', {}'.format(self._step)
-        return _repr + ')'
-
-    @__graalpython__.builtin_method
-    def __iter__(self):
-        return self
 
 
 class permutations():
@@ -420,213 +274,6 @@ class product():
         self.lst = lst
 
 
-class accumulate(object):
-    """
-    "accumulate(iterable) --> accumulate object
-
-    Return series of accumulated sums."""
-
-    @__graalpython__.builtin_method
-    def __init__(self, iterable, func=None):
-        self.iterable = iter(iterable)
-        self.func = func
-        self.total = None
-
-    @__graalpython__.builtin_method
-    def __iter__(self):
-        return self
-
-    @__graalpython__.builtin_method
-    def __next__(self):
-        value = next(self.iterable)
-        if self.total is None:
-            self.total = value
-            return value
-
-        if self.func is None:
-            self.total += value
-        else:
-            self.total = self.func(total, value)
-        return self.total
-
-
-class dropwhile(object):
-    """
-    dropwhile(predicate, iterable) --> dropwhile object
-
-    Drop items from the iterable while predicate(item) is true.
-    Afterwards, return every element until the iterable is exhausted.
-    """
-
-    @__graalpython__.builtin_method
-    def __init__(self, predicate, iterable):
-        self.predicate = predicate
-        self.iterable = iter(iterable)
-        self.done_dropping = False
-
-    @__graalpython__.builtin_method
-    def __iter__(self):
-        return self
-
-    @__graalpython__.builtin_method
-    def __next__(self):
-        while not self.done_dropping:
-            n = next(self.iterable)
-            if self.predicate(n):
-                continue
-            else:
-                self.done_dropping = True
-                return n
-        return next(self.iterable)
-
-
-class filterfalse(object):
-    """
-    filterfalse(function or None, sequence) --> filterfalse object
-
-    Return those items of sequence for which function(item) is false.
-    If function is None, return the items that are false.
-    """
-
-    @__graalpython__.builtin_method
-    def __init__(self, func, sequence):
-        self.func = func or (lambda x: False)
-        self.iterator = iter(sequence)
-
-    @__graalpython__.builtin_method
-    def __iter__(self):
-        return self
-
-    @__graalpython__.builtin_method
-    def __next__(self):
-        while True:
-            n = next(self.iterator)
-            if not self.func(n):
-                return n
-
-
-class takewhile(object):
-    """Make an iterator that returns elements from the iterable as
-    long as the predicate is true.
-
-    Equivalent to :
-
-    def takewhile(predicate, iterable):
-        for x in iterable:
-            if predicate(x):
-                yield x
-            else:
-                break
-    """
-    @__graalpython__.builtin_method
-    def __init__(self, predicate, iterable):
-        self._predicate = predicate
-        self._iter = iter(iterable)
-
-    @__graalpython__.builtin_method
-    def __iter__(self):
-        return self
-
-    @__graalpython__.builtin_method
-    def __next__(self):
-        value = next(self._iter)
-        if not self._predicate(value):
-            self._iter = iter([])
-            raise StopIteration()
-        return value
-
-
-class groupby(object):
-    """Make an iterator that returns consecutive keys and groups from the
-    iterable. The key is a function computing a key value for each
-    element. If not specified or is None, key defaults to an identity
-    function and returns the element unchanged. Generally, the
-    iterable needs to already be sorted on the same key function.
-
-    The returned group is itself an iterator that shares the
-    underlying iterable with groupby(). Because the source is shared,
-    when the groupby object is advanced, the previous group is no
-    longer visible. So, if that data is needed later, it should be
-    stored as a list:
-
-       groups = []
-       uniquekeys = []
-       for k, g in groupby(data, keyfunc):
-           groups.append(list(g))      # Store group iterator as a list
-           uniquekeys.append(k)
-    """
-    @__graalpython__.builtin_method
-    def __init__(self, iterable, key=None):
-        self._iterator = iter(iterable)
-        self._keyfunc = key
-        self._marker = object()
-        self._tgtkey = self._currkey = self._currvalue = self._marker
-
-    @__graalpython__.builtin_method
-    def __iter__(self):
-        return self
-
-    @__graalpython__.builtin_method
-    def __next__(self):
-        self._skip_to_next_iteration_group()
-        key = self._tgtkey = self._currkey
-        grouper = _grouper(self, key)
-        return (key, grouper)
-
-    @__graalpython__.builtin_method
-    def _skip_to_next_iteration_group(self):
-        while True:
-            if self._currkey is self._marker:
-                pass
-            elif self._tgtkey is self._marker:
-                break
-            else:
-                if not self._tgtkey == self._currkey:
-                    break
-
-            newvalue = next(self._iterator)
-            if self._keyfunc is None:
-                newkey = newvalue
-            else:
-                newkey = self._keyfunc(newvalue)
-
-            self._currkey = newkey
-            self._currvalue = newvalue
-
-
-class _grouper():
-    @__graalpython__.builtin_method
-    def __init__(self, groupby, tgtkey):
-        self.groupby = groupby
-        self.tgtkey = tgtkey
-        self._marker = groupby._marker
-
-    @__graalpython__.builtin_method
-    def __iter__(self):
-        return self
-
-    @__graalpython__.builtin_method
-    def __next__(self):
-        groupby = self.groupby
-        if groupby._currvalue is self._marker:
-            newvalue = next(groupby._iterator)
-            if groupby._keyfunc is None:
-                newkey = newvalue
-            else:
-                newkey = groupby._keyfunc(newvalue)
-            assert groupby._currvalue is self._marker
-            groupby._currkey = newkey
-            groupby._currvalue = newvalue
-
-        assert groupby._currkey is not self._marker
-        if not self.tgtkey == groupby._currkey:
-            raise StopIteration(None)
-        result = groupby._currvalue
-        groupby._currvalue = self._marker
-        groupby._currkey = self._marker
-        return result
-
-
 class combinations():
     """
     combinations(iterable, r) --> combinations object
@@ -727,209 +374,3 @@ class combinations_with_replacement(combinations):
         return self.indices[j - 1]
 
 
-class zip_longest():
-    """
-    zip_longest(iter1 [,iter2 [...]], [fillvalue=None]) --> zip_longest object
-
-    Return a zip_longest object whose .next() method returns a tuple where
-    the i-th element comes from the i-th iterable argument.  The .next()
-    method continues until the longest iterable in the argument sequence
-    is exhausted and then it raises StopIteration.  When the shorter iterables
-    are exhausted, the fillvalue is substituted in their place.  The fillvalue
-    defaults to None or can be specified by a keyword argument.
-    """
-
-    @__graalpython__.builtin_method
-    def __iter__(self):
-        return self
-
-    @__graalpython__.builtin_method
-    def _fetch(self, index):
-        it = self.iterators[index]
-        if it is not None:
-            try:
-                return next(it)
-            except StopIteration:
-                self.active -= 1
-                if self.active <= 0:
-                    # It was the last active iterator
-                    raise
-                self.iterators[index] = None
-        return self.fillvalue
-
-    @__graalpython__.builtin_method
-    def __next__(self):
-        if self.active <= 0:
-            raise StopIteration
-        nb = len(self.iterators)
-        if nb == 0:
-            raise StopIteration
-        result = []
-        for index in range(nb):
-            result.append(self._fetch(index))
-        return tuple(result)
-
-    @__graalpython__.builtin_method
-    def __new__(subtype, iter1, *args, fillvalue=None):
-        self = object.__new__(subtype)
-        self.fillvalue = fillvalue
-        self.active = len(args) + 1
-        self.iterators = [iter(iter1)] + [iter(arg) for arg in args]
-        return self
-
-    @__graalpython__.builtin_method
-    def __reduce__(self):
-        return type(self), tuple([(it if it else tuple()) for it in self.iterators]), self.fillvalue
-
-
-    @__graalpython__.builtin_method
-    def __setstate__(self, state):
-        self.fillvalue = state
-
-
-class cycle():
-    """
-    Make an iterator returning elements from the iterable and
-    saving a copy of each. When the iterable is exhausted, return
-    elements from the saved copy. Repeats indefinitely.
-
-    Equivalent to :
-
-    def cycle(iterable):
-        saved = []
-        for element in iterable:
-            yield element
-            saved.append(element)
-        while saved:
-            for element in saved:
-                yield element
-    """
-
-    @__graalpython__.builtin_method
-    def __init__(self, iterable):
-        self.saved = []
-        self.iterable = iter(iterable)
-        self.index = 0
-
-    @__graalpython__.builtin_method
-    def __iter__(self):
-        return self
-
-    @__graalpython__.builtin_method
-    def __next__(self):
-        if self.index > 0:
-            if not self.saved:
-                raise StopIteration
-            if len(self.saved) > self.index:
-                obj = self.saved[self.index]
-                self.index += 1
-            else:
-                obj = self.saved[0]
-                self.index = 1
-        else:
-            try:
-                obj = next(self.iterable)
-            except StopIteration:
-                if not self.saved:
-                    raise
-                obj = self.saved[0]
-                self.index = 1
-            else:
-                self.saved.append(obj)
-        return obj
-
-
-class compress():
-    """Make an iterator that filters elements from *data* returning
-   only those that have a corresponding element in *selectors* that evaluates to
-   ``True``.  Stops when either the *data* or *selectors* iterables has been
-   exhausted.
-   Equivalent to::
-
-       def compress(data, selectors):
-           # compress('ABCDEF', [1,0,1,0,1,1]) --> A C E F
-           return (d for d, s in zip(data, selectors) if s)
-    """
-    @__graalpython__.builtin_method
-    def __init__(self, data, selectors):
-        self.data = iter(data)
-        self.selectors = iter(selectors)
-
-    @__graalpython__.builtin_method
-    def __iter__(self):
-        return self
-
-    @__graalpython__.builtin_method
-    def __next__(self):
-        # No need to check for StopIteration since either data or selectors will
-        # raise this. The shortest one stops first.
-        while True:
-            next_item = next(self.data)
-            next_selector = next(selectors)
-            if next_selector:
-                return next_item
-
-    @__graalpython__.builtin_method
-    def __reduce__(self):
-        return (type(self), (self.data, self.selectors))
-
-
-class _tee:
-    # This uses a linked list of fixed size lists where
-    # the last item in the fixed size list is a link to
-    # another fixed size list. Once all _tee instances have
-    # traversed given fixed size list, it'll become a garbage
-    # to be collected
-    @__graalpython__.builtin_method
-    def __init__(self, it, buffer=None):
-        self.itemIndex = 0
-        if buffer is None:
-            # Support for direct creation of _tee from user code,
-            # where the ctor takes a single iterable object
-            self.it = iter(it)
-            self.buffer = [None] * 8
-        else:
-            self.it = it
-            self.buffer = buffer
-
-    @__graalpython__.builtin_method
-    def __iter__(self):
-        return self
-
-    @__graalpython__.builtin_method
-    def __next__(self):
-        # jump to the next buffer if necessary
-        lastIndex = len(self.buffer) - 1
-        if self.itemIndex == lastIndex:
-            if self.buffer[lastIndex] is None:
-                self.buffer[lastIndex] = [None] * 8
-            self.buffer = self.buffer[lastIndex]
-            self.itemIndex = 0
-        # take existing item from the buffer or advance the iterator
-        if self.buffer[self.itemIndex] is None:
-            result = next(self.it)
-            self.buffer[self.itemIndex] = result
-        else:
-            result = self.buffer[self.itemIndex]
-        self.itemIndex += 1
-        return result
-
-    @__graalpython__.builtin_method
-    def __copy__(self):
-        return _tee(self.it, self.buffer)
-
-
-def tee(iterable, n=2):
-    if not isinstance(n, int):
-        raise TypeError()
-    if n < 0:
-        raise ValueError("n must be >=0")
-    # if the iterator can be copied, use that instead of _tee
-    # note: this works for _tee itself
-    it = iter(iterable)
-    copy = getattr(it, "__copy__", None)
-    if callable(copy):
-        return tuple([it] + [it.__copy__() for i in range(1, n)])
-    else:
-        queue = [None] * 8
-        return tuple(_tee(it, queue) for i in range(0, n))
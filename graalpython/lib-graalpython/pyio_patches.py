@@ -66,29 +66,29 @@ def open(*args, **kwargs):
 
 for module in [_io, io]:
     setattr(module, 'open', open)
-    setattr(module, 'TextIOWrapper', _pyio.TextIOWrapper)
-    setattr(module, 'IncrementalNewlineDecoder', _pyio.IncrementalNewlineDecoder)
-    setattr(module, 'BufferedRandom', _pyio.BufferedRandom)
-    setattr(module, 'BufferedRWPair', _pyio.BufferedRWPair)
-    setattr(module, 'BufferedWriter', _pyio.BufferedWriter)
-    setattr(module, 'StringIO', _pyio.StringIO)
     setattr(module, '_IOBase', _pyio.IOBase)
     setattr(module, 'BufferedIOBase', _pyio.BufferedIOBase)
     setattr(module, 'RawIOBase', _pyio.RawIOBase)
     setattr(module, 'FileIO', _pyio.FileIO)
-    setattr(module, 'BytesIO', _pyio.BytesIO)
     setattr(module, '_TextIOBase', _pyio.TextIOBase)
 
 
+# the buffered and text I/O classes are implemented in Java, make '_pyio.open' use them
+for name in ['BufferedReader', 'BufferedWriter', 'BufferedRandom', 'BufferedRWPair', 'BytesIO', 'StringIO',
+             'TextIOWrapper', 'IncrementalNewlineDecoder']:
+    setattr(_pyio, name, getattr(_io, name))
+    setattr(io, name, getattr(_io, name))
+
+
 setattr(builtins, 'open', open)
 
-sys.stdin = _pyio.TextIOWrapper(_io.BufferedReader(sys.stdin), encoding=__graalpython__.stdio_encoding, errors=__graalpython__.stdio_error, line_buffering=True)
+sys.stdin = _io.TextIOWrapper(_io.BufferedReader(sys.stdin), encoding=__graalpython__.stdio_encoding, errors=__graalpython__.stdio_error, line_buffering=True)
 sys.stdin.mode = "r"
 sys.__stdin__ = sys.stdin
-sys.stdout = _pyio.TextIOWrapper(_pyio.BufferedWriter(sys.stdout), encoding=__graalpython__.stdio_encoding, errors=__graalpython__.stdio_error, line_buffering=True)
+sys.stdout = _io.TextIOWrapper(_io.BufferedWriter(sys.stdout), encoding=__graalpython__.stdio_encoding, errors=__graalpython__.stdio_error, line_buffering=True)
 sys.stdout.mode = "w"
 sys.__stdout__ = sys.stdout
-sys.stderr = _pyio.TextIOWrapper(_pyio.BufferedWriter(sys.stderr.file_io), encoding=__graalpython__.stdio_encoding, errors="backslashreplace", line_buffering=True)
+sys.stderr = _io.TextIOWrapper(_io.BufferedWriter(sys.stderr.file_io), encoding=__graalpython__.stdio_encoding, errors="backslashreplace", line_buffering=True)
 sys.stderr.mode = "w"
 sys.__stderr__ = sys.stderr
 
@@ -107,10 +107,3 @@ def close_stdouts(so=sys.stdout, se=sys.stderr):
         pass
 atexit.register(close_stdouts)
 
-
-# See comment in _pyio.py. This method isn't strictly necessary and is provided
-# on CPython for performance. Because it goes through memoryview, it is slower
-# for us due to the overhead of memoryview being in C and the warmup cost
-# associated with that. We remove it and rely on the (for us faster) base
-# implementation.
-del _pyio.BufferedReader._readinto
@@ -72,7 +72,8 @@ __all__ = __always_supported + ('new', 'algorithms_guaranteed',
 __builtin_constructor_cache = {}
 
 __block_openssl_constructor = {
-    'sha3_224', 'sha3_256', 'sha3_384', 'sha3_512',
+    # Truffle change: sha3 is provided by _hashlib if the JDK supports it
+    # 'sha3_224', 'sha3_256', 'sha3_384', 'sha3_512',
     'shake_128', 'shake_256',
     'blake2b', 'blake2s',
 }
@@ -254,6 +255,11 @@ for __func_name in __always_supported:
         import logging
         logging.exception('code for hash %s was not found.', __func_name)
 
+# Truffle change: define the sha3 constructors if the JDK supports them
+for __func_name in ('sha3_224', 'sha3_256', 'sha3_384', 'sha3_512'):
+    if __func_name in algorithms_available:
+        globals()[__func_name] = __get_hash(__func_name)
+
 
 # Cleanup locals()
 del __always_supported, __func_name, __get_hash
@@ -55,12 +55,14 @@ import mx_subst
 import mx_urlrewrites
 import mx_graalpython_bisect
 from mx_gate import Task
-from mx_graalpython_bench_param import PATH_MESO, BENCHMARKS, WARMUP_BENCHMARKS, JBENCHMARKS, PARSER_BENCHMARKS
+from mx_graalpython_bench_param import PATH_MESO, BENCHMARKS, WARMUP_BENCHMARKS, JBENCHMARKS, PARSER_BENCHMARKS, \
+    SCALING_BENCHMARKS, JSCALING_BENCHMARKS
 from mx_graalpython_benchmark import PythonBenchmarkSuite, python_vm_registry, CPythonVm, PyPyVm, JythonVm, GraalPythonVm, \
     CONFIGURATION_DEFAULT, CONFIGURATION_SANDBOXED, CONFIGURATION_NATIVE, \
     CONFIGURATION_DEFAULT_MULTI, CONFIGURATION_SANDBOXED_MULTI, CONFIGURATION_NATIVE_MULTI, \
     CONFIGURATION_DEFAULT_MULTI_TIER, CONFIGURATION_NATIVE_MULTI_TIER, \
-    PythonInteropBenchmarkSuite, PythonVmWarmupBenchmarkSuite, PythonParserBenchmarkSuite
+    PythonInteropBenchmarkSuite, PythonVmWarmupBenchmarkSuite, PythonParserBenchmarkSuite, \
+    PythonThreadScalingBenchmarkSuite, PythonInteropThreadScalingBenchmarkSuite
 
 
 if not sys.modules.get("__main__"):
@@ -1259,7 +1261,6 @@ def import_python_sources(args):
         "unicodedata.c": "_cpython_unicodedata.c",
         "_bz2module.c": "_bz2.c",
         "mmapmodule.c": "_mmap.c",
-        "_struct.c": "_cpython_struct.c",
         "_testcapimodule.c": "_testcapi.c",
     }
     extra_pypy_files = [
@@ -1508,6 +1509,10 @@ def _register_bench_suites(namespace):
         mx_benchmark.add_bm_suite(java_bench_suite)
     for parser_bench_suite in PythonParserBenchmarkSuite.get_benchmark_suites(PARSER_BENCHMARKS):
         mx_benchmark.add_bm_suite(parser_bench_suite)
+    for scaling_bench_suite in PythonThreadScalingBenchmarkSuite.get_benchmark_suites(SCALING_BENCHMARKS):
+        mx_benchmark.add_bm_suite(scaling_bench_suite)
+    for java_scaling_bench_suite in PythonInteropThreadScalingBenchmarkSuite.get_benchmark_suites(JSCALING_BENCHMARKS):
+        mx_benchmark.add_bm_suite(java_scaling_bench_suite)
 
 
 class CharsetFilteringPariticpant:
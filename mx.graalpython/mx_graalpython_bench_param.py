@@ -38,6 +38,7 @@ PATH_MESO = os.path.join(_BASE_PATH, 'meso')
 PATH_MACRO = os.path.join(_BASE_PATH, 'macro')
 PATH_WARMUP = os.path.join(_BASE_PATH, 'warmup')
 PATH_INTEROP = os.path.join(_BASE_PATH, 'host_interop')
+PATH_SCALING = os.path.join(_BASE_PATH, 'scaling')
 
 # ----------------------------------------------------------------------------------------------------------------------
 #
@@ -79,7 +80,24 @@ MICRO_BENCHMARKS = {
     'list-iterating': ITER_10 + ['1000000'],
     'list-iterating-obj-sized': ITER_10 + ['100_000_000'],
     'list-constructions-sized': ITER_10 + ['10_000'],
+    'list-sort-int': ITER_10 + ['100'],
+    'list-sort-float': ITER_10 + ['100'],
+    'list-sort-str': ITER_10 + ['50'],
+    'list-sort-key': ITER_10 + ['50'],
     'dict-getitem-sized': ITER_10 + ['50_000_000'],
+    'deque-bfs': ITER_10 + ['200'],
+    'deque-queue': ITER_10 + ['1000'],
+    'itertools-pipeline': ITER_10 + ['500'],
+    'io-text-readline': ITER_10 + ['50'],
+    'select-idle-fds': ITER_10 + ['10'],
+    'functools-partial-lru': ITER_10 + ['5000'],
+    'socket-recv-into': ITER_10 + ['2000'],
+    'hashlib-sha256-hmac': ITER_10 + ['20000'],
+    'json-loads-dumps': ITER_10 + ['400'],
+    'struct-pack-unpack': ITER_10 + ['20000'],
+    'queue-producer-consumer': ['--python.WithThread=true'] + ITER_10 + ['100'],
+    'threads-exception-state': ['--python.WithThread=true'] + ITER_10 + ['20'],
+    'heapq-bisect': ITER_10 + ['100'],
     'math-sqrt': ITER_10 + ['500000000'],
     'object-allocate': ITER_10 + ['5000'],
     'object-layout-change': ITER_10 + ['1000000'],
@@ -112,8 +130,8 @@ def _pickling_benchmarks(module='pickle'):
     }
 
 
-# MICRO_BENCHMARKS.update(_pickling_benchmarks('pickle'))
-# MICRO_BENCHMARKS.update(_pickling_benchmarks('cPickle'))
+MICRO_BENCHMARKS.update(_pickling_benchmarks('pickle'))
+MICRO_BENCHMARKS.update(_pickling_benchmarks('cPickle'))
 
 
 MICRO_NATIVE_BENCHMARKS = {
@@ -128,6 +146,7 @@ MICRO_NATIVE_BENCHMARKS = {
     'c-issubtype-polymorphic': ITER_10 + ['50000000'],
     'c-issubtype-monorphic': ITER_10 + ['50000000'],
     'c-call-method': ITER_15 + ['5000000'],
+    'hpy-call-method': ITER_15 + ['5000000'],
     'c-instantiate-large': ITER_15 + ['1000'],
 }
 
@@ -207,6 +226,27 @@ INTEROP_JAVA_BENCHMARKS = {
     'fannkuchredux3': [_INTEROP_JAVA_PACKAGE + 'PyFannkuchredux'] + MESO_BENCHMARKS['fannkuchredux3'],
 }
 
+# ----------------------------------------------------------------------------------------------------------------------
+#
+# the thread scaling benchmarks: each iteration runs the workload at 1, 2, 4, 8 and 16 threads and reports throughput
+# and scaling efficiency per thread count; the arguments are the operations per thread and the maximal thread count
+#
+# ----------------------------------------------------------------------------------------------------------------------
+THREAD_SCALING_BENCHMARKS = {
+    'shared-nothing': ITER_10 + ['200000', '16'],
+    'list-append': ITER_10 + ['200000', '16'],
+    'dict-update': ITER_10 + ['200000', '16'],
+    'lock-pingpong': ITER_10 + ['100000', '16'],
+    'rlock-pingpong': ITER_10 + ['100000', '16'],
+    'queue-handoff': ITER_10 + ['50000', '16'],
+}
+
+
+INTEROP_JAVA_SCALING_BENCHMARKS = {
+    name: [_INTEROP_JAVA_PACKAGE + 'PyThreadScaling'] + ITER_10 + [name] + args[len(ITER_10):]
+    for name, args in THREAD_SCALING_BENCHMARKS.items()
+}
+
 # -------------------------------------------------------
 # Parameters for parsing bench marks
 # Parameters for parsing bench marks
@@ -215,9 +255,10 @@ INTEROP_JAVA_BENCHMARKS = {
 # 3. -w number : is number of warmup iterations, in these cases should not be necessary (default 0)
 # 4. -n number : is number of parsing cycles of on file in one iteration (default 1)
 # 5. -r : if it's present, then folders on the defined paths are parsed recursively
-# 6. : files or directories, that will be processed
-# 7. -e : after this mark all the listed files and directories are excluded from the benchmark
-# 8. : files or directories that will be excluded from the benchmark
+# 6. -ll : if it's present, then the files are parsed with full LL prediction only, without trying SLL first
+# 7. : files or directories, that will be processed
+# 8. -e : after this mark all the listed files and directories are excluded from the benchmark
+# 9. : files or directories that will be excluded from the benchmark
 # -------------------------------------------------------
 _PARSER_JAVA_PACKAGE = 'com.oracle.graal.python.benchmarks.parser.'
 PATH_RUNTIME_FILES_PARSER_TESTS = os.path.join(_graalpython_suite.dir, 'graalpython', 'com.oracle.graal.python.test', 'testData', 'testFiles', 'RuntimeFileTests')
@@ -226,6 +267,7 @@ PARSER_JAVA_BENCHMARKS = {
     'whole-parsing-test-files': [_PARSER_JAVA_PACKAGE + 'ParsingAndTranslating'] + ITER_10 + ['-n', '10'] + [PATH_RUNTIME_FILES_PARSER_TESTS],
     'whole-parsing-lib-files': [_PARSER_JAVA_PACKAGE + 'ParsingAndTranslating'] + ITER_10 + ['-r'] + [PATH_PYTHON_LIB],
     'antlr-parsing-lib-files': [_PARSER_JAVA_PACKAGE + 'AntlrParsing'] + ITER_10 + ['-r'] + [PATH_PYTHON_LIB],
+    'antlr-ll-parsing-lib-files': [_PARSER_JAVA_PACKAGE + 'AntlrParsing'] + ITER_10 + ['-r', '-ll'] + [PATH_PYTHON_LIB],
     'sst-translating-lib-files': [_PARSER_JAVA_PACKAGE + 'SSTTranslating'] + ITER_10 + ['-r'] + [PATH_PYTHON_LIB],
     'serializing-lib-files': [_PARSER_JAVA_PACKAGE + 'Serializing'] + ITER_10 + ['-r'] + [PATH_PYTHON_LIB],
     'deserializing-lib-files': [_PARSER_JAVA_PACKAGE + 'Deserializing'] + ITER_10 + ['-r'] + [PATH_PYTHON_LIB],
@@ -252,6 +294,14 @@ JBENCHMARKS = {
     "pyjava": [INTEROP_JAVA_BENCHMARKS],
 }
 
+SCALING_BENCHMARKS = {
+    "python-scaling": [PATH_SCALING, THREAD_SCALING_BENCHMARKS],
+}
+
+JSCALING_BENCHMARKS = {
+    "pyjava-scaling": [INTEROP_JAVA_SCALING_BENCHMARKS],
+}
+
 PARSER_BENCHMARKS = {
     "python-parser" : [PARSER_JAVA_BENCHMARKS],
 }
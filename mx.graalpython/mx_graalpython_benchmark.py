@@ -692,6 +692,69 @@ class PythonVmWarmupBenchmarkSuite(PythonBenchmarkSuite):
             ),
         ]
 
+def _thread_scaling_rules(suite_name, bench_name, arg):
+    # one throughput and one scaling efficiency datapoint per iteration and thread count
+    return [
+        StdOutRule(
+            r"^### scaling iteration=(?P<iteration>[0-9]+), name=(?P<benchmark>[a-zA-Z0-9._\-]+), threads=(?P<threads>[0-9]+), throughput=(?P<throughput>[0-9]+(\.[0-9]+)?), efficiency=(?P<efficiency>[0-9]+(\.[0-9]+)?$)",  # pylint: disable=line-too-long
+            {
+                "benchmark": '{}.{}'.format(suite_name, bench_name),
+                "metric.name": "throughput",
+                "metric.object": "<threads>",
+                "metric.iteration": ("<iteration>", int),
+                "metric.type": "numeric",
+                "metric.value": ("<throughput>", float),
+                "metric.unit": "op/s",
+                "metric.score-function": "id",
+                "metric.better": "higher",
+                "config.run-flags": "".join(arg),
+            }
+        ),
+        StdOutRule(
+            r"^### scaling iteration=(?P<iteration>[0-9]+), name=(?P<benchmark>[a-zA-Z0-9._\-]+), threads=(?P<threads>[0-9]+), throughput=(?P<throughput>[0-9]+(\.[0-9]+)?), efficiency=(?P<efficiency>[0-9]+(\.[0-9]+)?$)",  # pylint: disable=line-too-long
+            {
+                "benchmark": '{}.{}'.format(suite_name, bench_name),
+                "metric.name": "scaling-efficiency",
+                "metric.object": "<threads>",
+                "metric.iteration": ("<iteration>", int),
+                "metric.type": "numeric",
+                "metric.value": ("<efficiency>", float),
+                "metric.unit": "#",
+                "metric.score-function": "id",
+                "metric.better": "higher",
+                "config.run-flags": "".join(arg),
+            }
+        ),
+    ]
+
+
+class PythonThreadScalingBenchmarkSuite(PythonBenchmarkSuite):
+    def createVmCommandLineArgs(self, benchmarks, bmSuiteArgs):
+        # without real threads, every workload would run on _dummy_thread
+        return ["--experimental-options", "--python.WithThread=true"] + \
+            super(PythonThreadScalingBenchmarkSuite, self).createVmCommandLineArgs(benchmarks, bmSuiteArgs)
+
+    def rules(self, output, benchmarks, bm_suite_args):
+        bench_name = self.get_bench_name(benchmarks)
+        arg = self.get_arg(bench_name)
+        return super(PythonThreadScalingBenchmarkSuite, self).rules(output, benchmarks, bm_suite_args) + \
+            _thread_scaling_rules(self._name, bench_name, arg)
+
+
+class PythonInteropThreadScalingBenchmarkSuite(PythonInteropBenchmarkSuite): # pylint: disable=too-many-ancestors
+    def createCommandLineArgs(self, benchmarks, bmSuiteArgs):
+        # PyThreadScaling builds its own context, which allows experimental options and reads this
+        # polyglot system property
+        return ["-Dpolyglot.python.WithThread=true"] + \
+            super(PythonInteropThreadScalingBenchmarkSuite, self).createCommandLineArgs(benchmarks, bmSuiteArgs)
+
+    def rules(self, output, benchmarks, bm_suite_args):
+        bench_name = self.get_bench_name(benchmarks)
+        arg = self.get_arg(bench_name)
+        return super(PythonInteropThreadScalingBenchmarkSuite, self).rules(output, benchmarks, bm_suite_args) + \
+            _thread_scaling_rules(self._name, bench_name, arg)
+
+
 class PythonParserBenchmarkSuite(PythonBaseBenchmarkSuite): # pylint: disable=too-many-ancestors
 
     def get_vm_registry(self):